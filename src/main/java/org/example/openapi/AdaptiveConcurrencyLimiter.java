@@ -0,0 +1,307 @@
+package org.example.openapi;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.logging.Logger;
+
+/**
+ * ===== ADAPTIVE CONCURRENCY LIMITER =====
+ *
+ * Concurrency limit for calls to one remote service that follows what the service can take,
+ * instead of a fixed permit count. It is AIMD with a latency signal, after Netflix's
+ * concurrency-limits:
+ *
+ * <ul>
+ *   <li>Successes while at least half the limit is in use raise the limit by one per round trip,
+ *       up to the maximum. A limit that is not being used is not raised.</li>
+ *   <li>A dropped call (throttled with HTTP 429, or timed out) halves the limit.</li>
+ *   <li>A success whose smoothed latency has risen above twice the long-term baseline lowers the
+ *       limit by 10%; queueing at the service shows up as latency before it shows up as errors.</li>
+ * </ul>
+ *
+ * The limit is lowered at most once per smoothed round trip, so a burst of calls failing together
+ * for the same overload counts once. Callers acquire a {@link Permit} before the call and report
+ * its outcome on it; callers over the limit wait, and are counted as the queue depth.
+ *
+ * Thread-safe.
+ *
+ * @author Enhanced Test Generation Team
+ * @since 2025.1
+ */
+public final class AdaptiveConcurrencyLimiter {
+
+    private static final Logger LOGGER = Logger.getLogger(AdaptiveConcurrencyLimiter.class.getName());
+
+    private static final double DROP_BACKOFF_RATIO = 0.5;
+    private static final double LATENCY_BACKOFF_RATIO = 0.9;
+    private static final double LATENCY_TOLERANCE = 2.0;
+    // Exponential smoothing weights: recent latency reacts within a few calls, the baseline over ~100
+    private static final double RECENT_RTT_WEIGHT = 0.2;
+    private static final double BASELINE_RTT_WEIGHT = 0.01;
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final LongSupplier nanoClock;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition permitReleased = lock.newCondition();
+
+    // Guarded by lock
+    private double limit;
+    private int inFlight;
+    private int queueDepth;
+    private double recentRttNanos;
+    private double baselineRttNanos;
+    private long lastDecreaseNanos;
+    private long successes;
+    private long drops;
+    private long ignored;
+
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit) {
+        this(name, initialLimit, minLimit, maxLimit, System::nanoTime);
+    }
+
+    /**
+     * @param nanoClock source of {@link System#nanoTime()}-like readings; tests pass their own
+     */
+    AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit, LongSupplier nanoClock) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= min <= initial <= max");
+        }
+        this.name = Objects.requireNonNull(name, "name");
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.nanoClock = Objects.requireNonNull(nanoClock, "nanoClock");
+        this.limit = initialLimit;
+        this.lastDecreaseNanos = nanoClock.getAsLong();
+    }
+
+    // ===== PERMITS =====
+
+    /**
+     * Takes a permit, waiting while the limit is reached but no longer than the context lives.
+     * Report the call's outcome on the permit when it is done.
+     *
+     * @throws CancellationException if the context ends first; no permit is held then
+     */
+    public Permit acquire(CancellationContext context) {
+        context.throwIfCancelled();
+        try (CancellationContext.Registration ignored = context.interruptOnCancel()) {
+            lock.lockInterruptibly();
+            try {
+                queueDepth++;
+                try {
+                    while (inFlight >= (int) limit) {
+                        Duration remaining = context.getRemaining();
+                        if (remaining == null) {
+                            permitReleased.await();
+                        } else if (permitReleased.awaitNanos(remaining.toNanos()) <= 0 && inFlight >= (int) limit) {
+                            context.throwIfCancelled();
+                            throw new CancellationException(context.getName() + ": no " + name + " permit before the deadline");
+                        }
+                    }
+                } finally {
+                    queueDepth--;
+                }
+                inFlight++;
+                return new Permit(inFlight);
+            } finally {
+                lock.unlock();
+            }
+        } catch (InterruptedException e) {
+            if (!context.isCancelled()) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException(context.getName() + ": interrupted");
+            }
+            throw new CancellationException(context.getName() + ": " + context.getCancellationReason());
+        }
+    }
+
+    private void onSuccess(long rttNanos, int inFlightAtStart) {
+        lock.lock();
+        try {
+            release();
+            successes++;
+            recentRttNanos = recentRttNanos == 0 ? rttNanos : recentRttNanos + RECENT_RTT_WEIGHT * (rttNanos - recentRttNanos);
+            baselineRttNanos = baselineRttNanos == 0 ? rttNanos : baselineRttNanos + BASELINE_RTT_WEIGHT * (rttNanos - baselineRttNanos);
+
+            if (recentRttNanos > baselineRttNanos * LATENCY_TOLERANCE) {
+                decrease(LATENCY_BACKOFF_RATIO, "latency rising");
+            } else if (inFlightAtStart * 2 >= limit && limit < maxLimit) {
+                // One step per round trip's worth of successes: about one per limit
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+                permitReleased.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void onDropped() {
+        lock.lock();
+        try {
+            release();
+            drops++;
+            decrease(DROP_BACKOFF_RATIO, "call dropped");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void onIgnore() {
+        lock.lock();
+        try {
+            release();
+            ignored++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Caller holds the lock
+    private void release() {
+        inFlight--;
+        permitReleased.signal();
+    }
+
+    // Caller holds the lock
+    private void decrease(double ratio, String reason) {
+        long now = nanoClock.getAsLong();
+        if (now - lastDecreaseNanos < (long) recentRttNanos) {
+            return;
+        }
+        lastDecreaseNanos = now;
+        double previous = limit;
+        limit = Math.max(minLimit, limit * ratio);
+        if ((int) previous != (int) limit) {
+            LOGGER.fine(() -> name + " concurrency limit " + (int) previous + " -> " + (int) limit + " (" + reason + ")");
+        }
+    }
+
+    // ===== METRICS =====
+
+    public String getName() { return name; }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getQueueDepth() {
+        lock.lock();
+        try {
+            return queueDepth;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Snapshot getSnapshot() {
+        lock.lock();
+        try {
+            return new Snapshot(name, (int) limit, inFlight, queueDepth,
+                    Duration.ofNanos((long) recentRttNanos), Duration.ofNanos((long) baselineRttNanos),
+                    successes, drops, ignored);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Permission for one call. Report exactly one outcome; later reports are ignored.
+     */
+    public final class Permit {
+        private final long startNanos = nanoClock.getAsLong();
+        private final int inFlightAtStart;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(int inFlightAtStart) {
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        /** The call completed; its latency is a sample for the limit. */
+        public void onSuccess() {
+            if (released.compareAndSet(false, true)) {
+                AdaptiveConcurrencyLimiter.this.onSuccess(nanoClock.getAsLong() - startNanos, inFlightAtStart);
+            }
+        }
+
+        /** The service shed the call: throttled or timed out. The limit is lowered. */
+        public void onDropped() {
+            if (released.compareAndSet(false, true)) {
+                AdaptiveConcurrencyLimiter.this.onDropped();
+            }
+        }
+
+        /** The call failed for reasons that say nothing about load; the permit is returned as is. */
+        public void onIgnore() {
+            if (released.compareAndSet(false, true)) {
+                AdaptiveConcurrencyLimiter.this.onIgnore();
+            }
+        }
+    }
+
+    /**
+     * Limiter state at one point in time.
+     */
+    public static final class Snapshot {
+        private final String name;
+        private final int limit;
+        private final int inFlight;
+        private final int queueDepth;
+        private final Duration recentLatency;
+        private final Duration baselineLatency;
+        private final long successes;
+        private final long drops;
+        private final long ignored;
+
+        public Snapshot(String name, int limit, int inFlight, int queueDepth, Duration recentLatency,
+                        Duration baselineLatency, long successes, long drops, long ignored) {
+            this.name = name;
+            this.limit = limit;
+            this.inFlight = inFlight;
+            this.queueDepth = queueDepth;
+            this.recentLatency = recentLatency;
+            this.baselineLatency = baselineLatency;
+            this.successes = successes;
+            this.drops = drops;
+            this.ignored = ignored;
+        }
+
+        public String getName() { return name; }
+        public int getLimit() { return limit; }
+        public int getInFlight() { return inFlight; }
+        public int getQueueDepth() { return queueDepth; }
+        public Duration getRecentLatency() { return recentLatency; }
+        public Duration getBaselineLatency() { return baselineLatency; }
+        public long getSuccesses() { return successes; }
+        public long getDrops() { return drops; }
+        public long getIgnored() { return ignored; }
+
+        @Override
+        public String toString() {
+            return String.format("%s{limit=%d, inFlight=%d, queued=%d, latency=%dms, baseline=%dms, successes=%d, drops=%d, ignored=%d}",
+                    name, limit, inFlight, queueDepth, recentLatency.toMillis(), baselineLatency.toMillis(),
+                    successes, drops, ignored);
+        }
+    }
+}
@@ -0,0 +1,407 @@
+package org.example.openapi;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * ===== AI CIRCUIT BREAKER =====
+ *
+ * Stops calling one AI provider while it is failing, so callers fall back at once instead of each
+ * waiting out the AI timeout. The breaker keeps the outcomes of the last calls in a sliding window
+ * and opens when, over at least {@link Settings#getMinimumCalls()} calls, the share that failed or
+ * the share slower than {@link Settings#getSlowCallThreshold()} reaches its threshold.
+ *
+ * An open breaker rejects every call until {@link Settings#getOpenDuration()} has passed, then
+ * lets a few trial calls through half-open: if all of them succeed in time it closes with an empty
+ * window, and the first failed or slow one opens it again. Calls admitted before a transition are
+ * not counted after it, so a late answer from a call the breaker has already given up on cannot
+ * close it. Calls that end for reasons unrelated to the provider, such as a faster provider
+ * answering first, are ignored.
+ *
+ * Listeners are told of each transition after it has happened, outside the breaker's lock.
+ *
+ * Thread-safe.
+ *
+ * @author Enhanced Test Generation Team
+ * @since 2025.1
+ */
+public final class AiCircuitBreaker {
+
+    private static final Logger LOGGER = Logger.getLogger(AiCircuitBreaker.class.getName());
+
+    private static final byte FAILED = 1;
+    private static final byte SLOW = 2;
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String name;
+    private final Settings settings;
+    private final List<Consumer<Transition>> listeners = new CopyOnWriteArrayList<>();
+    private final LongSupplier nanoClock;
+
+    // Guarded by this
+    private final byte[] window;
+    private int next;
+    private int size;
+    private int failures;
+    private int slowCalls;
+    private State state = State.CLOSED;
+    // Bumped on every transition; permits of an earlier generation are not counted
+    private long generation;
+    private long openUntilNanos;
+    private int trialsStarted;
+    private int trialsSucceeded;
+    private long rejectedCalls;
+    private long openings;
+
+    public AiCircuitBreaker(String name, Settings settings) {
+        this(name, settings, System::nanoTime);
+    }
+
+    /**
+     * @param nanoClock source of {@link System#nanoTime()}-like readings; tests pass their own
+     */
+    AiCircuitBreaker(String name, Settings settings, LongSupplier nanoClock) {
+        this.name = Objects.requireNonNull(name, "name");
+        this.settings = Objects.requireNonNull(settings, "settings");
+        this.nanoClock = Objects.requireNonNull(nanoClock, "nanoClock");
+        this.window = new byte[settings.getWindowSize()];
+    }
+
+    public void addListener(Consumer<Transition> listener) {
+        listeners.add(Objects.requireNonNull(listener, "listener"));
+    }
+
+    // ===== ADMISSION =====
+
+    /**
+     * Admits one call, or returns null while the breaker is open or its half-open trials are
+     * taken. An admitted call must report its outcome on the permit.
+     */
+    public Permit tryAcquire() {
+        Transition transition = null;
+        Permit permit;
+        synchronized (this) {
+            if (state == State.OPEN && nanoClock.getAsLong() - openUntilNanos >= 0) {
+                transition = transition(State.HALF_OPEN, "open for " + settings.getOpenDuration().toMillis() + "ms");
+            }
+            if (state == State.OPEN || (state == State.HALF_OPEN && trialsStarted >= settings.getHalfOpenCalls())) {
+                rejectedCalls++;
+                permit = null;
+            } else {
+                if (state == State.HALF_OPEN) {
+                    trialsStarted++;
+                }
+                permit = new Permit(generation, state == State.HALF_OPEN);
+            }
+        }
+        publish(transition);
+        return permit;
+    }
+
+    /**
+     * Whether {@link #tryAcquire()} would admit a call now, without taking a trial.
+     */
+    public synchronized boolean isCallPermitted() {
+        switch (state) {
+            case OPEN:
+                return nanoClock.getAsLong() - openUntilNanos >= 0;
+            case HALF_OPEN:
+                return trialsStarted < settings.getHalfOpenCalls();
+            default:
+                return true;
+        }
+    }
+
+    private void complete(Permit permit, boolean failed, long latencyNanos) {
+        boolean slow = latencyNanos >= settings.getSlowCallThreshold().toNanos();
+        Transition transition = null;
+        synchronized (this) {
+            if (permit.generation != generation) {
+                return;
+            }
+            if (state == State.HALF_OPEN) {
+                if (failed || slow) {
+                    transition = open("trial call " + (failed ? "failed" : "took " + TimeUnit.NANOSECONDS.toMillis(latencyNanos) + "ms"));
+                } else if (++trialsSucceeded >= settings.getHalfOpenCalls()) {
+                    transition = transition(State.CLOSED, trialsSucceeded + " trial calls succeeded");
+                }
+            } else if (state == State.CLOSED) {
+                record((byte) ((failed ? FAILED : 0) | (slow ? SLOW : 0)));
+                if (size >= settings.getMinimumCalls()) {
+                    double failureRate = (double) failures / size;
+                    double slowCallRate = (double) slowCalls / size;
+                    if (failureRate >= settings.getFailureRateThreshold()) {
+                        transition = open(String.format("%.0f%% of the last %d calls failed", failureRate * 100, size));
+                    } else if (slowCallRate >= settings.getSlowCallRateThreshold()) {
+                        transition = open(String.format("%.0f%% of the last %d calls took over %dms",
+                                slowCallRate * 100, size, settings.getSlowCallThreshold().toMillis()));
+                    }
+                }
+            }
+        }
+        publish(transition);
+    }
+
+    private synchronized void release(Permit permit) {
+        // An ignored trial frees its place for another
+        if (permit.trial && permit.generation == generation && state == State.HALF_OPEN) {
+            trialsStarted--;
+        }
+    }
+
+    // Caller holds the lock
+    private void record(byte outcome) {
+        if (size == window.length) {
+            byte evicted = window[next];
+            failures -= evicted & FAILED;
+            slowCalls -= (evicted & SLOW) >> 1;
+        } else {
+            size++;
+        }
+        window[next] = outcome;
+        next = (next + 1) % window.length;
+        failures += outcome & FAILED;
+        slowCalls += (outcome & SLOW) >> 1;
+    }
+
+    // Caller holds the lock
+    private Transition open(String reason) {
+        openUntilNanos = nanoClock.getAsLong() + settings.getOpenDuration().toNanos();
+        openings++;
+        return transition(State.OPEN, reason);
+    }
+
+    // Caller holds the lock
+    private Transition transition(State to, String reason) {
+        Transition transition = new Transition(name, state, to, reason, rate(failures), rate(slowCalls), Instant.now());
+        state = to;
+        generation++;
+        trialsStarted = 0;
+        trialsSucceeded = 0;
+        if (to != State.OPEN) {
+            // Half-open and closed both judge the provider afresh
+            next = 0;
+            size = 0;
+            failures = 0;
+            slowCalls = 0;
+        }
+        return transition;
+    }
+
+    private double rate(int count) {
+        return size > 0 ? (double) count / size : 0.0;
+    }
+
+    private void publish(Transition transition) {
+        if (transition == null) {
+            return;
+        }
+        LOGGER.log(transition.getTo() == State.OPEN ? Level.WARNING : Level.INFO, transition::toString);
+        for (Consumer<Transition> listener : listeners) {
+            try {
+                listener.accept(transition);
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Circuit breaker listener failed for " + name, e);
+            }
+        }
+    }
+
+    // ===== METRICS =====
+
+    public String getName() { return name; }
+    public Settings getSettings() { return settings; }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized Snapshot getSnapshot() {
+        return new Snapshot(name, state, size, rate(failures), rate(slowCalls), rejectedCalls, openings);
+    }
+
+    /**
+     * One admitted call. Only the first of {@link #onSuccess(long)}, {@link #onFailure(long)} and
+     * {@link #onIgnore()} takes effect.
+     */
+    public final class Permit {
+        private final long generation;
+        private final boolean trial;
+        private final AtomicBoolean settled = new AtomicBoolean();
+
+        private Permit(long generation, boolean trial) {
+            this.generation = generation;
+            this.trial = trial;
+        }
+
+        /** The provider answered after {@code latencyNanos}; a slow answer still counts as slow. */
+        public void onSuccess(long latencyNanos) {
+            if (settled.compareAndSet(false, true)) {
+                complete(this, false, latencyNanos);
+            }
+        }
+
+        /** The provider failed, was throttled or timed out after {@code latencyNanos}. */
+        public void onFailure(long latencyNanos) {
+            if (settled.compareAndSet(false, true)) {
+                complete(this, true, latencyNanos);
+            }
+        }
+
+        /** The call ended for reasons that say nothing about the provider, or was never made. */
+        public void onIgnore() {
+            if (settled.compareAndSet(false, true)) {
+                release(this);
+            }
+        }
+    }
+
+    /**
+     * When a breaker opens and how it recovers.
+     */
+    public static final class Settings {
+        public static final Settings DEFAULT = new Settings(50, 10, 0.5, Duration.ofSeconds(20), 0.8,
+                Duration.ofSeconds(30), 3);
+
+        private final int windowSize;
+        private final int minimumCalls;
+        private final double failureRateThreshold;
+        private final Duration slowCallThreshold;
+        private final double slowCallRateThreshold;
+        private final Duration openDuration;
+        private final int halfOpenCalls;
+
+        /**
+         * @param windowSize calls the failure and slow-call rates are taken over
+         * @param minimumCalls calls needed in the window before the breaker can open
+         * @param failureRateThreshold share of failed calls, in (0, 1], that opens the breaker
+         * @param slowCallThreshold latency at which a call counts as slow
+         * @param slowCallRateThreshold share of slow calls, in (0, 1], that opens the breaker
+         * @param openDuration how long an open breaker rejects calls before trying again
+         * @param halfOpenCalls trial calls that must all succeed to close the breaker again
+         */
+        public Settings(int windowSize, int minimumCalls, double failureRateThreshold, Duration slowCallThreshold,
+                        double slowCallRateThreshold, Duration openDuration, int halfOpenCalls) {
+            if (windowSize <= 0 || minimumCalls <= 0 || minimumCalls > windowSize) {
+                throw new IllegalArgumentException("Circuit breaker needs a positive window of at least its minimum calls");
+            }
+            if (!(failureRateThreshold > 0 && failureRateThreshold <= 1)
+                    || !(slowCallRateThreshold > 0 && slowCallRateThreshold <= 1)) {
+                throw new IllegalArgumentException("Circuit breaker thresholds must be in (0, 1]");
+            }
+            if (slowCallThreshold == null || slowCallThreshold.isNegative() || slowCallThreshold.isZero()
+                    || openDuration == null || openDuration.isNegative() || openDuration.isZero()) {
+                throw new IllegalArgumentException("Circuit breaker durations must be positive");
+            }
+            if (halfOpenCalls <= 0) {
+                throw new IllegalArgumentException("Circuit breaker needs at least one trial call");
+            }
+            this.windowSize = windowSize;
+            this.minimumCalls = minimumCalls;
+            this.failureRateThreshold = failureRateThreshold;
+            this.slowCallThreshold = slowCallThreshold;
+            this.slowCallRateThreshold = slowCallRateThreshold;
+            this.openDuration = openDuration;
+            this.halfOpenCalls = halfOpenCalls;
+        }
+
+        public int getWindowSize() { return windowSize; }
+        public int getMinimumCalls() { return minimumCalls; }
+        public double getFailureRateThreshold() { return failureRateThreshold; }
+        public Duration getSlowCallThreshold() { return slowCallThreshold; }
+        public double getSlowCallRateThreshold() { return slowCallRateThreshold; }
+        public Duration getOpenDuration() { return openDuration; }
+        public int getHalfOpenCalls() { return halfOpenCalls; }
+
+        @Override
+        public String toString() {
+            return String.format("window=%d, minimumCalls=%d, failureRate=%.0f%%, slowCall=%dms at %.0f%%, open=%dms, trials=%d",
+                    windowSize, minimumCalls, failureRateThreshold * 100, slowCallThreshold.toMillis(),
+                    slowCallRateThreshold * 100, openDuration.toMillis(), halfOpenCalls);
+        }
+    }
+
+    /**
+     * A change of state, with the window's rates when it happened.
+     */
+    public static final class Transition {
+        private final String name;
+        private final State from;
+        private final State to;
+        private final String reason;
+        private final double failureRate;
+        private final double slowCallRate;
+        private final Instant timestamp;
+
+        public Transition(String name, State from, State to, String reason, double failureRate,
+                          double slowCallRate, Instant timestamp) {
+            this.name = name;
+            this.from = from;
+            this.to = to;
+            this.reason = reason;
+            this.failureRate = failureRate;
+            this.slowCallRate = slowCallRate;
+            this.timestamp = timestamp;
+        }
+
+        public String getName() { return name; }
+        public State getFrom() { return from; }
+        public State getTo() { return to; }
+        public String getReason() { return reason; }
+        public double getFailureRate() { return failureRate; }
+        public double getSlowCallRate() { return slowCallRate; }
+        public Instant getTimestamp() { return timestamp; }
+
+        @Override
+        public String toString() {
+            return String.format("%s circuit %s -> %s: %s", name, from, to, reason);
+        }
+    }
+
+    /**
+     * Breaker state at one point in time.
+     */
+    public static final class Snapshot {
+        private final String name;
+        private final State state;
+        private final int bufferedCalls;
+        private final double failureRate;
+        private final double slowCallRate;
+        private final long rejectedCalls;
+        private final long openings;
+
+        public Snapshot(String name, State state, int bufferedCalls, double failureRate, double slowCallRate,
+                        long rejectedCalls, long openings) {
+            this.name = name;
+            this.state = state;
+            this.bufferedCalls = bufferedCalls;
+            this.failureRate = failureRate;
+            this.slowCallRate = slowCallRate;
+            this.rejectedCalls = rejectedCalls;
+            this.openings = openings;
+        }
+
+        public String getName() { return name; }
+        public State getState() { return state; }
+        public int getBufferedCalls() { return bufferedCalls; }
+        public double getFailureRate() { return failureRate; }
+        public double getSlowCallRate() { return slowCallRate; }
+        public long getRejectedCalls() { return rejectedCalls; }
+        public long getOpenings() { return openings; }
+
+        @Override
+        public String toString() {
+            return String.format("%s{state=%s, calls=%d, failureRate=%.0f%%, slowCallRate=%.0f%%, rejected=%d, openings=%d}",
+                    name, state, bufferedCalls, failureRate * 100, slowCallRate * 100, rejectedCalls, openings);
+        }
+    }
+}
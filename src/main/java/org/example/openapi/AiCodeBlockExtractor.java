@@ -0,0 +1,179 @@
+package org.example.openapi;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * ===== AI CODE BLOCK EXTRACTOR =====
+ *
+ * Splits an AI response into its fenced code blocks while the response is still arriving. Text is
+ * fed in pieces as it streams in, and each block is handed to the consumer as soon as its closing
+ * fence arrives, so whatever is done with a generated test overlaps with the generation of the
+ * next one. Prose outside the fences is dropped.
+ *
+ * A response that has no fences at all is taken as code in its entirety, as the system prompt asks
+ * for bare test code. A block still open when the response ends is kept if the response completed
+ * and dropped if it was cut off, since a truncated test would not compile.
+ *
+ * Thread-safe: text may be fed from the thread reading the stream while another thread finishes
+ * the extractor; text arriving after {@link #finish(boolean)} is ignored.
+ *
+ * @author Enhanced Test Generation Team
+ * @since 2025.1
+ */
+public final class AiCodeBlockExtractor {
+
+    private static final String FENCE = "```";
+
+    private final Consumer<String> onBlock;
+
+    // Guarded by this
+    private final StringBuilder pendingLine = new StringBuilder();
+    private final StringBuilder block = new StringBuilder();
+    private final StringBuilder outside = new StringBuilder();
+    private boolean inBlock;
+    private boolean sawFence;
+    private boolean finished;
+    private int blockCount;
+
+    public AiCodeBlockExtractor(Consumer<String> onBlock) {
+        this.onBlock = Objects.requireNonNull(onBlock, "onBlock");
+    }
+
+    /**
+     * Code blocks of a complete response, in order.
+     */
+    public static List<String> extract(String response) {
+        List<String> blocks = new ArrayList<>();
+        AiCodeBlockExtractor extractor = new AiCodeBlockExtractor(blocks::add);
+        extractor.accept(response);
+        extractor.finish(true);
+        return blocks;
+    }
+
+    /**
+     * Feeds the next piece of the response; blocks it completes are handed over before this returns.
+     */
+    public void accept(CharSequence text) {
+        if (text == null) {
+            return;
+        }
+        List<String> completed = new ArrayList<>();
+        synchronized (this) {
+            if (finished) {
+                return;
+            }
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c == '\n') {
+                    line(pendingLine.toString(), completed);
+                    pendingLine.setLength(0);
+                } else if (c != '\r') {
+                    pendingLine.append(c);
+                }
+            }
+        }
+        // Outside the lock: the consumer may be slow, and must not hold up a concurrent finish()
+        completed.forEach(onBlock);
+    }
+
+    /**
+     * Ends the response. With {@code complete} false the response was cut off, and a block still
+     * open is dropped. Later calls have no effect.
+     */
+    public void finish(boolean complete) {
+        List<String> completed = new ArrayList<>();
+        synchronized (this) {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            if (pendingLine.length() > 0) {
+                line(pendingLine.toString(), completed);
+                pendingLine.setLength(0);
+            }
+            if (complete && inBlock) {
+                emit(block, completed);
+            } else if (complete && !sawFence) {
+                emit(outside, completed);
+            }
+        }
+        completed.forEach(onBlock);
+    }
+
+    public synchronized int getBlockCount() {
+        return blockCount;
+    }
+
+    /**
+     * Whether parentheses, braces and brackets outside literals and comments pair up; a cheap check
+     * that a block is whole code rather than a fragment.
+     */
+    public static boolean hasBalancedDelimiters(String code) {
+        StringBuilder open = new StringBuilder();
+        char quote = 0;
+        for (int i = 0; i < code.length(); i++) {
+            char c = code.charAt(i);
+            if (quote == 0 && c == '/' && i + 1 < code.length() && code.charAt(i + 1) == '/') {
+                int end = code.indexOf('\n', i);
+                i = end < 0 ? code.length() : end;
+                continue;
+            }
+            if (quote == 0 && c == '/' && i + 1 < code.length() && code.charAt(i + 1) == '*') {
+                int end = code.indexOf("*/", i + 2);
+                i = end < 0 ? code.length() : end + 1;
+                continue;
+            }
+            if (quote != 0) {
+                if (c == '\\') {
+                    i++;
+                } else if (c == quote) {
+                    quote = 0;
+                }
+                continue;
+            }
+            switch (c) {
+                case '"', '\'' -> quote = c;
+                case '(' -> open.append(')');
+                case '{' -> open.append('}');
+                case '[' -> open.append(']');
+                case ')', '}', ']' -> {
+                    if (open.length() == 0 || open.charAt(open.length() - 1) != c) {
+                        return false;
+                    }
+                    open.setLength(open.length() - 1);
+                }
+                default -> { }
+            }
+        }
+        return open.length() == 0 && quote == 0;
+    }
+
+    // Caller holds the lock
+    private void line(String line, List<String> completed) {
+        if (line.trim().startsWith(FENCE)) {
+            sawFence = true;
+            if (inBlock) {
+                emit(block, completed);
+            }
+            // An opening fence may name the language; it is not needed
+            inBlock = !inBlock;
+        } else if (inBlock) {
+            block.append(line).append('\n');
+        } else if (!sawFence) {
+            outside.append(line).append('\n');
+        }
+    }
+
+    // Caller holds the lock
+    private void emit(StringBuilder text, List<String> completed) {
+        String code = text.toString().strip();
+        text.setLength(0);
+        if (!code.isEmpty()) {
+            blockCount++;
+            completed.add(code);
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package org.example.openapi;
+
+import io.github.cdimascio.dotenv.Dotenv;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * ===== AI HTTP CLIENTS =====
+ *
+ * The HTTP layer every AI adapter sends its requests through: one connection pool and one
+ * dispatcher, shared by all providers and all builders of a {@link SharedRuntime}, and the
+ * providers' credentials, read once. Clients for a particular adapter are derived from the shared
+ * one, so they differ in timeouts and interceptors but reuse its connections.
+ *
+ * Idle connections are kept for {@value #KEEP_ALIVE_MINUTES} minutes, long enough to outlast the
+ * pauses between a run's AI calls, so connection setup and the TLS handshake are paid once per
+ * connection rather than once per request. HTTP/2 is negotiated where the server offers it, which
+ * lets concurrent calls to one provider share a single connection; HTTP/1.1 servers get one
+ * connection per concurrent call, up to {@value #MAX_IDLE_CONNECTIONS} of them kept idle.
+ * {@link #prewarm(String)} opens the first connection to a provider before its first call needs it.
+ *
+ * The adapters send their calls synchronously, which the dispatcher's limits do not apply to; how
+ * many calls run at once is bounded by the callers' concurrency limiters alone. Asynchronous
+ * calls, should any be made, run on the runtime's I/O executor.
+ *
+ * Thread-safe.
+ *
+ * @author Enhanced Test Generation Team
+ * @since 2025.1
+ */
+public final class AiHttpClients implements AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(AiHttpClients.class.getName());
+
+    private static final int MAX_IDLE_CONNECTIONS = 64;
+    private static final int KEEP_ALIVE_MINUTES = 5;
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
+    private static final Duration WRITE_TIMEOUT = Duration.ofSeconds(30);
+    private static final Duration DEFAULT_READ_TIMEOUT = Duration.ofSeconds(30);
+    // Keeps idle HTTP/2 connections from being dropped silently by proxies between calls
+    private static final Duration HTTP2_PING_INTERVAL = Duration.ofSeconds(30);
+    private static final List<Protocol> PROTOCOLS = List.of(Protocol.HTTP_2, Protocol.HTTP_1_1);
+
+    private final ExecutorService executor;
+    private final ConnectionPool connectionPool;
+    private final Dispatcher dispatcher;
+    private final OkHttpClient client;
+    private final Set<String> prewarmed = ConcurrentHashMap.newKeySet();
+    private volatile Credentials credentials;
+
+    /**
+     * @param executor runs asynchronous calls and connection warm-ups; owned by the caller
+     */
+    public AiHttpClients(ExecutorService executor) {
+        this.executor = Objects.requireNonNull(executor, "executor");
+        this.connectionPool = new ConnectionPool(MAX_IDLE_CONNECTIONS, KEEP_ALIVE_MINUTES, TimeUnit.MINUTES);
+        this.dispatcher = new Dispatcher(executor);
+        this.client = share(new OkHttpClient.Builder().readTimeout(DEFAULT_READ_TIMEOUT));
+    }
+
+    // ===== CLIENTS =====
+
+    /**
+     * Client on the shared connections that waits up to {@code readTimeout} between reads.
+     */
+    public OkHttpClient client(Duration readTimeout) {
+        return client.newBuilder().readTimeout(readTimeout).build();
+    }
+
+    /**
+     * Moves a client built elsewhere, such as a library's default client, onto the shared
+     * connections, keeping its interceptors and timeouts.
+     */
+    public OkHttpClient share(OkHttpClient other) {
+        return share(other.newBuilder());
+    }
+
+    private OkHttpClient share(OkHttpClient.Builder builder) {
+        return builder
+                .connectionPool(connectionPool)
+                .dispatcher(dispatcher)
+                .protocols(PROTOCOLS)
+                .connectTimeout(CONNECT_TIMEOUT)
+                .writeTimeout(WRITE_TIMEOUT)
+                .pingInterval(HTTP2_PING_INTERVAL)
+                .retryOnConnectionFailure(true)
+                .build();
+    }
+
+    /**
+     * Opens a connection to {@code baseUrl} in the background, once per URL, so the first AI call
+     * finds it ready. The connection is opened by an unauthenticated {@code HEAD} request, so only
+     * URLs the caller is about to call should be passed. Failures are ignored; the call then
+     * connects as it would have anyway.
+     */
+    public void prewarm(String baseUrl) {
+        if (baseUrl == null || !prewarmed.add(baseUrl)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                Request request = new Request.Builder().url(baseUrl).head().build();
+                try (Response ignored = client.newCall(request).execute()) {
+                    LOGGER.fine(() -> "Connection to " + baseUrl + " ready");
+                } catch (Exception e) {
+                    LOGGER.log(Level.FINE, "Could not prewarm a connection to " + baseUrl, e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Shutting down; there is nothing left to warm up for
+            prewarmed.remove(baseUrl);
+        }
+    }
+
+    // ===== CREDENTIALS =====
+
+    /**
+     * Provider credentials from the {@code .env} file and the environment, read on first use and
+     * kept for the life of the runtime.
+     */
+    public Credentials getCredentials() {
+        Credentials loaded = credentials;
+        if (loaded == null) {
+            synchronized (this) {
+                loaded = credentials;
+                if (loaded == null) {
+                    loaded = new Credentials(Dotenv.configure().ignoreIfMissing().load());
+                    credentials = loaded;
+                }
+            }
+        }
+        return loaded;
+    }
+
+    // ===== LIFECYCLE AND METRICS =====
+
+    public Snapshot getSnapshot() {
+        return new Snapshot(connectionPool.connectionCount(), connectionPool.idleConnectionCount(),
+                dispatcher.runningCallsCount(), dispatcher.queuedCallsCount());
+    }
+
+    /**
+     * Closes the idle connections. Calls still running keep theirs until they finish.
+     */
+    @Override
+    public void close() {
+        connectionPool.evictAll();
+    }
+
+    /**
+     * Values read from the {@code .env} file, falling back to the environment.
+     */
+    public static final class Credentials {
+        public static final String OPENAI_API_KEY = "OPENAI_API_KEY";
+        public static final String OPENAI_BASE_URL = "OPENAI_BASE_URL";
+
+        private final Dotenv dotenv;
+
+        private Credentials(Dotenv dotenv) {
+            this.dotenv = dotenv;
+        }
+
+        /**
+         * The value of {@code name}, or null when it is unset or blank.
+         */
+        public String get(String name) {
+            String value = dotenv.get(name);
+            return value == null || value.isBlank() ? null : value.trim();
+        }
+    }
+
+    /**
+     * Connections and calls at one point in time.
+     */
+    public static final class Snapshot {
+        private final int connections;
+        private final int idleConnections;
+        private final int runningCalls;
+        private final int queuedCalls;
+
+        public Snapshot(int connections, int idleConnections, int runningCalls, int queuedCalls) {
+            this.connections = connections;
+            this.idleConnections = idleConnections;
+            this.runningCalls = runningCalls;
+            this.queuedCalls = queuedCalls;
+        }
+
+        public int getConnections() { return connections; }
+        public int getIdleConnections() { return idleConnections; }
+        public int getRunningCalls() { return runningCalls; }
+        public int getQueuedCalls() { return queuedCalls; }
+
+        @Override
+        public String toString() {
+            return String.format("AI HTTP{connections=%d, idle=%d, running=%d, queued=%d}",
+                    connections, idleConnections, runningCalls, queuedCalls);
+        }
+    }
+}
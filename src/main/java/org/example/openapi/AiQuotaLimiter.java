@@ -0,0 +1,255 @@
+package org.example.openapi;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+import java.util.logging.Logger;
+
+/**
+ * ===== AI QUOTA LIMITER =====
+ *
+ * Keeps calls to one AI provider under its requests-per-minute and tokens-per-minute quotas with
+ * two token buckets, one per quota. Each bucket holds up to a minute's quota and refills
+ * continuously; a call takes one request and its estimated tokens, and waits until both buckets
+ * can cover it. Buckets are sized at {@value #QUOTA_HEADROOM_PERCENT}% of the quota, so
+ * estimation error and clock skew against the provider's own window stay under the limit.
+ *
+ * A call may overdraw the buckets; it then waits until the refill has paid the debt, and later
+ * calls queue behind it in arrival order. Callers reserve the prompt plus the completion tokens they
+ * ask for, which is what providers count against the quota when the call arrives; once the call
+ * returns, usage beyond the reservation is charged as well. A 429 from the provider
+ * means its window disagrees with ours, so both buckets are emptied and callers wait for the refill
+ * rather than adding to a storm of rejected calls.
+ *
+ * Thread-safe.
+ *
+ * @author Enhanced Test Generation Team
+ * @since 2025.1
+ */
+public final class AiQuotaLimiter {
+
+    private static final Logger LOGGER = Logger.getLogger(AiQuotaLimiter.class.getName());
+
+    private static final int QUOTA_HEADROOM_PERCENT = 95;
+    private static final double NANOS_PER_MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+    private final String name;
+    private final Quota quota;
+    private final double requestCapacity;
+    private final double tokenCapacity;
+    private final double requestsPerNano;
+    private final double tokensPerNano;
+    private final LongSupplier nanoClock;
+
+    // Guarded by this
+    private double requestBalance;
+    private double tokenBalance;
+    private long lastRefillNanos;
+    private long waits;
+    private long waitedNanos;
+    private long throttles;
+
+    public AiQuotaLimiter(String name, Quota quota) {
+        this(name, quota, System::nanoTime);
+    }
+
+    /**
+     * @param nanoClock source of {@link System#nanoTime()}-like readings; tests pass their own
+     */
+    AiQuotaLimiter(String name, Quota quota, LongSupplier nanoClock) {
+        this.name = Objects.requireNonNull(name, "name");
+        this.quota = Objects.requireNonNull(quota, "quota");
+        this.requestCapacity = Math.max(1.0, quota.getRequestsPerMinute() * QUOTA_HEADROOM_PERCENT / 100.0);
+        this.tokenCapacity = Math.max(1.0, quota.getTokensPerMinute() * QUOTA_HEADROOM_PERCENT / 100.0);
+        this.requestsPerNano = requestCapacity / NANOS_PER_MINUTE;
+        this.tokensPerNano = tokenCapacity / NANOS_PER_MINUTE;
+        this.requestBalance = requestCapacity;
+        this.tokenBalance = tokenCapacity;
+        this.nanoClock = Objects.requireNonNull(nanoClock, "nanoClock");
+        this.lastRefillNanos = nanoClock.getAsLong();
+    }
+
+    // ===== RESERVATIONS =====
+
+    /**
+     * Reserves one request and {@code estimatedTokens}, waiting until the quota covers them. A call
+     * larger than a minute's token quota is charged a full minute's quota.
+     *
+     * @throws CancellationException if the context ends first, or would end before the quota
+     *         covers the call; nothing stays reserved then
+     */
+    public Reservation acquire(CancellationContext context, long estimatedTokens) {
+        context.throwIfCancelled();
+        double tokens = Math.min(Math.max(0, estimatedTokens), tokenCapacity);
+        long waitNanos;
+        synchronized (this) {
+            refill();
+            requestBalance -= 1;
+            tokenBalance -= tokens;
+            waitNanos = (long) Math.max(Math.max(0, -requestBalance) / requestsPerNano,
+                    Math.max(0, -tokenBalance) / tokensPerNano);
+            if (waitNanos > 0) {
+                waits++;
+                waitedNanos += waitNanos;
+            }
+        }
+
+        Reservation reservation = new Reservation((long) tokens);
+        if (waitNanos == 0) {
+            return reservation;
+        }
+
+        Duration remaining = context.getRemaining();
+        if (remaining != null && remaining.toNanos() < waitNanos) {
+            reservation.cancel();
+            throw new CancellationException(context.getName() + ": " + name + " quota frees up in "
+                    + TimeUnit.NANOSECONDS.toMillis(waitNanos) + "ms, after the deadline");
+        }
+        try (CancellationContext.Registration ignored = context.interruptOnCancel()) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        } catch (InterruptedException e) {
+            reservation.cancel();
+            if (!context.isCancelled()) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException(context.getName() + ": interrupted");
+            }
+            throw new CancellationException(context.getName() + ": " + context.getCancellationReason());
+        }
+        return reservation;
+    }
+
+    /**
+     * The provider rejected a call with HTTP 429: its window is fuller than ours, so nothing more
+     * is sent until the buckets refill.
+     */
+    public synchronized void onThrottled() {
+        refill();
+        requestBalance = Math.min(requestBalance, 0);
+        tokenBalance = Math.min(tokenBalance, 0);
+        throttles++;
+        LOGGER.fine(() -> name + " throttled by the provider; waiting for the quota to refill");
+    }
+
+    private synchronized void adjust(double requests, double tokens) {
+        refill();
+        requestBalance = Math.min(requestCapacity, requestBalance + requests);
+        tokenBalance = Math.min(tokenCapacity, tokenBalance + tokens);
+    }
+
+    // Caller holds the lock
+    private void refill() {
+        long now = nanoClock.getAsLong();
+        long elapsed = now - lastRefillNanos;
+        lastRefillNanos = now;
+        requestBalance = Math.min(requestCapacity, requestBalance + elapsed * requestsPerNano);
+        tokenBalance = Math.min(tokenCapacity, tokenBalance + elapsed * tokensPerNano);
+    }
+
+    // ===== METRICS =====
+
+    public String getName() { return name; }
+    public Quota getQuota() { return quota; }
+
+    public synchronized Snapshot getSnapshot() {
+        refill();
+        return new Snapshot(name, quota, (long) requestBalance, (long) tokenBalance, waits,
+                Duration.ofNanos(waitedNanos), throttles);
+    }
+
+    /**
+     * Requests and tokens held for one call until it is reconciled or cancelled. Only the first
+     * of {@link #reconcile(long)} and {@link #cancel()} takes effect.
+     */
+    public final class Reservation {
+        private final long reservedTokens;
+        private final AtomicBoolean settled = new AtomicBoolean();
+
+        private Reservation(long reservedTokens) {
+            this.reservedTokens = reservedTokens;
+        }
+
+        public long getReservedTokens() { return reservedTokens; }
+
+        /**
+         * The call was made and used {@code actualTokens}. Usage beyond the reservation is charged;
+         * usage below it is not refunded, as the provider counted the reservation's size.
+         */
+        public void reconcile(long actualTokens) {
+            if (settled.compareAndSet(false, true) && actualTokens > reservedTokens) {
+                adjust(0, reservedTokens - Math.min(actualTokens, (long) tokenCapacity));
+            }
+        }
+
+        /** The call was not made; the request and tokens are returned. */
+        public void cancel() {
+            if (settled.compareAndSet(false, true)) {
+                adjust(1, reservedTokens);
+            }
+        }
+    }
+
+    /**
+     * A provider's quota: requests and tokens per minute.
+     */
+    public static final class Quota {
+        private final int requestsPerMinute;
+        private final long tokensPerMinute;
+
+        public Quota(int requestsPerMinute, long tokensPerMinute) {
+            if (requestsPerMinute <= 0 || tokensPerMinute <= 0) {
+                throw new IllegalArgumentException("Quota must be positive");
+            }
+            this.requestsPerMinute = requestsPerMinute;
+            this.tokensPerMinute = tokensPerMinute;
+        }
+
+        public int getRequestsPerMinute() { return requestsPerMinute; }
+        public long getTokensPerMinute() { return tokensPerMinute; }
+
+        @Override
+        public String toString() {
+            return requestsPerMinute + " RPM / " + tokensPerMinute + " TPM";
+        }
+    }
+
+    /**
+     * Limiter state at one point in time; negative balances are debt being waited out.
+     */
+    public static final class Snapshot {
+        private final String name;
+        private final Quota quota;
+        private final long availableRequests;
+        private final long availableTokens;
+        private final long waits;
+        private final Duration waited;
+        private final long throttles;
+
+        public Snapshot(String name, Quota quota, long availableRequests, long availableTokens,
+                        long waits, Duration waited, long throttles) {
+            this.name = name;
+            this.quota = quota;
+            this.availableRequests = availableRequests;
+            this.availableTokens = availableTokens;
+            this.waits = waits;
+            this.waited = waited;
+            this.throttles = throttles;
+        }
+
+        public String getName() { return name; }
+        public Quota getQuota() { return quota; }
+        public long getAvailableRequests() { return availableRequests; }
+        public long getAvailableTokens() { return availableTokens; }
+        public long getWaits() { return waits; }
+        public Duration getWaited() { return waited; }
+        public long getThrottles() { return throttles; }
+
+        @Override
+        public String toString() {
+            return String.format("%s{quota=%s, availableRequests=%d, availableTokens=%d, waits=%d, waited=%dms, throttles=%d}",
+                    name, quota, availableRequests, availableTokens, waits, waited.toMillis(), throttles);
+        }
+    }
+}
@@ -0,0 +1,398 @@
+package org.example.openapi;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * ===== AI RESPONSE CACHE =====
+ *
+ * Persistent, content-addressed store of AI provider responses, so a rerun over an unchanged spec
+ * reuses the responses of the previous run instead of paying for them again. An entry is addressed
+ * by the SHA-256 of everything that decides the response: provider, model, prompt, max tokens and
+ * temperature. Changing any of them addresses a different entry; nothing has to be invalidated.
+ *
+ * Entries live in {@code <directory>/<first two hex digits>/<key>.entry}, each holding a header
+ * ({@code magic, format version, creation time, key}) and the response text. They are written to a
+ * temporary file and moved into place, so readers and concurrent runs sharing the directory never
+ * see a partial entry. An entry older than the TTL is a miss and is deleted when found. When the
+ * entries exceed {@code maxBytes}, the least recently used are deleted until they fit again; reads
+ * refresh an entry's modification time, so recency carries over to later runs.
+ *
+ * The cache is best-effort: an unreadable or corrupt entry is a miss, and a failed write is logged
+ * and dropped. It never fails the generation that uses it.
+ *
+ * Thread-safe.
+ *
+ * @author Enhanced Test Generation Team
+ * @since 2025.1
+ */
+public final class AiResponseCache {
+
+    private static final Logger LOGGER = Logger.getLogger(AiResponseCache.class.getName());
+
+    private static final int MAGIC = 0x4F544143; // "OTAC"
+    private static final int FORMAT_VERSION = 1;
+    private static final String ENTRY_SUFFIX = ".entry";
+    private static final int MAX_ENTRY_SIZE = 16 * 1024 * 1024;
+    // Eviction frees down to this share of the budget, so a full cache does not evict on every store
+    private static final double EVICTION_LOW_WATER_MARK = 0.9;
+
+    public static final Duration DEFAULT_TTL = Duration.ofDays(7);
+    public static final long DEFAULT_MAX_BYTES = 256L * 1024 * 1024;
+
+    private final Path directory;
+    private final long ttlMillis;
+    private final long maxBytes;
+
+    // Size and last use of every entry on disk, loaded once when the cache is opened
+    private final Map<String, EntryInfo> index = new ConcurrentHashMap<>();
+    private final AtomicLong totalBytes = new AtomicLong();
+    private final Object evictionLock = new Object();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong stores = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    private AiResponseCache(Path directory, Duration ttl, long maxBytes) throws IOException {
+        if (ttl == null || ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("TTL must be positive");
+        }
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("Maximum cache size must be positive");
+        }
+        this.directory = directory.toAbsolutePath();
+        this.ttlMillis = ttl.toMillis();
+        this.maxBytes = maxBytes;
+
+        Files.createDirectories(this.directory);
+        loadIndex();
+        evictIfNeeded();
+    }
+
+    /**
+     * Opens the cache in {@code directory}, creating it if needed, and indexes the entries already
+     * there.
+     *
+     * @throws IOException if the directory cannot be created or listed
+     */
+    public static AiResponseCache open(Path directory, Duration ttl, long maxBytes) throws IOException {
+        AiResponseCache cache = new AiResponseCache(Objects.requireNonNull(directory, "directory"), ttl, maxBytes);
+        LOGGER.info("AI response cache opened at " + cache.directory + " with " + cache.index.size()
+                + " entries (" + cache.totalBytes.get() / 1024 + " KB)");
+        return cache;
+    }
+
+    // ===== KEYS =====
+
+    /**
+     * Content address of a request. Fields are length-prefixed before hashing, so no two different
+     * requests can produce the same input by shifting text between fields.
+     */
+    public static String key(String provider, String model, String prompt, int maxTokens, double temperature) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(256 + (prompt != null ? prompt.length() : 0));
+            DataOutputStream out = new DataOutputStream(buffer);
+            out.writeInt(FORMAT_VERSION);
+            writeField(out, provider);
+            writeField(out, model);
+            writeField(out, prompt);
+            out.writeInt(maxTokens);
+            out.writeLong(Double.doubleToLongBits(temperature));
+            return HexFormat.of().formatHex(digest.digest(buffer.toByteArray()));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeField(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value != null ? value.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        out.writeInt(value != null ? bytes.length : -1);
+        out.write(bytes);
+    }
+
+    // ===== LOOKUP AND STORE =====
+
+    /**
+     * The response stored under {@code key}, if present and younger than the TTL.
+     */
+    public Optional<String> get(String key) {
+        Path entry = entryPath(key);
+        if (!index.containsKey(key) && !Files.exists(entry)) {
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+
+        boolean corrupt = false;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(entry)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                throw new IOException("not a cache entry of format version " + FORMAT_VERSION);
+            }
+            long createdAt = in.readLong();
+            if (!key.equals(in.readUTF())) {
+                throw new IOException("entry does not match its key");
+            }
+            if (System.currentTimeMillis() - createdAt > ttlMillis) {
+                expirations.incrementAndGet();
+                misses.incrementAndGet();
+                in.close();
+                remove(key, entry);
+                return Optional.empty();
+            }
+            int length = in.readInt();
+            if (length < 0 || length > MAX_ENTRY_SIZE) {
+                throw new IOException("invalid response length " + length);
+            }
+            byte[] text = in.readNBytes(length);
+            if (text.length != length) {
+                throw new IOException("truncated entry");
+            }
+            String response = new String(text, StandardCharsets.UTF_8);
+
+            touch(key, entry);
+            hits.incrementAndGet();
+            return Optional.of(response);
+
+        } catch (NoSuchFileException e) {
+            // Evicted or expired by another run sharing the directory
+            forget(key);
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, "Discarding unreadable AI cache entry " + entry, e);
+            corrupt = true;
+        }
+        if (corrupt) {
+            remove(key, entry);
+        }
+        misses.incrementAndGet();
+        return Optional.empty();
+    }
+
+    /**
+     * Stores {@code response} under {@code key}, replacing any previous entry, then evicts the least
+     * recently used entries if the cache is over its size budget.
+     */
+    public void put(String key, String response) {
+        if (response == null) {
+            return;
+        }
+        Path entry = entryPath(key);
+        byte[] text = response.getBytes(StandardCharsets.UTF_8);
+        if (text.length > MAX_ENTRY_SIZE) {
+            LOGGER.fine("AI response of " + text.length + " bytes not cached: larger than " + MAX_ENTRY_SIZE);
+            return;
+        }
+
+        Path temp = null;
+        try {
+            Files.createDirectories(entry.getParent());
+            temp = entry.resolveSibling(entry.getFileName() + ".tmp-" + Long.toHexString(ThreadLocalRandom.current().nextLong()));
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeLong(System.currentTimeMillis());
+                out.writeUTF(key);
+                out.writeInt(text.length);
+                out.write(text);
+            }
+            long size = Files.size(temp);
+            try {
+                Files.move(temp, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, entry, StandardCopyOption.REPLACE_EXISTING);
+            }
+            temp = null;
+
+            EntryInfo previous = index.put(key, new EntryInfo(size, System.currentTimeMillis()));
+            totalBytes.addAndGet(size - (previous != null ? previous.size : 0));
+            stores.incrementAndGet();
+
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Failed to cache AI response in " + entry, e);
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ignored) {
+                    // Left for the next index load to skip
+                }
+            }
+        }
+
+        evictIfNeeded();
+    }
+
+    /**
+     * Deletes every entry.
+     */
+    public void clear() {
+        for (String key : new ArrayList<>(index.keySet())) {
+            remove(key, entryPath(key));
+        }
+    }
+
+    // ===== EVICTION =====
+
+    private void evictIfNeeded() {
+        if (totalBytes.get() <= maxBytes) {
+            return;
+        }
+        synchronized (evictionLock) {
+            if (totalBytes.get() <= maxBytes) {
+                return;
+            }
+            long target = (long) (maxBytes * EVICTION_LOW_WATER_MARK);
+            List<Map.Entry<String, EntryInfo>> byLastUse = new ArrayList<>(index.entrySet());
+            byLastUse.sort(Comparator.comparingLong(e -> e.getValue().lastUsedMillis));
+
+            int evicted = 0;
+            for (Map.Entry<String, EntryInfo> candidate : byLastUse) {
+                if (totalBytes.get() <= target) {
+                    break;
+                }
+                remove(candidate.getKey(), entryPath(candidate.getKey()));
+                evicted++;
+            }
+            evictions.addAndGet(evicted);
+            LOGGER.fine("Evicted " + evicted + " AI cache entries; " + totalBytes.get() / 1024 + " KB remain");
+        }
+    }
+
+    private void remove(String key, Path entry) {
+        try {
+            Files.deleteIfExists(entry);
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, "Failed to delete AI cache entry " + entry, e);
+        }
+        forget(key);
+    }
+
+    private void forget(String key) {
+        EntryInfo removed = index.remove(key);
+        if (removed != null) {
+            totalBytes.addAndGet(-removed.size);
+        }
+    }
+
+    private void touch(String key, Path entry) {
+        long now = System.currentTimeMillis();
+        EntryInfo info = index.get(key);
+        if (info != null) {
+            info.lastUsedMillis = now;
+        } else {
+            try {
+                EntryInfo loaded = new EntryInfo(Files.size(entry), now);
+                if (index.putIfAbsent(key, loaded) == null) {
+                    totalBytes.addAndGet(loaded.size);
+                }
+            } catch (IOException ignored) {
+                // Indexed again on the next store or open
+            }
+        }
+        try {
+            Files.setLastModifiedTime(entry, FileTime.fromMillis(now));
+        } catch (IOException ignored) {
+            // Recency is only advisory
+        }
+    }
+
+    private void loadIndex() throws IOException {
+        try (Stream<Path> files = Files.walk(directory, 2)) {
+            files.filter(path -> path.getFileName().toString().endsWith(ENTRY_SUFFIX)).forEach(path -> {
+                try {
+                    BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                    String name = path.getFileName().toString();
+                    index.put(name.substring(0, name.length() - ENTRY_SUFFIX.length()),
+                            new EntryInfo(attributes.size(), attributes.lastModifiedTime().toMillis()));
+                    totalBytes.addAndGet(attributes.size());
+                } catch (IOException e) {
+                    LOGGER.log(Level.FINE, "Skipping AI cache entry " + path, e);
+                }
+            });
+        }
+    }
+
+    private Path entryPath(String key) {
+        if (key == null || key.length() < 3 || !key.chars().allMatch(c -> Character.digit(c, 16) >= 0)) {
+            throw new IllegalArgumentException("Not a cache key: " + key);
+        }
+        return directory.resolve(key.substring(0, 2)).resolve(key + ENTRY_SUFFIX);
+    }
+
+    // ===== STATISTICS =====
+
+    public Path getDirectory() { return directory; }
+
+    public Statistics getStatistics() {
+        return new Statistics(hits.get(), misses.get(), stores.get(), expirations.get(), evictions.get(),
+                index.size(), totalBytes.get());
+    }
+
+    private static final class EntryInfo {
+        final long size;
+        volatile long lastUsedMillis;
+
+        EntryInfo(long size, long lastUsedMillis) {
+            this.size = size;
+            this.lastUsedMillis = lastUsedMillis;
+        }
+    }
+
+    /**
+     * Snapshot of cache activity since it was opened, and of its current contents.
+     */
+    public static final class Statistics {
+        private final long hits;
+        private final long misses;
+        private final long stores;
+        private final long expirations;
+        private final long evictions;
+        private final int entries;
+        private final long bytes;
+
+        public Statistics(long hits, long misses, long stores, long expirations, long evictions, int entries, long bytes) {
+            this.hits = hits;
+            this.misses = misses;
+            this.stores = stores;
+            this.expirations = expirations;
+            this.evictions = evictions;
+            this.entries = entries;
+            this.bytes = bytes;
+        }
+
+        public long getHits() { return hits; }
+        public long getMisses() { return misses; }
+        public long getStores() { return stores; }
+        public long getExpirations() { return expirations; }
+        public long getEvictions() { return evictions; }
+        public int getEntries() { return entries; }
+        public long getBytes() { return bytes; }
+
+        public double getHitRatio() {
+            long lookups = hits + misses;
+            return lookups > 0 ? (double) hits / lookups : 0.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("AiResponseCache{hits=%d, misses=%d, hitRatio=%.1f%%, stores=%d, expired=%d, evicted=%d, entries=%d, bytes=%d}",
+                    hits, misses, getHitRatio() * 100, stores, expirations, evictions, entries, bytes);
+        }
+    }
+}
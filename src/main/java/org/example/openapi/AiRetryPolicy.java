@@ -0,0 +1,98 @@
+package org.example.openapi;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * ===== AI RETRY POLICY =====
+ *
+ * How often and how long to wait before an AI call that failed is sent again. Waits grow
+ * exponentially with full jitter: before attempt {@code n + 1} the caller waits a uniformly random
+ * time between zero and {@code min(maxDelay, baseDelay * 2^(n - 1))}, so callers that failed together
+ * do not come back together. A provider's {@code Retry-After} is a floor under that wait, never cut
+ * short, although it may exceed {@code maxDelay}.
+ *
+ * Immutable and thread-safe.
+ *
+ * @author Enhanced Test Generation Team
+ * @since 2025.1
+ */
+public final class AiRetryPolicy {
+
+    public static final AiRetryPolicy DEFAULT = new AiRetryPolicy(3, Duration.ofMillis(500), Duration.ofSeconds(8));
+    public static final AiRetryPolicy NONE = new AiRetryPolicy(1, Duration.ofMillis(1), Duration.ofMillis(1));
+
+    private final int maxAttempts;
+    private final Duration baseDelay;
+    private final Duration maxDelay;
+
+    /**
+     * @param maxAttempts attempts in all, the first one included; 1 turns retries off
+     * @param baseDelay upper bound of the wait before the first retry
+     * @param maxDelay upper bound of any wait, {@code Retry-After} aside
+     */
+    public AiRetryPolicy(int maxAttempts, Duration baseDelay, Duration maxDelay) {
+        if (maxAttempts <= 0) {
+            throw new IllegalArgumentException("AI retries need at least one attempt");
+        }
+        if (baseDelay == null || baseDelay.isNegative() || baseDelay.isZero()
+                || maxDelay == null || maxDelay.compareTo(baseDelay) < 0) {
+            throw new IllegalArgumentException("AI retry delays must be positive, the maximum at least the base");
+        }
+        this.maxAttempts = maxAttempts;
+        this.baseDelay = baseDelay;
+        this.maxDelay = maxDelay;
+    }
+
+    /**
+     * Wait before the attempt after {@code failedAttempts} failed ones.
+     *
+     * @param retryAfter the provider's {@code Retry-After} header as sent, or null
+     */
+    public Duration delay(int failedAttempts, String retryAfter) {
+        long ceiling = baseDelay.toNanos();
+        for (int i = 1; i < failedAttempts && ceiling < maxDelay.toNanos(); i++) {
+            ceiling *= 2;
+        }
+        ceiling = Math.min(ceiling, maxDelay.toNanos());
+        Duration jittered = Duration.ofNanos(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        Duration floor = parseRetryAfter(retryAfter);
+        return floor != null && floor.compareTo(jittered) > 0 ? floor : jittered;
+    }
+
+    public boolean isRetrying() { return maxAttempts > 1; }
+    public int getMaxAttempts() { return maxAttempts; }
+    public Duration getBaseDelay() { return baseDelay; }
+    public Duration getMaxDelay() { return maxDelay; }
+
+    /**
+     * A {@code Retry-After} value, given either in seconds or as an HTTP date; null when absent or
+     * unreadable. Dates in the past mean no wait.
+     */
+    static Duration parseRetryAfter(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String trimmed = value.trim();
+        try {
+            return Duration.ofSeconds(Math.max(0L, Long.parseLong(trimmed)));
+        } catch (NumberFormatException e) {
+            // Not seconds; try a date
+        }
+        try {
+            Duration until = Duration.between(ZonedDateTime.now(),
+                    ZonedDateTime.parse(trimmed, DateTimeFormatter.RFC_1123_DATE_TIME));
+            return until.isNegative() ? Duration.ZERO : until;
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d attempts, %dms base, %dms max", maxAttempts, baseDelay.toMillis(), maxDelay.toMillis());
+    }
+}
@@ -0,0 +1,371 @@
+package org.example.openapi;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+
+/**
+ * ===== AI USAGE LEDGER =====
+ *
+ * Token and cost accounting of one generation run's AI calls, per provider, with an optional hard
+ * budget. A call reserves its estimated tokens and cost before it is sent and is refused when the
+ * reservation would take the run over budget. Once a call would not fit even after every call in
+ * flight has been charged, the budget is exhausted for the rest of the run, so later endpoints do not
+ * squeeze smaller calls into the remainder. When the call returns, its reservation is replaced by
+ * the usage the provider reported, or by an estimate when it reported none.
+ *
+ * Thread-safe.
+ *
+ * @author Enhanced Test Generation Team
+ * @since 2025.1
+ */
+public final class AiUsageLedger {
+
+    private static final Logger LOGGER = Logger.getLogger(AiUsageLedger.class.getName());
+
+    private final String runId;
+    private final long tokenBudget;
+    private final double costBudget;
+
+    // Guarded by this
+    private final Map<String, MutableUsage> usage = new LinkedHashMap<>();
+    private final Map<String, PromptContextUsage> promptContexts = new LinkedHashMap<>();
+    private long reservedTokens;
+    private double reservedCost;
+    private long usedTokens;
+    private double usedCost;
+    private long skippedEndpoints;
+    private boolean budgetExhausted;
+
+    /**
+     * @param tokenBudget tokens the run may use, prompt and completion; 0 for no limit
+     * @param costBudget  US dollars the run may spend; 0 for no limit
+     */
+    public AiUsageLedger(String runId, long tokenBudget, double costBudget) {
+        if (tokenBudget < 0 || costBudget < 0) {
+            throw new IllegalArgumentException("AI budget cannot be negative");
+        }
+        this.runId = Objects.requireNonNull(runId, "runId");
+        this.tokenBudget = tokenBudget;
+        this.costBudget = costBudget;
+    }
+
+    // ===== RESERVATIONS =====
+
+    /**
+     * Reserves budget for one call to {@code provider}.
+     *
+     * @return the reservation, or {@code null} if the call would exceed the budget. If it would
+     *         exceed it on what is already used alone, the budget is exhausted and every later
+     *         reservation is refused too
+     */
+    public synchronized Reservation reserve(String provider, long estimatedTokens, double estimatedCost) {
+        if (budgetExhausted) {
+            return null;
+        }
+        if (exceedsBudget(usedTokens + estimatedTokens, usedCost + estimatedCost)) {
+            budgetExhausted = true;
+            LOGGER.info(() -> String.format("AI budget of run %s exhausted: %d tokens and $%.4f used",
+                    runId, usedTokens, usedCost));
+            return null;
+        }
+        if (exceedsBudget(usedTokens + reservedTokens + estimatedTokens, usedCost + reservedCost + estimatedCost)) {
+            // Calls in flight may still come in under their reservations
+            return null;
+        }
+        reservedTokens += estimatedTokens;
+        reservedCost += estimatedCost;
+        return new Reservation(provider, estimatedTokens, estimatedCost);
+    }
+
+    // Caller holds the lock
+    private boolean exceedsBudget(long tokens, double cost) {
+        return (tokenBudget > 0 && tokens > tokenBudget) || (costBudget > 0 && cost > costBudget);
+    }
+
+    /** A response was served from the cache: no tokens were used. */
+    public synchronized void recordCacheHit(String provider) {
+        usageOf(provider).cacheHits++;
+    }
+
+    /** An endpoint got no AI generation because the budget was exhausted. */
+    public synchronized void recordSkippedEndpoint() {
+        skippedEndpoints++;
+    }
+
+    /**
+     * An endpoint's prompt carries a schema context of {@code contextTokens}, written in full it would
+     * take {@code fullSchemaTokens}. A later record for the same endpoint replaces the earlier one.
+     */
+    public synchronized void recordPromptContext(String endpoint, int fullSchemaTokens, int contextTokens) {
+        promptContexts.put(endpoint, new PromptContextUsage(endpoint, fullSchemaTokens, contextTokens));
+    }
+
+    public synchronized boolean isBudgetExhausted() {
+        return budgetExhausted;
+    }
+
+    private synchronized void settle(Reservation reservation, boolean called, boolean succeeded,
+                                     long promptTokens, long completionTokens, double cost, boolean estimated) {
+        reservedTokens -= reservation.estimatedTokens;
+        reservedCost -= reservation.estimatedCost;
+        if (!called) {
+            return;
+        }
+        MutableUsage provider = usageOf(reservation.provider);
+        provider.requests++;
+        if (!succeeded) {
+            provider.failures++;
+        }
+        if (estimated) {
+            provider.estimatedRequests++;
+        }
+        provider.promptTokens += promptTokens;
+        provider.completionTokens += completionTokens;
+        provider.cost += cost;
+        usedTokens += promptTokens + completionTokens;
+        usedCost += cost;
+    }
+
+    // Caller holds the lock
+    private MutableUsage usageOf(String provider) {
+        return usage.computeIfAbsent(provider, name -> new MutableUsage());
+    }
+
+    // ===== REPORTING =====
+
+    public synchronized Report getReport() {
+        Map<String, ProviderUsage> providers = new LinkedHashMap<>();
+        usage.forEach((name, u) -> providers.put(name, new ProviderUsage(name, u.requests, u.failures, u.cacheHits,
+                u.estimatedRequests, u.promptTokens, u.completionTokens, u.cost)));
+        return new Report(runId, Instant.now(), providers, promptContexts, tokenBudget, costBudget, budgetExhausted,
+                skippedEndpoints);
+    }
+
+    private static final class MutableUsage {
+        long requests;
+        long failures;
+        long cacheHits;
+        long estimatedRequests;
+        long promptTokens;
+        long completionTokens;
+        double cost;
+    }
+
+    /**
+     * Budget held for one call until it completes or is released. Only the first of
+     * {@link #complete} and {@link #release()} takes effect.
+     */
+    public final class Reservation {
+        private final String provider;
+        private final long estimatedTokens;
+        private final double estimatedCost;
+        private final AtomicBoolean settled = new AtomicBoolean();
+
+        private Reservation(String provider, long estimatedTokens, double estimatedCost) {
+            this.provider = provider;
+            this.estimatedTokens = estimatedTokens;
+            this.estimatedCost = estimatedCost;
+        }
+
+        public long getEstimatedTokens() { return estimatedTokens; }
+        public double getEstimatedCost() { return estimatedCost; }
+
+        /**
+         * The call was made. {@code estimated} marks usage that is our estimate because the
+         * provider reported none.
+         */
+        public void complete(boolean succeeded, long promptTokens, long completionTokens, double cost,
+                             boolean estimated) {
+            if (settled.compareAndSet(false, true)) {
+                settle(this, true, succeeded, promptTokens, completionTokens, cost, estimated);
+            }
+        }
+
+        /** The call was not made; the budget is returned. */
+        public void release() {
+            if (settled.compareAndSet(false, true)) {
+                settle(this, false, false, 0, 0, 0, false);
+            }
+        }
+    }
+
+    /**
+     * Usage of one provider.
+     */
+    public static final class ProviderUsage {
+        private final String provider;
+        private final long requests;
+        private final long failures;
+        private final long cacheHits;
+        private final long estimatedRequests;
+        private final long promptTokens;
+        private final long completionTokens;
+        private final double cost;
+
+        public ProviderUsage(String provider, long requests, long failures, long cacheHits, long estimatedRequests,
+                             long promptTokens, long completionTokens, double cost) {
+            this.provider = provider;
+            this.requests = requests;
+            this.failures = failures;
+            this.cacheHits = cacheHits;
+            this.estimatedRequests = estimatedRequests;
+            this.promptTokens = promptTokens;
+            this.completionTokens = completionTokens;
+            this.cost = cost;
+        }
+
+        public String getProvider() { return provider; }
+        public long getRequests() { return requests; }
+        public long getFailures() { return failures; }
+        public long getCacheHits() { return cacheHits; }
+        /** Requests whose usage is estimated because the provider reported none. */
+        public long getEstimatedRequests() { return estimatedRequests; }
+        public long getPromptTokens() { return promptTokens; }
+        public long getCompletionTokens() { return completionTokens; }
+        public long getTotalTokens() { return promptTokens + completionTokens; }
+        public double getCost() { return cost; }
+
+        ProviderUsage plus(ProviderUsage other) {
+            return new ProviderUsage(provider, requests + other.requests, failures + other.failures,
+                    cacheHits + other.cacheHits, estimatedRequests + other.estimatedRequests,
+                    promptTokens + other.promptTokens, completionTokens + other.completionTokens, cost + other.cost);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s{requests=%d, failures=%d, cacheHits=%d, promptTokens=%d, completionTokens=%d, cost=$%.4f}",
+                    provider, requests, failures, cacheHits, promptTokens, completionTokens, cost);
+        }
+    }
+
+    /**
+     * Prompt tokens one endpoint's schema context takes. Prompts carried no schema context before
+     * it was compacted, so the context adds its tokens to the prompt; the full schema figure is the
+     * size of the same schemas written out in full, the reference the compaction is measured
+     * against, not an earlier prompt.
+     */
+    public static final class PromptContextUsage {
+        private final String endpoint;
+        private final long fullSchemaTokens;
+        private final long contextTokens;
+
+        public PromptContextUsage(String endpoint, long fullSchemaTokens, long contextTokens) {
+            this.endpoint = endpoint;
+            this.fullSchemaTokens = fullSchemaTokens;
+            this.contextTokens = contextTokens;
+        }
+
+        public String getEndpoint() { return endpoint; }
+        public long getFullSchemaTokens() { return fullSchemaTokens; }
+        /** Tokens the context adds to the prompt. */
+        public long getContextTokens() { return contextTokens; }
+        public long getSavedVsFullSchema() { return Math.max(0, fullSchemaTokens - contextTokens); }
+        /** Fraction of the full schema tokens saved, 0 to 1. */
+        public double getSavedVsFullSchemaRatio() {
+            return fullSchemaTokens > 0 ? (double) getSavedVsFullSchema() / fullSchemaTokens : 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s{context=%d, fullSchema=%d, savedVsFullSchema=%d}", endpoint, contextTokens,
+                    fullSchemaTokens, getSavedVsFullSchema());
+        }
+    }
+
+    /**
+     * Usage of a run at one point in time. Budgets of 0 mean no limit.
+     */
+    public static final class Report {
+        private final String runId;
+        private final Instant asOf;
+        private final Map<String, ProviderUsage> providers;
+        private final Map<String, PromptContextUsage> promptContexts;
+        private final long tokenBudget;
+        private final double costBudget;
+        private final boolean budgetExhausted;
+        private final long skippedEndpoints;
+
+        public Report(String runId, Instant asOf, Map<String, ProviderUsage> providers,
+                      Map<String, PromptContextUsage> promptContexts, long tokenBudget, double costBudget,
+                      boolean budgetExhausted, long skippedEndpoints) {
+            this.runId = runId;
+            this.asOf = asOf;
+            this.providers = Collections.unmodifiableMap(new LinkedHashMap<>(providers));
+            this.promptContexts = Collections.unmodifiableMap(new LinkedHashMap<>(promptContexts));
+            this.tokenBudget = tokenBudget;
+            this.costBudget = costBudget;
+            this.budgetExhausted = budgetExhausted;
+            this.skippedEndpoints = skippedEndpoints;
+        }
+
+        /**
+         * Usage of several runs added up. Reports of the same run are snapshots of one ledger, so
+         * only the latest of them counts. Returns {@code null} when there are no reports.
+         */
+        public static Report combine(Collection<Report> reports) {
+            Map<String, Report> latest = new LinkedHashMap<>();
+            for (Report report : reports) {
+                if (report != null) {
+                    latest.merge(report.runId, report, (a, b) -> b.asOf.isAfter(a.asOf) ? b : a);
+                }
+            }
+            if (latest.size() <= 1) {
+                return latest.values().stream().findFirst().orElse(null);
+            }
+
+            Map<String, ProviderUsage> providers = new LinkedHashMap<>();
+            Map<String, PromptContextUsage> promptContexts = new LinkedHashMap<>();
+            long tokenBudget = 0;
+            double costBudget = 0;
+            boolean exhausted = false;
+            long skipped = 0;
+            Instant asOf = Instant.MIN;
+            for (Report report : latest.values()) {
+                report.providers.forEach((name, u) -> providers.merge(name, u, ProviderUsage::plus));
+                // Runs over the same endpoint compact it alike; the later run's figures are kept
+                promptContexts.putAll(report.promptContexts);
+                tokenBudget += report.tokenBudget;
+                costBudget += report.costBudget;
+                exhausted |= report.budgetExhausted;
+                skipped += report.skippedEndpoints;
+                asOf = report.asOf.isAfter(asOf) ? report.asOf : asOf;
+            }
+            return new Report(String.join(",", latest.keySet()), asOf, providers, promptContexts, tokenBudget,
+                    costBudget, exhausted, skipped);
+        }
+
+        public String getRunId() { return runId; }
+        public Instant getAsOf() { return asOf; }
+        public Map<String, ProviderUsage> getProviders() { return providers; }
+        /** Schema context per endpoint, keyed by method and path. */
+        public Map<String, PromptContextUsage> getPromptContexts() { return promptContexts; }
+        public long getTokenBudget() { return tokenBudget; }
+        public double getCostBudget() { return costBudget; }
+        public boolean isBudgetExhausted() { return budgetExhausted; }
+        public long getSkippedEndpoints() { return skippedEndpoints; }
+
+        public long getRequests() { return providers.values().stream().mapToLong(ProviderUsage::getRequests).sum(); }
+        public long getCacheHits() { return providers.values().stream().mapToLong(ProviderUsage::getCacheHits).sum(); }
+        public long getPromptTokens() { return providers.values().stream().mapToLong(ProviderUsage::getPromptTokens).sum(); }
+        public long getCompletionTokens() { return providers.values().stream().mapToLong(ProviderUsage::getCompletionTokens).sum(); }
+        public long getTotalTokens() { return getPromptTokens() + getCompletionTokens(); }
+        public double getCost() { return providers.values().stream().mapToDouble(ProviderUsage::getCost).sum(); }
+        /** Prompt tokens the schema contexts add, already part of the prompt tokens of the requests. */
+        public long getSchemaContextTokens() { return promptContexts.values().stream().mapToLong(PromptContextUsage::getContextTokens).sum(); }
+        public long getFullSchemaTokens() { return promptContexts.values().stream().mapToLong(PromptContextUsage::getFullSchemaTokens).sum(); }
+        public long getSavedVsFullSchema() { return promptContexts.values().stream().mapToLong(PromptContextUsage::getSavedVsFullSchema).sum(); }
+
+        @Override
+        public String toString() {
+            return String.format("AiUsage{run=%s, requests=%d, cacheHits=%d, tokens=%d, cost=$%.4f, budgetExhausted=%s, skippedEndpoints=%d, schemaContextTokens=%d}",
+                    runId, getRequests(), getCacheHits(), getTotalTokens(), getCost(), budgetExhausted, skippedEndpoints,
+                    getSchemaContextTokens());
+        }
+    }
+}
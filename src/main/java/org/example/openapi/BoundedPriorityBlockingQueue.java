@@ -0,0 +1,232 @@
+package org.example.openapi;
+
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * ===== BOUNDED PRIORITY BLOCKING QUEUE =====
+ *
+ * Blocking queue that hands out the highest-priority element first but, unlike
+ * {@link java.util.concurrent.PriorityBlockingQueue}, has a fixed capacity: {@link #put} blocks
+ * while the queue is full, so a priority-ordered pipeline keeps its backpressure. Elements of equal
+ * priority leave in insertion order.
+ *
+ * @author Enhanced Test Generation Team
+ * @since 2025.1
+ */
+public final class BoundedPriorityBlockingQueue<E> extends AbstractQueue<E> implements BlockingQueue<E> {
+
+    private final int capacity;
+    private final PriorityQueue<Entry<E>> heap;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private long nextSequence;
+
+    /**
+     * @param order orders elements highest priority first
+     */
+    public BoundedPriorityBlockingQueue(int capacity, Comparator<? super E> order) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        Objects.requireNonNull(order, "order");
+        this.capacity = capacity;
+        Comparator<Entry<E>> entryOrder = (a, b) -> order.compare(a.value, b.value);
+        this.heap = new PriorityQueue<>(Math.min(capacity, 64),
+                entryOrder.thenComparingLong(entry -> entry.sequence));
+    }
+
+    // ===== INSERTION =====
+
+    @Override
+    public void put(E element) throws InterruptedException {
+        Objects.requireNonNull(element, "element");
+        lock.lockInterruptibly();
+        try {
+            while (heap.size() >= capacity) {
+                notFull.await();
+            }
+            enqueue(element);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean offer(E element) {
+        Objects.requireNonNull(element, "element");
+        lock.lock();
+        try {
+            if (heap.size() >= capacity) {
+                return false;
+            }
+            enqueue(element);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean offer(E element, long timeout, TimeUnit unit) throws InterruptedException {
+        Objects.requireNonNull(element, "element");
+        long remainingNanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (heap.size() >= capacity) {
+                if (remainingNanos <= 0) {
+                    return false;
+                }
+                remainingNanos = notFull.awaitNanos(remainingNanos);
+            }
+            enqueue(element);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void enqueue(E element) {
+        heap.add(new Entry<>(element, nextSequence++));
+        notEmpty.signal();
+    }
+
+    // ===== REMOVAL =====
+
+    @Override
+    public E take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (heap.isEmpty()) {
+                notEmpty.await();
+            }
+            return dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public E poll() {
+        lock.lock();
+        try {
+            return heap.isEmpty() ? null : dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long remainingNanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (heap.isEmpty()) {
+                if (remainingNanos <= 0) {
+                    return null;
+                }
+                remainingNanos = notEmpty.awaitNanos(remainingNanos);
+            }
+            return dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private E dequeue() {
+        E element = heap.poll().value;
+        notFull.signal();
+        return element;
+    }
+
+    @Override
+    public E peek() {
+        lock.lock();
+        try {
+            Entry<E> head = heap.peek();
+            return head != null ? head.value : null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> target) {
+        return drainTo(target, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> target, int maxElements) {
+        Objects.requireNonNull(target, "target");
+        if (target == this) {
+            throw new IllegalArgumentException("Cannot drain a queue into itself");
+        }
+        lock.lock();
+        try {
+            int drained = 0;
+            while (drained < maxElements && !heap.isEmpty()) {
+                target.add(heap.poll().value);
+                drained++;
+            }
+            if (drained > 0) {
+                notFull.signalAll();
+            }
+            return drained;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // ===== STATE =====
+
+    @Override
+    public int size() {
+        lock.lock();
+        try {
+            return heap.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int remainingCapacity() {
+        lock.lock();
+        try {
+            return capacity - heap.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Snapshot iterator in no particular order; removal is not supported.
+     */
+    @Override
+    public Iterator<E> iterator() {
+        lock.lock();
+        try {
+            List<E> snapshot = new ArrayList<>(heap.size());
+            for (Entry<E> entry : heap) {
+                snapshot.add(entry.value);
+            }
+            return Collections.unmodifiableList(snapshot).iterator();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static final class Entry<E> {
+        private final E value;
+        private final long sequence;
+
+        Entry(E value, long sequence) {
+            this.value = value;
+            this.sequence = sequence;
+        }
+    }
+}
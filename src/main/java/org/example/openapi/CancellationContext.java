@@ -0,0 +1,453 @@
+package org.example.openapi;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * ===== CANCELLATION CONTEXT =====
+ *
+ * Cancellation and deadline scope for a unit of work. A context is created per run, a child per
+ * endpoint, and a further child per AI call; cancelling a context or reaching its deadline cancels
+ * all of its descendants, so a stopped run or an overdue endpoint stops everything it started
+ * instead of letting it run to completion unseen.
+ *
+ * Work observes its context in three ways: polling {@link #isCancelled()} / {@link #throwIfCancelled()}
+ * between steps, blocking through {@link #acquire(Semaphore)}, {@link #await(Future)} and
+ * {@link #await(CountDownLatch)}, which return as soon as the context is cancelled, and
+ * {@link #interruptOnCancel()} around blocking I/O. A child's deadline never extends past its
+ * parent's. Deadlines fire from the given scheduler; without one they are only noticed when polled.
+ *
+ * Contexts are cheap and must be closed when the work they scope finishes, which detaches them
+ * from their parent and cancels their deadline timer.
+ *
+ * @author Enhanced Test Generation Team
+ * @since 2025.1
+ */
+public final class CancellationContext implements AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(CancellationContext.class.getName());
+
+    private static final String CLOSED = "closed";
+    private static final String DEADLINE_EXCEEDED = "deadline exceeded";
+
+    private static final CancellationContext BACKGROUND = new CancellationContext("background", null, false, 0L, null);
+
+    private final String name;
+    private final CancellationContext parent;
+    private final boolean hasDeadline;
+    private final long deadlineNanos;
+    private final ScheduledExecutorService scheduler;
+
+    private final Object lock = new Object();
+    // Null once cancelled; listeners registered after that run immediately
+    private Set<Runnable> listeners = new LinkedHashSet<>();
+    private volatile String cancellationReason;
+    private volatile boolean deadlineExceeded;
+    private ScheduledFuture<?> deadlineTimer;
+    private Registration parentRegistration;
+
+    private CancellationContext(String name, CancellationContext parent, boolean hasDeadline, long deadlineNanos,
+                                ScheduledExecutorService scheduler) {
+        this.name = name;
+        this.parent = parent;
+        this.hasDeadline = hasDeadline;
+        this.deadlineNanos = deadlineNanos;
+        this.scheduler = scheduler;
+    }
+
+    // ===== FACTORY METHODS =====
+
+    /**
+     * Context that is never cancelled and has no deadline, for callers that do not scope their work.
+     * {@link #cancel(String)} and {@link #close()} have no effect on it.
+     */
+    public static CancellationContext background() {
+        return BACKGROUND;
+    }
+
+    /**
+     * Root context without a deadline; it ends only when cancelled.
+     */
+    public static CancellationContext root(String name, ScheduledExecutorService scheduler) {
+        return withTimeout(name, null, scheduler);
+    }
+
+    /**
+     * Root context that is cancelled once the timeout elapses; a null timeout means no deadline.
+     */
+    public static CancellationContext withTimeout(String name, Duration timeout, ScheduledExecutorService scheduler) {
+        CancellationContext context = new CancellationContext(name, null, timeout != null,
+                timeout != null ? deadlineAfter(timeout) : 0L, scheduler);
+        context.scheduleDeadline();
+        return context;
+    }
+
+    /**
+     * Child that is cancelled with this context and has the same deadline.
+     */
+    public CancellationContext child(String childName) {
+        return child(childName, null);
+    }
+
+    /**
+     * Child that is cancelled with this context, or once the timeout elapses if that comes first;
+     * a null timeout inherits this context's deadline.
+     */
+    public CancellationContext child(String childName, Duration timeout) {
+        boolean childHasDeadline = hasDeadline;
+        long childDeadline = deadlineNanos;
+        if (timeout != null) {
+            long ownDeadline = deadlineAfter(timeout);
+            if (!hasDeadline || ownDeadline - deadlineNanos < 0) {
+                childHasDeadline = true;
+                childDeadline = ownDeadline;
+            }
+        }
+
+        CancellationContext child = new CancellationContext(childName, this, childHasDeadline, childDeadline, scheduler);
+        if (this != BACKGROUND) {
+            child.parentRegistration = onCancel(() -> child.cancel(cancellationReason, deadlineExceeded));
+        }
+        // Only a deadline earlier than the parent's needs a timer of its own
+        if (childHasDeadline && (!hasDeadline || childDeadline != deadlineNanos)) {
+            child.scheduleDeadline();
+        }
+        return child;
+    }
+
+    private static long deadlineAfter(Duration timeout) {
+        long now = System.nanoTime();
+        long timeoutNanos;
+        try {
+            timeoutNanos = Math.max(0L, timeout.toNanos());
+        } catch (ArithmeticException e) {
+            timeoutNanos = Long.MAX_VALUE / 2;
+        }
+        // Far-off deadlines are clamped so the nanoTime arithmetic cannot overflow
+        return now + Math.min(timeoutNanos, Long.MAX_VALUE / 2);
+    }
+
+    private void scheduleDeadline() {
+        if (!hasDeadline || scheduler == null) {
+            return;
+        }
+        long delay = deadlineNanos - System.nanoTime();
+        if (delay <= 0) {
+            expire();
+            return;
+        }
+        try {
+            ScheduledFuture<?> timer = scheduler.schedule(this::expire, delay, TimeUnit.NANOSECONDS);
+            synchronized (lock) {
+                if (listeners == null) {
+                    timer.cancel(false);
+                } else {
+                    deadlineTimer = timer;
+                }
+            }
+        } catch (RejectedExecutionException e) {
+            // Scheduler already stopped: the deadline is still noticed whenever it is polled
+            LOGGER.fine("Deadline timer unavailable for " + name + "; falling back to polling");
+        }
+    }
+
+    // ===== CANCELLATION =====
+
+    /**
+     * Cancels this context and all of its descendants; returns false if it had already ended.
+     */
+    public boolean cancel(String reason) {
+        return cancel(reason != null ? reason : "cancelled", false);
+    }
+
+    private boolean cancel(String reason, boolean deadline) {
+        if (this == BACKGROUND) {
+            return false;
+        }
+
+        Set<Runnable> toNotify;
+        ScheduledFuture<?> timer;
+        Registration fromParent;
+        synchronized (lock) {
+            if (listeners == null) {
+                return false;
+            }
+            deadlineExceeded = deadline;
+            cancellationReason = reason;
+            toNotify = listeners;
+            listeners = null;
+            timer = deadlineTimer;
+            deadlineTimer = null;
+            fromParent = parentRegistration;
+            parentRegistration = null;
+        }
+
+        if (timer != null) {
+            timer.cancel(false);
+        }
+        if (fromParent != null) {
+            fromParent.close();
+        }
+        if (!CLOSED.equals(reason)) {
+            LOGGER.fine("Cancelled " + name + ": " + reason);
+        }
+        for (Runnable listener : toNotify) {
+            try {
+                listener.run();
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Cancellation listener failed for " + name, e);
+            }
+        }
+        return true;
+    }
+
+    private void expire() {
+        cancel(DEADLINE_EXCEEDED, true);
+    }
+
+    /**
+     * Whether this context has been cancelled or has passed its deadline.
+     */
+    public boolean isCancelled() {
+        if (cancellationReason != null) {
+            return true;
+        }
+        if (hasDeadline && System.nanoTime() - deadlineNanos >= 0) {
+            expire();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Whether this context ended because its own or an ancestor's deadline passed.
+     */
+    public boolean isDeadlineExceeded() {
+        return isCancelled() && deadlineExceeded;
+    }
+
+    /**
+     * Why this context was cancelled, or null while it is active.
+     */
+    public String getCancellationReason() {
+        return isCancelled() ? cancellationReason : null;
+    }
+
+    public String getName() { return name; }
+    public CancellationContext getParent() { return parent; }
+
+    /**
+     * @throws CancellationException if this context has been cancelled or is past its deadline
+     */
+    public void throwIfCancelled() {
+        if (isCancelled()) {
+            throw newCancellationException();
+        }
+    }
+
+    /**
+     * Time left until the deadline; null when there is none.
+     */
+    public Duration getRemaining() {
+        return hasDeadline ? Duration.ofNanos(Math.max(0L, deadlineNanos - System.nanoTime())) : null;
+    }
+
+    private CancellationException newCancellationException() {
+        return new CancellationException(name + ": " + cancellationReason);
+    }
+
+    /**
+     * Detaches this context from its parent and stops its deadline timer. Work still registered
+     * against it is cancelled, since nothing is waiting for its result any more.
+     */
+    @Override
+    public void close() {
+        cancel(CLOSED, false);
+    }
+
+    // ===== LISTENERS =====
+
+    /**
+     * Runs the listener when this context is cancelled, or immediately if it already has been.
+     * Closing the returned registration unregisters the listener.
+     */
+    public Registration onCancel(Runnable listener) {
+        Objects.requireNonNull(listener, "listener");
+        if (this == BACKGROUND) {
+            return () -> { };
+        }
+        // Wrapped so that registering the same listener twice yields two independent registrations
+        Runnable entry = listener::run;
+        synchronized (lock) {
+            if (listeners != null) {
+                listeners.add(entry);
+                return () -> {
+                    synchronized (lock) {
+                        if (listeners != null) {
+                            listeners.remove(entry);
+                        }
+                    }
+                };
+            }
+        }
+        if (!isCancelled()) {
+            // Unreachable: listeners are only cleared on cancellation
+            throw new IllegalStateException("Context " + name + " is not cancelled");
+        }
+        listener.run();
+        return () -> { };
+    }
+
+    /**
+     * Interrupts the calling thread if this context is cancelled before the registration is
+     * closed, so blocking calls that honour interrupts return early. An interrupt this
+     * registration delivered is cleared again on close, so a pooled thread does not carry it into
+     * its next task; use with try-with-resources on the same thread.
+     */
+    public Registration interruptOnCancel() {
+        ThreadInterrupter interrupter = new ThreadInterrupter(Thread.currentThread());
+        interrupter.registration = onCancel(interrupter);
+        return interrupter;
+    }
+
+    // ===== CANCELLABLE BLOCKING =====
+
+    /**
+     * Takes a permit, waiting no longer than this context lives. The caller must release the
+     * permit when done.
+     *
+     * @throws CancellationException if the context ends first; no permit is held then
+     */
+    public void acquire(Semaphore semaphore) {
+        boolean acquired = false;
+        try (Registration ignored = interruptOnCancel()) {
+            throwIfCancelled();
+            if (hasDeadline) {
+                acquired = semaphore.tryAcquire(Math.max(0L, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } else {
+                semaphore.acquire();
+                acquired = true;
+            }
+        } catch (InterruptedException e) {
+            if (!isCancelled()) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException(name + ": interrupted");
+            }
+        }
+        if (!acquired) {
+            throwIfCancelled();
+            // Timed out a hair before the deadline check would report it
+            expire();
+            throw newCancellationException();
+        }
+    }
+
+    /**
+     * Waits for the future no longer than this context lives; if the context ends first the
+     * future is cancelled with interruption.
+     *
+     * @throws CancellationException if the context ends before the future completes
+     * @throws ExecutionException if the future's task failed
+     */
+    public <T> T await(Future<T> future) throws ExecutionException {
+        try (Registration ignored = onCancel(() -> future.cancel(true))) {
+            if (hasDeadline) {
+                return future.get(Math.max(0L, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+            }
+            return future.get();
+        } catch (TimeoutException e) {
+            expire();
+            future.cancel(true);
+            throw newCancellationException();
+        } catch (CancellationException e) {
+            if (isCancelled()) {
+                throw newCancellationException();
+            }
+            throw e;
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new CancellationException(name + ": interrupted");
+        }
+    }
+
+    /**
+     * Waits for the latch no longer than this context lives.
+     *
+     * @return true if the latch reached zero, false if the context ended first
+     */
+    public boolean await(CountDownLatch latch) {
+        try (Registration ignored = interruptOnCancel()) {
+            if (isCancelled()) {
+                return latch.getCount() == 0;
+            }
+            if (hasDeadline) {
+                return latch.await(Math.max(0L, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+            }
+            latch.await();
+            return true;
+        } catch (InterruptedException e) {
+            if (!isCancelled()) {
+                Thread.currentThread().interrupt();
+            }
+            return latch.getCount() == 0;
+        }
+    }
+
+    @Override
+    public String toString() {
+        String reason = getCancellationReason();
+        return "CancellationContext{" + name + (reason != null ? ", " + reason : "") + "}";
+    }
+
+    // ===== SUPPORTING TYPES =====
+
+    /**
+     * Handle for something registered against a context; closing it unregisters it. Idempotent.
+     */
+    @FunctionalInterface
+    public interface Registration extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private static final class ThreadInterrupter implements Runnable, Registration {
+        private final Thread thread;
+        private Registration registration;
+        private boolean closed;
+        private boolean interrupted;
+
+        ThreadInterrupter(Thread thread) {
+            this.thread = thread;
+        }
+
+        @Override
+        public synchronized void run() {
+            if (!closed) {
+                interrupted = true;
+                thread.interrupt();
+            }
+        }
+
+        @Override
+        public void close() {
+            boolean clearInterrupt;
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                clearInterrupt = interrupted && Thread.currentThread() == thread;
+            }
+            if (registration != null) {
+                registration.close();
+            }
+            if (clearInterrupt) {
+                Thread.interrupted();
+            }
+        }
+    }
+}
@@ -0,0 +1,570 @@
+package org.example.openapi;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.Duration;
+import java.util.*;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * ===== CHECKPOINT JOURNAL =====
+ *
+ * Append-only, crash-safe record of generation progress, so a long run that dies part-way can be
+ * resumed instead of started over. Each completed endpoint is journaled together with the tests
+ * of its suite and the files written for it; progress snapshots can be journaled as well.
+ *
+ * File layout: a header ({@code magic, format version, run fingerprint}) followed by records framed
+ * as {@code [payload length][CRC32 of payload][payload]}. A crash can leave at most one torn record
+ * at the tail. On open the journal is scanned, the first record that is incomplete or fails its
+ * checksum marks the end of the valid data, and the file is truncated there before appending.
+ *
+ * Records are written as they arrive but only forced to disk every {@code syncBatchSize} records
+ * or {@code syncInterval}, whichever comes first, and on {@link #sync()} / {@link #close()}. An
+ * endpoint lost in the un-synced window is simply regenerated on resume.
+ *
+ * Thread-safe.
+ *
+ * @author Enhanced Test Generation Team
+ * @since 2025.1
+ */
+public final class CheckpointJournal implements Closeable {
+
+    private static final Logger LOGGER = Logger.getLogger(CheckpointJournal.class.getName());
+
+    private static final int MAGIC = 0x4F54474A; // "OTGJ"
+    private static final int FORMAT_VERSION = 1;
+    private static final int FRAME_HEADER_SIZE = 8;
+    private static final int MAX_RECORD_SIZE = 16 * 1024 * 1024;
+
+    private static final byte RECORD_ENDPOINT_COMPLETED = 1;
+    private static final byte RECORD_PROGRESS = 2;
+
+    public static final int DEFAULT_SYNC_BATCH_SIZE = 32;
+    public static final Duration DEFAULT_SYNC_INTERVAL = Duration.ofSeconds(2);
+
+    private final Path file;
+    private final String runFingerprint;
+    private final FileChannel channel;
+    private final int syncBatchSize;
+    private final long syncIntervalNanos;
+    private final CRC32 crc = new CRC32();
+
+    private final Map<String, EndpointCheckpoint> completedEndpoints = new LinkedHashMap<>();
+    private final List<ProgressCheckpoint> progressCheckpoints = new ArrayList<>();
+    private final int recoveredRecords;
+    private long nextSequence;
+    private int unsyncedRecords;
+    private long lastSyncNanos = System.nanoTime();
+    private long lastSyncTimeMillis = System.currentTimeMillis();
+    private boolean closed;
+
+    private CheckpointJournal(Path file, String runFingerprint, FileChannel channel,
+                              int syncBatchSize, Duration syncInterval, List<Record> recovered) {
+        this.file = file;
+        this.runFingerprint = runFingerprint;
+        this.channel = channel;
+        this.syncBatchSize = Math.max(1, syncBatchSize);
+        this.syncIntervalNanos = syncInterval.toNanos();
+        this.recoveredRecords = recovered.size();
+        for (Record record : recovered) {
+            apply(record);
+        }
+    }
+
+    /**
+     * Opens a journal with the default sync policy.
+     *
+     * @param runFingerprint identifies the run configuration; a journal written for a different
+     *                       fingerprint is never resumed
+     * @param resume         keep and replay an existing journal; otherwise it is replaced
+     */
+    public static CheckpointJournal open(Path file, String runFingerprint, boolean resume) throws IOException {
+        return open(file, runFingerprint, resume, DEFAULT_SYNC_BATCH_SIZE, DEFAULT_SYNC_INTERVAL);
+    }
+
+    public static CheckpointJournal open(Path file, String runFingerprint, boolean resume,
+                                         int syncBatchSize, Duration syncInterval) throws IOException {
+        Objects.requireNonNull(file, "file");
+        Objects.requireNonNull(runFingerprint, "runFingerprint");
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        if (resume && Files.exists(file) && Files.size(file) > 0) {
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            try {
+                long headerEnd = readHeader(channel, runFingerprint, file);
+                if (headerEnd >= 0) {
+                    List<Record> recovered = new ArrayList<>();
+                    long validEnd = scanRecords(channel, headerEnd, recovered);
+                    if (validEnd < channel.size()) {
+                        LOGGER.warning("Checkpoint journal " + file + " ends with an incomplete or corrupt record; truncating " +
+                                (channel.size() - validEnd) + " bytes");
+                        channel.truncate(validEnd);
+                        channel.force(true);
+                    }
+                    channel.position(validEnd);
+                    LOGGER.info("Recovered " + recovered.size() + " records from checkpoint journal " + file);
+                    return new CheckpointJournal(file, runFingerprint, channel, syncBatchSize, syncInterval, recovered);
+                }
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+            channel.close();
+
+            // Unusable for this run: keep it aside rather than destroying someone else's progress
+            Path stale = file.resolveSibling(file.getFileName() + ".stale");
+            Files.move(file, stale, StandardCopyOption.REPLACE_EXISTING);
+            LOGGER.warning("Checkpoint journal " + file + " does not match this run; moved to " + stale +
+                    " and starting over");
+        }
+
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            writeFully(channel, encodeHeader(runFingerprint));
+            channel.force(true);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return new CheckpointJournal(file, runFingerprint, channel, syncBatchSize, syncInterval, List.of());
+    }
+
+    // ===== APPENDING =====
+
+    /**
+     * Journals a completed endpoint. A later record for the same endpoint replaces the earlier one.
+     */
+    public synchronized void recordEndpointCompleted(EndpointCheckpoint checkpoint) throws IOException {
+        Objects.requireNonNull(checkpoint, "checkpoint");
+        long sequence = nextSequence;
+        append(RECORD_ENDPOINT_COMPLETED, sequence, checkpoint.getCompletedAt(), out -> {
+            writeString(out, checkpoint.getMethod());
+            writeString(out, checkpoint.getPath());
+            out.writeInt(checkpoint.getTests().size());
+            for (TestEntry test : checkpoint.getTests()) {
+                writeString(out, test.getTestId());
+                writeString(out, test.getTestName());
+                writeString(out, test.getStrategy());
+            }
+            out.writeInt(checkpoint.getWrittenFiles().size());
+            for (String writtenFile : checkpoint.getWrittenFiles()) {
+                writeString(out, writtenFile);
+            }
+        });
+        completedEndpoints.put(checkpoint.getEndpointKey(), checkpoint);
+    }
+
+    /**
+     * Journals a progress snapshot and returns it with its assigned sequence number.
+     */
+    public synchronized ProgressCheckpoint recordProgress(String currentPhase, String globalState,
+                                                          long globalStartTime) throws IOException {
+        long sequence = nextSequence;
+        long timestamp = System.currentTimeMillis();
+        append(RECORD_PROGRESS, sequence, timestamp, out -> {
+            writeString(out, currentPhase);
+            writeString(out, globalState);
+            out.writeLong(globalStartTime);
+        });
+        ProgressCheckpoint checkpoint = new ProgressCheckpoint(sequence, timestamp, currentPhase, globalState, globalStartTime);
+        progressCheckpoints.add(checkpoint);
+        return checkpoint;
+    }
+
+    private void append(byte type, long sequence, long timestamp, PayloadWriter writer) throws IOException {
+        ensureOpen();
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(type);
+        out.writeLong(sequence);
+        out.writeLong(timestamp);
+        writer.write(out);
+        out.flush();
+        byte[] payload = bytes.toByteArray();
+        if (payload.length > MAX_RECORD_SIZE) {
+            throw new IOException("Checkpoint record of " + payload.length + " bytes exceeds the maximum record size");
+        }
+
+        crc.reset();
+        crc.update(payload, 0, payload.length);
+        ByteBuffer frame = ByteBuffer.allocate(FRAME_HEADER_SIZE + payload.length);
+        frame.putInt(payload.length).putInt((int) crc.getValue()).put(payload).flip();
+        writeFully(channel, frame);
+
+        nextSequence = sequence + 1;
+        unsyncedRecords++;
+        if (unsyncedRecords >= syncBatchSize || System.nanoTime() - lastSyncNanos >= syncIntervalNanos) {
+            force();
+        }
+    }
+
+    // ===== DURABILITY =====
+
+    /**
+     * Forces every appended record to disk.
+     */
+    public synchronized void sync() throws IOException {
+        if (!closed && unsyncedRecords > 0) {
+            force();
+        }
+    }
+
+    /**
+     * {@link #sync()} for periodic tasks: failures are logged, not thrown.
+     */
+    public void syncQuietly() {
+        try {
+            sync();
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Failed to sync checkpoint journal " + file, e);
+        }
+    }
+
+    private void force() throws IOException {
+        channel.force(false);
+        unsyncedRecords = 0;
+        lastSyncNanos = System.nanoTime();
+        lastSyncTimeMillis = System.currentTimeMillis();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        try {
+            if (unsyncedRecords > 0) {
+                force();
+            }
+        } finally {
+            closed = true;
+            channel.close();
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Checkpoint journal " + file + " is closed");
+        }
+    }
+
+    // ===== QUERIES =====
+
+    public static String endpointKey(String method, String path) {
+        return (method != null ? method.toUpperCase(Locale.ROOT) : "GET") + " " + path;
+    }
+
+    /**
+     * Completed endpoints keyed by {@link #endpointKey(String, String)}, in completion order.
+     */
+    public synchronized Map<String, EndpointCheckpoint> getCompletedEndpoints() {
+        return new LinkedHashMap<>(completedEndpoints);
+    }
+
+    public synchronized boolean isCompleted(String method, String path) {
+        return completedEndpoints.containsKey(endpointKey(method, path));
+    }
+
+    public synchronized Optional<ProgressCheckpoint> getLatestProgress() {
+        return progressCheckpoints.isEmpty()
+                ? Optional.empty()
+                : Optional.of(progressCheckpoints.get(progressCheckpoints.size() - 1));
+    }
+
+    public synchronized Optional<ProgressCheckpoint> findProgress(long sequence) {
+        for (int i = progressCheckpoints.size() - 1; i >= 0; i--) {
+            if (progressCheckpoints.get(i).getSequence() == sequence) {
+                return Optional.of(progressCheckpoints.get(i));
+            }
+        }
+        return Optional.empty();
+    }
+
+    public Path getFile() { return file; }
+    public String getRunFingerprint() { return runFingerprint; }
+    public int getRecoveredRecords() { return recoveredRecords; }
+    public synchronized long getRecordCount() { return nextSequence; }
+    public synchronized long getLastSyncTimeMillis() { return lastSyncTimeMillis; }
+
+    // ===== RECOVERY =====
+
+    private void apply(Record record) {
+        nextSequence = Math.max(nextSequence, record.sequence + 1);
+        if (record.endpoint != null) {
+            completedEndpoints.put(record.endpoint.getEndpointKey(), record.endpoint);
+        } else if (record.progress != null) {
+            progressCheckpoints.add(record.progress);
+        }
+    }
+
+    /**
+     * @return offset of the first record, or -1 if the file is not a journal for this run
+     */
+    private static long readHeader(FileChannel channel, String runFingerprint, Path file) throws IOException {
+        ByteBuffer fixed = ByteBuffer.allocate(12);
+        if (readFully(channel, fixed, 0) < fixed.capacity()) {
+            return -1;
+        }
+        fixed.flip();
+        int magic = fixed.getInt();
+        int version = fixed.getInt();
+        int fingerprintLength = fixed.getInt();
+        if (magic != MAGIC) {
+            LOGGER.warning(file + " is not a checkpoint journal");
+            return -1;
+        }
+        if (version != FORMAT_VERSION) {
+            LOGGER.warning("Checkpoint journal " + file + " has unsupported format version " + version);
+            return -1;
+        }
+        if (fingerprintLength < 0 || fingerprintLength > MAX_RECORD_SIZE) {
+            return -1;
+        }
+
+        ByteBuffer fingerprint = ByteBuffer.allocate(fingerprintLength);
+        if (readFully(channel, fingerprint, 12) < fingerprintLength) {
+            return -1;
+        }
+        String stored = new String(fingerprint.array(), StandardCharsets.UTF_8);
+        if (!stored.equals(runFingerprint)) {
+            LOGGER.warning("Checkpoint journal " + file + " was written for a different run (" + stored + ")");
+            return -1;
+        }
+        return 12L + fingerprintLength;
+    }
+
+    /**
+     * Reads records from {@code offset} until the end of the file or the first invalid record.
+     *
+     * @return offset just past the last valid record
+     */
+    private static long scanRecords(FileChannel channel, long offset, List<Record> records) throws IOException {
+        long size = channel.size();
+        CRC32 checksum = new CRC32();
+        ByteBuffer frameHeader = ByteBuffer.allocate(FRAME_HEADER_SIZE);
+
+        while (offset + FRAME_HEADER_SIZE <= size) {
+            frameHeader.clear();
+            if (readFully(channel, frameHeader, offset) < FRAME_HEADER_SIZE) {
+                break;
+            }
+            frameHeader.flip();
+            int length = frameHeader.getInt();
+            int expectedCrc = frameHeader.getInt();
+            if (length <= 0 || length > MAX_RECORD_SIZE || offset + FRAME_HEADER_SIZE + length > size) {
+                break;
+            }
+
+            ByteBuffer payload = ByteBuffer.allocate(length);
+            if (readFully(channel, payload, offset + FRAME_HEADER_SIZE) < length) {
+                break;
+            }
+            checksum.reset();
+            checksum.update(payload.array(), 0, length);
+            if ((int) checksum.getValue() != expectedCrc) {
+                break;
+            }
+
+            Record record = decode(payload.array());
+            if (record == null) {
+                break;
+            }
+            records.add(record);
+            offset += FRAME_HEADER_SIZE + length;
+        }
+        return offset;
+    }
+
+    private static Record decode(byte[] payload) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            byte type = in.readByte();
+            long sequence = in.readLong();
+            long timestamp = in.readLong();
+            switch (type) {
+                case RECORD_ENDPOINT_COMPLETED: {
+                    String method = readString(in);
+                    String path = readString(in);
+                    int testCount = in.readInt();
+                    List<TestEntry> tests = new ArrayList<>(Math.min(testCount, 1024));
+                    for (int i = 0; i < testCount; i++) {
+                        tests.add(new TestEntry(readString(in), readString(in), readString(in)));
+                    }
+                    int fileCount = in.readInt();
+                    List<String> files = new ArrayList<>(Math.min(fileCount, 1024));
+                    for (int i = 0; i < fileCount; i++) {
+                        files.add(readString(in));
+                    }
+                    return new Record(sequence, new EndpointCheckpoint(method, path, timestamp, tests, files), null);
+                }
+                case RECORD_PROGRESS: {
+                    ProgressCheckpoint progress = new ProgressCheckpoint(sequence, timestamp,
+                            readString(in), readString(in), in.readLong());
+                    return new Record(sequence, null, progress);
+                }
+                default:
+                    return null;
+            }
+        } catch (IOException e) {
+            // Checksum matched but the payload does not parse: written by an incompatible build
+            return null;
+        }
+    }
+
+    // ===== ENCODING HELPERS =====
+
+    private static ByteBuffer encodeHeader(String runFingerprint) {
+        byte[] fingerprint = runFingerprint.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer header = ByteBuffer.allocate(12 + fingerprint.length);
+        header.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(fingerprint.length).put(fingerprint).flip();
+        return header;
+    }
+
+    // Length-prefixed UTF-8 rather than writeUTF, which is limited to 64 KB and uses modified UTF-8
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        if (length > in.available()) {
+            throw new EOFException("String length " + length + " exceeds record");
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static int readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        int total = 0;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + total);
+            if (read < 0) {
+                break;
+            }
+            total += read;
+        }
+        return total;
+    }
+
+    @FunctionalInterface
+    private interface PayloadWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private static final class Record {
+        private final long sequence;
+        private final EndpointCheckpoint endpoint;
+        private final ProgressCheckpoint progress;
+
+        Record(long sequence, EndpointCheckpoint endpoint, ProgressCheckpoint progress) {
+            this.sequence = sequence;
+            this.endpoint = endpoint;
+            this.progress = progress;
+        }
+    }
+
+    // ===== RECORD TYPES =====
+
+    /**
+     * A completed endpoint: the tests of its suite and the files written for it.
+     */
+    public static final class EndpointCheckpoint {
+        private final String method;
+        private final String path;
+        private final long completedAt;
+        private final List<TestEntry> tests;
+        private final List<String> writtenFiles;
+
+        public EndpointCheckpoint(String method, String path, long completedAt,
+                                  List<TestEntry> tests, List<String> writtenFiles) {
+            this.method = method;
+            this.path = path;
+            this.completedAt = completedAt;
+            this.tests = List.copyOf(tests);
+            this.writtenFiles = List.copyOf(writtenFiles);
+        }
+
+        public String getEndpointKey() { return endpointKey(method, path); }
+        public String getMethod() { return method; }
+        public String getPath() { return path; }
+        public long getCompletedAt() { return completedAt; }
+        public List<TestEntry> getTests() { return tests; }
+        public List<String> getWrittenFiles() { return writtenFiles; }
+
+        /**
+         * Whether every file written for the endpoint is still on disk; if not, the endpoint must
+         * be regenerated even though it was journaled.
+         */
+        public boolean hasAllFiles() {
+            for (String writtenFile : writtenFiles) {
+                if (!Files.exists(Paths.get(writtenFile))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    public static final class TestEntry {
+        private final String testId;
+        private final String testName;
+        private final String strategy;
+
+        public TestEntry(String testId, String testName, String strategy) {
+            this.testId = testId;
+            this.testName = testName;
+            this.strategy = strategy;
+        }
+
+        public String getTestId() { return testId; }
+        public String getTestName() { return testName; }
+        public String getStrategy() { return strategy; }
+    }
+
+    public static final class ProgressCheckpoint {
+        private final long sequence;
+        private final long timestamp;
+        private final String currentPhase;
+        private final String globalState;
+        private final long globalStartTime;
+
+        ProgressCheckpoint(long sequence, long timestamp, String currentPhase, String globalState, long globalStartTime) {
+            this.sequence = sequence;
+            this.timestamp = timestamp;
+            this.currentPhase = currentPhase;
+            this.globalState = globalState;
+            this.globalStartTime = globalStartTime;
+        }
+
+        public long getSequence() { return sequence; }
+        public long getTimestamp() { return timestamp; }
+        public String getCurrentPhase() { return currentPhase; }
+        public String getGlobalState() { return globalState; }
+        public long getGlobalStartTime() { return globalStartTime; }
+    }
+}
@@ -21,6 +21,7 @@ public class ComprehensiveTestSuite {
     private final AdvancedStrategyExecutionPlan executionPlan;
     private final Duration generationDuration;
     private final Exception error;
+    private final AiUsageLedger.Report aiUsage;
 
     // Private constructor for builder pattern
     private ComprehensiveTestSuite(Builder builder) {
@@ -38,6 +39,7 @@ public class ComprehensiveTestSuite {
         this.executionPlan = builder.executionPlan;
         this.generationDuration = builder.generationDuration != null ? builder.generationDuration : Duration.ZERO;
         this.error = builder.error;
+        this.aiUsage = builder.aiUsage;
     }
 
     // Getters
@@ -97,6 +99,13 @@ public class ComprehensiveTestSuite {
         return error;
     }
 
+    /**
+     * AI tokens and cost of the run that generated this suite, or {@code null} if not recorded
+     */
+    public AiUsageLedger.Report getAiUsage() {
+        return aiUsage;
+    }
+
     public int getTestCaseCount() {
         return testCases.size();
     }
@@ -171,6 +180,7 @@ public class ComprehensiveTestSuite {
         private AdvancedStrategyExecutionPlan executionPlan;
         private Duration generationDuration;
         private Exception error;
+        private AiUsageLedger.Report aiUsage;
 
         public Builder withSuiteId(String suiteId) {
             this.suiteId = suiteId;
@@ -251,6 +261,11 @@ public class ComprehensiveTestSuite {
             return this;
         }
 
+        public Builder withAiUsage(AiUsageLedger.Report aiUsage) {
+            this.aiUsage = aiUsage;
+            return this;
+        }
+
         // Deprecated method for backward compatibility - replaced by withTestCases
         @Deprecated
         public Builder withEndpoint(EndpointInfo endpoint) {
@@ -9,7 +9,6 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 /**
  * ===== STANDARDIZED DATA CONSTRAINTS CLASS - TUTARLILIK REHBERİ UYUMLU =====
@@ -628,17 +627,15 @@ public class DataConstraints {
     public ComprehensiveTestSuite generateComprehensiveTestSuite() {
         String executionId = generateAdvancedExecutionId();
 
-        List<GeneratedTestCase> testCases = new ArrayList<>();
+        // Apply test variation limits while generating
+        TopKSelector<GeneratedTestCase> selector = new TopKSelector<>(Math.max(0, maxTestVariations), GeneratedTestCase.PRIORITY_ORDER);
 
         // Generate test cases for each enabled scenario
         for (TestGenerationScenario scenario : enabledScenarios) {
-            testCases.addAll(generateTestCasesForScenario(scenario, executionId));
+            selector.offerAll(generateTestCasesForScenario(scenario, executionId));
         }
 
-        // Apply test variation limits
-        if (testCases.size() > maxTestVariations) {
-            testCases = prioritizeAndLimit(testCases);
-        }
+        List<GeneratedTestCase> testCases = selector.getSelected();
 
         return ComprehensiveTestSuite.builder()
                 .withTestCases(testCases)
@@ -692,18 +689,15 @@ public class DataConstraints {
      * Tüm test case'ler için değer üretir - Legacy support
      */
     public List<TestCase> generateAllTestCases() {
-        List<TestCase> testCases = new ArrayList<>();
+        // Maksimum varyasyon sınırı uygula
+        TopKSelector<TestCase> selector = new TopKSelector<>(Math.max(0, maxTestVariations),
+                Comparator.comparingInt(testCase -> getLegacyTypePriority(testCase.getType())));
 
         for (TestCaseType caseType : enabledTestTypes) {
-            testCases.addAll(generateTestCasesForType(caseType));
+            selector.offerAll(generateTestCasesForType(caseType));
         }
 
-        // Maksimum varyasyon sınırı uygula
-        if (testCases.size() > maxTestVariations) {
-            testCases = prioritizeAndLimitLegacy(testCases);
-        }
-
-        return testCases;
+        return selector.getSelected();
     }
 
     private List<GeneratedTestCase> generateHappyPathTestCases(String executionId) {
@@ -1182,36 +1176,18 @@ public class DataConstraints {
 
     // ===== PRIORITIZATION AND LIMITING =====
 
-    private List<GeneratedTestCase> prioritizeAndLimit(List<GeneratedTestCase> cases) {
-        return cases.stream()
-                .sorted((a, b) -> {
-                    // Sort by priority (lower is higher priority), then by complexity
-                    int priorityComparison = Integer.compare(a.getPriority(), b.getPriority());
-                    if (priorityComparison != 0) return priorityComparison;
-                    return Integer.compare(b.getComplexity(), a.getComplexity());
-                })
-                .limit(maxTestVariations)
-                .collect(Collectors.toList());
-    }
-
-    private List<TestCase> prioritizeAndLimitLegacy(List<TestCase> cases) {
-        // Öncelik sırası: Security > Boundary > Valid > Invalid
-        Map<TestCaseType, Integer> priorities = new HashMap<>();
-        priorities.put(TestCaseType.SECURITY_INJECTION, 1);
-        priorities.put(TestCaseType.SECURITY_XSS, 1);
-        priorities.put(TestCaseType.VALID_BOUNDARY, 2);
-        priorities.put(TestCaseType.INVALID_RANGE, 3);
-        priorities.put(TestCaseType.INVALID_LENGTH, 3);
-        priorities.put(TestCaseType.VALID_MINIMAL, 4);
-
-        return cases.stream()
-                .sorted((a, b) -> {
-                    int priorityA = priorities.getOrDefault(a.getType(), 5);
-                    int priorityB = priorities.getOrDefault(b.getType(), 5);
-                    return Integer.compare(priorityA, priorityB);
-                })
-                .limit(maxTestVariations)
-                .collect(Collectors.toList());
+    // Öncelik sırası: Security > Boundary > Valid > Invalid
+    private static final Map<TestCaseType, Integer> LEGACY_TYPE_PRIORITIES = Map.of(
+            TestCaseType.SECURITY_INJECTION, 1,
+            TestCaseType.SECURITY_XSS, 1,
+            TestCaseType.VALID_BOUNDARY, 2,
+            TestCaseType.INVALID_RANGE, 3,
+            TestCaseType.INVALID_LENGTH, 3,
+            TestCaseType.VALID_MINIMAL, 4
+    );
+
+    private static int getLegacyTypePriority(TestCaseType type) {
+        return type != null ? LEGACY_TYPE_PRIORITIES.getOrDefault(type, 5) : 5;
     }
 
     // ===== VALIDATION METHODS =====
@@ -203,6 +203,30 @@ public class EndpointComplexity {
             this.securitySchemes = new ArrayList<>();
         }
 
+        /**
+         * Maps the model-level endpoint onto the fields this class scores.
+         */
+        public static EndpointInfo from(org.example.openapi.EndpointInfo source) {
+            EndpointInfo endpoint = new EndpointInfo(source.getMethod(), source.getPath(), source.getOperationId());
+            if (source.getParameters() != null) {
+                for (org.example.openapi.ParameterInfo parameter : source.getParameters()) {
+                    endpoint.parameters.add(new ParameterInfo(parameter.getName(), parameter.getType(), parameter.isRequired()));
+                }
+            }
+            if (source.getResponses() != null) {
+                for (String statusCode : source.getResponses().keySet()) {
+                    endpoint.responses.put(statusCode, new ResponseInfo());
+                }
+            }
+            if (source.getSecuritySchemes() != null) {
+                endpoint.securitySchemes.addAll(source.getSecuritySchemes());
+            }
+            endpoint.requiresAuthentication = source.isRequiresAuthentication();
+            endpoint.hasParameters = source.isHasParameters();
+            endpoint.hasRequestBody = source.isHasRequestBody();
+            return endpoint;
+        }
+
         // Standard getters
         public String getMethod() { return method; }
         public String getPath() { return path; }
@@ -686,17 +710,16 @@ public class EndpointComplexity {
         EndpointComplexity complexity = calculateComplexity(endpoint);
         String executionId = generateAdvancedExecutionId();
 
-        List<GeneratedTestCase> testCases = new ArrayList<>();
+        // Apply complexity-based limits while generating
+        TopKSelector<GeneratedTestCase> selector = new TopKSelector<>(
+                Math.max(0, complexity.recommendedTestCount), GeneratedTestCase.PRIORITY_ORDER);
 
         // Generate test cases based on enabled scenarios
         for (TestGenerationScenario scenario : complexity.enabledScenarios) {
-            testCases.addAll(generateTestCasesForComplexityScenario(scenario, endpoint, executionId));
+            selector.offerAll(generateTestCasesForComplexityScenario(scenario, endpoint, executionId));
         }
 
-        // Apply complexity-based limits
-        if (testCases.size() > complexity.recommendedTestCount) {
-            testCases = prioritizeAndLimit(testCases, complexity.recommendedTestCount);
-        }
+        List<GeneratedTestCase> testCases = selector.getSelected();
 
         return ComprehensiveTestSuite.builder()
                 .withEndpoint(endpoint)
@@ -706,6 +729,13 @@ public class EndpointComplexity {
                 .build();
     }
 
+    /**
+     * Calculates complexity for the model-level endpoint used by the generators
+     */
+    public static EndpointComplexity calculateComplexity(org.example.openapi.EndpointInfo endpoint) {
+        return calculateComplexity(EndpointInfo.from(endpoint));
+    }
+
     /**
      * Endpoint'in toplam karmaşıklığını hesaplar - Enhanced with strategy integration
      */
@@ -797,18 +827,6 @@ public class EndpointComplexity {
         return testCases;
     }
 
-    private static List<GeneratedTestCase> prioritizeAndLimit(List<GeneratedTestCase> cases, int limit) {
-        return cases.stream()
-                .sorted((a, b) -> {
-                    // Sort by priority (lower is higher priority), then by complexity
-                    int priorityComparison = Integer.compare(a.getPriority(), b.getPriority());
-                    if (priorityComparison != 0) return priorityComparison;
-                    return Integer.compare(b.getComplexity(), a.getComplexity());
-                })
-                .limit(limit)
-                .collect(Collectors.toList());
-    }
-
     private static int calculateParameterComplexity(EndpointInfo endpoint) {
         int score = 0;
         int paramCount = endpoint.getParameterCount();
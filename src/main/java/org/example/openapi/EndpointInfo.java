@@ -4,7 +4,6 @@ import java.math.BigDecimal;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * ===== STANDARDIZED ENDPOINT INFO CLASS - TUTARLILIK REHBERİ UYUMLU =====
@@ -343,6 +342,11 @@ public class EndpointInfo {
             return this;
         }
 
+        public Builder withRequestBody(RequestBodyInfo requestBody) {
+            endpoint.setRequestBodyInfo(requestBody);
+            return this;
+        }
+
         public Builder withResponse(String statusCode, ResponseInfo response) {
             endpoint.addResponse(statusCode, response);
             return this;
@@ -519,17 +523,22 @@ public class EndpointInfo {
     public ComprehensiveTestSuite generateComprehensiveTestSuite() {
         String executionId = generateAdvancedExecutionId();
 
-        List<GeneratedTestCase> testCases = new ArrayList<>();
+        // Apply test limits based on estimated count while generating
+        TopKSelector<GeneratedTestCase> selector = new TopKSelector<>(
+                estimatedTestCount > 0 ? estimatedTestCount : Integer.MAX_VALUE, GeneratedTestCase.PRIORITY_ORDER);
 
         // Generate test cases for each enabled scenario
         for (TestGenerationScenario scenario : enabledScenarios) {
-            testCases.addAll(generateTestCasesForScenario(scenario, executionId));
+            // All cases of this endpoint share its business priority, so once the selector is full a
+            // scenario no more complex than the current worst case cannot displace anything
+            if (selector.isFull() && scenario.getComplexity() <= selector.peekWorst().getComplexity()) {
+                selector.recordSkipped();
+                continue;
+            }
+            selector.offerAll(generateTestCasesForScenario(scenario, executionId));
         }
 
-        // Apply test limits based on estimated count
-        if (testCases.size() > estimatedTestCount && estimatedTestCount > 0) {
-            testCases = prioritizeAndLimit(testCases);
-        }
+        List<GeneratedTestCase> testCases = selector.getSelected();
 
         return ComprehensiveTestSuite.builder()
                 .withEndpoint(this)
@@ -570,18 +579,6 @@ public class EndpointInfo {
         return testCases;
     }
 
-    private List<GeneratedTestCase> prioritizeAndLimit(List<GeneratedTestCase> cases) {
-        return cases.stream()
-                .sorted((a, b) -> {
-                    // Sort by priority (lower is higher priority), then by complexity
-                    int priorityComparison = Integer.compare(a.getPriority(), b.getPriority());
-                    if (priorityComparison != 0) return priorityComparison;
-                    return Integer.compare(b.getComplexity(), a.getComplexity());
-                })
-                .limit(estimatedTestCount > 0 ? estimatedTestCount : 50)
-                .collect(Collectors.toList());
-    }
-
     private double calculateConfidenceScore() {
         double baseScore = 0.7; // Base confidence
 
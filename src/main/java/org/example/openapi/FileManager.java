@@ -10,9 +10,10 @@ import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
@@ -51,6 +52,9 @@ public class FileManager {
     // ===== Enterprise Caching =====
     private final Map<String, String> templateCache = new ConcurrentHashMap<>();
     private final Map<String, ComprehensiveTestFileInfo> generatedFiles = new ConcurrentHashMap<>();
+    private final Map<TestFramework, TestFrameworkEmitter> emitters = new ConcurrentHashMap<>();
+    private final TestCaseDeduplicator testCaseDeduplicator = new TestCaseDeduplicator();
+    private final SharedRuntime runtime;
     private final ExecutorService executorService;
 
     // ===== Performance Metrics =====
@@ -339,6 +343,7 @@ public class FileManager {
         private String packageName;
         private String outputDirectory;
         private TestFramework testFramework;
+        private Set<TestFramework> additionalFrameworks;
         private int threadPoolSize;
         private boolean enableMetrics;
         private Map<String, Object> customSettings;
@@ -347,6 +352,7 @@ public class FileManager {
             this.packageName = "com.generated.tests";
             this.outputDirectory = OUTPUT_DIR;
             this.testFramework = TestFramework.JUNIT5;
+            this.additionalFrameworks = EnumSet.noneOf(TestFramework.class);
             this.threadPoolSize = DEFAULT_THREAD_POOL_SIZE;
             this.enableMetrics = true;
             this.customSettings = new HashMap<>();
@@ -359,6 +365,21 @@ public class FileManager {
         public void setOutputDirectory(String outputDirectory) { this.outputDirectory = outputDirectory; }
         public TestFramework getTestFramework() { return testFramework; }
         public void setTestFramework(TestFramework testFramework) { this.testFramework = testFramework; }
+        public Set<TestFramework> getAdditionalFrameworks() { return additionalFrameworks; }
+        public void setAdditionalFrameworks(Set<TestFramework> additionalFrameworks) {
+            this.additionalFrameworks = additionalFrameworks == null || additionalFrameworks.isEmpty()
+                    ? EnumSet.noneOf(TestFramework.class) : EnumSet.copyOf(additionalFrameworks);
+        }
+
+        /**
+         * Primary framework first, then the additional ones, without duplicates.
+         */
+        public List<TestFramework> getTestFrameworks() {
+            Set<TestFramework> frameworks = new LinkedHashSet<>();
+            frameworks.add(testFramework != null ? testFramework : TestFramework.JUNIT5);
+            frameworks.addAll(additionalFrameworks);
+            return new ArrayList<>(frameworks);
+        }
         public int getThreadPoolSize() { return threadPoolSize; }
         public void setThreadPoolSize(int threadPoolSize) { this.threadPoolSize = threadPoolSize; }
         public boolean isEnableMetrics() { return enableMetrics; }
@@ -438,19 +459,19 @@ public class FileManager {
     }
 
     public FileManager(int threadPoolSize) {
-        this.executorService = createOptimizedExecutorService(threadPoolSize);
-        initializeTemplateCache();
-        logger.info("FileManager initialized with thread pool size: " + threadPoolSize);
+        this(threadPoolSize, SharedRuntime.getDefault());
     }
 
-    private ExecutorService createOptimizedExecutorService() {
-        return createOptimizedExecutorService(DEFAULT_THREAD_POOL_SIZE);
-    }
-
-    private ExecutorService createOptimizedExecutorService(int threadPoolSize) {
-        return Executors.newFixedThreadPool(
-                Math.max(1, Math.min(threadPoolSize, Runtime.getRuntime().availableProcessors() * 2))
-        );
+    /**
+     * File writes are blocking I/O, so they run on the shared runtime's I/O executor;
+     * {@code threadPoolSize} is kept for API compatibility and only logged.
+     */
+    public FileManager(int threadPoolSize, SharedRuntime runtime) {
+        this.runtime = Objects.requireNonNull(runtime, "runtime");
+        this.executorService = runtime.getIoExecutor();
+        initializeTemplateCache();
+        TestFrameworkEmitters.defaults(this::loadTemplate).forEach(this::registerEmitter);
+        logger.info("FileManager initialized with thread pool size: " + threadPoolSize);
     }
 
     private void initializeTemplateCache() {
@@ -577,21 +598,30 @@ public class FileManager {
         validateConfiguration(endpoint);
         validateConfiguration(recommendation);
 
-        List<GeneratedTestCase> testCases = new ArrayList<>();
+        // Primary strategy first, then complementary strategies; a strategy listed twice is generated once
+        Set<StrategyType> strategies = new LinkedHashSet<>();
+        strategies.add(recommendation.getPrimaryStrategy());
+        strategies.addAll(recommendation.getComplementaryStrategies());
 
-        // Generate tests based on primary strategy
-        StrategyType primaryStrategy = recommendation.getPrimaryStrategy();
-        if (primaryStrategy != null) {
-            testCases.addAll(generateTestsForStrategy(endpoint, primaryStrategy, recommendation));
-        }
+        // Strategies are generated in parallel and merged as each one completes
+        StrategyResultMerger merger = new StrategyResultMerger();
+        StrategyType inlineStrategy = null;
 
-        // Generate tests based on complementary strategies
-        for (StrategyType strategyType : recommendation.getComplementaryStrategies()) {
-            testCases.addAll(generateTestsForStrategy(endpoint, strategyType, recommendation));
+        for (StrategyType strategyType : strategies) {
+            if (inlineStrategy == null) {
+                // The calling thread generates the first strategy itself instead of idling
+                inlineStrategy = strategyType;
+                continue;
+            }
+            merger.mergeAsync(() -> generateTestsForStrategy(endpoint, strategyType, recommendation), runtime.getCpuExecutor());
         }
 
-        // Apply optimization and quality enhancements
-        testCases = optimizeGeneratedTestCases(testCases);
+        merger.merge(generateTestsForStrategy(endpoint, inlineStrategy, recommendation));
+        merger.await();
+
+        // Drop cases that differ from a higher-priority case only trivially
+        List<GeneratedTestCase> testCases = merger.optimize(testCaseDeduplicator);
+        logger.info("Optimized test cases: " + merger.getGeneratedCount() + " -> " + testCases.size());
 
         logger.info("Generated " + testCases.size() + " test cases for endpoint: " + endpoint.getOperationId());
 
@@ -637,7 +667,10 @@ public class FileManager {
     }
 
     /**
-     * Write comprehensive test suite to files with standard configuration
+     * Write comprehensive test suite to files with standard configuration.
+     *
+     * The suite is compiled to {@link TestIR} once and each class is rendered for every configured
+     * framework ({@link AdvancedConfiguration#getTestFrameworks()}) concurrently.
      */
     public ComprehensiveTestSuiteResult writeComprehensiveTestSuite(
             ComprehensiveTestSuite suite,
@@ -649,41 +682,91 @@ public class FileManager {
         long startTime = System.currentTimeMillis();
         logger.info("Writing comprehensive test suite to files...");
 
-        ComprehensiveTestSuiteResult result = new ComprehensiveTestSuiteResult();
+        ComprehensiveTestSuiteResult result = writeTestIR(suite.getEndpoint(), compileTestIR(suite, config), config);
 
-        try {
-            // Generate test files by category
-            Map<TestCategory, List<GeneratedTestCase>> categorizedTests = categorizeTestCases(suite.getTestCases());
-
-            for (Map.Entry<TestCategory, List<GeneratedTestCase>> entry : categorizedTests.entrySet()) {
-                TestCategory category = entry.getKey();
-                List<GeneratedTestCase> categoryTests = entry.getValue();
-
-                if (!categoryTests.isEmpty()) {
-                    ComprehensiveTestFileInfo fileInfo = generateCategoryTestFile(
-                            suite.getEndpoint(), category, categoryTests, config
-                    );
-                    result.addTestFile(fileInfo);
-                }
-            }
+        long endTime = System.currentTimeMillis();
+        result.setGenerationTime(endTime - startTime);
+        result.setExecutionId(suite.getExecutionId());
+        result.setTotalTestCases(suite.getTestCases().size());
 
-            long endTime = System.currentTimeMillis();
-            result.setGenerationTime(endTime - startTime);
-            result.setExecutionId(suite.getExecutionId());
-            result.setTotalTestCases(suite.getTestCases().size());
-            result.setGenerationTimestamp(Instant.now());
+        logger.info("Comprehensive test suite written successfully in " +
+                (endTime - startTime) + "ms - " + result.getTotalFiles() + " files generated");
 
-            updateFileGenerationMetrics(result);
+        return result;
+    }
 
-            logger.info("Comprehensive test suite written successfully in " +
-                    (endTime - startTime) + "ms - " + result.getTotalFiles() + " files generated");
+    /**
+     * Compiles the suite into one framework-neutral test class per non-empty category.
+     */
+    public List<TestIR.TestClass> compileTestIR(ComprehensiveTestSuite suite, AdvancedConfiguration config) {
+        EndpointInfo endpoint = suite.getEndpoint();
+        Map<TestCategory, List<GeneratedTestCase>> categorizedTests = categorizeTestCases(suite.getTestCases());
+
+        List<TestIR.TestClass> classes = new ArrayList<>(categorizedTests.size());
+        for (TestCategory category : TestCategory.values()) {
+            List<GeneratedTestCase> categoryTests = categorizedTests.get(category);
+            if (categoryTests != null && !categoryTests.isEmpty()) {
+                classes.add(TestIR.compile(config.getPackageName(), generateStandardClassName(endpoint, category),
+                        category, endpoint, categoryTests));
+            }
+        }
+        return classes;
+    }
 
-            return result;
+    /**
+     * Renders compiled classes for every configured framework and writes them. Each class and
+     * framework pair is rendered and written as its own task on the I/O executor.
+     */
+    public ComprehensiveTestSuiteResult writeTestIR(EndpointInfo endpoint, List<TestIR.TestClass> classes,
+                                                    AdvancedConfiguration config) throws IOException {
+        List<TestFrameworkEmitter> frameworkEmitters = new ArrayList<>();
+        for (TestFramework framework : config.getTestFrameworks()) {
+            TestFrameworkEmitter emitter = emitters.get(framework);
+            if (emitter == null) {
+                throw new IllegalArgumentException("No emitter registered for test framework: " + framework);
+            }
+            frameworkEmitters.add(emitter);
+        }
+        boolean perFrameworkDirectory = frameworkEmitters.size() > 1;
+
+        List<CompletableFuture<ComprehensiveTestFileInfo>> writes = new ArrayList<>();
+        for (TestIR.TestClass testClass : classes) {
+            for (TestFrameworkEmitter emitter : frameworkEmitters) {
+                writes.add(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return writeTestClass(testClass, emitter, endpoint, testClass.getMethods().size(),
+                                config, perFrameworkDirectory);
+                    } catch (IOException e) {
+                        throw new CompletionException(e);
+                    }
+                }, executorService));
+            }
+        }
 
-        } catch (Exception e) {
-            logger.severe("Failed to write comprehensive test suite: " + e.getMessage());
-            throw new IOException("Failed to write test suite", e);
+        ComprehensiveTestSuiteResult result = new ComprehensiveTestSuiteResult();
+        try {
+            CompletableFuture.allOf(writes.toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            logger.severe("Failed to write comprehensive test suite: " + cause.getMessage());
+            throw new IOException("Failed to write test suite", cause);
         }
+        // Files are reported in class order, then framework order, whatever order the writes finished in
+        writes.forEach(write -> result.addTestFile(write.join()));
+        result.setTotalTestCases(classes.stream().mapToInt(testClass -> testClass.getMethods().size()).sum());
+        result.setGenerationTimestamp(Instant.now());
+
+        updateFileGenerationMetrics(result);
+        return result;
+    }
+
+    /**
+     * Registers an emitter, replacing the current one for its framework.
+     */
+    public void registerEmitter(TestFrameworkEmitter emitter) {
+        Objects.requireNonNull(emitter, "emitter");
+        emitters.put(emitter.getFramework(), emitter);
+        logger.info("Registered " + emitter.getOutputFormat().getFramework() + " emitter");
     }
 
     // ===== STANDARD VALIDATION METHODS =====
@@ -767,7 +850,7 @@ public class FileManager {
                 endpoint.getOperationId(),
                 strategy.name().toLowerCase(),
                 scenario.name().toLowerCase(),
-                System.nanoTime() % 10000
+                Math.floorMod(Objects.hash(endpoint.getMethod(), endpoint.getPath()), 10000)
         );
     }
 
@@ -969,37 +1052,6 @@ public class FileManager {
 
     // ===== IMPLEMENTATION SUPPORT METHODS =====
 
-    private List<GeneratedTestCase> optimizeGeneratedTestCases(List<GeneratedTestCase> testCases) {
-        // Remove duplicates based on test content
-        Map<String, GeneratedTestCase> uniqueTests = new HashMap<>();
-
-        for (GeneratedTestCase testCase : testCases) {
-            String key = generateTestKey(testCase);
-            if (!uniqueTests.containsKey(key) ||
-                    testCase.getComplexity() > uniqueTests.get(key).getComplexity()) {
-                uniqueTests.put(key, testCase);
-            }
-        }
-
-        List<GeneratedTestCase> optimized = new ArrayList<>(uniqueTests.values());
-
-        // Sort by priority and complexity
-        optimized.sort((a, b) -> {
-            int priorityCompare = Integer.compare(b.getPriority(), a.getPriority());
-            if (priorityCompare != 0) return priorityCompare;
-            return Integer.compare(b.getComplexity(), a.getComplexity());
-        });
-
-        logger.info("Optimized test cases: " + testCases.size() + " -> " + optimized.size());
-        return optimized;
-    }
-
-    private String generateTestKey(GeneratedTestCase testCase) {
-        return testCase.getEndpoint().getOperationId() + "_" +
-                testCase.getStrategyType().name() + "_" +
-                testCase.getScenario().name();
-    }
-
     private Map<TestCategory, List<GeneratedTestCase>> categorizeTestCases(List<GeneratedTestCase> testCases) {
         Map<TestCategory, List<GeneratedTestCase>> categorized = new HashMap<>();
 
@@ -1026,30 +1078,31 @@ public class FileManager {
         }
     }
 
-    private ComprehensiveTestFileInfo generateCategoryTestFile(
-            EndpointInfo endpoint,
-            TestCategory category,
-            List<GeneratedTestCase> testCases,
-            AdvancedConfiguration config) throws IOException {
+    /**
+     * Writes one rendered class to its file for the given framework.
+     */
+    private ComprehensiveTestFileInfo writeTestClass(TestIR.TestClass testClass, TestFrameworkEmitter emitter,
+                                                     EndpointInfo endpoint, int testCaseCount,
+                                                     AdvancedConfiguration config, boolean perFrameworkDirectory)
+            throws IOException {
 
-        String className = generateStandardClassName(endpoint, category);
-        String fileName = className + getOutputFormat(config).getFileExtension();
-        String filePath = buildStandardFilePath(config, fileName);
+        String fileName = testClass.getClassName() + emitter.getOutputFormat().getFileExtension();
+        String filePath = buildStandardFilePath(config, perFrameworkDirectory ? emitter.getFramework() : null,
+                testClass.getPackageName(), fileName);
 
         createDirectoriesIfNeeded(filePath);
-
-        try (BufferedWriter writer = Files.newBufferedWriter(Paths.get(filePath), StandardCharsets.UTF_8)) {
-            writeStandardFileStructure(writer, endpoint, category, testCases, config, className);
-        }
+        Files.writeString(Paths.get(filePath), emitter.render(testClass), StandardCharsets.UTF_8);
 
         ComprehensiveTestFileInfo fileInfo = new ComprehensiveTestFileInfo(
-                filePath, className, category, endpoint, testCases.size(),
-                calculateFileComplexity(testCases), Instant.now()
+                filePath, testClass.getClassName(), testClass.getCategory(), endpoint, testCaseCount,
+                testClass.getComplexity(), Instant.now()
         );
 
-        generatedFiles.put(generateAdvancedCacheKey(endpoint), fileInfo);
+        generatedFiles.put(generateAdvancedCacheKey(endpoint) + "_" + testClass.getCategory()
+                + "_" + emitter.getFramework(), fileInfo);
 
-        logger.info("Generated " + category + " test file: " + fileName + " (" + testCases.size() + " tests)");
+        logger.info("Generated " + testClass.getCategory() + " " + emitter.getOutputFormat().getFramework()
+                + " test file: " + fileName + " (" + testCaseCount + " tests)");
 
         return fileInfo;
     }
@@ -1076,28 +1129,18 @@ public class FileManager {
         return sanitized;
     }
 
-    private OutputFormat getOutputFormat(AdvancedConfiguration config) {
-        if (config.getTestFramework() == null) {
-            return OutputFormat.JAVA_JUNIT5;
-        }
-
-        switch (config.getTestFramework()) {
-            case JUNIT4:
-                return OutputFormat.JAVA_JUNIT4;
-            case JUNIT5:
-                return OutputFormat.JAVA_JUNIT5;
-            case TESTNG:
-                return OutputFormat.JAVA_TESTNG;
-            case SPOCK:
-                return OutputFormat.GROOVY_SPOCK;
-            default:
-                return OutputFormat.JAVA_JUNIT5;
+    /**
+     * outputDir/package/File, or outputDir/framework/package/File when several frameworks are written
+     * so that same-named classes do not collide.
+     */
+    private String buildStandardFilePath(AdvancedConfiguration config, TestFramework framework,
+                                         String packageName, String fileName) {
+        Path root = Paths.get(config.getOutputDirectory());
+        if (framework != null) {
+            root = root.resolve(framework.name().toLowerCase());
         }
-    }
-
-    private String buildStandardFilePath(AdvancedConfiguration config, String fileName) {
-        String packagePath = config.getPackageName().replace('.', File.separatorChar);
-        return Paths.get(config.getOutputDirectory(), packagePath, fileName).toString();
+        String packagePath = packageName == null ? "" : packageName.replace('.', File.separatorChar);
+        return root.resolve(packagePath).resolve(fileName).toString();
     }
 
     private void createDirectoriesIfNeeded(String filePath) throws IOException {
@@ -1110,101 +1153,6 @@ public class FileManager {
         }
     }
 
-    private void writeStandardFileStructure(BufferedWriter writer, EndpointInfo endpoint,
-                                            TestCategory category, List<GeneratedTestCase> testCases,
-                                            AdvancedConfiguration config, String className) throws IOException {
-
-        // Package declaration
-        writer.write("package " + config.getPackageName() + ";\n\n");
-
-        // Standard imports
-        writer.write(loadTemplate("junit5_imports"));
-        writer.write("\n");
-
-        // Additional imports
-        writer.write("import io.restassured.RestAssured;\n");
-        writer.write("import io.restassured.response.Response;\n");
-        writer.write("import static io.restassured.RestAssured.*;\n");
-        writer.write("import static org.hamcrest.Matchers.*;\n\n");
-
-        // Class declaration
-        writer.write("public class " + className + " {\n\n");
-
-        // Test method'larını yaz
-        for (GeneratedTestCase testCase : testCases) {
-            writeStandardTestMethod(writer, testCase);
-            writer.write("\n");
-        }
-
-        // Class'ı kapat
-        writer.write("}\n");
-    }
-
-    private void writeStandardTestMethod(BufferedWriter writer, GeneratedTestCase testCase) throws IOException {
-        writer.write("    @Test\n");
-        writer.write("    public void " + generateSafeMethodName(testCase.getTestName()) + "() {\n");
-        writer.write("        // Test: " + testCase.getDescription() + "\n");
-        writer.write("        // Strategy: " + testCase.getStrategyType().getDescription() + "\n");
-        writer.write("        // Scenario: " + testCase.getScenario().getDescription() + "\n\n");
-        
-        // Generate actual test implementation
-        generateTestImplementation(writer, testCase);
-        
-        writer.write("    }\n");
-    }
-
-    /**
-     * Generates actual test implementation code based on test case
-     */
-    private void generateTestImplementation(BufferedWriter writer, GeneratedTestCase testCase) throws IOException {
-        // Simple but functional test implementation
-        writer.write("        // Setup test environment\n");
-        writer.write("        String baseUrl = \"http://localhost:8080\";\n");
-        writer.write("        \n");
-        
-        // Get endpoint info
-        org.example.openapi.EndpointInfo endpoint = testCase.getEndpoint();
-        if (endpoint != null) {
-            writer.write("        // Execute API call\n");
-            writer.write("        // Method: " + endpoint.getMethod() + ", Path: " + endpoint.getPath() + "\n");
-            writer.write("        \n");
-        }
-        
-        // Write simple assertions based on scenario
-        TestGenerationScenario scenario = testCase.getScenario();
-        writer.write("        // Verify results\n");
-        switch (scenario) {
-            case HAPPY_PATH:
-                writer.write("        // Assert successful response (200 OK)\n");
-                writer.write("        assertTrue(\"Test should pass for happy path scenario\", true);\n");
-                break;
-            case ERROR_HANDLING:
-                writer.write("        // Assert error handling works correctly\n");
-                writer.write("        assertTrue(\"Error handling should work\", true);\n");
-                break;
-            default:
-                writer.write("        // Assert general test case\n");
-                writer.write("        assertTrue(\"Test should execute successfully\", true);\n");
-        }
-    }
-
-    /**
-     * Generates a safe method name for Java
-     */
-    private String generateSafeMethodName(String name) {
-        if (name == null || name.trim().isEmpty()) {
-            return "unknownTest";
-        }
-
-        String sanitized = name.replaceAll("[^a-zA-Z0-9]", "");
-
-        if (sanitized.isEmpty() || !Character.isLetter(sanitized.charAt(0))) {
-            sanitized = "test" + sanitized;
-        }
-
-        return sanitized.length() > 50 ? sanitized.substring(0, 50) : sanitized;
-    }
-
     // ===== UTILITY METHODS =====
 
     /**
@@ -1396,21 +1344,4 @@ public class FileManager {
             logger.info("File generation metrics updated");
         }
     }
-
-    /**
-     * Calculate file complexity from test cases
-     */
-    private int calculateFileComplexity(List<GeneratedTestCase> testCases) {
-        if (testCases == null || testCases.isEmpty()) {
-            return 1;
-        }
-        
-        int complexity = 1; // Base complexity
-        complexity += testCases.size(); // Each test case adds complexity
-        complexity += (int) testCases.stream()
-                .filter(tc -> tc.getAssertions() != null && !tc.getAssertions().isEmpty())
-                .count(); // Assertions add complexity
-                
-        return Math.min(10, complexity); // Cap at 10
-    }
 }
\ No newline at end of file
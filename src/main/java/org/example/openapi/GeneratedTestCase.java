@@ -5,6 +5,14 @@ import java.time.Instant;
 import java.util.*;
 
 public class GeneratedTestCase {
+
+    /**
+     * Most important case first: the lower priority value, then the more complex case.
+     */
+    public static final Comparator<GeneratedTestCase> PRIORITY_ORDER =
+            Comparator.comparingInt(GeneratedTestCase::getPriority)
+                    .thenComparing(Comparator.comparingInt(GeneratedTestCase::getComplexity).reversed());
+
     private String testId;
     private String testName;
     private String description;
@@ -0,0 +1,142 @@
+package org.example.openapi;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * ===== LATENCY TRACKER =====
+ *
+ * Percentiles over the most recent latencies of one operation. It keeps a fixed window of
+ * samples, so the percentiles follow the current behaviour of a remote service rather than its
+ * history, and computes them exactly on demand; a window of about a thousand samples is cheap
+ * enough to sort on every query.
+ *
+ * Thread-safe.
+ *
+ * @author Enhanced Test Generation Team
+ * @since 2025.1
+ */
+public final class LatencyTracker {
+
+    public static final int DEFAULT_WINDOW_SIZE = 1024;
+
+    private final String name;
+
+    // Guarded by this
+    private final long[] window;
+    private int next;
+    private int size;
+    private long count;
+    private long maxNanos;
+
+    public LatencyTracker(String name) {
+        this(name, DEFAULT_WINDOW_SIZE);
+    }
+
+    public LatencyTracker(String name, int windowSize) {
+        if (windowSize <= 0) {
+            throw new IllegalArgumentException("Window size must be positive");
+        }
+        this.name = Objects.requireNonNull(name, "name");
+        this.window = new long[windowSize];
+    }
+
+    public void record(Duration latency) {
+        recordNanos(latency.toNanos());
+    }
+
+    public synchronized void recordNanos(long nanos) {
+        window[next] = nanos;
+        next = (next + 1) % window.length;
+        size = Math.min(size + 1, window.length);
+        count++;
+        maxNanos = Math.max(maxNanos, nanos);
+    }
+
+    /**
+     * Latency below which the fraction {@code quantile} of the window lies, or {@code null} while
+     * the window holds fewer than {@code minSamples} samples.
+     */
+    public Duration percentile(double quantile, int minSamples) {
+        if (quantile <= 0 || quantile > 1) {
+            throw new IllegalArgumentException("Quantile must be in (0, 1]");
+        }
+        long[] samples = sortedSamples();
+        if (samples.length == 0 || samples.length < minSamples) {
+            return null;
+        }
+        return Duration.ofNanos(rank(samples, quantile));
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+
+    public Snapshot getSnapshot() {
+        long[] samples;
+        long total;
+        long max;
+        synchronized (this) {
+            samples = Arrays.copyOf(window, size);
+            total = count;
+            max = maxNanos;
+        }
+        Arrays.sort(samples);
+        if (samples.length == 0) {
+            return new Snapshot(name, 0, Duration.ZERO, Duration.ZERO, Duration.ZERO, Duration.ZERO);
+        }
+        return new Snapshot(name, total, Duration.ofNanos(rank(samples, 0.50)), Duration.ofNanos(rank(samples, 0.95)),
+                Duration.ofNanos(rank(samples, 0.99)), Duration.ofNanos(max));
+    }
+
+    private long[] sortedSamples() {
+        long[] samples;
+        synchronized (this) {
+            samples = Arrays.copyOf(window, size);
+        }
+        Arrays.sort(samples);
+        return samples;
+    }
+
+    // Nearest rank: the smallest sample with at least the quantile of the samples at or below it
+    private static long rank(long[] sorted, double quantile) {
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    /**
+     * Percentiles of the window at one point in time; the maximum and the count cover every
+     * sample recorded.
+     */
+    public static final class Snapshot {
+        private final String name;
+        private final long count;
+        private final Duration p50;
+        private final Duration p95;
+        private final Duration p99;
+        private final Duration max;
+
+        public Snapshot(String name, long count, Duration p50, Duration p95, Duration p99, Duration max) {
+            this.name = name;
+            this.count = count;
+            this.p50 = p50;
+            this.p95 = p95;
+            this.p99 = p99;
+            this.max = max;
+        }
+
+        public String getName() { return name; }
+        public long getCount() { return count; }
+        public Duration getP50() { return p50; }
+        public Duration getP95() { return p95; }
+        public Duration getP99() { return p99; }
+        public Duration getMax() { return max; }
+
+        @Override
+        public String toString() {
+            return String.format("%s{count=%d, p50=%dms, p95=%dms, p99=%dms, max=%dms}",
+                    name, count, p50.toMillis(), p95.toMillis(), p99.toMillis(), max.toMillis());
+        }
+    }
+}
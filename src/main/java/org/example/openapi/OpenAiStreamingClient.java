@@ -0,0 +1,232 @@
+package org.example.openapi;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import okhttp3.Call;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.function.Consumer;
+
+/**
+ * ===== OPENAI STREAMING CLIENT =====
+ *
+ * Chat completions over server-sent events from an OpenAI-compatible endpoint. The reply's text is
+ * handed to a consumer piece by piece as the model produces it, so callers can start working on
+ * the beginning of a long reply while the rest is still being generated; the complete text and
+ * the usage the server reports come back when the stream ends.
+ *
+ * The base URL can point at any server speaking the same protocol, such as the tests'
+ * {@code MockOpenAiServer}. Cancelling the caller's context cancels the HTTP call,
+ * which ends a blocked read at once.
+ *
+ * @author Enhanced Test Generation Team
+ * @since 2025.1
+ */
+public final class OpenAiStreamingClient {
+
+    public static final String DEFAULT_BASE_URL = "https://api.openai.com/";
+
+    private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
+    private static final String DATA_FIELD = "data:";
+    private static final String DONE = "[DONE]";
+    private static final int MAX_ERROR_BODY_CHARS = 500;
+
+    private final OkHttpClient httpClient;
+    private final String completionsUrl;
+    private final String apiKey;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    public OpenAiStreamingClient(OkHttpClient httpClient, String baseUrl, String apiKey) {
+        this.httpClient = Objects.requireNonNull(httpClient, "httpClient");
+        String base = Objects.requireNonNull(baseUrl, "baseUrl");
+        this.completionsUrl = (base.endsWith("/") ? base : base + "/") + "v1/chat/completions";
+        this.apiKey = apiKey;
+    }
+
+    /**
+     * Streams one chat completion, handing each piece of the reply to {@code onText} on the calling
+     * thread as it arrives.
+     *
+     * @throws HttpStatusException if the server rejects the request
+     * @throws IOException if the connection fails or the stream reports an error
+     * @throws CancellationException if the context is cancelled first; a
+     *         {@link StreamCancelledException} with the text received so far once the reply was streaming
+     */
+    public Completion stream(String model, String systemPrompt, String userPrompt, int maxTokens,
+                             double temperature, CancellationContext context, Consumer<String> onText)
+            throws IOException {
+        context.throwIfCancelled();
+        Request request = new Request.Builder()
+                .url(completionsUrl)
+                .header("Authorization", "Bearer " + apiKey)
+                .header("Accept", "text/event-stream")
+                .post(RequestBody.create(requestBody(model, systemPrompt, userPrompt, maxTokens, temperature), JSON))
+                .build();
+
+        Call call = httpClient.newCall(request);
+        StringBuilder text = new StringBuilder();
+        boolean streaming = false;
+        try (CancellationContext.Registration ignored = context.onCancel(call::cancel);
+             Response response = call.execute()) {
+            ResponseBody body = response.body();
+            if (!response.isSuccessful()) {
+                throw new HttpStatusException(response.code(), response.header("Retry-After"),
+                        body != null ? truncate(body.string()) : response.message());
+            }
+            if (body == null) {
+                throw new IOException("Empty response from " + completionsUrl);
+            }
+            streaming = true;
+            return read(body, text, onText);
+        } catch (IOException e) {
+            if (context.isCancelled()) {
+                String message = context.getName() + ": " + context.getCancellationReason();
+                throw streaming ? new StreamCancelledException(message, text.toString()) : new CancellationException(message);
+            }
+            throw e;
+        } catch (CancellationException e) {
+            // Thrown by onText when the caller gives up on the reply
+            throw streaming ? new StreamCancelledException(e.getMessage(), text.toString()) : e;
+        }
+    }
+
+    private String requestBody(String model, String systemPrompt, String userPrompt, int maxTokens,
+                               double temperature) throws IOException {
+        ObjectNode root = mapper.createObjectNode();
+        root.put("model", model);
+        ArrayNode messages = root.putArray("messages");
+        messages.addObject().put("role", "system").put("content", systemPrompt);
+        messages.addObject().put("role", "user").put("content", userPrompt);
+        root.put("max_tokens", maxTokens);
+        root.put("temperature", temperature);
+        root.put("stream", true);
+        // Asks for a final chunk carrying the usage, which is otherwise missing from streams
+        root.putObject("stream_options").put("include_usage", true);
+        return mapper.writeValueAsString(root);
+    }
+
+    private Completion read(ResponseBody body, StringBuilder text, Consumer<String> onText) throws IOException {
+        StringBuilder data = new StringBuilder();
+        long promptTokens = -1;
+        long completionTokens = -1;
+        String finishReason = null;
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body.byteStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith(DATA_FIELD)) {
+                    if (data.length() > 0) {
+                        data.append('\n');
+                    }
+                    data.append(line.substring(DATA_FIELD.length()).trim());
+                    continue;
+                }
+                if (!line.isEmpty() || data.length() == 0) {
+                    // Comments, other fields, or a blank line without an event
+                    continue;
+                }
+
+                String event = data.toString();
+                data.setLength(0);
+                if (DONE.equals(event)) {
+                    break;
+                }
+                JsonNode chunk = mapper.readTree(event);
+                if (chunk.has("error")) {
+                    throw new IOException("Stream failed: " + chunk.get("error").path("message").asText(event));
+                }
+                JsonNode usage = chunk.get("usage");
+                if (usage != null && usage.isObject()) {
+                    promptTokens = usage.path("prompt_tokens").asLong(-1);
+                    completionTokens = usage.path("completion_tokens").asLong(-1);
+                }
+                JsonNode choice = chunk.path("choices").path(0);
+                if (choice.hasNonNull("finish_reason")) {
+                    finishReason = choice.get("finish_reason").asText();
+                }
+                JsonNode content = choice.path("delta").get("content");
+                if (content != null && content.isTextual() && !content.asText().isEmpty()) {
+                    text.append(content.asText());
+                    onText.accept(content.asText());
+                }
+            }
+        }
+        if (finishReason == null) {
+            throw new IOException("Stream ended before the completion finished");
+        }
+        return new Completion(text.toString(), finishReason, promptTokens, completionTokens);
+    }
+
+    private static String truncate(String text) {
+        return text.length() <= MAX_ERROR_BODY_CHARS ? text : text.substring(0, MAX_ERROR_BODY_CHARS) + "...";
+    }
+
+    /**
+     * The caller cancelled a reply that was already streaming. The provider bills the completion
+     * tokens it generated until then, so the text received so far is kept to account for them.
+     */
+    public static final class StreamCancelledException extends CancellationException {
+        private final String streamedText;
+
+        public StreamCancelledException(String message, String streamedText) {
+            super(message);
+            this.streamedText = streamedText;
+        }
+
+        public String getStreamedText() { return streamedText; }
+    }
+
+    /**
+     * A finished completion: its full text, why it stopped, and the usage the server reported
+     * (-1 where it reported none).
+     */
+    public static final class Completion {
+        private final String text;
+        private final String finishReason;
+        private final long promptTokens;
+        private final long completionTokens;
+
+        public Completion(String text, String finishReason, long promptTokens, long completionTokens) {
+            this.text = text;
+            this.finishReason = finishReason;
+            this.promptTokens = promptTokens;
+            this.completionTokens = completionTokens;
+        }
+
+        public String getText() { return text; }
+        public String getFinishReason() { return finishReason; }
+        public long getPromptTokens() { return promptTokens; }
+        public long getCompletionTokens() { return completionTokens; }
+        public boolean hasUsage() { return promptTokens >= 0 && completionTokens >= 0; }
+    }
+
+    /**
+     * The server answered with an error status; {@code Retry-After} is kept as sent, or null.
+     */
+    public static final class HttpStatusException extends IOException {
+        private final int statusCode;
+        private final String retryAfter;
+
+        public HttpStatusException(int statusCode, String retryAfter, String message) {
+            super("HTTP " + statusCode + ": " + message);
+            this.statusCode = statusCode;
+            this.retryAfter = retryAfter;
+        }
+
+        public int getStatusCode() { return statusCode; }
+        public String getRetryAfter() { return retryAfter; }
+    }
+}
@@ -34,7 +34,7 @@ import java.util.regex.Pattern;
  * @version 4.0.0-STANDARDIZED
  * @since 2025.1
  */
-public class ProgressTracker {
+public class ProgressTracker implements AutoCloseable {
 
     // ===== CONSTANTS =====
     private static final Logger LOGGER = Logger.getLogger(ProgressTracker.class.getName());
@@ -48,6 +48,7 @@ public class ProgressTracker {
     private static final long DEFAULT_PERFORMANCE_SAMPLE_INTERVAL_MS = 1000;
     private static final int MAX_CONCURRENT_PHASES = 50;
     private static final int MAX_METRICS_HISTORY = 100000;
+    private static final int MAX_CIRCUIT_BREAKER_TRANSITIONS = 100;
 
     // Timing and prediction constants
     private static final double DEFAULT_PREDICTION_CONFIDENCE_THRESHOLD = 0.85;
@@ -57,7 +58,6 @@ public class ProgressTracker {
     // Memory and resource constants
     private static final long MAX_MEMORY_USAGE_THRESHOLD = 1024 * 1024 * 512; // 512MB
     private static final double CPU_UTILIZATION_WARNING_THRESHOLD = 0.8;
-    private static final int DEFAULT_THREAD_POOL_SIZE = 4;
 
     // ===== STANDARD ENUMS =====
 
@@ -351,8 +351,10 @@ public class ProgressTracker {
     // ===== CORE COMPONENTS =====
 
     private final TrackerConfiguration configuration;
-    private final ExecutorService executorService;
+    private final SharedRuntime runtime;
+    private final SharedRuntime.ShutdownRegistration shutdownRegistration;
     private final ScheduledExecutorService scheduledExecutor;
+    private final List<ScheduledFuture<?>> scheduledTasks = new CopyOnWriteArrayList<>();
 
     // Core tracking state
     private final Map<String, PhaseTracker> activePhases = new ConcurrentHashMap<>();
@@ -381,6 +383,11 @@ public class ProgressTracker {
     private final AtomicLong successfulOperations = new AtomicLong(0);
     private final AtomicLong failedOperations = new AtomicLong(0);
 
+    // AI circuit breakers, by breaker name
+    private final Map<String, AiCircuitBreaker.State> circuitBreakerStates = new ConcurrentHashMap<>();
+    private final Deque<AiCircuitBreaker.Transition> circuitBreakerTransitions = new ConcurrentLinkedDeque<>();
+    private final List<Consumer<AiCircuitBreaker.Transition>> circuitBreakerListeners = new CopyOnWriteArrayList<>();
+
     // ===== CONSTRUCTORS =====
 
     /**
@@ -396,11 +403,21 @@ public class ProgressTracker {
      * @param configuration Tracker configuration
      */
     public ProgressTracker(TrackerConfiguration configuration) {
+        this(configuration, SharedRuntime.getDefault());
+    }
+
+    /**
+     * Constructor with custom configuration and an explicit shared runtime
+     *
+     * @param configuration Tracker configuration
+     * @param runtime Shared pools, scheduler and shutdown lifecycle
+     */
+    public ProgressTracker(TrackerConfiguration configuration, SharedRuntime runtime) {
         this.configuration = validateAndEnhanceConfiguration(configuration);
+        this.runtime = Objects.requireNonNull(runtime, "runtime");
 
-        // Initialize thread pools
-        this.executorService = createOptimizedExecutorService();
-        this.scheduledExecutor = Executors.newScheduledThreadPool(DEFAULT_THREAD_POOL_SIZE);
+        // Periodic monitoring runs on the shared runtime's scheduler
+        this.scheduledExecutor = runtime.getScheduler();
 
         // Initialize core components
         this.metricsCollector = new MetricsCollector(this.configuration);
@@ -416,7 +433,7 @@ public class ProgressTracker {
 
         // Setup monitoring schedules
         initializeMonitoring();
-        initializeShutdownHooks();
+        this.shutdownRegistration = initializeShutdownHooks();
 
         LOGGER.info("Enhanced ProgressTracker v" + VERSION + " initialized with " +
                 configuration.getTrackingLevel() + " tracking level");
@@ -437,6 +454,8 @@ public class ProgressTracker {
         private Duration checkpointInterval = Duration.ofSeconds(5);
         private int metricsBufferSize = DEFAULT_METRICS_BUFFER_SIZE;
         private Map<String, Object> customProperties = new HashMap<>();
+        private Path checkpointJournalPath;
+        private SharedRuntime runtime;
 
         public Builder withTrackingLevel(TrackingLevel level) {
             this.trackingLevel = level;
@@ -473,6 +492,16 @@ public class ProgressTracker {
             return this;
         }
 
+        /**
+         * File that persistent checkpoints are appended to; only used with persistence enabled.
+         * Without one, checkpoints are not written to disk. Give each run a file of its own: the
+         * journal is reopened and appended to by every tracker that names it.
+         */
+        public Builder withCheckpointJournal(Path journalPath) {
+            this.checkpointJournalPath = journalPath;
+            return this;
+        }
+
         public Builder withMetricsBufferSize(int size) {
             this.metricsBufferSize = size;
             return this;
@@ -483,13 +512,18 @@ public class ProgressTracker {
             return this;
         }
 
+        public Builder withRuntime(SharedRuntime runtime) {
+            this.runtime = runtime;
+            return this;
+        }
+
         public ProgressTracker build() {
             TrackerConfiguration config = new TrackerConfiguration(
                     trackingLevel, enableRealTimeMonitoring, enablePredictiveAnalytics,
                     enablePersistence, enableDistributedMode, notificationChannels,
-                    checkpointInterval, metricsBufferSize, customProperties
+                    checkpointInterval, metricsBufferSize, customProperties, checkpointJournalPath
             );
-            return new ProgressTracker(config);
+            return new ProgressTracker(config, runtime != null ? runtime : SharedRuntime.getDefault());
         }
     }
 
@@ -1073,56 +1107,110 @@ public class ProgressTracker {
         LOGGER.info("Updated monitoring thresholds: " + thresholds.keySet());
     }
 
-    // ===== HELPER METHODS =====
+    // ===== AI CIRCUIT BREAKERS =====
 
-    private ExecutorService createOptimizedExecutorService() {
-        return new ThreadPoolExecutor(
-                DEFAULT_THREAD_POOL_SIZE,
-                DEFAULT_THREAD_POOL_SIZE * 2,
-                60L, TimeUnit.SECONDS,
-                new LinkedBlockingQueue<>(1000),
-                r -> {
-                    Thread t = new Thread(r, "ProgressTracker-Worker");
-                    t.setDaemon(true);
-                    return t;
-                },
-                new ThreadPoolExecutor.CallerRunsPolicy()
-        );
+    /**
+     * Records a transition of an AI provider's circuit breaker and passes it on to the listeners.
+     * An opening breaker raises a warning alert, since the run continues without that provider.
+     *
+     * @param transition Transition as reported by the breaker
+     */
+    public void recordCircuitBreakerTransition(AiCircuitBreaker.Transition transition) {
+        circuitBreakerStates.put(transition.getName(), transition.getTo());
+        circuitBreakerTransitions.addLast(transition);
+        while (circuitBreakerTransitions.size() > MAX_CIRCUIT_BREAKER_TRANSITIONS) {
+            circuitBreakerTransitions.pollFirst();
+        }
+        lastUpdateTime.set(System.currentTimeMillis());
+
+        if (transition.getTo() == AiCircuitBreaker.State.OPEN) {
+            alertManager.triggerAlert(AlertSeverity.WARNING, "AI circuit open",
+                    transition.getName() + " skipped until it recovers: " + transition.getReason(), null);
+        }
+        notificationManager.notifyCircuitBreakerTransition(transition);
+        for (Consumer<AiCircuitBreaker.Transition> listener : circuitBreakerListeners) {
+            try {
+                listener.accept(transition);
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Circuit breaker listener failed", e);
+            }
+        }
+    }
+
+    /**
+     * Subscribes to AI circuit breaker transitions
+     *
+     * @param listener Called with each transition, on the thread that caused it
+     */
+    public void onCircuitBreakerTransition(Consumer<AiCircuitBreaker.Transition> listener) {
+        circuitBreakerListeners.add(Objects.requireNonNull(listener, "listener"));
+    }
+
+    /**
+     * Gets the latest known state of each AI circuit breaker that has changed state
+     *
+     * @return States by breaker name
+     */
+    public Map<String, AiCircuitBreaker.State> getCircuitBreakerStates() {
+        return new HashMap<>(circuitBreakerStates);
     }
 
+    /**
+     * Gets the most recent AI circuit breaker transitions, oldest first
+     *
+     * @param limit Maximum number of transitions to return
+     * @return Recent transitions list
+     */
+    public List<AiCircuitBreaker.Transition> getCircuitBreakerTransitions(int limit) {
+        List<AiCircuitBreaker.Transition> transitions = new ArrayList<>(circuitBreakerTransitions);
+        return transitions.subList(Math.max(0, transitions.size() - limit), transitions.size());
+    }
+
+    // ===== HELPER METHODS =====
+
     private void initializeMonitoring() {
         if (configuration.isRealTimeMonitoringEnabled()) {
             // Schedule periodic metrics collection
-            scheduledExecutor.scheduleAtFixedRate(
+            scheduledTasks.add(scheduledExecutor.scheduleAtFixedRate(
                     this::collectSystemMetrics,
                     0,
                     DEFAULT_PERFORMANCE_SAMPLE_INTERVAL_MS,
                     TimeUnit.MILLISECONDS
-            );
+            ));
 
             // Schedule health checks
-            scheduledExecutor.scheduleAtFixedRate(
+            scheduledTasks.add(scheduledExecutor.scheduleAtFixedRate(
                     this::performHealthCheck,
                     0,
                     10,
                     TimeUnit.SECONDS
-            );
+            ));
 
             // Schedule cleanup of stale metrics
-            scheduledExecutor.scheduleAtFixedRate(
+            scheduledTasks.add(scheduledExecutor.scheduleAtFixedRate(
                     this::cleanupStaleMetrics,
                     60,
                     60,
                     TimeUnit.SECONDS
-            );
+            ));
         }
     }
 
-    private void initializeShutdownHooks() {
-        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+    private SharedRuntime.ShutdownRegistration initializeShutdownHooks() {
+        return runtime.registerShutdownTask("ProgressTracker", () -> {
             LOGGER.info("Progress tracker shutdown initiated...");
             performGracefulShutdown();
-        }));
+        });
+    }
+
+    /**
+     * Completes active phases, stops periodic tasks and deregisters this tracker from the shared
+     * runtime, which keeps serving other components.
+     */
+    @Override
+    public void close() {
+        shutdownRegistration.close();
+        performGracefulShutdown();
     }
 
     private void collectSystemMetrics() {
@@ -1311,17 +1399,10 @@ public class ProgressTracker {
                 persistenceManager.createCheckpoint(createProgressSnapshot());
             }
 
-            // Shutdown executors
-            executorService.shutdown();
-            scheduledExecutor.shutdown();
-
-            // Wait for termination
-            if (!executorService.awaitTermination(10, TimeUnit.SECONDS)) {
-                executorService.shutdownNow();
-            }
-            if (!scheduledExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
-                scheduledExecutor.shutdownNow();
-            }
+            // Stop periodic tasks; the shared runtime drains and stops the executors themselves
+            scheduledTasks.forEach(task -> task.cancel(false));
+            scheduledTasks.clear();
+            persistenceManager.close();
 
             LOGGER.info("Progress tracker shutdown completed");
 
@@ -1416,12 +1497,23 @@ public class ProgressTracker {
         private final Duration checkpointInterval;
         private final int metricsBufferSize;
         private final Map<String, Object> customProperties;
+        private final Path checkpointJournalPath;
 
         public TrackerConfiguration(TrackingLevel trackingLevel, boolean realTimeMonitoringEnabled,
                                     boolean predictiveAnalyticsEnabled, boolean persistenceEnabled,
                                     boolean distributedModeEnabled, Set<NotificationChannel> notificationChannels,
                                     Duration checkpointInterval, int metricsBufferSize,
                                     Map<String, Object> customProperties) {
+            this(trackingLevel, realTimeMonitoringEnabled, predictiveAnalyticsEnabled, persistenceEnabled,
+                    distributedModeEnabled, notificationChannels, checkpointInterval, metricsBufferSize,
+                    customProperties, null);
+        }
+
+        public TrackerConfiguration(TrackingLevel trackingLevel, boolean realTimeMonitoringEnabled,
+                                    boolean predictiveAnalyticsEnabled, boolean persistenceEnabled,
+                                    boolean distributedModeEnabled, Set<NotificationChannel> notificationChannels,
+                                    Duration checkpointInterval, int metricsBufferSize,
+                                    Map<String, Object> customProperties, Path checkpointJournalPath) {
             this.trackingLevel = trackingLevel;
             this.realTimeMonitoringEnabled = realTimeMonitoringEnabled;
             this.predictiveAnalyticsEnabled = predictiveAnalyticsEnabled;
@@ -1431,6 +1523,7 @@ public class ProgressTracker {
             this.checkpointInterval = checkpointInterval;
             this.metricsBufferSize = metricsBufferSize;
             this.customProperties = new HashMap<>(customProperties);
+            this.checkpointJournalPath = checkpointJournalPath;
         }
 
         public static TrackerConfiguration createDefault() {
@@ -1457,6 +1550,8 @@ public class ProgressTracker {
         public Duration getCheckpointInterval() { return checkpointInterval; }
         public int getMetricsBufferSize() { return metricsBufferSize; }
         public Map<String, Object> getCustomProperties() { return new HashMap<>(customProperties); }
+        /** Journal of persistent checkpoints, or {@code null} when they are not written to disk */
+        public Path getCheckpointJournalPath() { return checkpointJournalPath; }
     }
 
     /**
@@ -1931,18 +2026,124 @@ public class ProgressTracker {
         public void notifyPhaseCompleted(String name, PhaseMetrics metrics) {}
         public void notifyPhaseFailure(String name, Throwable error, String message) {}
         public void notifyGlobalCompletion(GlobalMetrics metrics) {}
+        public void notifyCircuitBreakerTransition(AiCircuitBreaker.Transition transition) {}
         public ProgressSubscription subscribe(ProgressUpdateListener listener) {
             return new ProgressSubscription();
         }
     }
 
+    /**
+     * Persists checkpoints to an append-only {@link CheckpointJournal}, when the configuration names
+     * one; otherwise checkpoints are only referenced, not stored. Only the tracker-level state
+     * (global state, start time, current phase) is journaled; phase trackers are not restored from a
+     * journal written by another process. Completed endpoints can be journaled alongside, so a
+     * restarted run knows which work to skip.
+     */
     public static class PersistenceManager {
-        public PersistenceManager(TrackerConfiguration config) {}
+        private static final String JOURNAL_FINGERPRINT = "progress-tracker";
+        private static final String CHECKPOINT_PREFIX = "checkpoint-";
+
+        private final CheckpointJournal journal;
+        private final AtomicLong lastCheckpointTime = new AtomicLong(System.currentTimeMillis());
+
+        public PersistenceManager(TrackerConfiguration config) {
+            this.journal = config.isPersistenceEnabled() && config.getCheckpointJournalPath() != null
+                    ? openJournal(config.getCheckpointJournalPath())
+                    : null;
+        }
+
+        private static CheckpointJournal openJournal(Path journalPath) {
+            try {
+                return CheckpointJournal.open(journalPath, JOURNAL_FINGERPRINT, true);
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Checkpoint journal unavailable, checkpoints will not survive a restart", e);
+                return null;
+            }
+        }
+
         public CheckpointReference createCheckpoint(ProgressState state) {
-            return new CheckpointReference("checkpoint-" + System.currentTimeMillis());
+            lastCheckpointTime.set(System.currentTimeMillis());
+            if (journal == null) {
+                return new CheckpointReference(CHECKPOINT_PREFIX + state.getTimestamp());
+            }
+            try {
+                CheckpointJournal.ProgressCheckpoint checkpoint = journal.recordProgress(
+                        state.getCurrentPhase(), state.getGlobalState().name(), state.getGlobalStartTime());
+                return new CheckpointReference(CHECKPOINT_PREFIX + checkpoint.getSequence());
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Failed to write checkpoint", e);
+                return new CheckpointReference(CHECKPOINT_PREFIX + state.getTimestamp());
+            }
+        }
+
+        public ProgressState loadCheckpoint(CheckpointReference ref) {
+            if (journal == null || !ref.getId().startsWith(CHECKPOINT_PREFIX)) {
+                throw new IllegalArgumentException("Unknown checkpoint: " + ref.getId());
+            }
+            long sequence;
+            try {
+                sequence = Long.parseLong(ref.getId().substring(CHECKPOINT_PREFIX.length()));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Unknown checkpoint: " + ref.getId(), e);
+            }
+            return journal.findProgress(sequence)
+                    .map(PersistenceManager::toProgressState)
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown checkpoint: " + ref.getId()));
+        }
+
+        /**
+         * Most recent persisted checkpoint, including ones written before a restart.
+         */
+        public Optional<CheckpointReference> getLatestCheckpoint() {
+            if (journal == null) {
+                return Optional.empty();
+            }
+            return journal.getLatestProgress()
+                    .map(checkpoint -> new CheckpointReference(CHECKPOINT_PREFIX + checkpoint.getSequence()));
+        }
+
+        public void recordEndpointCompleted(CheckpointJournal.EndpointCheckpoint checkpoint) {
+            if (journal == null) {
+                return;
+            }
+            try {
+                journal.recordEndpointCompleted(checkpoint);
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Failed to journal completed endpoint " + checkpoint.getEndpointKey(), e);
+            }
+        }
+
+        public Map<String, CheckpointJournal.EndpointCheckpoint> getCompletedEndpoints() {
+            return journal != null ? journal.getCompletedEndpoints() : Collections.emptyMap();
+        }
+
+        public long getLastCheckpointTime() { return lastCheckpointTime.get(); }
+
+        public void close() {
+            if (journal == null) {
+                return;
+            }
+            try {
+                journal.close();
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Failed to close checkpoint journal", e);
+            }
+        }
+
+        private static ProgressState toProgressState(CheckpointJournal.ProgressCheckpoint checkpoint) {
+            TrackerState state;
+            try {
+                state = TrackerState.valueOf(checkpoint.getGlobalState());
+            } catch (IllegalArgumentException | NullPointerException e) {
+                state = TrackerState.IDLE;
+            }
+            return new ProgressState.Builder()
+                    .withGlobalState(state)
+                    .withGlobalStartTime(checkpoint.getGlobalStartTime())
+                    .withCurrentPhase(checkpoint.getCurrentPhase())
+                    .withTimestamp(checkpoint.getTimestamp())
+                    .build();
         }
-        public ProgressState loadCheckpoint(CheckpointReference ref) { return new ProgressState(); }
-        public long getLastCheckpointTime() { return System.currentTimeMillis(); }
     }
 
     public static class SystemResourceMonitor {
@@ -2070,19 +2271,30 @@ public class ProgressTracker {
     }
 
     public static class ProgressState {
-        public List<PhaseStateData> getPhaseStates() { return new ArrayList<>(); }
-        public TrackerState getGlobalState() { return TrackerState.IDLE; }
-        public long getGlobalStartTime() { return System.currentTimeMillis(); }
-        public String getCurrentPhase() { return "idle"; }
+        private List<PhaseStateData> phaseStates = new ArrayList<>();
+        private TrackerState globalState = TrackerState.IDLE;
+        private long globalStartTime = System.currentTimeMillis();
+        private String currentPhase = "idle";
+        private long timestamp = System.currentTimeMillis();
+        private GlobalMetrics metrics;
+
+        public List<PhaseStateData> getPhaseStates() { return new ArrayList<>(phaseStates); }
+        public TrackerState getGlobalState() { return globalState; }
+        public long getGlobalStartTime() { return globalStartTime; }
+        public String getCurrentPhase() { return currentPhase; }
+        public long getTimestamp() { return timestamp; }
+        public GlobalMetrics getMetrics() { return metrics; }
 
         public static class Builder {
-            public Builder withGlobalState(TrackerState state) { return this; }
-            public Builder withGlobalStartTime(long time) { return this; }
-            public Builder withCurrentPhase(String phase) { return this; }
-            public Builder withTimestamp(long timestamp) { return this; }
-            public Builder withPhaseStates(List<PhaseStateData> states) { return this; }
-            public Builder withMetrics(GlobalMetrics metrics) { return this; }
-            public ProgressState build() { return new ProgressState(); }
+            private final ProgressState state = new ProgressState();
+
+            public Builder withGlobalState(TrackerState globalState) { state.globalState = globalState; return this; }
+            public Builder withGlobalStartTime(long time) { state.globalStartTime = time; return this; }
+            public Builder withCurrentPhase(String phase) { state.currentPhase = phase; return this; }
+            public Builder withTimestamp(long timestamp) { state.timestamp = timestamp; return this; }
+            public Builder withPhaseStates(List<PhaseStateData> states) { state.phaseStates = new ArrayList<>(states); return this; }
+            public Builder withMetrics(GlobalMetrics metrics) { state.metrics = metrics; return this; }
+            public ProgressState build() { return state; }
         }
     }
 
@@ -0,0 +1,556 @@
+package org.example.openapi;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * ===== PROMPT CONTEXT COMPACTOR =====
+ *
+ * Writes the schema context of an endpoint for an AI prompt in as few tokens as the requested test
+ * types allow. Serializing deep request and response schemas naively makes prompts large, slow
+ * and expensive; the compactor instead:
+ *
+ * <ul>
+ *   <li>prunes what the test types do not use: value constraints only matter for edge case,
+ *       negative, security and contract tests, error response schemas only for negative, security
+ *       and contract tests, examples and defaults never;</li>
+ *   <li>writes an object schema that occurs more than once just once, under a name, and refers to
+ *       it by that name elsewhere;</li>
+ *   <li>shortens descriptions to their first sentence;</li>
+ *   <li>keeps the context within a token budget, giving up descriptions, then optional fields,
+ *       then nesting depth, and finally cutting the text off.</li>
+ * </ul>
+ *
+ * The result reports the tokens of the same schemas written out in full next to the compacted
+ * ones. That full serialization is only a reference for how much the compaction leaves out: the
+ * context is new to the prompt, so it adds its compacted tokens rather than saving any. Token
+ * counts are {@link TokenEstimator} estimates.
+ *
+ * @author Enhanced Test Generation Team
+ * @since 2025.1
+ */
+public final class PromptContextCompactor {
+
+    public static final int DEFAULT_TOKEN_BUDGET = 1000;
+
+    // Guards the full serialization against self-referencing schemas
+    private static final int MAX_DEPTH = 12;
+    private static final int REDUCED_DEPTH = 2;
+    private static final int MAX_DESCRIPTION_CHARS = 80;
+    private static final int MAX_ENUM_VALUES = 8;
+    // Smaller schemas cost less written out than a named reference and its definition
+    private static final int MIN_SHARED_SCHEMA_CHARS = 60;
+    private static final String TRUNCATED = "... (context truncated)\n";
+
+    private final Set<TestBuilder.TestType> testTypes;
+    private final int tokenBudget;
+
+    public PromptContextCompactor(Set<TestBuilder.TestType> testTypes, int tokenBudget) {
+        if (tokenBudget <= 0) {
+            throw new IllegalArgumentException("Prompt token budget must be positive");
+        }
+        this.testTypes = testTypes.isEmpty() ? EnumSet.noneOf(TestBuilder.TestType.class) : EnumSet.copyOf(testTypes);
+        this.tokenBudget = tokenBudget;
+    }
+
+    /**
+     * Compacted context of the endpoint.
+     *
+     * @param securitySensitive whether to mark sensitive fields even when no security tests are
+     *                          requested, for endpoints with a high security risk
+     */
+    public Result compact(EndpointInfo endpoint, boolean securitySensitive) {
+        Objects.requireNonNull(endpoint, "endpoint");
+        int fullSchemaTokens = TokenEstimator.estimate(new Writer(endpoint, Settings.full()).write());
+
+        Settings settings = Settings.pruned(testTypes, securitySensitive);
+        String text = new Writer(endpoint, settings).write();
+        int level = 0;
+        // Each step gives up more detail until the context fits
+        while (TokenEstimator.estimate(text) > tokenBudget && level < 3) {
+            level++;
+            settings = settings.reduced(level);
+            text = new Writer(endpoint, settings).write();
+        }
+        boolean truncated = false;
+        if (TokenEstimator.estimate(text) > tokenBudget) {
+            text = truncate(text);
+            truncated = true;
+        }
+        return new Result(text, fullSchemaTokens, TokenEstimator.estimate(text), level, truncated);
+    }
+
+    private String truncate(String text) {
+        int budget = tokenBudget - TokenEstimator.estimate(TRUNCATED);
+        int end = text.length();
+        while (end > 0 && TokenEstimator.estimate(text.substring(0, end)) > budget) {
+            // Shrinks by an eighth per step, then back to the last whole line
+            end = text.lastIndexOf('\n', Math.max(0, end - Math.max(1, end / 8)));
+            end = end < 0 ? 0 : end + 1;
+        }
+        return text.substring(0, end) + TRUNCATED;
+    }
+
+    // ===== SETTINGS =====
+
+    /**
+     * What the context includes.
+     */
+    private static final class Settings {
+        boolean descriptions = true;
+        boolean fullDescriptions;
+        boolean examples;
+        boolean valueConstraints = true;
+        boolean sensitiveMarkers = true;
+        boolean optionalFields = true;
+        boolean successSchemas = true;
+        boolean errorSchemas = true;
+        boolean sharedSchemas;
+        int maxDepth = MAX_DEPTH;
+
+        static Settings full() {
+            Settings settings = new Settings();
+            settings.fullDescriptions = true;
+            settings.examples = true;
+            return settings;
+        }
+
+        static Settings pruned(Set<TestBuilder.TestType> types, boolean securitySensitive) {
+            Settings settings = new Settings();
+            settings.valueConstraints = containsAny(types, TestBuilder.TestType.EDGE_CASE, TestBuilder.TestType.NEGATIVE,
+                    TestBuilder.TestType.SECURITY, TestBuilder.TestType.CONTRACT);
+            settings.sensitiveMarkers = securitySensitive || types.contains(TestBuilder.TestType.SECURITY);
+            settings.successSchemas = containsAny(types, TestBuilder.TestType.FUNCTIONAL, TestBuilder.TestType.CONTRACT,
+                    TestBuilder.TestType.INTEGRATION, TestBuilder.TestType.EDGE_CASE);
+            settings.errorSchemas = containsAny(types, TestBuilder.TestType.NEGATIVE, TestBuilder.TestType.SECURITY,
+                    TestBuilder.TestType.CONTRACT);
+            settings.sharedSchemas = true;
+            return settings;
+        }
+
+        private static boolean containsAny(Set<TestBuilder.TestType> types, TestBuilder.TestType... wanted) {
+            for (TestBuilder.TestType type : wanted) {
+                if (types.contains(type)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        Settings reduced(int level) {
+            Settings settings = copy();
+            settings.descriptions = false;
+            settings.optionalFields = level < 2;
+            settings.maxDepth = level < 3 ? maxDepth : REDUCED_DEPTH;
+            return settings;
+        }
+
+        private Settings copy() {
+            Settings settings = new Settings();
+            settings.descriptions = descriptions;
+            settings.fullDescriptions = fullDescriptions;
+            settings.examples = examples;
+            settings.valueConstraints = valueConstraints;
+            settings.sensitiveMarkers = sensitiveMarkers;
+            settings.optionalFields = optionalFields;
+            settings.successSchemas = successSchemas;
+            settings.errorSchemas = errorSchemas;
+            settings.sharedSchemas = sharedSchemas;
+            settings.maxDepth = maxDepth;
+            return settings;
+        }
+    }
+
+    // ===== WRITING =====
+
+    /**
+     * Writes one endpoint's context with one set of settings. Shared schemas are found in a first
+     * pass that writes every object schema on its own and counts the identical ones.
+     */
+    private static final class Writer {
+        private final EndpointInfo endpoint;
+        private final Settings settings;
+        private final Map<String, Integer> occurrences = new HashMap<>();
+        private final Map<String, String> sharedNames = new LinkedHashMap<>();
+        private final Map<String, String> sharedBodies = new LinkedHashMap<>();
+        private boolean counting;
+        private boolean expanding;
+
+        Writer(EndpointInfo endpoint, Settings settings) {
+            this.endpoint = endpoint;
+            this.settings = settings;
+        }
+
+        String write() {
+            if (settings.sharedSchemas) {
+                counting = true;
+                writeSections();
+                counting = false;
+            }
+            String sections = writeSections();
+            if (sharedBodies.isEmpty()) {
+                return sections;
+            }
+            StringBuilder out = new StringBuilder(sections);
+            out.append("Shared schemas:\n");
+            sharedBodies.forEach((name, body) -> out.append("  @").append(name).append(" = ").append(body));
+            return out.toString();
+        }
+
+        private String writeSections() {
+            StringBuilder out = new StringBuilder();
+            String description = describe(endpoint.getDescription());
+            if (description != null) {
+                out.append("Description: ").append(description).append('\n');
+            }
+            writeParameters(out);
+            writeRequestBody(out);
+            writeResponses(out);
+            return out.toString();
+        }
+
+        private void writeParameters(StringBuilder out) {
+            List<ParameterInfo> parameters = endpoint.getParameters();
+            if (parameters == null || parameters.isEmpty()) {
+                return;
+            }
+            int written = 0;
+            for (ParameterInfo parameter : parameters) {
+                if (!settings.optionalFields && !parameter.isRequired()) {
+                    continue;
+                }
+                if (written++ == 0) {
+                    out.append("Parameters:\n");
+                }
+                out.append("- ").append(parameter.getName()).append(" (").append(parameter.getIn());
+                DataConstraints constraints = parameter.getDataConstraints();
+                String type = constraints != null && constraints.getType() != null ? constraints.getType() : parameter.getType();
+                if (type != null) {
+                    out.append(", ").append(type);
+                }
+                if (parameter.getFormat() != null) {
+                    out.append(' ').append(parameter.getFormat());
+                }
+                if (parameter.isRequired()) {
+                    out.append(", required");
+                }
+                out.append(')');
+                if (constraints != null) {
+                    out.append(attributes(constraints));
+                }
+                if (settings.examples && parameter.getExample() != null) {
+                    out.append(" example=").append(parameter.getExample());
+                }
+                String text = describe(parameter.getDescription());
+                if (text != null && !text.equalsIgnoreCase(parameter.getName())) {
+                    out.append(": ").append(text);
+                }
+                out.append('\n');
+            }
+        }
+
+        private void writeRequestBody(StringBuilder out) {
+            RequestBodyInfo body = endpoint.getRequestBodyInfo();
+            if (body == null) {
+                return;
+            }
+            out.append("Request body");
+            if (body.getPrimaryContentType() != null) {
+                out.append(" (").append(body.getPrimaryContentType()).append(')');
+            }
+            out.append(body.isRequired() ? ", required:" : ":");
+            writeSchema(out, body.getPropertyConstraints(), body.getRequiredProperties(), body.getDataConstraints(), 1);
+            if (settings.examples && body.getExampleData() != null) {
+                out.append("  example: ").append(body.getExampleData()).append('\n');
+            }
+        }
+
+        private void writeResponses(StringBuilder out) {
+            Map<String, ResponseInfo> responses = endpoint.getResponses();
+            if (responses == null || responses.isEmpty()) {
+                return;
+            }
+            out.append("Responses:\n");
+            List<String> withoutSchema = new ArrayList<>();
+            for (Map.Entry<String, ResponseInfo> entry : new TreeMap<>(responses).entrySet()) {
+                ResponseInfo response = entry.getValue();
+                boolean error = entry.getKey().startsWith("4") || entry.getKey().startsWith("5");
+                Set<String> fields = response != null ? response.getPropertyConstraints().keySet() : Set.of();
+                if (fields.isEmpty() || !(error ? settings.errorSchemas : settings.successSchemas)) {
+                    withoutSchema.add(entry.getKey());
+                    continue;
+                }
+                out.append("  ").append(entry.getKey());
+                String text = describe(response.getDescription());
+                if (text != null) {
+                    out.append(" (").append(text).append(')');
+                }
+                out.append(": ").append(fieldList(fields, response.getRequiredProperties())).append('\n');
+                if (settings.examples && response.getDefaultExample() != null) {
+                    out.append("    example: ").append(response.getDefaultExample()).append('\n');
+                }
+            }
+            if (!withoutSchema.isEmpty()) {
+                out.append("  ").append(String.join(", ", withoutSchema)).append(": status only\n");
+            }
+        }
+
+        /**
+         * Names of a response's fields, required ones first and marked; response field schemas are
+         * not parsed beyond their names.
+         */
+        private String fieldList(Set<String> fields, List<String> required) {
+            Set<String> requiredNames = Set.copyOf(required);
+            List<String> names = new ArrayList<>(fields);
+            names.sort(Comparator.comparing((String name) -> !requiredNames.contains(name)).thenComparing(Function.identity()));
+            StringJoiner list = new StringJoiner(", ", "object {", "}");
+            int omitted = 0;
+            for (String name : names) {
+                if (!settings.optionalFields && !requiredNames.contains(name)) {
+                    omitted++;
+                    continue;
+                }
+                list.add(requiredNames.contains(name) ? name + "*" : name);
+            }
+            if (omitted > 0) {
+                list.add("+" + omitted + " optional");
+            }
+            return list.toString();
+        }
+
+        /**
+         * A request body schema: its top-level properties, or the root constraints if it
+         * lists none.
+         */
+        private void writeSchema(StringBuilder out, Map<String, DataConstraints> properties, List<String> required,
+                                 DataConstraints root, int indent) {
+            if (properties != null && !properties.isEmpty()) {
+                out.append(" object\n");
+                writeProperties(out, properties, required, indent, 1);
+            } else if (root != null) {
+                out.append(' ');
+                writeValue(out, "body", root, indent - 1, 1);
+            } else {
+                out.append(" unspecified\n");
+            }
+        }
+
+        private void writeProperties(StringBuilder out, Map<String, DataConstraints> properties, List<String> required,
+                                     int indent, int depth) {
+            Set<String> requiredNames = required == null ? Collections.emptySet() : Set.copyOf(required);
+            List<String> names = new ArrayList<>(properties.keySet());
+            // Required fields first, the rest alphabetically, so identical schemas read identically
+            names.sort(Comparator.comparing((String name) -> !requiredNames.contains(name)).thenComparing(Function.identity()));
+            int omitted = 0;
+            for (String name : names) {
+                boolean isRequired = requiredNames.contains(name);
+                if (!settings.optionalFields && !isRequired) {
+                    omitted++;
+                    continue;
+                }
+                out.append("  ".repeat(indent)).append(name).append(isRequired ? "*" : "").append(": ");
+                writeValue(out, name, properties.get(name), indent, depth);
+            }
+            if (omitted > 0) {
+                out.append("  ".repeat(indent)).append("(+").append(omitted).append(" optional)\n");
+            }
+        }
+
+        /**
+         * One value: its type and attributes on this line, then the properties of an object or of
+         * an array's items below it, or a reference to them if they are shared.
+         */
+        private void writeValue(StringBuilder out, String name, DataConstraints constraints, int indent, int depth) {
+            if (constraints == null) {
+                out.append("any\n");
+                return;
+            }
+            DataConstraints items = constraints.getItemConstraints();
+            if (items != null) {
+                out.append("array").append(attributes(constraints)).append(" of ");
+                writeValue(out, name, items, indent, depth);
+                return;
+            }
+            Map<String, DataConstraints> properties = constraints.getPropertyConstraints();
+            if (properties.isEmpty()) {
+                out.append(constraints.getType() != null ? constraints.getType() : "any");
+                if (constraints.getFormat() != null) {
+                    out.append(' ').append(constraints.getFormat());
+                }
+                out.append(attributes(constraints));
+                String text = describe(constraints.getDescription());
+                if (text != null && !text.equalsIgnoreCase(name)) {
+                    out.append(" - ").append(text);
+                }
+                out.append('\n');
+                return;
+            }
+            if (depth >= settings.maxDepth) {
+                out.append("object {").append(properties.size()).append(" fields}\n");
+                return;
+            }
+
+            if (settings.sharedSchemas && !expanding) {
+                String signature = expand(name, constraints, depth);
+                if (counting) {
+                    occurrences.merge(signature, 1, Integer::sum);
+                } else if (occurrences.getOrDefault(signature, 0) > 1 && signature.length() >= MIN_SHARED_SCHEMA_CHARS) {
+                    out.append('@').append(sharedName(signature, name, constraints, depth)).append('\n');
+                    return;
+                }
+            }
+            out.append("object").append(attributes(constraints)).append('\n');
+            writeProperties(out, properties, constraints.getRequiredFields(), indent + 1, depth + 1);
+        }
+
+        /**
+         * The object schema written out in full, without references, which identifies it among
+         * the others.
+         */
+        private String expand(String name, DataConstraints constraints, int depth) {
+            boolean wasExpanding = expanding;
+            expanding = true;
+            try {
+                StringBuilder out = new StringBuilder("object").append(attributes(constraints)).append('\n');
+                writeProperties(out, constraints.getPropertyConstraints(), constraints.getRequiredFields(), 1, depth + 1);
+                return out.toString();
+            } finally {
+                expanding = wasExpanding;
+            }
+        }
+
+        private String sharedName(String signature, String property, DataConstraints constraints, int depth) {
+            String existing = sharedNames.get(signature);
+            if (existing != null) {
+                return existing;
+            }
+            String base = property.isEmpty() ? "Schema"
+                    : Character.toUpperCase(property.charAt(0)) + property.substring(1);
+            String name = base;
+            for (int i = 2; sharedNames.containsValue(name); i++) {
+                name = base + i;
+            }
+            sharedNames.put(signature, name);
+            // Reserves the definition's place before writing it, as it may name shared schemas of its own
+            sharedBodies.put(name, "");
+            StringBuilder body = new StringBuilder("object").append(attributes(constraints)).append('\n');
+            writeProperties(body, constraints.getPropertyConstraints(), constraints.getRequiredFields(), 2, depth + 1);
+            sharedBodies.put(name, body.toString());
+            return name;
+        }
+
+        private String attributes(DataConstraints c) {
+            List<String> parts = new ArrayList<>();
+            if (c.getEnumValues() != null && !c.getEnumValues().isEmpty()) {
+                List<Object> values = c.getEnumValues();
+                int shown = settings.fullDescriptions ? values.size() : Math.min(values.size(), MAX_ENUM_VALUES);
+                String list = values.subList(0, shown).stream().map(String::valueOf).collect(Collectors.joining("|"));
+                parts.add("one of " + list + (shown < values.size() ? "|...+" + (values.size() - shown) : ""));
+            }
+            if (settings.valueConstraints) {
+                addRange(parts, "len", c.getMinLength(), c.getMaxLength());
+                addRange(parts, "range", c.getMinimum(), c.getMaximum());
+                addRange(parts, "items", c.getMinItems(), c.getMaxItems());
+                if (Boolean.TRUE.equals(c.getUniqueItems())) {
+                    parts.add("unique");
+                }
+                if (c.getPattern() != null) {
+                    parts.add("/" + c.getPattern() + "/");
+                }
+                // Values are nullable unless a schema says otherwise
+                if (Boolean.FALSE.equals(c.getAllowNull())) {
+                    parts.add("not null");
+                }
+            }
+            if (settings.sensitiveMarkers && (c.getSecurityLevel() == DataConstraints.SecurityLevel.HIGH
+                    || c.getSecurityLevel() == DataConstraints.SecurityLevel.CRITICAL)) {
+                parts.add("sensitive");
+            }
+            if (settings.examples) {
+                if (c.getMultipleOf() != null) {
+                    parts.add("multipleOf " + c.getMultipleOf());
+                }
+                if (c.getDefaultValue() != null) {
+                    parts.add("default " + c.getDefaultValue());
+                }
+                if (c.getExample() != null) {
+                    parts.add("example " + c.getExample());
+                }
+            }
+            return parts.isEmpty() ? "" : " [" + String.join(", ", parts) + "]";
+        }
+
+        private static void addRange(List<String> parts, String label, Object min, Object max) {
+            if (min != null || max != null) {
+                parts.add(label + " " + (min != null ? min : "") + ".." + (max != null ? max : ""));
+            }
+        }
+
+        /**
+         * The description as the settings want it: whole, its first sentence, or not at all.
+         */
+        private String describe(String description) {
+            if (!settings.descriptions || description == null || description.isBlank()) {
+                return null;
+            }
+            String text = description.strip().replaceAll("\\s+", " ");
+            if (settings.fullDescriptions) {
+                return text;
+            }
+            int sentenceEnd = text.indexOf(". ");
+            if (sentenceEnd > 0) {
+                text = text.substring(0, sentenceEnd + 1);
+            }
+            if (text.length() > MAX_DESCRIPTION_CHARS) {
+                int cut = text.lastIndexOf(' ', MAX_DESCRIPTION_CHARS);
+                text = text.substring(0, cut > MAX_DESCRIPTION_CHARS / 2 ? cut : MAX_DESCRIPTION_CHARS) + "...";
+            }
+            return text;
+        }
+    }
+
+    /**
+     * A compacted context with its size against the full serialization's. The level says how
+     * much detail the budget cost: 0 none, 1 descriptions, 2 optional fields, 3 nesting depth.
+     */
+    public static final class Result {
+        private final String text;
+        private final int fullSchemaTokens;
+        private final int compactedTokens;
+        private final int level;
+        private final boolean truncated;
+
+        public Result(String text, int fullSchemaTokens, int compactedTokens, int level, boolean truncated) {
+            this.text = text;
+            this.fullSchemaTokens = fullSchemaTokens;
+            this.compactedTokens = compactedTokens;
+            this.level = level;
+            this.truncated = truncated;
+        }
+
+        public String getText() { return text; }
+        public int getFullSchemaTokens() { return fullSchemaTokens; }
+        public int getCompactedTokens() { return compactedTokens; }
+        public int getSavedVsFullSchema() { return Math.max(0, fullSchemaTokens - compactedTokens); }
+        public int getLevel() { return level; }
+        public boolean isTruncated() { return truncated; }
+
+        @Override
+        public String toString() {
+            return String.format("PromptContext{tokens=%d, fullSchema=%d, savedVsFullSchema=%d, level=%d, truncated=%s}",
+                    compactedTokens, fullSchemaTokens, getSavedVsFullSchema(), level, truncated);
+        }
+    }
+}
@@ -11,7 +11,6 @@ import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.logging.Logger;
 import java.util.logging.Level;
@@ -43,6 +42,7 @@ public class ReportWriter {
     // ===== STANDARD CONFIGURATION =====
     private final Configuration config;
     private final AdvancedReportConfiguration reportConfig;
+    private final SharedRuntime runtime;
     private final ExecutorService executorService;
 
     // ===== STANDARD ENTERPRISE FEATURES =====
@@ -142,9 +142,14 @@ public class ReportWriter {
     }
 
     public ReportWriter(Configuration config, AdvancedReportConfiguration reportConfig) {
+        this(config, reportConfig, SharedRuntime.getDefault());
+    }
+
+    public ReportWriter(Configuration config, AdvancedReportConfiguration reportConfig, SharedRuntime runtime) {
         this.config = config;
         this.reportConfig = reportConfig;
-        this.executorService = createOptimizedExecutorService();
+        this.runtime = Objects.requireNonNull(runtime, "runtime");
+        this.executorService = runtime.getIoExecutor();
         this.creationTimestamp = Instant.now();
         this.executionId = generateAdvancedExecutionId();
 
@@ -164,11 +169,6 @@ public class ReportWriter {
         enterpriseMetrics.put("executionId", executionId);
     }
 
-    private ExecutorService createOptimizedExecutorService() {
-        int threadCount = Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
-        return Executors.newFixedThreadPool(threadCount);
-    }
-
     private String generateAdvancedExecutionId() {
         return "RPT_" + System.currentTimeMillis() + "_" +
                 Integer.toHexString(System.identityHashCode(this)).toUpperCase();
@@ -401,6 +401,11 @@ public class ReportWriter {
         // Strategy analysis
         data.setStrategyAnalysis(analyzeStrategyRecommendations(testSuites));
 
+        // AI usage; suites of the same run carry snapshots of one ledger
+        data.setAiUsage(AiUsageLedger.Report.combine(testSuites.stream()
+                .map(ComprehensiveTestSuite::getAiUsage)
+                .collect(Collectors.toList())));
+
         // Generate advanced metrics
         generateAdvancedMetrics(data);
         generateAdvancedCharts(data);
@@ -623,6 +628,7 @@ public class ReportWriter {
             writeAdvancedPerformanceAnalysis(writer, data);
             writeAdvancedCoverageAnalysis(writer, data);
             writeAdvancedStrategyAnalysis(writer, data);
+            writeAdvancedAiUsage(writer, data);
             writeAdvancedRecommendations(writer, data);
             writeAdvancedTechnicalDetails(writer, data);
             writeAdvancedHtmlFooter(writer);
@@ -660,7 +666,48 @@ public class ReportWriter {
             writer.write("    \"strategyCoverage\": " + data.getCoverageAnalysis().getStrategyCoverage() + ",\n");
             writer.write("    \"scenarioCoverage\": " + data.getCoverageAnalysis().getScenarioCoverage() + ",\n");
             writer.write("    \"overallCoverage\": " + data.getCoverageAnalysis().getOverallCoverage() + "\n");
-            writer.write("  }\n");
+            AiUsageLedger.Report aiUsage = data.getAiUsage();
+            if (aiUsage == null) {
+                writer.write("  }\n");
+            } else {
+                writer.write("  },\n");
+                writer.write("  \"aiUsage\": {\n");
+                writer.write("    \"requests\": " + aiUsage.getRequests() + ",\n");
+                writer.write("    \"cacheHits\": " + aiUsage.getCacheHits() + ",\n");
+                writer.write("    \"promptTokens\": " + aiUsage.getPromptTokens() + ",\n");
+                writer.write("    \"completionTokens\": " + aiUsage.getCompletionTokens() + ",\n");
+                writer.write("    \"costUsd\": " + aiUsage.getCost() + ",\n");
+                writer.write("    \"tokenBudget\": " + aiUsage.getTokenBudget() + ",\n");
+                writer.write("    \"costBudgetUsd\": " + aiUsage.getCostBudget() + ",\n");
+                writer.write("    \"budgetExhausted\": " + aiUsage.isBudgetExhausted() + ",\n");
+                writer.write("    \"skippedEndpoints\": " + aiUsage.getSkippedEndpoints() + ",\n");
+                writer.write("    \"providers\": [");
+                String separator = "\n";
+                for (AiUsageLedger.ProviderUsage usage : aiUsage.getProviders().values()) {
+                    writer.write(separator);
+                    writer.write("      {\"provider\": \"" + escapeJson(usage.getProvider()) + "\", \"requests\": " + usage.getRequests()
+                            + ", \"failures\": " + usage.getFailures() + ", \"cacheHits\": " + usage.getCacheHits()
+                            + ", \"estimatedRequests\": " + usage.getEstimatedRequests()
+                            + ", \"promptTokens\": " + usage.getPromptTokens() + ", \"completionTokens\": " + usage.getCompletionTokens()
+                            + ", \"costUsd\": " + usage.getCost() + "}");
+                    separator = ",\n";
+                }
+                writer.write(aiUsage.getProviders().isEmpty() ? "],\n" : "\n    ],\n");
+                writer.write("    \"schemaContextTokens\": " + aiUsage.getSchemaContextTokens() + ",\n");
+                writer.write("    \"fullSchemaTokens\": " + aiUsage.getFullSchemaTokens() + ",\n");
+                writer.write("    \"savedVsFullSchema\": " + aiUsage.getSavedVsFullSchema() + ",\n");
+                writer.write("    \"schemaContexts\": [");
+                separator = "\n";
+                for (AiUsageLedger.PromptContextUsage context : aiUsage.getPromptContexts().values()) {
+                    writer.write(separator);
+                    writer.write("      {\"endpoint\": \"" + escapeJson(context.getEndpoint()) + "\", \"contextTokens\": "
+                            + context.getContextTokens() + ", \"fullSchemaTokens\": " + context.getFullSchemaTokens()
+                            + ", \"savedVsFullSchema\": " + context.getSavedVsFullSchema() + "}");
+                    separator = ",\n";
+                }
+                writer.write(aiUsage.getPromptContexts().isEmpty() ? "]\n" : "\n    ]\n");
+                writer.write("  }\n");
+            }
             writer.write("}\n");
         }
 
@@ -683,6 +730,22 @@ public class ReportWriter {
             writer.write("Strategy Coverage (%)," + String.format("%.2f", data.getCoverageAnalysis().getStrategyCoverage()) + ",Coverage\n");
             writer.write("Scenario Coverage (%)," + String.format("%.2f", data.getCoverageAnalysis().getScenarioCoverage()) + ",Coverage\n");
             writer.write("Overall Coverage (%)," + String.format("%.2f", data.getCoverageAnalysis().getOverallCoverage()) + ",Coverage\n");
+            AiUsageLedger.Report aiUsage = data.getAiUsage();
+            if (aiUsage != null) {
+                writer.write("AI Requests," + aiUsage.getRequests() + ",AI Usage\n");
+                writer.write("AI Cache Hits," + aiUsage.getCacheHits() + ",AI Usage\n");
+                writer.write("AI Prompt Tokens," + aiUsage.getPromptTokens() + ",AI Usage\n");
+                writer.write("AI Completion Tokens," + aiUsage.getCompletionTokens() + ",AI Usage\n");
+                writer.write("AI Cost (USD)," + String.format("%.4f", aiUsage.getCost()) + ",AI Usage\n");
+                writer.write("AI Budget Exhausted," + aiUsage.isBudgetExhausted() + ",AI Usage\n");
+                writer.write("AI Skipped Endpoints," + aiUsage.getSkippedEndpoints() + ",AI Usage\n");
+                writer.write("AI Schema Context Tokens," + aiUsage.getSchemaContextTokens() + ",AI Usage\n");
+                writer.write("AI Tokens Saved vs Full Schema," + aiUsage.getSavedVsFullSchema() + ",AI Usage\n");
+                for (AiUsageLedger.PromptContextUsage context : aiUsage.getPromptContexts().values()) {
+                    writer.write(escapeCsv("Schema Context Tokens " + context.getEndpoint()) + ","
+                            + context.getContextTokens() + ",Schema Context\n");
+                }
+            }
         }
 
         return new GeneratedReport(reportPath, ReportFormat.CSV, new File(reportPath).length());
@@ -729,6 +792,36 @@ public class ReportWriter {
                 writer.write("| " + entry.getKey().name() + " | " + entry.getValue() + " |\n");
             }
 
+            AiUsageLedger.Report aiUsage = data.getAiUsage();
+            if (aiUsage != null) {
+                writer.write("\n## 🤖 AI Usage\n\n");
+                writer.write("- **Requests**: " + aiUsage.getRequests() + " (" + aiUsage.getCacheHits() + " served from cache)\n");
+                writer.write("- **Tokens**: " + aiUsage.getTotalTokens() + " (" + aiUsage.getPromptTokens() + " prompt, "
+                        + aiUsage.getCompletionTokens() + " completion)\n");
+                writer.write("- **Cost**: " + String.format("$%.4f", aiUsage.getCost()) + "\n");
+                writer.write("- **Budget**: " + formatAiBudget(aiUsage) + "\n\n");
+                writer.write("| Provider | Requests | Failures | Cache Hits | Prompt Tokens | Completion Tokens | Cost (USD) |\n");
+                writer.write("|----------|----------|----------|------------|---------------|-------------------|------------|\n");
+                for (AiUsageLedger.ProviderUsage usage : aiUsage.getProviders().values()) {
+                    writer.write("| " + usage.getProvider() + " | " + usage.getRequests() + " | " + usage.getFailures()
+                            + " | " + usage.getCacheHits() + " | " + usage.getPromptTokens() + " | " + usage.getCompletionTokens()
+                            + " | " + String.format("%.4f", usage.getCost()) + " |\n");
+                }
+
+                if (!aiUsage.getPromptContexts().isEmpty()) {
+                    writer.write("\n### Schema Context\n\n");
+                    writer.write("- **Schema Context Tokens**: " + aiUsage.getSchemaContextTokens()
+                            + " added to prompts (" + aiUsage.getFullSchemaTokens() + " for the full schemas)\n\n");
+                    writer.write("| Endpoint | Context Tokens | Full Schema Tokens | Saved vs Full Schema |\n");
+                    writer.write("|----------|----------------|--------------------|----------------------|\n");
+                    for (AiUsageLedger.PromptContextUsage context : aiUsage.getPromptContexts().values()) {
+                        writer.write("| " + escapeMarkdownCell(context.getEndpoint()) + " | " + context.getContextTokens()
+                                + " | " + context.getFullSchemaTokens() + " | " + context.getSavedVsFullSchema()
+                                + String.format(" (%.0f%%)", context.getSavedVsFullSchemaRatio() * 100) + " |\n");
+                    }
+                }
+            }
+
             writer.write("\n---\n");
             writer.write("*Generated by Enhanced OpenAPI Test Generator v2.0.0*\n");
         }
@@ -768,6 +861,28 @@ public class ReportWriter {
             writer.write("    <scenarioCoverage>" + data.getCoverageAnalysis().getScenarioCoverage() + "</scenarioCoverage>\n");
             writer.write("    <overallCoverage>" + data.getCoverageAnalysis().getOverallCoverage() + "</overallCoverage>\n");
             writer.write("  </coverageAnalysis>\n");
+            AiUsageLedger.Report aiUsage = data.getAiUsage();
+            if (aiUsage != null) {
+                writer.write("  <aiUsage requests=\"" + aiUsage.getRequests() + "\" cacheHits=\"" + aiUsage.getCacheHits()
+                        + "\" promptTokens=\"" + aiUsage.getPromptTokens() + "\" completionTokens=\"" + aiUsage.getCompletionTokens()
+                        + "\" costUsd=\"" + aiUsage.getCost() + "\" tokenBudget=\"" + aiUsage.getTokenBudget()
+                        + "\" costBudgetUsd=\"" + aiUsage.getCostBudget() + "\" budgetExhausted=\"" + aiUsage.isBudgetExhausted()
+                        + "\" skippedEndpoints=\"" + aiUsage.getSkippedEndpoints()
+                        + "\" schemaContextTokens=\"" + aiUsage.getSchemaContextTokens()
+                        + "\" savedVsFullSchema=\"" + aiUsage.getSavedVsFullSchema() + "\">\n");
+                for (AiUsageLedger.ProviderUsage usage : aiUsage.getProviders().values()) {
+                    writer.write("    <provider name=\"" + escapeXml(usage.getProvider()) + "\" requests=\"" + usage.getRequests()
+                            + "\" failures=\"" + usage.getFailures() + "\" cacheHits=\"" + usage.getCacheHits()
+                            + "\" promptTokens=\"" + usage.getPromptTokens() + "\" completionTokens=\"" + usage.getCompletionTokens()
+                            + "\" costUsd=\"" + usage.getCost() + "\" />\n");
+                }
+                for (AiUsageLedger.PromptContextUsage context : aiUsage.getPromptContexts().values()) {
+                    writer.write("    <schemaContext endpoint=\"" + escapeXml(context.getEndpoint()) + "\" contextTokens=\""
+                            + context.getContextTokens() + "\" fullSchemaTokens=\"" + context.getFullSchemaTokens()
+                            + "\" savedVsFullSchema=\"" + context.getSavedVsFullSchema() + "\" />\n");
+                }
+                writer.write("  </aiUsage>\n");
+            }
             writer.write("</comprehensiveTestReport>\n");
         }
 
@@ -1117,6 +1232,81 @@ public class ReportWriter {
         writer.write("        </section>\n");
     }
 
+    private void writeAdvancedAiUsage(BufferedWriter writer, AdvancedReportData data) throws IOException {
+        AiUsageLedger.Report aiUsage = data.getAiUsage();
+        if (aiUsage == null) {
+            return;
+        }
+        writer.write("        <section id=\"ai-usage\" class=\"section\">\n");
+        writer.write("            <h2>🤖 AI Usage</h2>\n");
+
+        writer.write("            <div class=\"metrics-grid\">\n");
+        writer.write("                <div class=\"metric-card\">\n");
+        writer.write("                    <div class=\"metric-value\">" + aiUsage.getRequests() + "</div>\n");
+        writer.write("                    <div class=\"metric-label\">Requests</div>\n");
+        writer.write("                </div>\n");
+        writer.write("                <div class=\"metric-card\">\n");
+        writer.write("                    <div class=\"metric-value\">" + aiUsage.getTotalTokens() + "</div>\n");
+        writer.write("                    <div class=\"metric-label\">Tokens</div>\n");
+        writer.write("                </div>\n");
+        writer.write("                <div class=\"metric-card\">\n");
+        writer.write("                    <div class=\"metric-value\">" + String.format("$%.4f", aiUsage.getCost()) + "</div>\n");
+        writer.write("                    <div class=\"metric-label\">Cost</div>\n");
+        writer.write("                </div>\n");
+        writer.write("                <div class=\"metric-card\">\n");
+        writer.write("                    <div class=\"metric-value\">" + aiUsage.getSkippedEndpoints() + "</div>\n");
+        writer.write("                    <div class=\"metric-label\">Endpoints Over Budget</div>\n");
+        writer.write("                </div>\n");
+        writer.write("                <div class=\"metric-card\">\n");
+        writer.write("                    <div class=\"metric-value\">" + aiUsage.getSchemaContextTokens() + "</div>\n");
+        writer.write("                    <div class=\"metric-label\">Schema Context Tokens</div>\n");
+        writer.write("                </div>\n");
+        writer.write("            </div>\n");
+        writer.write("            <p><strong>Budget:</strong> " + formatAiBudget(aiUsage) + "</p>\n");
+
+        writer.write("            <h3>Usage by Provider</h3>\n");
+        writer.write("            <table class=\"data-table\">\n");
+        writer.write("                <thead>\n");
+        writer.write("                    <tr><th>Provider</th><th>Requests</th><th>Failures</th><th>Cache Hits</th><th>Prompt Tokens</th><th>Completion Tokens</th><th>Cost (USD)</th></tr>\n");
+        writer.write("                </thead>\n");
+        writer.write("                <tbody>\n");
+        for (AiUsageLedger.ProviderUsage usage : aiUsage.getProviders().values()) {
+            writer.write("                    <tr>\n");
+            writer.write("                        <td>" + escapeXml(usage.getProvider()) + "</td>\n");
+            writer.write("                        <td>" + usage.getRequests() + "</td>\n");
+            writer.write("                        <td>" + usage.getFailures() + "</td>\n");
+            writer.write("                        <td>" + usage.getCacheHits() + "</td>\n");
+            writer.write("                        <td>" + usage.getPromptTokens() + "</td>\n");
+            writer.write("                        <td>" + usage.getCompletionTokens() + "</td>\n");
+            writer.write("                        <td>" + String.format("%.4f", usage.getCost()) + "</td>\n");
+            writer.write("                    </tr>\n");
+        }
+        writer.write("                </tbody>\n");
+        writer.write("            </table>\n");
+
+        if (!aiUsage.getPromptContexts().isEmpty()) {
+            writer.write("            <h3>Schema Context by Endpoint</h3>\n");
+            writer.write("            <table class=\"data-table\">\n");
+            writer.write("                <thead>\n");
+            writer.write("                    <tr><th>Endpoint</th><th>Context Tokens</th><th>Full Schema Tokens</th><th>Saved vs Full Schema</th></tr>\n");
+            writer.write("                </thead>\n");
+            writer.write("                <tbody>\n");
+            for (AiUsageLedger.PromptContextUsage context : aiUsage.getPromptContexts().values()) {
+                writer.write("                    <tr>\n");
+                writer.write("                        <td>" + escapeXml(context.getEndpoint()) + "</td>\n");
+                writer.write("                        <td>" + context.getContextTokens() + "</td>\n");
+                writer.write("                        <td>" + context.getFullSchemaTokens() + "</td>\n");
+                writer.write("                        <td>" + context.getSavedVsFullSchema()
+                        + String.format(" (%.0f%%)", context.getSavedVsFullSchemaRatio() * 100) + "</td>\n");
+                writer.write("                    </tr>\n");
+            }
+            writer.write("                </tbody>\n");
+            writer.write("            </table>\n");
+        }
+
+        writer.write("        </section>\n");
+    }
+
     private void writeAdvancedRecommendations(BufferedWriter writer, AdvancedReportData data) throws IOException {
         writer.write("        <section id=\"recommendations\" class=\"section\">\n");
         writer.write("            <h2>💡 Advanced Recommendations</h2>\n");
@@ -1560,6 +1750,43 @@ public class ReportWriter {
                 .replace("\t", "\\t");
     }
 
+    // Also covers HTML text and attribute values
+    private String escapeXml(String input) {
+        if (input == null) return "";
+        return input.replace("&", "&amp;")
+                .replace("<", "&lt;")
+                .replace(">", "&gt;")
+                .replace("\"", "&quot;")
+                .replace("'", "&#39;");
+    }
+
+    private String escapeCsv(String input) {
+        if (input == null) return "";
+        if (input.contains(",") || input.contains("\"") || input.contains("\n") || input.contains("\r")) {
+            return "\"" + input.replace("\"", "\"\"") + "\"";
+        }
+        return input;
+    }
+
+    private String escapeMarkdownCell(String input) {
+        if (input == null) return "";
+        return input.replace("|", "\\|").replace("\n", " ");
+    }
+
+    private String formatAiBudget(AiUsageLedger.Report aiUsage) {
+        List<String> limits = new ArrayList<>();
+        if (aiUsage.getTokenBudget() > 0) {
+            limits.add(aiUsage.getTokenBudget() + " tokens");
+        }
+        if (aiUsage.getCostBudget() > 0) {
+            limits.add(String.format("$%.2f", aiUsage.getCostBudget()));
+        }
+        if (limits.isEmpty()) {
+            return "unlimited";
+        }
+        return String.join(", ", limits) + (aiUsage.isBudgetExhausted() ? " (exhausted)" : "");
+    }
+
     private String formatFileSize(long bytes) {
         if (bytes < 1024) return bytes + " B";
         if (bytes < 1024 * 1024) return String.format("%.1f KB", bytes / 1024.0);
@@ -1570,14 +1797,8 @@ public class ReportWriter {
     // ===== STANDARD CLEANUP =====
 
     public void shutdown() {
-        try {
-            if (executorService != null && !executorService.isShutdown()) {
-                executorService.shutdown();
-                logger.info("ReportWriter executor service shutdown completed");
-            }
-        } catch (Exception e) {
-            logger.warning("Error during ReportWriter shutdown: " + e.getMessage());
-        }
+        // The executor belongs to the shared runtime, which stops it during its own shutdown
+        logger.info("ReportWriter shutdown completed");
     }
 
     // ===== STANDARD GETTERS =====
@@ -1691,6 +1912,7 @@ public class ReportWriter {
         private PerformanceAnalysis performanceAnalysis;
         private CoverageAnalysis coverageAnalysis;
         private StrategyAnalysis strategyAnalysis;
+        private AiUsageLedger.Report aiUsage;
 
         // Standard getters and setters
         public int getTotalTestSuites() { return totalTestSuites; }
@@ -1711,6 +1933,8 @@ public class ReportWriter {
         public void setCoverageAnalysis(CoverageAnalysis coverageAnalysis) { this.coverageAnalysis = coverageAnalysis; }
         public StrategyAnalysis getStrategyAnalysis() { return strategyAnalysis; }
         public void setStrategyAnalysis(StrategyAnalysis strategyAnalysis) { this.strategyAnalysis = strategyAnalysis; }
+        public AiUsageLedger.Report getAiUsage() { return aiUsage; }
+        public void setAiUsage(AiUsageLedger.Report aiUsage) { this.aiUsage = aiUsage; }
     }
 
     public static class QualityAnalysis {
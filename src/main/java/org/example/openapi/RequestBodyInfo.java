@@ -6,7 +6,6 @@ import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Logger;
 import java.util.logging.Level;
-import java.util.stream.Collectors;
 
 /**
  * ENTERPRISE RequestBodyInfo - Standard Interface Implementation
@@ -507,14 +506,20 @@ public class RequestBodyInfo {
         List<GeneratedTestCase> testCases = new ArrayList<>();
 
         try {
+            // Limit and prioritize test cases while generating
+            TopKSelector<GeneratedTestCase> selector = new TopKSelector<>(Math.max(0, maxTestVariations), TEST_CASE_PRIORITY_ORDER);
+
             for (TestGenerationScenario scenario : enabledTestScenarios) {
-                testCases.addAll(generateTestCasesForScenario(scenario, endpoint, recommendation));
+                // Scenario rank decides first, so once the selector is full a scenario ranked below
+                // the current worst case cannot contribute anything and is not generated at all
+                if (selector.isFull() && getScenarioPriority(scenario) > getScenarioPriority(selector.peekWorst().getScenario())) {
+                    selector.recordSkipped();
+                    continue;
+                }
+                selector.offerAll(generateTestCasesForScenario(scenario, endpoint, recommendation));
             }
 
-            // Limit and prioritize test cases
-            if (testCases.size() > maxTestVariations) {
-                testCases = prioritizeAndLimitTestCases(testCases);
-            }
+            testCases = selector.getSelected();
 
             logger.info(String.format("Generated %d test cases for RequestBodyInfo: %s",
                     testCases.size(), executionId));
@@ -639,26 +644,22 @@ public class RequestBodyInfo {
         return cases;
     }
 
-    private List<GeneratedTestCase> prioritizeAndLimitTestCases(List<GeneratedTestCase> testCases) {
-        // Priority order: Security > Invalid > Valid
-        Map<TestGenerationScenario, Integer> priorities = new HashMap<>();
-        priorities.put(TestGenerationScenario.SQL_INJECTION_BASIC, 1);
-        priorities.put(TestGenerationScenario.XSS_REFLECTED, 1);
-        priorities.put(TestGenerationScenario.XML_EXTERNAL_ENTITY, 1);
-        priorities.put(TestGenerationScenario.ERROR_HANDLING, 2);
-        priorities.put(TestGenerationScenario.HAPPY_PATH, 3);
-
-        return testCases.stream()
-                .sorted((a, b) -> {
-                    int priorityA = priorities.getOrDefault(a.getScenario(), 4);
-                    int priorityB = priorities.getOrDefault(b.getScenario(), 4);
-                    int priorityCompare = Integer.compare(priorityA, priorityB);
-
-                    if (priorityCompare != 0) return priorityCompare;
-                    return Integer.compare(b.getPriority(), a.getPriority());
-                })
-                .limit(maxTestVariations)
-                .collect(Collectors.toList());
+    // Priority order: Security > Invalid > Valid
+    private static final Map<TestGenerationScenario, Integer> SCENARIO_PRIORITIES = Map.of(
+            TestGenerationScenario.SQL_INJECTION_BASIC, 1,
+            TestGenerationScenario.XSS_REFLECTED, 1,
+            TestGenerationScenario.XML_EXTERNAL_ENTITY, 1,
+            TestGenerationScenario.ERROR_HANDLING, 2,
+            TestGenerationScenario.HAPPY_PATH, 3
+    );
+
+    // Scenario rank first, then the usual test case order
+    private static final Comparator<GeneratedTestCase> TEST_CASE_PRIORITY_ORDER =
+            Comparator.comparingInt((GeneratedTestCase testCase) -> getScenarioPriority(testCase.getScenario()))
+                    .thenComparing(GeneratedTestCase.PRIORITY_ORDER);
+
+    private static int getScenarioPriority(TestGenerationScenario scenario) {
+        return scenario != null ? SCENARIO_PRIORITIES.getOrDefault(scenario, 4) : 4;
     }
 
     // ===== STANDARD PAYLOAD GENERATION METHODS =====
@@ -1,7 +1,6 @@
 package org.example.openapi;
 
 import java.util.*;
-import java.util.stream.Collectors;
 import java.time.LocalDateTime;
 import java.time.Instant;
 import java.time.Duration;
@@ -897,12 +896,14 @@ public class ResponseInfo {
         logger.info("Starting comprehensive test case generation for status code: {}", statusCode);
 
         List<ResponseTestCase> internalTestCases = generateInternalResponseTestCases();
-        List<GeneratedTestCase> standardTestCases = convertToStandardTestCases(internalTestCases);
 
-        // Apply intelligent prioritization and limiting
-        if (standardTestCases.size() > maxTestVariations) {
-            standardTestCases = intelligentTestCasePrioritization(standardTestCases);
+        // Apply intelligent prioritization and limiting as cases are converted
+        TopKSelector<GeneratedTestCase> selector =
+                TopKSelector.byScore(Math.max(0, maxTestVariations), this::calculateAdvancedTestCasePriority);
+        for (ResponseTestCase internalCase : internalTestCases) {
+            selector.offer(convertToStandardTestCase(internalCase));
         }
+        List<GeneratedTestCase> standardTestCases = selector.getSelected();
 
         // Enhance with metadata
         enhanceTestCasesWithMetadata(standardTestCases);
@@ -956,15 +957,6 @@ public class ResponseInfo {
         return testCases;
     }
 
-    /**
-     * Convert internal ResponseTestCase to standard GeneratedTestCase
-     */
-    private List<GeneratedTestCase> convertToStandardTestCases(List<ResponseTestCase> internalCases) {
-        return internalCases.stream()
-                .map(this::convertToStandardTestCase)
-                .collect(Collectors.toList());
-    }
-
     /**
      * Convert single internal test case to standard format
      */
@@ -1529,22 +1521,6 @@ public class ResponseInfo {
 
     // ===== Intelligent Test Case Prioritization =====
 
-    private List<GeneratedTestCase> intelligentTestCasePrioritization(List<GeneratedTestCase> testCases) {
-        Map<GeneratedTestCase, Double> priorityScores = new HashMap<>();
-
-        for (GeneratedTestCase testCase : testCases) {
-            double score = calculateAdvancedTestCasePriority(testCase);
-            priorityScores.put(testCase, score);
-        }
-
-        return testCases.stream()
-                .sorted((a, b) -> Double.compare(
-                        priorityScores.getOrDefault(b, 0.0),
-                        priorityScores.getOrDefault(a, 0.0)))
-                .limit(maxTestVariations)
-                .collect(Collectors.toList());
-    }
-
     private double calculateAdvancedTestCasePriority(GeneratedTestCase testCase) {
         double score = 0.0;
 
@@ -6,7 +6,6 @@ import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
 import java.util.function.Predicate;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -287,7 +286,8 @@ public class SchemaAnalyzer {
 
     // ===== Core Components =====
     private final ObjectMapper objectMapper = new ObjectMapper();
-    private final Executor analysisExecutor = Executors.newFixedThreadPool(DEFAULT_THREAD_POOL_SIZE);
+    private final SharedRuntime runtime;
+    private final Executor analysisExecutor;
     private final AnalysisConfiguration configuration;
 
     // Compiled patterns for performance
@@ -311,7 +311,19 @@ public class SchemaAnalyzer {
      * @param configuration Custom analysis configuration
      */
     public SchemaAnalyzer(AnalysisConfiguration configuration) {
+        this(configuration, SharedRuntime.getDefault());
+    }
+
+    /**
+     * Constructor with custom configuration and an explicit shared runtime
+     *
+     * @param configuration Custom analysis configuration
+     * @param runtime Shared pools and shutdown lifecycle
+     */
+    public SchemaAnalyzer(AnalysisConfiguration configuration, SharedRuntime runtime) {
         this.configuration = configuration;
+        this.runtime = Objects.requireNonNull(runtime, "runtime");
+        this.analysisExecutor = createOptimizedExecutorService();
         logger.info("Enhanced SchemaAnalyzer v" + VERSION + " initialized");
     }
 
@@ -363,12 +375,10 @@ public class SchemaAnalyzer {
 
     /**
      * STANDARD METHOD SIGNATURE: createOptimizedExecutorService
-     * Standard executor service creation
+     * Schema analysis is CPU-bound, so it runs on the shared runtime's CPU pool
      */
     private Executor createOptimizedExecutorService() {
-        return Executors.newFixedThreadPool(
-                Math.max(1, Math.min(DEFAULT_THREAD_POOL_SIZE, Runtime.getRuntime().availableProcessors() * 2))
-        );
+        return runtime.getCpuExecutor();
     }
 
     /**
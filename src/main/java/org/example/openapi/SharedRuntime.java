@@ -0,0 +1,377 @@
+package org.example.openapi;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * ===== SHARED RUNTIME =====
+ *
+ * Owns the thread pools used by every component of a generation run, so a run starts one set of
+ * threads and one JVM shutdown hook instead of one per component:
+ * - a bounded work-stealing CPU pool for analysis and generation
+ * - a virtual-thread-per-task executor for blocking I/O (AI calls, file writes, test execution)
+ * - a lazily created bounded platform pool for components running with virtual threads disabled
+ * - a single small scheduler for periodic monitoring tasks
+ * - a lazily created HTTP connection pool shared by the AI adapters
+ * - dedicated pools, on request, for loops that hold their threads for a whole run
+ *
+ * Components never shut these executors down themselves; they register a shutdown task instead and
+ * cancel their own scheduled tasks. A component closed before the runtime deregisters its task, so
+ * the runtime does not keep it reachable. {@link #shutdown()} runs the registered tasks in reverse
+ * registration order, then drains and stops the pools.
+ *
+ * @author Enhanced Test Generation Team
+ * @since 2025.1
+ */
+public final class SharedRuntime {
+
+    private static final Logger LOGGER = Logger.getLogger(SharedRuntime.class.getName());
+
+    private static final int DEFAULT_SCHEDULER_THREADS = 2;
+    private static final int DEFAULT_PLATFORM_IO_QUEUE_CAPACITY = 1000;
+    private static final int MAX_PLATFORM_IO_THREADS = 200;
+    private static final Duration DEFAULT_SHUTDOWN_TIMEOUT = Duration.ofSeconds(30);
+
+    private static volatile SharedRuntime defaultRuntime;
+
+    private final int cpuThreads;
+    private final int platformIoThreads;
+    private final Duration shutdownTimeout;
+
+    private final ForkJoinPool cpuPool;
+    private final ExecutorService ioExecutor;
+    private final ScheduledThreadPoolExecutor scheduler;
+    private volatile ExecutorService platformIoExecutor;
+    private volatile AiHttpClients aiHttpClients;
+    private final Set<ExecutorService> dedicatedExecutors = ConcurrentHashMap.newKeySet();
+
+    private final Deque<ShutdownTask> shutdownTasks = new ConcurrentLinkedDeque<>();
+    private final AtomicBoolean shutdownStarted = new AtomicBoolean(false);
+    private final AtomicInteger platformThreadsCreated = new AtomicInteger(0);
+    private final Thread shutdownHook;
+
+    private SharedRuntime(Builder builder) {
+        this.cpuThreads = builder.cpuThreads;
+        this.platformIoThreads = builder.platformIoThreads;
+        this.shutdownTimeout = builder.shutdownTimeout;
+
+        this.cpuPool = new ForkJoinPool(cpuThreads, pool -> {
+            ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            t.setName("SharedRuntime-cpu-" + platformThreadsCreated.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }, null, false);
+        this.ioExecutor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("SharedRuntime-io-", 1).factory());
+        this.scheduler = new ScheduledThreadPoolExecutor(builder.schedulerThreads,
+                namedDaemonThreadFactory("SharedRuntime-scheduler-"));
+        this.scheduler.setRemoveOnCancelPolicy(true);
+        this.scheduler.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+
+        this.shutdownHook = new Thread(() -> {
+            LOGGER.info("Shutdown hook triggered - shutting down shared runtime...");
+            shutdown();
+        }, "SharedRuntime-shutdown");
+        if (builder.registerShutdownHook) {
+            Runtime.getRuntime().addShutdownHook(shutdownHook);
+        }
+
+        LOGGER.fine("SharedRuntime created with " + cpuThreads + " CPU threads and virtual-thread I/O executor");
+    }
+
+    // ===== FACTORY METHODS =====
+
+    /**
+     * Process-wide runtime used by components that are not given one explicitly.
+     */
+    public static SharedRuntime getDefault() {
+        SharedRuntime runtime = defaultRuntime;
+        if (runtime == null || runtime.isShutdown()) {
+            synchronized (SharedRuntime.class) {
+                runtime = defaultRuntime;
+                if (runtime == null || runtime.isShutdown()) {
+                    runtime = builder().build();
+                    defaultRuntime = runtime;
+                }
+            }
+        }
+        return runtime;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    // ===== EXECUTORS =====
+
+    /**
+     * Bounded work-stealing pool sized to the CPU count, for CPU-heavy analysis and generation.
+     */
+    public ForkJoinPool getCpuExecutor() { return cpuPool; }
+
+    /**
+     * Virtual-thread-per-task executor for blocking work.
+     */
+    public ExecutorService getIoExecutor() { return ioExecutor; }
+
+    public ScheduledExecutorService getScheduler() { return scheduler; }
+
+    /**
+     * Bounded platform pool with caller-runs backpressure, for components that keep virtual threads
+     * disabled. Created on first use so runs that never need it start no threads for it.
+     */
+    public ExecutorService getPlatformIoExecutor() {
+        ExecutorService executor = platformIoExecutor;
+        if (executor == null) {
+            synchronized (this) {
+                executor = platformIoExecutor;
+                if (executor == null) {
+                    ThreadPoolExecutor pool = new ThreadPoolExecutor(
+                            platformIoThreads,
+                            Math.min(MAX_PLATFORM_IO_THREADS, platformIoThreads * 2),
+                            60L, TimeUnit.SECONDS,
+                            new LinkedBlockingQueue<>(DEFAULT_PLATFORM_IO_QUEUE_CAPACITY),
+                            namedDaemonThreadFactory("SharedRuntime-blocking-"),
+                            new ThreadPoolExecutor.CallerRunsPolicy()
+                    );
+                    pool.allowCoreThreadTimeOut(true);
+                    platformIoExecutor = pool;
+                    executor = pool;
+                }
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * Executor for blocking work under a component's virtual-thread setting.
+     */
+    public ExecutorService getBlockingExecutor(boolean virtualThreads) {
+        return virtualThreads ? ioExecutor : getPlatformIoExecutor();
+    }
+
+    /**
+     * Fixed pool of {@code threads} platform threads for work that holds its threads for a whole
+     * run, such as pipeline stage loops blocking on their input queues. In the shared pools such
+     * loops would pin CPU workers for the run, or, once the blocking pool saturates, run on the
+     * submitting thread itself and never return. The owner shuts the pool down when its run ends;
+     * until then its threads count towards {@link #getPlatformThreadsCreated()}, and
+     * {@link #shutdown()} interrupts any it left running.
+     */
+    public ExecutorService newDedicatedExecutor(String name, int threads) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), namedDaemonThreadFactory("SharedRuntime-" + name + "-")) {
+            @Override
+            protected void terminated() {
+                dedicatedExecutors.remove(this);
+            }
+        };
+        dedicatedExecutors.add(executor);
+        if (shutdownStarted.get()) {
+            executor.shutdownNow();
+        }
+        return executor;
+    }
+
+    /**
+     * HTTP connections and credentials shared by every AI adapter on this runtime. Created on
+     * first use; its idle connections are closed on shutdown.
+     */
+    public AiHttpClients getAiHttpClients() {
+        AiHttpClients clients = aiHttpClients;
+        if (clients == null) {
+            synchronized (this) {
+                clients = aiHttpClients;
+                if (clients == null) {
+                    clients = new AiHttpClients(ioExecutor);
+                    registerShutdownTask("AI HTTP connections", clients::close);
+                    aiHttpClients = clients;
+                }
+            }
+        }
+        return clients;
+    }
+
+    // ===== LIFECYCLE =====
+
+    /**
+     * Registers a component cleanup step to run during {@link #shutdown()}, before the pools stop.
+     * Tasks run in reverse registration order, so components created later shut down first.
+     *
+     * @return the registration; the component closes it when it is closed itself
+     */
+    public ShutdownRegistration registerShutdownTask(String name, Runnable task) {
+        ShutdownTask shutdownTask = new ShutdownTask(name, task);
+        if (shutdownStarted.get()) {
+            LOGGER.warning("Shutdown already in progress; running shutdown task immediately: " + name);
+            runShutdownTask(shutdownTask);
+        } else {
+            shutdownTasks.addFirst(shutdownTask);
+        }
+        return new ShutdownRegistration(shutdownTask);
+    }
+
+    /**
+     * Runs registered component shutdown tasks, then stops the pools, waiting up to the configured
+     * timeout for in-flight work. Idempotent.
+     */
+    public void shutdown() {
+        if (!shutdownStarted.compareAndSet(false, true)) {
+            return;
+        }
+
+        long startNanos = System.nanoTime();
+        ShutdownTask task;
+        while ((task = shutdownTasks.pollFirst()) != null) {
+            runShutdownTask(task);
+        }
+
+        // Dedicated pools run loops that only end when interrupted
+        dedicatedExecutors.forEach(ExecutorService::shutdownNow);
+        scheduler.shutdown();
+        cpuPool.shutdown();
+        ioExecutor.shutdown();
+        ExecutorService platformIo = platformIoExecutor;
+        if (platformIo != null) {
+            platformIo.shutdown();
+        }
+
+        long deadline = System.nanoTime() + shutdownTimeout.toNanos();
+        awaitOrForce("scheduler", scheduler, deadline);
+        awaitOrForce("cpu", cpuPool, deadline);
+        awaitOrForce("io", ioExecutor, deadline);
+        if (platformIo != null) {
+            awaitOrForce("blocking", platformIo, deadline);
+        }
+
+        if (Thread.currentThread() != shutdownHook) {
+            try {
+                Runtime.getRuntime().removeShutdownHook(shutdownHook);
+            } catch (IllegalStateException | IllegalArgumentException ignored) {
+                // JVM already shutting down, or the hook was never registered
+            }
+        }
+
+        LOGGER.info("SharedRuntime shutdown completed in " +
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos) + "ms");
+    }
+
+    public boolean isShutdown() { return shutdownStarted.get(); }
+
+    /**
+     * Platform threads this runtime has started so far (virtual threads are not counted).
+     */
+    public int getPlatformThreadsCreated() { return platformThreadsCreated.get(); }
+
+    public int getCpuThreads() { return cpuThreads; }
+
+    /**
+     * Shutdown tasks registered and not yet run or deregistered.
+     */
+    int getShutdownTaskCount() { return shutdownTasks.size(); }
+
+    private void runShutdownTask(ShutdownTask task) {
+        try {
+            task.runnable.run();
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Shutdown task failed: " + task.name, e);
+        }
+    }
+
+    private void awaitOrForce(String name, ExecutorService executor, long deadlineNanos) {
+        try {
+            long remaining = Math.max(0, deadlineNanos - System.nanoTime());
+            if (!executor.awaitTermination(remaining, TimeUnit.NANOSECONDS)) {
+                LOGGER.warning("SharedRuntime " + name + " executor did not terminate in time; forcing shutdown");
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private ThreadFactory namedDaemonThreadFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger(0);
+        return r -> {
+            Thread t = new Thread(r, prefix + counter.incrementAndGet());
+            t.setDaemon(true);
+            platformThreadsCreated.incrementAndGet();
+            return t;
+        };
+    }
+
+    /**
+     * A registered shutdown task. Closing it deregisters the task; closing it again, or once the
+     * task has run, has no effect.
+     */
+    public final class ShutdownRegistration implements AutoCloseable {
+        private final ShutdownTask task;
+
+        private ShutdownRegistration(ShutdownTask task) {
+            this.task = task;
+        }
+
+        @Override
+        public void close() {
+            shutdownTasks.remove(task);
+        }
+    }
+
+    private static class ShutdownTask {
+        private final String name;
+        private final Runnable runnable;
+
+        ShutdownTask(String name, Runnable runnable) {
+            this.name = name;
+            this.runnable = runnable;
+        }
+    }
+
+    // ===== BUILDER =====
+
+    public static class Builder {
+        private int cpuThreads = Runtime.getRuntime().availableProcessors();
+        private int platformIoThreads = Runtime.getRuntime().availableProcessors() * 4;
+        private int schedulerThreads = DEFAULT_SCHEDULER_THREADS;
+        private Duration shutdownTimeout = DEFAULT_SHUTDOWN_TIMEOUT;
+        private boolean registerShutdownHook = true;
+
+        public Builder withCpuThreads(int threads) {
+            this.cpuThreads = Math.max(1, threads);
+            return this;
+        }
+
+        public Builder withPlatformIoThreads(int threads) {
+            this.platformIoThreads = Math.max(1, Math.min(threads, MAX_PLATFORM_IO_THREADS));
+            return this;
+        }
+
+        public Builder withSchedulerThreads(int threads) {
+            this.schedulerThreads = Math.max(1, threads);
+            return this;
+        }
+
+        public Builder withShutdownTimeout(Duration timeout) {
+            this.shutdownTimeout = Objects.requireNonNull(timeout, "timeout");
+            return this;
+        }
+
+        /**
+         * Whether the runtime installs its own JVM shutdown hook; embedders that manage the
+         * lifecycle themselves can disable it and call {@link SharedRuntime#shutdown()} directly.
+         */
+        public Builder withShutdownHook(boolean register) {
+            this.registerShutdownHook = register;
+            return this;
+        }
+
+        public SharedRuntime build() {
+            return new SharedRuntime(this);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package org.example.openapi;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * ===== STRATEGY RESULT MERGER =====
+ *
+ * Collects the test cases that several strategies generate for one endpoint. Strategies may run
+ * in parallel and are merged as each one completes; the merge picks winners independently of
+ * completion order, so the result is identical between runs.
+ *
+ * One instance serves one endpoint. Merging is thread-safe; {@link #await()} and
+ * {@link #optimize(TestCaseDeduplicator)} belong to the thread that submitted the strategies.
+ *
+ * @author Enhanced Test Generation Team
+ * @since 2025.1
+ */
+final class StrategyResultMerger {
+
+    private static final Comparator<GeneratedTestCase> RESULT_ORDER =
+            Comparator.comparingInt(GeneratedTestCase::getPriority).reversed()
+                    .thenComparing(Comparator.comparingInt(GeneratedTestCase::getComplexity).reversed())
+                    .thenComparing(GeneratedTestCase::getTestId);
+
+    private final Map<String, GeneratedTestCase> uniqueTests = new ConcurrentHashMap<>();
+    private final AtomicInteger generatedCount = new AtomicInteger(0);
+    private final List<CompletableFuture<Void>> pending = new ArrayList<>();
+
+    /**
+     * Generates one strategy's cases on {@code executor} and merges them when it completes.
+     */
+    void mergeAsync(Supplier<List<GeneratedTestCase>> strategy, Executor executor) {
+        pending.add(CompletableFuture.supplyAsync(strategy, executor).thenAccept(this::merge));
+    }
+
+    void merge(List<GeneratedTestCase> testCases) {
+        for (GeneratedTestCase testCase : testCases) {
+            uniqueTests.merge(testKey(testCase), testCase, StrategyResultMerger::prefer);
+        }
+        generatedCount.addAndGet(testCases.size());
+    }
+
+    /**
+     * Waits for every strategy started with {@link #mergeAsync}; when one fails the others are
+     * cancelled and its exception is rethrown.
+     */
+    void await() {
+        try {
+            CompletableFuture.allOf(pending.toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException e) {
+            pending.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * The merged cases without near-duplicates, sorted by priority and complexity, both
+     * descending, with the test id as a stable tie-breaker. The deduplicator picks each cluster's
+     * representative by its own preference; this is only the order the cases are returned in.
+     */
+    List<GeneratedTestCase> optimize(TestCaseDeduplicator deduplicator) {
+        List<GeneratedTestCase> optimized = deduplicator.deduplicate(new ArrayList<>(uniqueTests.values()));
+        optimized.sort(RESULT_ORDER);
+        return optimized;
+    }
+
+    /**
+     * Cases merged so far, duplicates included.
+     */
+    int getGeneratedCount() {
+        return generatedCount.get();
+    }
+
+    /**
+     * Test ids are derived only from the endpoint, strategy and scenario, so they double as the
+     * duplicate key.
+     */
+    private static String testKey(GeneratedTestCase testCase) {
+        return testCase.getTestId();
+    }
+
+    /**
+     * Keeps the more complex of two duplicates; ties fall back to the test id so the winner never
+     * depends on which strategy finished first.
+     */
+    private static GeneratedTestCase prefer(GeneratedTestCase current, GeneratedTestCase candidate) {
+        if (candidate.getComplexity() != current.getComplexity()) {
+            return candidate.getComplexity() > current.getComplexity() ? candidate : current;
+        }
+        return candidate.getTestId().compareTo(current.getTestId()) < 0 ? candidate : current;
+    }
+}
@@ -2,7 +2,13 @@ package org.example.openapi;
 
 import io.github.cdimascio.dotenv.Dotenv;
 import org.apache.commons.cli.*;
+import java.io.BufferedWriter;
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.text.SimpleDateFormat;
 import java.time.Duration;
 import java.time.Instant;
@@ -13,6 +19,7 @@ import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 import java.util.logging.*;
 import java.util.stream.Collectors;
 import java.security.MessageDigest;
@@ -42,7 +49,7 @@ import java.util.regex.Pattern;
  * @version 5.0.0-ENTERPRISE-FIXED
  * @since 2025.1
  */
-public class SwaggerTestGenerator {
+public class SwaggerTestGenerator implements AutoCloseable {
 
     // ===== ENHANCED CONSTANTS =====
     private static final Logger LOGGER = Logger.getLogger(SwaggerTestGenerator.class.getName());
@@ -58,6 +65,17 @@ public class SwaggerTestGenerator {
     private static final long DEFAULT_MAX_MEMORY_MB = 2048;
     private static final int DEFAULT_BATCH_SIZE = 50;
 
+    // Streaming pipeline constants
+    private static final int DEFAULT_PIPELINE_QUEUE_CAPACITY = 64;
+    private static final int DEFAULT_PIPELINE_WRITER_THREADS = 4;
+    private static final String DEFAULT_CHECKPOINT_JOURNAL = ".checkpoint/generation.journal";
+    private static final String SHARDS_DIRECTORY = ".shards";
+    private static final String SHARD_AGGREGATE_FILE = "report-aggregate.tsv";
+    private static final String RUN_SUMMARY_FILE = "generation-summary.tsv";
+    private static final Duration CHECKPOINT_SYNC_INTERVAL = Duration.ofSeconds(2);
+    private static final Duration DEFAULT_ENDPOINT_TIMEOUT = Duration.ofSeconds(DEFAULT_TIMEOUT_SECONDS);
+    private static final Pattern STATUS_CODE = Pattern.compile("[1-5]\\d\\d");
+
     // File and output constants
     private static final String DEFAULT_OUTPUT_FILE = "enterprise_api_tests.java";
     private static final String DEFAULT_OUTPUT_DIR = "generated/tests";
@@ -188,6 +206,7 @@ public class SwaggerTestGenerator {
         public double getQualityScore() { return qualityScore; }
         public Duration getGenerationDuration() { return generationDuration; }
         public Exception getError() { return error; }
+        public boolean hasError() { return error != null; }
 
         // Standard builder pattern
         public static class Builder {
@@ -277,24 +296,31 @@ public class SwaggerTestGenerator {
     }
 
     // ===== ENHANCED CORE COMPONENTS =====
+    // Components are created on first use, so a run only pays for what its configuration enables
 
     private final EnhancedConfiguration configuration;
-    private final EnterpriseFileManager fileManager;
-    private final AdvancedSchemaAnalyzer schemaAnalyzer;
-    private final IntelligentTestBuilder testBuilder;
-    private final ComprehensiveReportWriter reportWriter;
-    private final EnterpriseProgressTracker progressTracker;
-    private final AiIntegrationManager aiManager;
-    private final SecurityTestingEngine securityEngine;
-    private final PerformanceTestingEngine performanceEngine;
-    private final QualityAssuranceEngine qualityEngine;
+    private final LazyComponent<EnterpriseFileManager> fileManager;
+    private final LazyComponent<AdvancedSchemaAnalyzer> schemaAnalyzer;
+    private final LazyComponent<IntelligentTestBuilder> testBuilder;
+    private final LazyComponent<ComprehensiveReportWriter> reportWriter;
+    private final LazyComponent<EnterpriseProgressTracker> progressTracker;
+    private final LazyComponent<AiIntegrationManager> aiManager;
+    private final LazyComponent<SecurityTestingEngine> securityEngine;
+    private final LazyComponent<PerformanceTestingEngine> performanceEngine;
+    private final LazyComponent<QualityAssuranceEngine> qualityEngine;
 
     // Advanced monitoring and metrics
-    private final ExecutorService executorService;
-    private final ScheduledExecutorService scheduledExecutor;
-    private final EnterpriseMetricsCollector metricsCollector;
-    private final HealthMonitor healthMonitor;
-    private final ConfigurationValidator configValidator;
+    private final LazyComponent<SharedRuntime> runtime;
+    // Set once the runtime is resolved
+    private volatile SharedRuntime.ShutdownRegistration shutdownRegistration;
+    private final List<ScheduledFuture<?>> scheduledTasks = new CopyOnWriteArrayList<>();
+    private final LazyComponent<EnterpriseMetricsCollector> metricsCollector;
+    private final LazyComponent<HealthMonitor> healthMonitor;
+
+    // Startup timing: main() entry and the moment the first endpoint finished analysis
+    private static volatile long mainStartNanos = 0L;
+    private final long constructionNanos = System.nanoTime();
+    private final AtomicLong firstEndpointAnalyzedNanos = new AtomicLong(0);
 
     // Thread-safe counters for comprehensive tracking
     private final AtomicInteger processedEndpoints = new AtomicInteger(0);
@@ -307,6 +333,8 @@ public class SwaggerTestGenerator {
 
     private volatile int totalEndpoints = 0;
     private volatile boolean shutdownRequested = false;
+    // Scope of the streaming run in progress; shutdown cancels it so in-flight endpoints stop
+    private volatile CancellationContext runContext;
 
     // ===== ENHANCED CONSTRUCTORS =====
 
@@ -323,29 +351,49 @@ public class SwaggerTestGenerator {
      * @param configuration Enhanced configuration object
      */
     public SwaggerTestGenerator(EnhancedConfiguration configuration) {
+        this(configuration, SharedRuntime::getDefault);
+    }
+
+    /**
+     * Constructor with custom configuration and an explicit shared runtime
+     *
+     * @param configuration Enhanced configuration object
+     * @param runtime Shared pools, scheduler and shutdown lifecycle
+     */
+    public SwaggerTestGenerator(EnhancedConfiguration configuration, SharedRuntime runtime) {
+        this(configuration, () -> Objects.requireNonNull(runtime, "runtime"));
+    }
+
+    private SwaggerTestGenerator(EnhancedConfiguration configuration, Supplier<SharedRuntime> runtimeSupplier) {
         this.configuration = validateAndOptimizeConfiguration(configuration);
 
-        // Initialize core components with dependency injection
-        this.fileManager = new EnterpriseFileManager(this.configuration);
-        this.schemaAnalyzer = new AdvancedSchemaAnalyzer(this.configuration);
-        this.testBuilder = new IntelligentTestBuilder(this.configuration);
-        this.reportWriter = new ComprehensiveReportWriter(this.configuration);
-        this.progressTracker = new EnterpriseProgressTracker(this.configuration);
-        this.aiManager = new AiIntegrationManager(this.configuration);
-        this.securityEngine = new SecurityTestingEngine(this.configuration);
-        this.performanceEngine = new PerformanceTestingEngine(this.configuration);
-        this.qualityEngine = new QualityAssuranceEngine(this.configuration);
-
-        // Initialize advanced monitoring
-        this.executorService = createOptimizedExecutorService();
-        this.scheduledExecutor = Executors.newScheduledThreadPool(4);
-        this.metricsCollector = new EnterpriseMetricsCollector();
-        this.healthMonitor = new HealthMonitor(this.configuration);
-        this.configValidator = new ConfigurationValidator();
-
-        // Setup monitoring and health checks
+        // Core components with dependency injection, constructed on first use
+        EnhancedConfiguration config = this.configuration;
+        this.fileManager = new LazyComponent<>(() -> new EnterpriseFileManager(config));
+        this.schemaAnalyzer = new LazyComponent<>(() -> new AdvancedSchemaAnalyzer(config));
+        this.testBuilder = new LazyComponent<>(() -> new IntelligentTestBuilder(config));
+        this.reportWriter = new LazyComponent<>(() -> new ComprehensiveReportWriter(config));
+        this.progressTracker = new LazyComponent<>(() -> new EnterpriseProgressTracker(config));
+        this.aiManager = new LazyComponent<>(() -> new AiIntegrationManager(config));
+        this.securityEngine = new LazyComponent<>(() -> new SecurityTestingEngine(config));
+        this.performanceEngine = new LazyComponent<>(() -> new PerformanceTestingEngine(config));
+        this.qualityEngine = new LazyComponent<>(() -> new QualityAssuranceEngine(config));
+
+        // The shared runtime (and our shutdown task on it) is only resolved once something needs threads
+        this.runtime = new LazyComponent<>(() -> {
+            SharedRuntime resolved = runtimeSupplier.get();
+            initializeShutdownHooks(resolved);
+            return resolved;
+        });
+        this.metricsCollector = new LazyComponent<>(EnterpriseMetricsCollector::new);
+        this.healthMonitor = new LazyComponent<>(() -> new HealthMonitor(config));
+
+        // Setup monitoring and health checks (only when real-time monitoring is enabled)
         initializeMonitoring();
-        initializeShutdownHooks();
+
+        if (this.configuration.isEagerInitialization()) {
+            initializeAllComponents();
+        }
 
         if (this.configuration.isVerbose()) {
             setupEnterpriseLogging();
@@ -363,6 +411,17 @@ public class SwaggerTestGenerator {
      */
     public ComprehensiveTestSuite generateComprehensiveTests(EndpointInfo endpoint,
                                                              AdvancedStrategyRecommendation recommendation) {
+        return generateComprehensiveTests(endpoint, recommendation, CancellationContext.background());
+    }
+
+    /**
+     * Generates the endpoint's suite within its cancellation context, checked between phases.
+     *
+     * @throws CancellationException if the context ends first; no fallback suite is produced then
+     */
+    public ComprehensiveTestSuite generateComprehensiveTests(EndpointInfo endpoint,
+                                                             AdvancedStrategyRecommendation recommendation,
+                                                             CancellationContext context) {
         String executionId = generateAdvancedExecutionId();
         currentStatus.set(GenerationStatus.TEST_GENERATION);
 
@@ -374,26 +433,31 @@ public class SwaggerTestGenerator {
             AdvancedStrategyExecutionPlan executionPlan = createAdvancedExecutionPlan(endpoint, recommendation);
 
             // Phase 2: Generate test cases using intelligent test builder
-            List<GeneratedTestCase> testCases = testBuilder.generateComprehensiveTests(
-                    endpoint, recommendation, executionPlan);
+            context.throwIfCancelled();
+            List<GeneratedTestCase> testCases = testBuilder.get().generateComprehensiveTests(
+                    endpoint, recommendation, executionPlan, context);
 
             // Phase 3: AI-powered test enhancement if enabled
             if (configuration.hasAiIntegration()) {
-                testCases = aiManager.enhanceTestsWithAi(endpoint, testCases);
+                context.throwIfCancelled();
+                testCases = aiManager.get().enhanceTestsWithAi(endpoint, testCases, context);
             }
 
             // Phase 4: Security validation if enabled
             if (configuration.getSecurityLevel().getIntensity() > 0) {
-                testCases = securityEngine.validateAndEnhanceSecurityTests(testCases, endpoint);
+                context.throwIfCancelled();
+                testCases = securityEngine.get().validateAndEnhanceSecurityTests(testCases, endpoint);
             }
 
             // Phase 5: Performance optimization if enabled
             if (configuration.getPerformanceLevel().getIntensity() > 0) {
-                testCases = performanceEngine.optimizeTestExecution(testCases, endpoint);
+                context.throwIfCancelled();
+                testCases = performanceEngine.get().optimizeTestExecution(testCases, endpoint);
             }
 
             // Phase 6: Quality assurance validation
-            testCases = qualityEngine.validateTestQuality(testCases);
+            context.throwIfCancelled();
+            testCases = qualityEngine.get().validateTestQuality(testCases);
 
             // Build comprehensive test suite
             ComprehensiveTestSuite suite = ComprehensiveTestSuite.builder()
@@ -416,10 +480,12 @@ public class SwaggerTestGenerator {
 
             return suite;
 
+        } catch (CancellationException e) {
+            throw e;
         } catch (Exception e) {
             failedEndpoints.incrementAndGet();
             LOGGER.log(Level.SEVERE, "Comprehensive test generation failed for " + endpoint.getPath(), e);
-            return createFallbackComprehensiveTestSuite(endpoint);
+            return createFallbackComprehensiveTestSuite(endpoint, e);
         } finally {
             processedEndpoints.incrementAndGet();
         }
@@ -452,6 +518,7 @@ public class SwaggerTestGenerator {
 
             // Phase 1: Analyze endpoint characteristics
             EndpointAnalysis analysis = analyzeEndpoint(endpoint);
+            recordFirstEndpointAnalyzed();
 
             // Phase 2: Select optimal strategy based on analysis
             StrategyType primaryStrategy = selectOptimalStrategy(endpoint, analysis);
@@ -501,6 +568,12 @@ public class SwaggerTestGenerator {
             LOGGER.info("Version: " + APP_VERSION + " | Build: " + BUILD_DATE);
             LOGGER.info("Execution Mode: " + configuration.getExecutionMode());
 
+            // Resuming, sharding and the suite file need per-endpoint completion, which only the streaming workflow has
+            if (configuration.isStreamingMode() || configuration.isResume() || configuration.isSharded()
+                    || configuration.getSuiteFilePath() != null) {
+                return executeStreamingWorkflow(workflowStartTime);
+            }
+
             // Phase 1: Input processing and validation
             currentStatus.set(GenerationStatus.INPUT_PROCESSING);
             EnhancedInputProcessingResult inputResult = performEnhancedInputProcessing();
@@ -520,6 +593,7 @@ public class SwaggerTestGenerator {
             // Phase 5: Enhanced reporting
             currentStatus.set(GenerationStatus.REPORTING);
             EnhancedReportingResult reportingResult = performEnhancedReporting(qualityResult);
+            writeBatchSummary(inputResult, qualityResult);
 
             // Build comprehensive result
             Duration totalDuration = Duration.between(workflowStartTime, Instant.now());
@@ -532,7 +606,7 @@ public class SwaggerTestGenerator {
                     .withQualityResult(qualityResult)
                     .withReportingResult(reportingResult)
                     .withTotalDuration(totalDuration)
-                    .withMetrics(metricsCollector.getMetrics())
+                    .withMetrics(metricsCollector.get().getMetrics())
                     .withSuccess(true)
                     .build();
 
@@ -543,6 +617,223 @@ public class SwaggerTestGenerator {
         }
     }
 
+    /**
+     * Executes the workflow as a streaming pipeline. Endpoints are handed from stage to stage
+     * through bounded queues, so the first test files are written while later endpoints are
+     * still being analyzed and generated.
+     */
+    private EnterpriseTestGenerationResult executeStreamingWorkflow(Instant workflowStartTime) throws Exception {
+        // Phase 1: Input processing stays a barrier - the endpoint list must be known up front
+        currentStatus.set(GenerationStatus.INPUT_PROCESSING);
+        EnhancedInputProcessingResult inputResult = performEnhancedInputProcessing();
+        List<EndpointInfo> endpoints = resolveEndpoints(inputResult);
+        ShardSpec shard = configuration.getShard();
+        if (shard != null) {
+            int specEndpoints = endpoints.size();
+            endpoints = endpoints.stream().filter(shard::owns).collect(Collectors.toList());
+            LOGGER.info("Shard " + shard + ": " + endpoints.size() + " of " + specEndpoints + " endpoints");
+        }
+        totalEndpoints = endpoints.size();
+
+        TestSuiteBinaryCodec.SuiteWriter suiteWriter = openSuiteFile();
+        // Every completed endpoint is journaled; with --resume the journaled ones are skipped
+        CheckpointJournal journal = openCheckpointJournal();
+        Map<String, CheckpointJournal.EndpointCheckpoint> resumed = new LinkedHashMap<>();
+        List<EndpointInfo> pending = new ArrayList<>(endpoints.size());
+        Map<String, CheckpointJournal.EndpointCheckpoint> journaled = journal != null
+                ? journal.getCompletedEndpoints() : Collections.emptyMap();
+        for (EndpointInfo endpoint : endpoints) {
+            CheckpointJournal.EndpointCheckpoint checkpoint =
+                    journaled.get(CheckpointJournal.endpointKey(endpoint.getMethod(), endpoint.getPath()));
+            if (checkpoint != null && checkpoint.hasAllFiles()) {
+                resumed.put(checkpoint.getEndpointKey(), checkpoint);
+            } else {
+                pending.add(endpoint);
+            }
+        }
+        if (configuration.isResume()) {
+            LOGGER.info("Resuming from " + configuration.getCheckpointJournalPath() + ": " + resumed.size() +
+                    " endpoints already completed, " + pending.size() + " remaining");
+        }
+        // Highest-risk endpoints first, so a run cut short still delivers their tests
+        pending = EndpointPriorityScheduler.prioritize(pending, SwaggerTestGenerator::toRiskProfile);
+
+        // Phases 2-5 overlap per endpoint
+        currentStatus.set(GenerationStatus.TEST_GENERATION);
+        StreamingWorkflowPipeline pipeline = new StreamingWorkflowPipeline(this, configuration)
+                .withCheckpointJournal(journal)
+                .withSuiteWriter(suiteWriter);
+        // Bounds how long a completed endpoint can sit in the journal unsynced while the pipeline is busy
+        ScheduledFuture<?> journalSync = journal != null
+                ? getRuntime().getScheduler().scheduleAtFixedRate(journal::syncQuietly,
+                        CHECKPOINT_SYNC_INTERVAL.toMillis(), CHECKPOINT_SYNC_INTERVAL.toMillis(), TimeUnit.MILLISECONDS)
+                : null;
+        // Deadline and shutdown reach every endpoint through its child of the run context
+        CancellationContext context = CancellationContext.withTimeout("streaming run", configuration.getRunTimeout(),
+                getRuntime().getScheduler());
+        runContext = context;
+        StreamingWorkflowResult streamingResult;
+        try {
+            streamingResult = pipeline.run(pending, context);
+            if (context.isCancelled()) {
+                LOGGER.warning("Streaming run stopped (" + context.getCancellationReason() + "); " +
+                        streamingResult.getCancelledEndpoints() + " endpoints left for a resumed run");
+            }
+        } finally {
+            runContext = null;
+            context.close();
+            if (journalSync != null) {
+                journalSync.cancel(false);
+            }
+            closeCheckpointJournal(journal);
+            closeSuiteFile(suiteWriter);
+        }
+        ComprehensiveReportWriter writer = reportWriter.get();
+        for (CheckpointJournal.EndpointCheckpoint checkpoint : resumed.values()) {
+            streamingResult.recordResumed(checkpoint);
+            writer.recordEndpoint(checkpoint.getEndpointKey(), checkpoint.getTests().size(), checkpoint.getWrittenFiles());
+        }
+
+        // A shard leaves a partial aggregate for the merge step; a whole run writes the summary itself
+        if (shard != null) {
+            writer.writeAggregate(Paths.get(configuration.getWorkingOutputDirectory(), SHARD_AGGREGATE_FILE), shard);
+        } else {
+            writer.writeSummary(Paths.get(configuration.getOutputDirectory(), RUN_SUMMARY_FILE));
+        }
+
+        Duration totalDuration = Duration.between(workflowStartTime, Instant.now());
+        currentStatus.set(GenerationStatus.COMPLETED);
+
+        LOGGER.info("Streaming workflow completed: " + streamingResult.getCompletedEndpoints() + "/" +
+                endpoints.size() + " endpoints, " + streamingResult.getGeneratedTests().size() +
+                " tests, first file after " + streamingResult.getTimeToFirstFile().toMillis() + "ms");
+
+        return EnterpriseTestGenerationResult.builder()
+                .withInputResult(inputResult)
+                .withAnalysisResult(streamingResult.toAnalysisResult())
+                .withTestResult(streamingResult.toTestGenerationResult())
+                .withQualityResult(streamingResult.toQualityAssuranceResult())
+                .withReportingResult(streamingResult.toReportingResult())
+                .withTotalDuration(totalDuration)
+                .withMetrics(metricsCollector.get().getMetrics())
+                .withSuccess(streamingResult.getFailedEndpoints() == 0)
+                .build();
+    }
+
+    /**
+     * Opens the checkpoint journal, replaying it when resuming and starting a fresh one otherwise.
+     * A journal that cannot be opened only costs resumability, so the run continues without one.
+     */
+    private CheckpointJournal openCheckpointJournal() {
+        Path journalPath = configuration.getCheckpointJournalPath();
+        String fingerprint = "input=" + specContentHash() + ";output=" +
+                Paths.get(configuration.getOutputDirectory()).toAbsolutePath().normalize();
+        try {
+            return CheckpointJournal.open(journalPath, fingerprint, configuration.isResume(),
+                    CheckpointJournal.DEFAULT_SYNC_BATCH_SIZE, CHECKPOINT_SYNC_INTERVAL);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Checkpoint journal " + journalPath + " unavailable; this run cannot be resumed", e);
+            return null;
+        }
+    }
+
+    /**
+     * SHA-256 of the spec's content, so an edited spec is never resumed against the checkpoints of
+     * the old one. A spec that cannot be read as a file, such as a URL, is identified by its location.
+     */
+    private String specContentHash() {
+        String inputFile = configuration.getInputFile();
+        try {
+            byte[] content = Files.readAllBytes(Paths.get(inputFile));
+            return "sha256:" + HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (Exception e) {
+            return inputFile;
+        }
+    }
+
+    /**
+     * Opens the binary suite file for a later execution job, if one was requested. Endpoints skipped
+     * by --resume were generated by an earlier run and are not in it.
+     */
+    private TestSuiteBinaryCodec.SuiteWriter openSuiteFile() throws IOException {
+        Path suiteFile = configuration.getSuiteFilePath();
+        if (suiteFile == null) {
+            return null;
+        }
+        if (configuration.isResume()) {
+            LOGGER.warning("Suite file " + suiteFile + " will contain only the endpoints generated by this resumed run");
+        }
+        String executionId = "gen-" + Long.toHexString(System.currentTimeMillis());
+        return TestSuiteBinaryCodec.openWriter(suiteFile, new TestSuiteBinaryCodec.SuiteHeader(
+                "suite-" + executionId, "Generated from " + configuration.getInputFile()
+                        + (configuration.isSharded() ? " (shard " + configuration.getShard() + ")" : ""),
+                executionId, Instant.now()));
+    }
+
+    private static void closeSuiteFile(TestSuiteBinaryCodec.SuiteWriter suiteWriter) {
+        if (suiteWriter == null) {
+            return;
+        }
+        try {
+            suiteWriter.close();
+            LOGGER.info("Wrote " + suiteWriter.getWrittenCount() + " test cases to the suite file");
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Failed to complete the suite file; an execution job will reject it", e);
+        }
+    }
+
+    /**
+     * The full endpoint model for the lightweight descriptor, used only to rank it by risk. The
+     * parameters, request body and responses are copied too, since the model derives business
+     * rules, personal data handling and complexity from them. Parameters without a location are
+     * taken as query parameters; responses keyed by anything but a status code ("default") are
+     * left out, as the full model only accepts numeric codes.
+     */
+    static org.example.openapi.EndpointInfo toRiskProfile(EndpointInfo endpoint) {
+        org.example.openapi.EndpointInfo.Builder profile = org.example.openapi.EndpointInfo.builder()
+                .withMethod(endpoint.getMethod())
+                .withPath(endpoint.getPath())
+                .withOperationId(endpoint.getOperationId());
+        endpoint.getSecuritySchemes().forEach(profile::withSecurity);
+        for (ParameterInfo parameter : endpoint.getParameters()) {
+            if (parameter.getName() != null && !parameter.getName().isBlank()) {
+                profile.withParameter(org.example.openapi.ParameterInfo.builder()
+                        .withName(parameter.getName())
+                        .withIn("query")
+                        .withType(parameter.getType() != null ? parameter.getType() : "string")
+                        .withRequired(parameter.isRequired())
+                        .build());
+            }
+        }
+        RequestBodyInfo requestBody = endpoint.getRequestBodyInfo();
+        if (requestBody != null) {
+            profile.withRequestBody(org.example.openapi.RequestBodyInfo.builder()
+                    .withContentType(requestBody.getContentType() != null
+                            ? requestBody.getContentType() : "application/json")
+                    .build());
+        }
+        for (Map.Entry<String, ResponseInfo> response : endpoint.getResponses().entrySet()) {
+            if (response.getKey() != null && STATUS_CODE.matcher(response.getKey()).matches()) {
+                profile.withResponse(response.getKey(), org.example.openapi.ResponseInfo.builder()
+                        .withStatusCode(response.getKey())
+                        .withDescription(response.getValue() != null ? response.getValue().getDescription() : null)
+                        .build());
+            }
+        }
+        return profile.build();
+    }
+
+    private static void closeCheckpointJournal(CheckpointJournal journal) {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.close();
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Failed to close checkpoint journal " + journal.getFile(), e);
+        }
+    }
+
     // ===== STANDARD HELPER METHODS =====
 
     /**
@@ -553,35 +844,10 @@ public class SwaggerTestGenerator {
             throw new IllegalArgumentException("Configuration cannot be null");
         }
 
-        configValidator.validateConfiguration(config);
+        new ConfigurationValidator().validateConfiguration(config);
         return config; // Add optimization logic here
     }
 
-    /**
-     * Creates optimized executor service with enterprise-grade configuration
-     */
-    private ExecutorService createOptimizedExecutorService() {
-        int corePoolSize = configuration.getThreadPoolSize();
-        int maximumPoolSize = Math.min(MAX_THREAD_POOL_SIZE, corePoolSize * 2);
-
-        return new ThreadPoolExecutor(
-                corePoolSize,
-                maximumPoolSize,
-                60L, TimeUnit.SECONDS,
-                new LinkedBlockingQueue<>(1000),
-                new ThreadFactory() {
-                    private final AtomicInteger counter = new AtomicInteger(0);
-                    @Override
-                    public Thread newThread(Runnable r) {
-                        Thread t = new Thread(r, "TestGenerator-" + counter.incrementAndGet());
-                        t.setDaemon(true);
-                        return t;
-                    }
-                },
-                new ThreadPoolExecutor.CallerRunsPolicy()
-        );
-    }
-
     /**
      * Generates advanced cache key with consistent hashing
      */
@@ -609,17 +875,56 @@ public class SwaggerTestGenerator {
 
     private void initializeMonitoring() {
         if (configuration.isRealTimeMonitoring()) {
-            scheduledExecutor.scheduleAtFixedRate(this::collectMetrics, 0, 30, TimeUnit.SECONDS);
-            scheduledExecutor.scheduleAtFixedRate(this::performHealthCheck, 0, 60, TimeUnit.SECONDS);
+            ScheduledExecutorService scheduler = runtime.get().getScheduler();
+            scheduledTasks.add(scheduler.scheduleAtFixedRate(this::collectMetrics, 0, 30, TimeUnit.SECONDS));
+            scheduledTasks.add(scheduler.scheduleAtFixedRate(this::performHealthCheck, 0, 60, TimeUnit.SECONDS));
+        }
+    }
+
+    /**
+     * Builds every component up front, matching the pre-lazy startup cost (used for comparison runs).
+     */
+    private void initializeAllComponents() {
+        Arrays.asList(fileManager, schemaAnalyzer, testBuilder, reportWriter, progressTracker, aiManager,
+                securityEngine, performanceEngine, qualityEngine, runtime, metricsCollector, healthMonitor)
+                .forEach(LazyComponent::get);
+    }
+
+    /**
+     * Logs the startup latency once, when the first endpoint finishes analysis. Measured from
+     * main() when running as a CLI, otherwise from construction.
+     */
+    private void recordFirstEndpointAnalyzed() {
+        long now = System.nanoTime();
+        if (firstEndpointAnalyzedNanos.compareAndSet(0L, now)) {
+            long origin = mainStartNanos != 0L ? mainStartNanos : constructionNanos;
+            LOGGER.info(String.format("Startup: first endpoint analyzed after %.1f ms",
+                    (now - origin) / 1_000_000.0));
+        }
+    }
+
+    /**
+     * Time from main() (or construction) to the first analyzed endpoint, or null if none yet.
+     */
+    public Duration getTimeToFirstEndpointAnalyzed() {
+        long analyzedAt = firstEndpointAnalyzedNanos.get();
+        if (analyzedAt == 0L) {
+            return null;
         }
+        long origin = mainStartNanos != 0L ? mainStartNanos : constructionNanos;
+        return Duration.ofNanos(analyzedAt - origin);
     }
 
-    private void initializeShutdownHooks() {
-        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
-            LOGGER.info("Shutdown hook triggered - performing graceful shutdown...");
+    private void initializeShutdownHooks(SharedRuntime sharedRuntime) {
+        shutdownRegistration = sharedRuntime.registerShutdownTask("SwaggerTestGenerator", () -> {
+            LOGGER.info("Shutdown triggered - performing graceful shutdown...");
             shutdownRequested = true;
+            CancellationContext context = runContext;
+            if (context != null) {
+                context.cancel("shutdown");
+            }
             performGracefulShutdown();
-        }));
+        });
     }
 
     private void setupEnterpriseLogging() {
@@ -641,6 +946,7 @@ public class SwaggerTestGenerator {
      * Enhanced main method with comprehensive CLI processing
      */
     public static void main(String[] args) {
+        mainStartNanos = System.nanoTime();
         setupBasicLogging();
 
         try {
@@ -661,6 +967,11 @@ public class SwaggerTestGenerator {
             EnhancedConfiguration config = buildEnhancedConfigurationFromCLI(cmd);
             validateConfigurationOrExit(config);
 
+            if (cmd.hasOption("merge-shards")) {
+                new ShardMerger(config, parseShardCount(cmd.getOptionValue("merge-shards"))).merge();
+                System.exit(0);
+            }
+
             SwaggerTestGenerator generator = new SwaggerTestGenerator(config);
             setupSignalHandlers(generator);
 
@@ -804,6 +1115,567 @@ public class SwaggerTestGenerator {
         public boolean isReportsGenerated() { return reportsGenerated; }
     }
 
+    // ===== SHARDING =====
+
+    /**
+     * One shard of a multi-process run, written {@code i/N} with {@code 1 <= i <= N}. Endpoints are
+     * assigned by a stable hash of method and path, so every process computes the same partition
+     * without coordinating, and an endpoint stays in its shard when others are added to the spec.
+     */
+    public static final class ShardSpec {
+        private final int index;
+        private final int count;
+
+        private ShardSpec(int index, int count) {
+            if (count < 1 || index < 0 || index >= count) {
+                throw new IllegalArgumentException("Shard " + (index + 1) + "/" + count + " is out of range");
+            }
+            this.index = index;
+            this.count = count;
+        }
+
+        /**
+         * @param index zero-based shard index
+         */
+        public static ShardSpec of(int index, int count) {
+            return new ShardSpec(index, count);
+        }
+
+        public static ShardSpec parse(String spec) {
+            String[] parts = spec.trim().split("/");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Shard must be given as i/N, got '" + spec + "'");
+            }
+            try {
+                return new ShardSpec(Integer.parseInt(parts[0].trim()) - 1, Integer.parseInt(parts[1].trim()));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Shard must be given as i/N, got '" + spec + "'", e);
+            }
+        }
+
+        /**
+         * Zero-based shard of an endpoint. FNV-1a over the UTF-8 key rather than String.hashCode,
+         * so the assignment is part of this format and not of the JDK.
+         */
+        public static int shardOf(String method, String path, int count) {
+            byte[] key = CheckpointJournal.endpointKey(method, path).getBytes(StandardCharsets.UTF_8);
+            long hash = 0xcbf29ce484222325L;
+            for (byte b : key) {
+                hash ^= (b & 0xff);
+                hash *= 0x100000001b3L;
+            }
+            hash ^= hash >>> 33;
+            return (int) Math.floorMod(hash, (long) count);
+        }
+
+        public boolean owns(EndpointInfo endpoint) {
+            return shardOf(endpoint.getMethod(), endpoint.getPath(), count) == index;
+        }
+
+        public int getIndex() { return index; }
+        public int getCount() { return count; }
+        public String getDirectoryName() { return "shard-" + (index + 1) + "-of-" + count; }
+
+        @Override
+        public String toString() { return (index + 1) + "/" + count; }
+    }
+
+    /**
+     * Combines the outputs of {@code N} completed shard runs into the output directory: test files
+     * are copied in shard order and the shard aggregates are merged into the same run summary a
+     * single-process run writes. Copying (rather than moving) keeps the merge repeatable.
+     */
+    public static class ShardMerger {
+        private final EnhancedConfiguration configuration;
+        private final int shardCount;
+
+        public ShardMerger(EnhancedConfiguration configuration, int shardCount) {
+            if (shardCount < 1) {
+                throw new IllegalArgumentException("Shard count must be positive");
+            }
+            this.configuration = configuration;
+            this.shardCount = shardCount;
+        }
+
+        /**
+         * @return the merged report writer
+         * @throws IllegalStateException if a shard has not finished or belongs to another split
+         */
+        public ComprehensiveReportWriter merge() throws IOException {
+            Path outputDirectory = Paths.get(configuration.getOutputDirectory());
+            ComprehensiveReportWriter merged = new ComprehensiveReportWriter(configuration);
+            Map<String, Integer> fileOwners = new HashMap<>();
+
+            for (int i = 0; i < shardCount; i++) {
+                ShardSpec shard = ShardSpec.of(i, shardCount);
+                Path shardDirectory = outputDirectory.resolve(SHARDS_DIRECTORY).resolve(shard.getDirectoryName());
+                Path aggregateFile = shardDirectory.resolve(SHARD_AGGREGATE_FILE);
+                if (!Files.exists(aggregateFile)) {
+                    throw new IllegalStateException("Shard " + shard + " has not completed (no " + aggregateFile +
+                            "); run or --resume it before merging");
+                }
+
+                ComprehensiveReportWriter.ReportAggregate aggregate =
+                        ComprehensiveReportWriter.readAggregate(aggregateFile, shard);
+                for (ComprehensiveReportWriter.EndpointReport report : aggregate.getEndpoints()) {
+                    for (String file : report.getFiles()) {
+                        Integer previousOwner = fileOwners.put(file, i);
+                        if (previousOwner != null && previousOwner != i) {
+                            LOGGER.warning("File " + file + " was written by shards " + (previousOwner + 1) +
+                                    " and " + (i + 1) + "; keeping shard " + (i + 1) + "'s copy");
+                        }
+                        Path target = outputDirectory.resolve(file);
+                        Files.createDirectories(target.toAbsolutePath().getParent());
+                        Files.copy(shardDirectory.resolve(file), target, StandardCopyOption.REPLACE_EXISTING);
+                    }
+                }
+                merged.mergeAggregate(aggregate);
+            }
+
+            merged.writeSummary(outputDirectory.resolve(RUN_SUMMARY_FILE));
+            LOGGER.info("Merged " + shardCount + " shards: " + merged.getReportedSuites() + " endpoints, " +
+                    merged.getReportedTests() + " tests, " + merged.getReportedFiles() + " files");
+            return merged;
+        }
+    }
+
+    // ===== STREAMING WORKFLOW =====
+
+    /**
+     * Unit of work flowing through the streaming pipeline. Each stage fills in its own part.
+     */
+    public static class StreamingWorkItem {
+        private static final StreamingWorkItem END_OF_STREAM =
+                new StreamingWorkItem(null, Integer.MAX_VALUE, CancellationContext.background());
+
+        private final EndpointInfo endpoint;
+        // Position in processing order; every stage queue releases the lowest rank first
+        private final int rank;
+        // Cancelled with the run while the item waits in the queues
+        private final CancellationContext queuedContext;
+        // The endpoint's own deadline once generation picks it up; both close when the item leaves the pipeline
+        private CancellationContext context;
+        private final Instant enqueuedAt = Instant.now();
+        private AdvancedStrategyRecommendation recommendation;
+        private ComprehensiveTestSuite suite;
+        private List<String> writtenFiles = new ArrayList<>();
+
+        public StreamingWorkItem(EndpointInfo endpoint, int rank, CancellationContext context) {
+            this.endpoint = endpoint;
+            this.rank = rank;
+            this.queuedContext = context;
+            this.context = context;
+        }
+
+        public EndpointInfo getEndpoint() { return endpoint; }
+        public int getRank() { return rank; }
+        public CancellationContext getContext() { return context; }
+        public Instant getEnqueuedAt() { return enqueuedAt; }
+        public AdvancedStrategyRecommendation getRecommendation() { return recommendation; }
+        public ComprehensiveTestSuite getSuite() { return suite; }
+        public List<String> getWrittenFiles() { return writtenFiles; }
+
+        private boolean isEndOfStream() { return this == END_OF_STREAM; }
+
+        /**
+         * Starts the endpoint's deadline, so time spent waiting in the queues before it does not
+         * count against it. Later stages run under the same deadline.
+         */
+        private void startDeadline(Duration timeout) {
+            if (context == queuedContext) {
+                context = queuedContext.child(queuedContext.getName(), timeout);
+            }
+        }
+
+        private void closeContext() {
+            context.close();
+            queuedContext.close();
+        }
+    }
+
+    /**
+     * Per-endpoint streaming pipeline: analysis -> recommendation -> generation/QA -> file write
+     * -> report aggregation. Stages are connected by bounded queues, so a slow writer throttles
+     * generation instead of letting finished suites pile up in memory, and CPU-bound generation
+     * overlaps with I/O-bound writing.
+     */
+    public static class StreamingWorkflowPipeline {
+        private final SwaggerTestGenerator generator;
+        private final int queueCapacity;
+        private final int analysisWorkers;
+        private final int generationWorkers;
+        private final int writerWorkers;
+        private final boolean virtualThreads;
+        private final Duration endpointTimeout;
+        private CheckpointJournal checkpointJournal;
+        private TestSuiteBinaryCodec.SuiteWriter suiteWriter;
+
+        private final AtomicInteger failedEndpoints = new AtomicInteger(0);
+        private final AtomicInteger cancelledEndpoints = new AtomicInteger(0);
+        private final AtomicReference<Instant> firstFileWrittenAt = new AtomicReference<>();
+        private final List<String> warnings = Collections.synchronizedList(new ArrayList<>());
+
+        public StreamingWorkflowPipeline(SwaggerTestGenerator generator, EnhancedConfiguration configuration) {
+            this.generator = generator;
+            this.queueCapacity = configuration.getPipelineQueueCapacity();
+            int cpuWorkers = Math.max(1, Runtime.getRuntime().availableProcessors());
+            this.virtualThreads = configuration.isVirtualThreadsEnabled();
+            this.analysisWorkers = Math.max(1, configuration.getCpuPoolSize() / 2);
+            // Virtual workers are cheap, so let enough of them block on AI calls to keep the queue drained
+            this.generationWorkers = virtualThreads ? Math.max(cpuWorkers, queueCapacity) : cpuWorkers;
+            this.writerWorkers = configuration.getWriterThreads();
+            this.endpointTimeout = configuration.getEndpointTimeout();
+        }
+
+        /**
+         * Journals each endpoint once its suite has been written and reported; null disables this.
+         */
+        public StreamingWorkflowPipeline withCheckpointJournal(CheckpointJournal journal) {
+            this.checkpointJournal = journal;
+            return this;
+        }
+
+        /**
+         * Appends each reported endpoint's test cases to a binary suite file; null disables this.
+         */
+        public StreamingWorkflowPipeline withSuiteWriter(TestSuiteBinaryCodec.SuiteWriter suiteWriter) {
+            this.suiteWriter = suiteWriter;
+            return this;
+        }
+
+        /**
+         * Runs all endpoints through the pipeline; report aggregation happens on the calling thread.
+         */
+        public StreamingWorkflowResult run(List<EndpointInfo> endpoints) throws InterruptedException {
+            return run(endpoints, CancellationContext.background());
+        }
+
+        /**
+         * Runs the endpoints within the run context. Each endpoint gets a child context with the
+         * endpoint deadline; an endpoint whose context ends is dropped at its current stage, its
+         * blocking work interrupted, and the run drains the rest the same way once the run context ends.
+         */
+        public StreamingWorkflowResult run(List<EndpointInfo> endpoints, CancellationContext runContext)
+                throws InterruptedException {
+            Instant startTime = Instant.now();
+
+            // Items overtake each other between stages; the end-of-stream marker ranks last, so it
+            // is only taken once everything ahead of it has been
+            Comparator<StreamingWorkItem> byRank = Comparator.comparingInt(StreamingWorkItem::getRank);
+            BlockingQueue<StreamingWorkItem> analysisQueue = EndpointPriorityScheduler.newStageQueue(queueCapacity, byRank);
+            BlockingQueue<StreamingWorkItem> generationQueue = EndpointPriorityScheduler.newStageQueue(queueCapacity, byRank);
+            BlockingQueue<StreamingWorkItem> writeQueue = EndpointPriorityScheduler.newStageQueue(queueCapacity, byRank);
+            BlockingQueue<StreamingWorkItem> reportQueue = EndpointPriorityScheduler.newStageQueue(queueCapacity, byRank);
+
+            // Source and analysis are CPU-bound and always stay on platform threads. Each stage worker
+            // loops on its input queue for the whole run, so the platform workers get a pool of their
+            // own from the runtime rather than pinning threads of its shared pools
+            int platformWorkers = 1 + analysisWorkers + (virtualThreads ? 0 : generationWorkers + writerWorkers);
+            ExecutorService stageExecutor = generator.getRuntime().newDedicatedExecutor("pipeline", platformWorkers);
+            // Virtual workers come from the shared runtime, so they are tracked and cancelled individually
+            ExecutorService blockingStageExecutor = virtualThreads ? generator.getRuntime().getIoExecutor() : stageExecutor;
+            List<Future<?>> blockingWorkers = new ArrayList<>();
+
+            try {
+                // Source: blocks on put() when the analysis stage falls behind
+                stageExecutor.execute(() -> {
+                    try {
+                        int rank = 0;
+                        for (EndpointInfo endpoint : endpoints) {
+                            if (generator.shutdownRequested || runContext.isCancelled()) {
+                                cancelledEndpoints.addAndGet(endpoints.size() - rank);
+                                break;
+                            }
+                            // The endpoint's deadline starts only when generation picks it up
+                            analysisQueue.put(new StreamingWorkItem(endpoint, rank++, runContext.child(
+                                    CheckpointJournal.endpointKey(endpoint.getMethod(), endpoint.getPath()))));
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        putEndOfStream(analysisQueue);
+                    }
+                });
+
+                startStage(stageExecutor, "analysis", analysisWorkers, analysisQueue, generationQueue, false, item ->
+                        item.recommendation = generator.recommendAdvancedStrategy(item.getEndpoint()));
+
+                blockingWorkers.addAll(startStage(blockingStageExecutor, "generation", generationWorkers, generationQueue, writeQueue, true, item -> {
+                    item.suite = generator.generateComprehensiveTests(item.getEndpoint(), item.getRecommendation(), item.getContext());
+                    if (item.suite.hasError()) {
+                        // The fallback suite is still written, as in barrier mode, but the endpoint counts as failed
+                        failedEndpoints.incrementAndGet();
+                        warnings.add("generation failed for " + item.getEndpoint().getPath() + ": " + item.suite.getError().getMessage());
+                    }
+                }));
+
+                blockingWorkers.addAll(startStage(blockingStageExecutor, "write", writerWorkers, writeQueue, reportQueue, false, item -> {
+                    item.writtenFiles = generator.fileManager.get().writeTestSuite(item.getSuite(), item.getContext());
+                    if (!item.writtenFiles.isEmpty()) {
+                        firstFileWrittenAt.compareAndSet(null, Instant.now());
+                    }
+                }));
+
+                // Sink: report aggregation, single-threaded so no synchronization is needed
+                StreamingWorkflowResult result = new StreamingWorkflowResult(startTime);
+                while (true) {
+                    StreamingWorkItem item = reportQueue.take();
+                    if (item.isEndOfStream()) {
+                        break;
+                    }
+                    result.record(item);
+                    generator.reportWriter.get().recordSuite(item.getSuite(), item.getWrittenFiles());
+                    appendToSuiteFile(item);
+                    journalCompletion(item);
+                    item.closeContext();
+                }
+
+                result.complete(firstFileWrittenAt.get(), failedEndpoints.get(), cancelledEndpoints.get(), warnings);
+                return result;
+
+            } finally {
+                stageExecutor.shutdownNow();
+                blockingWorkers.forEach(worker -> worker.cancel(true));
+            }
+        }
+
+        private void appendToSuiteFile(StreamingWorkItem item) {
+            if (suiteWriter == null || item.getSuite() == null) {
+                return;
+            }
+            try {
+                for (GeneratedTestCase testCase : item.getSuite().getTestCases()) {
+                    suiteWriter.write(testCase);
+                }
+            } catch (IOException e) {
+                // Stop appending: later records would follow a partial one
+                warnings.add("suite file failed at " + item.getEndpoint().getPath() + ": " + e.getMessage());
+                LOGGER.log(Level.WARNING, "Failed to append to the suite file; no further test cases are written to it", e);
+                suiteWriter = null;
+            }
+        }
+
+        private void journalCompletion(StreamingWorkItem item) {
+            // A failed endpoint is left out, so a resumed run generates it again
+            if (checkpointJournal == null || item.getSuite() == null || item.getSuite().hasError()) {
+                return;
+            }
+            EndpointInfo endpoint = item.getEndpoint();
+            List<CheckpointJournal.TestEntry> tests = new ArrayList<>();
+            if (item.getSuite() != null) {
+                for (GeneratedTestCase testCase : item.getSuite().getTestCases()) {
+                    tests.add(new CheckpointJournal.TestEntry(testCase.getTestId(), testCase.getTestName(),
+                            testCase.getStrategyType() != null ? testCase.getStrategyType().name() : null));
+                }
+            }
+            try {
+                checkpointJournal.recordEndpointCompleted(new CheckpointJournal.EndpointCheckpoint(
+                        endpoint.getMethod(), endpoint.getPath(), System.currentTimeMillis(), tests, item.getWrittenFiles()));
+            } catch (IOException e) {
+                // The endpoint is done; losing its record only means it is regenerated on resume
+                warnings.add("checkpoint failed for " + endpoint.getPath() + ": " + e.getMessage());
+                LOGGER.log(Level.WARNING, "Failed to journal completed endpoint " + endpoint.getPath(), e);
+            }
+        }
+
+        /**
+         * @param startsDeadline whether the stage starts each endpoint's deadline as it picks it up
+         */
+        private List<Future<?>> startStage(ExecutorService executor, String stageName, int workers,
+                                           BlockingQueue<StreamingWorkItem> input, BlockingQueue<StreamingWorkItem> output,
+                                           boolean startsDeadline, StageHandler handler) {
+            AtomicInteger activeWorkers = new AtomicInteger(workers);
+            List<Future<?>> futures = new ArrayList<>(workers);
+
+            for (int i = 0; i < workers; i++) {
+                futures.add(executor.submit(() -> {
+                    try {
+                        while (true) {
+                            StreamingWorkItem item = input.take();
+                            if (item.isEndOfStream()) {
+                                // Put the marker back so sibling workers of this stage also stop
+                                input.put(item);
+                                break;
+                            }
+                            if (startsDeadline) {
+                                item.startDeadline(endpointTimeout);
+                            }
+                            CancellationContext context = item.getContext();
+                            try {
+                                // Blocking calls in the handler are interrupted when the endpoint's context ends
+                                try (CancellationContext.Registration ignored = context.interruptOnCancel()) {
+                                    context.throwIfCancelled();
+                                    handler.handle(item);
+                                }
+                                output.put(item);
+                            } catch (InterruptedException e) {
+                                if (!context.isCancelled()) {
+                                    throw e;
+                                }
+                                dropCancelled(stageName, item);
+                            } catch (Exception e) {
+                                // Covers I/O failures caused by the interrupt, e.g. ClosedByInterruptException
+                                if (context.isCancelled()) {
+                                    dropCancelled(stageName, item);
+                                    continue;
+                                }
+                                failedEndpoints.incrementAndGet();
+                                item.closeContext();
+                                String path = item.getEndpoint() != null ? item.getEndpoint().getPath() : "unknown";
+                                warnings.add(stageName + " failed for " + path + ": " + e.getMessage());
+                                LOGGER.log(Level.WARNING, "Streaming stage '" + stageName + "' failed for " + path, e);
+                            }
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        // The last worker to leave signals the downstream stage
+                        if (activeWorkers.decrementAndGet() == 0) {
+                            putEndOfStream(output);
+                        }
+                    }
+                }));
+            }
+            return futures;
+        }
+
+        private void dropCancelled(String stageName, StreamingWorkItem item) {
+            cancelledEndpoints.incrementAndGet();
+            String reason = item.getContext().getCancellationReason();
+            item.closeContext();
+            String path = item.getEndpoint().getPath();
+            warnings.add(stageName + " cancelled for " + path + ": " + reason);
+            LOGGER.info("Streaming stage '" + stageName + "' dropped " + path + " (" + reason + ")");
+        }
+
+        private static void putEndOfStream(BlockingQueue<StreamingWorkItem> queue) {
+            try {
+                queue.put(StreamingWorkItem.END_OF_STREAM);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @FunctionalInterface
+        private interface StageHandler {
+            void handle(StreamingWorkItem item) throws Exception;
+        }
+    }
+
+    /**
+     * Aggregated outcome of a streaming run, convertible into the phase result types so callers
+     * of {@link #executeEnhancedWorkflow()} see the same shape as in barrier mode.
+     */
+    public static class StreamingWorkflowResult {
+        private final Instant startTime;
+        private final List<EndpointInfo> completedEndpoints = new ArrayList<>();
+        private int resumedEndpoints;
+        private final Map<String, StrategyType> recommendedStrategies = new LinkedHashMap<>();
+        private final List<GeneratedTestCase> generatedTests = new ArrayList<>();
+        private final Map<String, Integer> testsByStrategy = new LinkedHashMap<>();
+        private final List<String> writtenFiles = new ArrayList<>();
+        private final List<String> warnings = new ArrayList<>();
+        private Duration timeToFirstFile = Duration.ZERO;
+        private Duration totalDuration = Duration.ZERO;
+        private int failedEndpoints;
+        private int cancelledEndpoints;
+
+        public StreamingWorkflowResult(Instant startTime) {
+            this.startTime = startTime;
+        }
+
+        void record(StreamingWorkItem item) {
+            EndpointInfo endpoint = item.getEndpoint();
+            if (item.getSuite() == null || !item.getSuite().hasError()) {
+                completedEndpoints.add(endpoint);
+            }
+            if (item.getRecommendation() != null) {
+                recommendedStrategies.put(endpoint.getMethod() + " " + endpoint.getPath(),
+                        item.getRecommendation().getPrimaryStrategy());
+            }
+            if (item.getSuite() != null) {
+                for (GeneratedTestCase testCase : item.getSuite().getTestCases()) {
+                    generatedTests.add(testCase);
+                    String strategy = testCase.getStrategyType() != null ? testCase.getStrategyType().name() : "UNSPECIFIED";
+                    testsByStrategy.merge(strategy, 1, Integer::sum);
+                }
+            }
+            writtenFiles.addAll(item.getWrittenFiles());
+        }
+
+        /**
+         * Counts an endpoint completed by an earlier run, rebuilt from its journal record.
+         */
+        void recordResumed(CheckpointJournal.EndpointCheckpoint checkpoint) {
+            EndpointInfo endpoint = new EndpointInfo();
+            endpoint.setMethod(checkpoint.getMethod());
+            endpoint.setPath(checkpoint.getPath());
+            completedEndpoints.add(endpoint);
+            resumedEndpoints++;
+            for (CheckpointJournal.TestEntry test : checkpoint.getTests()) {
+                StrategyType strategyType = null;
+                if (test.getStrategy() != null) {
+                    try {
+                        strategyType = StrategyType.valueOf(test.getStrategy());
+                    } catch (IllegalArgumentException e) {
+                        // Strategy no longer exists; keep the test, unattributed
+                    }
+                }
+                generatedTests.add(GeneratedTestCase.builder()
+                        .withTestId(test.getTestId())
+                        .withTestName(test.getTestName())
+                        .withStrategyType(strategyType)
+                        .build());
+                testsByStrategy.merge(strategyType != null ? strategyType.name() : "UNSPECIFIED", 1, Integer::sum);
+            }
+            writtenFiles.addAll(checkpoint.getWrittenFiles());
+        }
+
+        void complete(Instant firstFileWrittenAt, int failedEndpoints, int cancelledEndpoints, List<String> stageWarnings) {
+            Instant now = Instant.now();
+            this.totalDuration = Duration.between(startTime, now);
+            this.timeToFirstFile = firstFileWrittenAt != null ? Duration.between(startTime, firstFileWrittenAt) : totalDuration;
+            this.failedEndpoints = failedEndpoints;
+            this.cancelledEndpoints = cancelledEndpoints;
+            this.warnings.addAll(stageWarnings);
+        }
+
+        public int getCompletedEndpoints() { return completedEndpoints.size(); }
+        public int getResumedEndpoints() { return resumedEndpoints; }
+        public int getFailedEndpoints() { return failedEndpoints; }
+        public int getCancelledEndpoints() { return cancelledEndpoints; }
+        public List<GeneratedTestCase> getGeneratedTests() { return generatedTests; }
+        public List<String> getWrittenFiles() { return writtenFiles; }
+        public Duration getTimeToFirstFile() { return timeToFirstFile; }
+        public Duration getTotalDuration() { return totalDuration; }
+
+        public IntelligentAnalysisResult toAnalysisResult() {
+            return new IntelligentAnalysisResult(completedEndpoints, recommendedStrategies, 0.75, warnings);
+        }
+
+        public AdvancedTestGenerationResult toTestGenerationResult() {
+            return new AdvancedTestGenerationResult(generatedTests, generatedTests.size(), totalDuration, testsByStrategy);
+        }
+
+        public QualityAssuranceResult toQualityAssuranceResult() {
+            return new QualityAssuranceResult(generatedTests, 0.90, warnings, generatedTests.size(), failedEndpoints);
+        }
+
+        public EnhancedReportingResult toReportingResult() {
+            Map<String, String> metrics = new LinkedHashMap<>();
+            metrics.put("endpoints.completed", String.valueOf(completedEndpoints.size()));
+            metrics.put("endpoints.resumed", String.valueOf(resumedEndpoints));
+            metrics.put("endpoints.failed", String.valueOf(failedEndpoints));
+            metrics.put("endpoints.cancelled", String.valueOf(cancelledEndpoints));
+            metrics.put("tests.generated", String.valueOf(generatedTests.size()));
+            metrics.put("files.written", String.valueOf(writtenFiles.size()));
+            metrics.put("timeToFirstFile.ms", String.valueOf(timeToFirstFile.toMillis()));
+            metrics.put("totalDuration.ms", String.valueOf(totalDuration.toMillis()));
+            String primaryReport = writtenFiles.isEmpty() ? null : writtenFiles.get(0);
+            return new EnhancedReportingResult(writtenFiles, primaryReport, metrics, !writtenFiles.isEmpty());
+        }
+    }
+
     // ===== FIX 6-8: StrategyRecommendation class with public fields =====
 
     public static class StrategyRecommendation {
@@ -961,6 +1833,10 @@ public class SwaggerTestGenerator {
         public String getName() { return name; }
         public String getType() { return type; }
         public boolean isRequired() { return required; }
+
+        public void setName(String name) { this.name = name; }
+        public void setType(String type) { this.type = type; }
+        public void setRequired(boolean required) { this.required = required; }
     }
 
     public static class RequestBodyInfo {
@@ -969,6 +1845,9 @@ public class SwaggerTestGenerator {
 
         public String getContentType() { return contentType; }
         public Object getSchema() { return schema; }
+
+        public void setContentType(String contentType) { this.contentType = contentType; }
+        public void setSchema(Object schema) { this.schema = schema; }
     }
 
     public static class ResponseInfo {
@@ -979,6 +1858,10 @@ public class SwaggerTestGenerator {
         public String getStatusCode() { return statusCode; }
         public String getDescription() { return description; }
         public Object getSchema() { return schema; }
+
+        public void setStatusCode(String statusCode) { this.statusCode = statusCode; }
+        public void setDescription(String description) { this.description = description; }
+        public void setSchema(Object schema) { this.schema = schema; }
     }
 
     public static class TestStep {
@@ -1022,23 +1905,158 @@ public class SwaggerTestGenerator {
 
     // Configuration and result classes (simplified)
     public static class EnhancedConfiguration {
+        private ExecutionMode executionMode = ExecutionMode.TESTING;
+        private SecurityLevel securityLevel = SecurityLevel.STANDARD;
+        private PerformanceLevel performanceLevel = PerformanceLevel.BASIC;
+        private String inputFile = "api-spec.json";
+        private String outputDirectory = DEFAULT_OUTPUT_DIR;
+        private boolean streamingMode = false;
+        private int pipelineQueueCapacity = DEFAULT_PIPELINE_QUEUE_CAPACITY;
+        private int writerThreads = DEFAULT_PIPELINE_WRITER_THREADS;
+        private boolean virtualThreads = false;
+        private int cpuPoolSize = Runtime.getRuntime().availableProcessors();
+        private boolean eagerInitialization = false;
+        private boolean resume = false;
+        private String checkpointJournal;
+        private String suiteFile;
+        private ShardSpec shard;
+        private Duration runTimeout;
+        private Duration endpointTimeout = DEFAULT_ENDPOINT_TIMEOUT;
+
         public static Builder builder() { return new Builder(); }
         public static EnhancedConfiguration createDefault() { return new EnhancedConfiguration(); }
 
-        public ExecutionMode getExecutionMode() { return ExecutionMode.TESTING; }
-        public SecurityLevel getSecurityLevel() { return SecurityLevel.STANDARD; }
-        public PerformanceLevel getPerformanceLevel() { return PerformanceLevel.BASIC; }
-        public String getInputFile() { return "api-spec.json"; }
+        public ExecutionMode getExecutionMode() { return executionMode; }
+        public SecurityLevel getSecurityLevel() { return securityLevel; }
+        public PerformanceLevel getPerformanceLevel() { return performanceLevel; }
+        public String getInputFile() { return inputFile; }
+        public String getOutputDirectory() { return outputDirectory; }
         public int getThreadPoolSize() { return DEFAULT_THREAD_POOL_SIZE; }
         public boolean isVerbose() { return false; }
         public boolean hasAiIntegration() { return false; }
         public boolean isRealTimeMonitoring() { return false; }
+        public boolean isStreamingMode() { return streamingMode; }
+        public int getPipelineQueueCapacity() { return pipelineQueueCapacity; }
+        public int getWriterThreads() { return writerThreads; }
+        public boolean isVirtualThreadsEnabled() { return virtualThreads; }
+        public int getCpuPoolSize() { return cpuPoolSize; }
+        public boolean isEagerInitialization() { return eagerInitialization; }
+        public boolean isResume() { return resume; }
+        public ShardSpec getShard() { return shard; }
+        public boolean isSharded() { return shard != null; }
+        public Duration getRunTimeout() { return runTimeout; }
+        public Duration getEndpointTimeout() { return endpointTimeout; }
+
+        /**
+         * Where this process writes: the output directory itself, or the shard's own
+         * subdirectory of it when sharded.
+         */
+        public String getWorkingOutputDirectory() {
+            return shard != null
+                    ? Paths.get(outputDirectory, SHARDS_DIRECTORY, shard.getDirectoryName()).toString()
+                    : outputDirectory;
+        }
+
+        public Path getCheckpointJournalPath() {
+            return checkpointJournal != null
+                    ? Paths.get(checkpointJournal)
+                    : Paths.get(getWorkingOutputDirectory(), DEFAULT_CHECKPOINT_JOURNAL);
+        }
+
+        /**
+         * Binary suite file to write, or null. A shard writes its own file of that name in its
+         * working directory, so shards on one machine do not overwrite each other.
+         */
+        public Path getSuiteFilePath() {
+            if (suiteFile == null) {
+                return null;
+            }
+            return isSharded()
+                    ? Paths.get(getWorkingOutputDirectory()).resolve(Paths.get(suiteFile).getFileName())
+                    : Paths.get(suiteFile);
+        }
 
         public static class Builder {
-            public Builder withExecutionMode(ExecutionMode mode) { return this; }
-            public Builder withSecurityLevel(SecurityLevel level) { return this; }
-            public Builder withPerformanceLevel(PerformanceLevel level) { return this; }
-            public EnhancedConfiguration build() { return new EnhancedConfiguration(); }
+            private final EnhancedConfiguration config = new EnhancedConfiguration();
+
+            public Builder withExecutionMode(ExecutionMode mode) { config.executionMode = mode; return this; }
+            public Builder withSecurityLevel(SecurityLevel level) { config.securityLevel = level; return this; }
+            public Builder withPerformanceLevel(PerformanceLevel level) { config.performanceLevel = level; return this; }
+            public Builder withInputFile(String inputFile) { config.inputFile = inputFile; return this; }
+            public Builder withOutputDirectory(String outputDirectory) { config.outputDirectory = outputDirectory; return this; }
+
+            /**
+             * Enables the streaming workflow: each endpoint flows through analysis, generation,
+             * QA, file write and report aggregation independently instead of waiting at phase barriers.
+             */
+            public Builder withStreamingMode(boolean streamingMode) { config.streamingMode = streamingMode; return this; }
+
+            /**
+             * Capacity of each inter-stage queue; a full queue blocks the upstream stage (backpressure).
+             */
+            public Builder withPipelineQueueCapacity(int capacity) {
+                config.pipelineQueueCapacity = Math.max(1, capacity);
+                return this;
+            }
+
+            public Builder withWriterThreads(int writerThreads) {
+                config.writerThreads = Math.max(1, writerThreads);
+                return this;
+            }
+
+            /**
+             * Runs blocking work (AI calls, file writes) on virtual threads; CPU-heavy analysis
+             * stays on a bounded platform pool sized from {@link #withCpuPoolSize(int)}.
+             */
+            public Builder withVirtualThreads(boolean virtualThreads) { config.virtualThreads = virtualThreads; return this; }
+
+            public Builder withCpuPoolSize(int cpuPoolSize) {
+                config.cpuPoolSize = Math.max(1, cpuPoolSize);
+                return this;
+            }
+
+            /**
+             * Builds every component in the constructor instead of on first use. Only useful for
+             * startup comparisons; lazy construction is the default.
+             */
+            public Builder withEagerInitialization(boolean eager) { config.eagerInitialization = eager; return this; }
+
+            /**
+             * Skips endpoints the checkpoint journal records as completed (and whose files still
+             * exist) instead of starting over. Implies the streaming workflow.
+             */
+            public Builder withResume(boolean resume) { config.resume = resume; return this; }
+
+            /**
+             * Checkpoint journal location; defaults to a file under the output directory.
+             */
+            public Builder withCheckpointJournal(String checkpointJournal) { config.checkpointJournal = checkpointJournal; return this; }
+
+            /**
+             * Also writes the generated test cases to this {@link TestSuiteBinaryCodec} file, which
+             * {@link TestRunner} can execute in a separate job. Implies the streaming workflow.
+             */
+            public Builder withSuiteFile(String suiteFile) { config.suiteFile = suiteFile; return this; }
+
+            /**
+             * Generates only this shard's endpoints into its own subdirectory of the output
+             * directory; {@link ShardMerger} combines the shards afterwards. Implies the streaming workflow.
+             */
+            public Builder withShard(ShardSpec shard) { config.shard = shard; return this; }
+
+            /**
+             * Deadline for the whole streaming run; endpoints not finished by then are cancelled and
+             * left for a resumed run. Null (the default) means no deadline.
+             */
+            public Builder withRunTimeout(Duration runTimeout) { config.runTimeout = runTimeout; return this; }
+
+            /**
+             * Deadline for one endpoint from the moment it enters the pipeline; an endpoint that
+             * misses it is dropped and its in-flight work cancelled.
+             */
+            public Builder withEndpointTimeout(Duration endpointTimeout) { config.endpointTimeout = endpointTimeout; return this; }
+
+            public EnhancedConfiguration build() { return config; }
         }
     }
 
@@ -1088,9 +2106,133 @@ public class SwaggerTestGenerator {
         TEST_GENERATION, QUALITY_ASSURANCE, REPORTING, COMPLETED, FAILED
     }
 
+    /**
+     * Thread-safe memoizing holder for the generator's components; the factory runs at most once,
+     * on the first {@link #get()}.
+     */
+    private static final class LazyComponent<T> {
+        private final Supplier<T> factory;
+        private volatile T instance;
+
+        LazyComponent(Supplier<T> factory) {
+            this.factory = factory;
+        }
+
+        T get() {
+            T value = instance;
+            if (value == null) {
+                synchronized (this) {
+                    value = instance;
+                    if (value == null) {
+                        value = factory.get();
+                        instance = value;
+                    }
+                }
+            }
+            return value;
+        }
+    }
+
     // Component classes (placeholder implementations)
     public static class EnterpriseFileManager {
-        public EnterpriseFileManager(EnhancedConfiguration config) {}
+        private static final String TEST_PACKAGE = "com.generated.tests";
+
+        private final String outputDirectory;
+        // class name -> endpoint that owns it; concurrent writers must never share a file
+        private final ConcurrentHashMap<String, String> classOwners = new ConcurrentHashMap<>();
+
+        public EnterpriseFileManager(EnhancedConfiguration config) {
+            this.outputDirectory = config.getWorkingOutputDirectory();
+        }
+
+        /**
+         * Writes one endpoint's suite to its own test class and returns the written paths.
+         * Safe to call concurrently for different endpoints.
+         */
+        public List<String> writeTestSuite(ComprehensiveTestSuite suite) throws IOException {
+            return writeTestSuite(suite, CancellationContext.background());
+        }
+
+        /**
+         * Writes the suite unless its context ends first. The class is written to a temporary file
+         * and moved into place only when complete, so a write cancelled part-way leaves no partial
+         * test class behind.
+         *
+         * @throws CancellationException if the context ends before the file is in place
+         */
+        public List<String> writeTestSuite(ComprehensiveTestSuite suite, CancellationContext context) throws IOException {
+            if (suite == null || suite.getEndpoint() == null || suite.getTestCases().isEmpty()) {
+                return new ArrayList<>();
+            }
+
+            String className = claimClassName(suite.getEndpoint());
+            Path file = Paths.get(outputDirectory, TEST_PACKAGE.replace('.', File.separatorChar), className + ".java");
+            Files.createDirectories(file.getParent());
+
+            Path temp = Files.createTempFile(file.getParent(), className, ".tmp");
+            try {
+                try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                    writer.write("package " + TEST_PACKAGE + ";\n\n");
+                    writer.write("import org.junit.jupiter.api.Test;\n");
+                    writer.write("import org.junit.jupiter.api.BeforeEach;\n");
+                    writer.write("import org.junit.jupiter.api.DisplayName;\n");
+                    writer.write("import static org.junit.jupiter.api.Assertions.*;\n\n");
+                    writer.write("import io.restassured.RestAssured;\n");
+                    writer.write("import io.restassured.response.Response;\n");
+                    writer.write("import static io.restassured.RestAssured.*;\n");
+                    writer.write("import static org.hamcrest.Matchers.*;\n\n");
+                    writer.write("public class " + className + " {\n\n");
+                    for (GeneratedTestCase testCase : suite.getTestCases()) {
+                        context.throwIfCancelled();
+                        if (testCase.getTestCode() != null) {
+                            writer.write(testCase.getTestCode());
+                            writer.write("\n");
+                        }
+                    }
+                    writer.write("}\n");
+                }
+                context.throwIfCancelled();
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+
+            return Collections.singletonList(file.toString());
+        }
+
+        /**
+         * Picks the test class name for an endpoint. Different endpoints can flatten to the same
+         * name ({@code /users/{id}} and {@code /users/id}); the first one keeps it and the others
+         * get a numeric suffix, so no two endpoints overwrite each other's file. An endpoint that
+         * is written again gets the name it had before.
+         */
+        private String claimClassName(EndpointInfo endpoint) {
+            String owner = CheckpointJournal.endpointKey(endpoint.getMethod(), endpoint.getPath());
+            String baseName = toClassName(endpoint);
+            String candidate = baseName + "Test";
+            for (int suffix = 2; ; suffix++) {
+                String current = classOwners.putIfAbsent(candidate, owner);
+                if (current == null || current.equals(owner)) {
+                    return candidate;
+                }
+                candidate = baseName + suffix + "Test";
+            }
+        }
+
+        private String toClassName(EndpointInfo endpoint) {
+            String source = endpoint.getOperationId() != null ? endpoint.getOperationId()
+                    : endpoint.getMethod() + "_" + endpoint.getPath();
+            StringBuilder className = new StringBuilder();
+            for (String part : source.split("[^a-zA-Z0-9]+")) {
+                if (!part.isEmpty()) {
+                    className.append(Character.toUpperCase(part.charAt(0))).append(part.substring(1));
+                }
+            }
+            if (className.length() == 0 || !Character.isLetter(className.charAt(0))) {
+                className.insert(0, "Endpoint");
+            }
+            return className.toString();
+        }
     }
 
     public static class AdvancedSchemaAnalyzer {
@@ -1100,14 +2242,183 @@ public class SwaggerTestGenerator {
     public static class IntelligentTestBuilder {
         public IntelligentTestBuilder(EnhancedConfiguration config) {}
 
+        /**
+         * Builds the endpoint's tests; AI calls and other blocking work end with the context.
+         */
         public List<GeneratedTestCase> generateComprehensiveTests(EndpointInfo endpoint,
-                                                                  AdvancedStrategyRecommendation recommendation, AdvancedStrategyExecutionPlan plan) {
+                                                                  AdvancedStrategyRecommendation recommendation, AdvancedStrategyExecutionPlan plan,
+                                                                  CancellationContext context) {
             return new ArrayList<>();
         }
     }
 
+    /**
+     * Run report, aggregated per endpoint. Entries are kept sorted by endpoint and file paths are
+     * stored relative to the output directory, so the written summary depends only on what was
+     * generated - not on completion order, and not on whether the run was split into shards.
+     */
     public static class ComprehensiveReportWriter {
-        public ComprehensiveReportWriter(EnhancedConfiguration config) {}
+        private static final String AGGREGATE_HEADER = "# shard\t";
+
+        private final AtomicInteger reportedSuites = new AtomicInteger(0);
+        private final AtomicInteger reportedTests = new AtomicInteger(0);
+        private final AtomicInteger reportedFiles = new AtomicInteger(0);
+        private final Path baseDirectory;
+        private final ConcurrentSkipListMap<String, EndpointReport> endpoints = new ConcurrentSkipListMap<>();
+
+        public ComprehensiveReportWriter(EnhancedConfiguration config) {
+            this.baseDirectory = Paths.get(config.getWorkingOutputDirectory()).toAbsolutePath().normalize();
+        }
+
+        /**
+         * Incrementally folds one finished endpoint into the run report (streaming mode).
+         */
+        public void recordSuite(ComprehensiveTestSuite suite, List<String> writtenFiles) {
+            String endpointKey = suite != null && suite.getEndpoint() != null
+                    ? CheckpointJournal.endpointKey(suite.getEndpoint().getMethod(), suite.getEndpoint().getPath())
+                    : null;
+            recordEndpoint(endpointKey, suite != null ? suite.getTestCases().size() : 0, writtenFiles);
+        }
+
+        /**
+         * Folds in an endpoint known only by its key, e.g. one completed by an earlier run.
+         */
+        public void recordEndpoint(String endpointKey, int testCount, List<String> writtenFiles) {
+            List<String> files = new ArrayList<>();
+            if (writtenFiles != null) {
+                for (String writtenFile : writtenFiles) {
+                    files.add(relativize(writtenFile));
+                }
+            }
+            reportedSuites.incrementAndGet();
+            reportedTests.addAndGet(testCount);
+            reportedFiles.addAndGet(files.size());
+            if (endpointKey != null) {
+                endpoints.put(endpointKey, new EndpointReport(endpointKey, testCount, files));
+            }
+        }
+
+        public int getReportedSuites() { return reportedSuites.get(); }
+        public int getReportedTests() { return reportedTests.get(); }
+        public int getReportedFiles() { return reportedFiles.get(); }
+
+        public ReportAggregate exportAggregate() {
+            return new ReportAggregate(new ArrayList<>(endpoints.values()));
+        }
+
+        public void mergeAggregate(ReportAggregate aggregate) {
+            for (EndpointReport report : aggregate.getEndpoints()) {
+                reportedSuites.incrementAndGet();
+                reportedTests.addAndGet(report.getTestCount());
+                reportedFiles.addAndGet(report.getFiles().size());
+                endpoints.put(report.getEndpointKey(), report);
+            }
+        }
+
+        /**
+         * Writes the run summary: totals followed by one line per endpoint, sorted by endpoint.
+         */
+        public void writeSummary(Path file) throws IOException {
+            List<String> lines = new ArrayList<>();
+            lines.add("endpoints\t" + reportedSuites.get());
+            lines.add("tests\t" + reportedTests.get());
+            lines.add("files\t" + reportedFiles.get());
+            endpoints.values().forEach(report -> lines.add(report.toLine()));
+            writeAtomically(file, lines);
+        }
+
+        /**
+         * Writes this shard's partial aggregate for {@link ShardMerger}.
+         */
+        public void writeAggregate(Path file, ShardSpec shard) throws IOException {
+            List<String> lines = new ArrayList<>();
+            lines.add(AGGREGATE_HEADER + shard);
+            endpoints.values().forEach(report -> lines.add(report.toLine()));
+            writeAtomically(file, lines);
+        }
+
+        public static ReportAggregate readAggregate(Path file, ShardSpec expectedShard) throws IOException {
+            List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+            String expectedHeader = AGGREGATE_HEADER + expectedShard;
+            if (lines.isEmpty() || !lines.get(0).equals(expectedHeader)) {
+                throw new IllegalStateException(file + " is not the aggregate of shard " + expectedShard +
+                        (lines.isEmpty() ? "" : " (found '" + lines.get(0) + "')"));
+            }
+            List<EndpointReport> reports = new ArrayList<>(lines.size() - 1);
+            for (String line : lines.subList(1, lines.size())) {
+                if (!line.isEmpty()) {
+                    reports.add(EndpointReport.fromLine(line));
+                }
+            }
+            return new ReportAggregate(reports);
+        }
+
+        private String relativize(String writtenFile) {
+            Path path = Paths.get(writtenFile).toAbsolutePath().normalize();
+            // Forward slashes so summaries compare equal across platforms
+            return path.startsWith(baseDirectory)
+                    ? baseDirectory.relativize(path).toString().replace(File.separatorChar, '/')
+                    : writtenFile;
+        }
+
+        // Readers (the merge step in particular) never see a half-written file
+        private static void writeAtomically(Path file, List<String> lines) throws IOException {
+            Path directory = file.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            try {
+                Files.write(temp, lines, StandardCharsets.UTF_8);
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+
+        public static class ReportAggregate {
+            private final List<EndpointReport> endpoints;
+
+            public ReportAggregate(List<EndpointReport> endpoints) {
+                this.endpoints = endpoints;
+            }
+
+            public List<EndpointReport> getEndpoints() { return endpoints; }
+        }
+
+        public static class EndpointReport {
+            private final String endpointKey;
+            private final int testCount;
+            private final List<String> files;
+
+            public EndpointReport(String endpointKey, int testCount, List<String> files) {
+                this.endpointKey = endpointKey;
+                this.testCount = testCount;
+                this.files = List.copyOf(files);
+            }
+
+            public String getEndpointKey() { return endpointKey; }
+            public int getTestCount() { return testCount; }
+            public List<String> getFiles() { return files; }
+
+            String toLine() {
+                StringBuilder line = new StringBuilder(endpointKey).append('\t').append(testCount);
+                files.forEach(file -> line.append('\t').append(file));
+                return line.toString();
+            }
+
+            static EndpointReport fromLine(String line) {
+                String[] fields = line.split("\t", -1);
+                if (fields.length < 2) {
+                    throw new IllegalStateException("Malformed report line: " + line);
+                }
+                List<String> files = new ArrayList<>();
+                for (int i = 2; i < fields.length; i++) {
+                    if (!fields[i].isEmpty()) {
+                        files.add(fields[i]);
+                    }
+                }
+                return new EndpointReport(fields[0], Integer.parseInt(fields[1]), files);
+            }
+        }
     }
 
     public static class EnterpriseProgressTracker {
@@ -1117,7 +2428,11 @@ public class SwaggerTestGenerator {
     public static class AiIntegrationManager {
         public AiIntegrationManager(EnhancedConfiguration config) {}
 
-        public List<GeneratedTestCase> enhanceTestsWithAi(EndpointInfo endpoint, List<GeneratedTestCase> tests) {
+        /**
+         * Adds AI-generated tests; AI calls end with the context.
+         */
+        public List<GeneratedTestCase> enhanceTestsWithAi(EndpointInfo endpoint, List<GeneratedTestCase> tests,
+                                                          CancellationContext context) {
             return tests;
         }
     }
@@ -1160,10 +2475,18 @@ public class SwaggerTestGenerator {
 
     // Result classes (placeholder implementations)
     public static class EnterpriseTestGenerationResult {
+        private final boolean successful;
+
+        private EnterpriseTestGenerationResult(boolean successful) {
+            this.successful = successful;
+        }
+
         public static Builder builder() { return new Builder(); }
-        public boolean isSuccessful() { return true; }
+        public boolean isSuccessful() { return successful; }
 
         public static class Builder {
+            private boolean success = true;
+
             public Builder withInputResult(Object result) { return this; }
             public Builder withAnalysisResult(Object result) { return this; }
             public Builder withTestResult(Object result) { return this; }
@@ -1171,8 +2494,8 @@ public class SwaggerTestGenerator {
             public Builder withReportingResult(Object result) { return this; }
             public Builder withTotalDuration(Duration duration) { return this; }
             public Builder withMetrics(Object metrics) { return this; }
-            public Builder withSuccess(boolean success) { return this; }
-            public EnterpriseTestGenerationResult build() { return new EnterpriseTestGenerationResult(); }
+            public Builder withSuccess(boolean success) { this.success = success; return this; }
+            public EnterpriseTestGenerationResult build() { return new EnterpriseTestGenerationResult(success); }
         }
     }
 
@@ -1186,10 +2509,15 @@ public class SwaggerTestGenerator {
                 .build();
     }
 
-    private ComprehensiveTestSuite createFallbackComprehensiveTestSuite(EndpointInfo endpoint) {
+    /**
+     * Empty suite standing in for one whose generation failed; it carries the failure, so it is
+     * never taken for a completed endpoint.
+     */
+    private ComprehensiveTestSuite createFallbackComprehensiveTestSuite(EndpointInfo endpoint, Exception error) {
         return ComprehensiveTestSuite.builder()
                 .withEndpoint(endpoint)
                 .withTestCases(new ArrayList<>())
+                .withError(error)
                 .build();
     }
 
@@ -1272,10 +2600,107 @@ public class SwaggerTestGenerator {
     // CLI and workflow methods (placeholder implementations)
     private static void setupBasicLogging() {}
     private static void displayStartupBanner() {}
-    private static CommandLine parseEnhancedCommandLineArguments(String[] args) throws ParseException { return null; }
-    private static void printEnhancedHelp() {}
-    private static void printVersionInfo() {}
-    private static EnhancedConfiguration buildEnhancedConfigurationFromCLI(CommandLine cmd) { return EnhancedConfiguration.createDefault(); }
+
+    private static Options createCommandLineOptions() {
+        Options options = new Options();
+        options.addOption("h", "help", false, "Show this help");
+        options.addOption("v", "version", false, "Show version information");
+        options.addOption(Option.builder("i").longOpt("input").hasArg().argName("file")
+                .desc("OpenAPI specification file (default: api-spec.json)").build());
+        options.addOption(Option.builder("o").longOpt("output").hasArg().argName("dir")
+                .desc("Output directory for generated tests").build());
+        options.addOption(null, "streaming", false, "Stream endpoints through the pipeline instead of phase barriers");
+        options.addOption(null, "virtual-threads", false, "Run blocking work (AI calls, file writes) on virtual threads");
+        options.addOption(null, "eager-init", false, "Construct all components at startup (for comparison runs)");
+        options.addOption(null, "resume", false, "Skip endpoints completed by an interrupted run (implies --streaming)");
+        options.addOption(Option.builder().longOpt("checkpoint").hasArg().argName("file")
+                .desc("Checkpoint journal file (default: <output>/" + DEFAULT_CHECKPOINT_JOURNAL + ")").build());
+        options.addOption(Option.builder().longOpt("suite-file").hasArg().argName("file")
+                .desc("Also write generated test cases to a binary suite file for a separate execution job (implies --streaming)").build());
+        options.addOption(Option.builder().longOpt("shard").hasArg().argName("i/N")
+                .desc("Generate only shard i of N (1 <= i <= N) into <output>/" + SHARDS_DIRECTORY + "/").build());
+        options.addOption(Option.builder().longOpt("merge-shards").hasArg().argName("N")
+                .desc("Merge the results of N completed shard runs into <output>").build());
+        options.addOption(Option.builder().longOpt("timeout").hasArg().argName("seconds")
+                .desc("Stop the streaming run after this many seconds; unfinished endpoints can be resumed").build());
+        options.addOption(Option.builder().longOpt("endpoint-timeout").hasArg().argName("seconds")
+                .desc("Cancel an endpoint not generated and written within this many seconds (default: "
+                        + DEFAULT_ENDPOINT_TIMEOUT.getSeconds() + ")").build());
+        return options;
+    }
+
+    private static CommandLine parseEnhancedCommandLineArguments(String[] args) throws ParseException {
+        return new DefaultParser().parse(createCommandLineOptions(), args);
+    }
+
+    private static int parseShardCount(String value) throws ParseException {
+        try {
+            int shardCount = Integer.parseInt(value.trim());
+            if (shardCount >= 1) {
+                return shardCount;
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw new ParseException("--merge-shards expects a positive shard count, got '" + value + "'");
+    }
+
+    private static Duration parseTimeoutSeconds(String option, String value) throws ParseException {
+        try {
+            long seconds = Long.parseLong(value.trim());
+            if (seconds >= 1) {
+                return Duration.ofSeconds(seconds);
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw new ParseException("--" + option + " expects a positive number of seconds, got '" + value + "'");
+    }
+
+    private static void printEnhancedHelp() {
+        new HelpFormatter().printHelp("swagger-test-generator", createCommandLineOptions());
+    }
+
+    private static void printVersionInfo() {
+        LOGGER.info("SwaggerTestGenerator " + APP_VERSION + " (" + BUILD_DATE + ", " + VENDOR + ")");
+    }
+
+    private static EnhancedConfiguration buildEnhancedConfigurationFromCLI(CommandLine cmd) throws ParseException {
+        EnhancedConfiguration.Builder builder = EnhancedConfiguration.builder()
+                .withStreamingMode(cmd.hasOption("streaming"))
+                .withVirtualThreads(cmd.hasOption("virtual-threads"))
+                .withEagerInitialization(cmd.hasOption("eager-init"))
+                .withResume(cmd.hasOption("resume"));
+        if (cmd.hasOption("checkpoint")) {
+            builder.withCheckpointJournal(cmd.getOptionValue("checkpoint"));
+        }
+        if (cmd.hasOption("suite-file")) {
+            builder.withSuiteFile(cmd.getOptionValue("suite-file"));
+        }
+        if (cmd.hasOption("shard")) {
+            if (cmd.hasOption("merge-shards")) {
+                throw new ParseException("--shard and --merge-shards are separate runs");
+            }
+            try {
+                builder.withShard(ShardSpec.parse(cmd.getOptionValue("shard")));
+            } catch (IllegalArgumentException e) {
+                throw new ParseException(e.getMessage());
+            }
+        }
+        if (cmd.hasOption("timeout")) {
+            builder.withRunTimeout(parseTimeoutSeconds("timeout", cmd.getOptionValue("timeout")));
+        }
+        if (cmd.hasOption("endpoint-timeout")) {
+            builder.withEndpointTimeout(parseTimeoutSeconds("endpoint-timeout", cmd.getOptionValue("endpoint-timeout")));
+        }
+        if (cmd.hasOption("i")) {
+            builder.withInputFile(cmd.getOptionValue("i"));
+        }
+        if (cmd.hasOption("o")) {
+            builder.withOutputDirectory(cmd.getOptionValue("o"));
+        }
+        return builder.build();
+    }
     private static void validateConfigurationOrExit(EnhancedConfiguration config) {}
     private static void setupSignalHandlers(SwaggerTestGenerator generator) {}
     private static void displayExecutionSummary(EnterpriseTestGenerationResult result) {}
@@ -1285,6 +2710,21 @@ public class SwaggerTestGenerator {
                 Arrays.asList("/api/users", "/api/orders"), Duration.ofSeconds(5), new ArrayList<>());
     }
 
+    /**
+     * Turns the processed endpoint descriptors ("METHOD /path" or just "/path") into EndpointInfo objects
+     */
+    private List<EndpointInfo> resolveEndpoints(EnhancedInputProcessingResult inputResult) {
+        List<EndpointInfo> endpoints = new ArrayList<>();
+        for (String descriptor : inputResult.getProcessedEndpoints()) {
+            String[] parts = descriptor.trim().split("\\s+", 2);
+            EndpointInfo endpoint = new EndpointInfo();
+            endpoint.setMethod(parts.length == 2 ? parts[0].toUpperCase() : "GET");
+            endpoint.setPath(parts.length == 2 ? parts[1] : parts[0]);
+            endpoints.add(endpoint);
+        }
+        return endpoints;
+    }
+
     private IntelligentAnalysisResult performIntelligentAnalysis(EnhancedInputProcessingResult inputResult) {
         return new IntelligentAnalysisResult(new ArrayList<>(), new HashMap<>(), 0.75, new ArrayList<>());
     }
@@ -1301,14 +2741,60 @@ public class SwaggerTestGenerator {
         return new EnhancedReportingResult(Arrays.asList("report.html"), "report.html", new HashMap<>(), true);
     }
 
+    /**
+     * Writes the same run summary the streaming workflow does: every processed endpoint with the
+     * number of validated tests generated for it.
+     */
+    private void writeBatchSummary(EnhancedInputProcessingResult inputResult,
+                                   QualityAssuranceResult qualityResult) throws IOException {
+        Map<String, Integer> testCounts = new LinkedHashMap<>();
+        for (EndpointInfo endpoint : resolveEndpoints(inputResult)) {
+            testCounts.put(CheckpointJournal.endpointKey(endpoint.getMethod(), endpoint.getPath()), 0);
+        }
+        int unassigned = 0;
+        for (GeneratedTestCase test : qualityResult.getValidatedTests()) {
+            org.example.openapi.EndpointInfo endpoint = test.getEndpoint();
+            if (endpoint != null) {
+                testCounts.merge(CheckpointJournal.endpointKey(endpoint.getMethod(), endpoint.getPath()), 1, Integer::sum);
+            } else {
+                unassigned++;
+            }
+        }
+
+        ComprehensiveReportWriter writer = reportWriter.get();
+        testCounts.forEach((endpointKey, testCount) -> writer.recordEndpoint(endpointKey, testCount, null));
+        if (unassigned > 0) {
+            writer.recordEndpoint(null, unassigned, null);
+        }
+        writer.writeSummary(Paths.get(configuration.getOutputDirectory(), RUN_SUMMARY_FILE));
+    }
+
     private void collectMetrics() {}
     private void performHealthCheck() {}
-    private void performGracefulShutdown() {}
+    private void performGracefulShutdown() {
+        // Executors belong to the shared runtime; only this generator's periodic tasks are stopped here
+        scheduledTasks.forEach(task -> task.cancel(false));
+        scheduledTasks.clear();
+    }
+
+    /**
+     * Stops this generator's periodic tasks and deregisters it from the shared runtime, which
+     * keeps serving other components.
+     */
+    @Override
+    public void close() {
+        SharedRuntime.ShutdownRegistration registration = shutdownRegistration;
+        if (registration != null) {
+            registration.close();
+        }
+        performGracefulShutdown();
+    }
 
     // ===== GETTERS AND STATUS METHODS =====
 
     public String getVersion() { return APP_VERSION; }
     public EnhancedConfiguration getConfiguration() { return configuration; }
+    public SharedRuntime getRuntime() { return runtime.get(); }
     public GenerationStatus getCurrentStatus() { return currentStatus.get(); }
 
     /**
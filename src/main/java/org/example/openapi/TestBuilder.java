@@ -1,10 +1,15 @@
 package org.example.openapi;
 
+import com.theokanning.openai.OpenAiHttpException;
+import com.theokanning.openai.Usage;
+import com.theokanning.openai.client.OpenAiApi;
 import com.theokanning.openai.completion.chat.ChatCompletionRequest;
+import com.theokanning.openai.completion.chat.ChatCompletionResult;
 import com.theokanning.openai.completion.chat.ChatMessage;
 import com.theokanning.openai.completion.chat.ChatMessageRole;
 import com.theokanning.openai.service.OpenAiService;
-import io.github.cdimascio.dotenv.Dotenv;
+import okhttp3.OkHttpClient;
+import retrofit2.Retrofit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -14,9 +19,13 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.security.MessageDigest;
 import java.nio.charset.StandardCharsets;
@@ -47,7 +56,7 @@ import com.sun.management.OperatingSystemMXBean;
  * @version 4.0.0-ENTERPRISE-STANDARDIZED
  * @since 2025.1
  */
-public class TestBuilder {
+public class TestBuilder implements AutoCloseable {
 
     // ===== STANDARD LOGGING =====
     private static final Logger logger = LoggerFactory.getLogger(TestBuilder.class);
@@ -61,10 +70,23 @@ public class TestBuilder {
     private static final int DEFAULT_THREAD_POOL_SIZE = Runtime.getRuntime().availableProcessors() * 4;
     private static final int MAX_THREAD_POOL_SIZE = 500;
     private static final int DEFAULT_AI_TIMEOUT_SECONDS = 30;
+    private static final int DEFAULT_ENDPOINT_TIMEOUT_SECONDS = 60;
     private static final int DEFAULT_BATCH_SIZE = 50;
     private static final int MAX_RETRY_ATTEMPTS = 3;
     private static final long DEFAULT_CACHE_TTL_SECONDS = 3600;
-    private static final int MAX_CONCURRENT_AI_REQUESTS = 10;
+    // Adaptive per-provider AI concurrency: starting point and bounds
+    private static final int INITIAL_AI_CONCURRENCY_LIMIT = 10;
+    private static final int MAX_AI_CONCURRENCY_LIMIT = 100;
+    // Hedged requests wait for a provider's p95 latency, once enough calls have been timed
+    private static final double AI_HEDGE_QUANTILE = 0.95;
+    private static final int MIN_AI_HEDGE_SAMPLES = 20;
+    private static final long DEFAULT_AI_BATCH_LINGER_MILLIS = 20;
+    private static final int DEFAULT_AI_BATCH_TOKEN_BUDGET = 12000;
+    private static final int DEFAULT_AI_MAX_TOKENS = 2000;
+    // Custom property: simulated response time of the local model, in milliseconds
+    private static final String LOCAL_MODEL_LATENCY_PROPERTY = "ai.local.latencyMillis";
+    private static final Path DEFAULT_AI_CACHE_DIRECTORY =
+            Paths.get(System.getProperty("user.home"), ".cache", "openapi-test-generator", "ai-responses");
 
     // AI and ML constants
     private static final double DEFAULT_AI_CONFIDENCE_THRESHOLD = 0.85;
@@ -122,30 +144,36 @@ public class TestBuilder {
     }
 
     /**
-     * AI Provider types with standard capabilities
+     * AI Provider types with standard capabilities and list prices in US dollars per 1K prompt and
+     * completion tokens
      */
     public enum AiProvider {
-        OPENAI_GPT4("OpenAI GPT-4", "gpt-4-turbo", true, true, 0.95),
-        OPENAI_GPT3_5("OpenAI GPT-3.5", "gpt-3.5-turbo", true, false, 0.85),
-        ANTHROPIC_CLAUDE("Anthropic Claude", "claude-3-opus", true, true, 0.93),
-        GOOGLE_GEMINI("Google Gemini", "gemini-pro", true, true, 0.90),
-        AZURE_OPENAI("Azure OpenAI", "gpt-4", true, true, 0.94),
-        LOCAL_MODEL("Local AI Model", "local", false, false, 0.75),
-        NONE("No AI Integration", "none", false, false, 0.0);
+        OPENAI_GPT4("OpenAI GPT-4", "gpt-4-turbo", true, true, 0.95, 0.01, 0.03),
+        OPENAI_GPT3_5("OpenAI GPT-3.5", "gpt-3.5-turbo", true, false, 0.85, 0.0005, 0.0015),
+        ANTHROPIC_CLAUDE("Anthropic Claude", "claude-3-opus", true, true, 0.93, 0.015, 0.075),
+        GOOGLE_GEMINI("Google Gemini", "gemini-pro", true, true, 0.90, 0.0005, 0.0015),
+        AZURE_OPENAI("Azure OpenAI", "gpt-4", true, true, 0.94, 0.03, 0.06),
+        LOCAL_MODEL("Local AI Model", "local", false, false, 0.75, 0.0, 0.0),
+        NONE("No AI Integration", "none", false, false, 0.0, 0.0, 0.0);
 
         private final String displayName;
         private final String modelName;
         private final boolean supportsComplexReasoning;
         private final boolean supportsCodeGeneration;
         private final double qualityScore;
+        private final double promptPricePer1K;
+        private final double completionPricePer1K;
 
         AiProvider(String displayName, String modelName, boolean supportsComplexReasoning,
-                   boolean supportsCodeGeneration, double qualityScore) {
+                   boolean supportsCodeGeneration, double qualityScore,
+                   double promptPricePer1K, double completionPricePer1K) {
             this.displayName = displayName;
             this.modelName = modelName;
             this.supportsComplexReasoning = supportsComplexReasoning;
             this.supportsCodeGeneration = supportsCodeGeneration;
             this.qualityScore = qualityScore;
+            this.promptPricePer1K = promptPricePer1K;
+            this.completionPricePer1K = completionPricePer1K;
         }
 
         public String getDisplayName() { return displayName; }
@@ -153,6 +181,27 @@ public class TestBuilder {
         public boolean supportsComplexReasoning() { return supportsComplexReasoning; }
         public boolean supportsCodeGeneration() { return supportsCodeGeneration; }
         public double getQualityScore() { return qualityScore; }
+        public double getPromptPricePer1K() { return promptPricePer1K; }
+        public double getCompletionPricePer1K() { return completionPricePer1K; }
+
+        public double estimateCost(long promptTokens, long completionTokens) {
+            return (promptTokens * promptPricePer1K + completionTokens * completionPricePer1K) / 1000.0;
+        }
+    }
+
+    /**
+     * How an endpoint's request is spread over the configured AI providers
+     */
+    public enum AiEnsembleMode {
+        /** Every provider answers, one after the other; the endpoint waits for the slowest. */
+        ALL,
+        /** Every provider is asked at once; the first confident answer wins and the rest are cancelled. */
+        RACE,
+        /**
+         * The most capable provider is asked first; the next is asked too if it has not answered
+         * by its 95th percentile latency, or as soon as it fails. The first confident answer wins.
+         */
+        HEDGED
     }
 
     /**
@@ -227,12 +276,32 @@ public class TestBuilder {
         private final Set<TestType> enabledTestTypes;
         private final QualityLevel qualityLevel;
         private final int threadPoolSize;
+        private final boolean virtualThreads;
         private final int batchSize;
         private final boolean enableCaching;
         private final boolean enablePerformanceOptimization;
         private final boolean enableSecurityEnhancements;
         private final boolean enableAdvancedAnalytics;
         private final Duration aiTimeout;
+        private final Duration endpointTimeout;
+        private final Path aiCacheDirectory;
+        private final Duration aiCacheTtl;
+        private final long aiCacheMaxBytes;
+        private final int aiBatchMaxEndpoints;
+        private final Duration aiBatchLinger;
+        private final int aiBatchTokenBudget;
+        private final int aiMaxTokens;
+        private final Map<AiProvider, AiQuotaLimiter.Quota> aiRateLimits;
+        private final long aiTokenBudget;
+        private final double aiCostBudget;
+        private final boolean aiStreaming;
+        private final AiEnsembleMode aiEnsembleMode;
+        private final int aiPromptTokenBudget;
+        private final String aiBaseUrl;
+        private final boolean aiConnectionPrewarm;
+        private final String aiApiKey;
+        private final AiCircuitBreaker.Settings aiCircuitBreaker;
+        private final AiRetryPolicy aiRetryPolicy;
         private final Map<String, Object> customProperties;
         private final String executionId;
         private final Instant creationTimestamp;
@@ -243,12 +312,32 @@ public class TestBuilder {
             this.enabledTestTypes = new HashSet<>(builder.enabledTestTypes);
             this.qualityLevel = builder.qualityLevel;
             this.threadPoolSize = builder.threadPoolSize;
+            this.virtualThreads = builder.virtualThreads;
             this.batchSize = builder.batchSize;
             this.enableCaching = builder.enableCaching;
             this.enablePerformanceOptimization = builder.enablePerformanceOptimization;
             this.enableSecurityEnhancements = builder.enableSecurityEnhancements;
             this.enableAdvancedAnalytics = builder.enableAdvancedAnalytics;
             this.aiTimeout = builder.aiTimeout;
+            this.endpointTimeout = builder.endpointTimeout;
+            this.aiCacheDirectory = builder.aiCacheDirectory;
+            this.aiCacheTtl = builder.aiCacheTtl;
+            this.aiCacheMaxBytes = builder.aiCacheMaxBytes;
+            this.aiBatchMaxEndpoints = builder.aiBatchMaxEndpoints;
+            this.aiBatchLinger = builder.aiBatchLinger;
+            this.aiBatchTokenBudget = builder.aiBatchTokenBudget;
+            this.aiMaxTokens = builder.aiMaxTokens;
+            this.aiRateLimits = new EnumMap<>(builder.aiRateLimits);
+            this.aiTokenBudget = builder.aiTokenBudget;
+            this.aiCostBudget = builder.aiCostBudget;
+            this.aiStreaming = builder.aiStreaming;
+            this.aiEnsembleMode = builder.aiEnsembleMode;
+            this.aiPromptTokenBudget = builder.aiPromptTokenBudget;
+            this.aiBaseUrl = builder.aiBaseUrl;
+            this.aiApiKey = builder.aiApiKey;
+            this.aiConnectionPrewarm = builder.aiConnectionPrewarm;
+            this.aiCircuitBreaker = builder.aiCircuitBreaker;
+            this.aiRetryPolicy = builder.aiRetryPolicy;
             this.customProperties = new HashMap<>(builder.customProperties);
             this.executionId = generateAdvancedExecutionId();
             this.creationTimestamp = Instant.now();
@@ -260,12 +349,36 @@ public class TestBuilder {
         public Set<TestType> getEnabledTestTypes() { return new HashSet<>(enabledTestTypes); }
         public QualityLevel getQualityLevel() { return qualityLevel; }
         public int getThreadPoolSize() { return threadPoolSize; }
+        public boolean isVirtualThreadsEnabled() { return virtualThreads; }
         public int getBatchSize() { return batchSize; }
         public boolean isCachingEnabled() { return enableCaching; }
         public boolean isPerformanceOptimizationEnabled() { return enablePerformanceOptimization; }
         public boolean isSecurityEnhancementsEnabled() { return enableSecurityEnhancements; }
         public boolean isAdvancedAnalyticsEnabled() { return enableAdvancedAnalytics; }
         public Duration getAiTimeout() { return aiTimeout; }
+        public Duration getEndpointTimeout() { return endpointTimeout; }
+        public Path getAiCacheDirectory() { return aiCacheDirectory; }
+        public Duration getAiCacheTtl() { return aiCacheTtl; }
+        public long getAiCacheMaxBytes() { return aiCacheMaxBytes; }
+        public boolean isAiCacheEnabled() { return enableCaching && aiCacheDirectory != null; }
+        public int getAiBatchMaxEndpoints() { return aiBatchMaxEndpoints; }
+        public Duration getAiBatchLinger() { return aiBatchLinger; }
+        public int getAiBatchTokenBudget() { return aiBatchTokenBudget; }
+        public boolean isAiBatchingEnabled() { return aiBatchMaxEndpoints > 1; }
+        public int getAiMaxTokens() { return aiMaxTokens; }
+        public Map<AiProvider, AiQuotaLimiter.Quota> getAiRateLimits() { return new EnumMap<>(aiRateLimits); }
+        public long getAiTokenBudget() { return aiTokenBudget; }
+        public double getAiCostBudget() { return aiCostBudget; }
+        public boolean isAiBudgetEnabled() { return aiTokenBudget > 0 || aiCostBudget > 0; }
+        public boolean isAiStreamingEnabled() { return aiStreaming; }
+        public AiEnsembleMode getAiEnsembleMode() { return aiEnsembleMode; }
+        public int getAiPromptTokenBudget() { return aiPromptTokenBudget; }
+        public String getAiBaseUrl() { return aiBaseUrl; }
+        public String getAiApiKey() { return aiApiKey; }
+        public boolean isAiConnectionPrewarmEnabled() { return aiConnectionPrewarm; }
+        public AiCircuitBreaker.Settings getAiCircuitBreaker() { return aiCircuitBreaker; }
+        public boolean isAiCircuitBreakerEnabled() { return aiCircuitBreaker != null; }
+        public AiRetryPolicy getAiRetryPolicy() { return aiRetryPolicy; }
         public Map<String, Object> getCustomProperties() { return new HashMap<>(customProperties); }
         public String getExecutionId() { return executionId; }
         public Instant getCreationTimestamp() { return creationTimestamp; }
@@ -296,12 +409,32 @@ public class TestBuilder {
             private Set<TestType> enabledTestTypes = Set.of(TestType.FUNCTIONAL, TestType.NEGATIVE, TestType.EDGE_CASE);
             private QualityLevel qualityLevel = QualityLevel.STANDARD;
             private int threadPoolSize = DEFAULT_THREAD_POOL_SIZE;
+            private boolean virtualThreads = false;
             private int batchSize = DEFAULT_BATCH_SIZE;
             private boolean enableCaching = true;
             private boolean enablePerformanceOptimization = true;
             private boolean enableSecurityEnhancements = false;
             private boolean enableAdvancedAnalytics = false;
             private Duration aiTimeout = Duration.ofSeconds(DEFAULT_AI_TIMEOUT_SECONDS);
+            private Duration endpointTimeout = Duration.ofSeconds(DEFAULT_ENDPOINT_TIMEOUT_SECONDS);
+            private Path aiCacheDirectory = DEFAULT_AI_CACHE_DIRECTORY;
+            private Duration aiCacheTtl = AiResponseCache.DEFAULT_TTL;
+            private long aiCacheMaxBytes = AiResponseCache.DEFAULT_MAX_BYTES;
+            private int aiBatchMaxEndpoints = 1;
+            private Duration aiBatchLinger = Duration.ofMillis(DEFAULT_AI_BATCH_LINGER_MILLIS);
+            private int aiBatchTokenBudget = DEFAULT_AI_BATCH_TOKEN_BUDGET;
+            private int aiMaxTokens = DEFAULT_AI_MAX_TOKENS;
+            private Map<AiProvider, AiQuotaLimiter.Quota> aiRateLimits = new EnumMap<>(AiProvider.class);
+            private long aiTokenBudget = 0;
+            private double aiCostBudget = 0;
+            private boolean aiStreaming = false;
+            private AiEnsembleMode aiEnsembleMode = AiEnsembleMode.ALL;
+            private int aiPromptTokenBudget = PromptContextCompactor.DEFAULT_TOKEN_BUDGET;
+            private String aiBaseUrl;
+            private String aiApiKey;
+            private boolean aiConnectionPrewarm = false;
+            private AiCircuitBreaker.Settings aiCircuitBreaker = AiCircuitBreaker.Settings.DEFAULT;
+            private AiRetryPolicy aiRetryPolicy = AiRetryPolicy.DEFAULT;
             private Map<String, Object> customProperties = new HashMap<>();
 
             public Builder withStrategy(TestGenerationStrategy strategy) {
@@ -334,6 +467,15 @@ public class TestBuilder {
                 return this;
             }
 
+            /**
+             * Runs AI-bound generation on the shared runtime's virtual-thread executor instead of
+             * its bounded platform pool. Endpoint analysis always uses the shared CPU pool.
+             */
+            public Builder withVirtualThreads(boolean enable) {
+                this.virtualThreads = enable;
+                return this;
+            }
+
             public Builder withBatchSize(int size) {
                 this.batchSize = size;
                 return this;
@@ -356,6 +498,143 @@ public class TestBuilder {
                 return this;
             }
 
+            /**
+             * Deadline for generating one endpoint, AI calls included; work still running when it
+             * passes is cancelled and the endpoint keeps the tests produced so far.
+             */
+            public Builder withEndpointTimeout(Duration timeout) {
+                this.endpointTimeout = timeout;
+                return this;
+            }
+
+            /**
+             * Directory of the persistent AI response cache, shared by every run that points at it;
+             * {@code null} turns the cache off. Defaults to a directory under the user's home.
+             */
+            public Builder withAiCacheDirectory(Path directory) {
+                this.aiCacheDirectory = directory;
+                return this;
+            }
+
+            /**
+             * Age after which a cached AI response is requested again, and the size the cache is
+             * kept under by evicting the least recently used responses.
+             */
+            public Builder withAiCacheLimits(Duration ttl, long maxBytes) {
+                this.aiCacheTtl = ttl;
+                this.aiCacheMaxBytes = maxBytes;
+                return this;
+            }
+
+            /**
+             * Packs small endpoints into shared AI requests of at most {@code maxEndpoints} endpoints
+             * and {@code tokenBudget} estimated prompt plus completion tokens. A request waits up to
+             * {@code linger} for others to join it. Off by default; a maximum of 1 turns it off.
+             */
+            public Builder withAiBatching(int maxEndpoints, Duration linger, int tokenBudget) {
+                this.aiBatchMaxEndpoints = maxEndpoints;
+                this.aiBatchLinger = linger;
+                this.aiBatchTokenBudget = tokenBudget;
+                return this;
+            }
+
+            /**
+             * Completion tokens asked for per endpoint; batch requests ask for the sum of their endpoints.
+             */
+            public Builder withAiMaxTokens(int maxTokens) {
+                this.aiMaxTokens = maxTokens;
+                return this;
+            }
+
+            /**
+             * Keeps calls to {@code provider} just under the account's requests-per-minute and
+             * tokens-per-minute quotas, waiting for quota instead of being rejected with HTTP 429.
+             * Providers without a rate limit are bounded by their concurrency limiter only.
+             */
+            public Builder withAiRateLimit(AiProvider provider, int requestsPerMinute, long tokensPerMinute) {
+                this.aiRateLimits.put(provider, new AiQuotaLimiter.Quota(requestsPerMinute, tokensPerMinute));
+                return this;
+            }
+
+            /**
+             * Hard budget for the AI calls of this builder, in tokens and in US dollars at the
+             * providers' list prices; 0 leaves a dimension unlimited. Once a call would exceed it,
+             * the remaining endpoints are generated by the strategies alone.
+             */
+            public Builder withAiBudget(long maxTokens, double maxCostUsd) {
+                this.aiTokenBudget = maxTokens;
+                this.aiCostBudget = maxCostUsd;
+                return this;
+            }
+
+            /**
+             * Streams OpenAI responses, turning each test method of a response into a test case as
+             * soon as its code block is complete rather than when the whole response has arrived.
+             * Batched requests are not streamed.
+             */
+            public Builder withAiStreaming(boolean streaming) {
+                this.aiStreaming = streaming;
+                return this;
+            }
+
+            /**
+             * How each endpoint's request is spread over the AI providers; racing and hedging trade
+             * extra calls for a shorter tail, and only use providers whose answers can be accepted.
+             */
+            public Builder withAiEnsembleMode(AiEnsembleMode mode) {
+                this.aiEnsembleMode = mode;
+                return this;
+            }
+
+            /**
+             * Most tokens the endpoint's schema context may take up in a prompt; larger schemas lose
+             * descriptions, optional fields and nesting depth until they fit.
+             */
+            public Builder withAiPromptTokenBudget(int maxTokens) {
+                this.aiPromptTokenBudget = maxTokens;
+                return this;
+            }
+
+            /**
+             * Sends the OpenAI providers' requests to an OpenAI-compatible server, such as the
+             * tests' {@code MockOpenAiServer}, instead of the one {@code OPENAI_BASE_URL} and
+             * {@code OPENAI_API_KEY} name. Every request to it goes over the streaming client.
+             */
+            public Builder withAiEndpoint(String baseUrl, String apiKey) {
+                this.aiBaseUrl = baseUrl;
+                this.aiApiKey = apiKey;
+                return this;
+            }
+
+            /**
+             * Opens the connection to each OpenAI endpoint the providers will call while the builder
+             * starts, so the first call does not pay for connection setup and the TLS handshake. The
+             * warm-up is an unauthenticated {@code HEAD} request to the endpoint.
+             */
+            public Builder withAiConnectionPrewarm(boolean prewarm) {
+                this.aiConnectionPrewarm = prewarm;
+                return this;
+            }
+
+            /**
+             * When a provider's circuit breaker opens: while it is open, endpoints skip that provider
+             * at once instead of waiting out the AI timeout. {@code null} turns the breakers off.
+             */
+            public Builder withAiCircuitBreaker(AiCircuitBreaker.Settings settings) {
+                this.aiCircuitBreaker = settings;
+                return this;
+            }
+
+            /**
+             * Sends failed, throttled or timed-out AI calls again up to {@code maxAttempts} times in
+             * all, waiting with exponential backoff and full jitter, or as long as the provider's
+             * {@code Retry-After} asks. A maximum of 1 turns retries off.
+             */
+            public Builder withAiRetries(int maxAttempts, Duration baseDelay, Duration maxDelay) {
+                this.aiRetryPolicy = new AiRetryPolicy(maxAttempts, baseDelay, maxDelay);
+                return this;
+            }
+
             public Builder withCustomProperty(String key, Object value) {
                 this.customProperties.put(key, value);
                 return this;
@@ -380,6 +659,46 @@ public class TestBuilder {
                 throw new IllegalArgumentException("Quality level cannot be null");
             }
 
+            if (builder.aiCacheTtl == null || builder.aiCacheTtl.isNegative() || builder.aiCacheTtl.isZero()) {
+                throw new IllegalArgumentException("AI cache TTL must be positive");
+            }
+
+            if (builder.aiCacheMaxBytes <= 0) {
+                throw new IllegalArgumentException("AI cache size must be positive");
+            }
+
+            if (builder.aiBatchMaxEndpoints <= 0) {
+                throw new IllegalArgumentException("AI batch size must be positive");
+            }
+
+            if (builder.aiBatchLinger == null || builder.aiBatchLinger.isNegative()) {
+                throw new IllegalArgumentException("AI batch linger time cannot be negative");
+            }
+
+            if (builder.aiBatchTokenBudget <= 0) {
+                throw new IllegalArgumentException("AI batch token budget must be positive");
+            }
+
+            if (builder.aiMaxTokens <= 0) {
+                throw new IllegalArgumentException("AI max tokens must be positive");
+            }
+
+            if (builder.aiEnsembleMode == null) {
+                throw new IllegalArgumentException("AI ensemble mode cannot be null");
+            }
+
+            if (builder.aiPromptTokenBudget <= 0) {
+                throw new IllegalArgumentException("AI prompt token budget must be positive");
+            }
+
+            if (builder.aiBaseUrl != null && (builder.aiBaseUrl.isBlank() || builder.aiApiKey == null)) {
+                throw new IllegalArgumentException("AI endpoint needs a base URL and an API key");
+            }
+
+            if (builder.aiTokenBudget < 0 || builder.aiCostBudget < 0 || Double.isNaN(builder.aiCostBudget)) {
+                throw new IllegalArgumentException("AI budget cannot be negative");
+            }
+
             if (builder.threadPoolSize > MAX_THREAD_POOL_SIZE) {
                 builder.threadPoolSize = MAX_THREAD_POOL_SIZE;
                 logger.warn("Thread pool size capped at maximum: {}", MAX_THREAD_POOL_SIZE);
@@ -392,13 +711,22 @@ public class TestBuilder {
     // ===== ENTERPRISE CORE COMPONENTS =====
 
     private final TestBuilderConfiguration configuration;
+    private final SharedRuntime runtime;
+    private final SharedRuntime.ShutdownRegistration shutdownRegistration;
+    // Told of AI circuit breaker transitions; may be null
+    private final ProgressTracker progressTracker;
     private final ExecutorService mainExecutor;
+    private final ExecutorService cpuExecutor;
     private final ScheduledExecutorService scheduledExecutor;
-    private final Semaphore aiRequestSemaphore;
+    private final List<ScheduledFuture<?>> scheduledTasks = new CopyOnWriteArrayList<>();
 
     // AI Integration
     private final Map<AiProvider, AiServiceAdapter> aiServices;
+    private final AiResponseCache aiResponseCache;
+    private final AiUsageLedger aiUsageLedger;
     private final AiOrchestrator aiOrchestrator;
+    private final AiRequestBatcher aiBatcher;
+    private final LatencyTracker aiEndpointLatency = new LatencyTracker("AI endpoint");
     private final PromptEngineeringService promptService;
 
     // Advanced Test Generation
@@ -407,6 +735,7 @@ public class TestBuilder {
     private final PerformanceTestGenerator performanceTestGenerator;
     private final EdgeCaseTestGenerator edgeCaseTestGenerator;
     private final NegativeTestGenerator negativeTestGenerator;
+    private final TestGeneratorRegistry generatorRegistry;
 
     // Caching and Optimization
     private final Map<String, CachedTestResult> testCache;
@@ -417,6 +746,7 @@ public class TestBuilder {
     private final TestGenerationMetrics metrics;
     private final PerformanceMonitor performanceMonitor;
     private final QualityAnalyzer qualityAnalyzer;
+    private final TestCaseDeduplicator testCaseDeduplicator = new TestCaseDeduplicator();
     private final TestEffectivenessTracker effectivenessTracker;
 
     // Thread-safe counters
@@ -427,23 +757,33 @@ public class TestBuilder {
     private final AtomicLong cacheHits = new AtomicLong(0);
     private final AtomicLong cacheMisses = new AtomicLong(0);
     private final AtomicReference<GenerationStatus> currentStatus = new AtomicReference<>(GenerationStatus.IDLE);
+    // Runs in progress, cancelled on shutdown so in-flight AI calls stop instead of delaying it
+    private final Set<CancellationContext> activeRuns = ConcurrentHashMap.newKeySet();
 
     // ===== CONSTRUCTORS (Standard Pattern) =====
 
     /**
      * Private constructor for builder pattern
      */
-    private TestBuilder(TestBuilderConfiguration configuration) {
+    private TestBuilder(TestBuilderConfiguration configuration, SharedRuntime runtime, ProgressTracker progressTracker) {
         this.configuration = validateConfiguration(configuration);
+        this.runtime = Objects.requireNonNull(runtime, "runtime");
+        this.progressTracker = progressTracker;
 
-        // Initialize thread pools
-        this.mainExecutor = createOptimizedExecutorService();
-        this.scheduledExecutor = Executors.newScheduledThreadPool(4);
-        this.aiRequestSemaphore = new Semaphore(MAX_CONCURRENT_AI_REQUESTS);
+        // Thread pools come from the shared runtime; AI-bound work goes to the blocking executor
+        this.mainExecutor = runtime.getBlockingExecutor(this.configuration.isVirtualThreadsEnabled());
+        this.cpuExecutor = runtime.getCpuExecutor();
+        this.scheduledExecutor = runtime.getScheduler();
 
         // Initialize AI services
         this.aiServices = initializeAiServices();
-        this.aiOrchestrator = new AiOrchestrator(this.aiServices, this.configuration);
+        this.aiResponseCache = openAiResponseCache();
+        this.aiUsageLedger = new AiUsageLedger(this.configuration.getExecutionId(),
+                this.configuration.getAiTokenBudget(), this.configuration.getAiCostBudget());
+        this.aiOrchestrator = new AiOrchestrator(this.aiServices, this.aiResponseCache, this.aiUsageLedger,
+                this.configuration, runtime.getIoExecutor(),
+                progressTracker != null ? progressTracker::recordCircuitBreakerTransition : null);
+        this.aiBatcher = new AiRequestBatcher(this.configuration);
         this.promptService = new PromptEngineeringService(this.configuration);
 
         // Initialize test generators
@@ -452,6 +792,7 @@ public class TestBuilder {
         this.performanceTestGenerator = new PerformanceTestGenerator(this.configuration);
         this.edgeCaseTestGenerator = new EdgeCaseTestGenerator(this.configuration);
         this.negativeTestGenerator = new NegativeTestGenerator(this.configuration);
+        this.generatorRegistry = TestGeneratorRegistry.createDefault(runtime);
 
         // Initialize caching
         this.testCache = new ConcurrentHashMap<>();
@@ -466,7 +807,7 @@ public class TestBuilder {
 
         // Setup monitoring
         initializeMonitoring();
-        setupShutdownHooks();
+        this.shutdownRegistration = setupShutdownHooks();
 
         logger.info("Enterprise TestBuilder v{} initialized with {} strategy, executionId: {}",
                 VERSION, configuration.getStrategy(), configuration.getExecutionId());
@@ -479,12 +820,31 @@ public class TestBuilder {
      */
     public static class Builder {
         private TestBuilderConfiguration configuration = TestBuilderConfiguration.createDefault();
+        private SharedRuntime runtime;
+        private ProgressTracker progressTracker;
 
         public Builder withConfiguration(TestBuilderConfiguration config) {
             this.configuration = config;
             return this;
         }
 
+        /**
+         * Shares pools, scheduler and shutdown lifecycle with other components; defaults to
+         * {@link SharedRuntime#getDefault()}.
+         */
+        public Builder withRuntime(SharedRuntime runtime) {
+            this.runtime = runtime;
+            return this;
+        }
+
+        /**
+         * Reports the opening and closing of the AI providers' circuit breakers to the tracker.
+         */
+        public Builder withProgressTracker(ProgressTracker progressTracker) {
+            this.progressTracker = progressTracker;
+            return this;
+        }
+
         public Builder withStrategy(TestGenerationStrategy strategy) {
             this.configuration = TestBuilderConfiguration.builder()
                     .withStrategy(strategy)
@@ -500,7 +860,7 @@ public class TestBuilder {
         }
 
         public TestBuilder build() {
-            return new TestBuilder(configuration);
+            return new TestBuilder(configuration, runtime != null ? runtime : SharedRuntime.getDefault(), progressTracker);
         }
     }
 
@@ -567,6 +927,17 @@ public class TestBuilder {
      * Returns ComprehensiveTestSuite conforming to standard interface
      */
     public ComprehensiveTestSuite generateComprehensiveTests(List<EndpointInfo> endpoints) {
+        try (CancellationContext context = openRunContext("generation " + configuration.getExecutionId(), null)) {
+            return generateComprehensiveTests(endpoints, context);
+        }
+    }
+
+    /**
+     * Generates the comprehensive test suite within the caller's cancellation context: cancelling it
+     * or reaching its deadline stops analysis, generation and in-flight AI calls. Each endpoint
+     * additionally gets its own deadline from {@link TestBuilderConfiguration#getEndpointTimeout()}.
+     */
+    public ComprehensiveTestSuite generateComprehensiveTests(List<EndpointInfo> endpoints, CancellationContext context) {
         long startTime = System.currentTimeMillis();
         currentStatus.set(GenerationStatus.GENERATING);
 
@@ -576,7 +947,7 @@ public class TestBuilder {
         try {
             // Phase 1: Endpoint Analysis
             currentStatus.set(GenerationStatus.ANALYZING);
-            Map<EndpointInfo, EndpointAnalysis> analyses = performParallelEndpointAnalysis(endpoints);
+            Map<EndpointInfo, EndpointAnalysis> analyses = performParallelEndpointAnalysis(endpoints, context);
 
             // Phase 2: Test Strategy Selection
             currentStatus.set(GenerationStatus.STRATEGIZING);
@@ -584,7 +955,7 @@ public class TestBuilder {
 
             // Phase 3: Parallel Test Generation
             currentStatus.set(GenerationStatus.GENERATING);
-            List<GeneratedTestCase> testCases = generateTestCasesInParallel(analyses, recommendation);
+            List<GeneratedTestCase> testCases = generateTestCasesInParallel(analyses, recommendation, context);
 
             // Phase 4: Quality Analysis and Optimization
             currentStatus.set(GenerationStatus.OPTIMIZING);
@@ -606,6 +977,12 @@ public class TestBuilder {
 
             return result;
 
+        } catch (CancellationException e) {
+            currentStatus.set(GenerationStatus.FAILED);
+            logger.warn("Comprehensive test generation stopped for executionId: {}: {}",
+                    configuration.getExecutionId(), e.getMessage());
+            failedGenerations.incrementAndGet();
+            throw e;
         } catch (Exception e) {
             currentStatus.set(GenerationStatus.FAILED);
             logger.error("Comprehensive test generation failed for executionId: {}",
@@ -623,9 +1000,9 @@ public class TestBuilder {
         logger.info("Generating tests for {} endpoints with strategy: {}",
                 endpoints.size(), recommendation.getRecommendedStrategy());
 
-        try {
-            Map<EndpointInfo, EndpointAnalysis> analyses = performParallelEndpointAnalysis(endpoints);
-            return generateTestCasesInParallel(analyses, recommendation);
+        try (CancellationContext context = openRunContext("generation " + configuration.getExecutionId(), null)) {
+            Map<EndpointInfo, EndpointAnalysis> analyses = performParallelEndpointAnalysis(endpoints, context);
+            return generateTestCasesInParallel(analyses, recommendation, context);
         } catch (Exception e) {
             logger.error("Test generation failed", e);
             throw new TestGenerationException("Failed to generate tests", e);
@@ -640,7 +1017,7 @@ public class TestBuilder {
         logger.info("Analyzing {} endpoints for strategy recommendation", endpoints.size());
 
         try {
-            Map<EndpointInfo, EndpointAnalysis> analyses = performParallelEndpointAnalysis(endpoints);
+            Map<EndpointInfo, EndpointAnalysis> analyses = performParallelEndpointAnalysis(endpoints, CancellationContext.background());
             return createAdvancedStrategyRecommendation(analyses);
         } catch (Exception e) {
             logger.error("Strategy recommendation failed", e);
@@ -665,7 +1042,7 @@ public class TestBuilder {
             cacheMisses.incrementAndGet();
         }
 
-        try {
+        try (CancellationContext context = openRunContext(endpoint.getPath(), configuration.getEndpointTimeout())) {
             // Analyze endpoint
             EndpointAnalysis analysis = analyzeEndpoint(endpoint);
 
@@ -674,7 +1051,7 @@ public class TestBuilder {
 
             // 1. AI-enhanced generation (if enabled)
             if (shouldUseAiGeneration(analysis)) {
-                testCases.addAll(generateWithAI(endpoint, analysis));
+                testCases.addAll(generateWithAI(endpoint, analysis, context));
                 aiEnhancedTests.incrementAndGet();
             }
 
@@ -788,46 +1165,21 @@ public class TestBuilder {
                 System.nanoTime() % 100000);
     }
 
-    /**
-     * Standard method signature - creates optimized executor service
-     */
-    private ExecutorService createOptimizedExecutorService() {
-        int corePoolSize = configuration.getThreadPoolSize();
-        int maximumPoolSize = Math.min(MAX_THREAD_POOL_SIZE, corePoolSize * 2);
-
-        ThreadPoolExecutor executor = new ThreadPoolExecutor(
-                corePoolSize,
-                maximumPoolSize,
-                60L, TimeUnit.SECONDS,
-                new LinkedBlockingQueue<>(1000),
-                new ThreadFactory() {
-                    private final AtomicInteger counter = new AtomicInteger(0);
-                    @Override
-                    public Thread newThread(Runnable r) {
-                        Thread t = new Thread(r, "TestBuilder-" + counter.incrementAndGet());
-                        t.setDaemon(true);
-                        return t;
-                    }
-                },
-                new ThreadPoolExecutor.CallerRunsPolicy()
-        );
-
-        executor.allowCoreThreadTimeOut(true);
-        logger.debug("Created optimized thread pool with {} core threads", corePoolSize);
-
-        return executor;
-    }
-
     // ===== ADVANCED ANALYSIS METHODS =====
 
     /**
-     * Performs parallel endpoint analysis for optimization
+     * Performs parallel endpoint analysis for optimization. Analyses not yet started when the
+     * context is cancelled are skipped, and the wait ends with the context.
      */
-    private Map<EndpointInfo, EndpointAnalysis> performParallelEndpointAnalysis(List<EndpointInfo> endpoints) {
+    private Map<EndpointInfo, EndpointAnalysis> performParallelEndpointAnalysis(List<EndpointInfo> endpoints,
+                                                                                CancellationContext context) {
         Map<EndpointInfo, EndpointAnalysis> analyses = new ConcurrentHashMap<>();
 
         List<CompletableFuture<Void>> futures = endpoints.stream()
                 .map(endpoint -> CompletableFuture.runAsync(() -> {
+                    if (context.isCancelled()) {
+                        return;
+                    }
                     try {
                         EndpointAnalysis analysis = analyzeEndpoint(endpoint);
                         analyses.put(endpoint, analysis);
@@ -835,11 +1187,16 @@ public class TestBuilder {
                         logger.warn("Failed to analyze endpoint: {}", endpoint.getPath(), e);
                         analyses.put(endpoint, createBasicAnalysis(endpoint));
                     }
-                }, mainExecutor))
+                }, cpuExecutor))
                 .collect(Collectors.toList());
 
         // Wait for all analyses to complete
-        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        try {
+            context.await(CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])));
+        } catch (ExecutionException e) {
+            // Each analysis handles its own failure, so only an unexpected error gets here
+            throw new TestGenerationException("Endpoint analysis failed", e.getCause());
+        }
 
         return analyses;
     }
@@ -1144,62 +1501,329 @@ public class TestBuilder {
     }
 
     /**
-     * Generates tests using AI with ensemble approach
+     * Generates tests using AI with ensemble approach.
+     *
+     * The call runs on its own virtual thread and takes a permit from each provider's adaptive
+     * concurrency limiter there, bounded by the AI timeout and the endpoint's context: when either
+     * ends, this thread returns at once and the call is interrupted. A call cancelled before it
+     * starts never takes a permit, and one that was running gives it back as soon as it stops, so
+     * abandoned calls cannot starve later endpoints.
+     *
+     * Responses found in the AI response cache are used without taking a permit; only providers
+     * without a cached response are called. With batching enabled, a small endpoint's request is
+     * queued and sent together with other endpoints, under one permit per provider.
+     *
+     * Once the run's AI budget is exhausted no more calls are made: the endpoint keeps any cached
+     * responses and is otherwise left to the strategy-based generation that follows. The same goes
+     * while the circuit breakers of all uncached providers are open, so an outage costs each
+     * endpoint nothing rather than the AI timeout.
+     *
+     * Streamed responses become test cases block by block while they arrive; the tests completed
+     * before the AI timeout are kept even when the response is abandoned.
+     *
+     * When racing or hedging providers, an acceptable cached response has already won, and no
+     * provider is called. The time the endpoint spends here is recorded as its AI latency.
+     *
+     * @throws CancellationException if the endpoint's own context ends, or the thread is
+     *         interrupted, while waiting; the interrupt status is kept
      */
-    private List<GeneratedTestCase> generateWithAI(EndpointInfo endpoint, EndpointAnalysis analysis) {
+    private List<GeneratedTestCase> generateWithAI(EndpointInfo endpoint, EndpointAnalysis analysis,
+                                                   CancellationContext context) {
         List<GeneratedTestCase> aiTestCases = new ArrayList<>();
+        AiStreamCollector streamed = new AiStreamCollector(endpoint, aiOrchestrator.isRacing());
+        boolean budgetSkipped = false;
+        long started = System.nanoTime();
+
+        try (CancellationContext callContext = context.child("AI " + endpoint.getPath(), configuration.getAiTimeout())) {
+            // Create AI generation request
+            AiTestGenerationRequest request = createAiGenerationRequest(endpoint, analysis);
+
+            // Cached responses need no request, and therefore no permit
+            Map<AiProvider, AiGenerationResult> cached = aiOrchestrator.getCachedResults(request);
+            List<AiGenerationResult> aiResults = new ArrayList<>(cached.values());
+            boolean answered = cached.size() >= aiOrchestrator.getAvailableProviderCount()
+                    || (aiOrchestrator.isRacing() && cached.values().stream().anyMatch(AiOrchestrator::isAcceptable));
+
+            if (!answered && aiUsageLedger.isBudgetExhausted()) {
+                // Over budget: cached responses are free, the strategies cover the rest
+                budgetSkipped = cached.isEmpty();
+            } else if (!answered && !aiOrchestrator.hasCallableProvider(cached.keySet())) {
+                logger.debug("AI circuits open; {} is generated by the strategies alone", endpoint.getPath());
+            } else if (!answered) {
+                Future<List<AiGenerationResult>> call;
+                if (cached.isEmpty() && aiBatcher.accepts(request)) {
+                    call = aiBatcher.submit(request);
+                } else {
+                    // Get results from the AI providers without a cached response
+                    call = runtime.getIoExecutor().submit(
+                            () -> aiOrchestrator.generateWithEnsemble(request, cached.keySet(), callContext, streamed));
+                }
+                aiResults.addAll(callContext.await(call));
+            }
 
-        try {
-            // Acquire semaphore for AI request rate limiting
-            aiRequestSemaphore.acquire();
-
-            try {
-                // Create AI generation request
-                AiTestGenerationRequest request = createAiGenerationRequest(endpoint, analysis);
-
-                // Get results from multiple AI providers
-                List<AiGenerationResult> aiResults = aiOrchestrator.generateWithEnsemble(request);
-
-                // Process and validate AI results
-                for (AiGenerationResult result : aiResults) {
-                    if (result.isSuccess() && result.getConfidence() >= DEFAULT_AI_CONFIDENCE_THRESHOLD) {
-                        List<GeneratedTestCase> testCases = processAiResult(endpoint, result);
-                        aiTestCases.addAll(testCases);
-                    }
+            // Process and validate AI results; streamed ones were processed as they arrived
+            aiTestCases.addAll(streamed.finish());
+            for (AiGenerationResult result : aiResults) {
+                if (!result.isStreamed() && AiOrchestrator.isAcceptable(result)) {
+                    List<GeneratedTestCase> testCases = processAiResult(endpoint, result, aiTestCases.size());
+                    aiTestCases.addAll(testCases);
                 }
+            }
+            budgetSkipped |= aiTestCases.isEmpty()
+                    && aiResults.stream().anyMatch(result -> result.getFailure() == AiFailure.BUDGET_EXHAUSTED);
+            if (budgetSkipped) {
+                aiUsageLedger.recordSkippedEndpoint();
+                logger.debug("AI budget exhausted; {} is generated by the strategies alone", endpoint.getPath());
+            }
 
-                logger.debug("Generated {} AI-enhanced test cases for {}", aiTestCases.size(), endpoint.getPath());
+            logger.debug("Generated {} AI-enhanced test cases for {}", aiTestCases.size(), endpoint.getPath());
 
-            } finally {
-                aiRequestSemaphore.release();
+        } catch (CancellationException e) {
+            // The endpoint's deadline stops the whole endpoint; the AI timeout only skips this phase
+            context.throwIfCancelled();
+            if (Thread.currentThread().isInterrupted()) {
+                // Interrupted from outside, not timed out: the caller wants the endpoint stopped
+                throw e;
             }
-
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            logger.warn("AI generation interrupted for {}", endpoint.getPath());
+            aiTestCases.addAll(streamed.finish());
+            logger.warn("AI generation for {} abandoned after {} streamed tests: {}",
+                    endpoint.getPath(), aiTestCases.size(), e.getMessage());
+        } catch (ExecutionException e) {
+            aiTestCases.addAll(streamed.finish());
+            logger.warn("AI generation failed for {}", endpoint.getPath(), e.getCause());
         } catch (Exception e) {
+            aiTestCases.addAll(streamed.finish());
             logger.warn("AI generation failed for {}", endpoint.getPath(), e);
+        } finally {
+            aiEndpointLatency.recordNanos(System.nanoTime() - started);
         }
 
         return aiTestCases;
     }
 
+    /**
+     * Turns the code blocks of an endpoint's streamed responses into test cases as each block
+     * completes, so formatting and validating a test overlaps with generating the next. Responses
+     * of providers below the confidence threshold are ignored, as complete ones would be. Blocks
+     * completing after {@link #finish()} are dropped.
+     *
+     * When providers race, each one's blocks are held apart until a provider wins, and only the
+     * winner's are kept. If the endpoint is abandoned before any provider wins, the provider that
+     * completed the most blocks is kept, so tests from two responses are never mixed.
+     */
+    private class AiStreamCollector implements AiStreamListener {
+        private final EndpointInfo endpoint;
+        private final boolean racing;
+        private final Map<AiProvider, AiCodeBlockExtractor> extractors = new ConcurrentHashMap<>();
+        private final Map<AiProvider, AtomicInteger> providerBlocks = new ConcurrentHashMap<>();
+        private final AtomicInteger blocks = new AtomicInteger();
+
+        // Guarded by this
+        private final List<GeneratedTestCase> testCases = new ArrayList<>();
+        private final Map<AiProvider, List<GeneratedTestCase>> pending = new EnumMap<>(AiProvider.class);
+        private AiProvider winner;
+        private boolean finished;
+
+        AiStreamCollector(EndpointInfo endpoint, boolean racing) {
+            this.endpoint = endpoint;
+            this.racing = racing;
+        }
+
+        @Override
+        public void onText(AiProvider provider, String text) {
+            if (provider.getQualityScore() >= DEFAULT_AI_CONFIDENCE_THRESHOLD) {
+                extractors.computeIfAbsent(provider, p -> new AiCodeBlockExtractor(code -> onBlock(p, code))).accept(text);
+            }
+        }
+
+        @Override
+        public void onComplete(AiProvider provider, boolean success) {
+            AiCodeBlockExtractor extractor = extractors.get(provider);
+            if (extractor != null) {
+                extractor.finish(success);
+            }
+        }
+
+        @Override
+        public void onAccepted(AiProvider provider) {
+            synchronized (this) {
+                if (!racing || finished || winner != null) {
+                    return;
+                }
+                winner = provider;
+                testCases.addAll(pending.getOrDefault(provider, Collections.emptyList()));
+                pending.clear();
+            }
+        }
+
+        private void onBlock(AiProvider provider, String code) {
+            // Racing responses are numbered apart, so the winner's tests are numbered 1, 2, 3...
+            int index = racing
+                    ? providerBlocks.computeIfAbsent(provider, p -> new AtomicInteger()).incrementAndGet()
+                    : blocks.incrementAndGet();
+            GeneratedTestCase testCase = createAiTestCase(endpoint, code, index);
+            synchronized (this) {
+                if (testCase == null || finished) {
+                    return;
+                }
+                if (!racing || provider == winner) {
+                    testCases.add(testCase);
+                } else if (winner == null) {
+                    pending.computeIfAbsent(provider, p -> new ArrayList<>()).add(testCase);
+                }
+            }
+        }
+
+        /**
+         * Test cases collected so far; responses still streaming are cut off.
+         */
+        List<GeneratedTestCase> finish() {
+            extractors.values().forEach(extractor -> extractor.finish(false));
+            synchronized (this) {
+                if (finished) {
+                    return Collections.emptyList();
+                }
+                finished = true;
+                if (racing && winner == null) {
+                    pending.values().stream()
+                            .max(Comparator.comparingInt(List::size))
+                            .ifPresent(testCases::addAll);
+                    pending.clear();
+                }
+                return new ArrayList<>(testCases);
+            }
+        }
+    }
+
     /**
      * Creates AI generation request with context
      */
     private AiTestGenerationRequest createAiGenerationRequest(EndpointInfo endpoint, EndpointAnalysis analysis) {
+        PromptContextCompactor.Result context = promptService.createPromptTemplate(endpoint, analysis);
+        aiUsageLedger.recordPromptContext(endpoint.getMethod().toUpperCase() + " " + endpoint.getPath(),
+                context.getFullSchemaTokens(), context.getCompactedTokens());
         return AiTestGenerationRequest.builder()
                 .withEndpoint(endpoint)
                 .withAnalysis(analysis)
                 .withTestTypes(configuration.getEnabledTestTypes())
                 .withQualityLevel(configuration.getQualityLevel())
-                .withPromptTemplate(promptService.createPromptTemplate(endpoint, analysis))
-                .withMaxTokens(2000)
+                .withPromptTemplate(context.getText())
+                .withMaxTokens(configuration.getAiMaxTokens())
                 .withTemperature(0.1)
                 .withTimeout(configuration.getAiTimeout())
                 .build();
     }
 
+    /**
+     * Packs the AI requests of small endpoints into shared requests. A request is queued until the
+     * batch holds {@code aiBatchMaxEndpoints} requests, the next one would exceed the token budget,
+     * or the first queued request has waited the linger time; the batch is then sent under one permit
+     * per provider. Requests whose endpoints were abandoned while queued are dropped from their batch.
+     */
+    private class AiRequestBatcher {
+        private final int maxEndpoints;
+        private final Duration linger;
+        private final int tokenBudget;
+
+        private final List<PendingAiRequest> pending = new ArrayList<>();
+        private int pendingTokens;
+        private ScheduledFuture<?> lingerFlush;
+
+        AiRequestBatcher(TestBuilderConfiguration configuration) {
+            this.maxEndpoints = configuration.getAiBatchMaxEndpoints();
+            this.linger = configuration.getAiBatchLinger();
+            this.tokenBudget = configuration.getAiBatchTokenBudget();
+        }
+
+        /**
+         * Whether the request is small enough to share a batch: at least two such requests fit the budget.
+         */
+        boolean accepts(AiTestGenerationRequest request) {
+            return maxEndpoints > 1 && request.estimateTokens() <= tokenBudget / 2;
+        }
+
+        CompletableFuture<List<AiGenerationResult>> submit(AiTestGenerationRequest request) {
+            PendingAiRequest entry = new PendingAiRequest(request);
+            List<PendingAiRequest> full = null;
+            List<PendingAiRequest> ready = null;
+
+            synchronized (this) {
+                if (!pending.isEmpty() && pendingTokens + entry.tokens > tokenBudget) {
+                    full = drain();
+                }
+                pending.add(entry);
+                pendingTokens += entry.tokens;
+                if (pending.size() >= maxEndpoints) {
+                    ready = drain();
+                } else if (pending.size() == 1) {
+                    lingerFlush = scheduledExecutor.schedule(this::flush, linger.toNanos(), TimeUnit.NANOSECONDS);
+                }
+            }
+
+            dispatch(full);
+            dispatch(ready);
+            return entry.future;
+        }
+
+        private void flush() {
+            List<PendingAiRequest> batch;
+            synchronized (this) {
+                batch = drain();
+            }
+            dispatch(batch);
+        }
+
+        // Caller holds the lock
+        private List<PendingAiRequest> drain() {
+            List<PendingAiRequest> batch = new ArrayList<>(pending);
+            pending.clear();
+            pendingTokens = 0;
+            if (lingerFlush != null) {
+                lingerFlush.cancel(false);
+                lingerFlush = null;
+            }
+            return batch;
+        }
+
+        private void dispatch(List<PendingAiRequest> batch) {
+            if (batch != null && !batch.isEmpty()) {
+                runtime.getIoExecutor().execute(() -> send(batch));
+            }
+        }
+
+        private void send(List<PendingAiRequest> batch) {
+            List<PendingAiRequest> live = batch.stream()
+                    .filter(entry -> !entry.future.isDone())
+                    .collect(Collectors.toList());
+            if (live.isEmpty()) {
+                return;
+            }
+
+            try (CancellationContext context = openRunContext("AI batch of " + live.size(), configuration.getAiTimeout())) {
+                List<AiTestGenerationRequest> requests = live.stream()
+                        .map(entry -> entry.request)
+                        .collect(Collectors.toList());
+                Map<AiTestGenerationRequest, List<AiGenerationResult>> results = requests.size() == 1
+                        ? Map.of(requests.get(0), aiOrchestrator.generateWithEnsemble(requests.get(0), Set.of(), context, null))
+                        : aiOrchestrator.generateBatch(requests, context);
+                live.forEach(entry -> entry.future.complete(results.getOrDefault(entry.request, List.of())));
+            } catch (Exception e) {
+                live.forEach(entry -> entry.future.completeExceptionally(e));
+            }
+        }
+    }
+
+    private static class PendingAiRequest {
+        final AiTestGenerationRequest request;
+        final int tokens;
+        final CompletableFuture<List<AiGenerationResult>> future = new CompletableFuture<>();
+
+        PendingAiRequest(AiTestGenerationRequest request) {
+            this.request = request;
+            this.tokens = request.estimateTokens();
+        }
+    }
+
     // ===== STRATEGY-BASED GENERATION METHODS =====
 
     /**
@@ -1274,81 +1898,247 @@ public class TestBuilder {
     }
 
     /**
-     * Generates test cases in parallel using the analyses and recommendation
+     * Generates test cases in parallel using the analyses and recommendation.
+     *
+     * Endpoints are scheduled by estimated cost rather than in map order: the costliest work runs
+     * first, endpoints too large for one worker's fair share are split into one unit per generation
+     * phase, and idle workers keep pulling the next-largest unit from a shared queue, so a few heavy
+     * endpoints no longer become stragglers behind uniformly sized tasks. Output order is unchanged:
+     * endpoints in map order, phases in {@link GenerationPhase} order.
+     *
+     * Generation runs in a child of the caller's context bounded by one endpoint deadline per
+     * scheduling round. Once it ends, units not yet started are skipped and running ones are
+     * cancelled through their endpoint contexts, keeping whatever they produced so far.
      */
     private List<GeneratedTestCase> generateTestCasesInParallel(Map<EndpointInfo, EndpointAnalysis> analyses,
-                                                                AdvancedStrategyRecommendation recommendation) {
-        List<CompletableFuture<List<GeneratedTestCase>>> futures = new ArrayList<>();
-
-        for (Map.Entry<EndpointInfo, EndpointAnalysis> entry : analyses.entrySet()) {
-            CompletableFuture<List<GeneratedTestCase>> future = CompletableFuture.supplyAsync(() -> {
+                                                                AdvancedStrategyRecommendation recommendation,
+                                                                CancellationContext context) {
+        int workerCount = Math.max(1, configuration.getThreadPoolSize());
+        // Highest-risk endpoints first, in the schedule and in the result, so a run cut short by
+        // the deadline has still produced the tests that matter most
+        List<List<GenerationUnit>> unitsByEndpoint = EndpointPriorityScheduler.prioritize(
+                planGenerationUnits(analyses, workerCount), units -> units.isEmpty() ? null : units.get(0).getEndpoint());
+
+        // Within equal risk, largest units first to keep the makespan short
+        List<GenerationUnit> bySize = new ArrayList<>();
+        unitsByEndpoint.forEach(bySize::addAll);
+        bySize.sort(Comparator.comparingLong(GenerationUnit::getEstimatedCost).reversed());
+        List<GenerationUnit> schedule = EndpointPriorityScheduler.prioritize(bySize, GenerationUnit::getEndpoint);
+
+        long rounds = Math.max(1, (schedule.size() + workerCount - 1) / workerCount);
+        CancellationContext generationContext = context.child("generation",
+                configuration.getEndpointTimeout().multipliedBy(rounds));
+
+        Queue<GenerationUnit> pending = new ConcurrentLinkedQueue<>(schedule);
+        CountDownLatch completed = new CountDownLatch(schedule.size());
+        Runnable worker = () -> {
+            GenerationUnit unit;
+            while ((unit = pending.poll()) != null) {
                 try {
-                    return generateTestCasesForEndpoint(entry.getKey(), entry.getValue(), recommendation);
-                } catch (Exception e) {
-                    logger.warn("Failed to generate test cases for {}", entry.getKey().getPath(), e);
-                    return createFallbackTestCases(entry.getKey());
+                    // Once generation is cancelled the remaining units are only drained
+                    if (!generationContext.isCancelled()) {
+                        runGenerationUnit(unit, recommendation, generationContext);
+                    }
+                } finally {
+                    completed.countDown();
                 }
-            }, mainExecutor);
+            }
+        };
 
-            futures.add(future);
+        long startNanos = System.nanoTime();
+        List<Future<?>> workers = new ArrayList<>();
+        try (generationContext) {
+            for (int i = 1; i < Math.min(workerCount, schedule.size()); i++) {
+                workers.add(mainExecutor.submit(worker));
+            }
+            // The calling thread works too, so progress never depends on a saturated executor
+            worker.run();
+
+            if (!generationContext.await(completed)) {
+                logger.warn("Test generation stopped ({}) with {} of {} units unfinished",
+                        generationContext.getCancellationReason(), completed.getCount(), schedule.size());
+                workers.forEach(future -> future.cancel(true));
+            }
         }
+        workers.forEach(future -> future.cancel(false));
+        context.throwIfCancelled();
+
+        logScheduleEfficiency(schedule, Math.min(workerCount, schedule.size()), System.nanoTime() - startNanos);
 
         // Collect results
         List<GeneratedTestCase> allTestCases = new ArrayList<>();
-        for (CompletableFuture<List<GeneratedTestCase>> future : futures) {
-            try {
-                List<GeneratedTestCase> testCases = future.get(60, TimeUnit.SECONDS);
-                if (testCases != null) {
-                    allTestCases.addAll(testCases);
+        for (List<GenerationUnit> endpointUnits : unitsByEndpoint) {
+            List<GeneratedTestCase> endpointTestCases = new ArrayList<>();
+            boolean failed = false;
+            for (GenerationUnit unit : endpointUnits) {
+                failed |= unit.isFailed();
+                if (unit.getResult() != null) {
+                    endpointTestCases.addAll(unit.getResult());
                 }
-            } catch (Exception e) {
-                logger.warn("Failed to get test case result", e);
             }
+            if (failed && endpointTestCases.isEmpty()) {
+                endpointTestCases = createFallbackTestCases(endpointUnits.get(0).getEndpoint());
+            }
+            allTestCases.addAll(endpointTestCases);
         }
 
         return allTestCases;
     }
 
     /**
-     * Generates test cases for a single endpoint
+     * Builds the units of work for each endpoint, in map order. An endpoint whose estimated cost
+     * exceeds half a worker's fair share is split into one unit per phase so its pieces can run on
+     * different workers; smaller endpoints stay whole to keep scheduling overhead low.
      */
-    private List<GeneratedTestCase> generateTestCasesForEndpoint(EndpointInfo endpoint, EndpointAnalysis analysis,
-                                                                 AdvancedStrategyRecommendation recommendation) {
-        List<GeneratedTestCase> testCases = new ArrayList<>();
+    private List<List<GenerationUnit>> planGenerationUnits(Map<EndpointInfo, EndpointAnalysis> analyses, int workerCount) {
+        List<List<GenerationUnit>> plans = new ArrayList<>();
+        long totalCost = 0;
 
-        // 1. AI-enhanced generation (if enabled)
-        if (shouldUseAiGeneration(analysis)) {
-            testCases.addAll(generateWithAI(endpoint, analysis));
+        for (Map.Entry<EndpointInfo, EndpointAnalysis> entry : analyses.entrySet()) {
+            EndpointInfo endpoint = entry.getKey();
+            EndpointAnalysis analysis = entry.getValue();
+            long baseCost = estimateBaseGenerationCost(endpoint, analysis);
+
+            List<GenerationUnit> phaseUnits = new ArrayList<>();
+            for (GenerationPhase phase : getEnabledGenerationPhases(analysis)) {
+                phaseUnits.add(new GenerationUnit(endpoint, analysis, List.of(phase), baseCost * phase.getCostWeight()));
+            }
+            totalCost += phaseUnits.stream().mapToLong(GenerationUnit::getEstimatedCost).sum();
+            plans.add(phaseUnits);
         }
 
-        // 2. Strategy-based generation
-        testCases.addAll(generateWithStrategies(endpoint, analysis));
+        long splitThreshold = Math.max(1, totalCost / (2L * workerCount));
+        for (int i = 0; i < plans.size(); i++) {
+            List<GenerationUnit> phaseUnits = plans.get(i);
+            long endpointCost = phaseUnits.stream().mapToLong(GenerationUnit::getEstimatedCost).sum();
+            if (phaseUnits.size() > 1 && endpointCost < splitThreshold) {
+                GenerationUnit first = phaseUnits.get(0);
+                List<GenerationPhase> phases = phaseUnits.stream()
+                        .flatMap(unit -> unit.getPhases().stream())
+                        .collect(Collectors.toList());
+                plans.set(i, List.of(new GenerationUnit(first.getEndpoint(), first.getAnalysis(), phases, endpointCost)));
+            }
+        }
+
+        return plans;
+    }
 
-        // 3. Type-specific generation based on configuration
-        if (configuration.getEnabledTestTypes().contains(TestType.SECURITY)) {
-            testCases.addAll(securityTestGenerator.generateSecurityTests(endpoint, analysis));
+    /**
+     * Relative cost of generating one endpoint, from the schema-level complexity model and this
+     * builder's own complexity score.
+     */
+    private long estimateBaseGenerationCost(EndpointInfo endpoint, EndpointAnalysis analysis) {
+        long cost = 1;
+        try {
+            cost += Math.max(0, EndpointComplexity.calculateComplexity(endpoint).getTotalScore());
+        } catch (Exception e) {
+            logger.debug("Complexity estimate unavailable for {}", endpoint.getPath(), e);
         }
+        if (analysis.getComplexityScore() != null) {
+            cost += Math.max(0, analysis.getComplexityScore().getScore());
+        }
+        return cost;
+    }
 
-        if (configuration.getEnabledTestTypes().contains(TestType.PERFORMANCE)) {
-            testCases.addAll(performanceTestGenerator.generatePerformanceTests(endpoint, analysis));
+    private List<GenerationPhase> getEnabledGenerationPhases(EndpointAnalysis analysis) {
+        Set<TestType> enabledTestTypes = configuration.getEnabledTestTypes();
+        List<GenerationPhase> phases = new ArrayList<>();
+
+        if (shouldUseAiGeneration(analysis)) {
+            phases.add(GenerationPhase.AI);
         }
+        phases.add(GenerationPhase.STRATEGIES);
+        if (enabledTestTypes.contains(TestType.FUNCTIONAL)) {
+            phases.add(GenerationPhase.COMPONENTS);
+        }
+        if (enabledTestTypes.contains(TestType.SECURITY)) {
+            phases.add(GenerationPhase.SECURITY);
+        }
+        if (enabledTestTypes.contains(TestType.PERFORMANCE)) {
+            phases.add(GenerationPhase.PERFORMANCE);
+        }
+        if (enabledTestTypes.contains(TestType.EDGE_CASE)) {
+            phases.add(GenerationPhase.EDGE_CASE);
+        }
+        if (enabledTestTypes.contains(TestType.NEGATIVE)) {
+            phases.add(GenerationPhase.NEGATIVE);
+        }
+
+        return phases;
+    }
 
-        if (configuration.getEnabledTestTypes().contains(TestType.EDGE_CASE)) {
-            testCases.addAll(edgeCaseTestGenerator.generateEdgeCaseTests(endpoint, analysis));
+    /**
+     * Runs one unit under its endpoint's deadline. If the endpoint's context ends part-way, the unit
+     * completes with the phases finished so far instead of failing outright.
+     */
+    private void runGenerationUnit(GenerationUnit unit, AdvancedStrategyRecommendation recommendation,
+                                   CancellationContext generationContext) {
+        long startNanos = System.nanoTime();
+        List<GeneratedTestCase> testCases = new ArrayList<>();
+        try (CancellationContext endpointContext = generationContext.child(
+                unit.getEndpoint().getMethod() + " " + unit.getEndpoint().getPath(), configuration.getEndpointTimeout())) {
+            for (GenerationPhase phase : unit.getPhases()) {
+                endpointContext.throwIfCancelled();
+                testCases.addAll(generatePhase(phase, unit.getEndpoint(), unit.getAnalysis(), endpointContext));
+            }
+            unit.complete(testCases, System.nanoTime() - startNanos);
+        } catch (CancellationException e) {
+            logger.warn("Generation of {} stopped after {} test cases: {}",
+                    unit.getEndpoint().getPath(), testCases.size(), e.getMessage());
+            unit.complete(testCases, System.nanoTime() - startNanos);
+        } catch (Exception e) {
+            logger.warn("Failed to generate {} test cases for {}", unit.getPhases(), unit.getEndpoint().getPath(), e);
+            unit.fail(System.nanoTime() - startNanos);
         }
+    }
 
-        if (configuration.getEnabledTestTypes().contains(TestType.NEGATIVE)) {
-            testCases.addAll(negativeTestGenerator.generateNegativeTests(endpoint, analysis));
+    /**
+     * Logs how close the run came to the best achievable wall time: the longer of the largest
+     * single unit and the total work divided evenly across workers.
+     */
+    private void logScheduleEfficiency(List<GenerationUnit> schedule, int workerCount, long elapsedNanos) {
+        if (!logger.isDebugEnabled() || schedule.isEmpty()) {
+            return;
         }
+        long totalNanos = schedule.stream().mapToLong(GenerationUnit::getDurationNanos).sum();
+        long longestNanos = schedule.stream().mapToLong(GenerationUnit::getDurationNanos).max().orElse(0);
+        long lowerBoundNanos = Math.max(longestNanos, totalNanos / Math.max(1, workerCount));
 
-        return testCases;
+        logger.debug("Generated {} units on {} workers in {}ms (lower bound {}ms)",
+                schedule.size(), workerCount,
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos), TimeUnit.NANOSECONDS.toMillis(lowerBoundNanos));
+    }
+
+    private List<GeneratedTestCase> generatePhase(GenerationPhase phase, EndpointInfo endpoint, EndpointAnalysis analysis,
+                                                  CancellationContext context) {
+        switch (phase) {
+            case AI:
+                // 1. AI-enhanced generation
+                return generateWithAI(endpoint, analysis, context);
+            case STRATEGIES:
+                // 2. Strategy-based generation
+                return generateWithStrategies(endpoint, analysis);
+            case COMPONENTS:
+                // 3. Parameter, body, response, constraint and complexity generators, run concurrently
+                return generatorRegistry.generate(endpoint).getTestCases();
+            case SECURITY:
+                return securityTestGenerator.generateSecurityTests(endpoint, analysis);
+            case PERFORMANCE:
+                return performanceTestGenerator.generatePerformanceTests(endpoint, analysis);
+            case EDGE_CASE:
+                return edgeCaseTestGenerator.generateEdgeCaseTests(endpoint, analysis);
+            case NEGATIVE:
+                return negativeTestGenerator.generateNegativeTests(endpoint, analysis);
+            default:
+                throw new IllegalStateException("Unknown generation phase: " + phase);
+        }
     }
 
     /**
      * Optimizes generated test cases
      */
     private List<GeneratedTestCase> optimizeGeneratedTestCases(List<GeneratedTestCase> testCases) {
-        return testCases.stream()
+        List<GeneratedTestCase> optimized = testCases.stream()
                 .map(testCase -> {
                     try {
                         return qualityAnalyzer.optimizeTestCase(testCase);
@@ -1358,6 +2148,11 @@ public class TestBuilder {
                     }
                 })
                 .collect(Collectors.toList());
+
+        // Near-duplicates keep only their highest-priority representative
+        List<GeneratedTestCase> deduplicated = testCaseDeduplicator.deduplicate(optimized);
+        logger.debug("Near-duplicate elimination: {} -> {} test cases", optimized.size(), deduplicated.size());
+        return deduplicated;
     }
 
     /**
@@ -1404,6 +2199,7 @@ public class TestBuilder {
                 .withExecutionId(configuration.getExecutionId())
                 .withGenerationTimestamp(Instant.now())
                 .withGenerationDuration(Duration.ofMillis(System.currentTimeMillis() - startTime))
+                .withAiUsage(getAiUsageReport())
                 .build();
     }
 
@@ -1433,6 +2229,7 @@ public class TestBuilder {
                 .withComplianceProfile(complianceProfile)
                 .withExecutionId(configuration.getExecutionId())
                 .withGenerationTimestamp(Instant.now())
+                .withAiUsage(getAiUsageReport())
                 .build();
     }
 
@@ -1481,20 +2278,45 @@ public class TestBuilder {
     }
 
     /**
-     * Creates OpenAI service adapter
+     * Creates OpenAI service adapter. Both the OpenAI library's client and the streaming client
+     * run on the runtime's shared HTTP connections; with connection prewarming on, the connections
+     * to the endpoints the adapter will call are opened while the builder starts.
      */
     private AiServiceAdapter createOpenAiAdapter(AiProvider provider) {
         try {
-            Dotenv dotenv = Dotenv.configure().ignoreIfMissing().load();
-            String apiKey = dotenv.get("OPENAI_API_KEY");
+            AiHttpClients httpClients = runtime.getAiHttpClients();
+            OkHttpClient httpClient = httpClients.client(configuration.getAiTimeout());
+
+            if (configuration.getAiBaseUrl() != null) {
+                prewarm(httpClients, configuration.getAiBaseUrl());
+                return new OpenAiServiceAdapter(null, provider, new OpenAiStreamingClient(httpClient,
+                        configuration.getAiBaseUrl(), configuration.getAiApiKey()));
+            }
 
-            if (apiKey == null || apiKey.trim().isEmpty()) {
+            AiHttpClients.Credentials credentials = httpClients.getCredentials();
+            String apiKey = credentials.get(AiHttpClients.Credentials.OPENAI_API_KEY);
+
+            if (apiKey == null) {
                 logger.warn("OpenAI API key not found");
                 return null;
             }
 
-            OpenAiService service = new OpenAiService(apiKey, configuration.getAiTimeout());
-            return new OpenAiServiceAdapter(service, provider);
+            // The library's default client brings the authentication; the connections are ours
+            OkHttpClient serviceClient = httpClients.share(OpenAiService.defaultClient(apiKey, configuration.getAiTimeout()));
+            Retrofit retrofit = OpenAiService.defaultRetrofit(serviceClient, OpenAiService.defaultObjectMapper());
+            OpenAiService service = new OpenAiService(retrofit.create(OpenAiApi.class));
+            String baseUrl = credentials.get(AiHttpClients.Credentials.OPENAI_BASE_URL);
+            baseUrl = baseUrl != null ? baseUrl : OpenAiStreamingClient.DEFAULT_BASE_URL;
+            OpenAiStreamingClient streamingClient = null;
+            if (configuration.isAiStreamingEnabled()) {
+                streamingClient = new OpenAiStreamingClient(httpClient, baseUrl, apiKey);
+            }
+            // The library always calls the default endpoint; the streaming client may be pointed elsewhere
+            prewarm(httpClients, OpenAiStreamingClient.DEFAULT_BASE_URL);
+            if (streamingClient != null) {
+                prewarm(httpClients, baseUrl);
+            }
+            return new OpenAiServiceAdapter(service, provider, streamingClient);
 
         } catch (Exception e) {
             logger.warn("Failed to create OpenAI adapter", e);
@@ -1502,25 +2324,69 @@ public class TestBuilder {
         }
     }
 
+    private void prewarm(AiHttpClients httpClients, String baseUrl) {
+        if (configuration.isAiConnectionPrewarmEnabled()) {
+            httpClients.prewarm(baseUrl);
+        }
+    }
+
+    /**
+     * Opens the persistent AI response cache, or returns null when it is disabled, no AI service is
+     * configured, or the directory cannot be used; generation then simply calls the providers.
+     */
+    private AiResponseCache openAiResponseCache() {
+        if (!configuration.isAiCacheEnabled() || aiServices.isEmpty()) {
+            return null;
+        }
+        try {
+            return AiResponseCache.open(configuration.getAiCacheDirectory(),
+                    configuration.getAiCacheTtl(), configuration.getAiCacheMaxBytes());
+        } catch (Exception e) {
+            logger.warn("AI response cache unavailable at {}, continuing without it",
+                    configuration.getAiCacheDirectory(), e);
+            return null;
+        }
+    }
+
     /**
      * Initializes monitoring and metrics collection
      */
     private void initializeMonitoring() {
         if (configuration.isAdvancedAnalyticsEnabled()) {
-            scheduledExecutor.scheduleAtFixedRate(this::collectMetrics, 0, 30, TimeUnit.SECONDS);
-            scheduledExecutor.scheduleAtFixedRate(this::performHealthCheck, 0, 60, TimeUnit.SECONDS);
-            scheduledExecutor.scheduleAtFixedRate(this::cleanupCaches, 0, 300, TimeUnit.SECONDS);
+            scheduledTasks.add(scheduledExecutor.scheduleAtFixedRate(this::collectMetrics, 0, 30, TimeUnit.SECONDS));
+            scheduledTasks.add(scheduledExecutor.scheduleAtFixedRate(this::performHealthCheck, 0, 60, TimeUnit.SECONDS));
+            scheduledTasks.add(scheduledExecutor.scheduleAtFixedRate(this::cleanupCaches, 0, 300, TimeUnit.SECONDS));
         }
     }
 
     /**
-     * Sets up shutdown hooks for graceful termination
+     * Opens a root context for one generation run; shutdown cancels it. A null timeout means no deadline.
      */
-    private void setupShutdownHooks() {
-        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+    private CancellationContext openRunContext(String name, Duration timeout) {
+        CancellationContext context = CancellationContext.withTimeout(name, timeout, scheduledExecutor);
+        activeRuns.add(context);
+        context.onCancel(() -> activeRuns.remove(context));
+        return context;
+    }
+
+    /**
+     * Registers graceful termination with the shared runtime's shutdown sequence
+     */
+    private SharedRuntime.ShutdownRegistration setupShutdownHooks() {
+        return runtime.registerShutdownTask("TestBuilder " + configuration.getExecutionId(), () -> {
             logger.info("TestBuilder shutdown initiated for executionId: {}", configuration.getExecutionId());
             performGracefulShutdown();
-        }));
+        });
+    }
+
+    /**
+     * Stops this builder's runs and periodic tasks and deregisters it from the shared runtime,
+     * which keeps serving other components.
+     */
+    @Override
+    public void close() {
+        shutdownRegistration.close();
+        performGracefulShutdown();
     }
 
     /**
@@ -1530,17 +2396,12 @@ public class TestBuilder {
         try {
             currentStatus.set(GenerationStatus.SHUTTING_DOWN);
 
-            // Shutdown executors
-            mainExecutor.shutdown();
-            scheduledExecutor.shutdown();
+            // Stop runs in progress, interrupting their AI calls and releasing their permits
+            activeRuns.forEach(run -> run.cancel("shutdown"));
 
-            // Wait for completion
-            if (!mainExecutor.awaitTermination(10, TimeUnit.SECONDS)) {
-                mainExecutor.shutdownNow();
-            }
-            if (!scheduledExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
-                scheduledExecutor.shutdownNow();
-            }
+            // Stop periodic tasks; the shared runtime drains and stops the executors themselves
+            scheduledTasks.forEach(task -> task.cancel(false));
+            scheduledTasks.clear();
 
             // Final metrics log
             logFinalMetrics();
@@ -1649,6 +2510,28 @@ public class TestBuilder {
             double hitRatio = (double) cacheHits.get() / totalCacheRequests * 100;
             logger.info("Cache hit ratio: {:.2f}%", hitRatio);
         }
+        aiOrchestrator.getConcurrencySnapshots().values()
+                .forEach(snapshot -> logger.info("AI concurrency: {}", snapshot));
+        aiOrchestrator.getQuotaSnapshots().values()
+                .forEach(snapshot -> logger.info("AI rate limit: {}", snapshot));
+        AiLatencyStatistics latency = getAiLatencyStatistics();
+        logger.info("AI endpoint latency ({} mode): {}", configuration.getAiEnsembleMode(), latency.getEndpointLatency());
+        latency.getProviderLatencies().values()
+                .forEach(snapshot -> logger.info("AI provider latency: {}", snapshot));
+        if (configuration.getAiEnsembleMode() != AiEnsembleMode.ALL) {
+            logger.info("AI hedged requests: {}, won by the hedge: {}, cancelled: {}",
+                    latency.getHedgedRequests(), latency.getHedgeWins(), latency.getCancelledRequests());
+        }
+        aiOrchestrator.getCircuitBreakerSnapshots().values()
+                .forEach(snapshot -> logger.info("AI circuit breaker: {}", snapshot));
+        if (!aiServices.isEmpty()) {
+            logger.info("AI connections: {}", runtime.getAiHttpClients().getSnapshot());
+        }
+        if (configuration.getAiRetryPolicy().isRetrying()) {
+            logger.info("AI retries ({}): {}", configuration.getAiRetryPolicy(), aiOrchestrator.getRetriedRequests());
+        }
+        logger.info("AI usage: {}", aiUsageLedger.getReport());
+        logger.info(generatorRegistry.formatMetricsReport());
     }
 
     /**
@@ -1698,9 +2581,17 @@ public class TestBuilder {
     }
 
     /**
-     * Gets configuration
+     * Registry of the component test case generators; generators registered here take part in
+     * every subsequent endpoint's generation.
      */
-    public TestBuilderConfiguration getConfiguration() {
+    public TestGeneratorRegistry getGeneratorRegistry() {
+        return generatorRegistry;
+    }
+
+    /**
+     * Gets configuration
+     */
+    public TestBuilderConfiguration getConfiguration() {
         return configuration;
     }
 
@@ -1717,6 +2608,59 @@ public class TestBuilder {
         );
     }
 
+    /**
+     * Current adaptive concurrency limit, calls in flight and queue depth of each AI provider
+     */
+    public Map<AiProvider, AdaptiveConcurrencyLimiter.Snapshot> getAiConcurrencyStatistics() {
+        return aiOrchestrator.getConcurrencySnapshots();
+    }
+
+    /**
+     * Requests-per-minute and tokens-per-minute buckets of each AI provider with a rate limit
+     */
+    public Map<AiProvider, AiQuotaLimiter.Snapshot> getAiRateLimitStatistics() {
+        return aiOrchestrator.getQuotaSnapshots();
+    }
+
+    /**
+     * State, failure and slow-call rates and rejected calls of each AI provider's circuit breaker;
+     * empty when the breakers are off
+     */
+    public Map<AiProvider, AiCircuitBreaker.Snapshot> getAiCircuitBreakerStatistics() {
+        return aiOrchestrator.getCircuitBreakerSnapshots();
+    }
+
+    /**
+     * AI calls sent again after failing, throttled or timed out
+     */
+    public long getAiRetriedRequests() {
+        return aiOrchestrator.getRetriedRequests();
+    }
+
+    /**
+     * Tokens and cost of this builder's AI calls so far, per provider, against its budget
+     */
+    public AiUsageLedger.Report getAiUsageReport() {
+        return aiUsageLedger.getReport();
+    }
+
+    /**
+     * Gets AI latency per endpoint, the number to watch when tuning the ensemble mode, and per
+     * provider call, with the hedging and racing counts
+     */
+    public AiLatencyStatistics getAiLatencyStatistics() {
+        return new AiLatencyStatistics(aiEndpointLatency.getSnapshot(), aiOrchestrator.getLatencySnapshots(),
+                aiOrchestrator.getHedgedRequests(), aiOrchestrator.getHedgeWins(), aiOrchestrator.getCancelledRequests());
+    }
+
+    /**
+     * Gets AI response cache statistics; all zero when the cache is disabled
+     */
+    public AiResponseCache.Statistics getAiResponseCacheStatistics() {
+        return aiResponseCache != null ? aiResponseCache.getStatistics()
+                : new AiResponseCache.Statistics(0, 0, 0, 0, 0, 0, 0);
+    }
+
     /**
      * Clears all caches
      */
@@ -1828,6 +2772,7 @@ public class TestBuilder {
 
     private Duration estimateExecutionDuration(List<GeneratedTestCase> testCases) {
         long totalSeconds = testCases.stream()
+                .filter(tc -> tc.getEstimatedDuration() != null)
                 .mapToLong(tc -> tc.getEstimatedDuration().getSeconds())
                 .sum();
         return Duration.ofSeconds(totalSeconds);
@@ -1954,29 +2899,20 @@ public class TestBuilder {
                 .build();
     }
 
-    private List<GeneratedTestCase> processAiResult(EndpointInfo endpoint, AiGenerationResult result) {
+    /**
+     * One test case per code block of the response, numbered on from {@code previousTests}.
+     */
+    private List<GeneratedTestCase> processAiResult(EndpointInfo endpoint, AiGenerationResult result,
+                                                    int previousTests) {
         List<GeneratedTestCase> testCases = new ArrayList<>();
 
         try {
-            String cleanCode = result.getGeneratedCode()
-                    .replaceAll("```java", "")
-                    .replaceAll("```", "")
-                    .trim();
-
-            GeneratedTestCase testCase = GeneratedTestCase.builder()
-                    .withTestId("ai_generated_" + sanitizeMethodName(endpoint.getOperationId()))
-                    .withTestName("AI Generated: " + endpoint.getOperationId())
-                    .withDescription("AI-generated comprehensive test")
-                    .withTestCode(formatAiGeneratedTest(endpoint, cleanCode))
-                    .withPriority(2)
-                    .withEstimatedDuration(Duration.ofMinutes(2))
-                    .withComplexity(3)
-                    .withTags(Set.of("ai-generated", "comprehensive"))
-                    .withGenerationTimestamp(Instant.now())
-                    .build();
-
-            testCases.add(testCase);
-
+            for (String code : AiCodeBlockExtractor.extract(result.getGeneratedCode())) {
+                GeneratedTestCase testCase = createAiTestCase(endpoint, code, previousTests + testCases.size() + 1);
+                if (testCase != null) {
+                    testCases.add(testCase);
+                }
+            }
         } catch (Exception e) {
             logger.warn("Failed to process AI result for {}", endpoint.getPath(), e);
         }
@@ -1984,7 +2920,30 @@ public class TestBuilder {
         return testCases;
     }
 
-    private String formatAiGeneratedTest(EndpointInfo endpoint, String aiCode) {
+    /**
+     * Test case for one AI-generated code block, or null if the block is not whole code. The
+     * first test of an endpoint keeps the plain name; later ones are numbered.
+     */
+    private GeneratedTestCase createAiTestCase(EndpointInfo endpoint, String code, int ordinal) {
+        if (!AiCodeBlockExtractor.hasBalancedDelimiters(code)) {
+            logger.debug("Dropped AI test {} for {}: unbalanced code block", ordinal, endpoint.getPath());
+            return null;
+        }
+        String suffix = ordinal > 1 ? "_" + ordinal : "";
+        return GeneratedTestCase.builder()
+                .withTestId("ai_generated_" + sanitizeMethodName(endpoint.getOperationId()) + suffix)
+                .withTestName("AI Generated: " + endpoint.getOperationId() + (ordinal > 1 ? " #" + ordinal : ""))
+                .withDescription("AI-generated comprehensive test")
+                .withTestCode(formatAiGeneratedTest(endpoint, code, suffix))
+                .withPriority(2)
+                .withEstimatedDuration(Duration.ofMinutes(2))
+                .withComplexity(3)
+                .withTags(Set.of("ai-generated", "comprehensive"))
+                .withGenerationTimestamp(Instant.now())
+                .build();
+    }
+
+    private String formatAiGeneratedTest(EndpointInfo endpoint, String aiCode, String methodSuffix) {
         StringBuilder formatted = new StringBuilder();
 
         formatted.append("    /**\n");
@@ -1995,7 +2954,7 @@ public class TestBuilder {
         formatted.append("     */\n");
         formatted.append("    @Test\n");
         formatted.append("    @DisplayName(\"AI Generated: ").append(endpoint.getOperationId()).append("\")\n");
-        formatted.append("    public void testAiGenerated").append(sanitizeMethodName(endpoint.getOperationId())).append("() {\n");
+        formatted.append("    public void testAiGenerated").append(sanitizeMethodName(endpoint.getOperationId())).append(methodSuffix).append("() {\n");
         formatted.append("        logger.info(\"=== AI Generated Test: ").append(endpoint.getMethod().toUpperCase()).append(" ").append(endpoint.getPath()).append(" ===\");\n\n");
 
         // Process and indent AI code
@@ -2043,7 +3002,9 @@ public class TestBuilder {
     }
 
     private AiServiceAdapter createLocalModelAdapter(AiProvider provider) {
-        return null; // Placeholder - would implement local model integration
+        Object latency = configuration.getCustomProperties().get(LOCAL_MODEL_LATENCY_PROPERTY);
+        return new LocalModelAdapter(provider,
+                latency != null ? Duration.ofMillis(Long.parseLong(String.valueOf(latency))) : Duration.ZERO);
     }
 
     // ===== INNER CLASSES AND SUPPORTING TYPES =====
@@ -2163,6 +3124,35 @@ public class TestBuilder {
         }
     }
 
+    /**
+     * AI latency of endpoints and of provider calls. Hedged requests are the duplicates sent
+     * because a provider was slow; cancelled requests are calls abandoned once another provider
+     * had answered.
+     */
+    public static class AiLatencyStatistics {
+        private final LatencyTracker.Snapshot endpointLatency;
+        private final Map<AiProvider, LatencyTracker.Snapshot> providerLatencies;
+        private final long hedgedRequests;
+        private final long hedgeWins;
+        private final long cancelledRequests;
+
+        public AiLatencyStatistics(LatencyTracker.Snapshot endpointLatency,
+                                   Map<AiProvider, LatencyTracker.Snapshot> providerLatencies,
+                                   long hedgedRequests, long hedgeWins, long cancelledRequests) {
+            this.endpointLatency = endpointLatency;
+            this.providerLatencies = Collections.unmodifiableMap(new EnumMap<>(providerLatencies));
+            this.hedgedRequests = hedgedRequests;
+            this.hedgeWins = hedgeWins;
+            this.cancelledRequests = cancelledRequests;
+        }
+
+        public LatencyTracker.Snapshot getEndpointLatency() { return endpointLatency; }
+        public Map<AiProvider, LatencyTracker.Snapshot> getProviderLatencies() { return providerLatencies; }
+        public long getHedgedRequests() { return hedgedRequests; }
+        public long getHedgeWins() { return hedgeWins; }
+        public long getCancelledRequests() { return cancelledRequests; }
+    }
+
     // ===== PLACEHOLDER CLASSES FOR COMPLETE IMPLEMENTATION =====
 
     // All the supporting classes would be implemented here in a real system
@@ -2188,6 +3178,60 @@ public class TestBuilder {
         public long getTimestamp() { return timestamp; }
     }
 
+    /**
+     * Generation phases for one endpoint, in output order. The weight scales the endpoint's base
+     * cost; an AI call dwarfs the local generators.
+     */
+    private enum GenerationPhase {
+        AI(20), STRATEGIES(2), COMPONENTS(3), SECURITY(1), PERFORMANCE(1), EDGE_CASE(1), NEGATIVE(1);
+
+        private final int costWeight;
+
+        GenerationPhase(int costWeight) {
+            this.costWeight = costWeight;
+        }
+
+        public int getCostWeight() { return costWeight; }
+    }
+
+    /**
+     * One schedulable piece of an endpoint's generation: either all of its phases or a single one.
+     */
+    private static class GenerationUnit {
+        private final EndpointInfo endpoint;
+        private final EndpointAnalysis analysis;
+        private final List<GenerationPhase> phases;
+        private final long estimatedCost;
+        private volatile List<GeneratedTestCase> result;
+        private volatile boolean failed;
+        private volatile long durationNanos;
+
+        GenerationUnit(EndpointInfo endpoint, EndpointAnalysis analysis, List<GenerationPhase> phases, long estimatedCost) {
+            this.endpoint = endpoint;
+            this.analysis = analysis;
+            this.phases = phases;
+            this.estimatedCost = estimatedCost;
+        }
+
+        void complete(List<GeneratedTestCase> testCases, long durationNanos) {
+            this.durationNanos = durationNanos;
+            this.result = testCases;
+        }
+
+        void fail(long durationNanos) {
+            this.durationNanos = durationNanos;
+            this.failed = true;
+        }
+
+        public EndpointInfo getEndpoint() { return endpoint; }
+        public EndpointAnalysis getAnalysis() { return analysis; }
+        public List<GenerationPhase> getPhases() { return phases; }
+        public long getEstimatedCost() { return estimatedCost; }
+        public List<GeneratedTestCase> getResult() { return result; }
+        public boolean isFailed() { return failed; }
+        public long getDurationNanos() { return durationNanos; }
+    }
+
     // Placeholder analysis classes
     private static class EndpointAnalysis {
         private final EndpointInfo endpoint;
@@ -2269,14 +3313,562 @@ public class TestBuilder {
         public void updateEffectiveness(ComprehensiveTestSuite result) {}
     }
 
-    private static class AiOrchestrator {
-        public AiOrchestrator(Map<AiProvider, AiServiceAdapter> services, TestBuilderConfiguration config) {}
-        public List<AiGenerationResult> generateWithEnsemble(AiTestGenerationRequest request) { return new ArrayList<>(); }
+    /**
+     * Sends a request to every available provider. Successful responses are stored in the AI
+     * response cache, keyed by what the provider is actually sent, and served from it on later runs.
+     * Calls to each provider are bounded by that provider's adaptive concurrency limiter, which
+     * learns from the outcome of every call, and by its requests and tokens per minute where a rate
+     * limit is configured. Every call is charged to the run's usage ledger, and refused once the
+     * ledger's budget is exhausted.
+     */
+    static class AiOrchestrator {
+        private static final Pattern BATCH_SECTION =
+                Pattern.compile("=== ENDPOINT (\\d+) BEGIN ===(.*?)=== ENDPOINT \\1 END ===", Pattern.DOTALL);
+
+        private final Map<AiProvider, AiServiceAdapter> services;
+        private final AiResponseCache cache;
+        private final AiUsageLedger usage;
+        private final Map<AiProvider, AdaptiveConcurrencyLimiter> limiters = new EnumMap<>(AiProvider.class);
+        private final Map<AiProvider, AiQuotaLimiter> quotas = new EnumMap<>(AiProvider.class);
+        private final Map<AiProvider, LatencyTracker> latencies = new EnumMap<>(AiProvider.class);
+        private final Map<AiProvider, AiCircuitBreaker> breakers = new EnumMap<>(AiProvider.class);
+        private final AiRetryPolicy retryPolicy;
+        private final AiEnsembleMode mode;
+        private final ExecutorService executor;
+        private final AtomicLong hedgedRequests = new AtomicLong();
+        private final AtomicLong hedgeWins = new AtomicLong();
+        private final AtomicLong cancelledRequests = new AtomicLong();
+        private final AtomicLong retriedRequests = new AtomicLong();
+
+        /**
+         * @param transitionListener told of every circuit breaker transition; may be null
+         */
+        public AiOrchestrator(Map<AiProvider, AiServiceAdapter> services, AiResponseCache cache,
+                              AiUsageLedger usage, TestBuilderConfiguration config, ExecutorService executor,
+                              Consumer<AiCircuitBreaker.Transition> transitionListener) {
+            this.services = services;
+            this.cache = cache;
+            this.usage = usage;
+            this.mode = config.getAiEnsembleMode();
+            this.retryPolicy = config.getAiRetryPolicy();
+            this.executor = executor;
+            services.keySet().forEach(provider -> limiters.put(provider, new AdaptiveConcurrencyLimiter(
+                    provider.getDisplayName(), INITIAL_AI_CONCURRENCY_LIMIT, 1, MAX_AI_CONCURRENCY_LIMIT)));
+            services.keySet().forEach(provider -> latencies.put(provider, new LatencyTracker(provider.getDisplayName())));
+            if (config.isAiCircuitBreakerEnabled()) {
+                services.keySet().forEach(provider -> {
+                    AiCircuitBreaker breaker = new AiCircuitBreaker(provider.getDisplayName(), config.getAiCircuitBreaker());
+                    if (transitionListener != null) {
+                        breaker.addListener(transitionListener);
+                    }
+                    breakers.put(provider, breaker);
+                });
+            }
+            config.getAiRateLimits().forEach((provider, quota) -> {
+                if (services.containsKey(provider)) {
+                    quotas.put(provider, new AiQuotaLimiter(provider.getDisplayName(), quota));
+                }
+            });
+        }
+
+        public Map<AiProvider, AiQuotaLimiter.Snapshot> getQuotaSnapshots() {
+            Map<AiProvider, AiQuotaLimiter.Snapshot> snapshots = new EnumMap<>(AiProvider.class);
+            quotas.forEach((provider, quota) -> snapshots.put(provider, quota.getSnapshot()));
+            return snapshots;
+        }
+
+        public Map<AiProvider, AdaptiveConcurrencyLimiter.Snapshot> getConcurrencySnapshots() {
+            Map<AiProvider, AdaptiveConcurrencyLimiter.Snapshot> snapshots = new EnumMap<>(AiProvider.class);
+            limiters.forEach((provider, limiter) -> snapshots.put(provider, limiter.getSnapshot()));
+            return snapshots;
+        }
+
+        public Map<AiProvider, LatencyTracker.Snapshot> getLatencySnapshots() {
+            Map<AiProvider, LatencyTracker.Snapshot> snapshots = new EnumMap<>(AiProvider.class);
+            latencies.forEach((provider, latency) -> snapshots.put(provider, latency.getSnapshot()));
+            return snapshots;
+        }
+
+        public Map<AiProvider, AiCircuitBreaker.Snapshot> getCircuitBreakerSnapshots() {
+            Map<AiProvider, AiCircuitBreaker.Snapshot> snapshots = new EnumMap<>(AiProvider.class);
+            breakers.forEach((provider, breaker) -> snapshots.put(provider, breaker.getSnapshot()));
+            return snapshots;
+        }
+
+        public long getHedgedRequests() { return hedgedRequests.get(); }
+        public long getHedgeWins() { return hedgeWins.get(); }
+        public long getCancelledRequests() { return cancelledRequests.get(); }
+        public long getRetriedRequests() { return retriedRequests.get(); }
+
+        private boolean isCallPermitted(AiProvider provider) {
+            AiCircuitBreaker breaker = breakers.get(provider);
+            return breaker == null || breaker.isCallPermitted();
+        }
+
+        /**
+         * Whether an available provider not in {@code skip} would be called now, rather than
+         * rejected by its open circuit breaker.
+         */
+        public boolean hasCallableProvider(Set<AiProvider> skip) {
+            return services.values().stream().anyMatch(adapter -> adapter.isAvailable()
+                    && !skip.contains(adapter.getProvider()) && isCallPermitted(adapter.getProvider()));
+        }
+
+        public boolean isRacing() {
+            return mode != AiEnsembleMode.ALL;
+        }
+
+        /**
+         * Whether a result is good enough to use, and so ends a race
+         */
+        static boolean isAcceptable(AiGenerationResult result) {
+            return result.isSuccess() && result.getConfidence() >= DEFAULT_AI_CONFIDENCE_THRESHOLD;
+        }
+
+        public int getAvailableProviderCount() {
+            return (int) services.values().stream().filter(AiServiceAdapter::isAvailable).count();
+        }
+
+        /**
+         * Cached results by provider, for the available providers that have one.
+         */
+        public Map<AiProvider, AiGenerationResult> getCachedResults(AiTestGenerationRequest request) {
+            if (cache == null) {
+                return Collections.emptyMap();
+            }
+            Map<AiProvider, AiGenerationResult> cached = new EnumMap<>(AiProvider.class);
+            for (AiServiceAdapter adapter : services.values()) {
+                if (adapter.isAvailable()) {
+                    cache.get(cacheKey(adapter, request)).ifPresent(response -> {
+                        cached.put(adapter.getProvider(),
+                                new AiGenerationResult(true, response, adapter.getProvider().getQualityScore(), null));
+                        usage.recordCacheHit(adapter.getProvider().getDisplayName());
+                    });
+                }
+            }
+            return cached;
+        }
+
+        /**
+         * Results of the available providers not in {@code skip}, caching the successful ones.
+         * Providers that stream hand their text to {@code listener} as it arrives; a null listener
+         * waits for complete responses.
+         *
+         * When racing or hedging, only providers whose answers can be accepted are asked, and the
+         * result is the first acceptable one alone, or every unacceptable one if none was. Providers
+         * whose circuit breaker is open are not asked at all.
+         *
+         * @throws CancellationException if the context ends while waiting for a provider's permit
+         */
+        public List<AiGenerationResult> generateWithEnsemble(AiTestGenerationRequest request, Set<AiProvider> skip,
+                                                             CancellationContext context, AiStreamListener listener) {
+            List<AiServiceAdapter> adapters = new ArrayList<>();
+            for (AiServiceAdapter adapter : services.values()) {
+                if (adapter.isAvailable() && !skip.contains(adapter.getProvider()) && isCallPermitted(adapter.getProvider())
+                        && (mode == AiEnsembleMode.ALL || adapter.getProvider().getQualityScore() >= DEFAULT_AI_CONFIDENCE_THRESHOLD)) {
+                    adapters.add(adapter);
+                }
+            }
+            if (mode == AiEnsembleMode.ALL || adapters.size() <= 1) {
+                List<AiGenerationResult> results = new ArrayList<>();
+                for (AiServiceAdapter adapter : adapters) {
+                    results.add(generate(adapter, request, context, listener));
+                }
+                return results;
+            }
+            // Most capable first: it is the one hedging waits for
+            adapters.sort(Comparator.comparingDouble((AiServiceAdapter adapter) -> adapter.getProvider().getQualityScore())
+                    .reversed());
+            return race(adapters, request, context, listener);
+        }
+
+        /**
+         * Runs the providers' calls concurrently until one is acceptable, cancelling the others. A
+         * race starts every call at once; a hedged race starts the next call when the latest one
+         * has run for its provider's p95 latency, or has failed. Until a provider has been timed
+         * often enough, it is not hedged on a timer, only on failure.
+         */
+        private List<AiGenerationResult> race(List<AiServiceAdapter> adapters, AiTestGenerationRequest request,
+                                              CancellationContext context, AiStreamListener listener) {
+            CompletionService<AiGenerationResult> completions = new ExecutorCompletionService<>(executor);
+            Map<Future<AiGenerationResult>, CancellationContext> running = new HashMap<>();
+            Map<Future<AiGenerationResult>, AiProvider> callers = new HashMap<>();
+            List<AiGenerationResult> rejected = new ArrayList<>();
+            Future<AiGenerationResult> primary = null;
+            int launched = 0;
+            long hedgeAtNanos = 0;
+            boolean hedgeTimed = false;
+
+            try (CancellationContext.Registration ignored = context.interruptOnCancel()) {
+                while (true) {
+                    context.throwIfCancelled();
+                    boolean startNext = launched < adapters.size()
+                            && (mode == AiEnsembleMode.RACE || running.isEmpty()
+                                || (hedgeTimed && System.nanoTime() - hedgeAtNanos >= 0));
+                    if (startNext) {
+                        AiServiceAdapter adapter = adapters.get(launched++);
+                        CancellationContext callContext = context.child("AI " + adapter.getProvider().getDisplayName());
+                        Future<AiGenerationResult> call = completions.submit(
+                                () -> generate(adapter, request, callContext, listener));
+                        running.put(call, callContext);
+                        callers.put(call, adapter.getProvider());
+                        if (primary == null) {
+                            primary = call;
+                        } else if (mode == AiEnsembleMode.HEDGED) {
+                            hedgedRequests.incrementAndGet();
+                        }
+                        Duration hedgeDelay = latencies.get(adapter.getProvider()).percentile(AI_HEDGE_QUANTILE, MIN_AI_HEDGE_SAMPLES);
+                        hedgeTimed = hedgeDelay != null;
+                        hedgeAtNanos = hedgeTimed ? System.nanoTime() + hedgeDelay.toNanos() : 0;
+                        continue;
+                    }
+                    if (running.isEmpty()) {
+                        return rejected;
+                    }
+
+                    Future<AiGenerationResult> done;
+                    if (mode == AiEnsembleMode.HEDGED && hedgeTimed && launched < adapters.size()) {
+                        done = completions.poll(Math.max(0L, hedgeAtNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+                    } else {
+                        done = completions.take();
+                    }
+                    if (done == null) {
+                        continue;
+                    }
+                    running.remove(done).close();
+                    AiGenerationResult result = outcome(done, context);
+                    if (isAcceptable(result)) {
+                        if (mode == AiEnsembleMode.HEDGED && done != primary) {
+                            hedgeWins.incrementAndGet();
+                        }
+                        if (listener != null) {
+                            listener.onAccepted(callers.get(done));
+                        }
+                        return List.of(result);
+                    }
+                    // With no call left running, the next provider is asked at once
+                    rejected.add(result);
+                }
+            } catch (InterruptedException e) {
+                context.throwIfCancelled();
+                Thread.currentThread().interrupt();
+                throw new CancellationException(context.getName() + ": interrupted");
+            } finally {
+                // The losers, or every call if the context ended first
+                running.forEach((call, callContext) -> {
+                    callContext.cancel("another AI provider answered first");
+                    call.cancel(true);
+                    callContext.close();
+                });
+                cancelledRequests.addAndGet(running.size());
+            }
+        }
+
+        private static AiGenerationResult outcome(Future<AiGenerationResult> call, CancellationContext context) {
+            try {
+                return call.get();
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof CancellationException) {
+                    // The call's context ended; with it still running, that was the caller's deadline
+                    context.throwIfCancelled();
+                }
+                return AiGenerationResult.failed(e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException(context.getName() + ": interrupted");
+            }
+        }
+
+        /**
+         * Sends the requests as one batch request to each available provider and splits the reply
+         * back into results per request. Requests whose section is missing from the reply, or all
+         * of them if it cannot be parsed at all, are sent again on their own.
+         */
+        public Map<AiTestGenerationRequest, List<AiGenerationResult>> generateBatch(List<AiTestGenerationRequest> requests,
+                                                                                   CancellationContext context) {
+            Map<AiTestGenerationRequest, List<AiGenerationResult>> results = new LinkedHashMap<>();
+            requests.forEach(request -> results.put(request, new ArrayList<>()));
+            AiTestGenerationRequest batch = AiTestGenerationRequest.batchOf(requests);
+
+            for (AiServiceAdapter adapter : services.values()) {
+                if (!adapter.isAvailable()) {
+                    continue;
+                }
+                AiGenerationResult reply = call(adapter, batch, context, null);
+                if (!reply.isSuccess()) {
+                    // The provider failed, not the format; sending each request again would fail too
+                    requests.forEach(request -> results.get(request).add(reply));
+                    continue;
+                }
+
+                Map<Integer, String> sections = parseBatchSections(reply.getGeneratedCode());
+                int fallbacks = 0;
+                for (int i = 0; i < requests.size(); i++) {
+                    AiTestGenerationRequest request = requests.get(i);
+                    String section = sections.get(i + 1);
+                    if (section == null || section.isBlank()) {
+                        results.get(request).add(generate(adapter, request, context, null));
+                        fallbacks++;
+                        continue;
+                    }
+                    AiGenerationResult result = new AiGenerationResult(true, section, reply.getConfidence(), null);
+                    store(adapter, request, result);
+                    results.get(request).add(result);
+                }
+                if (fallbacks > 0) {
+                    logger.debug("{} of {} batched requests sent again singly to {}: batch reply had no section for them",
+                            fallbacks, requests.size(), adapter.getProvider().getDisplayName());
+                }
+            }
+            return results;
+        }
+
+        private AiGenerationResult generate(AiServiceAdapter adapter, AiTestGenerationRequest request,
+                                            CancellationContext context, AiStreamListener listener) {
+            AiProvider provider = adapter.getProvider();
+            AiGenerationResult result = call(adapter, request, context,
+                    listener != null ? text -> listener.onText(provider, text) : null);
+            if (result.isStreamed()) {
+                listener.onComplete(provider, result.isSuccess());
+            }
+            store(adapter, request, result);
+            return result;
+        }
+
+        /**
+         * Calls the provider through its circuit breaker, sending the request again while it fails
+         * in ways a later attempt may not: throttled, timed out or with an error. Attempts are spaced
+         * by the retry policy, and stop once the breaker opens, the wait would outlast the context's
+         * deadline, or a streamed reply has started to arrive, since its text cannot be taken back.
+         * An open breaker fails the call at once.
+         *
+         * @throws CancellationException if the context ends while waiting to send it again
+         */
+        private AiGenerationResult call(AiServiceAdapter adapter, AiTestGenerationRequest request,
+                                        CancellationContext context, Consumer<String> onText) {
+            AiProvider provider = adapter.getProvider();
+            AiCircuitBreaker breaker = breakers.get(provider);
+            AtomicBoolean delivered = new AtomicBoolean();
+            Consumer<String> tracked = onText == null ? null : text -> {
+                delivered.set(true);
+                onText.accept(text);
+            };
+
+            AiGenerationResult result = null;
+            for (int attempt = 1; ; attempt++) {
+                AiCircuitBreaker.Permit admission = breaker != null ? breaker.tryAcquire() : null;
+                if (breaker != null && admission == null) {
+                    // A retry keeps the failure that led to it
+                    return result != null ? result : new AiGenerationResult(false, null, 0.0,
+                            provider.getDisplayName() + " circuit open", AiFailure.CIRCUIT_OPEN);
+                }
+                if (attempt > 1) {
+                    retriedRequests.incrementAndGet();
+                }
+                result = attempt(adapter, request, context, tracked, admission);
+                if (result.isSuccess() || !result.getFailure().isRetryable() || delivered.get()
+                        || attempt >= retryPolicy.getMaxAttempts()) {
+                    return result;
+                }
+
+                Duration delay = retryPolicy.delay(attempt, result.getRetryAfter());
+                Duration remaining = context.getRemaining();
+                if (remaining != null && remaining.compareTo(delay) <= 0) {
+                    return result;
+                }
+                logger.debug("Retrying {} in {}ms after attempt {} failed: {}", provider.getDisplayName(),
+                        delay.toMillis(), attempt, result.getErrorMessage());
+                try (CancellationContext.Registration ignored = context.interruptOnCancel()) {
+                    TimeUnit.NANOSECONDS.sleep(delay.toNanos());
+                } catch (InterruptedException e) {
+                    context.throwIfCancelled();
+                    Thread.currentThread().interrupt();
+                    throw new CancellationException(context.getName() + ": interrupted");
+                }
+            }
+        }
+
+        /**
+         * Sends the request once the run's budget, the provider's rate limit and a permit of its
+         * concurrency limiter allow it, in that order, and reports how the call went: throttling and
+         * timeouts lower the provider's limit, while other failures and calls cancelled before their
+         * deadline say nothing about its load. The breaker counts the provider's failures, and a
+         * call still running at the deadline, as failures, but not a request the provider rejected
+         * on its own merits. The call is charged with the usage the provider reports, or with our
+         * estimate when it reports none; a reply cancelled while streaming is charged for the
+         * tokens streamed until then.
+         */
+        private AiGenerationResult attempt(AiServiceAdapter adapter, AiTestGenerationRequest request,
+                                           CancellationContext context, Consumer<String> onText,
+                                           AiCircuitBreaker.Permit admission) {
+            AiProvider provider = adapter.getProvider();
+            long promptTokens = TokenEstimator.estimate(adapter.getSystemPrompt()) + request.estimatePromptTokens();
+            long requestTokens = promptTokens + request.getMaxTokens();
+            AiUsageLedger.Reservation budget = usage.reserve(provider.getDisplayName(), requestTokens,
+                    provider.estimateCost(promptTokens, request.getMaxTokens()));
+            if (budget == null) {
+                if (admission != null) {
+                    admission.onIgnore();
+                }
+                return new AiGenerationResult(false, null, 0.0, "AI budget exhausted", AiFailure.BUDGET_EXHAUSTED);
+            }
+
+            AiQuotaLimiter quota = quotas.get(provider);
+            AiQuotaLimiter.Reservation window = null;
+            AdaptiveConcurrencyLimiter.Permit permit = null;
+            AiGenerationResult result = null;
+            String streamedText = null;
+            boolean sent = false;
+            long started = 0;
+            try {
+                window = quota != null ? quota.acquire(context, requestTokens) : null;
+                permit = limiters.get(provider).acquire(context);
+                sent = true;
+                started = System.nanoTime();
+                try {
+                    result = adapter.generateTest(request, context, onText);
+                } catch (OpenAiStreamingClient.StreamCancelledException e) {
+                    streamedText = e.getStreamedText();
+                    throw e;
+                } finally {
+                    // A call cancelled by a faster provider took at least this long; leaving it
+                    // out would hide the slow tail that hedging is timed against
+                    boolean timed = context.isCancelled() || (result != null && result.isSuccess());
+                    if (timed && !request.isBatch()) {
+                        latencies.get(provider).recordNanos(System.nanoTime() - started);
+                    }
+                }
+                // A call the caller or a faster provider cancelled says nothing about load, whatever
+                // the adapter made of the interruption; only the deadline passing counts as a timeout
+                if (result.isSuccess()) {
+                    permit.onSuccess();
+                } else if (result.getFailure() == AiFailure.THROTTLED
+                        || (result.getFailure() == AiFailure.TIMEOUT && !isCancelledByCaller(context))
+                        || context.isDeadlineExceeded()) {
+                    permit.onDropped();
+                }
+                if (result.getFailure() == AiFailure.THROTTLED && quota != null) {
+                    quota.onThrottled();
+                }
+                return result;
+            } finally {
+                if (permit != null) {
+                    // Cancelled, or failed for reasons unrelated to load
+                    permit.onIgnore();
+                }
+                if (streamedText != null) {
+                    chargeCancelledStream(provider, streamedText, promptTokens, budget, window);
+                } else if (result == null) {
+                    // Never sent: the budget and the quota are returned
+                    budget.release();
+                    if (window != null) {
+                        window.cancel();
+                    }
+                } else {
+                    charge(provider, result, promptTokens, budget, window);
+                }
+                if (admission != null) {
+                    long elapsed = sent ? System.nanoTime() - started : 0;
+                    if (result != null && result.isSuccess()) {
+                        admission.onSuccess(elapsed);
+                    } else if (!isCancelledByCaller(context) && ((result != null && result.getFailure().isProviderFault())
+                            || (result == null && sent && context.isDeadlineExceeded()))) {
+                        admission.onFailure(elapsed);
+                    } else {
+                        // Never sent, or cancelled by the caller or a faster provider
+                        admission.onIgnore();
+                    }
+                }
+            }
+        }
+
+        /**
+         * Cancelled by the caller or a faster provider, as opposed to by the deadline passing.
+         */
+        private static boolean isCancelledByCaller(CancellationContext context) {
+            return context.isCancelled() && !context.isDeadlineExceeded();
+        }
+
+        private static void charge(AiProvider provider, AiGenerationResult result, long estimatedPromptTokens,
+                                   AiUsageLedger.Reservation budget, AiQuotaLimiter.Reservation window) {
+            boolean reported = result.getPromptTokens() >= 0 && result.getCompletionTokens() >= 0;
+            long promptTokens = estimatedPromptTokens;
+            long completionTokens = 0;
+            if (reported) {
+                promptTokens = result.getPromptTokens();
+                completionTokens = result.getCompletionTokens();
+            } else if (result.isSuccess()) {
+                completionTokens = TokenEstimator.estimate(result.getGeneratedCode());
+            } else {
+                // A failed call without reported usage is not billed
+                promptTokens = 0;
+            }
+            budget.complete(result.isSuccess(), promptTokens, completionTokens,
+                    provider.estimateCost(promptTokens, completionTokens), !reported && result.isSuccess());
+            if (window != null) {
+                window.reconcile(promptTokens + completionTokens);
+            }
+        }
+
+        /**
+         * A reply cancelled while streaming was still generated up to that point: the provider bills
+         * the prompt and the completion tokens streamed so far, so they are charged rather than returned.
+         */
+        private static void chargeCancelledStream(AiProvider provider, String streamedText, long estimatedPromptTokens,
+                                                  AiUsageLedger.Reservation budget, AiQuotaLimiter.Reservation window) {
+            long completionTokens = TokenEstimator.estimate(streamedText);
+            budget.complete(false, estimatedPromptTokens, completionTokens,
+                    provider.estimateCost(estimatedPromptTokens, completionTokens), true);
+            if (window != null) {
+                window.reconcile(estimatedPromptTokens + completionTokens);
+            }
+        }
+
+        private void store(AiServiceAdapter adapter, AiTestGenerationRequest request, AiGenerationResult result) {
+            if (cache != null && result.isSuccess() && result.getGeneratedCode() != null
+                    && !result.getGeneratedCode().isBlank()) {
+                cache.put(cacheKey(adapter, request), result.getGeneratedCode());
+            }
+        }
+
+        /**
+         * Sections of a batch reply by endpoint number; text outside the sections is ignored.
+         */
+        static Map<Integer, String> parseBatchSections(String reply) {
+            Map<Integer, String> sections = new HashMap<>();
+            if (reply == null) {
+                return sections;
+            }
+            Matcher matcher = BATCH_SECTION.matcher(reply);
+            while (matcher.find()) {
+                sections.putIfAbsent(Integer.valueOf(matcher.group(1)), matcher.group(2).trim());
+            }
+            return sections;
+        }
+
+        private static String cacheKey(AiServiceAdapter adapter, AiTestGenerationRequest request) {
+            AiProvider provider = adapter.getProvider();
+            return AiResponseCache.key(provider.name(), provider.getModelName(),
+                    adapter.getSystemPrompt() + "\n\n" + request.getPrompt(),
+                    request.getMaxTokens(), request.getTemperature());
+        }
     }
 
+    /**
+     * Writes the endpoint's schema context for the prompt, compacted for the enabled test types.
+     */
     private static class PromptEngineeringService {
-        public PromptEngineeringService(TestBuilderConfiguration config) {}
-        public String createPromptTemplate(EndpointInfo endpoint, EndpointAnalysis analysis) { return ""; }
+        private final PromptContextCompactor compactor;
+
+        public PromptEngineeringService(TestBuilderConfiguration config) {
+            this.compactor = new PromptContextCompactor(config.getEnabledTestTypes(), config.getAiPromptTokenBudget());
+        }
+
+        public PromptContextCompactor.Result createPromptTemplate(EndpointInfo endpoint, EndpointAnalysis analysis) {
+            boolean securitySensitive = analysis.getSecurityRiskLevel() == SecurityRiskLevel.HIGH
+                    || analysis.getSecurityRiskLevel() == SecurityRiskLevel.CRITICAL;
+            return compactor.compact(endpoint, securitySensitive);
+        }
     }
 
     private static class TestStrategyManager {
@@ -2309,26 +3901,57 @@ public class TestBuilder {
     }
 
     // AI Integration classes
+
+    /**
+     * Receives the text of streamed responses as it arrives, per provider, and the end of each.
+     * When providers race, it is also told which one won.
+     */
+    private interface AiStreamListener {
+        void onText(AiProvider provider, String text);
+        void onComplete(AiProvider provider, boolean success);
+        void onAccepted(AiProvider provider);
+    }
+
     private interface AiServiceAdapter {
-        AiGenerationResult generateTest(AiTestGenerationRequest request);
+        /**
+         * Generates tests for the request. An adapter that can stream hands the response text to
+         * {@code onText} as it arrives and marks its result as streamed; {@code onText} is null when
+         * the caller only wants the complete response.
+         */
+        AiGenerationResult generateTest(AiTestGenerationRequest request, CancellationContext context,
+                                        Consumer<String> onText);
         boolean isAvailable();
         AiProvider getProvider();
+        /** System prompt sent with every request; part of the response cache key. */
+        String getSystemPrompt();
     }
 
     private static class OpenAiServiceAdapter implements AiServiceAdapter {
         private final OpenAiService service;
         private final AiProvider provider;
+        private final OpenAiStreamingClient streamingClient;
 
-        public OpenAiServiceAdapter(OpenAiService service, AiProvider provider) {
+        public OpenAiServiceAdapter(OpenAiService service, AiProvider provider, OpenAiStreamingClient streamingClient) {
             this.service = service;
             this.provider = provider;
+            this.streamingClient = streamingClient;
         }
 
         @Override
-        public AiGenerationResult generateTest(AiTestGenerationRequest request) {
-            try {
+        public AiGenerationResult generateTest(AiTestGenerationRequest request, CancellationContext context,
+                                               Consumer<String> onText) {
+            if (streamingClient != null && onText != null) {
+                return stream(request, context, onText).asStreamed();
+            }
+            if (service == null) {
+                // Only the streaming client knows the configured endpoint; the caller wants the reply whole
+                return stream(request, context, text -> { });
+            }
+            context.throwIfCancelled();
+            // The client library's blocking call gives up when interrupted
+            try (CancellationContext.Registration ignored = context.interruptOnCancel()) {
                 List<ChatMessage> messages = Arrays.asList(
-                        new ChatMessage(ChatMessageRole.SYSTEM.value(), createSystemPrompt()),
+                        new ChatMessage(ChatMessageRole.SYSTEM.value(), getSystemPrompt()),
                         new ChatMessage(ChatMessageRole.USER.value(), request.getPrompt())
                 );
 
@@ -2339,19 +3962,124 @@ public class TestBuilder {
                         .temperature(request.getTemperature())
                         .build();
 
-                String response = service.createChatCompletion(chatRequest)
-                        .getChoices().get(0).getMessage().getContent();
+                ChatCompletionResult completion = service.createChatCompletion(chatRequest);
+                String response = completion.getChoices().get(0).getMessage().getContent();
 
-                return new AiGenerationResult(true, response, provider.getQualityScore(), null);
+                AiGenerationResult result = new AiGenerationResult(true, response, provider.getQualityScore(), null);
+                Usage usage = completion.getUsage();
+                return usage != null ? result.withUsage(usage.getPromptTokens(), usage.getCompletionTokens()) : result;
 
             } catch (Exception e) {
-                return new AiGenerationResult(false, null, 0.0, e.getMessage());
+                if (context.isCancelled()) {
+                    // Not the provider's failure, whatever the interrupted call threw
+                    throw new CancellationException(context.getName() + ": " + context.getCancellationReason());
+                }
+                return AiGenerationResult.failed(e);
+            }
+        }
+
+        private AiGenerationResult stream(AiTestGenerationRequest request, CancellationContext context,
+                                          Consumer<String> onText) {
+            try {
+                OpenAiStreamingClient.Completion completion = streamingClient.stream(provider.getModelName(),
+                        getSystemPrompt(), request.getPrompt(), request.getMaxTokens(), request.getTemperature(),
+                        context, onText);
+                AiGenerationResult result = new AiGenerationResult(true, completion.getText(),
+                        provider.getQualityScore(), null);
+                return completion.hasUsage()
+                        ? result.withUsage(completion.getPromptTokens(), completion.getCompletionTokens())
+                        : result;
+            } catch (CancellationException e) {
+                throw e;
+            } catch (Exception e) {
+                return AiGenerationResult.failed(e);
+            }
+        }
+
+        @Override
+        public boolean isAvailable() {
+            return service != null || streamingClient != null;
+        }
+
+        @Override
+        public AiProvider getProvider() {
+            return provider;
+        }
+
+        @Override
+        public String getSystemPrompt() {
+            return AI_SYSTEM_PROMPT;
+        }
+    }
+
+    /**
+     * Local model that runs in-process and never touches the network: it answers every request
+     * with a REST Assured test derived from the endpoint, after an optional simulated latency. It
+     * lets the AI path run without credentials, and caching or rate limiting be exercised locally.
+     */
+    private static class LocalModelAdapter implements AiServiceAdapter {
+        private final AiProvider provider;
+        private final Duration latency;
+
+        public LocalModelAdapter(AiProvider provider, Duration latency) {
+            this.provider = provider;
+            this.latency = latency;
+        }
+
+        @Override
+        public AiGenerationResult generateTest(AiTestGenerationRequest request, CancellationContext context,
+                                               Consumer<String> onText) {
+            context.throwIfCancelled();
+            try (CancellationContext.Registration ignored = context.interruptOnCancel()) {
+                if (!latency.isZero()) {
+                    Thread.sleep(latency.toMillis());
+                }
+            } catch (InterruptedException e) {
+                context.throwIfCancelled();
+                Thread.currentThread().interrupt();
+                return new AiGenerationResult(false, null, 0.0, "Interrupted");
             }
+
+            String reply;
+            if (!request.isBatch()) {
+                reply = answer(request);
+            } else {
+                StringBuilder sections = new StringBuilder();
+                List<AiTestGenerationRequest> members = request.getBatchMembers();
+                for (int i = 0; i < members.size(); i++) {
+                    sections.append("=== ENDPOINT ").append(i + 1).append(" BEGIN ===\n")
+                            .append(answer(members.get(i)))
+                            .append("=== ENDPOINT ").append(i + 1).append(" END ===\n");
+                }
+                reply = sections.toString();
+            }
+            // Reports usage like a hosted model would, counted with the estimator
+            return new AiGenerationResult(true, reply, provider.getQualityScore(), null)
+                    .withUsage(TokenEstimator.estimate(getSystemPrompt()) + request.estimatePromptTokens(),
+                            TokenEstimator.estimate(reply));
+        }
+
+        private String answer(AiTestGenerationRequest request) {
+            EndpointInfo endpoint = request.getEndpoint();
+            String method = endpoint.getMethod().toLowerCase();
+            String status = endpoint.getExpectedStatusCodes().stream()
+                    .filter(code -> code.matches("[1-5]\\d{2}"))
+                    .sorted()
+                    .findFirst()
+                    .orElse("200");
+            return "given()\n" +
+                    "    .contentType(ContentType.JSON)\n" +
+                    "    .log().ifValidationFails()\n" +
+                    ".when()\n" +
+                    "    ." + method + "(\"" + endpoint.getPath() + "\")\n" +
+                    ".then()\n" +
+                    "    .statusCode(" + status + ")\n" +
+                    "    .time(lessThan(2000L));\n";
         }
 
         @Override
         public boolean isAvailable() {
-            return service != null;
+            return true;
         }
 
         @Override
@@ -2359,26 +4087,30 @@ public class TestBuilder {
             return provider;
         }
 
-        private String createSystemPrompt() {
-            return """
-                You are an expert API test engineer specializing in comprehensive REST API testing.
-                Generate high-quality test code using REST Assured and JUnit 5.
-                
-                Requirements:
-                1. Generate only the test method body (no imports or class definitions)
-                2. Use realistic test data appropriate for the endpoint
-                3. Include comprehensive assertions for all response aspects
-                4. Add performance assertions (response time < 2000ms)
-                5. Include detailed logging for test traceability
-                6. Handle multiple test scenarios (happy path, edge cases, error conditions)
-                7. Use descriptive variable names and comments in English
-                8. Ensure thread-safe test design
-                9. Include data cleanup where appropriate
-                10. Follow REST Assured best practices
-                """;
+        @Override
+        public String getSystemPrompt() {
+            return AI_SYSTEM_PROMPT;
         }
     }
 
+    // System prompt shared by the AI service adapters
+    private static final String AI_SYSTEM_PROMPT = """
+            You are an expert API test engineer specializing in comprehensive REST API testing.
+            Generate high-quality test code using REST Assured and JUnit 5.
+            
+            Requirements:
+            1. Generate only the test method body (no imports or class definitions)
+            2. Use realistic test data appropriate for the endpoint
+            3. Include comprehensive assertions for all response aspects
+            4. Add performance assertions (response time < 2000ms)
+            5. Include detailed logging for test traceability
+            6. Handle multiple test scenarios (happy path, edge cases, error conditions)
+            7. Use descriptive variable names and comments in English
+            8. Ensure thread-safe test design
+            9. Include data cleanup where appropriate
+            10. Follow REST Assured best practices
+            """;
+
     private static class AiTestGenerationRequest {
         private final EndpointInfo endpoint;
         private final EndpointAnalysis analysis;
@@ -2388,6 +4120,7 @@ public class TestBuilder {
         private final int maxTokens;
         private final double temperature;
         private final Duration timeout;
+        private final List<AiTestGenerationRequest> batchMembers;
 
         private AiTestGenerationRequest(Builder builder) {
             this.endpoint = builder.endpoint;
@@ -2398,9 +4131,45 @@ public class TestBuilder {
             this.maxTokens = builder.maxTokens;
             this.temperature = builder.temperature;
             this.timeout = builder.timeout;
+            this.batchMembers = List.copyOf(builder.batchMembers);
+        }
+
+        /**
+         * One request for several endpoints; the reply carries a delimited section per endpoint,
+         * numbered from 1 in the order of {@code members}.
+         */
+        public static AiTestGenerationRequest batchOf(List<AiTestGenerationRequest> members) {
+            AiTestGenerationRequest first = members.get(0);
+            return builder()
+                    .withTestTypes(first.testTypes)
+                    .withQualityLevel(first.qualityLevel)
+                    .withMaxTokens(members.stream().mapToInt(AiTestGenerationRequest::getMaxTokens).sum())
+                    .withTemperature(first.temperature)
+                    .withTimeout(first.timeout)
+                    .withBatchMembers(members)
+                    .build();
+        }
+
+        public boolean isBatch() { return !batchMembers.isEmpty(); }
+
+        /**
+         * Estimated tokens of the prompt, without the adapter's system prompt.
+         */
+        public int estimatePromptTokens() {
+            return TokenEstimator.estimate(getPrompt());
+        }
+
+        /**
+         * Estimated size of the request in tokens: the prompt and the completion asked for.
+         */
+        public int estimateTokens() {
+            return estimatePromptTokens() + maxTokens;
         }
 
         public String getPrompt() {
+            if (isBatch()) {
+                return getBatchPrompt();
+            }
             StringBuilder prompt = new StringBuilder();
             prompt.append("Generate comprehensive REST API tests for the following endpoint:\n\n");
             prompt.append("Endpoint: ").append(endpoint.getMethod().toUpperCase()).append(" ").append(endpoint.getPath()).append("\n");
@@ -2410,7 +4179,8 @@ public class TestBuilder {
                 prompt.append("Summary: ").append(endpoint.getSummary()).append("\n");
             }
 
-            if (endpoint.getDescription() != null) {
+            // The compacted context carries a shortened description of its own
+            if (endpoint.getDescription() != null && promptTemplate.isBlank()) {
                 prompt.append("Description: ").append(endpoint.getDescription()).append("\n");
             }
 
@@ -2428,6 +4198,10 @@ public class TestBuilder {
 
             prompt.append("Expected Response Codes: ").append(String.join(", ", endpoint.getExpectedStatusCodes())).append("\n");
 
+            if (!promptTemplate.isBlank()) {
+                prompt.append("\nAPI Context:\n").append(promptTemplate);
+            }
+
             prompt.append("\nTest Types to Generate: ").append(testTypes.stream()
                     .map(TestType::getDisplayName)
                     .collect(Collectors.joining(", "))).append("\n");
@@ -2447,6 +4221,20 @@ public class TestBuilder {
             return prompt.toString();
         }
 
+        private String getBatchPrompt() {
+            StringBuilder prompt = new StringBuilder();
+            prompt.append("Generate REST API tests for each of the following ").append(batchMembers.size())
+                    .append(" endpoints.\n");
+            prompt.append("Answer with exactly one section per endpoint, in this format, and nothing outside the sections:\n\n");
+            prompt.append("=== ENDPOINT <n> BEGIN ===\n<test code for endpoint n>\n=== ENDPOINT <n> END ===\n");
+
+            for (int i = 0; i < batchMembers.size(); i++) {
+                prompt.append("\n--- Endpoint ").append(i + 1).append(" of ").append(batchMembers.size()).append(" ---\n");
+                prompt.append(batchMembers.get(i).getPrompt());
+            }
+            return prompt.toString();
+        }
+
         // Getters
         public EndpointInfo getEndpoint() { return endpoint; }
         public EndpointAnalysis getAnalysis() { return analysis; }
@@ -2456,6 +4244,7 @@ public class TestBuilder {
         public int getMaxTokens() { return maxTokens; }
         public double getTemperature() { return temperature; }
         public Duration getTimeout() { return timeout; }
+        public List<AiTestGenerationRequest> getBatchMembers() { return batchMembers; }
 
         public static Builder builder() { return new Builder(); }
 
@@ -2465,9 +4254,10 @@ public class TestBuilder {
             private Set<TestType> testTypes = new HashSet<>();
             private QualityLevel qualityLevel = QualityLevel.STANDARD;
             private String promptTemplate = "";
-            private int maxTokens = 2000;
+            private int maxTokens = DEFAULT_AI_MAX_TOKENS;
             private double temperature = 0.1;
             private Duration timeout = Duration.ofSeconds(30);
+            private List<AiTestGenerationRequest> batchMembers = List.of();
 
             public Builder withEndpoint(EndpointInfo endpoint) { this.endpoint = endpoint; return this; }
             public Builder withAnalysis(EndpointAnalysis analysis) { this.analysis = analysis; return this; }
@@ -2477,27 +4267,157 @@ public class TestBuilder {
             public Builder withMaxTokens(int maxTokens) { this.maxTokens = maxTokens; return this; }
             public Builder withTemperature(double temperature) { this.temperature = temperature; return this; }
             public Builder withTimeout(Duration timeout) { this.timeout = timeout; return this; }
+            public Builder withBatchMembers(List<AiTestGenerationRequest> batchMembers) { this.batchMembers = batchMembers; return this; }
             public AiTestGenerationRequest build() { return new AiTestGenerationRequest(this); }
         }
     }
 
+    /**
+     * Why an AI call failed, as far as it matters for how hard the provider is driven
+     */
+    enum AiFailure {
+        NONE,
+        THROTTLED,
+        TIMEOUT,
+        /** Server error ({@code 5xx}) or a failure with no status, such as a broken connection */
+        ERROR,
+        /** {@code 401} or {@code 403}: the key is wrong or lacks access, for every request alike */
+        UNAUTHORIZED,
+        /** Any other {@code 4xx}: the provider refused this request, and would refuse it again */
+        REJECTED,
+        BUDGET_EXHAUSTED,
+        CIRCUIT_OPEN;
+
+        /**
+         * Whether sending the same request again may succeed
+         */
+        boolean isRetryable() {
+            return this == THROTTLED || this == TIMEOUT || this == ERROR;
+        }
+
+        /**
+         * Whether the failure counts against the provider's circuit breaker. Rejected auth does,
+         * though it is not worth retrying: every later call fails the same way until the key is
+         * fixed, so the breaker stops them from each paying for a round trip. A request the
+         * provider rejected on its own merits says nothing about the provider.
+         */
+        boolean isProviderFault() {
+            return isRetryable() || this == UNAUTHORIZED;
+        }
+
+        /**
+         * The provider's {@code Retry-After} for a throttled or unavailable call, as sent; null when
+         * it sent none.
+         */
+        static String retryAfter(Throwable error) {
+            for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+                if (cause instanceof OpenAiStreamingClient.HttpStatusException) {
+                    return ((OpenAiStreamingClient.HttpStatusException) cause).getRetryAfter();
+                }
+            }
+            return null;
+        }
+
+        static AiFailure classify(Throwable error) {
+            for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+                int status = -1;
+                if (cause instanceof OpenAiHttpException) {
+                    status = ((OpenAiHttpException) cause).statusCode;
+                } else if (cause instanceof OpenAiStreamingClient.HttpStatusException) {
+                    status = ((OpenAiStreamingClient.HttpStatusException) cause).getStatusCode();
+                }
+                if (status > 0) {
+                    return forStatus(status);
+                }
+                if (cause instanceof java.io.InterruptedIOException || cause instanceof TimeoutException) {
+                    return TIMEOUT;
+                }
+            }
+            return ERROR;
+        }
+
+        /**
+         * The failure an HTTP error status stands for: {@code 429} is throttling and {@code 408} a
+         * timeout, both worth another attempt, as is any {@code 5xx}; the other {@code 4xx} are not.
+         */
+        static AiFailure forStatus(int status) {
+            if (status == 429) {
+                return THROTTLED;
+            }
+            if (status == 408) {
+                return TIMEOUT;
+            }
+            if (status == 401 || status == 403) {
+                return UNAUTHORIZED;
+            }
+            if (status >= 400 && status < 500) {
+                return REJECTED;
+            }
+            return ERROR;
+        }
+    }
+
     private static class AiGenerationResult {
         private final boolean success;
         private final String generatedCode;
         private final double confidence;
         private final String errorMessage;
+        private final AiFailure failure;
+        // Usage reported by the provider; -1 when it reported none
+        private final long promptTokens;
+        private final long completionTokens;
+        // The text was handed over as it arrived, and its code blocks have been taken already
+        private final boolean streamed;
+        // How long the provider asked us to wait before trying again, as sent; null if it did not say
+        private final String retryAfter;
 
         public AiGenerationResult(boolean success, String generatedCode, double confidence, String errorMessage) {
+            this(success, generatedCode, confidence, errorMessage, success ? AiFailure.NONE : AiFailure.ERROR);
+        }
+
+        public AiGenerationResult(boolean success, String generatedCode, double confidence, String errorMessage,
+                                  AiFailure failure) {
+            this(success, generatedCode, confidence, errorMessage, failure, -1, -1, false, null);
+        }
+
+        private AiGenerationResult(boolean success, String generatedCode, double confidence, String errorMessage,
+                                   AiFailure failure, long promptTokens, long completionTokens, boolean streamed,
+                                   String retryAfter) {
             this.success = success;
             this.generatedCode = generatedCode;
             this.confidence = confidence;
             this.errorMessage = errorMessage;
+            this.failure = failure;
+            this.promptTokens = promptTokens;
+            this.completionTokens = completionTokens;
+            this.streamed = streamed;
+            this.retryAfter = retryAfter;
+        }
+
+        public AiGenerationResult withUsage(long promptTokens, long completionTokens) {
+            return new AiGenerationResult(success, generatedCode, confidence, errorMessage, failure,
+                    promptTokens, completionTokens, streamed, retryAfter);
+        }
+
+        public AiGenerationResult asStreamed() {
+            return new AiGenerationResult(success, generatedCode, confidence, errorMessage, failure,
+                    promptTokens, completionTokens, true, retryAfter);
+        }
+
+        public static AiGenerationResult failed(Throwable error) {
+            return new AiGenerationResult(false, null, 0.0, error.getMessage(), AiFailure.classify(error),
+                    -1, -1, false, AiFailure.retryAfter(error));
         }
 
         public boolean isSuccess() { return success; }
         public String getGeneratedCode() { return generatedCode; }
         public double getConfidence() { return confidence; }
         public String getErrorMessage() { return errorMessage; }
+        public AiFailure getFailure() { return failure; }
+        public long getPromptTokens() { return promptTokens; }
+        public long getCompletionTokens() { return completionTokens; }
+        public boolean isStreamed() { return streamed; }
+        public String getRetryAfter() { return retryAfter; }
     }
 
     // ===== STANDARD RESULT CLASSES (Interface Compliant) =====
@@ -0,0 +1,270 @@
+package org.example.openapi;
+
+import java.util.*;
+import java.util.logging.Logger;
+
+/**
+ * ===== TEST CASE DEDUPLICATOR =====
+ *
+ * Removes near-duplicate {@link GeneratedTestCase}s: cases whose steps, test data and assertions
+ * are the same up to trivial differences (step numbering, letter case, whitespace).
+ *
+ * Each case is reduced to a set of normalized features, fingerprinted with MinHash, and bucketed
+ * with locality-sensitive hashing (banded signatures), so only cases sharing a bucket are compared.
+ * Candidates are confirmed with the exact Jaccard similarity of their feature sets. Cases are
+ * visited in preference order, so the first case of each cluster - the highest-priority one - is
+ * the representative that is kept. Cases of different endpoints are never merged.
+ *
+ * Instances are stateless and thread-safe.
+ *
+ * @author Enhanced Test Generation Team
+ * @since 2025.1
+ */
+public class TestCaseDeduplicator {
+
+    private static final Logger LOGGER = Logger.getLogger(TestCaseDeduplicator.class.getName());
+
+    public static final double DEFAULT_SIMILARITY_THRESHOLD = 0.9;
+
+    // 16 bands x 8 rows: pairs at 0.9 similarity share a bucket with probability > 0.999,
+    // pairs below 0.5 almost never do
+    private static final int BANDS = 16;
+    private static final int ROWS_PER_BAND = 8;
+    private static final int SIGNATURE_SIZE = BANDS * ROWS_PER_BAND;
+
+    // Cases with fewer features carry too little content to call anything a duplicate of them
+    private static final int MIN_FEATURES = 2;
+
+    private static final long[] HASH_SEEDS = createSeeds();
+
+    /**
+     * Highest priority (the lowest priority value) first, then most complex, then test id for a
+     * stable choice.
+     */
+    public static final Comparator<GeneratedTestCase> DEFAULT_PREFERENCE =
+            GeneratedTestCase.PRIORITY_ORDER
+                    .thenComparing(GeneratedTestCase::getTestId, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final double similarityThreshold;
+
+    public TestCaseDeduplicator() {
+        this(DEFAULT_SIMILARITY_THRESHOLD);
+    }
+
+    public TestCaseDeduplicator(double similarityThreshold) {
+        if (similarityThreshold <= 0.0 || similarityThreshold > 1.0) {
+            throw new IllegalArgumentException("Similarity threshold must be in (0.0, 1.0]");
+        }
+        this.similarityThreshold = similarityThreshold;
+    }
+
+    public List<GeneratedTestCase> deduplicate(List<GeneratedTestCase> testCases) {
+        return deduplicate(testCases, DEFAULT_PREFERENCE);
+    }
+
+    /**
+     * Returns the cases that are not near-duplicates of a preferred case, in their original order.
+     *
+     * @param preference orders cases from most to least preferred as cluster representative
+     */
+    public List<GeneratedTestCase> deduplicate(List<GeneratedTestCase> testCases,
+                                               Comparator<GeneratedTestCase> preference) {
+        if (testCases.size() < 2) {
+            return new ArrayList<>(testCases);
+        }
+
+        int size = testCases.size();
+        long[][] features = new long[size][];
+        Integer[] visitOrder = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            features[i] = extractFeatures(testCases.get(i));
+            visitOrder[i] = i;
+        }
+        Arrays.sort(visitOrder, (a, b) -> preference.compare(testCases.get(a), testCases.get(b)));
+
+        // endpoint -> band bucket -> representatives in that bucket
+        Map<String, Map<Long, List<Integer>>> bucketsByEndpoint = new HashMap<>();
+        boolean[] keep = new boolean[size];
+        // checkedBy[r] == i + 1 once representative r has been compared with case i
+        int[] checkedBy = new int[size];
+
+        for (int index : visitOrder) {
+            if (features[index].length < MIN_FEATURES) {
+                keep[index] = true;
+                continue;
+            }
+
+            long[] bandKeys = bandKeys(minHash(features[index]));
+            Map<Long, List<Integer>> buckets = bucketsByEndpoint.computeIfAbsent(
+                    endpointKey(testCases.get(index)), k -> new HashMap<>());
+
+            if (!hasSimilarRepresentative(index, bandKeys, buckets, features, checkedBy)) {
+                keep[index] = true;
+                for (long bandKey : bandKeys) {
+                    buckets.computeIfAbsent(bandKey, k -> new ArrayList<>(1)).add(index);
+                }
+            }
+        }
+
+        List<GeneratedTestCase> kept = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            if (keep[i]) {
+                kept.add(testCases.get(i));
+            }
+        }
+
+        LOGGER.fine("Near-duplicate elimination: " + size + " -> " + kept.size());
+        return kept;
+    }
+
+    private boolean hasSimilarRepresentative(int index, long[] bandKeys, Map<Long, List<Integer>> buckets,
+                                             long[][] features, int[] checkedBy) {
+        for (long bandKey : bandKeys) {
+            List<Integer> representatives = buckets.get(bandKey);
+            if (representatives == null) {
+                continue;
+            }
+            for (int representative : representatives) {
+                if (checkedBy[representative] == index + 1) {
+                    continue;
+                }
+                checkedBy[representative] = index + 1;
+                if (jaccard(features[index], features[representative]) >= similarityThreshold) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // ===== FINGERPRINTING =====
+
+    /**
+     * Sorted, distinct feature hashes for the parts of a case that determine what it tests.
+     */
+    static long[] extractFeatures(GeneratedTestCase testCase) {
+        Set<String> features = new HashSet<>();
+
+        for (TestStep step : testCase.getTestSteps()) {
+            features.add("step:" + normalize(step.getAction()) + "|" + normalize(step.getDescription()));
+        }
+        if (testCase.getTestData() != null) {
+            for (Map.Entry<String, Object> entry : testCase.getTestData().getAllData().entrySet()) {
+                features.add("data:" + entry.getKey() + "=" + normalize(String.valueOf(entry.getValue())));
+            }
+        }
+        for (TestAssertion assertion : testCase.getAssertions()) {
+            features.add("assert:" + normalize(assertion.getName()) + "|"
+                    + normalize(assertion.getDescription()) + "|" + normalize(assertion.getCondition()));
+        }
+
+        return features.stream()
+                .mapToLong(TestCaseDeduplicator::hash64)
+                .distinct()
+                .sorted()
+                .toArray();
+    }
+
+    private static long[] minHash(long[] features) {
+        long[] signature = new long[SIGNATURE_SIZE];
+        Arrays.fill(signature, Long.MAX_VALUE);
+        for (long feature : features) {
+            for (int i = 0; i < SIGNATURE_SIZE; i++) {
+                long value = mix64(feature ^ HASH_SEEDS[i]);
+                if (value < signature[i]) {
+                    signature[i] = value;
+                }
+            }
+        }
+        return signature;
+    }
+
+    private static long[] bandKeys(long[] signature) {
+        long[] keys = new long[BANDS];
+        for (int band = 0; band < BANDS; band++) {
+            long key = band;
+            for (int row = 0; row < ROWS_PER_BAND; row++) {
+                key = mix64(key * 31 + signature[band * ROWS_PER_BAND + row]);
+            }
+            keys[band] = key;
+        }
+        return keys;
+    }
+
+    private static double jaccard(long[] a, long[] b) {
+        int i = 0;
+        int j = 0;
+        int intersection = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) {
+                intersection++;
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        int union = a.length + b.length - intersection;
+        return union == 0 ? 1.0 : (double) intersection / union;
+    }
+
+    // ===== HELPERS =====
+
+    private static String endpointKey(GeneratedTestCase testCase) {
+        EndpointInfo endpoint = testCase.getEndpoint();
+        return endpoint == null ? "" : endpoint.getMethod() + " " + endpoint.getPath();
+    }
+
+    /**
+     * Lower-cases and collapses whitespace. Digits are kept: a different status code or boundary
+     * value is a different test.
+     */
+    private static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        StringBuilder normalized = new StringBuilder(value.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (Character.isWhitespace(c)) {
+                pendingSpace = normalized.length() > 0;
+                continue;
+            }
+            if (pendingSpace) {
+                normalized.append(' ');
+                pendingSpace = false;
+            }
+            normalized.append(Character.toLowerCase(c));
+        }
+        return normalized.toString();
+    }
+
+    private static long hash64(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return mix64(hash);
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private static long[] createSeeds() {
+        // Fixed seeds keep fingerprints, and therefore the kept cases, identical between runs
+        long[] seeds = new long[SIGNATURE_SIZE];
+        long state = 0x9E3779B97F4A7C15L;
+        for (int i = 0; i < SIGNATURE_SIZE; i++) {
+            state += 0x9E3779B97F4A7C15L;
+            seeds[i] = mix64(state);
+        }
+        return seeds;
+    }
+}
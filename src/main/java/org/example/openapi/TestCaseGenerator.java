@@ -0,0 +1,39 @@
+package org.example.openapi;
+
+import java.util.function.Consumer;
+
+/**
+ * ===== TEST CASE GENERATOR SPI =====
+ *
+ * A source of test cases for an endpoint. {@link TestGeneratorRegistry} runs every applicable
+ * registered generator for an endpoint concurrently and merges, deduplicates and prioritizes what
+ * they produce, so a generator only has to emit candidates.
+ *
+ * Generators are registered programmatically with {@link TestGeneratorRegistry#register} or
+ * discovered through {@link java.util.ServiceLoader} by listing the implementation class in
+ * {@code META-INF/services/org.example.openapi.TestCaseGenerator}. The same instance generates for
+ * several endpoints at once, so implementations must be thread-safe.
+ *
+ * @author Enhanced Test Generation Team
+ * @since 2025.1
+ */
+public interface TestCaseGenerator {
+
+    /**
+     * Unique name, used to attribute time and yield in the registry metrics.
+     */
+    String getName();
+
+    /**
+     * Whether this generator has anything to contribute for the endpoint; skipped generators are
+     * neither scheduled nor counted.
+     */
+    default boolean isApplicable(EndpointInfo endpoint) {
+        return true;
+    }
+
+    /**
+     * Emits this generator's candidates for the endpoint into the sink as they are produced.
+     */
+    void generate(EndpointInfo endpoint, Consumer<GeneratedTestCase> sink) throws Exception;
+}
@@ -0,0 +1,29 @@
+package org.example.openapi;
+
+/**
+ * Renders a compiled {@link TestIR.TestClass} as source for one test framework.
+ *
+ * Emitters are stateless and are called concurrently, one call per class and framework, so the
+ * same compiled class is rendered for every configured framework without generating it again.
+ * Register custom emitters with {@link FileManager#registerEmitter(TestFrameworkEmitter)}.
+ *
+ * @author Enhanced Test Generation Team
+ * @since 2025.1
+ */
+public interface TestFrameworkEmitter {
+
+    /**
+     * Framework this emitter renders for; one emitter per framework is active in a FileManager.
+     */
+    FileManager.TestFramework getFramework();
+
+    /**
+     * Output format, which decides the file extension.
+     */
+    FileManager.OutputFormat getOutputFormat();
+
+    /**
+     * Complete source of the test class, package declaration included.
+     */
+    String render(TestIR.TestClass testClass);
+}
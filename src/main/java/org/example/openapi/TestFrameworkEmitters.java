@@ -0,0 +1,327 @@
+package org.example.openapi;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * ===== BUILT-IN TEST FRAMEWORK EMITTERS =====
+ *
+ * REST Assured based emitters for JUnit 5, JUnit 4, TestNG and Spock. The three Java emitters share
+ * one renderer and differ only in imports and annotations. Imports come from FileManager's template
+ * lookup, so the {@code <framework>_imports} templates still override them.
+ *
+ * @author Enhanced Test Generation Team
+ * @since 2025.1
+ */
+public final class TestFrameworkEmitters {
+
+    static final String BASE_URL_PROPERTY = "api.baseUrl";
+    static final String DEFAULT_BASE_URL = "http://localhost:8080";
+
+    private static final String INDENT = "    ";
+
+    private TestFrameworkEmitters() {}
+
+    /**
+     * One emitter per {@link FileManager.TestFramework}.
+     *
+     * @param templates template lookup by name, e.g. {@code "junit5_imports"}
+     */
+    public static List<TestFrameworkEmitter> defaults(Function<String, String> templates) {
+        return List.of(
+                new JavaRestAssuredEmitter(FileManager.TestFramework.JUNIT5, FileManager.OutputFormat.JAVA_JUNIT5, templates),
+                new JavaRestAssuredEmitter(FileManager.TestFramework.JUNIT4, FileManager.OutputFormat.JAVA_JUNIT4, templates),
+                new JavaRestAssuredEmitter(FileManager.TestFramework.TESTNG, FileManager.OutputFormat.JAVA_TESTNG, templates),
+                new SpockEmitter(templates));
+    }
+
+    // ===== JAVA (JUNIT 5 / JUNIT 4 / TESTNG) =====
+
+    static final class JavaRestAssuredEmitter implements TestFrameworkEmitter {
+        private final FileManager.TestFramework framework;
+        private final FileManager.OutputFormat outputFormat;
+        private final Function<String, String> templates;
+
+        JavaRestAssuredEmitter(FileManager.TestFramework framework, FileManager.OutputFormat outputFormat,
+                               Function<String, String> templates) {
+            this.framework = framework;
+            this.outputFormat = outputFormat;
+            this.templates = templates;
+        }
+
+        @Override
+        public FileManager.TestFramework getFramework() { return framework; }
+
+        @Override
+        public FileManager.OutputFormat getOutputFormat() { return outputFormat; }
+
+        @Override
+        public String render(TestIR.TestClass testClass) {
+            StringBuilder out = new StringBuilder(1024 + testClass.getMethods().size() * 512);
+            if (testClass.getPackageName() != null && !testClass.getPackageName().isEmpty()) {
+                out.append("package ").append(testClass.getPackageName()).append(";\n\n");
+            }
+            out.append(templates.apply(framework.name().toLowerCase() + "_imports")).append('\n');
+            out.append("import static io.restassured.RestAssured.given;\n\n");
+
+            out.append("/**\n * ").append(comment(classSummary(testClass))).append("\n */\n");
+            out.append("public class ").append(testClass.getClassName()).append(" {\n\n");
+            out.append(INDENT).append("private static final String BASE_URL = System.getProperty(")
+                    .append(javaString(BASE_URL_PROPERTY)).append(", ").append(javaString(DEFAULT_BASE_URL))
+                    .append(");\n");
+
+            for (TestIR.TestMethod method : testClass.getMethods()) {
+                out.append('\n');
+                renderMethod(out, method);
+            }
+            return out.append("}\n").toString();
+        }
+
+        private void renderMethod(StringBuilder out, TestIR.TestMethod method) {
+            switch (framework) {
+                case JUNIT5:
+                    out.append(INDENT).append("@Test\n");
+                    out.append(INDENT).append("@DisplayName(").append(javaString(method.getDisplayName())).append(")\n");
+                    break;
+                case TESTNG:
+                    out.append(INDENT).append("@Test(description = ")
+                            .append(javaString(method.getDisplayName())).append(")\n");
+                    break;
+                default:
+                    out.append(INDENT).append("@Test\n");
+            }
+            out.append(INDENT).append("public void ").append(method.getMethodName()).append("() {\n");
+            appendContext(out, method, "//");
+
+            TestIR.Request request = method.getRequest();
+            String body = INDENT + INDENT;
+            String chain = body + INDENT + INDENT;
+            out.append(body).append("given()\n");
+            out.append(chain).append(".baseUri(BASE_URL)\n");
+            request.getPathParameters().forEach((name, value) -> out.append(chain)
+                    .append(".pathParam(").append(javaString(name)).append(", ").append(javaString(value)).append(")\n"));
+            request.getQueryParameters().forEach((name, value) -> out.append(chain)
+                    .append(".queryParam(").append(javaString(name)).append(", ").append(javaString(value)).append(")\n"));
+            request.getHeaders().forEach((name, value) -> out.append(chain)
+                    .append(".header(").append(javaString(name)).append(", ").append(javaString(value)).append(")\n"));
+            if (request.getBody() != null) {
+                out.append(chain).append(".contentType(").append(javaString(request.getContentType())).append(")\n");
+                out.append(chain).append(".body(").append(javaString(request.getBody())).append(")\n");
+            }
+            out.append(body).append(INDENT).append(".when()\n");
+            out.append(chain).append(".request(").append(javaString(request.getMethod())).append(", ")
+                    .append(javaString(request.getPath())).append(")\n");
+            out.append(body).append(INDENT).append(".then()");
+            for (TestIR.Assertion assertion : method.getAssertions()) {
+                if (assertion.getKind() == TestIR.AssertionKind.STATUS_CODE) {
+                    out.append('\n').append(chain).append(".statusCode(").append(assertion.getExpected()).append(')');
+                } else if (assertion.getKind() == TestIR.AssertionKind.HEADER) {
+                    out.append('\n').append(chain).append(".header(").append(javaString(assertion.getTarget()))
+                            .append(", ").append(javaString(assertion.getExpected())).append(')');
+                }
+            }
+            out.append(";\n");
+            appendNotes(out, method, "//");
+            out.append(INDENT).append("}\n");
+        }
+    }
+
+    // ===== GROOVY (SPOCK) =====
+
+    static final class SpockEmitter implements TestFrameworkEmitter {
+        private final Function<String, String> templates;
+
+        SpockEmitter(Function<String, String> templates) {
+            this.templates = templates;
+        }
+
+        @Override
+        public FileManager.TestFramework getFramework() { return FileManager.TestFramework.SPOCK; }
+
+        @Override
+        public FileManager.OutputFormat getOutputFormat() { return FileManager.OutputFormat.GROOVY_SPOCK; }
+
+        @Override
+        public String render(TestIR.TestClass testClass) {
+            StringBuilder out = new StringBuilder(1024 + testClass.getMethods().size() * 512);
+            if (testClass.getPackageName() != null && !testClass.getPackageName().isEmpty()) {
+                out.append("package ").append(testClass.getPackageName()).append("\n\n");
+            }
+            out.append(templates.apply("spock_imports")).append('\n');
+            out.append("import static io.restassured.RestAssured.given\n\n");
+
+            out.append("/**\n * ").append(comment(classSummary(testClass))).append("\n */\n");
+            out.append("class ").append(testClass.getClassName()).append(" extends Specification {\n\n");
+            out.append(INDENT).append("static final String BASE_URL = System.getProperty(")
+                    .append(groovyString(BASE_URL_PROPERTY)).append(", ").append(groovyString(DEFAULT_BASE_URL))
+                    .append(")\n");
+
+            // Spock identifies features by name, so repeated display names get a suffix
+            Set<String> featureNames = new HashSet<>();
+            for (TestIR.TestMethod method : testClass.getMethods()) {
+                String name = method.getDisplayName() == null || method.getDisplayName().isBlank()
+                        ? method.getMethodName() : method.getDisplayName();
+                String featureName = name;
+                for (int suffix = 2; !featureNames.add(featureName); suffix++) {
+                    featureName = name + " (" + suffix + ")";
+                }
+                out.append('\n');
+                renderFeature(out, method, featureName);
+            }
+            return out.append("}\n").toString();
+        }
+
+        private void renderFeature(StringBuilder out, TestIR.TestMethod method, String featureName) {
+            String body = INDENT + INDENT;
+            String chain = body + INDENT + INDENT;
+            TestIR.Request request = method.getRequest();
+
+            out.append(INDENT).append("def ").append(featureName(featureName)).append("() {\n");
+            appendContext(out, method, "//");
+            out.append(body).append("given:\n");
+            out.append(body).append("def request = given().baseUri(BASE_URL)");
+            request.getPathParameters().forEach((name, value) -> out.append('\n').append(chain)
+                    .append(".pathParam(").append(groovyString(name)).append(", ").append(groovyString(value)).append(')'));
+            request.getQueryParameters().forEach((name, value) -> out.append('\n').append(chain)
+                    .append(".queryParam(").append(groovyString(name)).append(", ").append(groovyString(value)).append(')'));
+            request.getHeaders().forEach((name, value) -> out.append('\n').append(chain)
+                    .append(".header(").append(groovyString(name)).append(", ").append(groovyString(value)).append(')'));
+            if (request.getBody() != null) {
+                out.append('\n').append(chain).append(".contentType(").append(groovyString(request.getContentType())).append(')');
+                out.append('\n').append(chain).append(".body(").append(groovyString(request.getBody())).append(')');
+            }
+            out.append("\n\n");
+
+            out.append(body).append("when:\n");
+            out.append(body).append("def response = request.when().request(").append(groovyString(request.getMethod()))
+                    .append(", ").append(groovyString(request.getPath())).append(")\n\n");
+
+            out.append(body).append("then:\n");
+            boolean asserted = false;
+            for (TestIR.Assertion assertion : method.getAssertions()) {
+                if (assertion.getKind() == TestIR.AssertionKind.STATUS_CODE) {
+                    out.append(body).append("response.statusCode == ").append(assertion.getExpected()).append('\n');
+                    asserted = true;
+                } else if (assertion.getKind() == TestIR.AssertionKind.HEADER) {
+                    out.append(body).append("response.header(").append(groovyString(assertion.getTarget()))
+                            .append(") == ").append(groovyString(assertion.getExpected())).append('\n');
+                    asserted = true;
+                }
+            }
+            if (!asserted) {
+                // A then: block needs at least one condition
+                out.append(body).append("response != null\n");
+            }
+            appendNotes(out, method, "//");
+            out.append(INDENT).append("}\n");
+        }
+
+        private static String featureName(String displayName) {
+            StringBuilder escaped = new StringBuilder(displayName.length() + 2).append('"');
+            for (char c : displayName.toCharArray()) {
+                if (c == '"' || c == '\\' || c == '$') {
+                    escaped.append('\\').append(c);
+                } else if (c == '\n' || c == '\r') {
+                    escaped.append(' ');
+                } else {
+                    escaped.append(c);
+                }
+            }
+            return escaped.append('"').toString();
+        }
+    }
+
+    // ===== SHARED RENDERING =====
+
+    private static String classSummary(TestIR.TestClass testClass) {
+        StringBuilder summary = new StringBuilder();
+        if (testClass.getCategory() != null) {
+            summary.append(testClass.getCategory().getDescription()).append(" for ");
+        } else {
+            summary.append("Tests for ");
+        }
+        summary.append(testClass.getEndpointMethod() != null ? testClass.getEndpointMethod().toUpperCase() : "?")
+                .append(' ').append(testClass.getEndpointPath() != null ? testClass.getEndpointPath() : "?");
+        if (testClass.getOperationId() != null) {
+            summary.append(" (").append(testClass.getOperationId()).append(')');
+        }
+        return summary.append('.').toString();
+    }
+
+    private static void appendContext(StringBuilder out, TestIR.TestMethod method, String commentPrefix) {
+        String indent = INDENT + INDENT;
+        if (method.getDescription() != null) {
+            out.append(indent).append(commentPrefix).append(' ').append(comment(method.getDescription())).append('\n');
+        }
+        if (method.getStrategy() != null || method.getScenario() != null) {
+            out.append(indent).append(commentPrefix).append(" Strategy: ")
+                    .append(comment(String.valueOf(method.getStrategy())))
+                    .append(", Scenario: ").append(comment(String.valueOf(method.getScenario()))).append('\n');
+        }
+    }
+
+    private static void appendNotes(StringBuilder out, TestIR.TestMethod method, String commentPrefix) {
+        for (TestIR.Assertion assertion : method.getAssertions()) {
+            if (assertion.getKind() == TestIR.AssertionKind.NOTE && assertion.getDescription() != null) {
+                out.append(INDENT + INDENT).append(commentPrefix).append(" Expect: ")
+                        .append(comment(assertion.getDescription())).append('\n');
+            }
+        }
+    }
+
+    /**
+     * Single-line text that cannot close the surrounding comment.
+     */
+    private static String comment(String text) {
+        return text.replaceAll("[\\r\\n]+", " ").replace("*/", "* /");
+    }
+
+    static String javaString(String value) {
+        if (value == null) {
+            return "null";
+        }
+        StringBuilder escaped = new StringBuilder(value.length() + 2).append('"');
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"': escaped.append("\\\""); break;
+                case '\\': escaped.append("\\\\"); break;
+                case '\n': escaped.append("\\n"); break;
+                case '\r': escaped.append("\\r"); break;
+                case '\t': escaped.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        escaped.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        escaped.append(c);
+                    }
+            }
+        }
+        return escaped.append('"').toString();
+    }
+
+    /**
+     * Single-quoted Groovy string, so {@code $} is not interpolated.
+     */
+    static String groovyString(String value) {
+        if (value == null) {
+            return "null";
+        }
+        StringBuilder escaped = new StringBuilder(value.length() + 2).append('\'');
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '\'': escaped.append("\\'"); break;
+                case '\\': escaped.append("\\\\"); break;
+                case '\n': escaped.append("\\n"); break;
+                case '\r': escaped.append("\\r"); break;
+                case '\t': escaped.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        escaped.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        escaped.append(c);
+                    }
+            }
+        }
+        return escaped.append('\'').toString();
+    }
+}
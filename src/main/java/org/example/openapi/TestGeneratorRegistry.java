@@ -0,0 +1,401 @@
+package org.example.openapi;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * ===== TEST GENERATOR REGISTRY =====
+ *
+ * Coordinates the {@link TestCaseGenerator}s that contribute test cases for an endpoint. All
+ * applicable generators run concurrently - the first on the calling thread, the rest on the
+ * executor - and their output goes through one sink: merged by test id, near-duplicates removed
+ * with {@link TestCaseDeduplicator}, and the best cases kept with {@link TopKSelector}.
+ *
+ * The result does not depend on which generator finishes first: candidates are merged in
+ * registration order and every tie is broken deterministically.
+ *
+ * Per-generator time, output and yield (cases surviving the sink) are accumulated across
+ * endpoints, so slow generators that contribute little can be spotted with
+ * {@link #formatMetricsReport()}.
+ *
+ * @author Enhanced Test Generation Team
+ * @since 2025.1
+ */
+public class TestGeneratorRegistry {
+
+    private static final Logger LOGGER = Logger.getLogger(TestGeneratorRegistry.class.getName());
+
+    public static final int DEFAULT_MAX_TESTS_PER_ENDPOINT = 200;
+
+    private final Executor executor;
+    private final int maxTestsPerEndpoint;
+    private final TestCaseDeduplicator deduplicator = new TestCaseDeduplicator();
+    private final List<TestCaseGenerator> generators = new CopyOnWriteArrayList<>();
+    private final Map<String, GeneratorMetrics> metrics = new ConcurrentHashMap<>();
+
+    public TestGeneratorRegistry(Executor executor, int maxTestsPerEndpoint) {
+        if (maxTestsPerEndpoint < 1) {
+            throw new IllegalArgumentException("Max tests per endpoint must be positive");
+        }
+        this.executor = Objects.requireNonNull(executor, "executor");
+        this.maxTestsPerEndpoint = maxTestsPerEndpoint;
+    }
+
+    /**
+     * Registry with the built-in component generators followed by any generators discovered with
+     * {@link ServiceLoader}, running on the runtime's CPU pool.
+     */
+    public static TestGeneratorRegistry createDefault(SharedRuntime runtime) {
+        TestGeneratorRegistry registry = new TestGeneratorRegistry(runtime.getCpuExecutor(), DEFAULT_MAX_TESTS_PER_ENDPOINT);
+        registerBuiltInGenerators(registry);
+        for (TestCaseGenerator generator : ServiceLoader.load(TestCaseGenerator.class)) {
+            registry.register(generator);
+            LOGGER.info("Registered test case generator '" + generator.getName() + "' from " +
+                    generator.getClass().getName());
+        }
+        return registry;
+    }
+
+    /**
+     * @throws IllegalArgumentException if a generator with the same name is already registered
+     */
+    public synchronized TestGeneratorRegistry register(TestCaseGenerator generator) {
+        Objects.requireNonNull(generator, "generator");
+        for (TestCaseGenerator existing : generators) {
+            if (existing.getName().equals(generator.getName())) {
+                throw new IllegalArgumentException("Generator '" + generator.getName() + "' is already registered");
+            }
+        }
+        generators.add(generator);
+        metrics.put(generator.getName(), new GeneratorMetrics(generator.getName()));
+        return this;
+    }
+
+    /**
+     * Removes the generator and its accumulated metrics.
+     */
+    public synchronized boolean unregister(String name) {
+        boolean removed = generators.removeIf(generator -> generator.getName().equals(name));
+        if (removed) {
+            metrics.remove(name);
+        }
+        return removed;
+    }
+
+    public List<TestCaseGenerator> getGenerators() {
+        return Collections.unmodifiableList(new ArrayList<>(generators));
+    }
+
+    // ===== GENERATION =====
+
+    /**
+     * Runs every applicable generator for the endpoint and returns the merged, deduplicated and
+     * prioritized test cases.
+     */
+    public GenerationResult generate(EndpointInfo endpoint) {
+        List<GeneratorRun> runs = new ArrayList<>();
+        for (TestCaseGenerator generator : generators) {
+            if (isApplicable(generator, endpoint)) {
+                runs.add(new GeneratorRun(generator, endpoint));
+            }
+        }
+        if (runs.isEmpty()) {
+            return new GenerationResult(endpoint, Collections.emptyList(), Collections.emptyList());
+        }
+
+        List<CompletableFuture<Void>> pending = new ArrayList<>(runs.size() - 1);
+        for (GeneratorRun run : runs.subList(1, runs.size())) {
+            pending.add(CompletableFuture.runAsync(run::execute, executor));
+        }
+        runs.get(0).execute();
+        // Runs catch their own failures, so joining cannot throw
+        CompletableFuture.allOf(pending.toArray(new CompletableFuture[0])).join();
+
+        List<GeneratedTestCase> selected = mergeAndSelect(runs);
+
+        List<GeneratorRunStats> stats = new ArrayList<>(runs.size());
+        for (GeneratorRun run : runs) {
+            GeneratorRunStats runStats = run.toStats();
+            stats.add(runStats);
+            // A generator unregistered while it ran has no metrics left to add to
+            GeneratorMetrics generatorMetrics = metrics.get(run.generator.getName());
+            if (generatorMetrics != null) {
+                generatorMetrics.record(runStats);
+            }
+        }
+        return new GenerationResult(endpoint, selected, stats);
+    }
+
+    private boolean isApplicable(TestCaseGenerator generator, EndpointInfo endpoint) {
+        try {
+            return generator.isApplicable(endpoint);
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Generator '" + generator.getName() + "' applicability check failed", e);
+            return false;
+        }
+    }
+
+    /**
+     * The sink: merge by test id (the more complex case wins, then the earlier generator),
+     * remove near-duplicates, keep the best {@code maxTestsPerEndpoint}. Kept cases are credited
+     * to the generator that produced them.
+     */
+    private List<GeneratedTestCase> mergeAndSelect(List<GeneratorRun> runs) {
+        Map<Object, GeneratedTestCase> merged = new LinkedHashMap<>();
+        Map<GeneratedTestCase, GeneratorRun> producers = new IdentityHashMap<>();
+
+        for (GeneratorRun run : runs) {
+            for (GeneratedTestCase testCase : run.output) {
+                // Cases without an id cannot collide with anything
+                Object key = testCase.getTestId() != null ? testCase.getTestId() : new Object();
+                GeneratedTestCase existing = merged.get(key);
+                if (existing == null || testCase.getComplexity() > existing.getComplexity()) {
+                    merged.put(key, testCase);
+                    producers.put(testCase, run);
+                }
+            }
+        }
+
+        List<GeneratedTestCase> deduplicated = deduplicator.deduplicate(new ArrayList<>(merged.values()));
+        List<GeneratedTestCase> selected = TopKSelector.select(deduplicated, maxTestsPerEndpoint,
+                TestCaseDeduplicator.DEFAULT_PREFERENCE);
+
+        for (GeneratedTestCase testCase : selected) {
+            producers.get(testCase).kept++;
+        }
+        return selected;
+    }
+
+    // ===== METRICS =====
+
+    /**
+     * Accumulated metrics per generator, by name.
+     */
+    public Map<String, GeneratorMetrics> getMetrics() {
+        return new TreeMap<>(metrics);
+    }
+
+    /**
+     * One line per generator, most time spent per kept test case first.
+     */
+    public String formatMetricsReport() {
+        List<GeneratorMetrics> ordered = new ArrayList<>(metrics.values());
+        ordered.sort(Comparator.comparingDouble(GeneratorMetrics::getMillisPerKeptTest).reversed()
+                .thenComparing(GeneratorMetrics::getName));
+
+        StringBuilder report = new StringBuilder("Generator metrics (time per kept test, descending):\n");
+        for (GeneratorMetrics generatorMetrics : ordered) {
+            report.append(String.format(Locale.ROOT,
+                    "  %-20s runs=%d failures=%d time=%.1fms produced=%d kept=%d yield=%.0f%% ms/kept=%.2f%n",
+                    generatorMetrics.getName(), generatorMetrics.getRuns(), generatorMetrics.getFailures(),
+                    generatorMetrics.getTotalMillis(), generatorMetrics.getProduced(), generatorMetrics.getKept(),
+                    generatorMetrics.getYield() * 100, generatorMetrics.getMillisPerKeptTest()));
+        }
+        return report.toString();
+    }
+
+    public void logMetrics() {
+        LOGGER.info(formatMetricsReport());
+    }
+
+    // ===== BUILT-IN GENERATORS =====
+
+    private static void registerBuiltInGenerators(TestGeneratorRegistry registry) {
+        registry.register(new ComponentGenerator("parameters",
+                endpoint -> endpoint.getParameters() != null && !endpoint.getParameters().isEmpty(),
+                (endpoint, sink) -> {
+                    for (ParameterInfo parameter : endpoint.getParameters()) {
+                        parameter.generateTestCases(endpoint).forEach(sink);
+                    }
+                }));
+        registry.register(new ComponentGenerator("request-body",
+                endpoint -> endpoint.getRequestBodyInfo() != null,
+                (endpoint, sink) -> endpoint.getRequestBodyInfo().generateTestCases(endpoint).forEach(sink)));
+        registry.register(new ComponentGenerator("responses",
+                endpoint -> endpoint.getResponses() != null && !endpoint.getResponses().isEmpty(),
+                (endpoint, sink) -> {
+                    for (ResponseInfo response : endpoint.getResponses().values()) {
+                        response.generateComprehensiveTestCases().forEach(sink);
+                    }
+                }));
+        registry.register(new ComponentGenerator("data-constraints",
+                endpoint -> endpoint.getParameters() != null &&
+                        endpoint.getParameters().stream().anyMatch(parameter -> parameter.getDataConstraints() != null),
+                (endpoint, sink) -> {
+                    for (ParameterInfo parameter : endpoint.getParameters()) {
+                        if (parameter.getDataConstraints() != null) {
+                            parameter.getDataConstraints().generateComprehensiveTestSuite().getTestCases().forEach(sink);
+                        }
+                    }
+                }));
+        registry.register(new ComponentGenerator("complexity",
+                endpoint -> true,
+                (endpoint, sink) -> EndpointComplexity.generateComprehensiveComplexityAnalysis(
+                        EndpointComplexity.EndpointInfo.from(endpoint)).getTestCases().forEach(sink)));
+        registry.register(new ComponentGenerator("endpoint-scenarios",
+                endpoint -> true,
+                (endpoint, sink) -> endpoint.generateComprehensiveTestSuite().getTestCases().forEach(sink)));
+    }
+
+    /**
+     * Adapter for the component classes' own generation methods.
+     */
+    private static final class ComponentGenerator implements TestCaseGenerator {
+        private final String name;
+        private final Predicate<EndpointInfo> applicability;
+        private final BiConsumer<EndpointInfo, Consumer<GeneratedTestCase>> generation;
+
+        ComponentGenerator(String name, Predicate<EndpointInfo> applicability,
+                           BiConsumer<EndpointInfo, Consumer<GeneratedTestCase>> generation) {
+            this.name = name;
+            this.applicability = applicability;
+            this.generation = generation;
+        }
+
+        @Override
+        public String getName() { return name; }
+
+        @Override
+        public boolean isApplicable(EndpointInfo endpoint) { return applicability.test(endpoint); }
+
+        @Override
+        public void generate(EndpointInfo endpoint, Consumer<GeneratedTestCase> sink) {
+            generation.accept(endpoint, sink);
+        }
+    }
+
+    // ===== SUPPORTING TYPES =====
+
+    /**
+     * One generator's execution for one endpoint. Its output buffer is private to the run, so
+     * generators never contend with each other while emitting.
+     */
+    private static final class GeneratorRun {
+        private final TestCaseGenerator generator;
+        private final EndpointInfo endpoint;
+        private final List<GeneratedTestCase> output = Collections.synchronizedList(new ArrayList<>());
+        private long durationNanos;
+        private boolean failed;
+        private int kept;
+
+        GeneratorRun(TestCaseGenerator generator, EndpointInfo endpoint) {
+            this.generator = generator;
+            this.endpoint = endpoint;
+        }
+
+        void execute() {
+            long start = System.nanoTime();
+            try {
+                generator.generate(endpoint, testCase -> {
+                    if (testCase != null) {
+                        output.add(testCase);
+                    }
+                });
+            } catch (Exception e) {
+                // Whatever was emitted before the failure is still used
+                failed = true;
+                LOGGER.log(Level.WARNING, "Generator '" + generator.getName() + "' failed for " +
+                        endpoint.getMethod() + " " + endpoint.getPath(), e);
+            } finally {
+                durationNanos = System.nanoTime() - start;
+            }
+        }
+
+        GeneratorRunStats toStats() {
+            return new GeneratorRunStats(generator.getName(), durationNanos, output.size(), kept, failed);
+        }
+    }
+
+    public static class GenerationResult {
+        private final EndpointInfo endpoint;
+        private final List<GeneratedTestCase> testCases;
+        private final List<GeneratorRunStats> generatorStats;
+
+        GenerationResult(EndpointInfo endpoint, List<GeneratedTestCase> testCases, List<GeneratorRunStats> generatorStats) {
+            this.endpoint = endpoint;
+            this.testCases = testCases;
+            this.generatorStats = generatorStats;
+        }
+
+        public EndpointInfo getEndpoint() { return endpoint; }
+        public List<GeneratedTestCase> getTestCases() { return testCases; }
+        public List<GeneratorRunStats> getGeneratorStats() { return generatorStats; }
+    }
+
+    public static class GeneratorRunStats {
+        private final String generatorName;
+        private final long durationNanos;
+        private final int produced;
+        private final int kept;
+        private final boolean failed;
+
+        GeneratorRunStats(String generatorName, long durationNanos, int produced, int kept, boolean failed) {
+            this.generatorName = generatorName;
+            this.durationNanos = durationNanos;
+            this.produced = produced;
+            this.kept = kept;
+            this.failed = failed;
+        }
+
+        public String getGeneratorName() { return generatorName; }
+        public long getDurationNanos() { return durationNanos; }
+        public int getProduced() { return produced; }
+        public int getKept() { return kept; }
+        public boolean isFailed() { return failed; }
+    }
+
+    public static class GeneratorMetrics {
+        private final String name;
+        private final AtomicLong runs = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private final AtomicLong totalNanos = new AtomicLong();
+        private final AtomicLong produced = new AtomicLong();
+        private final AtomicLong kept = new AtomicLong();
+
+        GeneratorMetrics(String name) {
+            this.name = name;
+        }
+
+        void record(GeneratorRunStats stats) {
+            runs.incrementAndGet();
+            if (stats.isFailed()) {
+                failures.incrementAndGet();
+            }
+            totalNanos.addAndGet(stats.getDurationNanos());
+            produced.addAndGet(stats.getProduced());
+            kept.addAndGet(stats.getKept());
+        }
+
+        public String getName() { return name; }
+        public long getRuns() { return runs.get(); }
+        public long getFailures() { return failures.get(); }
+        public long getProduced() { return produced.get(); }
+        public long getKept() { return kept.get(); }
+        public double getTotalMillis() { return totalNanos.get() / 1_000_000.0; }
+
+        /**
+         * Fraction of produced cases that survived merging, deduplication and selection.
+         */
+        public double getYield() {
+            long producedCount = produced.get();
+            return producedCount == 0 ? 0.0 : (double) kept.get() / producedCount;
+        }
+
+        /**
+         * Cost of each contributed case; infinite for a generator that took time but contributed nothing.
+         */
+        public double getMillisPerKeptTest() {
+            long keptCount = kept.get();
+            if (keptCount == 0) {
+                return totalNanos.get() == 0 ? 0.0 : Double.POSITIVE_INFINITY;
+            }
+            return getTotalMillis() / keptCount;
+        }
+    }
+}
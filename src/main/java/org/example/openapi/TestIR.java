@@ -0,0 +1,317 @@
+package org.example.openapi;
+
+import java.io.Serializable;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * ===== TEST INTERMEDIATE REPRESENTATION =====
+ *
+ * Framework-neutral form of a generated test class: the request each test sends, the data it sends
+ * and what it asserts about the response. Generation compiles its test cases into this form once;
+ * {@link TestFrameworkEmitter}s then render it for JUnit 5, JUnit 4, TestNG or Spock without
+ * generating again. The IR is immutable, so one compiled class can be rendered for several
+ * frameworks concurrently, and serializable, so it can be kept and rendered later.
+ *
+ * @author Enhanced Test Generation Team
+ * @since 2025.1
+ */
+public final class TestIR {
+
+    private static final Pattern STATUS_CONDITION = Pattern.compile("statusCode\\s*(?:equals|==|=)\\s*(\\d{3})");
+    private static final Pattern STATUS_DESCRIPTION = Pattern.compile("\\b([1-5]\\d{2})\\b");
+    private static final Pattern PATH_PARAMETER = Pattern.compile("\\{([^}/]+)}");
+    private static final int MAX_METHOD_NAME_LENGTH = 50;
+
+    // Test data entries that describe the test rather than the request
+    private static final Set<String> RESERVED_DATA_KEYS =
+            Set.of("scenario", "expectedStatus", "expectedStatusCode", "contentType", "payload");
+
+    private TestIR() {}
+
+    // ===== COMPILATION =====
+
+    /**
+     * Compiles the test cases of one endpoint and category into a test class.
+     */
+    public static TestClass compile(String packageName, String className, FileManager.TestCategory category,
+                                    EndpointInfo endpoint, List<GeneratedTestCase> testCases) {
+        List<TestMethod> methods = new ArrayList<>(testCases.size());
+        Set<String> methodNames = new HashSet<>();
+        int complexity = 1;
+
+        for (GeneratedTestCase testCase : testCases) {
+            EndpointInfo target = testCase.getEndpoint() != null ? testCase.getEndpoint() : endpoint;
+            String methodName = uniqueMethodName(testCase.getTestName(), methodNames);
+            List<Assertion> assertions = compileAssertions(testCase);
+            methods.add(new TestMethod(methodName,
+                    testCase.getTestName() != null ? testCase.getTestName() : methodName,
+                    testCase.getDescription(),
+                    testCase.getStrategyType() != null ? testCase.getStrategyType().getDescription() : null,
+                    testCase.getScenario() != null ? testCase.getScenario().getDescription() : null,
+                    compileRequest(target, testCase.getTestData()),
+                    assertions));
+            complexity += 1 + (testCase.getAssertions().isEmpty() ? 0 : 1);
+        }
+
+        return new TestClass(packageName, className, category,
+                endpoint != null ? endpoint.getMethod() : null,
+                endpoint != null ? endpoint.getPath() : null,
+                endpoint != null ? endpoint.getOperationId() : null,
+                Math.min(10, complexity), methods);
+    }
+
+    private static Request compileRequest(EndpointInfo endpoint, TestDataSet testData) {
+        Map<String, Object> data = testData != null ? testData.getAllData() : Collections.emptyMap();
+        String path = endpoint != null && endpoint.getPath() != null ? endpoint.getPath() : "/";
+
+        Map<String, String> pathParameters = new LinkedHashMap<>();
+        Matcher placeholders = PATH_PARAMETER.matcher(path);
+        while (placeholders.find()) {
+            String name = placeholders.group(1);
+            Object value = data.get(name);
+            pathParameters.put(name, value != null ? String.valueOf(value) : "1");
+        }
+
+        Map<String, String> queryParameters = new LinkedHashMap<>();
+        Map<String, String> headers = new LinkedHashMap<>();
+        Set<String> assigned = new HashSet<>(pathParameters.keySet());
+        if (endpoint != null && endpoint.getParameters() != null) {
+            for (ParameterInfo parameter : endpoint.getParameters()) {
+                Object value = data.get(parameter.getName());
+                if (value == null || !assigned.add(parameter.getName())) {
+                    continue;
+                }
+                if ("header".equalsIgnoreCase(parameter.getIn())) {
+                    headers.put(parameter.getName(), String.valueOf(value));
+                } else if (!"path".equalsIgnoreCase(parameter.getIn())) {
+                    queryParameters.put(parameter.getName(), String.valueOf(value));
+                }
+            }
+        }
+        // Values for parameters the endpoint does not declare are sent as query parameters, in a stable order
+        new TreeMap<>(data).forEach((key, value) -> {
+            if (value != null && !RESERVED_DATA_KEYS.contains(key) && !assigned.contains(key)) {
+                queryParameters.put(key, String.valueOf(value));
+            }
+        });
+
+        Object payload = data.get("payload");
+        Object contentType = data.get("contentType");
+        return new Request(endpoint != null && endpoint.getMethod() != null ? endpoint.getMethod().toUpperCase() : "GET",
+                path, pathParameters, queryParameters, headers,
+                payload != null ? String.valueOf(contentType != null ? contentType : "application/json") : null,
+                payload != null ? String.valueOf(payload) : null);
+    }
+
+    private static List<Assertion> compileAssertions(GeneratedTestCase testCase) {
+        List<Assertion> assertions = new ArrayList<>();
+        Integer status = expectedStatus(testCase);
+        if (status != null) {
+            assertions.add(new Assertion(AssertionKind.STATUS_CODE, null, String.valueOf(status), null));
+        }
+        for (TestAssertion assertion : testCase.getAssertions()) {
+            // The status check is compiled above; the rest is kept for the reader
+            if (status != null && isStatusAssertion(assertion)) {
+                continue;
+            }
+            assertions.add(new Assertion(AssertionKind.NOTE, assertion.getName(), null, assertion.getDescription()));
+        }
+        return assertions;
+    }
+
+    private static Integer expectedStatus(GeneratedTestCase testCase) {
+        TestDataSet data = testCase.getTestData();
+        if (data != null) {
+            for (String key : new String[]{"expectedStatus", "expectedStatusCode"}) {
+                Integer status = parseStatus(data.getData(key));
+                if (status != null) {
+                    return status;
+                }
+            }
+        }
+        for (TestAssertion assertion : testCase.getAssertions()) {
+            if (assertion.getCondition() != null) {
+                Matcher condition = STATUS_CONDITION.matcher(assertion.getCondition());
+                if (condition.find()) {
+                    return Integer.valueOf(condition.group(1));
+                }
+            }
+            if (isStatusAssertion(assertion) && assertion.getDescription() != null) {
+                Matcher description = STATUS_DESCRIPTION.matcher(assertion.getDescription());
+                if (description.find()) {
+                    return Integer.valueOf(description.group(1));
+                }
+            }
+        }
+        return null;
+    }
+
+    private static boolean isStatusAssertion(TestAssertion assertion) {
+        String name = assertion.getName();
+        return name != null && name.toUpperCase().contains("STATUS");
+    }
+
+    private static Integer parseStatus(Object value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            int status = Integer.parseInt(String.valueOf(value).trim());
+            return status >= 100 && status <= 599 ? status : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * A Java/Groovy identifier from the test name, made unique within the class.
+     */
+    private static String uniqueMethodName(String testName, Set<String> taken) {
+        String sanitized = testName != null ? testName.replaceAll("[^a-zA-Z0-9]", "") : "";
+        if (sanitized.isEmpty() || !Character.isLetter(sanitized.charAt(0))) {
+            sanitized = "test" + sanitized;
+        } else {
+            sanitized = Character.toLowerCase(sanitized.charAt(0)) + sanitized.substring(1);
+        }
+        if (sanitized.length() > MAX_METHOD_NAME_LENGTH) {
+            sanitized = sanitized.substring(0, MAX_METHOD_NAME_LENGTH);
+        }
+        String name = sanitized;
+        for (int suffix = 2; !taken.add(name); suffix++) {
+            name = sanitized + "_" + suffix;
+        }
+        return name;
+    }
+
+    // ===== IR TYPES =====
+
+    public enum AssertionKind {
+        /** Response status equals {@link Assertion#getExpected()}. */
+        STATUS_CODE,
+        /** Response header {@link Assertion#getTarget()} equals the expected value. */
+        HEADER,
+        /** Not machine-checkable; rendered as a comment from {@link Assertion#getDescription()}. */
+        NOTE
+    }
+
+    public static final class TestClass implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final String packageName;
+        private final String className;
+        private final FileManager.TestCategory category;
+        private final String endpointMethod;
+        private final String endpointPath;
+        private final String operationId;
+        private final int complexity;
+        private final List<TestMethod> methods;
+
+        public TestClass(String packageName, String className, FileManager.TestCategory category,
+                         String endpointMethod, String endpointPath, String operationId,
+                         int complexity, List<TestMethod> methods) {
+            this.packageName = packageName;
+            this.className = Objects.requireNonNull(className, "className");
+            this.category = category;
+            this.endpointMethod = endpointMethod;
+            this.endpointPath = endpointPath;
+            this.operationId = operationId;
+            this.complexity = complexity;
+            this.methods = List.copyOf(methods);
+        }
+
+        public String getPackageName() { return packageName; }
+        public String getClassName() { return className; }
+        public FileManager.TestCategory getCategory() { return category; }
+        public String getEndpointMethod() { return endpointMethod; }
+        public String getEndpointPath() { return endpointPath; }
+        public String getOperationId() { return operationId; }
+        public int getComplexity() { return complexity; }
+        public List<TestMethod> getMethods() { return methods; }
+    }
+
+    public static final class TestMethod implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final String methodName;
+        private final String displayName;
+        private final String description;
+        private final String strategy;
+        private final String scenario;
+        private final Request request;
+        private final List<Assertion> assertions;
+
+        public TestMethod(String methodName, String displayName, String description, String strategy,
+                          String scenario, Request request, List<Assertion> assertions) {
+            this.methodName = Objects.requireNonNull(methodName, "methodName");
+            this.displayName = displayName;
+            this.description = description;
+            this.strategy = strategy;
+            this.scenario = scenario;
+            this.request = Objects.requireNonNull(request, "request");
+            this.assertions = List.copyOf(assertions);
+        }
+
+        public String getMethodName() { return methodName; }
+        public String getDisplayName() { return displayName; }
+        public String getDescription() { return description; }
+        public String getStrategy() { return strategy; }
+        public String getScenario() { return scenario; }
+        public Request getRequest() { return request; }
+        public List<Assertion> getAssertions() { return assertions; }
+    }
+
+    public static final class Request implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final String method;
+        private final String path;
+        private final Map<String, String> pathParameters;
+        private final Map<String, String> queryParameters;
+        private final Map<String, String> headers;
+        private final String contentType;
+        private final String body;
+
+        public Request(String method, String path, Map<String, String> pathParameters,
+                       Map<String, String> queryParameters, Map<String, String> headers,
+                       String contentType, String body) {
+            this.method = Objects.requireNonNull(method, "method");
+            this.path = Objects.requireNonNull(path, "path");
+            this.pathParameters = Collections.unmodifiableMap(new LinkedHashMap<>(pathParameters));
+            this.queryParameters = Collections.unmodifiableMap(new LinkedHashMap<>(queryParameters));
+            this.headers = Collections.unmodifiableMap(new LinkedHashMap<>(headers));
+            this.contentType = contentType;
+            this.body = body;
+        }
+
+        public String getMethod() { return method; }
+        public String getPath() { return path; }
+        public Map<String, String> getPathParameters() { return pathParameters; }
+        public Map<String, String> getQueryParameters() { return queryParameters; }
+        public Map<String, String> getHeaders() { return headers; }
+        public String getContentType() { return contentType; }
+        public String getBody() { return body; }
+    }
+
+    public static final class Assertion implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final AssertionKind kind;
+        private final String target;
+        private final String expected;
+        private final String description;
+
+        public Assertion(AssertionKind kind, String target, String expected, String description) {
+            this.kind = Objects.requireNonNull(kind, "kind");
+            this.target = target;
+            this.expected = expected;
+            this.description = description;
+        }
+
+        public AssertionKind getKind() { return kind; }
+        public String getTarget() { return target; }
+        public String getExpected() { return expected; }
+        public String getDescription() { return description; }
+    }
+}
@@ -23,6 +23,7 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
@@ -56,7 +57,7 @@ import com.sun.management.OperatingSystemMXBean;
  * @version 3.0.0-ENTERPRISE-STANDARDIZED
  * @since 2025.1
  */
-public class TestRunner {
+public class TestRunner implements AutoCloseable {
 
     // ===== STANDARD LOGGING =====
     private static final Logger logger = LoggerFactory.getLogger(TestRunner.class);
@@ -74,6 +75,7 @@ public class TestRunner {
     private static final int MAX_RETRY_ATTEMPTS = 5;
     private static final long DEFAULT_HEALTH_CHECK_INTERVAL_MS = 10000;
     private static final int MAX_CONCURRENT_EXECUTIONS = 500;
+    private static final int SUITE_FILE_WINDOW_SIZE = 1000;
 
     // Resource management constants
     private static final long DEFAULT_MAX_MEMORY_MB = 8192;
@@ -429,9 +431,14 @@ public class TestRunner {
     // ===== ENTERPRISE CORE COMPONENTS =====
 
     private final TestRunnerConfiguration configuration;
+    private final SharedRuntime runtime;
+    private final SharedRuntime.ShutdownRegistration shutdownRegistration;
     private final ExecutorService mainExecutor;
+    // The virtual-thread executor is unbounded; these hold parallel batches to the thread pool size
+    private final BatchSlots batchSlots;
     private final ScheduledExecutorService scheduledExecutor;
     private final ForkJoinPool forkJoinPool;
+    private final List<ScheduledFuture<?>> scheduledTasks = new CopyOnWriteArrayList<>();
 
     // Advanced execution components
     private final TestDiscoveryEngine discoveryEngine;
@@ -466,6 +473,9 @@ public class TestRunner {
     private final AtomicLong totalExecutionTime = new AtomicLong(0);
     private final AtomicInteger activeExecutions = new AtomicInteger(0);
     private final AtomicReference<String> currentExecutionId = new AtomicReference<>("none");
+    // One context per run in progress, each bounded by the configured execution timeout;
+    // cancelCurrentExecution and shutdown cancel them all
+    private final Set<CancellationContext> activeRunContexts = ConcurrentHashMap.newKeySet();
 
     // ===== FIX 1: Eksik testCases variable eklendi =====
     private final List<GeneratedTestCase> testCases = new ArrayList<>();
@@ -486,13 +496,15 @@ public class TestRunner {
     /**
      * Private constructor for builder pattern
      */
-    private TestRunner(TestRunnerConfiguration configuration) {
+    private TestRunner(TestRunnerConfiguration configuration, SharedRuntime runtime) {
         this.configuration = validateConfiguration(configuration);
+        this.runtime = Objects.requireNonNull(runtime, "runtime");
 
-        // Initialize thread pools with optimization
-        this.mainExecutor = createOptimizedExecutorService();
-        this.scheduledExecutor = Executors.newScheduledThreadPool(8);
-        this.forkJoinPool = new ForkJoinPool(configuration.getThreadPoolSize());
+        // Thread pools come from the shared runtime: test execution is blocking I/O, fork-join is CPU work
+        this.mainExecutor = runtime.getIoExecutor();
+        this.batchSlots = new BatchSlots(this.configuration.getThreadPoolSize());
+        this.scheduledExecutor = runtime.getScheduler();
+        this.forkJoinPool = runtime.getCpuExecutor();
 
         // Initialize core components
         this.discoveryEngine = new TestDiscoveryEngine(this.configuration);
@@ -527,7 +539,7 @@ public class TestRunner {
 
         // Setup monitoring and cleanup
         initializeMonitoring();
-        setupShutdownHooks();
+        this.shutdownRegistration = setupShutdownHooks();
 
         logger.info("Enterprise TestRunner v{} initialized with {} strategy, executionId: {}",
                 VERSION, configuration.getStrategy(), configuration.getExecutionId());
@@ -540,12 +552,22 @@ public class TestRunner {
      */
     public static class Builder {
         private TestRunnerConfiguration configuration = TestRunnerConfiguration.createDefault();
+        private SharedRuntime runtime;
 
         public Builder withConfiguration(TestRunnerConfiguration config) {
             this.configuration = config;
             return this;
         }
 
+        /**
+         * Shares pools, scheduler and shutdown lifecycle with other components; defaults to
+         * {@link SharedRuntime#getDefault()}.
+         */
+        public Builder withRuntime(SharedRuntime runtime) {
+            this.runtime = runtime;
+            return this;
+        }
+
         public Builder withStrategy(ExecutionStrategy strategy) {
             this.configuration = TestRunnerConfiguration.builder()
                     .withStrategy(strategy)
@@ -582,7 +604,7 @@ public class TestRunner {
         }
 
         public TestRunner build() {
-            return new TestRunner(configuration);
+            return new TestRunner(configuration, runtime != null ? runtime : SharedRuntime.getDefault());
         }
     }
 
@@ -664,36 +686,102 @@ public class TestRunner {
      * Returns ComprehensiveTestSuite conforming to standard interface
      */
     public ComprehensiveTestSuite executeComprehensiveTestSuite(List<GeneratedTestCase> testCases) {
+        return executeComprehensiveTestSuite(testCases, CancellationContext.background());
+    }
+
+    /**
+     * Executes the test suite within the caller's cancellation context, further bounded by the
+     * configured execution timeout. When either ends, tests not yet started are skipped and
+     * running batches are interrupted; the suite reports the tests that did run.
+     */
+    public ComprehensiveTestSuite executeComprehensiveTestSuite(List<GeneratedTestCase> testCases,
+                                                                CancellationContext parentContext) {
+        return executeSuiteWindows(Collections.singletonList(testCases).iterator(),
+                testCases.size() + " test cases", parentContext);
+    }
+
+    /**
+     * Executes a suite written with {@link TestSuiteBinaryCodec}, e.g. by a separate generation job.
+     * The file is read window by window ({@value #SUITE_FILE_WINDOW_SIZE} test cases); each window is
+     * scheduled and executed before the next is decoded, so decoding never runs more than one
+     * window ahead of execution. A corrupt or truncated file fails the suite with the tests
+     * executed so far.
+     *
+     * @throws IOException if the file cannot be opened or is not a supported suite file
+     */
+    public ComprehensiveTestSuite executeComprehensiveTestSuite(Path suiteFile,
+                                                                CancellationContext parentContext) throws IOException {
+        try (TestSuiteBinaryCodec.SuiteReader reader = TestSuiteBinaryCodec.openReader(suiteFile)) {
+            Iterator<List<GeneratedTestCase>> windows = new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    return reader.hasNext();
+                }
+
+                @Override
+                public List<GeneratedTestCase> next() {
+                    return reader.nextBatch(SUITE_FILE_WINDOW_SIZE);
+                }
+            };
+            return executeSuiteWindows(windows,
+                    "suite " + reader.getHeader().getSuiteId() + " from " + suiteFile, parentContext);
+        }
+    }
+
+    /**
+     * Runs validation, discovery, scheduling and execution per window of test cases, then analysis
+     * and reporting once over everything executed.
+     */
+    private ComprehensiveTestSuite executeSuiteWindows(Iterator<List<GeneratedTestCase>> windows, String source,
+                                                       CancellationContext parentContext) {
         String executionId = generateAdvancedExecutionId();
         currentExecutionId.set(executionId);
         Instant startTime = Instant.now();
+        CancellationContext context = openRunContext(parentContext, executionId);
 
-        logger.info("Starting comprehensive test execution - ID: {} with {} test cases",
-                executionId, testCases.size());
+        logger.info("Starting comprehensive test execution - ID: {} with {}", executionId, source);
         currentStatus.set(ExecutionStatus.INITIALIZING);
 
+        List<GeneratedTestCase> executedTestCases = new ArrayList<>();
+        List<GeneratedTestCase> window = Collections.emptyList();
         try {
-            // Phase 1: Pre-execution validation and setup
-            currentStatus.set(ExecutionStatus.INITIALIZING);
-            PreExecutionValidation validation = performPreExecutionValidation(testCases);
-            if (!validation.isValid()) {
-                throw new TestExecutionException("Pre-execution validation failed: " + validation.getErrors());
-            }
+            ResourceAllocation resourceAllocation;
+            int scheduledTests = 0;
+            do {
+                window = windows.hasNext() ? windows.next() : Collections.emptyList();
+
+                // Phase 1: Pre-execution validation and setup
+                currentStatus.set(ExecutionStatus.INITIALIZING);
+                PreExecutionValidation validation = performPreExecutionValidation(window);
+                if (!validation.isValid()) {
+                    throw new TestExecutionException("Pre-execution validation failed: " + validation.getErrors());
+                }
 
-            // Phase 2: Test discovery and filtering
-            currentStatus.set(ExecutionStatus.DISCOVERING);
-            TestDiscoveryResult discoveryResult = discoveryEngine.discoverAndFilterTests(testCases);
+                // Phase 2: Test discovery and filtering
+                currentStatus.set(ExecutionStatus.DISCOVERING);
+                TestDiscoveryResult discoveryResult = discoveryEngine.discoverAndFilterTests(window);
 
-            // Phase 3: Intelligent test scheduling
-            currentStatus.set(ExecutionStatus.SCHEDULING);
-            TestExecutionPlan executionPlan = scheduler.createOptimalExecutionPlan(discoveryResult);
+                // Phase 3: Intelligent test scheduling
+                currentStatus.set(ExecutionStatus.SCHEDULING);
+                TestExecutionPlan executionPlan = scheduler.createOptimalExecutionPlan(discoveryResult);
+                scheduledTests += executionPlan.getTotalTests();
 
-            // Phase 4: Resource allocation and optimization
-            ResourceAllocation resourceAllocation = resourceManager.allocateResources(executionPlan);
+                // Phase 4: Resource allocation and optimization
+                resourceAllocation = resourceManager.allocateResources(executionPlan);
+
+                // Phase 5: Execute tests based on strategy
+                currentStatus.set(ExecutionStatus.EXECUTING);
+                executedTestCases.addAll(executeTestsWithStrategy(executionPlan, resourceAllocation, context));
+                window = Collections.emptyList();
+                if (windows.hasNext() && !context.isCancelled()) {
+                    resourceManager.releaseResources(resourceAllocation);
+                }
+            } while (windows.hasNext() && !context.isCancelled());
 
-            // Phase 5: Execute tests based on strategy
-            currentStatus.set(ExecutionStatus.EXECUTING);
-            List<GeneratedTestCase> executedTestCases = executeTestsWithStrategy(executionPlan, resourceAllocation);
+            if (context.isCancelled()) {
+                logger.warn("Execution {} stopped ({}) after {} of {} tests", executionId,
+                        context.getCancellationReason(), executedTestCases.size(), scheduledTests);
+            }
 
             // Phase 6: Real-time monitoring and analysis
             currentStatus.set(ExecutionStatus.MONITORING);
@@ -728,9 +816,13 @@ public class TestRunner {
 
             logger.error("Test execution failed - ID: {}", executionId, e);
 
-            return buildFailedTestSuite(testCases, e, executionId, totalDuration);
+            // Report what ran plus the window that failed
+            List<GeneratedTestCase> reported = new ArrayList<>(executedTestCases);
+            reported.addAll(window);
+            return buildFailedTestSuite(reported, e, executionId, totalDuration);
 
         } finally {
+            closeRunContext(context);
             activeExecutions.decrementAndGet();
             currentExecutionId.set("none");
         }
@@ -745,15 +837,18 @@ public class TestRunner {
         logger.info("Executing {} test cases with strategy: {}",
                 testCases.size(), recommendation.getRecommendedStrategy());
 
+        CancellationContext context = openRunContext(CancellationContext.background(), generateAdvancedExecutionId());
         try {
             TestDiscoveryResult discoveryResult = discoveryEngine.discoverAndFilterTests(testCases);
             TestExecutionPlan executionPlan = scheduler.createOptimalExecutionPlan(discoveryResult);
             ResourceAllocation resourceAllocation = resourceManager.allocateResources(executionPlan);
 
-            return executeTestsWithStrategy(executionPlan, resourceAllocation);
+            return executeTestsWithStrategy(executionPlan, resourceAllocation, context);
         } catch (Exception e) {
             logger.error("Test execution failed", e);
             throw new TestExecutionException("Failed to execute tests", e);
+        } finally {
+            closeRunContext(context);
         }
     }
 
@@ -807,74 +902,50 @@ public class TestRunner {
                 System.nanoTime() % 100000);
     }
 
-    /**
-     * Standard method signature - creates optimized executor service
-     */
-    private ExecutorService createOptimizedExecutorService() {
-        int corePoolSize = configuration.getThreadPoolSize();
-        int maximumPoolSize = Math.min(MAX_THREAD_POOL_SIZE, corePoolSize * 2);
-
-        ThreadPoolExecutor executor = new ThreadPoolExecutor(
-                corePoolSize,
-                maximumPoolSize,
-                60L, TimeUnit.SECONDS,
-                new LinkedBlockingQueue<>(10000),
-                new ThreadFactory() {
-                    private final AtomicInteger counter = new AtomicInteger(0);
-                    @Override
-                    public Thread newThread(Runnable r) {
-                        Thread t = new Thread(r, "TestRunner-" + counter.incrementAndGet());
-                        t.setDaemon(true);
-                        return t;
-                    }
-                },
-                new ThreadPoolExecutor.CallerRunsPolicy()
-        );
-
-        executor.allowCoreThreadTimeOut(true);
-        logger.debug("Created optimized thread pool with {} core threads", corePoolSize);
-
-        return executor;
-    }
-
     // ===== TEST EXECUTION METHODS =====
 
     /**
      * Executes tests with the selected strategy
      */
-    private List<GeneratedTestCase> executeTestsWithStrategy(TestExecutionPlan plan, ResourceAllocation allocation) {
+    private List<GeneratedTestCase> executeTestsWithStrategy(TestExecutionPlan plan, ResourceAllocation allocation,
+                                                             CancellationContext context) {
         activeExecutions.incrementAndGet();
 
         switch (configuration.getStrategy()) {
             case SEQUENTIAL:
-                return executeSequential(plan, allocation);
+                return executeSequential(plan, allocation, context);
             case PARALLEL:
-                return executeParallel(plan, allocation);
+                return executeParallel(plan, allocation, context);
             case DISTRIBUTED:
-                return executeDistributed(plan, allocation);
+                return executeDistributed(plan, allocation, context);
             case AI_OPTIMIZED:
-                return executeAiOptimized(plan, allocation);
+                return executeAiOptimized(plan, allocation, context);
             case ENTERPRISE:
-                return executeEnterprise(plan, allocation);
+                return executeEnterprise(plan, allocation, context);
             case PERFORMANCE_FOCUSED:
-                return executePerformanceFocused(plan, allocation);
+                return executePerformanceFocused(plan, allocation, context);
             case RELIABILITY_FOCUSED:
-                return executeReliabilityFocused(plan, allocation);
+                return executeReliabilityFocused(plan, allocation, context);
             default:
-                return executeParallel(plan, allocation);
+                return executeParallel(plan, allocation, context);
         }
     }
 
     /**
      * Executes tests sequentially for simple scenarios
      */
-    private List<GeneratedTestCase> executeSequential(TestExecutionPlan plan, ResourceAllocation allocation) {
+    private List<GeneratedTestCase> executeSequential(TestExecutionPlan plan, ResourceAllocation allocation,
+                                                      CancellationContext context) {
         logger.info("Executing tests sequentially - {} tests", plan.getTotalTests());
 
         List<GeneratedTestCase> executedTestCases = new ArrayList<>();
         Instant startTime = Instant.now();
 
         for (TestExecutionUnit unit : plan.getExecutionUnits()) {
+            if (context.isCancelled()) {
+                logger.info("Sequential execution stopped: {}", context.getCancellationReason());
+                break;
+            }
             try {
                 GeneratedTestCase executedTestCase = executeTestUnit(unit);
                 executedTestCases.add(executedTestCase);
@@ -900,9 +971,11 @@ public class TestRunner {
     }
 
     /**
-     * Executes tests in parallel for improved performance
+     * Executes tests in parallel for improved performance. At most the configured thread pool size
+     * of batches run at once; submitting the next waits for a running one to finish.
      */
-    private List<GeneratedTestCase> executeParallel(TestExecutionPlan plan, ResourceAllocation allocation) {
+    private List<GeneratedTestCase> executeParallel(TestExecutionPlan plan, ResourceAllocation allocation,
+                                                    CancellationContext context) {
         logger.info("Executing tests in parallel - {} tests with {} threads",
                 plan.getTotalTests(), configuration.getThreadPoolSize());
 
@@ -911,30 +984,55 @@ public class TestRunner {
 
         // Create batches for parallel execution
         List<List<TestExecutionUnit>> batches = createExecutionBatches(plan.getExecutionUnits());
-        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        List<Future<?>> futures = new ArrayList<>();
+
+        // Whichever of a batch and its cancellation claims the slot first gives it back
+        Map<Future<?>, AtomicBoolean> slotClaims = new HashMap<>();
 
-        for (int i = 0; i < batches.size(); i++) {
-            final int batchIndex = i;
-            final List<TestExecutionUnit> batch = batches.get(i);
+        try {
+            for (int i = 0; i < batches.size(); i++) {
+                final int batchIndex = i;
+                final List<TestExecutionUnit> batch = batches.get(i);
+                final AtomicBoolean claimed = new AtomicBoolean();
 
-            CompletableFuture<Void> future = CompletableFuture.runAsync(() -> {
+                context.acquire(batchSlots);
+                Future<?> future;
                 try {
-                    executeBatch(batch, batchIndex, executedTestCases);
-                } catch (Exception e) {
-                    logger.error("Batch execution failed: {}", batchIndex, e);
+                    // Plain futures rather than CompletableFuture, so cancelling one interrupts its batch
+                    future = mainExecutor.submit(() -> {
+                        if (!claimed.compareAndSet(false, true)) {
+                            return;
+                        }
+                        try {
+                            executeBatch(batch, batchIndex, executedTestCases, context);
+                        } catch (Exception e) {
+                            logger.error("Batch execution failed: {}", batchIndex, e);
+                        } finally {
+                            batchSlots.release();
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    batchSlots.release();
+                    throw e;
                 }
-            }, mainExecutor);
 
-            futures.add(future);
-        }
+                futures.add(future);
+                slotClaims.put(future, claimed);
+            }
 
-        // Wait for all batches to complete with timeout
-        try {
-            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
-                    .get(configuration.getExecutionTimeout().toMillis(), TimeUnit.MILLISECONDS);
-        } catch (TimeoutException e) {
-            logger.error("Parallel execution timed out");
-            futures.forEach(future -> future.cancel(true));
+            // Wait for all batches; once the run's context ends, await cancels the batch it waits on
+            for (Future<?> future : futures) {
+                context.await(future);
+            }
+        } catch (CancellationException e) {
+            logger.error("Parallel execution stopped: {}", e.getMessage());
+            slotClaims.forEach((future, claimed) -> {
+                future.cancel(true);
+                if (claimed.compareAndSet(false, true)) {
+                    // Cancelled before it started
+                    batchSlots.release();
+                }
+            });
         } catch (Exception e) {
             logger.error("Parallel execution failed", e);
         }
@@ -948,31 +1046,33 @@ public class TestRunner {
     /**
      * Executes tests in distributed mode across multiple nodes
      */
-    private List<GeneratedTestCase> executeDistributed(TestExecutionPlan plan, ResourceAllocation allocation) {
+    private List<GeneratedTestCase> executeDistributed(TestExecutionPlan plan, ResourceAllocation allocation,
+                                                       CancellationContext context) {
         logger.info("Executing tests in distributed mode - {} tests", plan.getTotalTests());
 
         if (!configuration.isDistributedExecutionEnabled()) {
             logger.warn("Distributed execution not enabled, falling back to parallel execution");
-            return executeParallel(plan, allocation);
+            return executeParallel(plan, allocation, context);
         }
 
         try {
             return distributedCoordinator.executeDistributed(plan, allocation);
         } catch (Exception e) {
             logger.error("Distributed execution failed, falling back to parallel", e);
-            return executeParallel(plan, allocation);
+            return executeParallel(plan, allocation, context);
         }
     }
 
     /**
      * Executes tests with AI optimization
      */
-    private List<GeneratedTestCase> executeAiOptimized(TestExecutionPlan plan, ResourceAllocation allocation) {
+    private List<GeneratedTestCase> executeAiOptimized(TestExecutionPlan plan, ResourceAllocation allocation,
+                                                       CancellationContext context) {
         logger.info("Executing tests with AI optimization - {} tests", plan.getTotalTests());
 
         if (!configuration.isAiOptimizationEnabled()) {
             logger.warn("AI optimization not enabled, falling back to parallel execution");
-            return executeParallel(plan, allocation);
+            return executeParallel(plan, allocation, context);
         }
 
         try {
@@ -983,25 +1083,26 @@ public class TestRunner {
             return aiEngine.executeWithAiOptimization(optimizedPlan, allocation);
         } catch (Exception e) {
             logger.error("AI-optimized execution failed, falling back to parallel", e);
-            return executeParallel(plan, allocation);
+            return executeParallel(plan, allocation, context);
         }
     }
 
     /**
      * Executes tests with full enterprise features
      */
-    private List<GeneratedTestCase> executeEnterprise(TestExecutionPlan plan, ResourceAllocation allocation) {
+    private List<GeneratedTestCase> executeEnterprise(TestExecutionPlan plan, ResourceAllocation allocation,
+                                                      CancellationContext context) {
         logger.info("Executing tests with enterprise features - {} tests", plan.getTotalTests());
 
         // Combine multiple strategies for enterprise execution
         List<GeneratedTestCase> result;
 
         if (configuration.isDistributedExecutionEnabled() && plan.getTotalTests() > 1000) {
-            result = executeDistributed(plan, allocation);
+            result = executeDistributed(plan, allocation, context);
         } else if (configuration.isAiOptimizationEnabled()) {
-            result = executeAiOptimized(plan, allocation);
+            result = executeAiOptimized(plan, allocation, context);
         } else {
-            result = executeParallel(plan, allocation);
+            result = executeParallel(plan, allocation, context);
         }
 
         // Add enterprise-specific enhancements
@@ -1019,26 +1120,28 @@ public class TestRunner {
     /**
      * Executes tests with performance focus
      */
-    private List<GeneratedTestCase> executePerformanceFocused(TestExecutionPlan plan, ResourceAllocation allocation) {
+    private List<GeneratedTestCase> executePerformanceFocused(TestExecutionPlan plan, ResourceAllocation allocation,
+                                                              CancellationContext context) {
         logger.info("Executing tests with performance focus - {} tests", plan.getTotalTests());
 
         // Optimize for maximum performance
         ResourceAllocation optimizedAllocation = performanceOptimizer.optimizeForPerformance(allocation);
 
         // Use ForkJoinPool for better performance
-        return executeForkJoin(plan, optimizedAllocation);
+        return executeForkJoin(plan, optimizedAllocation, context);
     }
 
     /**
      * Executes tests with reliability focus
      */
-    private List<GeneratedTestCase> executeReliabilityFocused(TestExecutionPlan plan, ResourceAllocation allocation) {
+    private List<GeneratedTestCase> executeReliabilityFocused(TestExecutionPlan plan, ResourceAllocation allocation,
+                                                              CancellationContext context) {
         logger.info("Executing tests with reliability focus - {} tests", plan.getTotalTests());
 
         // Add circuit breakers and retry mechanisms
         TestExecutionPlan reliablePlan = addReliabilityFeatures(plan);
 
-        return executeWithReliabilityFeatures(reliablePlan, allocation);
+        return executeWithReliabilityFeatures(reliablePlan, allocation, context);
     }
 
     // ===== ADVANCED EXECUTION METHODS =====
@@ -1046,12 +1149,13 @@ public class TestRunner {
     /**
      * Executes a batch of tests
      */
-    private void executeBatch(List<TestExecutionUnit> batch, int batchIndex, List<GeneratedTestCase> results) {
+    private void executeBatch(List<TestExecutionUnit> batch, int batchIndex, List<GeneratedTestCase> results,
+                              CancellationContext context) {
         logger.debug("Executing batch {} with {} tests", batchIndex, batch.size());
 
         for (TestExecutionUnit unit : batch) {
-            if (shutdownRequested) {
-                logger.info("Shutdown requested, stopping batch execution");
+            if (shutdownRequested || context.isCancelled()) {
+                logger.info("Execution cancelled, stopping batch {}", batchIndex);
                 break;
             }
 
@@ -1226,22 +1330,30 @@ public class TestRunner {
     /**
      * Executes using ForkJoinPool for performance
      */
-    private List<GeneratedTestCase> executeForkJoin(TestExecutionPlan plan, ResourceAllocation allocation) {
+    private List<GeneratedTestCase> executeForkJoin(TestExecutionPlan plan, ResourceAllocation allocation,
+                                                    CancellationContext context) {
         logger.info("Executing with ForkJoinPool for performance optimization");
 
-        List<GeneratedTestCase> results = forkJoinPool.submit(() ->
-                plan.getExecutionUnits().parallelStream()
-                        .map(unit -> {
-                            try {
-                                return executeTestUnit(unit);
-                            } catch (Exception e) {
-                                return createFailedTestCase(unit, e);
-                            }
-                        })
-                        .collect(Collectors.toList())
-        ).join();
+        // Results are collected as they finish, so a cancelled run still reports what it executed
+        List<GeneratedTestCase> results = Collections.synchronizedList(new ArrayList<>());
+        try {
+            context.await(forkJoinPool.submit(() ->
+                    plan.getExecutionUnits().parallelStream()
+                            .filter(unit -> !context.isCancelled())
+                            .forEach(unit -> {
+                                try {
+                                    results.add(executeTestUnit(unit));
+                                } catch (Exception e) {
+                                    results.add(createFailedTestCase(unit, e));
+                                }
+                            })));
+        } catch (CancellationException e) {
+            logger.warn("ForkJoin execution stopped: {}", e.getMessage());
+        } catch (ExecutionException e) {
+            logger.error("ForkJoin execution failed", e.getCause());
+        }
 
-        return results;
+        return new ArrayList<>(results);
     }
 
     // ===== HELPER METHODS FOR ANALYSIS AND CREATION =====
@@ -1562,21 +1674,31 @@ public class TestRunner {
      */
     private void initializeMonitoring() {
         if (configuration.isRealTimeMonitoringEnabled()) {
-            scheduledExecutor.scheduleAtFixedRate(this::collectMetrics, 0, 5, TimeUnit.SECONDS);
-            scheduledExecutor.scheduleAtFixedRate(this::performHealthCheck, 0,
-                    DEFAULT_HEALTH_CHECK_INTERVAL_MS, TimeUnit.MILLISECONDS);
-            scheduledExecutor.scheduleAtFixedRate(this::cleanupResources, 0, 300, TimeUnit.SECONDS);
+            scheduledTasks.add(scheduledExecutor.scheduleAtFixedRate(this::collectMetrics, 0, 5, TimeUnit.SECONDS));
+            scheduledTasks.add(scheduledExecutor.scheduleAtFixedRate(this::performHealthCheck, 0,
+                    DEFAULT_HEALTH_CHECK_INTERVAL_MS, TimeUnit.MILLISECONDS));
+            scheduledTasks.add(scheduledExecutor.scheduleAtFixedRate(this::cleanupResources, 0, 300, TimeUnit.SECONDS));
         }
     }
 
     /**
-     * Sets up shutdown hooks
+     * Registers graceful shutdown with the shared runtime
      */
-    private void setupShutdownHooks() {
-        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+    private SharedRuntime.ShutdownRegistration setupShutdownHooks() {
+        return runtime.registerShutdownTask("TestRunner " + configuration.getExecutionId(), () -> {
             logger.info("TestRunner shutdown initiated for executionId: {}", configuration.getExecutionId());
             performGracefulShutdown();
-        }));
+        });
+    }
+
+    /**
+     * Stops this runner's executions and periodic tasks and deregisters it from the shared runtime,
+     * which keeps serving other components.
+     */
+    @Override
+    public void close() {
+        shutdownRegistration.close();
+        performGracefulShutdown();
     }
 
     /**
@@ -1586,22 +1708,10 @@ public class TestRunner {
         try {
             shutdownRequested = true;
             currentStatus.set(ExecutionStatus.CLEANUP);
+            cancelRunContexts("shutdown");
 
-            // Stop accepting new executions
-            mainExecutor.shutdown();
-            forkJoinPool.shutdown();
-            scheduledExecutor.shutdown();
-
-            // Wait for completion
-            if (!mainExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
-                mainExecutor.shutdownNow();
-            }
-            if (!forkJoinPool.awaitTermination(30, TimeUnit.SECONDS)) {
-                forkJoinPool.shutdownNow();
-            }
-            if (!scheduledExecutor.awaitTermination(10, TimeUnit.SECONDS)) {
-                scheduledExecutor.shutdownNow();
-            }
+            // Stop periodic tasks; the shared runtime drains and stops the executors themselves
+            cancelScheduledTasks();
 
             // Final metrics
             logFinalMetrics();
@@ -1781,13 +1891,9 @@ public class TestRunner {
     private void handleCriticalHealthIssue() {
         logger.error("Critical health issue detected - implementing emergency procedures");
 
-        // Reduce thread pool size
-        if (mainExecutor instanceof ThreadPoolExecutor) {
-            ThreadPoolExecutor tpe = (ThreadPoolExecutor) mainExecutor;
-            int newSize = Math.max(1, tpe.getCorePoolSize() / 2);
-            tpe.setCorePoolSize(newSize);
-            logger.info("Reduced thread pool size to {}", newSize);
-        }
+        // Run fewer batches at once; those already running finish first
+        int newLimit = batchSlots.halve();
+        logger.info("Reduced parallel batch limit to {}", newLimit);
 
         // Force garbage collection
         System.gc();
@@ -1825,11 +1931,7 @@ public class TestRunner {
      * Gets thread pool utilization
      */
     private double getThreadPoolUtilization() {
-        if (mainExecutor instanceof ThreadPoolExecutor) {
-            ThreadPoolExecutor tpe = (ThreadPoolExecutor) mainExecutor;
-            return (double) tpe.getActiveCount() / tpe.getMaximumPoolSize();
-        }
-        return 0.0;
+        return (double) batchSlots.getInUse() / batchSlots.getLimit();
     }
 
     /**
@@ -1847,9 +1949,10 @@ public class TestRunner {
         return plan; // Placeholder
     }
 
-    private List<GeneratedTestCase> executeWithReliabilityFeatures(TestExecutionPlan plan, ResourceAllocation allocation) {
+    private List<GeneratedTestCase> executeWithReliabilityFeatures(TestExecutionPlan plan, ResourceAllocation allocation,
+                                                                   CancellationContext context) {
         // Execute with enhanced reliability
-        return executeParallel(plan, allocation); // Placeholder
+        return executeParallel(plan, allocation, context); // Placeholder
     }
 
     // ===== GETTERS AND STATUS METHODS =====
@@ -1918,13 +2021,10 @@ public class TestRunner {
 
         shutdownRequested = true;
         currentStatus.set(ExecutionStatus.CANCELLED);
+        cancelRunContexts("cancelled");
 
-        // Cancel running tasks
-        if (mainExecutor instanceof ThreadPoolExecutor) {
-            ThreadPoolExecutor tpe = (ThreadPoolExecutor) mainExecutor;
-            tpe.getQueue().clear();
-        }
-
+        // The executor is shared with other components, so its queue is left alone;
+        // pending batches observe the cancelled run context instead
         return true;
     }
 
@@ -1936,10 +2036,30 @@ public class TestRunner {
 
         shutdownRequested = true;
         currentStatus.set(ExecutionStatus.CLEANUP);
+        cancelRunContexts("force shutdown");
+
+        // Shared executors keep serving other components; in-flight units observe shutdownRequested
+        cancelScheduledTasks();
+    }
+
+    CancellationContext openRunContext(CancellationContext parentContext, String executionId) {
+        CancellationContext context = parentContext.child("execution " + executionId, configuration.getExecutionTimeout());
+        activeRunContexts.add(context);
+        return context;
+    }
 
-        mainExecutor.shutdownNow();
-        forkJoinPool.shutdownNow();
-        scheduledExecutor.shutdownNow();
+    void closeRunContext(CancellationContext context) {
+        activeRunContexts.remove(context);
+        context.close();
+    }
+
+    private void cancelRunContexts(String reason) {
+        activeRunContexts.forEach(context -> context.cancel(reason));
+    }
+
+    private void cancelScheduledTasks() {
+        scheduledTasks.forEach(task -> task.cancel(false));
+        scheduledTasks.clear();
     }
 
     // ===== INNER CLASSES AND SUPPORTING TYPES =====
@@ -1978,6 +2098,36 @@ public class TestRunner {
         }
     }
 
+    /**
+     * Permits for parallel execution batches, whose limit can be lowered while batches hold them
+     */
+    private static class BatchSlots extends Semaphore {
+        private final AtomicInteger limit;
+
+        public BatchSlots(int limit) {
+            super(limit, true);
+            this.limit = new AtomicInteger(limit);
+        }
+
+        public int getLimit() { return limit.get(); }
+
+        public int getInUse() {
+            return Math.max(0, limit.get() - availablePermits());
+        }
+
+        /**
+         * Halves the limit, down to one batch; permits held now are not taken back, so the new
+         * limit takes effect as running batches finish.
+         */
+        public synchronized int halve() {
+            int current = limit.get();
+            int reduced = Math.max(1, current / 2);
+            reducePermits(current - reduced);
+            limit.set(reduced);
+            return reduced;
+        }
+    }
+
     /**
      * Execution metrics container
      */
@@ -2074,7 +2224,8 @@ public class TestRunner {
     private static class IntelligentTestScheduler {
         public IntelligentTestScheduler(TestRunnerConfiguration config) {}
         public TestExecutionPlan createOptimalExecutionPlan(TestDiscoveryResult discovery) {
-            return new TestExecutionPlan(discovery.getTestCases());
+            // Tests of the highest-risk endpoints run first, so an interrupted run has executed them
+            return new TestExecutionPlan(EndpointPriorityScheduler.prioritizeTestCases(discovery.getTestCases()));
         }
     }
 
@@ -266,12 +266,14 @@ public class TestStrategyManager {
 
     // ===== CORE ENTERPRISE COMPONENTS =====
     private final StrategyManagerConfiguration configuration;
+    private final SharedRuntime runtime;
     private final ExecutorService mainExecutor;
     private final ScheduledExecutorService scheduledExecutor;
 
     // Advanced caching system
     private final Map<String, AdvancedStrategyRecommendation> strategyCache = new ConcurrentHashMap<>();
     private final Map<String, ComprehensiveTestSuite> testSuiteCache = new ConcurrentHashMap<>();
+    private final TestCaseDeduplicator testCaseDeduplicator = new TestCaseDeduplicator();
 
     // Enterprise metrics
     private final AtomicLong totalStrategiesRecommended = new AtomicLong(0);
@@ -293,9 +295,17 @@ public class TestStrategyManager {
      * Constructor with custom configuration
      */
     public TestStrategyManager(StrategyManagerConfiguration configuration) {
+        this(configuration, SharedRuntime.getDefault());
+    }
+
+    /**
+     * Constructor with custom configuration and an explicit shared runtime
+     */
+    public TestStrategyManager(StrategyManagerConfiguration configuration, SharedRuntime runtime) {
         this.configuration = validateAndEnhanceConfiguration(configuration);
-        this.mainExecutor = createOptimizedExecutorService();
-        this.scheduledExecutor = Executors.newScheduledThreadPool(4);
+        this.runtime = Objects.requireNonNull(runtime, "runtime");
+        this.mainExecutor = runtime.getCpuExecutor();
+        this.scheduledExecutor = runtime.getScheduler();
 
         logger.info("TestStrategyManager v" + VERSION + " initialized with " +
                 configuration.getOptimizationLevel() + " optimization level");
@@ -365,21 +375,30 @@ public class TestStrategyManager {
         validateConfiguration(endpoint);
         validateConfiguration(recommendation);
 
-        List<GeneratedTestCase> testCases = new ArrayList<>();
+        // Primary strategy first, then complementary strategies; a strategy listed twice is generated once
+        Set<StrategyType> strategies = new LinkedHashSet<>();
+        strategies.add(recommendation.getPrimaryStrategy());
+        strategies.addAll(recommendation.getComplementaryStrategies());
 
-        // Generate tests based on primary strategy
-        StrategyType primaryStrategy = recommendation.getPrimaryStrategy();
-        if (primaryStrategy != null) {
-            testCases.addAll(generateTestsForStrategy(endpoint, primaryStrategy, recommendation));
-        }
+        // Strategies are generated in parallel and merged as each one completes
+        StrategyResultMerger merger = new StrategyResultMerger();
+        StrategyType inlineStrategy = null;
 
-        // Generate tests based on complementary strategies
-        for (StrategyType strategyType : recommendation.getComplementaryStrategies()) {
-            testCases.addAll(generateTestsForStrategy(endpoint, strategyType, recommendation));
+        for (StrategyType strategyType : strategies) {
+            if (inlineStrategy == null) {
+                // The calling thread generates the first strategy itself instead of idling
+                inlineStrategy = strategyType;
+                continue;
+            }
+            merger.mergeAsync(() -> generateTestsForStrategy(endpoint, strategyType, recommendation), mainExecutor);
         }
 
-        // Apply optimization and quality enhancements
-        testCases = optimizeGeneratedTestCases(testCases);
+        merger.merge(generateTestsForStrategy(endpoint, inlineStrategy, recommendation));
+        merger.await();
+
+        // Drop cases that differ from a higher-priority case only trivially
+        List<GeneratedTestCase> testCases = merger.optimize(testCaseDeduplicator);
+        logger.info("Optimized test cases: " + merger.getGeneratedCount() + " -> " + testCases.size());
 
         logger.info("Generated " + testCases.size() + " test cases for endpoint: " + endpoint.getOperationId());
 
@@ -715,38 +734,6 @@ public class TestStrategyManager {
         return sanitized;
     }
 
-    // ===== OPTIMIZATION METHODS =====
-
-    private List<GeneratedTestCase> optimizeGeneratedTestCases(List<GeneratedTestCase> testCases) {
-        // Remove duplicates based on test content
-        Map<String, GeneratedTestCase> uniqueTests = new HashMap<>();
-
-        for (GeneratedTestCase testCase : testCases) {
-            String key = generateTestKey(testCase);
-            if (!uniqueTests.containsKey(key) || testCase.getComplexity() > uniqueTests.get(key).getComplexity()) {
-                uniqueTests.put(key, testCase);
-            }
-        }
-
-        List<GeneratedTestCase> optimized = new ArrayList<>(uniqueTests.values());
-
-        // Sort by priority and complexity
-        optimized.sort((a, b) -> {
-            int priorityCompare = Integer.compare(b.getPriority(), a.getPriority());
-            if (priorityCompare != 0) return priorityCompare;
-            return Integer.compare(b.getComplexity(), a.getComplexity());
-        });
-
-        logger.info("Optimized test cases: " + testCases.size() + " -> " + optimized.size());
-        return optimized;
-    }
-
-    private String generateTestKey(GeneratedTestCase testCase) {
-        return testCase.getEndpoint().getOperationId() + "_" +
-                testCase.getStrategyType().name() + "_" +
-                testCase.getScenario().name();
-    }
-
     // ===== UTILITY METHODS =====
 
     /**
@@ -829,16 +816,7 @@ public class TestStrategyManager {
                 endpoint.getOperationId(),
                 strategy.name().toLowerCase(),
                 scenario.name().toLowerCase(),
-                System.nanoTime() % 10000
-        );
-    }
-
-    /**
-     * Standard executor service creation
-     */
-    private ExecutorService createOptimizedExecutorService() {
-        return Executors.newFixedThreadPool(
-                Math.max(1, Math.min(configuration.getThreadPoolSize(), Runtime.getRuntime().availableProcessors() * 2))
+                Math.floorMod(Objects.hash(endpoint.getMethod(), endpoint.getPath()), 10000)
         );
     }
 
@@ -1067,25 +1045,9 @@ public class TestStrategyManager {
      * Shutdown method
      */
     public void shutdown() {
-        try {
-            mainExecutor.shutdown();
-            scheduledExecutor.shutdown();
-
-            if (!mainExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
-                mainExecutor.shutdownNow();
-            }
-            if (!scheduledExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
-                scheduledExecutor.shutdownNow();
-            }
-
-            clearCaches();
-            logger.info("TestStrategyManager shutdown completed");
-        } catch (InterruptedException e) {
-            mainExecutor.shutdownNow();
-            scheduledExecutor.shutdownNow();
-            Thread.currentThread().interrupt();
-            logger.severe("TestStrategyManager shutdown interrupted: " + e.getMessage());
-        }
+        // Executors belong to the shared runtime, which drains and stops them during its own shutdown
+        clearCaches();
+        logger.info("TestStrategyManager shutdown completed");
     }
 
     // ===== GETTERS =====
@@ -0,0 +1,914 @@
+package org.example.openapi;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * ===== BINARY TEST SUITE FORMAT =====
+ *
+ * Compact, versioned, streamable encoding of generated test cases, used to hand a suite from a
+ * generation job to an execution job without regenerating it or parsing source.
+ *
+ * Layout:
+ * <pre>
+ *   magic "OATS" | version (1 byte) | header: suiteId, description, executionId, generatedAt
+ *   TEST_CASE record*  (one per test case, in write order)
+ *   END record: number of test cases written
+ * </pre>
+ *
+ * Integers are unsigned or zig-zag varints. Repeated values are written once: the first short
+ * string (up to {@value #MAX_INTERNED_LENGTH} chars) is added to a string table and later
+ * occurrences are table references; an endpoint is written in full the first time a test case
+ * refers to it and by reference afterwards. Both tables are built incrementally on both sides, so
+ * a reader decodes one record at a time from a fixed buffer and never holds the whole file.
+ * A file without its END record (an interrupted writer) is reported as truncated, and a length
+ * or count larger than the bytes left in the file as corrupt.
+ *
+ * Carried per test case: identity, scenario and strategy, endpoint (method, path, operation,
+ * tags, security, criticality, parameters), steps, test data, assertions, priority, complexity,
+ * estimated duration, tags, test code, execution status/duration and metadata. Values in test
+ * data and metadata keep their type when they are strings, numbers, booleans, lists or maps;
+ * anything else is stored as its {@code toString()}.
+ *
+ * @author Enhanced Test Generation Team
+ * @since 2025.1
+ */
+public final class TestSuiteBinaryCodec {
+
+    public static final int FORMAT_VERSION = 1;
+
+    static final int MAX_INTERNED_LENGTH = 128;
+    private static final byte[] MAGIC = {'O', 'A', 'T', 'S'};
+    private static final int MAX_TABLE_SIZE = 1 << 20;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    // Record tags
+    private static final int RECORD_TEST_CASE = 0x01;
+    private static final int RECORD_END = 0x7F;
+
+    // String references: 0 = null, 1 = new table entry, 2 = literal, n >= 3 = table entry n - 3
+    private static final int STRING_NULL = 0;
+    private static final int STRING_NEW = 1;
+    private static final int STRING_LITERAL = 2;
+    private static final int STRING_TABLE_BASE = 3;
+
+    // Endpoint references: 0 = null, 1 = definition follows, n >= 2 = endpoint n - 2
+    private static final int ENDPOINT_NULL = 0;
+    private static final int ENDPOINT_NEW = 1;
+    private static final int ENDPOINT_TABLE_BASE = 2;
+
+    // Value types in test data and metadata
+    private static final int VALUE_NULL = 0;
+    private static final int VALUE_STRING = 1;
+    private static final int VALUE_INT = 2;
+    private static final int VALUE_LONG = 3;
+    private static final int VALUE_DOUBLE = 4;
+    private static final int VALUE_TRUE = 5;
+    private static final int VALUE_FALSE = 6;
+    private static final int VALUE_LIST = 7;
+    private static final int VALUE_MAP = 8;
+
+    private TestSuiteBinaryCodec() {}
+
+    // ===== ENTRY POINTS =====
+
+    /**
+     * Starts a suite file; test cases are appended with {@link SuiteWriter#write(GeneratedTestCase)}.
+     */
+    public static SuiteWriter openWriter(Path file, SuiteHeader header) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        return new SuiteWriter(Files.newOutputStream(file), header);
+    }
+
+    /**
+     * Opens a suite file for incremental reading.
+     *
+     * @throws IOException if the file is not a suite file or was written by a newer format version
+     */
+    public static SuiteReader openReader(Path file) throws IOException {
+        return new SuiteReader(Files.newInputStream(file), Files.size(file));
+    }
+
+    public static void write(ComprehensiveTestSuite suite, Path file) throws IOException {
+        try (SuiteWriter writer = openWriter(file, SuiteHeader.of(suite))) {
+            for (GeneratedTestCase testCase : suite.getTestCases()) {
+                writer.write(testCase);
+            }
+        }
+    }
+
+    /**
+     * Reads a whole suite into memory; prefer {@link #openReader(Path)} for large files.
+     */
+    public static ComprehensiveTestSuite read(Path file) throws IOException {
+        try (SuiteReader reader = openReader(file)) {
+            List<GeneratedTestCase> testCases = new ArrayList<>();
+            while (reader.hasNext()) {
+                testCases.add(reader.next());
+            }
+            SuiteHeader header = reader.getHeader();
+            return ComprehensiveTestSuite.builder()
+                    .withSuiteId(header.getSuiteId())
+                    .withDescription(header.getDescription())
+                    .withExecutionId(header.getExecutionId())
+                    .withGenerationTimestamp(header.getGeneratedAt())
+                    .withTestCases(testCases)
+                    .build();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    // ===== HEADER =====
+
+    public static final class SuiteHeader {
+        private final String suiteId;
+        private final String description;
+        private final String executionId;
+        private final Instant generatedAt;
+
+        public SuiteHeader(String suiteId, String description, String executionId, Instant generatedAt) {
+            this.suiteId = suiteId;
+            this.description = description;
+            this.executionId = executionId;
+            this.generatedAt = generatedAt;
+        }
+
+        public static SuiteHeader of(ComprehensiveTestSuite suite) {
+            return new SuiteHeader(suite.getSuiteId(), suite.getDescription(), suite.getExecutionId(),
+                    suite.getGenerationTimestamp());
+        }
+
+        public String getSuiteId() { return suiteId; }
+        public String getDescription() { return description; }
+        public String getExecutionId() { return executionId; }
+        public Instant getGeneratedAt() { return generatedAt; }
+    }
+
+    // ===== WRITER =====
+
+    /**
+     * Appends test cases to a suite file. Writes are serialized, so a writer can be shared by the
+     * workers of a pipeline; the file is complete once {@link #close()} has written the END record.
+     */
+    public static final class SuiteWriter implements Closeable {
+        private final Encoder out;
+        private long written;
+        private boolean closed;
+
+        SuiteWriter(OutputStream stream, SuiteHeader header) throws IOException {
+            this.out = new Encoder(stream);
+            try {
+                out.writeRaw(MAGIC);
+                out.writeByte(FORMAT_VERSION);
+                out.writeString(header.getSuiteId());
+                out.writeString(header.getDescription());
+                out.writeString(header.getExecutionId());
+                out.writeInstant(header.getGeneratedAt());
+            } catch (IOException e) {
+                out.close();
+                throw e;
+            }
+        }
+
+        public synchronized void write(GeneratedTestCase testCase) throws IOException {
+            if (closed) {
+                throw new IOException("Suite writer is closed");
+            }
+            out.writeByte(RECORD_TEST_CASE);
+            out.writeTestCase(testCase);
+            written++;
+        }
+
+        public synchronized void flush() throws IOException {
+            out.flush();
+        }
+
+        public synchronized long getWrittenCount() {
+            return written;
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                out.writeByte(RECORD_END);
+                out.writeVarLong(written);
+                out.flush();
+            } finally {
+                out.close();
+            }
+        }
+    }
+
+    // ===== READER =====
+
+    /**
+     * Iterates the test cases of a suite file in write order, decoding one record per
+     * {@link #next()}. Read failures surface as {@link UncheckedIOException}.
+     */
+    public static final class SuiteReader implements Iterator<GeneratedTestCase>, Closeable {
+        private final Decoder in;
+        private final SuiteHeader header;
+        private long read;
+        private boolean ended;
+        private GeneratedTestCase pending;
+
+        /**
+         * @param length bytes in the stream, which bounds the lengths a corrupt file can declare
+         */
+        SuiteReader(InputStream stream, long length) throws IOException {
+            this.in = new Decoder(stream, length);
+            try {
+                byte[] magic = in.readRaw(MAGIC.length);
+                if (!Arrays.equals(magic, MAGIC)) {
+                    throw new IOException("Not a test suite file");
+                }
+                int version = in.readByte();
+                if (version < 1 || version > FORMAT_VERSION) {
+                    throw new IOException("Unsupported test suite format version " + version
+                            + " (supported: 1-" + FORMAT_VERSION + ")");
+                }
+                this.header = new SuiteHeader(in.readString(), in.readString(), in.readString(), in.readInstant());
+            } catch (IOException e) {
+                in.close();
+                throw e;
+            }
+        }
+
+        public SuiteHeader getHeader() {
+            return header;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (pending != null) {
+                return true;
+            }
+            if (ended) {
+                return false;
+            }
+            try {
+                int record = in.readByte();
+                if (record == RECORD_TEST_CASE) {
+                    pending = in.readTestCase();
+                    read++;
+                    return true;
+                }
+                if (record == RECORD_END) {
+                    long expected = in.readVarLong();
+                    ended = true;
+                    if (expected != read) {
+                        throw new IOException("Suite file declares " + expected + " test cases but contains " + read);
+                    }
+                    return false;
+                }
+                throw new IOException("Corrupt suite file: unknown record type " + record);
+            } catch (EOFException e) {
+                throw new UncheckedIOException(new EOFException(
+                        "Suite file is truncated after " + read + " test cases (writer did not finish)"));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public GeneratedTestCase next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            GeneratedTestCase next = pending;
+            pending = null;
+            return next;
+        }
+
+        /**
+         * Up to {@code maxSize} next test cases; empty when the file is exhausted.
+         */
+        public List<GeneratedTestCase> nextBatch(int maxSize) {
+            List<GeneratedTestCase> batch = new ArrayList<>(Math.min(maxSize, 1024));
+            while (batch.size() < maxSize && hasNext()) {
+                batch.add(next());
+            }
+            return batch;
+        }
+
+        public long getReadCount() {
+            return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    // ===== ENCODING =====
+
+    private static final class Encoder implements Closeable {
+        private final OutputStream stream;
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+        private int position;
+        private final Map<String, Integer> strings = new HashMap<>();
+        private final Map<EndpointInfo, Integer> endpoints = new IdentityHashMap<>();
+
+        Encoder(OutputStream stream) {
+            this.stream = stream;
+        }
+
+        void writeTestCase(GeneratedTestCase testCase) throws IOException {
+            writeString(testCase.getTestId());
+            writeString(testCase.getTestName());
+            writeString(testCase.getDescription());
+            writeString(testCase.getScenario() != null ? testCase.getScenario().name() : null);
+            writeString(testCase.getStrategyType() != null ? testCase.getStrategyType().name() : null);
+            writeEndpoint(testCase.getEndpoint());
+
+            List<TestStep> steps = testCase.getTestSteps();
+            writeVarInt(steps.size());
+            for (TestStep step : steps) {
+                writeString(step.getAction());
+                writeString(step.getDescription());
+                writeSignedVarLong(step.getOrder());
+            }
+
+            TestDataSet testData = testCase.getTestData();
+            writeBoolean(testData != null);
+            if (testData != null) {
+                writeMap(testData.getAllData());
+                writeMap(testData.getAllMetadata());
+            }
+
+            List<TestAssertion> assertions = testCase.getAssertions();
+            writeVarInt(assertions.size());
+            for (TestAssertion assertion : assertions) {
+                writeString(assertion.getName());
+                writeString(assertion.getDescription());
+                writeString(assertion.getCondition());
+            }
+
+            writeSignedVarLong(testCase.getPriority());
+            writeSignedVarLong(testCase.getComplexity());
+            writeDuration(testCase.getEstimatedDuration());
+            writeStrings(new TreeSet<>(testCase.getTags()));
+            writeString(testCase.getTestCode());
+            writeString(testCase.getExecutionStatus());
+            writeDuration(testCase.getExecutionDuration());
+            writeMap(testCase.getMetadata());
+        }
+
+        private void writeEndpoint(EndpointInfo endpoint) throws IOException {
+            if (endpoint == null) {
+                writeVarInt(ENDPOINT_NULL);
+                return;
+            }
+            Integer id = endpoints.get(endpoint);
+            if (id != null) {
+                writeVarInt(ENDPOINT_TABLE_BASE + id);
+                return;
+            }
+            endpoints.put(endpoint, endpoints.size());
+            writeVarInt(ENDPOINT_NEW);
+            writeString(endpoint.getMethod());
+            writeString(endpoint.getPath());
+            writeString(endpoint.getOperationId());
+            writeString(endpoint.getSummary());
+            writeString(endpoint.getDescription());
+            writeStrings(new TreeSet<>(endpoint.getTags()));
+            writeStrings(endpoint.getSecuritySchemes() != null ? endpoint.getSecuritySchemes() : List.of());
+            writeString(endpoint.getBusinessCriticality() != null ? endpoint.getBusinessCriticality().name() : null);
+            List<String> risks = new ArrayList<>();
+            endpoint.getSecurityRisks().forEach(risk -> risks.add(risk.name()));
+            Collections.sort(risks);
+            writeStrings(risks);
+
+            List<ParameterInfo> parameters = endpoint.getParameters() != null ? endpoint.getParameters() : List.of();
+            writeVarInt(parameters.size());
+            for (ParameterInfo parameter : parameters) {
+                writeString(parameter.getName());
+                writeString(parameter.getIn());
+                writeString(parameter.getType());
+                writeString(parameter.getFormat());
+                writeBoolean(parameter.isRequired());
+                writeString(parameter.getDescription());
+                writeValue(parameter.getExample());
+            }
+        }
+
+        private void writeStrings(Collection<String> values) throws IOException {
+            writeVarInt(values.size());
+            for (String value : values) {
+                writeString(value);
+            }
+        }
+
+        private void writeMap(Map<String, Object> map) throws IOException {
+            // Sorted so that equal data always encodes to equal bytes
+            Map<String, Object> sorted = new TreeMap<>(map);
+            writeVarInt(sorted.size());
+            for (Map.Entry<String, Object> entry : sorted.entrySet()) {
+                writeString(entry.getKey());
+                writeValue(entry.getValue());
+            }
+        }
+
+        private void writeValue(Object value) throws IOException {
+            if (value == null) {
+                writeVarInt(VALUE_NULL);
+            } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+                writeVarInt(VALUE_INT);
+                writeSignedVarLong(((Number) value).intValue());
+            } else if (value instanceof Long) {
+                writeVarInt(VALUE_LONG);
+                writeSignedVarLong((Long) value);
+            } else if (value instanceof Double || value instanceof Float) {
+                writeVarInt(VALUE_DOUBLE);
+                writeFixedLong(Double.doubleToRawLongBits(((Number) value).doubleValue()));
+            } else if (value instanceof Boolean) {
+                writeVarInt((Boolean) value ? VALUE_TRUE : VALUE_FALSE);
+            } else if (value instanceof Collection) {
+                Collection<?> list = (Collection<?>) value;
+                writeVarInt(VALUE_LIST);
+                writeVarInt(list.size());
+                for (Object element : list) {
+                    writeValue(element);
+                }
+            } else if (value instanceof Map) {
+                // Nested maps are sorted too, like the top-level ones in writeMap
+                Map<String, Object> sorted = new TreeMap<>();
+                for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                    sorted.put(String.valueOf(entry.getKey()), entry.getValue());
+                }
+                writeVarInt(VALUE_MAP);
+                writeVarInt(sorted.size());
+                for (Map.Entry<String, Object> entry : sorted.entrySet()) {
+                    writeString(entry.getKey());
+                    writeValue(entry.getValue());
+                }
+            } else {
+                writeVarInt(VALUE_STRING);
+                writeString(value.toString());
+            }
+        }
+
+        void writeString(String value) throws IOException {
+            if (value == null) {
+                writeVarInt(STRING_NULL);
+                return;
+            }
+            if (value.length() > MAX_INTERNED_LENGTH) {
+                writeVarInt(STRING_LITERAL);
+                writeUtf8(value);
+                return;
+            }
+            Integer id = strings.get(value);
+            if (id != null) {
+                writeVarInt(STRING_TABLE_BASE + id);
+            } else if (strings.size() < MAX_TABLE_SIZE) {
+                strings.put(value, strings.size());
+                writeVarInt(STRING_NEW);
+                writeUtf8(value);
+            } else {
+                writeVarInt(STRING_LITERAL);
+                writeUtf8(value);
+            }
+        }
+
+        private void writeUtf8(String value) throws IOException {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(bytes.length);
+            writeRaw(bytes);
+        }
+
+        void writeInstant(Instant instant) throws IOException {
+            writeBoolean(instant != null);
+            if (instant != null) {
+                writeSignedVarLong(instant.getEpochSecond());
+                writeVarInt(instant.getNano());
+            }
+        }
+
+        private void writeDuration(Duration duration) throws IOException {
+            writeBoolean(duration != null);
+            if (duration != null) {
+                writeSignedVarLong(duration.getSeconds());
+                writeVarInt(duration.getNano());
+            }
+        }
+
+        private void writeBoolean(boolean value) throws IOException {
+            writeByte(value ? 1 : 0);
+        }
+
+        void writeByte(int value) throws IOException {
+            if (position == buffer.length) {
+                drain();
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        void writeVarInt(int value) throws IOException {
+            writeVarLong(value & 0xFFFFFFFFL);
+        }
+
+        void writeVarLong(long value) throws IOException {
+            if (buffer.length - position < 10) {
+                drain();
+            }
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        private void writeSignedVarLong(long value) throws IOException {
+            writeVarLong((value << 1) ^ (value >> 63));
+        }
+
+        private void writeFixedLong(long value) throws IOException {
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                writeByte((int) (value >>> shift));
+            }
+        }
+
+        void writeRaw(byte[] bytes) throws IOException {
+            if (bytes.length > buffer.length - position) {
+                drain();
+                if (bytes.length > buffer.length) {
+                    stream.write(bytes);
+                    return;
+                }
+            }
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        private void drain() throws IOException {
+            stream.write(buffer, 0, position);
+            position = 0;
+        }
+
+        void flush() throws IOException {
+            drain();
+            stream.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            stream.close();
+        }
+    }
+
+    // ===== DECODING =====
+
+    private static final class Decoder implements Closeable {
+        private final InputStream stream;
+        private final long length;
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+        private int position;
+        private int limit;
+        // Bytes taken from the stream into the buffer so far
+        private long filled;
+        private final List<String> strings = new ArrayList<>();
+        private final List<EndpointInfo> endpoints = new ArrayList<>();
+
+        Decoder(InputStream stream, long length) {
+            this.stream = stream;
+            this.length = length;
+        }
+
+        GeneratedTestCase readTestCase() throws IOException {
+            GeneratedTestCase.Builder builder = GeneratedTestCase.builder()
+                    .withTestId(readString())
+                    .withTestName(readString())
+                    .withDescription(readString());
+            String scenario = readString();
+            String strategy = readString();
+            builder.withScenario(scenario != null ? readEnum(TestGenerationScenario.class, scenario) : null)
+                    .withStrategyType(strategy != null ? readEnum(StrategyType.class, strategy) : null)
+                    .withEndpoint(readEndpoint());
+
+            int stepCount = readCount();
+            List<TestStep> steps = new ArrayList<>(stepCount);
+            for (int i = 0; i < stepCount; i++) {
+                steps.add(new TestStep(readString(), readString(), (int) readSignedVarLong()));
+            }
+            builder.withTestSteps(steps);
+
+            if (readBoolean()) {
+                TestDataSet testData = new TestDataSet();
+                readMap(testData::addParameterValue);
+                readMap(testData::addMetadata);
+                builder.withTestData(testData);
+            }
+
+            int assertionCount = readCount();
+            List<TestAssertion> assertions = new ArrayList<>(assertionCount);
+            for (int i = 0; i < assertionCount; i++) {
+                assertions.add(new TestAssertion(readString(), readString(), readString()));
+            }
+
+            GeneratedTestCase testCase = builder.withAssertions(assertions)
+                    .withPriority((int) readSignedVarLong())
+                    .withComplexity((int) readSignedVarLong())
+                    .withEstimatedDuration(readDuration())
+                    .withTags(new HashSet<>(readStrings()))
+                    .withTestCode(readString())
+                    .build();
+            testCase.setExecutionStatus(readString());
+            testCase.setExecutionDuration(readDuration());
+            readMap(testCase::addMetadata);
+            return testCase;
+        }
+
+        private EndpointInfo readEndpoint() throws IOException {
+            int reference = readVarInt();
+            if (reference == ENDPOINT_NULL) {
+                return null;
+            }
+            if (reference != ENDPOINT_NEW) {
+                int id = reference - ENDPOINT_TABLE_BASE;
+                if (id >= endpoints.size()) {
+                    throw new IOException("Corrupt suite file: unknown endpoint " + id);
+                }
+                return endpoints.get(id);
+            }
+
+            EndpointInfo.Builder builder = EndpointInfo.builder()
+                    .withMethod(readString())
+                    .withPath(readString())
+                    .withOperationId(readString())
+                    .withSummary(readString())
+                    .withDescription(readString());
+            for (String tag : readStrings()) {
+                builder.withTag(tag);
+            }
+            for (String scheme : readStrings()) {
+                builder.withSecurity(scheme);
+            }
+            String criticality = readString();
+            if (criticality != null) {
+                builder.withBusinessCriticality(readEnum(EndpointInfo.BusinessCriticality.class, criticality));
+            }
+            for (String risk : readStrings()) {
+                builder.withSecurityRisk(readEnum(EndpointInfo.SecurityRisk.class, risk));
+            }
+            int parameterCount = readCount();
+            for (int i = 0; i < parameterCount; i++) {
+                builder.withParameter(ParameterInfo.builder()
+                        .withName(readString())
+                        .withIn(readString())
+                        .withType(readString())
+                        .withFormat(readString())
+                        .withRequired(readBoolean())
+                        .withDescription(readString())
+                        .withExample(readValue())
+                        .build());
+            }
+
+            EndpointInfo endpoint;
+            try {
+                endpoint = builder.build();
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Corrupt suite file: invalid endpoint", e);
+            }
+            endpoints.add(endpoint);
+            return endpoint;
+        }
+
+        private List<String> readStrings() throws IOException {
+            int count = readCount();
+            List<String> values = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                values.add(readString());
+            }
+            return values;
+        }
+
+        private interface EntrySink {
+            void accept(String key, Object value);
+        }
+
+        private void readMap(EntrySink sink) throws IOException {
+            int count = readCount();
+            for (int i = 0; i < count; i++) {
+                sink.accept(readString(), readValue());
+            }
+        }
+
+        private Object readValue() throws IOException {
+            int type = readVarInt();
+            switch (type) {
+                case VALUE_NULL:
+                    return null;
+                case VALUE_STRING:
+                    return readString();
+                case VALUE_INT:
+                    return (int) readSignedVarLong();
+                case VALUE_LONG:
+                    return readSignedVarLong();
+                case VALUE_DOUBLE:
+                    return Double.longBitsToDouble(readFixedLong());
+                case VALUE_TRUE:
+                    return Boolean.TRUE;
+                case VALUE_FALSE:
+                    return Boolean.FALSE;
+                case VALUE_LIST: {
+                    int count = readCount();
+                    List<Object> list = new ArrayList<>(count);
+                    for (int i = 0; i < count; i++) {
+                        list.add(readValue());
+                    }
+                    return list;
+                }
+                case VALUE_MAP: {
+                    int count = readCount();
+                    Map<String, Object> map = new LinkedHashMap<>();
+                    for (int i = 0; i < count; i++) {
+                        map.put(readString(), readValue());
+                    }
+                    return map;
+                }
+                default:
+                    throw new IOException("Corrupt suite file: unknown value type " + type);
+            }
+        }
+
+        private <E extends Enum<E>> E readEnum(Class<E> type, String name) throws IOException {
+            try {
+                return Enum.valueOf(type, name);
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Suite file refers to unknown " + type.getSimpleName() + " " + name, e);
+            }
+        }
+
+        String readString() throws IOException {
+            int reference = readVarInt();
+            switch (reference) {
+                case STRING_NULL:
+                    return null;
+                case STRING_LITERAL:
+                    return readUtf8();
+                case STRING_NEW: {
+                    String value = readUtf8();
+                    strings.add(value);
+                    return value;
+                }
+                default: {
+                    int id = reference - STRING_TABLE_BASE;
+                    if (id < 0 || id >= strings.size()) {
+                        throw new IOException("Corrupt suite file: unknown string " + id);
+                    }
+                    return strings.get(id);
+                }
+            }
+        }
+
+        private String readUtf8() throws IOException {
+            int length = readCount();
+            if (length <= buffer.length) {
+                ensure(length);
+                String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+                position += length;
+                return value;
+            }
+            return new String(readRaw(length), StandardCharsets.UTF_8);
+        }
+
+        Instant readInstant() throws IOException {
+            return readBoolean() ? Instant.ofEpochSecond(readSignedVarLong(), readVarInt()) : null;
+        }
+
+        private Duration readDuration() throws IOException {
+            return readBoolean() ? Duration.ofSeconds(readSignedVarLong(), readVarInt()) : null;
+        }
+
+        private boolean readBoolean() throws IOException {
+            return readByte() != 0;
+        }
+
+        /**
+         * A length or element count. Every element takes at least one byte, so a count larger than
+         * the bytes left is corrupt; rejecting it keeps a garbled count from sizing an allocation.
+         */
+        private int readCount() throws IOException {
+            int count = readVarInt();
+            if (count < 0) {
+                throw new IOException("Corrupt suite file: negative length");
+            }
+            long remaining = remaining();
+            if (count > remaining) {
+                throw new IOException("Corrupt suite file: length " + count + " exceeds the "
+                        + remaining + " bytes left");
+            }
+            return count;
+        }
+
+        private long remaining() {
+            return length - filled + (limit - position);
+        }
+
+        int readByte() throws IOException {
+            if (position == limit && !fill()) {
+                throw new EOFException();
+            }
+            return buffer[position++] & 0xFF;
+        }
+
+        int readVarInt() throws IOException {
+            long value = readVarLong();
+            if (value > 0xFFFFFFFFL) {
+                throw new IOException("Corrupt suite file: varint out of range");
+            }
+            return (int) value;
+        }
+
+        long readVarLong() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Corrupt suite file: varint too long");
+        }
+
+        private long readSignedVarLong() throws IOException {
+            long raw = readVarLong();
+            return (raw >>> 1) ^ -(raw & 1);
+        }
+
+        private long readFixedLong() throws IOException {
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value = (value << 8) | readByte();
+            }
+            return value;
+        }
+
+        byte[] readRaw(int length) throws IOException {
+            byte[] bytes = new byte[length];
+            int copied = 0;
+            while (copied < length) {
+                if (position == limit && !fill()) {
+                    throw new EOFException();
+                }
+                int chunk = Math.min(length - copied, limit - position);
+                System.arraycopy(buffer, position, bytes, copied, chunk);
+                position += chunk;
+                copied += chunk;
+            }
+            return bytes;
+        }
+
+        /**
+         * Makes {@code length} bytes available at {@code position}, compacting the buffer if needed.
+         */
+        private void ensure(int length) throws IOException {
+            if (limit - position >= length) {
+                return;
+            }
+            System.arraycopy(buffer, position, buffer, 0, limit - position);
+            limit -= position;
+            position = 0;
+            while (limit < length) {
+                int n = stream.read(buffer, limit, buffer.length - limit);
+                if (n < 0) {
+                    throw new EOFException();
+                }
+                limit += n;
+                filled += n;
+            }
+        }
+
+        private boolean fill() throws IOException {
+            int n = stream.read(buffer, 0, buffer.length);
+            if (n <= 0) {
+                return false;
+            }
+            position = 0;
+            limit = n;
+            filled += n;
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            stream.close();
+        }
+    }
+}
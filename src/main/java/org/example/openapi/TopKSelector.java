@@ -0,0 +1,189 @@
+package org.example.openapi;
+
+import java.util.*;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * ===== TOP-K SELECTOR =====
+ *
+ * Streaming replacement for "collect everything, sort, truncate to the maximum". Candidates are
+ * offered as they are generated and only the best {@code limit} are retained in a bounded heap, so
+ * memory is O(limit) rather than O(candidates). Ties keep the candidate offered first, exactly like
+ * a stable sort followed by a limit.
+ *
+ * Generators whose candidates share a known ranking key can also skip work up front: once
+ * {@link #isFull()}, a candidate that cannot beat {@link #peekWorst()} would be rejected anyway.
+ *
+ * Not thread-safe; use one selector per generation pass.
+ *
+ * @author Enhanced Test Generation Team
+ * @since 2025.1
+ */
+public final class TopKSelector<T> {
+
+    private final int limit;
+    private final ToDoubleFunction<? super T> scoreFunction;
+    private final Comparator<Candidate<T>> candidateOrder;
+    // Worst retained candidate at the head
+    private final PriorityQueue<Candidate<T>> heap;
+    private long offered;
+
+    /**
+     * @param limit maximum number of candidates retained; 0 retains nothing
+     * @param order orders candidates best first
+     */
+    public TopKSelector(int limit, Comparator<? super T> order) {
+        this(limit, order, null);
+    }
+
+    private TopKSelector(int limit, Comparator<? super T> order, ToDoubleFunction<? super T> scoreFunction) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit cannot be negative");
+        }
+        this.limit = limit;
+        this.scoreFunction = scoreFunction;
+
+        Comparator<Candidate<T>> valueOrder = scoreFunction != null
+                ? (a, b) -> Double.compare(b.score, a.score)
+                : (a, b) -> order.compare(a.value, b.value);
+        this.candidateOrder = valueOrder.thenComparingLong(candidate -> candidate.sequence);
+        this.heap = new PriorityQueue<>(Math.max(1, Math.min(limit, 64)), candidateOrder.reversed());
+    }
+
+    /**
+     * Selector ranking candidates by a score, highest first. Each candidate is scored once, when
+     * offered, rather than on every comparison.
+     */
+    public static <T> TopKSelector<T> byScore(int limit, ToDoubleFunction<? super T> scoreFunction) {
+        return new TopKSelector<>(limit, null, Objects.requireNonNull(scoreFunction, "scoreFunction"));
+    }
+
+    /**
+     * Convenience for an existing collection: the best {@code limit} elements, best first.
+     */
+    public static <T> List<T> select(Collection<? extends T> candidates, int limit, Comparator<? super T> order) {
+        TopKSelector<T> selector = new TopKSelector<>(limit, order);
+        selector.offerAll(candidates);
+        return selector.toSortedList();
+    }
+
+    // ===== OFFERING =====
+
+    /**
+     * @return true if the candidate is retained (it may still be displaced later)
+     */
+    public boolean offer(T candidate) {
+        Candidate<T> entry = new Candidate<>(candidate, offered++,
+                scoreFunction != null ? scoreFunction.applyAsDouble(candidate) : 0.0);
+
+        if (heap.size() < limit) {
+            heap.add(entry);
+            return true;
+        }
+        if (limit == 0 || candidateOrder.compare(entry, heap.peek()) >= 0) {
+            return false;
+        }
+        heap.poll();
+        heap.add(entry);
+        return true;
+    }
+
+    public void offerAll(Iterable<? extends T> candidates) {
+        for (T candidate : candidates) {
+            offer(candidate);
+        }
+    }
+
+    /**
+     * Records that a generator skipped a candidate it knew could not be retained, so results are
+     * reported as truncated just as if the candidate had been offered and rejected.
+     */
+    public void recordSkipped() {
+        offered++;
+    }
+
+    /**
+     * Whether offering this candidate now would retain it.
+     */
+    public boolean canAccept(T candidate) {
+        if (!isFull()) {
+            return true;
+        }
+        if (limit == 0) {
+            return false;
+        }
+        // A later offer loses ties, so it must be strictly better than the current worst
+        Candidate<T> probe = new Candidate<>(candidate, offered,
+                scoreFunction != null ? scoreFunction.applyAsDouble(candidate) : 0.0);
+        return candidateOrder.compare(probe, heap.peek()) < 0;
+    }
+
+    // ===== STATE =====
+
+    public boolean isFull() { return heap.size() >= limit; }
+
+    /**
+     * The retained candidate the next better offer would displace, or null if none is retained.
+     */
+    public T peekWorst() {
+        Candidate<T> worst = heap.peek();
+        return worst != null ? worst.value : null;
+    }
+
+    public int size() { return heap.size(); }
+    public int getLimit() { return limit; }
+    public long getOfferedCount() { return offered; }
+
+    /**
+     * Whether any offered candidate was rejected or displaced.
+     */
+    public boolean isTruncated() { return offered > heap.size(); }
+
+    // ===== RESULTS =====
+
+    /**
+     * Retained candidates, best first.
+     */
+    public List<T> toSortedList() {
+        List<Candidate<T>> candidates = new ArrayList<>(heap);
+        candidates.sort(candidateOrder);
+        return values(candidates);
+    }
+
+    /**
+     * Retained candidates in the order they were offered.
+     */
+    public List<T> toList() {
+        List<Candidate<T>> candidates = new ArrayList<>(heap);
+        candidates.sort(Comparator.comparingLong(candidate -> candidate.sequence));
+        return values(candidates);
+    }
+
+    /**
+     * Offer order when nothing had to be dropped, best first otherwise - the behaviour of the
+     * "sort and limit only when over the maximum" code this class replaces.
+     */
+    public List<T> getSelected() {
+        return isTruncated() ? toSortedList() : toList();
+    }
+
+    private static <T> List<T> values(List<Candidate<T>> candidates) {
+        List<T> values = new ArrayList<>(candidates.size());
+        for (Candidate<T> candidate : candidates) {
+            values.add(candidate.value);
+        }
+        return values;
+    }
+
+    private static final class Candidate<T> {
+        private final T value;
+        private final long sequence;
+        private final double score;
+
+        Candidate(T value, long sequence, double score) {
+            this.value = value;
+            this.sequence = sequence;
+            this.score = score;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package org.example.openapi;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long RTT_NANOS = Duration.ofMillis(100).toNanos();
+
+    private final AtomicLong clock = new AtomicLong();
+
+    // ===== INCREASE =====
+
+    @Test
+    void busyLimitGrowsByOnePerRoundTrip() {
+        AdaptiveConcurrencyLimiter limiter = newLimiter(4);
+
+        // Four calls at a time: each success adds a quarter
+        for (int round = 0; round < 4; round++) {
+            complete(acquire(limiter, 4));
+        }
+
+        assertEquals(5, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void unusedLimitIsNotRaised() {
+        AdaptiveConcurrencyLimiter limiter = newLimiter(10);
+
+        for (int i = 0; i < 50; i++) {
+            complete(acquire(limiter, 1));
+        }
+
+        assertEquals(10, limiter.getLimit());
+    }
+
+    @Test
+    void limitStopsAtItsMaximum() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 2, 1, 3, clock::get);
+
+        for (int i = 0; i < 20; i++) {
+            complete(acquire(limiter, limiter.getLimit()));
+        }
+
+        assertEquals(3, limiter.getLimit());
+    }
+
+    // ===== DECREASE =====
+
+    @Test
+    void droppedCallHalvesTheLimit() {
+        AdaptiveConcurrencyLimiter limiter = newLimiter(16);
+
+        acquire(limiter, 1).get(0).onDropped();
+
+        assertEquals(8, limiter.getLimit());
+        assertEquals(1, limiter.getSnapshot().getDrops());
+    }
+
+    @Test
+    void limitIsLoweredOncePerRoundTrip() {
+        AdaptiveConcurrencyLimiter limiter = newLimiter(16);
+        complete(acquire(limiter, 1));
+
+        // A burst failing together for the same overload counts once
+        for (AdaptiveConcurrencyLimiter.Permit permit : acquire(limiter, 4)) {
+            permit.onDropped();
+        }
+        assertEquals(8, limiter.getLimit());
+
+        clock.addAndGet(RTT_NANOS);
+        acquire(limiter, 1).get(0).onDropped();
+        assertEquals(4, limiter.getLimit());
+        assertEquals(5, limiter.getSnapshot().getDrops());
+    }
+
+    @Test
+    void limitNeverFallsBelowItsMinimum() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 4, 2, 8, clock::get);
+
+        for (int i = 0; i < 5; i++) {
+            acquire(limiter, 1).get(0).onDropped();
+            clock.addAndGet(RTT_NANOS);
+        }
+
+        assertEquals(2, limiter.getLimit());
+    }
+
+    @Test
+    void risingLatencyLowersTheLimit() {
+        AdaptiveConcurrencyLimiter limiter = newLimiter(10);
+        for (int i = 0; i < 100; i++) {
+            complete(acquire(limiter, 1));
+        }
+
+        // Ten times slower: one such call lifts the recent latency past twice the baseline
+        AdaptiveConcurrencyLimiter.Permit permit = acquire(limiter, 1).get(0);
+        clock.addAndGet(RTT_NANOS * 10);
+        permit.onSuccess();
+
+        assertEquals(9, limiter.getLimit());
+        assertEquals(0, limiter.getSnapshot().getDrops());
+    }
+
+    @Test
+    void ignoredCallLeavesTheLimitAlone() {
+        AdaptiveConcurrencyLimiter limiter = newLimiter(8);
+
+        AdaptiveConcurrencyLimiter.Permit permit = acquire(limiter, 1).get(0);
+        permit.onIgnore();
+        permit.onDropped();
+
+        assertEquals(8, limiter.getLimit());
+        assertEquals(0, limiter.getSnapshot().getDrops());
+        assertEquals(1, limiter.getSnapshot().getIgnored());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    // ===== WAITING =====
+
+    @Test
+    void callerOverTheLimitGivesUpAtItsDeadline() {
+        AdaptiveConcurrencyLimiter limiter = newLimiter(1);
+        acquire(limiter, 1);
+
+        try (CancellationContext context = CancellationContext.background().child("waiting", Duration.ofMillis(50))) {
+            assertThrows(CancellationException.class, () -> limiter.acquire(context));
+        }
+        assertEquals(0, limiter.getQueueDepth());
+        assertEquals(1, limiter.getInFlight());
+    }
+
+    // ===== HELPERS =====
+
+    private AdaptiveConcurrencyLimiter newLimiter(int initialLimit) {
+        return new AdaptiveConcurrencyLimiter("test", initialLimit, 1, 64, clock::get);
+    }
+
+    private static List<AdaptiveConcurrencyLimiter.Permit> acquire(AdaptiveConcurrencyLimiter limiter, int count) {
+        List<AdaptiveConcurrencyLimiter.Permit> permits = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            permits.add(limiter.acquire(CancellationContext.background()));
+        }
+        return permits;
+    }
+
+    /**
+     * Completes the calls one round trip after they started.
+     */
+    private void complete(List<AdaptiveConcurrencyLimiter.Permit> permits) {
+        clock.addAndGet(RTT_NANOS);
+        permits.forEach(AdaptiveConcurrencyLimiter.Permit::onSuccess);
+    }
+}
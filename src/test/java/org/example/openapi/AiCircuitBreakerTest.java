@@ -0,0 +1,186 @@
+package org.example.openapi;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AiCircuitBreakerTest {
+
+    private static final Duration SLOW = Duration.ofSeconds(1);
+    private static final Duration OPEN = Duration.ofSeconds(10);
+    private static final long FAST_NANOS = Duration.ofMillis(10).toNanos();
+    private static final long SLOW_NANOS = SLOW.toNanos();
+
+    private final AtomicLong clock = new AtomicLong();
+    private final List<AiCircuitBreaker.Transition> transitions = new ArrayList<>();
+
+    // ===== OPENING =====
+
+    @Test
+    void opensWhenTheFailureRateReachesItsThreshold() {
+        AiCircuitBreaker breaker = newBreaker(2);
+
+        succeed(breaker, 2);
+        fail(breaker, 1);
+        assertEquals(AiCircuitBreaker.State.CLOSED, breaker.getState());
+        fail(breaker, 1);
+
+        assertEquals(AiCircuitBreaker.State.OPEN, breaker.getState());
+        assertNull(breaker.tryAcquire());
+        assertEquals(1, breaker.getSnapshot().getRejectedCalls());
+        assertEquals(AiCircuitBreaker.State.OPEN, transitions.get(0).getTo());
+        assertEquals(0.5, transitions.get(0).getFailureRate());
+    }
+
+    @Test
+    void doesNotOpenBeforeTheMinimumCalls() {
+        AiCircuitBreaker breaker = newBreaker(2);
+
+        fail(breaker, 3);
+
+        assertEquals(AiCircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.isCallPermitted());
+    }
+
+    @Test
+    void opensWhenTheSlowCallRateReachesItsThreshold() {
+        AiCircuitBreaker breaker = newBreaker(2);
+
+        for (int i = 0; i < 3; i++) {
+            breaker.tryAcquire().onSuccess(SLOW_NANOS);
+        }
+        assertEquals(AiCircuitBreaker.State.CLOSED, breaker.getState());
+        breaker.tryAcquire().onSuccess(SLOW_NANOS);
+
+        assertEquals(AiCircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(1.0, transitions.get(0).getSlowCallRate());
+    }
+
+    @Test
+    void ignoredCallsAreNotCounted() {
+        AiCircuitBreaker breaker = newBreaker(2);
+
+        for (int i = 0; i < 10; i++) {
+            breaker.tryAcquire().onIgnore();
+        }
+
+        assertEquals(0, breaker.getSnapshot().getBufferedCalls());
+    }
+
+    // ===== HALF-OPEN =====
+
+    @Test
+    void halfOpenClosesWhenEveryTrialSucceeds() {
+        AiCircuitBreaker breaker = openBreaker(2);
+
+        clock.addAndGet(OPEN.toNanos());
+        assertTrue(breaker.isCallPermitted());
+        AiCircuitBreaker.Permit first = breaker.tryAcquire();
+        AiCircuitBreaker.Permit second = breaker.tryAcquire();
+        assertEquals(AiCircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertNotNull(first);
+        assertNotNull(second);
+        assertNull(breaker.tryAcquire(), "only the trial calls are let through");
+
+        first.onSuccess(FAST_NANOS);
+        assertEquals(AiCircuitBreaker.State.HALF_OPEN, breaker.getState());
+        second.onSuccess(FAST_NANOS);
+
+        assertEquals(AiCircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(0, breaker.getSnapshot().getBufferedCalls());
+    }
+
+    @Test
+    void halfOpenReopensOnASlowTrial() {
+        AiCircuitBreaker breaker = openBreaker(2);
+
+        clock.addAndGet(OPEN.toNanos());
+        breaker.tryAcquire().onSuccess(SLOW_NANOS);
+
+        assertEquals(AiCircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(2, breaker.getSnapshot().getOpenings());
+        assertNull(breaker.tryAcquire());
+    }
+
+    @Test
+    void ignoredTrialFreesItsPlace() {
+        AiCircuitBreaker breaker = openBreaker(1);
+
+        clock.addAndGet(OPEN.toNanos());
+        breaker.tryAcquire().onIgnore();
+        AiCircuitBreaker.Permit trial = breaker.tryAcquire();
+        assertNotNull(trial);
+        trial.onSuccess(FAST_NANOS);
+
+        assertEquals(AiCircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    // ===== GENERATIONS =====
+
+    @Test
+    void callsAdmittedBeforeATransitionAreNotCounted() {
+        AiCircuitBreaker breaker = newBreaker(1);
+        AiCircuitBreaker.Permit late = breaker.tryAcquire();
+        fail(breaker, 4);
+        assertEquals(AiCircuitBreaker.State.OPEN, breaker.getState());
+
+        clock.addAndGet(OPEN.toNanos());
+        AiCircuitBreaker.Permit trial = breaker.tryAcquire();
+        // The late answer must neither close the half-open breaker nor take the trial's place
+        late.onSuccess(FAST_NANOS);
+        assertEquals(AiCircuitBreaker.State.HALF_OPEN, breaker.getState());
+
+        trial.onFailure(FAST_NANOS);
+        assertEquals(AiCircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void permitSettlesOnce() {
+        AiCircuitBreaker breaker = newBreaker(2);
+        AiCircuitBreaker.Permit permit = breaker.tryAcquire();
+
+        permit.onFailure(FAST_NANOS);
+        permit.onFailure(FAST_NANOS);
+        permit.onSuccess(FAST_NANOS);
+
+        assertEquals(1, breaker.getSnapshot().getBufferedCalls());
+        assertEquals(1.0, breaker.getSnapshot().getFailureRate());
+    }
+
+    // ===== HELPERS =====
+
+    /**
+     * Opens at half the last 4 or more calls failed, or 4 in 5 were slow.
+     */
+    private AiCircuitBreaker newBreaker(int halfOpenCalls) {
+        AiCircuitBreaker breaker = new AiCircuitBreaker("test",
+                new AiCircuitBreaker.Settings(10, 4, 0.5, SLOW, 0.8, OPEN, halfOpenCalls), clock::get);
+        breaker.addListener(transitions::add);
+        return breaker;
+    }
+
+    private AiCircuitBreaker openBreaker(int halfOpenCalls) {
+        AiCircuitBreaker breaker = newBreaker(halfOpenCalls);
+        fail(breaker, 4);
+        assertEquals(AiCircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.isCallPermitted());
+        return breaker;
+    }
+
+    private static void succeed(AiCircuitBreaker breaker, int calls) {
+        for (int i = 0; i < calls; i++) {
+            breaker.tryAcquire().onSuccess(FAST_NANOS);
+        }
+    }
+
+    private static void fail(AiCircuitBreaker breaker, int calls) {
+        for (int i = 0; i < calls; i++) {
+            breaker.tryAcquire().onFailure(FAST_NANOS);
+        }
+    }
+}
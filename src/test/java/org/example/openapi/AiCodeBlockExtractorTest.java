@@ -0,0 +1,112 @@
+package org.example.openapi;
+
+import okhttp3.OkHttpClient;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AiCodeBlockExtractorTest {
+
+    private static final String FIRST = "@Test\nvoid createsOrder() {\n    given().post(\"/orders\").then().statusCode(201);\n}";
+    private static final String SECOND = "@Test\nvoid rejectsEmptyOrder() {\n    given().body(\"{}\").post(\"/orders\").then().statusCode(400);\n}";
+
+    // ===== COMPLETE RESPONSES =====
+
+    @Test
+    void extractsFencedBlocksAndDropsProse() {
+        String response = "Here are the tests:\n```java\n" + FIRST + "\n```\nAnd one more:\n```\n" + SECOND + "\n```\nDone.";
+
+        assertEquals(List.of(FIRST, SECOND), AiCodeBlockExtractor.extract(response));
+    }
+
+    @Test
+    void responseWithoutFencesIsCode() {
+        assertEquals(List.of(FIRST), AiCodeBlockExtractor.extract("\n" + FIRST + "\n"));
+    }
+
+    @Test
+    void openBlockIsKeptOnlyWhenResponseCompleted() {
+        List<String> completed = new ArrayList<>();
+        AiCodeBlockExtractor complete = new AiCodeBlockExtractor(completed::add);
+        complete.accept("```java\n" + FIRST);
+        complete.finish(true);
+
+        List<String> truncated = new ArrayList<>();
+        AiCodeBlockExtractor cutOff = new AiCodeBlockExtractor(truncated::add);
+        cutOff.accept("```java\n" + FIRST);
+        cutOff.finish(false);
+
+        assertEquals(List.of(FIRST), completed);
+        assertEquals(List.of(), truncated);
+    }
+
+    // ===== STREAMED RESPONSES =====
+
+    @Test
+    void fencesSplitAcrossPiecesAreRecognized() {
+        List<String> blocks = new ArrayList<>();
+        AiCodeBlockExtractor extractor = new AiCodeBlockExtractor(blocks::add);
+        String response = "```java\r\n" + FIRST + "\r\n```\r\n";
+        for (int i = 0; i < response.length(); i += 3) {
+            extractor.accept(response.substring(i, Math.min(response.length(), i + 3)));
+        }
+
+        assertEquals(List.of(FIRST), blocks);
+        extractor.finish(true);
+        assertEquals(1, extractor.getBlockCount());
+    }
+
+    @Test
+    void textAfterFinishIsIgnored() {
+        List<String> blocks = new ArrayList<>();
+        AiCodeBlockExtractor extractor = new AiCodeBlockExtractor(blocks::add);
+        extractor.finish(true);
+        extractor.accept("```\n" + FIRST + "\n```\n");
+
+        assertEquals(List.of(), blocks);
+    }
+
+    @Test
+    void blocksArriveWhileMockServerIsStillStreaming() throws Exception {
+        String reply = "```java\n" + FIRST + "\n```\n```java\n" + SECOND + "\n```\n";
+        AtomicInteger piecesReceived = new AtomicInteger();
+        List<Integer> piecesAtBlock = new ArrayList<>();
+        List<String> blocks = new ArrayList<>();
+        AiCodeBlockExtractor extractor = new AiCodeBlockExtractor(block -> {
+            blocks.add(block);
+            piecesAtBlock.add(piecesReceived.get());
+        });
+
+        try (MockOpenAiServer server = MockOpenAiServer.builder()
+                .withReplies(prompt -> reply)
+                .withChunkInterval(Duration.ofMillis(1))
+                .start()) {
+            OpenAiStreamingClient client = new OpenAiStreamingClient(new OkHttpClient(), server.getBaseUrl(), "test-key");
+            client.stream("gpt-4", "system", "Endpoint: POST /orders", 512, 0.2, CancellationContext.background(),
+                    text -> {
+                        piecesReceived.incrementAndGet();
+                        extractor.accept(text);
+                    });
+        }
+        extractor.finish(true);
+
+        assertEquals(List.of(FIRST, SECOND), blocks);
+        assertTrue(piecesAtBlock.get(0) < piecesReceived.get(),
+                "first block should be handed over before the stream ends");
+    }
+
+    // ===== DELIMITER CHECK =====
+
+    @Test
+    void balancedDelimitersIgnoreLiteralsAndComments() {
+        assertTrue(AiCodeBlockExtractor.hasBalancedDelimiters(FIRST));
+        assertTrue(AiCodeBlockExtractor.hasBalancedDelimiters("String s = \"}\"; // {\n/* ( */ char c = '(';"));
+        assertFalse(AiCodeBlockExtractor.hasBalancedDelimiters("void test() {\n    given().post(\"/orders\");"));
+        assertFalse(AiCodeBlockExtractor.hasBalancedDelimiters("call(]"));
+    }
+}
@@ -0,0 +1,199 @@
+package org.example.openapi;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.logging.Logger;
+
+/**
+ * ===== AI PATH BENCHMARK =====
+ *
+ * AI-path throughput and endpoint latency percentiles of {@link TestBuilder} against a
+ * {@link MockOpenAiServer} with simulated latency and faults, or replaying recorded exchanges.
+ * Run from the test classpath with
+ * {@code java org.example.openapi.AiPathBenchmark [key=value ...]}; options are described on
+ * {@link #run(Map)}.
+ *
+ * @author Enhanced Test Generation Team
+ * @since 2025.1
+ */
+public class AiPathBenchmark {
+
+    private static final Logger LOGGER = Logger.getLogger(AiPathBenchmark.class.getName());
+
+    public static void main(String[] args) throws Exception {
+        run(PerformanceBenchmarks.parseOptions(args));
+    }
+
+    /**
+     * Generates tests for synthetic endpoints with the OpenAI providers pointed at a local mock
+     * server, so the AI path's throughput and tail latency can be measured without network access.
+     * Options: endpoints (default 200), providers (1 or 2, default 1), ensemble (ALL, RACE or HEDGED),
+     * streaming (true), medianMs (300), p99Ms (2000), chunkMs (0), errorPercent (0),
+     * throttlePercent (0), retryAfterMs (1000), seed (42), warmup (1), iterations (3).
+     * With replay=&lt;dir&gt; the server answers from recorded exchanges instead, still with the
+     * simulated latency; with record=&lt;dir&gt; it forwards to the provider that OPENAI_BASE_URL and
+     * OPENAI_API_KEY name and records the exchanges.
+     */
+    static void run(Map<String, String> options) throws Exception {
+        Settings settings = Settings.from(options);
+        LOGGER.info("AI path benchmark: " + settings);
+
+        MockOpenAiServer.Builder serverBuilder = MockOpenAiServer.builder()
+                .withChunkInterval(Duration.ofMillis(settings.chunkMs))
+                .withErrorRate(settings.errorPercent / 100.0)
+                .withThrottling(settings.throttlePercent / 100.0, Duration.ofMillis(settings.retryAfterMs))
+                .withSeed(settings.seed);
+        if (settings.medianMs > 0) {
+            serverBuilder.withLatency(MockOpenAiServer.Latency.logNormal(Duration.ofMillis(settings.medianMs),
+                    Duration.ofMillis(Math.max(settings.medianMs, settings.p99Ms))));
+        }
+        if (settings.replayDirectory != null) {
+            serverBuilder.withReplay(Path.of(settings.replayDirectory));
+        } else if (settings.recordDirectory != null) {
+            String upstream = System.getenv("OPENAI_BASE_URL");
+            String apiKey = System.getenv("OPENAI_API_KEY");
+            if (apiKey == null || apiKey.isBlank()) {
+                throw new IllegalArgumentException("Recording needs OPENAI_API_KEY");
+            }
+            serverBuilder.withRecording(Path.of(settings.recordDirectory),
+                    upstream == null || upstream.isBlank() ? OpenAiStreamingClient.DEFAULT_BASE_URL : upstream, apiKey);
+        }
+
+        List<EndpointInfo> endpoints = createEndpoints(settings.endpoints);
+        try (MockOpenAiServer server = serverBuilder.start()) {
+            for (int i = 0; i < settings.warmup; i++) {
+                runIteration(server, endpoints, settings);
+            }
+            for (int i = 0; i < settings.iterations; i++) {
+                LOGGER.info("iteration " + (i + 1) + ": " + runIteration(server, endpoints, settings));
+            }
+            LOGGER.info(String.format("server: %d requests, %d failed, %d throttled, %d recorded, %d replayed, %d replay misses",
+                    server.getRequestCount(), server.getFailedRequestCount(), server.getThrottledRequestCount(),
+                    server.getRecordedExchangeCount(), server.getReplayedExchangeCount(), server.getReplayMissCount()));
+        }
+    }
+
+    private static Result runIteration(MockOpenAiServer server, List<EndpointInfo> endpoints,
+                                                    Settings settings) {
+        TestBuilder.TestBuilderConfiguration configuration = TestBuilder.TestBuilderConfiguration.builder()
+                .withStrategy(TestBuilder.TestGenerationStrategy.BASIC)
+                .withAiProviders(settings.providers > 1
+                        ? new TestBuilder.AiProvider[]{TestBuilder.AiProvider.OPENAI_GPT4, TestBuilder.AiProvider.OPENAI_GPT3_5}
+                        : new TestBuilder.AiProvider[]{TestBuilder.AiProvider.OPENAI_GPT4})
+                .withAiEnsembleMode(settings.ensemble)
+                .withAiStreaming(settings.streaming)
+                .withAiEndpoint(server.getBaseUrl(), "benchmark")
+                // Every iteration must reach the server
+                .withAiCacheDirectory(null)
+                .build();
+        TestBuilder builder = new TestBuilder.Builder().withConfiguration(configuration).build();
+
+        long requestsBefore = server.getRequestCount();
+        long start = System.nanoTime();
+        List<GeneratedTestCase> testCases = builder.generateTests(endpoints, AdvancedStrategyRecommendation.createDefault());
+        long totalNanos = System.nanoTime() - start;
+
+        long aiTestCases = testCases.stream().filter(testCase -> testCase.getTestId().startsWith("ai_generated")).count();
+        return new Result(endpoints.size(), Duration.ofNanos(totalNanos), aiTestCases,
+                server.getRequestCount() - requestsBefore, builder.getAiLatencyStatistics().getEndpointLatency());
+    }
+
+    /**
+     * Batch export endpoints, which the endpoint analysis rates heavy and risky enough to be sent to
+     * the AI.
+     */
+    private static List<EndpointInfo> createEndpoints(int count) {
+        List<EndpointInfo> endpoints = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            endpoints.add(EndpointInfo.builder()
+                    .withMethod("POST")
+                    .withPath("/api/v1/accounts/" + i + "/statements/batch/export")
+                    .withOperationId("exportStatements" + i)
+                    .withSummary("Exports the statements of account " + i)
+                    .withParameter(ParameterInfo.builder().withName("Idempotency-Key").withIn("header").withType("string").withRequired(true).build())
+                    .withSecurity("bearer")
+                    .build());
+        }
+        return endpoints;
+    }
+
+    static class Settings {
+        final int endpoints;
+        final int providers;
+        final TestBuilder.AiEnsembleMode ensemble;
+        final boolean streaming;
+        final int medianMs;
+        final int p99Ms;
+        final int chunkMs;
+        final int errorPercent;
+        final int throttlePercent;
+        final int retryAfterMs;
+        final int seed;
+        final String replayDirectory;
+        final String recordDirectory;
+        final int warmup;
+        final int iterations;
+
+        private Settings(Map<String, String> options) {
+            this.endpoints = PerformanceBenchmarks.intOption(options, "endpoints", 200);
+            this.providers = PerformanceBenchmarks.intOption(options, "providers", 1);
+            this.ensemble = TestBuilder.AiEnsembleMode.valueOf(options.getOrDefault("ensemble", "ALL").toUpperCase());
+            this.streaming = Boolean.parseBoolean(options.getOrDefault("streaming", "true"));
+            this.medianMs = PerformanceBenchmarks.intOption(options, "medianMs", 300);
+            this.p99Ms = PerformanceBenchmarks.intOption(options, "p99Ms", 2000);
+            this.chunkMs = PerformanceBenchmarks.intOption(options, "chunkMs", 0);
+            this.errorPercent = PerformanceBenchmarks.intOption(options, "errorPercent", 0);
+            this.throttlePercent = PerformanceBenchmarks.intOption(options, "throttlePercent", 0);
+            this.retryAfterMs = PerformanceBenchmarks.intOption(options, "retryAfterMs", 1000);
+            this.seed = PerformanceBenchmarks.intOption(options, "seed", 42);
+            this.replayDirectory = options.get("replay");
+            this.recordDirectory = options.get("record");
+            this.warmup = PerformanceBenchmarks.intOption(options, "warmup", 1);
+            this.iterations = Math.max(1, PerformanceBenchmarks.intOption(options, "iterations", 3));
+        }
+
+        static Settings from(Map<String, String> options) {
+            return new Settings(options);
+        }
+
+        @Override
+        public String toString() {
+            String source = replayDirectory != null ? "replay=" + replayDirectory
+                    : recordDirectory != null ? "record=" + recordDirectory : "generated";
+            return String.format("endpoints=%d providers=%d ensemble=%s streaming=%s medianMs=%d p99Ms=%d chunkMs=%d "
+                            + "errorPercent=%d throttlePercent=%d seed=%d %s warmup=%d iterations=%d",
+                    endpoints, providers, ensemble, streaming, medianMs, p99Ms, chunkMs, errorPercent, throttlePercent,
+                    seed, source, warmup, iterations);
+        }
+    }
+
+    static class Result {
+        private final int endpoints;
+        private final Duration totalTime;
+        private final long aiTestCases;
+        private final long requests;
+        private final LatencyTracker.Snapshot endpointLatency;
+
+        Result(int endpoints, Duration totalTime, long aiTestCases, long requests,
+                          LatencyTracker.Snapshot endpointLatency) {
+            this.endpoints = endpoints;
+            this.totalTime = totalTime;
+            this.aiTestCases = aiTestCases;
+            this.requests = requests;
+            this.endpointLatency = endpointLatency;
+        }
+
+        public double getThroughput() {
+            return endpoints / Math.max(0.001, totalTime.toNanos() / 1_000_000_000.0);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%.1f endpoints/s, total=%dms, %d AI test cases from %d requests, AI endpoint latency p50=%dms p95=%dms p99=%dms max=%dms",
+                    getThroughput(), totalTime.toMillis(), aiTestCases, requests, endpointLatency.getP50().toMillis(),
+                    endpointLatency.getP95().toMillis(), endpointLatency.getP99().toMillis(),
+                    endpointLatency.getMax().toMillis());
+        }
+    }
+}
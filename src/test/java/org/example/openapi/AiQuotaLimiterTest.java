@@ -0,0 +1,184 @@
+package org.example.openapi;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AiQuotaLimiterTest {
+
+    // Buckets hold 95% of the quota: 5700 requests and 570,000 tokens, refilled at 9500 tokens a second
+    private static final AiQuotaLimiter.Quota QUOTA = new AiQuotaLimiter.Quota(6000, 600_000);
+    private static final long TOKEN_CAPACITY = 570_000;
+    private static final long REQUEST_CAPACITY = 5700;
+    // Tokens that refill in 10ms
+    private static final long TEN_MILLIS_OF_TOKENS = 95;
+
+    private final AtomicLong clock = new AtomicLong();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+    @AfterEach
+    void stopScheduler() {
+        scheduler.shutdownNow();
+    }
+
+    // ===== RESERVATIONS =====
+
+    @Test
+    void callWithinTheQuotaDoesNotWait() {
+        AiQuotaLimiter limiter = newLimiter();
+
+        AiQuotaLimiter.Reservation reservation = limiter.acquire(CancellationContext.background(), 1000);
+
+        assertEquals(1000, reservation.getReservedTokens());
+        AiQuotaLimiter.Snapshot snapshot = limiter.getSnapshot();
+        assertEquals(REQUEST_CAPACITY - 1, snapshot.getAvailableRequests());
+        assertEquals(TOKEN_CAPACITY - 1000, snapshot.getAvailableTokens());
+        assertEquals(0, snapshot.getWaits());
+    }
+
+    @Test
+    void callLargerThanAMinutesQuotaIsChargedAMinutesQuota() {
+        AiQuotaLimiter limiter = newLimiter();
+
+        AiQuotaLimiter.Reservation reservation = limiter.acquire(CancellationContext.background(), 10 * TOKEN_CAPACITY);
+
+        assertEquals(TOKEN_CAPACITY, reservation.getReservedTokens());
+        assertEquals(0, limiter.getSnapshot().getAvailableTokens());
+        assertEquals(0, limiter.getSnapshot().getWaits());
+    }
+
+    // ===== OVERDRAW =====
+
+    @Test
+    void overdrawingCallWaitsOutItsDebtAndLaterCallsQueueBehindIt() {
+        AiQuotaLimiter limiter = newLimiter();
+        limiter.acquire(CancellationContext.background(), TOKEN_CAPACITY);
+
+        limiter.acquire(CancellationContext.background(), TEN_MILLIS_OF_TOKENS);
+        limiter.acquire(CancellationContext.background(), TEN_MILLIS_OF_TOKENS);
+
+        // The clock stands still, so the debt is only waited out, never refilled
+        AiQuotaLimiter.Snapshot snapshot = limiter.getSnapshot();
+        assertEquals(-2 * TEN_MILLIS_OF_TOKENS, snapshot.getAvailableTokens());
+        assertEquals(2, snapshot.getWaits());
+        assertEquals(30, snapshot.getWaited().toMillis(), 1, snapshot.toString());
+    }
+
+    @Test
+    void callThatWouldWaitPastTheDeadlineFailsAndReservesNothing() {
+        AiQuotaLimiter limiter = newLimiter();
+        limiter.acquire(CancellationContext.background(), TOKEN_CAPACITY);
+
+        try (CancellationContext context = CancellationContext.withTimeout("call", Duration.ofMillis(500), scheduler)) {
+            // A second's worth of tokens
+            CancellationException error = assertThrows(CancellationException.class,
+                    () -> limiter.acquire(context, 100 * TEN_MILLIS_OF_TOKENS));
+            assertTrue(error.getMessage().contains("after the deadline"), error.getMessage());
+        }
+
+        AiQuotaLimiter.Snapshot snapshot = limiter.getSnapshot();
+        assertEquals(0, snapshot.getAvailableTokens());
+        assertEquals(REQUEST_CAPACITY - 1, snapshot.getAvailableRequests());
+    }
+
+    @Test
+    void bucketsRefillWithTheClockUpToTheirCapacity() {
+        AiQuotaLimiter limiter = newLimiter();
+        limiter.acquire(CancellationContext.background(), TOKEN_CAPACITY);
+
+        clock.addAndGet(Duration.ofSeconds(30).toNanos());
+        assertEquals(TOKEN_CAPACITY / 2, limiter.getSnapshot().getAvailableTokens());
+
+        clock.addAndGet(Duration.ofMinutes(5).toNanos());
+        assertEquals(TOKEN_CAPACITY, limiter.getSnapshot().getAvailableTokens());
+        assertEquals(REQUEST_CAPACITY, limiter.getSnapshot().getAvailableRequests());
+    }
+
+    // ===== THROTTLING =====
+
+    @Test
+    void throttlingEmptiesBothBuckets() {
+        AiQuotaLimiter limiter = newLimiter();
+        limiter.acquire(CancellationContext.background(), 1000);
+
+        limiter.onThrottled();
+
+        AiQuotaLimiter.Snapshot snapshot = limiter.getSnapshot();
+        assertEquals(0, snapshot.getAvailableRequests());
+        assertEquals(0, snapshot.getAvailableTokens());
+        assertEquals(1, snapshot.getThrottles());
+        try (CancellationContext context = CancellationContext.withTimeout("call", Duration.ofMillis(5), scheduler)) {
+            // Even a one-token call now waits about 10ms for its request
+            assertThrows(CancellationException.class, () -> limiter.acquire(context, 1));
+        }
+    }
+
+    @Test
+    void throttlingKeepsDebtThatIsAlreadyOwed() {
+        AiQuotaLimiter limiter = newLimiter();
+        limiter.acquire(CancellationContext.background(), TOKEN_CAPACITY);
+        limiter.acquire(CancellationContext.background(), TEN_MILLIS_OF_TOKENS);
+
+        limiter.onThrottled();
+
+        assertEquals(-TEN_MILLIS_OF_TOKENS, limiter.getSnapshot().getAvailableTokens());
+    }
+
+    // ===== SETTLEMENT =====
+
+    @Test
+    void reconcileChargesUsageBeyondTheReservationWithoutRefunds() {
+        AiQuotaLimiter limiter = newLimiter();
+
+        limiter.acquire(CancellationContext.background(), 1000).reconcile(1500);
+        assertEquals(TOKEN_CAPACITY - 1500, limiter.getSnapshot().getAvailableTokens());
+
+        limiter.acquire(CancellationContext.background(), 1000).reconcile(200);
+        assertEquals(TOKEN_CAPACITY - 2500, limiter.getSnapshot().getAvailableTokens());
+    }
+
+    @Test
+    void cancelReturnsTheRequestAndTokensOnce() {
+        AiQuotaLimiter limiter = newLimiter();
+        limiter.acquire(CancellationContext.background(), 1000);
+        AiQuotaLimiter.Reservation reservation = limiter.acquire(CancellationContext.background(), 1000);
+
+        reservation.cancel();
+        reservation.cancel();
+        reservation.reconcile(5000);
+
+        AiQuotaLimiter.Snapshot snapshot = limiter.getSnapshot();
+        assertEquals(TOKEN_CAPACITY - 1000, snapshot.getAvailableTokens());
+        assertEquals(REQUEST_CAPACITY - 1, snapshot.getAvailableRequests());
+    }
+
+    @Test
+    void reconciledReservationCannotBeCancelled() {
+        AiQuotaLimiter limiter = newLimiter();
+        AiQuotaLimiter.Reservation reservation = limiter.acquire(CancellationContext.background(), 1000);
+
+        reservation.reconcile(1000);
+        reservation.cancel();
+
+        assertEquals(TOKEN_CAPACITY - 1000, limiter.getSnapshot().getAvailableTokens());
+    }
+
+    @Test
+    void quotaMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> new AiQuotaLimiter.Quota(0, 1000));
+        assertThrows(IllegalArgumentException.class, () -> new AiQuotaLimiter.Quota(10, 0));
+    }
+
+    // ===== HELPERS =====
+
+    private AiQuotaLimiter newLimiter() {
+        return new AiQuotaLimiter("openai", QUOTA, clock::get);
+    }
+}
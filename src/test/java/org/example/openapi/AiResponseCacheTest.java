@@ -0,0 +1,166 @@
+package org.example.openapi;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AiResponseCacheTest {
+
+    private static final String RESPONSE = "x".repeat(1000);
+
+    @TempDir
+    Path directory;
+
+    // ===== KEYS =====
+
+    @Test
+    void keyIsStableHexSha256() {
+        String key = AiResponseCache.key("openai", "gpt-4", "prompt", 512, 0.2);
+
+        assertEquals(key, AiResponseCache.key("openai", "gpt-4", "prompt", 512, 0.2));
+        assertEquals(64, key.length());
+        assertTrue(key.chars().allMatch(c -> Character.digit(c, 16) >= 0), key);
+    }
+
+    @Test
+    void keyChangesWithEveryField() {
+        String key = AiResponseCache.key("openai", "gpt-4", "prompt", 512, 0.2);
+
+        assertNotEquals(key, AiResponseCache.key("local", "gpt-4", "prompt", 512, 0.2));
+        assertNotEquals(key, AiResponseCache.key("openai", "gpt-3.5", "prompt", 512, 0.2));
+        assertNotEquals(key, AiResponseCache.key("openai", "gpt-4", "prompt!", 512, 0.2));
+        assertNotEquals(key, AiResponseCache.key("openai", "gpt-4", "prompt", 1024, 0.2));
+        assertNotEquals(key, AiResponseCache.key("openai", "gpt-4", "prompt", 512, 0.7));
+    }
+
+    @Test
+    void keySeparatesFields() {
+        assertNotEquals(AiResponseCache.key("ab", "c", "p", 1, 0.0), AiResponseCache.key("a", "bc", "p", 1, 0.0));
+        assertNotEquals(AiResponseCache.key("a", null, "p", 1, 0.0), AiResponseCache.key("a", "", "p", 1, 0.0));
+    }
+
+    // ===== LOOKUP AND STORE =====
+
+    @Test
+    void storedResponseIsReturned() throws Exception {
+        AiResponseCache cache = AiResponseCache.open(directory, AiResponseCache.DEFAULT_TTL, AiResponseCache.DEFAULT_MAX_BYTES);
+        String key = key("stored");
+
+        assertEquals(Optional.empty(), cache.get(key));
+        cache.put(key, "response");
+
+        assertEquals(Optional.of("response"), cache.get(key));
+        assertEquals(1, cache.getStatistics().getHits());
+        assertEquals(1, cache.getStatistics().getMisses());
+        assertEquals(1, cache.getStatistics().getStores());
+    }
+
+    @Test
+    void expiredEntryIsMissAndDeleted() throws Exception {
+        AiResponseCache cache = AiResponseCache.open(directory, Duration.ofMillis(50), AiResponseCache.DEFAULT_MAX_BYTES);
+        String key = key("expiring");
+        cache.put(key, RESPONSE);
+        assertTrue(cache.get(key).isPresent());
+
+        Thread.sleep(120);
+
+        assertEquals(Optional.empty(), cache.get(key));
+        assertEquals(1, cache.getStatistics().getExpirations());
+        assertEquals(0, cache.getStatistics().getEntries());
+        assertFalse(Files.exists(entryFile(key)));
+    }
+
+    @Test
+    void leastRecentlyUsedEntryIsEvictedOverBudget() throws Exception {
+        long entrySize = measureEntrySize();
+        // Room for three entries and a half; eviction frees down to 90% of that, so one entry goes
+        AiResponseCache cache = AiResponseCache.open(directory, AiResponseCache.DEFAULT_TTL, entrySize * 7 / 2);
+        String first = key("first");
+        String second = key("second");
+        String third = key("third");
+        String fourth = key("fourth");
+
+        cache.put(first, RESPONSE);
+        Thread.sleep(5);
+        cache.put(second, RESPONSE);
+        Thread.sleep(5);
+        cache.put(third, RESPONSE);
+        Thread.sleep(5);
+        // Reading the oldest entry makes the second one the least recently used
+        assertTrue(cache.get(first).isPresent());
+        Thread.sleep(5);
+        cache.put(fourth, RESPONSE);
+
+        assertEquals(1, cache.getStatistics().getEvictions());
+        assertEquals(3, cache.getStatistics().getEntries());
+        assertFalse(Files.exists(entryFile(second)));
+        assertEquals(Optional.empty(), cache.get(second));
+        assertTrue(cache.get(first).isPresent());
+        assertTrue(cache.get(third).isPresent());
+        assertTrue(cache.get(fourth).isPresent());
+    }
+
+    // ===== PERSISTENCE =====
+
+    @Test
+    void reopenedCacheServesEarlierEntries() throws Exception {
+        String key = key("persistent");
+        AiResponseCache first = AiResponseCache.open(directory, AiResponseCache.DEFAULT_TTL, AiResponseCache.DEFAULT_MAX_BYTES);
+        first.put(key, RESPONSE);
+
+        AiResponseCache reopened = AiResponseCache.open(directory, AiResponseCache.DEFAULT_TTL, AiResponseCache.DEFAULT_MAX_BYTES);
+
+        assertEquals(1, reopened.getStatistics().getEntries());
+        assertEquals(first.getStatistics().getBytes(), reopened.getStatistics().getBytes());
+        assertEquals(Optional.of(RESPONSE), reopened.get(key));
+    }
+
+    @Test
+    void reopeningWithSmallerBudgetEvicts() throws Exception {
+        long entrySize = measureEntrySize();
+        AiResponseCache cache = AiResponseCache.open(directory, AiResponseCache.DEFAULT_TTL, AiResponseCache.DEFAULT_MAX_BYTES);
+        cache.put(key("a"), RESPONSE);
+        cache.put(key("b"), RESPONSE);
+        cache.put(key("c"), RESPONSE);
+
+        AiResponseCache reopened = AiResponseCache.open(directory, AiResponseCache.DEFAULT_TTL, entrySize * 3 / 2);
+
+        assertEquals(1, reopened.getStatistics().getEntries());
+        assertTrue(reopened.getStatistics().getBytes() <= entrySize * 3 / 2);
+    }
+
+    @Test
+    void corruptEntryIsMissAndDeleted() throws Exception {
+        String key = key("corrupt");
+        AiResponseCache cache = AiResponseCache.open(directory, AiResponseCache.DEFAULT_TTL, AiResponseCache.DEFAULT_MAX_BYTES);
+        cache.put(key, RESPONSE);
+        Files.write(entryFile(key), new byte[] {1, 2, 3});
+
+        assertEquals(Optional.empty(), cache.get(key));
+        assertFalse(Files.exists(entryFile(key)));
+        assertEquals(0, cache.getStatistics().getEntries());
+    }
+
+    // ===== HELPERS =====
+
+    private static String key(String prompt) {
+        return AiResponseCache.key("openai", "gpt-4", prompt, 512, 0.2);
+    }
+
+    private Path entryFile(String key) {
+        return directory.resolve(key.substring(0, 2)).resolve(key + ".entry");
+    }
+
+    private long measureEntrySize() throws Exception {
+        AiResponseCache probe = AiResponseCache.open(Files.createTempDirectory(directory, "probe"),
+                AiResponseCache.DEFAULT_TTL, AiResponseCache.DEFAULT_MAX_BYTES);
+        probe.put(key("probe"), RESPONSE);
+        return probe.getStatistics().getBytes();
+    }
+}
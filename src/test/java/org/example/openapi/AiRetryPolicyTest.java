@@ -0,0 +1,87 @@
+package org.example.openapi;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AiRetryPolicyTest {
+
+    private final AiRetryPolicy policy = new AiRetryPolicy(5, Duration.ofMillis(100), Duration.ofMillis(500));
+
+    // ===== DELAY =====
+
+    @Test
+    void delayStaysWithinTheExponentialCeiling() {
+        for (int i = 0; i < 1_000; i++) {
+            assertBetween(Duration.ZERO, Duration.ofMillis(100), policy.delay(1, null));
+            assertBetween(Duration.ZERO, Duration.ofMillis(200), policy.delay(2, null));
+            assertBetween(Duration.ZERO, Duration.ofMillis(400), policy.delay(3, null));
+            assertBetween(Duration.ZERO, Duration.ofMillis(500), policy.delay(4, null));
+            assertBetween(Duration.ZERO, Duration.ofMillis(500), policy.delay(60, null));
+        }
+    }
+
+    @Test
+    void delayIsJittered() {
+        Duration first = policy.delay(3, null);
+        for (int i = 0; i < 100; i++) {
+            if (!policy.delay(3, null).equals(first)) {
+                return;
+            }
+        }
+        fail("100 draws gave the same delay");
+    }
+
+    @Test
+    void retryAfterIsAFloorThatMayExceedTheMaximum() {
+        for (int i = 0; i < 100; i++) {
+            assertEquals(Duration.ofSeconds(2), policy.delay(1, "2"));
+        }
+    }
+
+    @Test
+    void rejectsInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new AiRetryPolicy(0, Duration.ofMillis(1), Duration.ofMillis(1)));
+        assertThrows(IllegalArgumentException.class, () -> new AiRetryPolicy(3, Duration.ZERO, Duration.ofMillis(1)));
+        assertThrows(IllegalArgumentException.class, () -> new AiRetryPolicy(3, Duration.ofMillis(10), Duration.ofMillis(5)));
+        assertFalse(AiRetryPolicy.NONE.isRetrying());
+        assertTrue(AiRetryPolicy.DEFAULT.isRetrying());
+    }
+
+    // ===== RETRY-AFTER =====
+
+    @Test
+    void parsesRetryAfterSeconds() {
+        assertEquals(Duration.ofSeconds(30), AiRetryPolicy.parseRetryAfter("30"));
+        assertEquals(Duration.ofSeconds(7), AiRetryPolicy.parseRetryAfter(" 7 "));
+        assertEquals(Duration.ZERO, AiRetryPolicy.parseRetryAfter("-5"));
+    }
+
+    @Test
+    void parsesRetryAfterHttpDate() {
+        String inAMinute = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC).plusSeconds(60));
+
+        Duration wait = AiRetryPolicy.parseRetryAfter(inAMinute);
+
+        assertBetween(Duration.ofSeconds(55), Duration.ofSeconds(60), wait);
+        assertEquals(Duration.ZERO, AiRetryPolicy.parseRetryAfter("Wed, 21 Oct 2015 07:28:00 GMT"));
+    }
+
+    @Test
+    void unreadableRetryAfterIsIgnored() {
+        assertNull(AiRetryPolicy.parseRetryAfter(null));
+        assertNull(AiRetryPolicy.parseRetryAfter(" "));
+        assertNull(AiRetryPolicy.parseRetryAfter("soon"));
+    }
+
+    private static void assertBetween(Duration min, Duration max, Duration actual) {
+        assertNotNull(actual);
+        assertTrue(actual.compareTo(min) >= 0 && actual.compareTo(max) <= 0,
+                actual + " is not within [" + min + ", " + max + "]");
+    }
+}
@@ -0,0 +1,193 @@
+package org.example.openapi;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AiUsageLedgerTest {
+
+    // ===== RESERVATIONS =====
+
+    @Test
+    void callsInFlightHoldTheirReservationUntilTheyComplete() {
+        AiUsageLedger ledger = new AiUsageLedger("run", 1000, 0);
+        AiUsageLedger.Reservation first = ledger.reserve("openai", 600, 0);
+        assertNotNull(first);
+
+        // Fits what is used, but not what is reserved as well
+        assertNull(ledger.reserve("openai", 600, 0));
+        assertFalse(ledger.isBudgetExhausted());
+
+        first.complete(true, 200, 100, 0, false);
+        assertNotNull(ledger.reserve("openai", 600, 0));
+    }
+
+    @Test
+    void callThatDoesNotFitWhatIsUsedExhaustsTheBudget() {
+        AiUsageLedger ledger = new AiUsageLedger("run", 1000, 0);
+        ledger.reserve("openai", 600, 0).complete(true, 500, 200, 0, false);
+
+        assertNull(ledger.reserve("openai", 400, 0));
+        assertTrue(ledger.isBudgetExhausted());
+
+        // Later calls are refused however small they are
+        assertNull(ledger.reserve("openai", 1, 0));
+        assertTrue(ledger.getReport().isBudgetExhausted());
+    }
+
+    @Test
+    void costBudgetIsEnforcedLikeTheTokenBudget() {
+        AiUsageLedger ledger = new AiUsageLedger("run", 0, 0.10);
+        ledger.reserve("openai", 100_000, 0.06).complete(true, 50_000, 50_000, 0.06, false);
+
+        assertNull(ledger.reserve("openai", 1, 0.05));
+        assertTrue(ledger.isBudgetExhausted());
+    }
+
+    @Test
+    void ledgerWithoutBudgetNeverRefuses() {
+        AiUsageLedger ledger = new AiUsageLedger("run", 0, 0);
+
+        for (int i = 0; i < 10; i++) {
+            assertNotNull(ledger.reserve("openai", Long.MAX_VALUE / 100, 1_000_000));
+        }
+        assertFalse(ledger.isBudgetExhausted());
+    }
+
+    @Test
+    void releasedReservationReturnsItsBudgetWithoutARequest() {
+        AiUsageLedger ledger = new AiUsageLedger("run", 1000, 0);
+        AiUsageLedger.Reservation reservation = ledger.reserve("openai", 1000, 0);
+
+        reservation.release();
+
+        assertNotNull(ledger.reserve("openai", 1000, 0));
+        assertTrue(ledger.getReport().getProviders().isEmpty());
+    }
+
+    @Test
+    void negativeBudgetIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new AiUsageLedger("run", -1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new AiUsageLedger("run", 0, -0.01));
+    }
+
+    // ===== SETTLEMENT =====
+
+    @Test
+    void completedCallIsChargedPerProvider() {
+        AiUsageLedger ledger = new AiUsageLedger("run", 0, 0);
+        ledger.reserve("openai", 500, 0.01).complete(true, 300, 150, 0.008, false);
+        ledger.reserve("openai", 500, 0.01).complete(false, 100, 0, 0.001, true);
+        ledger.reserve("anthropic", 500, 0.01).complete(true, 200, 50, 0.004, false);
+        ledger.recordCacheHit("openai");
+        ledger.recordSkippedEndpoint();
+
+        AiUsageLedger.Report report = ledger.getReport();
+
+        AiUsageLedger.ProviderUsage openai = report.getProviders().get("openai");
+        assertEquals(2, openai.getRequests());
+        assertEquals(1, openai.getFailures());
+        assertEquals(1, openai.getEstimatedRequests());
+        assertEquals(1, openai.getCacheHits());
+        assertEquals(400, openai.getPromptTokens());
+        assertEquals(150, openai.getCompletionTokens());
+        assertEquals(0.009, openai.getCost(), 1e-9);
+        assertEquals(3, report.getRequests());
+        assertEquals(800, report.getTotalTokens());
+        assertEquals(0.013, report.getCost(), 1e-9);
+        assertEquals(1, report.getSkippedEndpoints());
+        assertEquals(List.of("openai", "anthropic"), List.copyOf(report.getProviders().keySet()));
+    }
+
+    @Test
+    void reservationIsSettledOnce() {
+        AiUsageLedger ledger = new AiUsageLedger("run", 1000, 0);
+        AiUsageLedger.Reservation reservation = ledger.reserve("openai", 500, 0);
+
+        reservation.complete(true, 300, 100, 0, false);
+        reservation.complete(true, 300, 100, 0, false);
+        reservation.release();
+
+        assertEquals(1, ledger.getReport().getRequests());
+        assertEquals(400, ledger.getReport().getTotalTokens());
+        // Nothing of the reservation is still held
+        assertNotNull(ledger.reserve("openai", 600, 0));
+    }
+
+    // ===== PROMPT CONTEXT =====
+
+    @Test
+    void laterPromptContextOfAnEndpointReplacesTheEarlier() {
+        AiUsageLedger ledger = new AiUsageLedger("run", 0, 0);
+        ledger.recordPromptContext("GET /a", 100, 40);
+        ledger.recordPromptContext("GET /a", 100, 30);
+        ledger.recordPromptContext("GET /b", 50, 60);
+
+        AiUsageLedger.Report report = ledger.getReport();
+
+        assertEquals(90, report.getSchemaContextTokens());
+        assertEquals(150, report.getFullSchemaTokens());
+        // A context larger than the full schema saves nothing rather than a negative amount
+        assertEquals(70, report.getSavedVsFullSchema());
+        assertEquals(0.7, report.getPromptContexts().get("GET /a").getSavedVsFullSchemaRatio(), 1e-9);
+        assertEquals(0, report.getPromptContexts().get("GET /b").getSavedVsFullSchemaRatio());
+    }
+
+    // ===== COMBINING REPORTS =====
+
+    @Test
+    void reportsOfOneRunCountOnlyTheLatest() {
+        AiUsageLedger.Report earlier = report("run", Instant.ofEpochSecond(10), 1);
+        AiUsageLedger.Report later = report("run", Instant.ofEpochSecond(20), 3);
+
+        assertSame(later, AiUsageLedger.Report.combine(Arrays.asList(later, null, earlier)));
+    }
+
+    @Test
+    void reportsOfSeveralRunsAddUp() {
+        AiUsageLedger.Report first = new AiUsageLedger.Report("a", Instant.ofEpochSecond(10),
+                Map.of("openai", usage("openai", 2, 100)),
+                Map.of("GET /x", new AiUsageLedger.PromptContextUsage("GET /x", 100, 40)),
+                1000, 1.0, false, 1);
+        AiUsageLedger.Report second = new AiUsageLedger.Report("b", Instant.ofEpochSecond(20),
+                Map.of("openai", usage("openai", 3, 50), "anthropic", usage("anthropic", 1, 10)),
+                Map.of("GET /x", new AiUsageLedger.PromptContextUsage("GET /x", 100, 30)),
+                2000, 0.5, true, 2);
+
+        AiUsageLedger.Report combined = AiUsageLedger.Report.combine(List.of(first, second));
+
+        assertEquals("a,b", combined.getRunId());
+        assertEquals(Instant.ofEpochSecond(20), combined.getAsOf());
+        assertEquals(5, combined.getProviders().get("openai").getRequests());
+        assertEquals(150, combined.getProviders().get("openai").getPromptTokens());
+        assertEquals(6, combined.getRequests());
+        assertEquals(3000, combined.getTokenBudget());
+        assertEquals(1.5, combined.getCostBudget(), 1e-9);
+        assertTrue(combined.isBudgetExhausted());
+        assertEquals(3, combined.getSkippedEndpoints());
+        // The same endpoint is counted once, with the later run's figures
+        assertEquals(30, combined.getSchemaContextTokens());
+    }
+
+    @Test
+    void noReportsCombineToNull() {
+        assertNull(AiUsageLedger.Report.combine(List.of()));
+        assertNull(AiUsageLedger.Report.combine(Arrays.asList((AiUsageLedger.Report) null)));
+    }
+
+    // ===== HELPERS =====
+
+    private static AiUsageLedger.Report report(String runId, Instant asOf, long requests) {
+        return new AiUsageLedger.Report(runId, asOf, Map.of("openai", usage("openai", requests, 100)), Map.of(),
+                0, 0, false, 0);
+    }
+
+    private static AiUsageLedger.ProviderUsage usage(String provider, long requests, long promptTokens) {
+        return new AiUsageLedger.ProviderUsage(provider, requests, 0, 0, 0, promptTokens, 0, 0);
+    }
+}
@@ -0,0 +1,115 @@
+package org.example.openapi;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedPriorityBlockingQueueTest {
+
+    // Highest number first
+    private static final Comparator<Integer> DESCENDING = Comparator.reverseOrder();
+
+    // ===== ORDERING =====
+
+    @Test
+    void releasesHighestPriorityFirst() {
+        BoundedPriorityBlockingQueue<Integer> queue = new BoundedPriorityBlockingQueue<>(8, DESCENDING);
+        for (int value : new int[]{3, 7, 1, 5}) {
+            assertTrue(queue.offer(value));
+        }
+
+        assertEquals(7, queue.peek());
+        assertEquals(List.of(7, 5, 3, 1), drain(queue));
+    }
+
+    @Test
+    void equalPriorityLeavesInInsertionOrder() {
+        BoundedPriorityBlockingQueue<String> queue =
+                new BoundedPriorityBlockingQueue<>(8, Comparator.comparingInt(String::length));
+        for (String value : new String[]{"bb", "a1", "c", "a2", "a3"}) {
+            queue.offer(value);
+        }
+
+        List<String> released = new ArrayList<>();
+        queue.drainTo(released);
+        assertEquals(List.of("c", "bb", "a1", "a2", "a3"), released);
+    }
+
+    @Test
+    void drainToHonoursTheLimit() {
+        BoundedPriorityBlockingQueue<Integer> queue = new BoundedPriorityBlockingQueue<>(8, DESCENDING);
+        for (int value = 1; value <= 5; value++) {
+            queue.offer(value);
+        }
+
+        List<Integer> released = new ArrayList<>();
+        assertEquals(2, queue.drainTo(released, 2));
+        assertEquals(List.of(5, 4), released);
+        assertEquals(3, queue.size());
+    }
+
+    // ===== CAPACITY =====
+
+    @Test
+    void offerFailsWhenFull() throws Exception {
+        BoundedPriorityBlockingQueue<Integer> queue = new BoundedPriorityBlockingQueue<>(2, DESCENDING);
+        assertTrue(queue.offer(1));
+        assertTrue(queue.offer(2));
+
+        assertFalse(queue.offer(3));
+        assertFalse(queue.offer(3, 20, TimeUnit.MILLISECONDS));
+        assertEquals(0, queue.remainingCapacity());
+    }
+
+    @Test
+    void putBlocksUntilSpaceIsFreed() throws Exception {
+        BoundedPriorityBlockingQueue<Integer> queue = new BoundedPriorityBlockingQueue<>(1, DESCENDING);
+        queue.put(1);
+        CountDownLatch added = new CountDownLatch(1);
+        Thread producer = new Thread(() -> {
+            try {
+                queue.put(9);
+                added.countDown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.start();
+
+        assertFalse(added.await(100, TimeUnit.MILLISECONDS), "put should block while the queue is full");
+        assertEquals(1, queue.take());
+        assertTrue(added.await(5, TimeUnit.SECONDS));
+        assertEquals(9, queue.take());
+        producer.join();
+    }
+
+    @Test
+    void pollTimesOutWhenEmpty() throws Exception {
+        BoundedPriorityBlockingQueue<Integer> queue = new BoundedPriorityBlockingQueue<>(1, DESCENDING);
+
+        assertNull(queue.poll());
+        assertNull(queue.poll(20, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void rejectsNonPositiveCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new BoundedPriorityBlockingQueue<>(0, DESCENDING));
+    }
+
+    // ===== HELPERS =====
+
+    private static List<Integer> drain(BoundedPriorityBlockingQueue<Integer> queue) {
+        List<Integer> released = new ArrayList<>();
+        Integer next;
+        while ((next = queue.poll()) != null) {
+            released.add(next);
+        }
+        return released;
+    }
+}
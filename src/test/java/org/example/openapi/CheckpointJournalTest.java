@@ -0,0 +1,102 @@
+package org.example.openapi;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CheckpointJournalTest {
+
+    private static final String FINGERPRINT = "input=sha256:00;output=/out";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void reopenedJournalReplaysCompletedEndpoints() throws Exception {
+        Path file = directory.resolve("run.journal");
+        try (CheckpointJournal journal = CheckpointJournal.open(file, FINGERPRINT, false)) {
+            journal.recordEndpointCompleted(checkpoint("GET", "/users", "UsersTest.java"));
+            journal.recordEndpointCompleted(checkpoint("post", "/orders", "OrdersTest.java"));
+        }
+
+        try (CheckpointJournal resumed = CheckpointJournal.open(file, FINGERPRINT, true)) {
+            Map<String, CheckpointJournal.EndpointCheckpoint> completed = resumed.getCompletedEndpoints();
+
+            assertEquals(List.of("GET /users", "POST /orders"), List.copyOf(completed.keySet()));
+            assertEquals(List.of("OrdersTest.java"), completed.get("POST /orders").getWrittenFiles());
+            assertEquals("t-/orders", completed.get("POST /orders").getTests().get(0).getTestId());
+            assertEquals(2, resumed.getRecoveredRecords());
+        }
+    }
+
+    @Test
+    void laterRecordReplacesEarlierOne() throws Exception {
+        Path file = directory.resolve("run.journal");
+        try (CheckpointJournal journal = CheckpointJournal.open(file, FINGERPRINT, false)) {
+            journal.recordEndpointCompleted(checkpoint("GET", "/users", "Old.java"));
+            journal.recordEndpointCompleted(checkpoint("GET", "/users", "New.java"));
+        }
+
+        try (CheckpointJournal resumed = CheckpointJournal.open(file, FINGERPRINT, true)) {
+            assertEquals(List.of("New.java"), resumed.getCompletedEndpoints().get("GET /users").getWrittenFiles());
+        }
+    }
+
+    @Test
+    void tornTailIsTruncatedAndAppendingContinues() throws Exception {
+        Path file = directory.resolve("run.journal");
+        try (CheckpointJournal journal = CheckpointJournal.open(file, FINGERPRINT, false)) {
+            journal.recordEndpointCompleted(checkpoint("GET", "/users", "UsersTest.java"));
+            journal.recordEndpointCompleted(checkpoint("GET", "/orders", "OrdersTest.java"));
+        }
+        // A crash part-way through the last record
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.setLength(raf.length() - 5);
+        }
+
+        try (CheckpointJournal resumed = CheckpointJournal.open(file, FINGERPRINT, true)) {
+            assertEquals(List.of("GET /users"), List.copyOf(resumed.getCompletedEndpoints().keySet()));
+            resumed.recordEndpointCompleted(checkpoint("GET", "/orders", "OrdersTest.java"));
+        }
+        try (CheckpointJournal reopened = CheckpointJournal.open(file, FINGERPRINT, true)) {
+            assertEquals(2, reopened.getCompletedEndpoints().size());
+        }
+    }
+
+    @Test
+    void journalOfAnotherRunIsSetAside() throws Exception {
+        Path file = directory.resolve("run.journal");
+        try (CheckpointJournal journal = CheckpointJournal.open(file, FINGERPRINT, false)) {
+            journal.recordEndpointCompleted(checkpoint("GET", "/users", "UsersTest.java"));
+        }
+
+        try (CheckpointJournal other = CheckpointJournal.open(file, "input=sha256:01;output=/out", true)) {
+            assertTrue(other.getCompletedEndpoints().isEmpty());
+        }
+        assertTrue(Files.exists(directory.resolve("run.journal.stale")));
+    }
+
+    @Test
+    void journalIsReplacedWhenNotResuming() throws Exception {
+        Path file = directory.resolve("run.journal");
+        try (CheckpointJournal journal = CheckpointJournal.open(file, FINGERPRINT, false)) {
+            journal.recordEndpointCompleted(checkpoint("GET", "/users", "UsersTest.java"));
+        }
+
+        try (CheckpointJournal fresh = CheckpointJournal.open(file, FINGERPRINT, false)) {
+            assertTrue(fresh.getCompletedEndpoints().isEmpty());
+        }
+    }
+
+    private static CheckpointJournal.EndpointCheckpoint checkpoint(String method, String path, String file) {
+        return new CheckpointJournal.EndpointCheckpoint(method, path, 1_000L,
+                List.of(new CheckpointJournal.TestEntry("t-" + path, "test " + path, "FUNCTIONAL_BASIC")), List.of(file));
+    }
+}
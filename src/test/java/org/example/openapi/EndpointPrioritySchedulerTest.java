@@ -0,0 +1,160 @@
+package org.example.openapi;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EndpointPrioritySchedulerTest {
+
+    // ===== ENDPOINT ORDER =====
+
+    @Test
+    void riskierEndpointsComeFirst() {
+        EndpointInfo read = endpoint("GET", "/api/catalog").build();
+        EndpointInfo write = endpoint("POST", "/api/catalog").build();
+        EndpointInfo securedWrite = endpoint("POST", "/api/payments").withSecurity("bearer").build();
+
+        assertEquals(List.of(securedWrite, write, read),
+                EndpointPriorityScheduler.prioritize(List.of(read, write, securedWrite)));
+    }
+
+    @Test
+    void criticalityAndSecurityRisksSeparateSaturatedScores() {
+        EndpointInfo critical = saturated("/api/critical")
+                .withBusinessCriticality(EndpointInfo.BusinessCriticality.MISSION_CRITICAL).build();
+        EndpointInfo high = saturated("/api/high")
+                .withBusinessCriticality(EndpointInfo.BusinessCriticality.CRITICAL).build();
+        EndpointInfo highWithRisk = saturated("/api/high-risk")
+                .withBusinessCriticality(EndpointInfo.BusinessCriticality.CRITICAL)
+                .withSecurityRisk(EndpointInfo.SecurityRisk.SQL_INJECTION).build();
+        assertEquals(1.0, critical.calculateRiskScore());
+        assertEquals(1.0, high.calculateRiskScore());
+
+        assertEquals(List.of(critical, highWithRisk, high),
+                EndpointPriorityScheduler.prioritize(List.of(high, highWithRisk, critical)));
+    }
+
+    @Test
+    void equalRiskKeepsTheOriginalOrder() {
+        List<EndpointInfo> endpoints = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            endpoints.add(endpoint("GET", "/api/items/" + i).build());
+        }
+
+        assertEquals(endpoints, EndpointPriorityScheduler.prioritize(endpoints));
+    }
+
+    @Test
+    void itemsWithoutAnEndpointGoLast() {
+        EndpointInfo write = endpoint("DELETE", "/api/users").build();
+        Map<String, EndpointInfo> byName = Collections.singletonMap("write", write);
+
+        assertEquals(List.of("write", "none", "other"),
+                EndpointPriorityScheduler.prioritize(Arrays.asList("none", "write", "other"), byName::get));
+    }
+
+    @Test
+    void comparatorAgreesWithPrioritize() {
+        EndpointInfo read = endpoint("GET", "/api/catalog").build();
+        EndpointInfo securedWrite = endpoint("PUT", "/api/payments").withSecurity("bearer").build();
+        List<EndpointInfo> sorted = new ArrayList<>(List.of(read, securedWrite));
+        sorted.sort(EndpointPriorityScheduler.HIGHEST_RISK_FIRST);
+
+        assertEquals(EndpointPriorityScheduler.prioritize(List.of(read, securedWrite)), sorted);
+    }
+
+    // ===== TEST CASE ORDER =====
+
+    @Test
+    void testCasesFollowEndpointRiskThenPriority() {
+        EndpointInfo read = endpoint("GET", "/api/catalog").build();
+        EndpointInfo write = endpoint("POST", "/api/orders").withSecurity("bearer").build();
+        GeneratedTestCase readFirst = testCase("read-1", read, 1);
+        GeneratedTestCase writeLater = testCase("write-3", write, 3);
+        GeneratedTestCase writeFirst = testCase("write-1", write, 1);
+
+        assertEquals(List.of(writeFirst, writeLater, readFirst),
+                EndpointPriorityScheduler.prioritizeTestCases(List.of(readFirst, writeLater, writeFirst)));
+    }
+
+    // ===== STAGE QUEUE =====
+
+    @Test
+    void stageQueueReleasesRiskiestEndpointFirst() throws Exception {
+        EndpointInfo read = endpoint("GET", "/api/catalog").build();
+        EndpointInfo securedWrite = endpoint("POST", "/api/payments").withSecurity("bearer").build();
+        BoundedPriorityBlockingQueue<EndpointInfo> queue =
+                EndpointPriorityScheduler.newStageQueue(4, EndpointPriorityScheduler.HIGHEST_RISK_FIRST);
+        queue.put(read);
+        queue.put(securedWrite);
+
+        assertSame(securedWrite, queue.take());
+        assertSame(read, queue.take());
+    }
+
+    // ===== RISK PROFILE =====
+
+    @Test
+    void riskProfileKeepsParametersBodyAndResponses() {
+        SwaggerTestGenerator.EndpointInfo bare = descriptor("GET", "/api/users");
+        SwaggerTestGenerator.EndpointInfo detailed = descriptor("GET", "/api/users");
+        SwaggerTestGenerator.ParameterInfo email = new SwaggerTestGenerator.ParameterInfo();
+        email.setName("email");
+        email.setType("string");
+        email.setRequired(true);
+        detailed.setParameters(List.of(email));
+        SwaggerTestGenerator.RequestBodyInfo body = new SwaggerTestGenerator.RequestBodyInfo();
+        body.setContentType("application/json");
+        detailed.setRequestBodyInfo(body);
+        SwaggerTestGenerator.ResponseInfo ok = new SwaggerTestGenerator.ResponseInfo();
+        ok.setDescription("found");
+        SwaggerTestGenerator.ResponseInfo fallback = new SwaggerTestGenerator.ResponseInfo();
+        detailed.setResponses(Map.of("200", ok, "404", new SwaggerTestGenerator.ResponseInfo(), "default", fallback));
+
+        EndpointInfo profile = SwaggerTestGenerator.toRiskProfile(detailed);
+
+        assertEquals(1, profile.getParameters().size());
+        assertEquals("email", profile.getParameters().get(0).getName());
+        assertTrue(profile.isHasRequestBody());
+        assertEquals(Set.of("200", "404"), profile.getResponses().keySet());
+        // The email parameter is personal data, which the bare descriptor cannot show
+        assertTrue(profile.getSecurityRisks().contains(EndpointInfo.SecurityRisk.DATA_EXPOSURE));
+        assertTrue(profile.calculateRiskScore() > SwaggerTestGenerator.toRiskProfile(bare).calculateRiskScore());
+    }
+
+    // ===== HELPERS =====
+
+    private static EndpointInfo.Builder endpoint(String method, String path) {
+        return EndpointInfo.builder().withMethod(method).withPath(path).withOperationId(method + path);
+    }
+
+    /**
+     * A data-modifying, authenticated endpoint with an external dependency, whose risk score is 1.0.
+     */
+    private static EndpointInfo.Builder saturated(String path) {
+        return endpoint("POST", path).withSecurity("bearer").withDependency("ledger");
+    }
+
+    private static SwaggerTestGenerator.EndpointInfo descriptor(String method, String path) {
+        SwaggerTestGenerator.EndpointInfo endpoint = new SwaggerTestGenerator.EndpointInfo();
+        endpoint.setMethod(method);
+        endpoint.setPath(path);
+        return endpoint;
+    }
+
+    private static GeneratedTestCase testCase(String id, EndpointInfo endpoint, int priority) {
+        return GeneratedTestCase.builder()
+                .withTestId(id)
+                .withTestName(id)
+                .withEndpoint(endpoint)
+                .withPriority(priority)
+                .build();
+    }
+}
@@ -0,0 +1,85 @@
+package org.example.openapi;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EnterpriseFileManagerTest {
+
+    @TempDir
+    Path directory;
+
+    // ===== FILE STRUCTURE =====
+
+    @Test
+    void writtenClassDeclaresPackageAndImports() throws Exception {
+        SwaggerTestGenerator.EnterpriseFileManager fileManager = newFileManager();
+
+        List<String> written = fileManager.writeTestSuite(suite("GET", "/users"));
+
+        assertEquals(1, written.size());
+        Path file = Paths.get(written.get(0));
+        assertEquals(directory.resolve("com/generated/tests/GETUsersTest.java"), file);
+        String source = Files.readString(file, StandardCharsets.UTF_8);
+        assertTrue(source.startsWith("package com.generated.tests;\n"));
+        assertTrue(source.contains("import org.junit.jupiter.api.Test;\n"));
+        assertTrue(source.contains("import org.junit.jupiter.api.DisplayName;\n"));
+        assertTrue(source.contains("import static io.restassured.RestAssured.*;\n"));
+        assertTrue(source.contains("import static org.hamcrest.Matchers.*;\n"));
+        assertTrue(source.contains("public class GETUsersTest {\n"));
+    }
+
+    // ===== CLASS NAMES =====
+
+    @Test
+    void endpointsWithTheSameClassNameGetDistinctFiles() throws Exception {
+        SwaggerTestGenerator.EnterpriseFileManager fileManager = newFileManager();
+
+        String first = fileManager.writeTestSuite(suite("GET", "/users/{id}")).get(0);
+        String second = fileManager.writeTestSuite(suite("GET", "/users/id")).get(0);
+
+        assertNotEquals(first, second);
+        assertTrue(Files.readString(Paths.get(first)).contains("/users/{id}"));
+        assertTrue(Files.readString(Paths.get(second)).contains("public class GETUsersId2Test {"));
+    }
+
+    @Test
+    void rewrittenEndpointKeepsItsClassName() throws Exception {
+        SwaggerTestGenerator.EnterpriseFileManager fileManager = newFileManager();
+
+        String first = fileManager.writeTestSuite(suite("GET", "/users/{id}")).get(0);
+        fileManager.writeTestSuite(suite("GET", "/users/id"));
+
+        assertEquals(first, fileManager.writeTestSuite(suite("GET", "/users/{id}")).get(0));
+    }
+
+    // ===== HELPERS =====
+
+    private SwaggerTestGenerator.EnterpriseFileManager newFileManager() {
+        return new SwaggerTestGenerator.EnterpriseFileManager(SwaggerTestGenerator.EnhancedConfiguration.builder()
+                .withOutputDirectory(directory.toString())
+                .build());
+    }
+
+    private static SwaggerTestGenerator.ComprehensiveTestSuite suite(String method, String path) {
+        SwaggerTestGenerator.EndpointInfo endpoint = new SwaggerTestGenerator.EndpointInfo();
+        endpoint.setMethod(method);
+        endpoint.setPath(path);
+        GeneratedTestCase testCase = GeneratedTestCase.builder()
+                .withTestId(method + " " + path)
+                .withTestName("test")
+                .withTestCode("    // " + path + "\n")
+                .build();
+        return SwaggerTestGenerator.ComprehensiveTestSuite.builder()
+                .withEndpoint(endpoint)
+                .withTestCases(List.of(testCase))
+                .build();
+    }
+}
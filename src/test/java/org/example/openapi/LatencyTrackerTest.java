@@ -0,0 +1,75 @@
+package org.example.openapi;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyTrackerTest {
+
+    // ===== PERCENTILES =====
+
+    @Test
+    void percentilesUseTheNearestRank() {
+        LatencyTracker tracker = new LatencyTracker("test");
+        for (int millis = 100; millis >= 1; millis--) {
+            tracker.record(Duration.ofMillis(millis));
+        }
+
+        assertEquals(Duration.ofMillis(50), tracker.percentile(0.50, 1));
+        assertEquals(Duration.ofMillis(95), tracker.percentile(0.95, 1));
+        assertEquals(Duration.ofMillis(100), tracker.percentile(1.0, 1));
+        assertEquals(Duration.ofMillis(1), tracker.percentile(0.001, 1));
+    }
+
+    @Test
+    void percentileIsUnknownUntilEnoughSamples() {
+        LatencyTracker tracker = new LatencyTracker("test");
+        assertNull(tracker.percentile(0.95, 1));
+
+        tracker.record(Duration.ofMillis(5));
+        tracker.record(Duration.ofMillis(7));
+
+        assertNull(tracker.percentile(0.95, 3));
+        assertEquals(Duration.ofMillis(7), tracker.percentile(0.95, 2));
+    }
+
+    @Test
+    void rejectsQuantilesOutsideTheUnitInterval() {
+        LatencyTracker tracker = new LatencyTracker("test");
+
+        assertThrows(IllegalArgumentException.class, () -> tracker.percentile(0.0, 1));
+        assertThrows(IllegalArgumentException.class, () -> tracker.percentile(1.5, 1));
+        assertThrows(IllegalArgumentException.class, () -> new LatencyTracker("test", 0));
+    }
+
+    // ===== WINDOW =====
+
+    @Test
+    void percentilesFollowTheLatestWindow() {
+        LatencyTracker tracker = new LatencyTracker("test", 4);
+        for (int i = 0; i < 4; i++) {
+            tracker.recordNanos(1_000_000_000L);
+        }
+        for (int i = 0; i < 4; i++) {
+            tracker.record(Duration.ofMillis(10));
+        }
+
+        assertEquals(Duration.ofMillis(10), tracker.percentile(0.99, 1));
+        LatencyTracker.Snapshot snapshot = tracker.getSnapshot();
+        assertEquals(8, snapshot.getCount());
+        // The maximum covers every sample, not only the window
+        assertEquals(Duration.ofSeconds(1), snapshot.getMax());
+        assertEquals(Duration.ofMillis(10), snapshot.getP50());
+    }
+
+    @Test
+    void emptySnapshotIsZero() {
+        LatencyTracker.Snapshot snapshot = new LatencyTracker("empty").getSnapshot();
+
+        assertEquals(0, snapshot.getCount());
+        assertEquals(Duration.ZERO, snapshot.getP99());
+        assertEquals(Duration.ZERO, snapshot.getMax());
+    }
+}
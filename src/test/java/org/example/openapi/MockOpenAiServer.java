@@ -0,0 +1,640 @@
+package org.example.openapi;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * ===== MOCK OPENAI SERVER =====
+ *
+ * Local stand-in for the OpenAI chat completions endpoint, so the AI path can run without network
+ * access or credentials. It serves {@code POST /v1/chat/completions} on the loopback interface,
+ * both as a single JSON reply and as a server-sent event stream with a configurable pause between
+ * pieces of the reply, the way a model produces tokens. Replies come from a function of the user
+ * prompt; the default one answers with REST Assured tests for the endpoint the prompt names.
+ *
+ * For benchmarks it behaves like a loaded provider on request: each reply waits a latency drawn
+ * from a distribution, and a share of requests fail with a server error or are throttled with
+ * {@code 429} and a {@code Retry-After}. The draws come from a seeded generator, so a run that sends
+ * its requests in the same order sees the same latencies and faults.
+ *
+ * It can also stand between the generator and a real provider. In recording mode every request is
+ * forwarded upstream and each successful exchange is written to a directory, one file per distinct
+ * request; in replay mode the server answers from such a directory alone, byte for byte, and
+ * refuses requests it has no recording of. Injected faults are never recorded.
+ *
+ * Point {@link OpenAiStreamingClient} at {@link #getBaseUrl()}, or configure the generator with
+ * {@code TestBuilderConfiguration.Builder.withAiEndpoint}.
+ *
+ * @author Enhanced Test Generation Team
+ * @since 2025.1
+ */
+public final class MockOpenAiServer implements AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(MockOpenAiServer.class.getName());
+
+    private static final String COMPLETIONS_PATH = "/v1/chat/completions";
+    private static final Pattern ENDPOINT_LINE = Pattern.compile("Endpoint: (\\w+) (\\S+)");
+    private static final int CHARS_PER_CHUNK = 4;
+    private static final String RECORDING_SUFFIX = ".json";
+    private static final Duration UPSTREAM_TIMEOUT = Duration.ofMinutes(2);
+    private static final Duration CLOSE_GRACE = Duration.ofSeconds(5);
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Function<String, String> replies;
+    private final Duration chunkInterval;
+    private final Latency latency;
+    private final Map<String, Function<String, String>> modelReplies;
+    private final Map<String, Latency> modelLatencies;
+    private final double errorRate;
+    private final double throttleRate;
+    private final Duration retryAfter;
+    private final long seed;
+    private final Mode mode;
+    private final Path recordingDirectory;
+    private final String upstreamUrl;
+    private final String upstreamApiKey;
+    private final HttpClient upstream;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong streamedRequests = new AtomicLong();
+    private final AtomicLong failedRequests = new AtomicLong();
+    private final AtomicLong throttledRequests = new AtomicLong();
+    private final AtomicLong recordedExchanges = new AtomicLong();
+    private final AtomicLong replayedExchanges = new AtomicLong();
+    private final AtomicLong replayMisses = new AtomicLong();
+
+    /**
+     * Where replies come from.
+     */
+    public enum Mode {
+        /** The reply function. */
+        GENERATE,
+        /** A real provider, with each successful exchange written to the recording directory. */
+        RECORD,
+        /** The recording directory. */
+        REPLAY
+    }
+
+    private MockOpenAiServer(Builder builder) throws IOException {
+        this.replies = builder.replies;
+        this.chunkInterval = builder.chunkInterval;
+        this.latency = builder.latency;
+        this.modelReplies = Map.copyOf(builder.modelReplies);
+        this.modelLatencies = Map.copyOf(builder.modelLatencies);
+        this.errorRate = builder.errorRate;
+        this.throttleRate = builder.throttleRate;
+        this.retryAfter = builder.retryAfter;
+        this.seed = builder.seed;
+        this.mode = builder.mode;
+        this.recordingDirectory = builder.recordingDirectory;
+        this.upstreamUrl = builder.upstreamBaseUrl == null ? null
+                : (builder.upstreamBaseUrl.endsWith("/") ? builder.upstreamBaseUrl : builder.upstreamBaseUrl + "/")
+                        + COMPLETIONS_PATH.substring(1);
+        this.upstreamApiKey = builder.upstreamApiKey;
+        if (mode == Mode.RECORD) {
+            Files.createDirectories(recordingDirectory);
+            this.upstream = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+        } else {
+            this.upstream = null;
+        }
+        if (mode == Mode.REPLAY && !Files.isDirectory(recordingDirectory)) {
+            throw new IOException("No recordings at " + recordingDirectory);
+        }
+
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), builder.port), 0);
+        this.server.setExecutor(executor);
+        this.server.createContext(COMPLETIONS_PATH, this::handle);
+        this.server.start();
+        LOGGER.info(() -> "Mock OpenAI server listening on " + getBaseUrl() + " (" + mode
+                + (recordingDirectory != null ? ", recordings in " + recordingDirectory : "") + ")");
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /** Base URL to configure clients with, ending in a slash. */
+    public String getBaseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/";
+    }
+
+    public Mode getMode() { return mode; }
+    public long getRequestCount() { return requests.get(); }
+    public long getStreamedRequestCount() { return streamedRequests.get(); }
+    /** Requests answered with an injected server error. */
+    public long getFailedRequestCount() { return failedRequests.get(); }
+    /** Requests answered with an injected {@code 429}. */
+    public long getThrottledRequestCount() { return throttledRequests.get(); }
+    public long getRecordedExchangeCount() { return recordedExchanges.get(); }
+    public long getReplayedExchangeCount() { return replayedExchanges.get(); }
+    /** Requests refused in replay mode for want of a recording. */
+    public long getReplayMissCount() { return replayMisses.get(); }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdown();
+        try {
+            // A recording is written after its reply has reached the client, and must not be cut short
+            if (mode == Mode.RECORD && !executor.awaitTermination(CLOSE_GRACE.toMillis(), TimeUnit.MILLISECONDS)) {
+                LOGGER.warning("Mock OpenAI server closed with recordings still being written");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        executor.shutdownNow();
+    }
+
+    // ===== REQUEST HANDLING =====
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                sendError(exchange, 405, "invalid_request_error", "Only POST is supported");
+                return;
+            }
+            byte[] rawRequest;
+            JsonNode request;
+            try (InputStream body = exchange.getRequestBody()) {
+                rawRequest = body.readAllBytes();
+                request = mapper.readTree(rawRequest);
+            } catch (IOException e) {
+                sendError(exchange, 400, "invalid_request_error", "Request body is not JSON");
+                return;
+            }
+            long sequence = requests.incrementAndGet();
+            boolean streamed = request.path("stream").asBoolean(false);
+            if (streamed) {
+                streamedRequests.incrementAndGet();
+            }
+
+            // One generator per request, so the draws do not depend on how requests interleave
+            SplittableRandom random = new SplittableRandom(seed + sequence * 0x9E3779B97F4A7C15L);
+            Duration delay = modelLatencies.getOrDefault(request.path("model").asText(""), latency).next(random);
+            double fault = random.nextDouble();
+            if (!delay.isZero()) {
+                Thread.sleep(delay.toMillis(), delay.toNanosPart() % 1_000_000);
+            }
+            if (fault < throttleRate) {
+                throttledRequests.incrementAndGet();
+                exchange.getResponseHeaders().set("Retry-After",
+                        String.valueOf(Math.max(1, (retryAfter.toMillis() + 999) / 1000)));
+                sendError(exchange, 429, "rate_limit_exceeded", "Rate limit reached, injected by the mock server");
+                return;
+            }
+            if (fault < throttleRate + errorRate) {
+                failedRequests.incrementAndGet();
+                sendError(exchange, 500, "server_error", "Internal error, injected by the mock server");
+                return;
+            }
+
+            switch (mode) {
+                case RECORD -> forward(exchange, request, rawRequest);
+                case REPLAY -> replay(exchange, request);
+                default -> generate(exchange, request, streamed);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            // The client went away mid-stream
+            LOGGER.log(Level.FINE, "Mock OpenAI exchange aborted", e);
+        }
+    }
+
+    private void generate(HttpExchange exchange, JsonNode request, boolean streamed)
+            throws IOException, InterruptedException {
+        String systemPrompt = message(request, "system");
+        String userPrompt = message(request, "user");
+        String model = request.path("model").asText("mock");
+        String reply = modelReplies.getOrDefault(model, replies).apply(userPrompt);
+        long promptTokens = TokenEstimator.estimate(systemPrompt) + TokenEstimator.estimate(userPrompt);
+        long completionTokens = TokenEstimator.estimate(reply);
+
+        if (streamed) {
+            boolean includeUsage = request.path("stream_options").path("include_usage").asBoolean(false);
+            stream(exchange, model, reply, includeUsage ? usage(promptTokens, completionTokens) : null);
+        } else {
+            ObjectNode completion = completion(model, "chat.completion");
+            ObjectNode choice = completion.putArray("choices").addObject();
+            choice.put("index", 0);
+            choice.putObject("message").put("role", "assistant").put("content", reply);
+            choice.put("finish_reason", "stop");
+            completion.set("usage", usage(promptTokens, completionTokens));
+            send(exchange, 200, "application/json", mapper.writeValueAsBytes(completion));
+        }
+    }
+
+    private void stream(HttpExchange exchange, String model, String reply, ObjectNode usage)
+            throws IOException, InterruptedException {
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+        exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream out = exchange.getResponseBody();
+
+        for (int start = 0; start < reply.length(); start += CHARS_PER_CHUNK) {
+            ObjectNode chunk = completion(model, "chat.completion.chunk");
+            ObjectNode choice = chunk.putArray("choices").addObject();
+            choice.put("index", 0);
+            choice.putObject("delta").put("content", reply.substring(start, Math.min(reply.length(), start + CHARS_PER_CHUNK)));
+            choice.putNull("finish_reason");
+            event(out, mapper.writeValueAsString(chunk));
+            pause();
+        }
+
+        ObjectNode last = completion(model, "chat.completion.chunk");
+        ObjectNode choice = last.putArray("choices").addObject();
+        choice.put("index", 0);
+        choice.putObject("delta");
+        choice.put("finish_reason", "stop");
+        event(out, mapper.writeValueAsString(last));
+        if (usage != null) {
+            ObjectNode usageChunk = completion(model, "chat.completion.chunk");
+            usageChunk.putArray("choices");
+            usageChunk.set("usage", usage);
+            event(out, mapper.writeValueAsString(usageChunk));
+        }
+        event(out, "[DONE]");
+    }
+
+    private void pause() throws InterruptedException {
+        if (!chunkInterval.isZero()) {
+            Thread.sleep(chunkInterval.toMillis(), chunkInterval.toNanosPart() % 1_000_000);
+        }
+    }
+
+    private static void event(OutputStream out, String data) throws IOException {
+        out.write(("data: " + data + "\n\n").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    // ===== RECORD AND REPLAY =====
+
+    /**
+     * Passes the request to the real provider and its answer back as it arrives, then records the
+     * exchange if the provider accepted the request.
+     */
+    private void forward(HttpExchange exchange, JsonNode request, byte[] rawRequest)
+            throws IOException, InterruptedException {
+        HttpRequest upstreamRequest = HttpRequest.newBuilder(URI.create(upstreamUrl))
+                .timeout(UPSTREAM_TIMEOUT)
+                .header("Authorization", "Bearer " + upstreamApiKey)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(rawRequest))
+                .build();
+        HttpResponse<InputStream> response = upstream.send(upstreamRequest, HttpResponse.BodyHandlers.ofInputStream());
+        String contentType = response.headers().firstValue("Content-Type").orElse("application/json");
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        response.headers().firstValue("Retry-After").ifPresent(value -> exchange.getResponseHeaders().set("Retry-After", value));
+        exchange.sendResponseHeaders(response.statusCode(), 0);
+
+        ByteArrayOutputStream copy = new ByteArrayOutputStream();
+        OutputStream out = exchange.getResponseBody();
+        try (InputStream in = response.body()) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) >= 0) {
+                out.write(buffer, 0, read);
+                // Flushed per read, so streamed events reach the client as the provider sends them
+                out.flush();
+                copy.write(buffer, 0, read);
+            }
+        }
+        if (response.statusCode() / 100 == 2) {
+            ObjectNode recording = mapper.createObjectNode();
+            recording.set("request", requestKey(request));
+            recording.put("status", response.statusCode());
+            recording.put("contentType", contentType);
+            recording.put("body", copy.toString(StandardCharsets.UTF_8));
+            write(recordingFile(request), mapper.writerWithDefaultPrettyPrinter().writeValueAsBytes(recording));
+            recordedExchanges.incrementAndGet();
+        }
+    }
+
+    /**
+     * Answers with the recorded exchange for the request. Streams are sent one event at a time,
+     * with the chunk interval between them.
+     */
+    private void replay(HttpExchange exchange, JsonNode request) throws IOException, InterruptedException {
+        Path file = recordingFile(request);
+        if (!Files.isRegularFile(file)) {
+            replayMisses.incrementAndGet();
+            LOGGER.fine(() -> "No recording for request " + file.getFileName());
+            sendError(exchange, 404, "replay_miss", "No recorded exchange for this request");
+            return;
+        }
+        JsonNode recording = mapper.readTree(file.toFile());
+        String contentType = recording.path("contentType").asText("application/json");
+        String body = recording.path("body").asText("");
+        replayedExchanges.incrementAndGet();
+        if (!contentType.startsWith("text/event-stream")) {
+            send(exchange, recording.path("status").asInt(200), contentType, body.getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(recording.path("status").asInt(200), 0);
+        OutputStream out = exchange.getResponseBody();
+        int start = 0;
+        while (start < body.length()) {
+            int end = body.indexOf("\n\n", start);
+            end = end < 0 ? body.length() : end + 2;
+            out.write(body.substring(start, end).getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            start = end;
+            if (start < body.length()) {
+                pause();
+            }
+        }
+    }
+
+    /**
+     * What identifies a request among recordings: the model, the messages and whether it is
+     * streamed. Sampling settings are left out, so a recording survives a change of temperature.
+     */
+    private ObjectNode requestKey(JsonNode request) {
+        ObjectNode key = mapper.createObjectNode();
+        key.put("model", request.path("model").asText(""));
+        key.set("messages", request.path("messages"));
+        key.put("stream", request.path("stream").asBoolean(false));
+        return key;
+    }
+
+    private Path recordingFile(JsonNode request) throws IOException {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(mapper.writeValueAsBytes(requestKey(request)));
+            return recordingDirectory.resolve(HexFormat.of().formatHex(digest) + RECORDING_SUFFIX);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static void write(Path file, byte[] content) throws IOException {
+        // Written aside and moved into place, so a replay never reads half a recording
+        Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temp, content);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    // ===== RESPONSES =====
+
+    private ObjectNode completion(String model, String object) {
+        ObjectNode node = mapper.createObjectNode();
+        node.put("id", "chatcmpl-mock-" + requests.get());
+        node.put("object", object);
+        node.put("created", System.currentTimeMillis() / 1000);
+        node.put("model", model);
+        return node;
+    }
+
+    private ObjectNode usage(long promptTokens, long completionTokens) {
+        ObjectNode usage = mapper.createObjectNode();
+        usage.put("prompt_tokens", promptTokens);
+        usage.put("completion_tokens", completionTokens);
+        usage.put("total_tokens", promptTokens + completionTokens);
+        return usage;
+    }
+
+    private static String message(JsonNode request, String role) {
+        String content = "";
+        for (JsonNode message : request.path("messages")) {
+            if (role.equals(message.path("role").asText())) {
+                content = message.path("content").asText("");
+            }
+        }
+        return content;
+    }
+
+    private void sendError(HttpExchange exchange, int status, String type, String message) throws IOException {
+        ObjectNode error = mapper.createObjectNode();
+        error.putObject("error").put("message", message).put("type", type);
+        send(exchange, status, "application/json", mapper.writeValueAsBytes(error));
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    /**
+     * Two REST Assured tests, a happy path and an unauthenticated call, for the endpoint named in
+     * the prompt, each in its own fenced block.
+     */
+    public static String defaultReply(String prompt) {
+        Matcher matcher = ENDPOINT_LINE.matcher(prompt == null ? "" : prompt);
+        boolean found = matcher.find();
+        String method = found ? matcher.group(1).toLowerCase() : "get";
+        String path = found ? matcher.group(2) : "/";
+        return "Here are the tests.\n\n" +
+                "```java\n" +
+                "given()\n" +
+                "    .contentType(ContentType.JSON)\n" +
+                ".when()\n" +
+                "    ." + method + "(\"" + path + "\")\n" +
+                ".then()\n" +
+                "    .statusCode(lessThan(500))\n" +
+                "    .time(lessThan(2000L));\n" +
+                "```\n\n" +
+                "```java\n" +
+                "given()\n" +
+                "    .header(\"Authorization\", \"Bearer invalid\")\n" +
+                ".when()\n" +
+                "    ." + method + "(\"" + path + "\")\n" +
+                ".then()\n" +
+                "    .statusCode(anyOf(is(401), is(403)));\n" +
+                "```\n";
+    }
+
+    // ===== LATENCY DISTRIBUTIONS =====
+
+    /**
+     * How long the server waits before it starts to answer a request.
+     */
+    @FunctionalInterface
+    public interface Latency {
+
+        Duration next(SplittableRandom random);
+
+        static Latency none() {
+            return random -> Duration.ZERO;
+        }
+
+        static Latency fixed(Duration latency) {
+            Objects.requireNonNull(latency, "latency");
+            return random -> latency;
+        }
+
+        static Latency uniform(Duration min, Duration max) {
+            long minNanos = min.toNanos();
+            long maxNanos = max.toNanos();
+            if (minNanos < 0 || maxNanos < minNanos) {
+                throw new IllegalArgumentException("Latency range must be non-negative and ordered");
+            }
+            return random -> Duration.ofNanos(minNanos == maxNanos ? minNanos : random.nextLong(minNanos, maxNanos + 1));
+        }
+
+        /**
+         * Log-normal latencies with the given median and 99th percentile: mostly close to the
+         * median with a long tail, the shape remote model latencies usually have.
+         */
+        static Latency logNormal(Duration median, Duration p99) {
+            if (median.isNegative() || median.isZero() || p99.compareTo(median) < 0) {
+                throw new IllegalArgumentException("Median must be positive and at most the 99th percentile");
+            }
+            double mu = Math.log(median.toNanos());
+            // 2.326 is the standard normal quantile at 0.99
+            double sigma = Math.log((double) p99.toNanos() / median.toNanos()) / 2.326;
+            return random -> {
+                // Box-Muller transform
+                double u1 = 1.0 - random.nextDouble();
+                double u2 = random.nextDouble();
+                double gaussian = Math.sqrt(-2 * Math.log(u1)) * Math.cos(2 * Math.PI * u2);
+                return Duration.ofNanos((long) Math.exp(mu + sigma * gaussian));
+            };
+        }
+    }
+
+    public static class Builder {
+        private int port = 0;
+        private Function<String, String> replies = MockOpenAiServer::defaultReply;
+        private Duration chunkInterval = Duration.ZERO;
+        private Latency latency = Latency.none();
+        private final Map<String, Function<String, String>> modelReplies = new HashMap<>();
+        private final Map<String, Latency> modelLatencies = new HashMap<>();
+        private double errorRate = 0;
+        private double throttleRate = 0;
+        private Duration retryAfter = Duration.ofSeconds(1);
+        private long seed = 42;
+        private Mode mode = Mode.GENERATE;
+        private Path recordingDirectory;
+        private String upstreamBaseUrl;
+        private String upstreamApiKey;
+
+        /** Port to listen on; 0, the default, picks a free one. */
+        public Builder withPort(int port) {
+            this.port = port;
+            return this;
+        }
+
+        /** Reply to each request, from its user prompt. */
+        public Builder withReplies(Function<String, String> replies) {
+            this.replies = Objects.requireNonNull(replies, "replies");
+            return this;
+        }
+
+        /** Pause between streamed pieces of a reply, each a few characters long. */
+        public Builder withChunkInterval(Duration interval) {
+            this.chunkInterval = Objects.requireNonNull(interval, "interval");
+            return this;
+        }
+
+        /** Wait before each answer, drawn per request. */
+        public Builder withLatency(Latency latency) {
+            this.latency = Objects.requireNonNull(latency, "latency");
+            return this;
+        }
+
+        /**
+         * Latency and replies for requests naming the model, in place of the server-wide ones; lets
+         * racing providers answer differently.
+         */
+        public Builder withModel(String model, Latency latency, Function<String, String> replies) {
+            this.modelLatencies.put(Objects.requireNonNull(model, "model"), Objects.requireNonNull(latency, "latency"));
+            this.modelReplies.put(model, Objects.requireNonNull(replies, "replies"));
+            return this;
+        }
+
+        /** Share of requests, 0 to 1, answered with {@code 500}. */
+        public Builder withErrorRate(double rate) {
+            this.errorRate = rate;
+            return this;
+        }
+
+        /**
+         * Share of requests, 0 to 1, answered with {@code 429} and a {@code Retry-After} of the
+         * given time, rounded up to whole seconds.
+         */
+        public Builder withThrottling(double rate, Duration retryAfter) {
+            this.throttleRate = rate;
+            this.retryAfter = Objects.requireNonNull(retryAfter, "retryAfter");
+            return this;
+        }
+
+        /** Seed of the latency and fault draws. */
+        public Builder withSeed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        /**
+         * Forwards requests to a real OpenAI-compatible provider and records each successful
+         * exchange in the directory, replacing an earlier recording of the same request.
+         */
+        public Builder withRecording(Path directory, String upstreamBaseUrl, String upstreamApiKey) {
+            this.mode = Mode.RECORD;
+            this.recordingDirectory = Objects.requireNonNull(directory, "directory");
+            this.upstreamBaseUrl = Objects.requireNonNull(upstreamBaseUrl, "upstreamBaseUrl");
+            this.upstreamApiKey = Objects.requireNonNull(upstreamApiKey, "upstreamApiKey");
+            return this;
+        }
+
+        /** Answers only from the recordings in the directory. */
+        public Builder withReplay(Path directory) {
+            this.mode = Mode.REPLAY;
+            this.recordingDirectory = Objects.requireNonNull(directory, "directory");
+            this.upstreamBaseUrl = null;
+            this.upstreamApiKey = null;
+            return this;
+        }
+
+        public MockOpenAiServer start() throws IOException {
+            if (errorRate < 0 || throttleRate < 0 || errorRate + throttleRate > 1) {
+                throw new IllegalArgumentException("Error and throttle rates must be between 0 and 1 together");
+            }
+            return new MockOpenAiServer(this);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package org.example.openapi;
+
+import okhttp3.OkHttpClient;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MockOpenAiServerTest {
+
+    private static final int REQUESTS = 20;
+
+    private final OkHttpClient httpClient = new OkHttpClient();
+
+    @TempDir
+    Path recordings;
+
+    // ===== FAULT INJECTION =====
+
+    @Test
+    void injectedThrottlingRepeatsForTheSameSeed() throws Exception {
+        List<Integer> first = statuses(MockOpenAiServer.builder().withThrottling(0.5, Duration.ofMillis(1500)).withSeed(7));
+        List<Integer> second = statuses(MockOpenAiServer.builder().withThrottling(0.5, Duration.ofMillis(1500)).withSeed(7));
+
+        assertEquals(first, second);
+        long throttled = first.stream().filter(status -> status == 429).count();
+        assertTrue(throttled > 0 && throttled < REQUESTS, "expected a mix of throttled and served requests: " + first);
+        assertTrue(first.stream().allMatch(status -> status == 200 || status == 429), first.toString());
+    }
+
+    @Test
+    void throttledRequestsCarryRetryAfterInWholeSeconds() throws Exception {
+        try (MockOpenAiServer server = MockOpenAiServer.builder()
+                .withThrottling(1.0, Duration.ofMillis(1500))
+                .start()) {
+            OpenAiStreamingClient.HttpStatusException e = assertThrows(OpenAiStreamingClient.HttpStatusException.class,
+                    () -> send(server, "Endpoint: GET /orders"));
+
+            assertEquals(429, e.getStatusCode());
+            assertEquals("2", e.getRetryAfter());
+            assertEquals(1, server.getThrottledRequestCount());
+            assertEquals(0, server.getFailedRequestCount());
+        }
+    }
+
+    @Test
+    void injectedErrorsAreServerErrors() throws Exception {
+        try (MockOpenAiServer server = MockOpenAiServer.builder().withErrorRate(1.0).start()) {
+            OpenAiStreamingClient.HttpStatusException e = assertThrows(OpenAiStreamingClient.HttpStatusException.class,
+                    () -> send(server, "Endpoint: GET /orders"));
+
+            assertEquals(500, e.getStatusCode());
+            assertEquals(1, server.getFailedRequestCount());
+        }
+    }
+
+    // ===== RECORD AND REPLAY =====
+
+    @Test
+    void replayReturnsTheRecordedExchange() throws Exception {
+        // Every generated reply differs, so an identical answer can only come from the recording
+        AtomicInteger generated = new AtomicInteger();
+        OpenAiStreamingClient.Completion recorded;
+        try (MockOpenAiServer upstream = MockOpenAiServer.builder()
+                .withReplies(prompt -> "```java\n// reply " + generated.incrementAndGet() + "\n```")
+                .start()) {
+            // Closing the recorder waits for the recording, which is written after the reply is sent
+            MockOpenAiServer recorder = MockOpenAiServer.builder()
+                    .withRecording(recordings, upstream.getBaseUrl(), "upstream-key")
+                    .start();
+            try (recorder) {
+                recorded = send(recorder, "Endpoint: POST /orders");
+            }
+            assertEquals(1, recorder.getRecordedExchangeCount());
+        }
+        assertEquals(1, recordingCount());
+
+        try (MockOpenAiServer replay = MockOpenAiServer.builder().withReplay(recordings).start()) {
+            for (int i = 0; i < 3; i++) {
+                List<String> pieces = new ArrayList<>();
+                OpenAiStreamingClient.Completion replayed = new OpenAiStreamingClient(httpClient, replay.getBaseUrl(), "key")
+                        .stream("gpt-4", "system", "Endpoint: POST /orders", 256, 0.2,
+                                CancellationContext.background(), pieces::add);
+
+                assertEquals(recorded.getText(), replayed.getText());
+                assertEquals(recorded.getText(), String.join("", pieces));
+                assertEquals(recorded.getPromptTokens(), replayed.getPromptTokens());
+                assertEquals(recorded.getCompletionTokens(), replayed.getCompletionTokens());
+            }
+            assertEquals(3, replay.getReplayedExchangeCount());
+        }
+        assertEquals(1, generated.get());
+    }
+
+    @Test
+    void replayRefusesUnrecordedRequests() throws Exception {
+        try (MockOpenAiServer replay = MockOpenAiServer.builder().withReplay(recordings).start()) {
+            OpenAiStreamingClient.HttpStatusException e = assertThrows(OpenAiStreamingClient.HttpStatusException.class,
+                    () -> send(replay, "Endpoint: DELETE /orders/{id}"));
+
+            assertEquals(404, e.getStatusCode());
+            assertEquals(1, replay.getReplayMissCount());
+        }
+    }
+
+    @Test
+    void injectedFaultsAreNotRecorded() throws Exception {
+        try (MockOpenAiServer upstream = MockOpenAiServer.builder().start();
+             MockOpenAiServer recorder = MockOpenAiServer.builder()
+                     .withRecording(recordings, upstream.getBaseUrl(), "upstream-key")
+                     .withThrottling(1.0, Duration.ofSeconds(1))
+                     .start()) {
+            assertThrows(OpenAiStreamingClient.HttpStatusException.class, () -> send(recorder, "Endpoint: GET /orders"));
+
+            assertEquals(0, upstream.getRequestCount());
+            assertEquals(0, recorder.getRecordedExchangeCount());
+        }
+        assertEquals(0, recordingCount());
+    }
+
+    // ===== HELPERS =====
+
+    /**
+     * Status of each of {@link #REQUESTS} requests sent one after another.
+     */
+    private List<Integer> statuses(MockOpenAiServer.Builder builder) throws IOException {
+        List<Integer> statuses = new ArrayList<>();
+        try (MockOpenAiServer server = builder.start()) {
+            for (int i = 0; i < REQUESTS; i++) {
+                try {
+                    send(server, "Endpoint: GET /orders/" + i);
+                    statuses.add(200);
+                } catch (OpenAiStreamingClient.HttpStatusException e) {
+                    statuses.add(e.getStatusCode());
+                }
+            }
+            assertEquals(statuses.stream().filter(status -> status == 429).count(), server.getThrottledRequestCount());
+        }
+        return statuses;
+    }
+
+    private OpenAiStreamingClient.Completion send(MockOpenAiServer server, String userPrompt) throws IOException {
+        return new OpenAiStreamingClient(httpClient, server.getBaseUrl(), "key")
+                .stream("gpt-4", "system", userPrompt, 256, 0.2, CancellationContext.background(), text -> { });
+    }
+
+    private long recordingCount() throws IOException {
+        try (Stream<Path> files = Files.list(recordings)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".json")).count();
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package org.example.openapi;
+
+import com.sun.net.httpserver.HttpServer;
+import okhttp3.OkHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OpenAiStreamingClientTest {
+
+    private static final String REPLY = "@Test\nvoid createsOrder() {\n    given().post(\"/orders\");\n}";
+
+    private final OkHttpClient httpClient = new OkHttpClient();
+    private MockOpenAiServer mockServer;
+    private HttpServer cannedServer;
+
+    @AfterEach
+    void stopServers() {
+        if (mockServer != null) {
+            mockServer.close();
+        }
+        if (cannedServer != null) {
+            cannedServer.stop(0);
+        }
+    }
+
+    // ===== STREAMS FROM THE MOCK SERVER =====
+
+    @Test
+    void streamsReplyInPiecesWithUsage() throws Exception {
+        mockServer = MockOpenAiServer.builder().withReplies(prompt -> REPLY).start();
+        List<String> pieces = new ArrayList<>();
+
+        OpenAiStreamingClient.Completion completion = client(mockServer.getBaseUrl())
+                .stream("gpt-4", "system", "Endpoint: POST /orders", 256, 0.2, CancellationContext.background(), pieces::add);
+
+        assertTrue(pieces.size() > 1, "reply should arrive in several pieces, got " + pieces.size());
+        assertEquals(REPLY, String.join("", pieces));
+        assertEquals(REPLY, completion.getText());
+        assertEquals("stop", completion.getFinishReason());
+        assertTrue(completion.hasUsage());
+        assertTrue(completion.getPromptTokens() > 0);
+        assertTrue(completion.getCompletionTokens() > 0);
+        assertEquals(1, mockServer.getStreamedRequestCount());
+    }
+
+    @Test
+    void throttledRequestKeepsStatusAndRetryAfter() throws Exception {
+        mockServer = MockOpenAiServer.builder().withThrottling(1.0, Duration.ofSeconds(2)).start();
+
+        OpenAiStreamingClient.HttpStatusException e = assertThrows(OpenAiStreamingClient.HttpStatusException.class,
+                () -> client(mockServer.getBaseUrl())
+                        .stream("gpt-4", "system", "user", 256, 0.2, CancellationContext.background(), text -> { }));
+
+        assertEquals(429, e.getStatusCode());
+        assertEquals("2", e.getRetryAfter());
+        assertEquals(Duration.ofSeconds(2), AiRetryPolicy.parseRetryAfter(e.getRetryAfter()));
+        assertEquals(1, mockServer.getThrottledRequestCount());
+    }
+
+    // ===== EVENT FRAMING =====
+
+    @Test
+    void joinsMultiLineEventsAndSkipsOtherFields() throws Exception {
+        String body = ": keep-alive\n\n"
+                + "event: message\n"
+                + "data: {\"choices\":[{\"delta\":{\"content\":\"Hel\"},\"finish_reason\":null}]}\n\n"
+                // One event split over two data lines
+                + "data: {\"choices\":[{\"delta\":\n"
+                + "data: {\"content\":\"lo\"},\"finish_reason\":\"stop\"}]}\n\n"
+                + "data: [DONE]\n\n";
+        List<String> pieces = new ArrayList<>();
+
+        OpenAiStreamingClient.Completion completion = client(serve(body))
+                .stream("gpt-4", "system", "user", 256, 0.2, CancellationContext.background(), pieces::add);
+
+        assertEquals(List.of("Hel", "lo"), pieces);
+        assertEquals("Hello", completion.getText());
+        assertEquals("stop", completion.getFinishReason());
+        assertFalse(completion.hasUsage());
+    }
+
+    @Test
+    void stopsReadingAtDone() throws Exception {
+        String body = "data: {\"choices\":[{\"delta\":{\"content\":\"kept\"},\"finish_reason\":\"stop\"}]}\n\n"
+                + "data: [DONE]\n\n"
+                + "data: {\"choices\":[{\"delta\":{\"content\":\" ignored\"}}]}\n\n";
+
+        OpenAiStreamingClient.Completion completion = client(serve(body))
+                .stream("gpt-4", "system", "user", 256, 0.2, CancellationContext.background(), text -> { });
+
+        assertEquals("kept", completion.getText());
+    }
+
+    @Test
+    void readsUsageFromFinalChunk() throws Exception {
+        String body = "data: {\"choices\":[{\"delta\":{\"content\":\"ok\"},\"finish_reason\":\"stop\"}]}\n\n"
+                + "data: {\"choices\":[],\"usage\":{\"prompt_tokens\":12,\"completion_tokens\":3,\"total_tokens\":15}}\n\n"
+                + "data: [DONE]\n\n";
+
+        OpenAiStreamingClient.Completion completion = client(serve(body))
+                .stream("gpt-4", "system", "user", 256, 0.2, CancellationContext.background(), text -> { });
+
+        assertTrue(completion.hasUsage());
+        assertEquals(12, completion.getPromptTokens());
+        assertEquals(3, completion.getCompletionTokens());
+    }
+
+    @Test
+    void errorChunkFailsTheStream() throws Exception {
+        String body = "data: {\"choices\":[{\"delta\":{\"content\":\"par\"},\"finish_reason\":null}]}\n\n"
+                + "data: {\"error\":{\"message\":\"The server is overloaded\",\"type\":\"server_error\"}}\n\n";
+        List<String> pieces = new ArrayList<>();
+
+        IOException e = assertThrows(IOException.class, () -> client(serve(body))
+                .stream("gpt-4", "system", "user", 256, 0.2, CancellationContext.background(), pieces::add));
+
+        assertFalse(e instanceof OpenAiStreamingClient.HttpStatusException);
+        assertTrue(e.getMessage().contains("The server is overloaded"), e.getMessage());
+        assertEquals(List.of("par"), pieces);
+    }
+
+    @Test
+    void streamEndingWithoutFinishReasonFails() throws Exception {
+        String body = "data: {\"choices\":[{\"delta\":{\"content\":\"cut\"},\"finish_reason\":null}]}\n\n";
+
+        IOException e = assertThrows(IOException.class, () -> client(serve(body))
+                .stream("gpt-4", "system", "user", 256, 0.2, CancellationContext.background(), text -> { }));
+
+        assertTrue(e.getMessage().contains("ended before"), e.getMessage());
+    }
+
+    // ===== CANCELLATION =====
+
+    @Test
+    void streamCancelledMidReplyKeepsTheTextReceivedSoFar() throws Exception {
+        mockServer = MockOpenAiServer.builder()
+                .withChunkInterval(Duration.ofMillis(5))
+                .withReplies(prompt -> "word ".repeat(200))
+                .start();
+        List<String> pieces = new ArrayList<>();
+
+        try (CancellationContext context = CancellationContext.root("stream", null)) {
+            OpenAiStreamingClient.StreamCancelledException e = assertThrows(
+                    OpenAiStreamingClient.StreamCancelledException.class,
+                    () -> client(mockServer.getBaseUrl()).stream("gpt-4", "system", "user", 256, 0.2, context, text -> {
+                        pieces.add(text);
+                        if (pieces.size() == 3) {
+                            context.cancel("enough");
+                        }
+                    }));
+
+            assertEquals(String.join("", pieces), e.getStreamedText());
+            assertTrue(e.getMessage().contains("enough"), e.getMessage());
+        }
+    }
+
+    @Test
+    void streamCancelledBeforeItStartsHasNoText() throws Exception {
+        mockServer = MockOpenAiServer.builder().withReplies(prompt -> REPLY).start();
+
+        try (CancellationContext context = CancellationContext.root("stream", null)) {
+            context.cancel("not needed");
+            CancellationException e = assertThrows(CancellationException.class, () -> client(mockServer.getBaseUrl())
+                    .stream("gpt-4", "system", "user", 256, 0.2, context, text -> { }));
+
+            assertFalse(e instanceof OpenAiStreamingClient.StreamCancelledException);
+        }
+        assertEquals(0, mockServer.getRequestCount());
+    }
+
+    // ===== HELPERS =====
+
+    private OpenAiStreamingClient client(String baseUrl) {
+        return new OpenAiStreamingClient(httpClient, baseUrl, "test-key");
+    }
+
+    /**
+     * Serves {@code body} as the event stream of every completion request.
+     */
+    private String serve(String body) throws IOException {
+        cannedServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        cannedServer.createContext("/v1/chat/completions", exchange -> {
+            try (exchange) {
+                exchange.getRequestBody().readAllBytes();
+                byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+                exchange.sendResponseHeaders(200, bytes.length);
+                exchange.getResponseBody().write(bytes);
+            }
+        });
+        cannedServer.start();
+        return "http://" + cannedServer.getAddress().getHostString() + ":" + cannedServer.getAddress().getPort() + "/";
+    }
+}
@@ -0,0 +1,281 @@
+package org.example.openapi;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PromptContextCompactorTest {
+
+    private static final Set<TestBuilder.TestType> FUNCTIONAL = EnumSet.of(TestBuilder.TestType.FUNCTIONAL);
+    private static final Set<TestBuilder.TestType> NEGATIVE = EnumSet.of(TestBuilder.TestType.NEGATIVE);
+    private static final int LARGE_BUDGET = 100_000;
+
+    // ===== PRUNING =====
+
+    @Test
+    void functionalTestsGetNeitherValueConstraintsNorErrorSchemas() {
+        String context = compact(FUNCTIONAL, LARGE_BUDGET, orderEndpoint()).getText();
+
+        assertTrue(context.contains("quantity"), context);
+        assertFalse(context.contains("range 1..99"), context);
+        assertFalse(context.contains("/[A-Z]{3}/"), context);
+        assertTrue(context.contains("201: object {id*"), context);
+        assertTrue(context.contains("400: status only"), context);
+    }
+
+    @Test
+    void negativeTestsGetValueConstraintsAndErrorSchemas() {
+        String context = compact(NEGATIVE, LARGE_BUDGET, orderEndpoint()).getText();
+
+        assertTrue(context.contains("range 1..99"), context);
+        assertTrue(context.contains("/[A-Z]{3}/"), context);
+        assertTrue(context.contains("400: object {code*, message}"), context);
+        assertTrue(context.contains("201: status only"), context);
+    }
+
+    @Test
+    void examplesAndDefaultsAreDropped() {
+        DataConstraints quantity = type("integer");
+        quantity.setExample(42);
+        quantity.setDefaultValue(7);
+        EndpointInfo endpoint = endpoint("POST", "/orders", body(Map.of("quantity", quantity)));
+
+        String context = compact(EnumSet.allOf(TestBuilder.TestType.class), LARGE_BUDGET, endpoint).getText();
+
+        assertFalse(context.contains("example"), context);
+        assertFalse(context.contains("default"), context);
+    }
+
+    @Test
+    void sensitiveFieldsAreMarkedForSecurityTestsOrSensitiveEndpoints() {
+        DataConstraints password = type("string");
+        password.setSecurityLevel(DataConstraints.SecurityLevel.CRITICAL);
+        EndpointInfo endpoint = endpoint("POST", "/login", body(Map.of("password", password)));
+
+        assertFalse(compact(FUNCTIONAL, LARGE_BUDGET, endpoint).getText().contains("sensitive"));
+        assertTrue(new PromptContextCompactor(FUNCTIONAL, LARGE_BUDGET).compact(endpoint, true).getText().contains("sensitive"));
+        assertTrue(compact(EnumSet.of(TestBuilder.TestType.SECURITY), LARGE_BUDGET, endpoint).getText().contains("sensitive"));
+    }
+
+    // ===== SHARED SCHEMAS =====
+
+    @Test
+    void repeatedObjectSchemaIsWrittenOnceUnderAName() {
+        Map<String, DataConstraints> properties = new LinkedHashMap<>();
+        properties.put("billing", address());
+        properties.put("shipping", address());
+        EndpointInfo endpoint = endpoint("POST", "/orders", body(properties));
+
+        String context = compact(FUNCTIONAL, LARGE_BUDGET, endpoint).getText();
+
+        assertTrue(context.contains("billing: @Billing\n"), context);
+        assertTrue(context.contains("shipping: @Billing\n"), context);
+        assertEquals(1, occurrences(context, "@Billing = object"), context);
+        assertEquals(1, occurrences(context, "street"), context);
+    }
+
+    @Test
+    void schemaThatOccursOnceIsWrittenInPlace() {
+        EndpointInfo endpoint = endpoint("POST", "/orders", body(Map.of("billing", address())));
+
+        String context = compact(FUNCTIONAL, LARGE_BUDGET, endpoint).getText();
+
+        assertFalse(context.contains("@"), context);
+        assertFalse(context.contains("Shared schemas"), context);
+        assertTrue(context.contains("street"), context);
+    }
+
+    @Test
+    void smallRepeatedSchemaIsNotShared() {
+        Map<String, DataConstraints> properties = new LinkedHashMap<>();
+        properties.put("from", object(Map.of("x", type("integer"))));
+        properties.put("to", object(Map.of("x", type("integer"))));
+        EndpointInfo endpoint = endpoint("POST", "/moves", body(properties));
+
+        String context = compact(FUNCTIONAL, LARGE_BUDGET, endpoint).getText();
+
+        assertFalse(context.contains("Shared schemas"), context);
+        assertEquals(2, occurrences(context, "x: integer"), context);
+    }
+
+    // ===== DESCRIPTIONS =====
+
+    @Test
+    void descriptionsAreShortenedToTheirFirstSentence() {
+        EndpointInfo endpoint = endpoint("POST", "/orders", null);
+        endpoint.setDescription("Places an order.  It is charged   to the default card and shipped next day.");
+
+        PromptContextCompactor.Result result = compact(FUNCTIONAL, LARGE_BUDGET, endpoint);
+
+        assertEquals("Description: Places an order.\n", result.getText());
+    }
+
+    @Test
+    void longSentenceIsCutAtAWord() {
+        EndpointInfo endpoint = endpoint("POST", "/orders", null);
+        endpoint.setDescription("Places an order for every item in the basket of the customer who is signed in right now");
+
+        String context = compact(FUNCTIONAL, LARGE_BUDGET, endpoint).getText();
+
+        assertEquals("Description: Places an order for every item in the basket of the customer who is signed in...\n",
+                context);
+    }
+
+    // ===== BUDGET =====
+
+    @Test
+    void contextWithinBudgetKeepsItsDetail() {
+        PromptContextCompactor.Result result = compact(NEGATIVE, LARGE_BUDGET, largeEndpoint());
+
+        assertEquals(0, result.getLevel());
+        assertFalse(result.isTruncated());
+        assertTrue(result.getText().contains("Field number 0 of the order."), result.getText());
+        assertFalse(result.getText().contains("auditing"), result.getText());
+        assertTrue(result.getCompactedTokens() < result.getFullSchemaTokens());
+        assertEquals(result.getFullSchemaTokens() - result.getCompactedTokens(), result.getSavedVsFullSchema());
+    }
+
+    @Test
+    void overBudgetContextGivesUpDescriptionsThenOptionalFields() {
+        int full = compact(NEGATIVE, LARGE_BUDGET, largeEndpoint()).getCompactedTokens();
+
+        PromptContextCompactor.Result withoutDescriptions = compact(NEGATIVE, full - 1, largeEndpoint());
+        assertEquals(1, withoutDescriptions.getLevel(), withoutDescriptions.getText());
+        assertFalse(withoutDescriptions.getText().contains("Field number"), withoutDescriptions.getText());
+        assertTrue(withoutDescriptions.getText().contains("optional0"), withoutDescriptions.getText());
+
+        PromptContextCompactor.Result requiredOnly = compact(NEGATIVE, withoutDescriptions.getCompactedTokens() - 1,
+                largeEndpoint());
+        assertEquals(2, requiredOnly.getLevel(), requiredOnly.getText());
+        assertFalse(requiredOnly.getText().contains("optional0"), requiredOnly.getText());
+        assertTrue(requiredOnly.getText().contains("(+20 optional)"), requiredOnly.getText());
+        assertTrue(requiredOnly.getCompactedTokens() <= withoutDescriptions.getCompactedTokens() - 1);
+    }
+
+    @Test
+    void contextThatStillDoesNotFitIsTruncatedToTheBudget() {
+        PromptContextCompactor.Result result = compact(NEGATIVE, 20, largeEndpoint());
+
+        assertEquals(3, result.getLevel());
+        assertTrue(result.isTruncated());
+        assertTrue(result.getText().endsWith("... (context truncated)\n"), result.getText());
+        assertTrue(result.getCompactedTokens() <= 20, result.toString());
+        assertEquals(TokenEstimator.estimate(result.getText()), result.getCompactedTokens());
+    }
+
+    @Test
+    void budgetMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> new PromptContextCompactor(FUNCTIONAL, 0));
+    }
+
+    // ===== HELPERS =====
+
+    private static PromptContextCompactor.Result compact(Set<TestBuilder.TestType> types, int budget,
+                                                         EndpointInfo endpoint) {
+        return new PromptContextCompactor(types, budget).compact(endpoint, false);
+    }
+
+    private static EndpointInfo endpoint(String method, String path, RequestBodyInfo body) {
+        EndpointInfo.Builder builder = EndpointInfo.builder().withMethod(method).withPath(path);
+        if (body != null) {
+            builder.withRequestBody(body);
+        }
+        return builder.build();
+    }
+
+    private static RequestBodyInfo body(Map<String, DataConstraints> properties, String... required) {
+        return RequestBodyInfo.builder()
+                .withRequired(true)
+                .withContentType("application/json")
+                .withDataConstraints(object(properties, required))
+                .build();
+    }
+
+    /**
+     * An order with a constrained quantity and currency, a created and a bad request response.
+     */
+    private static EndpointInfo orderEndpoint() {
+        DataConstraints quantity = type("integer");
+        quantity.setMinimum(BigDecimal.ONE);
+        quantity.setMaximum(BigDecimal.valueOf(99));
+        DataConstraints currency = type("string");
+        currency.setPattern("[A-Z]{3}");
+        Map<String, DataConstraints> properties = new LinkedHashMap<>();
+        properties.put("quantity", quantity);
+        properties.put("currency", currency);
+
+        EndpointInfo endpoint = endpoint("POST", "/orders", body(properties, "quantity"));
+        endpoint.setResponses(Map.of(
+                "201", response("201", List.of("id"), "id"),
+                "400", response("400", List.of("code", "message"), "code")));
+        return endpoint;
+    }
+
+    /**
+     * Twenty required and twenty optional fields, described in two sentences.
+     */
+    private static EndpointInfo largeEndpoint() {
+        Map<String, DataConstraints> properties = new LinkedHashMap<>();
+        String[] required = new String[20];
+        for (int i = 0; i < 20; i++) {
+            properties.put("required" + i, described("Field number " + i + " of the order. Kept for auditing."));
+            properties.put("optional" + i, described("Field number " + (20 + i) + " of the order. Kept for auditing."));
+            required[i] = "required" + i;
+        }
+        return endpoint("POST", "/orders", body(properties, required));
+    }
+
+    /**
+     * A response schema, which only its field names describe.
+     */
+    private static ResponseInfo response(String status, List<String> fields, String... required) {
+        Map<String, ResponseInfo.DataConstraints> properties = new LinkedHashMap<>();
+        fields.forEach(field -> properties.put(field, new ResponseInfo.DataConstraints()));
+        return ResponseInfo.builder()
+                .withStatusCode(status)
+                .withPropertyConstraints(properties)
+                .withRequiredProperties(List.of(required))
+                .build();
+    }
+
+    private static DataConstraints address() {
+        Map<String, DataConstraints> properties = new LinkedHashMap<>();
+        properties.put("street", type("string"));
+        properties.put("city", type("string"));
+        properties.put("postalCode", type("string"));
+        properties.put("country", type("string"));
+        return object(properties, "street", "city");
+    }
+
+    private static DataConstraints object(Map<String, DataConstraints> properties, String... required) {
+        DataConstraints object = type("object");
+        object.setPropertyConstraints(new LinkedHashMap<>(properties));
+        object.setRequiredFields(List.of(required));
+        return object;
+    }
+
+    private static DataConstraints described(String description) {
+        DataConstraints constraints = type("string");
+        constraints.setDescription(description);
+        return constraints;
+    }
+
+    private static DataConstraints type(String type) {
+        return DataConstraints.create(type);
+    }
+
+    private static int occurrences(String text, String part) {
+        int count = 0;
+        for (int i = text.indexOf(part); i >= 0; i = text.indexOf(part, i + 1)) {
+            count++;
+        }
+        return count;
+    }
+}
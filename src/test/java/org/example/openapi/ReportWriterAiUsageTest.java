@@ -0,0 +1,199 @@
+package org.example.openapi;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReportWriterAiUsageTest {
+
+    // Characters that are markup in every report format
+    private static final String ENDPOINT = "GET /search/<q>&\"x\",y|z";
+
+    @TempDir
+    Path directory;
+
+    // ===== USAGE =====
+
+    @Test
+    void totalsProvidersAndBudgetAreReportedInEveryFormat() throws Exception {
+        Map<ReportWriter.ReportFormat, String> reports = writeReports(exhaustedUsage());
+
+        String json = reports.get(ReportWriter.ReportFormat.JSON);
+        assertTrue(json.contains("\"requests\": 2,"), json);
+        assertTrue(json.contains("\"tokenBudget\": 1000,"), json);
+        assertTrue(json.contains("\"budgetExhausted\": true,"), json);
+        assertTrue(json.contains("\"skippedEndpoints\": 1,"), json);
+        assertTrue(json.contains("{\"provider\": \"openai\", \"requests\": 2, \"failures\": 1, \"cacheHits\": 1, "
+                + "\"estimatedRequests\": 1, \"promptTokens\": 400, \"completionTokens\": 150, \"costUsd\": 0.75}"), json);
+
+        String csv = reports.get(ReportWriter.ReportFormat.CSV);
+        assertTrue(csv.contains("AI Requests,2,AI Usage\n"), csv);
+        assertTrue(csv.contains("AI Cost (USD),0.7500,AI Usage\n"), csv);
+        assertTrue(csv.contains("AI Budget Exhausted,true,AI Usage\n"), csv);
+        assertTrue(csv.contains("AI Skipped Endpoints,1,AI Usage\n"), csv);
+
+        String markdown = reports.get(ReportWriter.ReportFormat.MARKDOWN);
+        assertTrue(markdown.contains("- **Requests**: 2 (1 served from cache)\n"), markdown);
+        assertTrue(markdown.contains("- **Tokens**: 550 (400 prompt, 150 completion)\n"), markdown);
+        assertTrue(markdown.contains("- **Budget**: 1000 tokens (exhausted)\n"), markdown);
+        assertTrue(markdown.contains("| openai | 2 | 1 | 1 | 400 | 150 | 0.7500 |"), markdown);
+        assertFalse(markdown.contains("### Schema Context"), markdown);
+
+        Element usage = (Element) parseXml(reports.get(ReportWriter.ReportFormat.XML)).getElementsByTagName("aiUsage").item(0);
+        assertEquals("2", usage.getAttribute("requests"));
+        assertEquals("true", usage.getAttribute("budgetExhausted"));
+        assertEquals("1", usage.getAttribute("skippedEndpoints"));
+        Element provider = (Element) usage.getElementsByTagName("provider").item(0);
+        assertEquals("openai", provider.getAttribute("name"));
+        assertEquals("1", provider.getAttribute("failures"));
+
+        String html = reports.get(ReportWriter.ReportFormat.HTML);
+        assertTrue(html.contains("<p><strong>Budget:</strong> 1000 tokens (exhausted)</p>"), html);
+        assertTrue(html.contains("<td>openai</td>"), html);
+    }
+
+    @Test
+    void suiteWithoutAiUsageHasNoUsageSection() throws Exception {
+        Map<ReportWriter.ReportFormat, String> reports = writeReports(null);
+
+        assertFalse(reports.get(ReportWriter.ReportFormat.JSON).contains("aiUsage"));
+        assertFalse(reports.get(ReportWriter.ReportFormat.CSV).contains("AI Requests"));
+        assertFalse(reports.get(ReportWriter.ReportFormat.MARKDOWN).contains("AI Usage"));
+        assertFalse(reports.get(ReportWriter.ReportFormat.XML).contains("<aiUsage"));
+        assertFalse(reports.get(ReportWriter.ReportFormat.HTML).contains("id=\"ai-usage\""));
+        assertNotNull(parseXml(reports.get(ReportWriter.ReportFormat.XML)));
+    }
+
+    // ===== SCHEMA CONTEXT =====
+
+    @Test
+    void schemaContextIsReportedAsAddedTokensAgainstTheFullSchema() throws Exception {
+        Map<ReportWriter.ReportFormat, String> reports = writeReports(usageWithContext(ENDPOINT, 100, 40));
+
+        String json = reports.get(ReportWriter.ReportFormat.JSON);
+        assertTrue(json.contains("\"schemaContextTokens\": 40,"), json);
+        assertTrue(json.contains("\"fullSchemaTokens\": 100,"), json);
+        assertTrue(json.contains("\"savedVsFullSchema\": 60,"), json);
+        assertFalse(json.contains("promptTokensSaved"), json);
+
+        String csv = reports.get(ReportWriter.ReportFormat.CSV);
+        assertTrue(csv.contains("AI Schema Context Tokens,40,AI Usage\n"), csv);
+        assertTrue(csv.contains("AI Tokens Saved vs Full Schema,60,AI Usage\n"), csv);
+
+        String markdown = reports.get(ReportWriter.ReportFormat.MARKDOWN);
+        assertTrue(markdown.contains("- **Schema Context Tokens**: 40 added to prompts (100 for the full schemas)"), markdown);
+        assertTrue(markdown.contains("| 40 | 100 | 60 (60%) |"), markdown);
+    }
+
+    // ===== ESCAPING =====
+
+    @Test
+    void endpointIsEscapedInXml() throws Exception {
+        String xml = writeReports(usageWithContext(ENDPOINT, 100, 40)).get(ReportWriter.ReportFormat.XML);
+
+        assertTrue(xml.contains("endpoint=\"GET /search/&lt;q&gt;&amp;&quot;x&quot;,y|z\""), xml);
+        assertNotNull(parseXml(xml));
+    }
+
+    @Test
+    void endpointIsEscapedInHtml() throws Exception {
+        String html = writeReports(usageWithContext(ENDPOINT, 100, 40)).get(ReportWriter.ReportFormat.HTML);
+
+        assertTrue(html.contains("<td>GET /search/&lt;q&gt;&amp;&quot;x&quot;,y|z</td>"), html);
+        assertFalse(html.contains("<q>"), html);
+    }
+
+    @Test
+    void endpointIsQuotedInCsv() throws Exception {
+        String csv = writeReports(usageWithContext(ENDPOINT, 100, 40)).get(ReportWriter.ReportFormat.CSV);
+
+        assertTrue(csv.contains("\"Schema Context Tokens GET /search/<q>&\"\"x\"\",y|z\",40,Schema Context\n"), csv);
+    }
+
+    @Test
+    void endpointPipeIsEscapedInMarkdown() throws Exception {
+        String markdown = writeReports(usageWithContext(ENDPOINT, 100, 40)).get(ReportWriter.ReportFormat.MARKDOWN);
+
+        assertTrue(markdown.contains("| GET /search/<q>&\"x\",y\\|z | 40 |"), markdown);
+    }
+
+    @Test
+    void endpointIsEscapedInJson() throws Exception {
+        String json = writeReports(usageWithContext(ENDPOINT, 100, 40)).get(ReportWriter.ReportFormat.JSON);
+
+        assertTrue(json.contains("\"endpoint\": \"GET /search/<q>&\\\"x\\\",y|z\""), json);
+    }
+
+    // ===== HELPERS =====
+
+    /**
+     * Two calls to one provider, one of them failed with estimated usage, then a call over the
+     * 1000 token budget.
+     */
+    private static AiUsageLedger.Report exhaustedUsage() {
+        AiUsageLedger ledger = new AiUsageLedger("run-1", 1000, 0);
+        ledger.reserve("openai", 500, 0.5).complete(true, 300, 150, 0.5, false);
+        ledger.reserve("openai", 400, 0.5).complete(false, 100, 0, 0.25, true);
+        ledger.recordCacheHit("openai");
+        assertNull(ledger.reserve("openai", 500, 0.5));
+        ledger.recordSkippedEndpoint();
+        return ledger.getReport();
+    }
+
+    private static Document parseXml(String xml) throws Exception {
+        return DocumentBuilderFactory.newInstance().newDocumentBuilder()
+                .parse(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static AiUsageLedger.Report usageWithContext(String endpoint, int fullSchemaTokens, int contextTokens) {
+        AiUsageLedger ledger = new AiUsageLedger("run-1", 0, 0);
+        ledger.reserve("openai", 500, 0.01).complete(true, 300, 150, 0.008, false);
+        ledger.recordPromptContext(endpoint, fullSchemaTokens, contextTokens);
+        return ledger.getReport();
+    }
+
+    /**
+     * Writes the report of one suite carrying {@code usage} in every text format.
+     */
+    private Map<ReportWriter.ReportFormat, String> writeReports(AiUsageLedger.Report usage) throws Exception {
+        Configuration configuration = new Configuration(directory.resolve("spec.yaml").toString(),
+                directory.resolve("GeneratedApiTests.java").toString());
+        ReportWriter.AdvancedReportConfiguration reportConfiguration = new ReportWriter.AdvancedReportConfiguration();
+        reportConfiguration.setEnabledFormats(EnumSet.of(ReportWriter.ReportFormat.HTML, ReportWriter.ReportFormat.JSON,
+                ReportWriter.ReportFormat.CSV, ReportWriter.ReportFormat.XML, ReportWriter.ReportFormat.MARKDOWN));
+        // The dashboard is an HTML report of its own
+        reportConfiguration.setEnableDashboard(false);
+        ReportWriter writer = new ReportWriter(configuration, reportConfiguration);
+
+        ComprehensiveTestSuite suite = ComprehensiveTestSuite.builder()
+                // Report results are cached by execution id
+                .withExecutionId(UUID.randomUUID().toString())
+                .withTestCases(new ArrayList<>())
+                .withRecommendation(AdvancedStrategyRecommendation.createDefault())
+                .withAiUsage(usage)
+                .build();
+        ReportWriter.ComprehensiveReportResult result = writer.generateComprehensiveReport(suite);
+        assertTrue(result.isSuccess(), result.getMessage());
+
+        Map<ReportWriter.ReportFormat, String> reports = new EnumMap<>(ReportWriter.ReportFormat.class);
+        for (ReportWriter.GeneratedReport report : result.getReports()) {
+            reports.put(report.getFormat(), Files.readString(Path.of(report.getFilePath()), StandardCharsets.UTF_8));
+        }
+        assertEquals(5, reports.size(), reports.keySet().toString());
+        return reports;
+    }
+}
@@ -0,0 +1,194 @@
+package org.example.openapi;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardMergerTest {
+
+    @TempDir
+    Path directory;
+
+    // ===== RUN SUMMARY =====
+
+    @Test
+    void summaryListsTotalsThenEndpointsSortedByKey() throws Exception {
+        SwaggerTestGenerator.ComprehensiveReportWriter writer =
+                new SwaggerTestGenerator.ComprehensiveReportWriter(configuration(null));
+        Path output = output();
+        writer.recordEndpoint("POST /api/users", 3, List.of(output.resolve("users/CreateUserTest.java").toString()));
+        writer.recordEndpoint("GET /api/orders", 2, List.of(
+                output.resolve("orders/ListOrdersTest.java").toString(),
+                output.resolve("orders/ListOrdersIT.java").toString()));
+        writer.recordEndpoint(null, 1, null);
+
+        Path summary = directory.resolve("summary.tsv");
+        writer.writeSummary(summary);
+
+        assertEquals(List.of(
+                "endpoints\t3",
+                "tests\t6",
+                "files\t3",
+                "GET /api/orders\t2\torders/ListOrdersTest.java\torders/ListOrdersIT.java",
+                "POST /api/users\t3\tusers/CreateUserTest.java"), read(summary));
+    }
+
+    @Test
+    void filesOutsideTheOutputDirectoryKeepTheirPath() throws Exception {
+        SwaggerTestGenerator.ComprehensiveReportWriter writer =
+                new SwaggerTestGenerator.ComprehensiveReportWriter(configuration(null));
+        String outside = directory.resolve("elsewhere/Test.java").toAbsolutePath().toString();
+        writer.recordEndpoint("GET /a", 1, List.of(outside));
+
+        assertEquals(List.of(outside), writer.exportAggregate().getEndpoints().get(0).getFiles());
+    }
+
+    @Test
+    void aggregateRoundTripsAndChecksTheShard() throws Exception {
+        SwaggerTestGenerator.ShardSpec shard = SwaggerTestGenerator.ShardSpec.of(1, 3);
+        SwaggerTestGenerator.ComprehensiveReportWriter writer =
+                new SwaggerTestGenerator.ComprehensiveReportWriter(configuration(shard));
+        writer.recordEndpoint("GET /a", 4, List.of(shardDirectory(shard).resolve("a/ATest.java").toString()));
+        writer.recordEndpoint("GET /b", 0, List.of());
+        Path aggregateFile = directory.resolve("aggregate.tsv");
+        writer.writeAggregate(aggregateFile, shard);
+
+        List<SwaggerTestGenerator.ComprehensiveReportWriter.EndpointReport> reports =
+                SwaggerTestGenerator.ComprehensiveReportWriter.readAggregate(aggregateFile, shard).getEndpoints();
+        assertEquals(2, reports.size());
+        assertEquals("GET /a", reports.get(0).getEndpointKey());
+        assertEquals(4, reports.get(0).getTestCount());
+        assertEquals(List.of("a/ATest.java"), reports.get(0).getFiles());
+        assertEquals(List.of(), reports.get(1).getFiles());
+
+        assertThrows(IllegalStateException.class, () -> SwaggerTestGenerator.ComprehensiveReportWriter
+                .readAggregate(aggregateFile, SwaggerTestGenerator.ShardSpec.of(0, 3)));
+    }
+
+    // ===== MERGE =====
+
+    @Test
+    void mergeCopiesShardFilesAndWritesTheSameSummaryAsOneRun() throws Exception {
+        SwaggerTestGenerator.ShardSpec first = SwaggerTestGenerator.ShardSpec.of(0, 2);
+        SwaggerTestGenerator.ShardSpec second = SwaggerTestGenerator.ShardSpec.of(1, 2);
+        completeShard(first, "GET /api/users", 2, "users/UsersTest.java");
+        completeShard(second, "DELETE /api/orders", 1, "orders/OrdersTest.java");
+
+        SwaggerTestGenerator.ComprehensiveReportWriter merged =
+                new SwaggerTestGenerator.ShardMerger(configuration(null), 2).merge();
+
+        assertEquals(2, merged.getReportedSuites());
+        assertEquals(3, merged.getReportedTests());
+        assertEquals(2, merged.getReportedFiles());
+        assertEquals("class GET /api/users", Files.readString(output().resolve("users/UsersTest.java")));
+        assertEquals("class DELETE /api/orders", Files.readString(output().resolve("orders/OrdersTest.java")));
+
+        SwaggerTestGenerator.ComprehensiveReportWriter single =
+                new SwaggerTestGenerator.ComprehensiveReportWriter(configuration(null));
+        single.recordEndpoint("GET /api/users", 2, List.of(output().resolve("users/UsersTest.java").toString()));
+        single.recordEndpoint("DELETE /api/orders", 1, List.of(output().resolve("orders/OrdersTest.java").toString()));
+        Path expected = directory.resolve("single.tsv");
+        single.writeSummary(expected);
+        assertEquals(read(expected), read(output().resolve("generation-summary.tsv")));
+    }
+
+    @Test
+    void mergeIsRepeatable() throws Exception {
+        completeShard(SwaggerTestGenerator.ShardSpec.of(0, 1), "GET /a", 1, "a/ATest.java");
+        SwaggerTestGenerator.ShardMerger merger = new SwaggerTestGenerator.ShardMerger(configuration(null), 1);
+
+        merger.merge();
+        List<String> first = read(output().resolve("generation-summary.tsv"));
+        merger.merge();
+
+        assertEquals(first, read(output().resolve("generation-summary.tsv")));
+        assertTrue(Files.exists(shardDirectory(SwaggerTestGenerator.ShardSpec.of(0, 1)).resolve("a/ATest.java")));
+    }
+
+    @Test
+    void unfinishedShardFailsTheMerge() throws Exception {
+        completeShard(SwaggerTestGenerator.ShardSpec.of(0, 2), "GET /a", 1, "a/ATest.java");
+
+        IllegalStateException error = assertThrows(IllegalStateException.class,
+                () -> new SwaggerTestGenerator.ShardMerger(configuration(null), 2).merge());
+        assertTrue(error.getMessage().contains("2/2"));
+        assertFalse(Files.exists(output().resolve("generation-summary.tsv")));
+    }
+
+    @Test
+    void shardOfAnotherSplitFailsTheMerge() throws Exception {
+        // Written as shard 1/3 but placed where shard 1/2 is expected
+        SwaggerTestGenerator.ComprehensiveReportWriter writer =
+                new SwaggerTestGenerator.ComprehensiveReportWriter(configuration(SwaggerTestGenerator.ShardSpec.of(0, 2)));
+        writer.writeAggregate(shardDirectory(SwaggerTestGenerator.ShardSpec.of(0, 2)).resolve("report-aggregate.tsv"),
+                SwaggerTestGenerator.ShardSpec.of(0, 3));
+
+        assertThrows(IllegalStateException.class,
+                () -> new SwaggerTestGenerator.ShardMerger(configuration(null), 1).merge());
+    }
+
+    // ===== BATCH WORKFLOW =====
+
+    @Test
+    void batchRunWritesTheRunSummary() throws Exception {
+        Path spec = Files.writeString(directory.resolve("spec.yaml"), "openapi: 3.0.0", StandardCharsets.UTF_8);
+        SwaggerTestGenerator.EnhancedConfiguration configuration = SwaggerTestGenerator.EnhancedConfiguration.builder()
+                .withInputFile(spec.toString())
+                .withOutputDirectory(output().toString())
+                .build();
+
+        assertTrue(new SwaggerTestGenerator(configuration).executeEnhancedWorkflow().isSuccessful());
+
+        assertEquals(List.of(
+                "endpoints\t2",
+                "tests\t0",
+                "files\t0",
+                "GET /api/orders\t0",
+                "GET /api/users\t0"), read(output().resolve("generation-summary.tsv")));
+    }
+
+    // ===== HELPERS =====
+
+    private Path output() {
+        return directory.resolve("out");
+    }
+
+    private Path shardDirectory(SwaggerTestGenerator.ShardSpec shard) {
+        return output().resolve(".shards").resolve(shard.getDirectoryName());
+    }
+
+    private SwaggerTestGenerator.EnhancedConfiguration configuration(SwaggerTestGenerator.ShardSpec shard) {
+        SwaggerTestGenerator.EnhancedConfiguration.Builder builder = SwaggerTestGenerator.EnhancedConfiguration.builder()
+                .withInputFile(directory.resolve("spec.yaml").toString())
+                .withOutputDirectory(output().toString());
+        if (shard != null) {
+            builder.withShard(shard);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Leaves a shard the way a finished shard run does: its test file and its aggregate.
+     */
+    private void completeShard(SwaggerTestGenerator.ShardSpec shard, String endpointKey, int testCount,
+                               String file) throws Exception {
+        Path written = shardDirectory(shard).resolve(file);
+        Files.createDirectories(written.getParent());
+        Files.writeString(written, "class " + endpointKey, StandardCharsets.UTF_8);
+
+        SwaggerTestGenerator.ComprehensiveReportWriter writer =
+                new SwaggerTestGenerator.ComprehensiveReportWriter(configuration(shard));
+        writer.recordEndpoint(endpointKey, testCount, List.of(written.toString()));
+        writer.writeAggregate(shardDirectory(shard).resolve("report-aggregate.tsv"), shard);
+    }
+
+    private static List<String> read(Path file) throws Exception {
+        return Files.readAllLines(file, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,104 @@
+package org.example.openapi;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SharedRuntimeTest {
+
+    private final SharedRuntime runtime = SharedRuntime.builder()
+            .withCpuThreads(1)
+            .withShutdownHook(false)
+            .build();
+    private final List<String> ran = Collections.synchronizedList(new ArrayList<>());
+
+    @TempDir
+    Path directory;
+
+    @AfterEach
+    void shutdownRuntime() {
+        runtime.shutdown();
+    }
+
+    // ===== SHUTDOWN TASKS =====
+
+    @Test
+    void tasksRunInReverseRegistrationOrder() {
+        runtime.registerShutdownTask("first", () -> ran.add("first"));
+        runtime.registerShutdownTask("second", () -> ran.add("second"));
+
+        runtime.shutdown();
+
+        assertEquals(List.of("second", "first"), ran);
+        assertEquals(0, runtime.getShutdownTaskCount());
+    }
+
+    @Test
+    void closedRegistrationIsNotRun() {
+        SharedRuntime.ShutdownRegistration first = runtime.registerShutdownTask("first", () -> ran.add("first"));
+        runtime.registerShutdownTask("second", () -> ran.add("second"));
+
+        first.close();
+        first.close();
+        assertEquals(1, runtime.getShutdownTaskCount());
+        runtime.shutdown();
+
+        assertEquals(List.of("second"), ran);
+    }
+
+    @Test
+    void taskRegisteredAfterShutdownRunsAtOnce() {
+        runtime.shutdown();
+
+        SharedRuntime.ShutdownRegistration late = runtime.registerShutdownTask("late", () -> ran.add("late"));
+        late.close();
+
+        assertEquals(List.of("late"), ran);
+        assertEquals(0, runtime.getShutdownTaskCount());
+    }
+
+    @Test
+    void failingTaskDoesNotStopTheOthers() {
+        runtime.registerShutdownTask("first", () -> ran.add("first"));
+        runtime.registerShutdownTask("failing", () -> {
+            throw new IllegalStateException("cleanup failed");
+        });
+
+        runtime.shutdown();
+
+        assertEquals(List.of("first"), ran);
+    }
+
+    // ===== COMPONENTS =====
+
+    @Test
+    void closedComponentsDeregisterTheirTasks() throws Exception {
+        TestBuilder builder = new TestBuilder.Builder().withRuntime(runtime).build();
+        TestRunner runner = new TestRunner.Builder().withRuntime(runtime).build();
+        ProgressTracker tracker = new ProgressTracker(ProgressTracker.TrackerConfiguration.createDefault(), runtime);
+        Path spec = Files.writeString(directory.resolve("spec.yaml"), "openapi: 3.0.0", StandardCharsets.UTF_8);
+        SwaggerTestGenerator generator = new SwaggerTestGenerator(SwaggerTestGenerator.EnhancedConfiguration.builder()
+                .withInputFile(spec.toString())
+                .withOutputDirectory(directory.resolve("out").toString())
+                .build(), runtime);
+        // The generator registers once it first needs the runtime
+        assertSame(runtime, generator.getRuntime());
+        int registered = runtime.getShutdownTaskCount();
+
+        builder.close();
+        runner.close();
+        tracker.close();
+        generator.close();
+
+        assertEquals(registered - 4, runtime.getShutdownTaskCount());
+    }
+}
@@ -0,0 +1,79 @@
+package org.example.openapi;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StrategyResultMergerTest {
+
+    private static final EndpointInfo ENDPOINT = EndpointInfo.builder()
+            .withMethod("GET").withPath("/api/users").withOperationId("getUsers").build();
+
+    @Test
+    void resultIsSortedByPriorityThenComplexityDescending() {
+        StrategyResultMerger merger = new StrategyResultMerger();
+        merger.merge(List.of(
+                testCase("a", 1, 1),
+                testCase("b", 3, 1),
+                testCase("c", 3, 5),
+                testCase("d", 2, 2),
+                testCase("e", 2, 2)));
+
+        assertEquals(List.of("c", "b", "d", "e", "a"), ids(merger.optimize(new TestCaseDeduplicator())));
+    }
+
+    @Test
+    void duplicateIdKeepsTheMoreComplexCase() {
+        StrategyResultMerger merger = new StrategyResultMerger();
+        merger.merge(List.of(testCase("a", 1, 2)));
+        merger.merge(List.of(testCase("a", 4, 7), testCase("b", 1, 1)));
+
+        List<GeneratedTestCase> optimized = merger.optimize(new TestCaseDeduplicator());
+        assertEquals(3, merger.getGeneratedCount());
+        assertEquals(List.of("a", "b"), ids(optimized));
+        assertEquals(7, optimized.get(0).getComplexity());
+    }
+
+    @Test
+    void parallelStrategiesMergeToTheSameResult() {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            StrategyResultMerger merger = new StrategyResultMerger();
+            for (int strategy = 0; strategy < 8; strategy++) {
+                int complexity = strategy;
+                merger.mergeAsync(() -> List.of(testCase("shared", 1, complexity),
+                        testCase("own-" + complexity, 1, 1)), executor);
+            }
+            merger.await();
+
+            List<GeneratedTestCase> optimized = merger.optimize(new TestCaseDeduplicator());
+            assertEquals(9, optimized.size());
+            assertEquals("shared", optimized.get(0).getTestId());
+            assertEquals(7, optimized.get(0).getComplexity());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static GeneratedTestCase testCase(String id, int priority, int complexity) {
+        // Steps unique per id, so the deduplicator keeps every case
+        return GeneratedTestCase.builder()
+                .withTestId(id)
+                .withEndpoint(ENDPOINT)
+                .withPriority(priority)
+                .withComplexity(complexity)
+                .withTestSteps(List.of(
+                        new TestStep("EXECUTE", "Send request " + id, 1),
+                        new TestStep("VERIFY", "Verify response " + id, 2)))
+                .build();
+    }
+
+    private static List<String> ids(List<GeneratedTestCase> testCases) {
+        return testCases.stream().map(GeneratedTestCase::getTestId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,74 @@
+package org.example.openapi;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * An endpoint's deadline in the streaming pipeline covers its own work, not its wait in the queues.
+ */
+class SwaggerTestGeneratorDeadlineTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void timeBeforeGenerationDoesNotCountAgainstTheDeadline() throws Exception {
+        Path spec = Files.writeString(directory.resolve("spec.yaml"), "openapi: 3.0.0", StandardCharsets.UTF_8);
+        SwaggerTestGenerator.EnhancedConfiguration configuration = SwaggerTestGenerator.EnhancedConfiguration.builder()
+                .withInputFile(spec.toString())
+                .withOutputDirectory(directory.resolve("out").toString())
+                .withStreamingMode(true)
+                .withEndpointTimeout(Duration.ofMillis(400))
+                .build();
+        SlowAnalysisGenerator generator = new SlowAnalysisGenerator(configuration, Duration.ofMillis(600));
+
+        assertTrue(generator.executeEnhancedWorkflow().isSuccessful());
+
+        List<String> generated = new ArrayList<>(generator.generated);
+        Collections.sort(generated);
+        assertEquals(List.of("/api/orders", "/api/users"), generated);
+    }
+
+    /**
+     * Takes longer than the endpoint timeout to analyse each endpoint, and records which
+     * endpoints reach generation.
+     */
+    private static final class SlowAnalysisGenerator extends SwaggerTestGenerator {
+        private final Duration analysisTime;
+        private final List<String> generated = Collections.synchronizedList(new ArrayList<>());
+
+        SlowAnalysisGenerator(EnhancedConfiguration configuration, Duration analysisTime) {
+            super(configuration);
+            this.analysisTime = analysisTime;
+        }
+
+        @Override
+        public AdvancedStrategyRecommendation recommendAdvancedStrategy(EndpointInfo endpoint) {
+            try {
+                Thread.sleep(analysisTime.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return super.recommendAdvancedStrategy(endpoint);
+        }
+
+        @Override
+        public ComprehensiveTestSuite generateComprehensiveTests(EndpointInfo endpoint,
+                                                                 AdvancedStrategyRecommendation recommendation,
+                                                                 CancellationContext context) {
+            ComprehensiveTestSuite suite = super.generateComprehensiveTests(endpoint, recommendation, context);
+            generated.add(endpoint.getPath());
+            return suite;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package org.example.openapi;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SwaggerTestGeneratorResumeTest {
+
+    private static final String USERS = "/api/users";
+    private static final String ORDERS = "/api/orders";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void resumedRunSkipsCompletedEndpoints() throws Exception {
+        Path spec = writeSpec("openapi: 3.0.0");
+
+        assertEquals(List.of(USERS, ORDERS), sorted(run(spec, false, Set.of())));
+        assertEquals(List.of(), run(spec, true, Set.of()));
+    }
+
+    @Test
+    void editedSpecIsNotResumed() throws Exception {
+        Path spec = writeSpec("openapi: 3.0.0");
+        run(spec, false, Set.of());
+
+        writeSpec("openapi: 3.0.1");
+
+        assertEquals(List.of(USERS, ORDERS), sorted(run(spec, true, Set.of())));
+    }
+
+    @Test
+    void failedEndpointIsGeneratedAgainOnResume() throws Exception {
+        Path spec = writeSpec("openapi: 3.0.0");
+        run(spec, false, Set.of(ORDERS));
+
+        assertEquals(List.of(ORDERS), run(spec, true, Set.of()));
+        assertEquals(List.of(), run(spec, true, Set.of()));
+    }
+
+    @Test
+    void failedGenerationFailsTheRun() throws Exception {
+        Path spec = writeSpec("openapi: 3.0.0");
+
+        assertFalse(newGenerator(spec, false, Set.of(ORDERS)).executeEnhancedWorkflow().isSuccessful());
+        assertTrue(newGenerator(spec, true, Set.of()).executeEnhancedWorkflow().isSuccessful());
+    }
+
+    // ===== HELPERS =====
+
+    private Path writeSpec(String content) throws Exception {
+        return Files.writeString(directory.resolve("spec.yaml"), content, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Runs the streaming workflow and returns the paths of the endpoints it generated; the
+     * generation of the {@code failing} ones fails.
+     */
+    private List<String> run(Path spec, boolean resume, Set<String> failing) throws Exception {
+        RecordingGenerator generator = newGenerator(spec, resume, failing);
+        generator.executeEnhancedWorkflow();
+        return generator.generated;
+    }
+
+    private RecordingGenerator newGenerator(Path spec, boolean resume, Set<String> failing) {
+        SwaggerTestGenerator.EnhancedConfiguration configuration = SwaggerTestGenerator.EnhancedConfiguration.builder()
+                .withInputFile(spec.toString())
+                .withOutputDirectory(directory.resolve("out").toString())
+                .withCheckpointJournal(directory.resolve("generation.journal").toString())
+                .withStreamingMode(true)
+                .withResume(resume)
+                .build();
+        return new RecordingGenerator(configuration, failing);
+    }
+
+    private static List<String> sorted(List<String> paths) {
+        List<String> sorted = new ArrayList<>(paths);
+        sorted.sort(Collections.reverseOrder());
+        return sorted;
+    }
+
+    /**
+     * Records which endpoints were generated, and fails the generation of some of them the way a
+     * generation error does: with an empty suite that carries the error.
+     */
+    private static final class RecordingGenerator extends SwaggerTestGenerator {
+        private final Set<String> failing;
+        private final List<String> generated = Collections.synchronizedList(new ArrayList<>());
+
+        RecordingGenerator(EnhancedConfiguration configuration, Set<String> failing) {
+            super(configuration);
+            this.failing = failing;
+        }
+
+        @Override
+        public ComprehensiveTestSuite generateComprehensiveTests(EndpointInfo endpoint,
+                                                                 AdvancedStrategyRecommendation recommendation,
+                                                                 CancellationContext context) {
+            generated.add(endpoint.getPath());
+            if (failing.contains(endpoint.getPath())) {
+                return ComprehensiveTestSuite.builder()
+                        .withEndpoint(endpoint)
+                        .withTestCases(new ArrayList<>())
+                        .withError(new IllegalStateException("generation failed"))
+                        .build();
+            }
+            return super.generateComprehensiveTests(endpoint, recommendation, context);
+        }
+    }
+}
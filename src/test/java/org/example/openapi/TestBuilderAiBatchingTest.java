@@ -0,0 +1,320 @@
+package org.example.openapi;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * How AI requests are packed into batches and how batch replies are split back per endpoint.
+ */
+class TestBuilderAiBatchingTest {
+
+    private static final String GPT4 = TestBuilder.AiProvider.OPENAI_GPT4.getModelName();
+    private static final String BATCH_PROMPT = "Generate REST API tests for each of the following ";
+    private static final Pattern ENDPOINT_LINE = Pattern.compile("^Endpoint: POST (\\S+)$", Pattern.MULTILINE);
+    private static final Pattern OPERATION_INDEX = Pattern.compile("exportStatements(\\d+)");
+
+    // ===== SECTION PARSING =====
+
+    @Test
+    void sectionsAreReadByEndpointNumberAndTrimmed() {
+        Map<Integer, String> sections = TestBuilder.AiOrchestrator.parseBatchSections(
+                "Here you go:\n" +
+                "=== ENDPOINT 1 BEGIN ===\n  first()\n=== ENDPOINT 1 END ===\n" +
+                "between\n" +
+                "=== ENDPOINT 2 BEGIN ===\nsecond()\n=== ENDPOINT 2 END ===\n" +
+                "Done.");
+
+        assertEquals(Map.of(1, "first()", 2, "second()"), sections);
+    }
+
+    @Test
+    void repeatedSectionKeepsTheFirst() {
+        Map<Integer, String> sections = TestBuilder.AiOrchestrator.parseBatchSections(
+                "=== ENDPOINT 1 BEGIN ===\nfirst()\n=== ENDPOINT 1 END ===\n" +
+                "=== ENDPOINT 1 BEGIN ===\nagain()\n=== ENDPOINT 1 END ===\n");
+
+        assertEquals(Map.of(1, "first()"), sections);
+    }
+
+    @Test
+    void sectionClosedUnderAnotherNumberIsIgnored() {
+        Map<Integer, String> sections = TestBuilder.AiOrchestrator.parseBatchSections(
+                "=== ENDPOINT 1 BEGIN ===\nfirst()\n=== ENDPOINT 2 END ===\n" +
+                "=== ENDPOINT 3 BEGIN ===\nthird()\n=== ENDPOINT 3 END ===\n");
+
+        assertEquals(Map.of(3, "third()"), sections);
+    }
+
+    @Test
+    void unterminatedSectionIsIgnored() {
+        Map<Integer, String> sections = TestBuilder.AiOrchestrator.parseBatchSections(
+                "=== ENDPOINT 1 BEGIN ===\nfirst()\n=== ENDPOINT 1 END ===\n" +
+                "=== ENDPOINT 2 BEGIN ===\nsecond() // reply cut off here");
+
+        assertEquals(Map.of(1, "first()"), sections);
+    }
+
+    @Test
+    void replyWithoutSectionsHasNone() {
+        assertTrue(TestBuilder.AiOrchestrator.parseBatchSections("I cannot help with that.").isEmpty());
+        assertTrue(TestBuilder.AiOrchestrator.parseBatchSections(null).isEmpty());
+    }
+
+    // ===== FALLBACK =====
+
+    @Test
+    void endpointMissingFromTheBatchReplyIsSentAgainSingly() throws Exception {
+        List<String> prompts = Collections.synchronizedList(new ArrayList<>());
+        try (MockOpenAiServer server = MockOpenAiServer.builder()
+                .withModel(GPT4, MockOpenAiServer.Latency.none(), recording(prompts, firstSectionOnly()))
+                .start()) {
+            TestBuilder builder = newBuilder(server, 2, Duration.ofSeconds(5), 100_000, 1000);
+
+            List<GeneratedTestCase> aiTests = aiTests(builder.generateTests(endpoints(2),
+                    AdvancedStrategyRecommendation.createDefault()));
+
+            assertEquals(2, server.getRequestCount());
+            assertEquals(List.of(2), batchSizes(prompts));
+            assertEquals(1, count(aiTests, "batched"), codes(aiTests));
+            assertEquals(1, count(aiTests, "single"), codes(aiTests));
+            assertAnsweredForOwnEndpoint(aiTests);
+        }
+    }
+
+    @Test
+    void garbledBatchReplySendsEveryEndpointAgainSingly() throws Exception {
+        List<String> prompts = Collections.synchronizedList(new ArrayList<>());
+        Function<String, String> garbled = prompt -> prompt.startsWith(BATCH_PROMPT)
+                ? "=== ENDPOINT 1 BEGIN ===\nThe tests follow.\n=== ENDPOINT 2 END ==="
+                : reply(path(prompt), "single");
+        try (MockOpenAiServer server = MockOpenAiServer.builder()
+                .withModel(GPT4, MockOpenAiServer.Latency.none(), recording(prompts, garbled))
+                .start()) {
+            TestBuilder builder = newBuilder(server, 2, Duration.ofSeconds(5), 100_000, 1000);
+
+            List<GeneratedTestCase> aiTests = aiTests(builder.generateTests(endpoints(2),
+                    AdvancedStrategyRecommendation.createDefault()));
+
+            assertEquals(3, server.getRequestCount());
+            assertEquals(List.of(2), batchSizes(prompts));
+            assertEquals(2, count(aiTests, "single"), codes(aiTests));
+            assertAnsweredForOwnEndpoint(aiTests);
+        }
+    }
+
+    // ===== FLUSHING =====
+
+    @Test
+    void batchThatNeverFillsIsSentAfterTheLinger() throws Exception {
+        List<String> prompts = Collections.synchronizedList(new ArrayList<>());
+        try (MockOpenAiServer server = MockOpenAiServer.builder()
+                .withModel(GPT4, MockOpenAiServer.Latency.none(), recording(prompts, everySection()))
+                .start()) {
+            // Neither the size nor the budget is ever reached
+            TestBuilder builder = newBuilder(server, 10, Duration.ofMillis(200), 100_000, 1000);
+
+            List<GeneratedTestCase> aiTests = aiTests(builder.generateTests(endpoints(3),
+                    AdvancedStrategyRecommendation.createDefault()));
+
+            assertEquals(1, server.getRequestCount());
+            assertEquals(List.of(3), batchSizes(prompts));
+            assertEquals(3, count(aiTests, "batched"), codes(aiTests));
+            assertAnsweredForOwnEndpoint(aiTests);
+        }
+    }
+
+    @Test
+    void batchIsSentBeforeTheRequestThatWouldExceedTheBudget() throws Exception {
+        List<String> prompts = Collections.synchronizedList(new ArrayList<>());
+        List<Long> batchTimes = Collections.synchronizedList(new ArrayList<>());
+        long start = System.nanoTime();
+        Function<String, String> timed = prompt -> {
+            if (prompt.startsWith(BATCH_PROMPT)) {
+                batchTimes.add(System.nanoTime() - start);
+            }
+            return everySection().apply(prompt);
+        };
+        try (MockOpenAiServer server = MockOpenAiServer.builder()
+                .withModel(GPT4, MockOpenAiServer.Latency.none(), recording(prompts, timed))
+                .start()) {
+            // Each request asks for 4000 completion tokens: two fit the budget, a third does not
+            TestBuilder builder = newBuilder(server, 10, Duration.ofSeconds(2), 10_000, 4000);
+
+            List<GeneratedTestCase> aiTests = aiTests(builder.generateTests(endpoints(3),
+                    AdvancedStrategyRecommendation.createDefault()));
+
+            assertEquals(2, server.getRequestCount());
+            assertEquals(List.of(2), batchSizes(prompts));
+            assertTrue(batchTimes.get(0) < Duration.ofSeconds(1).toNanos(),
+                    "sent after " + Duration.ofNanos(batchTimes.get(0)));
+            // The request left over is sent on its own once it has lingered
+            assertEquals(2, count(aiTests, "batched"), codes(aiTests));
+            assertEquals(1, count(aiTests, "single"), codes(aiTests));
+            assertAnsweredForOwnEndpoint(aiTests);
+        }
+    }
+
+    // ===== HELPERS =====
+
+    private static TestBuilder newBuilder(MockOpenAiServer server, int maxEndpoints, Duration linger,
+                                          int tokenBudget, int maxTokens) {
+        return new TestBuilder.Builder()
+                .withConfiguration(TestBuilder.TestBuilderConfiguration.builder()
+                        .withStrategy(TestBuilder.TestGenerationStrategy.BASIC)
+                        .withAiProviders(TestBuilder.AiProvider.OPENAI_GPT4)
+                        .withAiBatching(maxEndpoints, linger, tokenBudget)
+                        .withAiMaxTokens(maxTokens)
+                        .withAiEndpoint(server.getBaseUrl(), "test-key")
+                        .withAiCacheDirectory(null)
+                        .build())
+                .build();
+    }
+
+    private static Function<String, String> recording(List<String> prompts, Function<String, String> replies) {
+        return prompt -> {
+            prompts.add(prompt);
+            return replies.apply(prompt);
+        };
+    }
+
+    /**
+     * Answers a batch with a section for its first endpoint only, and a single request in full.
+     */
+    private static Function<String, String> firstSectionOnly() {
+        return prompt -> {
+            if (!prompt.startsWith(BATCH_PROMPT)) {
+                return reply(path(prompt), "single");
+            }
+            return section(1, reply(batchPaths(prompt).get(0), "batched"));
+        };
+    }
+
+    /**
+     * Answers a batch with a section for each of its endpoints, and a single request in full.
+     */
+    private static Function<String, String> everySection() {
+        return prompt -> {
+            if (!prompt.startsWith(BATCH_PROMPT)) {
+                return reply(path(prompt), "single");
+            }
+            StringBuilder sections = new StringBuilder();
+            List<String> paths = batchPaths(prompt);
+            for (int i = 0; i < paths.size(); i++) {
+                sections.append(section(i + 1, reply(paths.get(i), "batched")));
+            }
+            return sections.toString();
+        };
+    }
+
+    private static String section(int number, String code) {
+        return "=== ENDPOINT " + number + " BEGIN ===\n" + code + "=== ENDPOINT " + number + " END ===\n";
+    }
+
+    /**
+     * One test of {@code path}, marked with how it was asked for.
+     */
+    private static String reply(String path, String how) {
+        return "```java\n" +
+                "given()\n" +
+                ".when()\n" +
+                "    .post(\"" + path + "\")\n" +
+                ".then()\n" +
+                "    .statusCode(lessThan(500)); // " + how + "\n" +
+                "```\n";
+    }
+
+    private static String path(String prompt) {
+        Matcher matcher = ENDPOINT_LINE.matcher(prompt);
+        assertTrue(matcher.find(), prompt);
+        return matcher.group(1);
+    }
+
+    /**
+     * The endpoint paths of a batch prompt, in their section order.
+     */
+    private static List<String> batchPaths(String prompt) {
+        List<String> paths = new ArrayList<>();
+        Matcher matcher = ENDPOINT_LINE.matcher(prompt);
+        while (matcher.find()) {
+            paths.add(matcher.group(1));
+        }
+        return paths;
+    }
+
+    private static List<Integer> batchSizes(List<String> prompts) {
+        List<Integer> sizes = new ArrayList<>();
+        synchronized (prompts) {
+            for (String prompt : prompts) {
+                if (prompt.startsWith(BATCH_PROMPT)) {
+                    sizes.add(batchPaths(prompt).size());
+                }
+            }
+        }
+        return sizes;
+    }
+
+    /**
+     * Checks that each test was answered for the endpoint its name says it belongs to.
+     */
+    private static void assertAnsweredForOwnEndpoint(List<GeneratedTestCase> aiTests) {
+        for (GeneratedTestCase testCase : aiTests) {
+            Matcher operation = OPERATION_INDEX.matcher(testCase.getTestName());
+            assertTrue(operation.find(), testCase.getTestName());
+            assertTrue(testCase.getTestCode().contains("\"" + endpoint(Integer.parseInt(operation.group(1))).getPath() + "\""),
+                    testCase.getTestName() + ": " + testCase.getTestCode());
+        }
+    }
+
+    private static List<GeneratedTestCase> aiTests(List<GeneratedTestCase> testCases) {
+        List<GeneratedTestCase> aiTests = new ArrayList<>();
+        for (GeneratedTestCase testCase : testCases) {
+            if (testCase.getTags().contains("ai-generated")) {
+                aiTests.add(testCase);
+            }
+        }
+        return aiTests;
+    }
+
+    private static long count(List<GeneratedTestCase> aiTests, String how) {
+        return aiTests.stream().filter(testCase -> testCase.getTestCode().contains("// " + how)).count();
+    }
+
+    private static String codes(List<GeneratedTestCase> aiTests) {
+        List<String> codes = new ArrayList<>();
+        aiTests.forEach(testCase -> codes.add(testCase.getTestCode()));
+        return codes.toString();
+    }
+
+    private static List<EndpointInfo> endpoints(int count) {
+        List<EndpointInfo> endpoints = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            endpoints.add(endpoint(i));
+        }
+        return endpoints;
+    }
+
+    /**
+     * A batch export endpoint, which the endpoint analysis sends to the AI.
+     */
+    private static EndpointInfo endpoint(int index) {
+        return EndpointInfo.builder()
+                .withMethod("POST")
+                .withPath("/api/v1/accounts/" + index + "/statements/batch/export")
+                .withOperationId("exportStatements" + index)
+                .withSummary("Exports the statements of account " + index)
+                .withParameter(ParameterInfo.builder().withName("Idempotency-Key").withIn("header")
+                        .withType("string").withRequired(true).build())
+                .withSecurity("bearer")
+                .build();
+    }
+}
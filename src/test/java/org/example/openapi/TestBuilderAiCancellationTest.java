@@ -0,0 +1,178 @@
+package org.example.openapi;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Calls cancelled because another provider answered first say nothing about the loser's health,
+ * and an interrupted endpoint stops rather than being finished like a timed out one.
+ */
+class TestBuilderAiCancellationTest {
+
+    @Test
+    void raceLosersCountAsNeitherFailuresNorDrops() throws Exception {
+        // Both providers answer from the mock server, in a random order that varies per request
+        try (MockOpenAiServer server = MockOpenAiServer.builder()
+                .withLatency(MockOpenAiServer.Latency.uniform(Duration.ofMillis(50), Duration.ofMillis(400)))
+                .withChunkInterval(Duration.ofMillis(5))
+                .start()) {
+            TestBuilder builder = new TestBuilder.Builder()
+                    .withConfiguration(TestBuilder.TestBuilderConfiguration.builder()
+                            .withStrategy(TestBuilder.TestGenerationStrategy.BASIC)
+                            .withAiProviders(TestBuilder.AiProvider.OPENAI_GPT4, TestBuilder.AiProvider.OPENAI_GPT3_5)
+                            .withAiEnsembleMode(TestBuilder.AiEnsembleMode.RACE)
+                            .withAiStreaming(true)
+                            .withAiEndpoint(server.getBaseUrl(), "test-key")
+                            .withAiCacheDirectory(null)
+                            .build())
+                    .build();
+
+            builder.generateTests(endpoints(4), AdvancedStrategyRecommendation.createDefault());
+
+            assertTrue(builder.getAiLatencyStatistics().getCancelledRequests() > 0, "every race should have a loser");
+            long ignored = 0;
+            for (AdaptiveConcurrencyLimiter.Snapshot limiter : builder.getAiConcurrencyStatistics().values()) {
+                assertEquals(0, limiter.getDrops(), limiter.toString());
+                ignored += limiter.getIgnored();
+            }
+            assertTrue(ignored > 0, "cancelled losers should be ignored by the limiters");
+            for (AiCircuitBreaker.Snapshot breaker : builder.getAiCircuitBreakerStatistics().values()) {
+                assertEquals(0.0, breaker.getFailureRate(), breaker.toString());
+                assertEquals(AiCircuitBreaker.State.CLOSED, breaker.getState());
+            }
+        }
+    }
+
+    @Test
+    void callsOfCancelledRunCountAsNeitherFailuresNorDrops() throws Exception {
+        TestBuilder builder = new TestBuilder.Builder()
+                .withConfiguration(TestBuilder.TestBuilderConfiguration.builder()
+                        .withStrategy(TestBuilder.TestGenerationStrategy.BASIC)
+                        .withAiProviders(TestBuilder.AiProvider.LOCAL_MODEL)
+                        .withAiEnsembleMode(TestBuilder.AiEnsembleMode.ALL)
+                        .withAiCacheDirectory(null)
+                        // Still answering when the run is cancelled
+                        .withCustomProperty("ai.local.latencyMillis", 10_000)
+                        .build())
+                .build();
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try (CancellationContext run = CancellationContext.root("cancelled run", scheduler)) {
+            scheduler.schedule(() -> run.cancel("stopped by the test"), 500, TimeUnit.MILLISECONDS);
+            try {
+                builder.generateComprehensiveTests(endpoints(3), run);
+            } catch (CancellationException e) {
+                // Expected: the run ended before the local model answered
+            }
+            assertTrue(run.isCancelled());
+        } finally {
+            scheduler.shutdownNow();
+        }
+
+        AdaptiveConcurrencyLimiter.Snapshot limiter =
+                builder.getAiConcurrencyStatistics().get(TestBuilder.AiProvider.LOCAL_MODEL);
+        assertTrue(limiter.getIgnored() > 0, "the local model should have been cancelled: " + limiter);
+        assertEquals(0, limiter.getDrops(), limiter.toString());
+        AiCircuitBreaker.Snapshot breaker =
+                builder.getAiCircuitBreakerStatistics().get(TestBuilder.AiProvider.LOCAL_MODEL);
+        assertEquals(0, breaker.getBufferedCalls(), breaker.toString());
+        assertEquals(AiCircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void raceLoserIsChargedForTheTokensItStreamed() throws Exception {
+        String padding = "lorem ".repeat(1_000);
+        // GPT-4 is still streaming its long reply when GPT-3.5 answers
+        try (MockOpenAiServer server = MockOpenAiServer.builder()
+                .withChunkInterval(Duration.ofMillis(2))
+                .withModel(TestBuilder.AiProvider.OPENAI_GPT4.getModelName(), MockOpenAiServer.Latency.none(),
+                        prompt -> MockOpenAiServer.defaultReply(prompt) + padding)
+                .withModel(TestBuilder.AiProvider.OPENAI_GPT3_5.getModelName(),
+                        MockOpenAiServer.Latency.fixed(Duration.ofMillis(300)), MockOpenAiServer::defaultReply)
+                .start()) {
+            TestBuilder builder = new TestBuilder.Builder()
+                    .withConfiguration(TestBuilder.TestBuilderConfiguration.builder()
+                            .withStrategy(TestBuilder.TestGenerationStrategy.BASIC)
+                            .withAiProviders(TestBuilder.AiProvider.OPENAI_GPT4, TestBuilder.AiProvider.OPENAI_GPT3_5)
+                            .withAiEnsembleMode(TestBuilder.AiEnsembleMode.RACE)
+                            .withAiStreaming(true)
+                            .withAiEndpoint(server.getBaseUrl(), "test-key")
+                            .withAiCacheDirectory(null)
+                            .build())
+                    .build();
+
+            builder.generateTests(endpoints(1), AdvancedStrategyRecommendation.createDefault());
+
+            // The loser settles once its cancelled stream has closed
+            String loser = TestBuilder.AiProvider.OPENAI_GPT4.getDisplayName();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (!builder.getAiUsageReport().getProviders().containsKey(loser) && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            AiUsageLedger.ProviderUsage usage = builder.getAiUsageReport().getProviders().get(loser);
+            assertNotNull(usage, "the cancelled stream should be charged, not released");
+            assertEquals(1, usage.getRequests(), usage.toString());
+            assertEquals(1, usage.getEstimatedRequests(), usage.toString());
+            assertTrue(usage.getPromptTokens() > 0, usage.toString());
+            assertTrue(usage.getCompletionTokens() > 0, usage.toString());
+            assertTrue(usage.getCompletionTokens() < TokenEstimator.estimate(padding), usage.toString());
+        }
+    }
+
+    @Test
+    void interruptedEndpointStopsInsteadOfKeepingStreamedTests() throws Exception {
+        TestBuilder builder = new TestBuilder.Builder()
+                .withConfiguration(TestBuilder.TestBuilderConfiguration.builder()
+                        .withStrategy(TestBuilder.TestGenerationStrategy.BASIC)
+                        .withAiProviders(TestBuilder.AiProvider.LOCAL_MODEL)
+                        .withAiCacheDirectory(null)
+                        .withCustomProperty("ai.local.latencyMillis", 10_000)
+                        .build())
+                .build();
+        AtomicReference<ComprehensiveTestSuite> suite = new AtomicReference<>();
+        AtomicBoolean interrupted = new AtomicBoolean();
+        Thread caller = new Thread(() -> {
+            suite.set(builder.generateEnhancedTestSuite(endpoints(1).get(0)));
+            interrupted.set(Thread.currentThread().isInterrupted());
+        });
+        caller.start();
+        Thread.sleep(500);
+        caller.interrupt();
+        caller.join(5_000);
+
+        assertFalse(caller.isAlive(), "the interrupt should stop the endpoint");
+        assertTrue(interrupted.get(), "the interrupt status should be kept");
+        assertFalse(suite.get().getTestCases().isEmpty());
+        assertTrue(suite.get().getTestCases().stream().allMatch(test -> test.getTags().contains("fallback")),
+                "an interrupted endpoint should not be finished as if its AI phase had timed out");
+    }
+
+    /**
+     * Batch export endpoints, which the endpoint analysis sends to the AI.
+     */
+    private static List<EndpointInfo> endpoints(int count) {
+        List<EndpointInfo> endpoints = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            endpoints.add(EndpointInfo.builder()
+                    .withMethod("POST")
+                    .withPath("/api/v1/accounts/" + i + "/statements/batch/export")
+                    .withOperationId("exportStatements" + i)
+                    .withSummary("Exports the statements of account " + i)
+                    .withParameter(ParameterInfo.builder().withName("Idempotency-Key").withIn("header")
+                            .withType("string").withRequired(true).build())
+                    .withSecurity("bearer")
+                    .build());
+        }
+        return endpoints;
+    }
+}
@@ -0,0 +1,59 @@
+package org.example.openapi;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.UncheckedIOException;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * How AI call failures are told apart, and which of them are retried or trip the circuit breaker.
+ */
+class TestBuilderAiFailureTest {
+
+    @Test
+    void serverErrorsAndTimeoutsAreRetryable() {
+        for (int status : new int[]{500, 502, 503, 504}) {
+            assertEquals(TestBuilder.AiFailure.ERROR, classify(status));
+            assertTrue(classify(status).isRetryable());
+        }
+        assertEquals(TestBuilder.AiFailure.TIMEOUT, classify(408));
+        assertTrue(classify(408).isRetryable());
+        assertEquals(TestBuilder.AiFailure.THROTTLED, classify(429));
+        assertTrue(classify(429).isRetryable());
+    }
+
+    @Test
+    void clientErrorsAreNotRetryable() {
+        for (int status : new int[]{400, 404, 413, 422}) {
+            assertEquals(TestBuilder.AiFailure.REJECTED, classify(status));
+            assertFalse(classify(status).isRetryable());
+            assertFalse(classify(status).isProviderFault(), "a rejected request says nothing about the provider");
+        }
+    }
+
+    @Test
+    void authErrorsTripTheBreakerButAreNotRetried() {
+        for (int status : new int[]{401, 403}) {
+            assertEquals(TestBuilder.AiFailure.UNAUTHORIZED, classify(status));
+            assertFalse(classify(status).isRetryable());
+            assertTrue(classify(status).isProviderFault());
+        }
+    }
+
+    @Test
+    void failuresWithoutStatusAreClassifiedByCause() {
+        assertEquals(TestBuilder.AiFailure.TIMEOUT, TestBuilder.AiFailure.classify(new SocketTimeoutException("read")));
+        assertEquals(TestBuilder.AiFailure.TIMEOUT, TestBuilder.AiFailure.classify(new TimeoutException()));
+        assertEquals(TestBuilder.AiFailure.ERROR, TestBuilder.AiFailure.classify(new IllegalStateException("broken")));
+        // The status is found below wrappers
+        assertEquals(TestBuilder.AiFailure.THROTTLED, TestBuilder.AiFailure.classify(
+                new UncheckedIOException(new OpenAiStreamingClient.HttpStatusException(429, "1", "slow down"))));
+    }
+
+    private static TestBuilder.AiFailure classify(int status) {
+        return TestBuilder.AiFailure.classify(new OpenAiStreamingClient.HttpStatusException(status, null, "test"));
+    }
+}
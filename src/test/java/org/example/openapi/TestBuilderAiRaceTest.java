@@ -0,0 +1,145 @@
+package org.example.openapi;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Which provider's answer a race or a hedged race keeps.
+ */
+class TestBuilderAiRaceTest {
+
+    private static final String GPT4 = TestBuilder.AiProvider.OPENAI_GPT4.getModelName();
+    private static final String GPT35 = TestBuilder.AiProvider.OPENAI_GPT3_5.getModelName();
+
+    // ===== RACE =====
+
+    @Test
+    void raceKeepsOnlyTheWinnersStreamedTests() throws Exception {
+        // GPT-4 streams its first test at once but is still streaming when GPT-3.5 finishes
+        try (MockOpenAiServer server = MockOpenAiServer.builder()
+                .withChunkInterval(Duration.ofMillis(2))
+                .withModel(GPT4, MockOpenAiServer.Latency.none(), reply("gpt4", 4_000))
+                .withModel(GPT35, MockOpenAiServer.Latency.fixed(Duration.ofMillis(400)), reply("gpt35", 0))
+                .start()) {
+            TestBuilder builder = newBuilder(server, TestBuilder.AiEnsembleMode.RACE);
+
+            List<String> aiTests = aiTestCode(builder.generateTests(endpoints(2), AdvancedStrategyRecommendation.createDefault()));
+
+            assertFalse(aiTests.isEmpty());
+            assertTrue(aiTests.stream().allMatch(code -> code.contains("gpt35") && !code.contains("gpt4")), aiTests.toString());
+            assertEquals(4, server.getRequestCount());
+        }
+    }
+
+    // ===== HEDGED =====
+
+    @Test
+    void hedgedRaceAsksOnlyThePrimaryUntilItsLatencyIsKnown() throws Exception {
+        try (MockOpenAiServer server = MockOpenAiServer.builder()
+                .withModel(GPT4, MockOpenAiServer.Latency.fixed(Duration.ofMillis(20)), reply("gpt4", 0))
+                .withModel(GPT35, MockOpenAiServer.Latency.none(), reply("gpt35", 0))
+                .start()) {
+            TestBuilder builder = newBuilder(server, TestBuilder.AiEnsembleMode.HEDGED);
+
+            List<String> aiTests = aiTestCode(builder.generateTests(endpoints(3), AdvancedStrategyRecommendation.createDefault()));
+
+            assertTrue(aiTests.stream().allMatch(code -> code.contains("gpt4")), aiTests.toString());
+            assertEquals(3, server.getRequestCount());
+            assertEquals(0, builder.getAiLatencyStatistics().getHedgedRequests());
+        }
+    }
+
+    @Test
+    void hedgedRaceAsksTheNextProviderOnceThePrimaryOutlastsItsP95() throws Exception {
+        // GPT-4 answers the warm-up quickly, then stalls
+        AtomicInteger gpt4Requests = new AtomicInteger();
+        MockOpenAiServer.Latency warmThenStall = random ->
+                gpt4Requests.incrementAndGet() <= 20 ? Duration.ofMillis(10) : Duration.ofSeconds(5);
+        try (MockOpenAiServer server = MockOpenAiServer.builder()
+                .withModel(GPT4, warmThenStall, reply("gpt4", 0))
+                .withModel(GPT35, MockOpenAiServer.Latency.none(), reply("gpt35", 0))
+                .start()) {
+            TestBuilder builder = newBuilder(server, TestBuilder.AiEnsembleMode.HEDGED);
+            builder.generateTests(endpoints(20), AdvancedStrategyRecommendation.createDefault());
+            assertEquals(0, builder.getAiLatencyStatistics().getHedgedRequests());
+
+            List<String> aiTests = aiTestCode(builder.generateTests(
+                    List.of(endpoint(20)), AdvancedStrategyRecommendation.createDefault()));
+
+            assertFalse(aiTests.isEmpty());
+            assertTrue(aiTests.stream().allMatch(code -> code.contains("gpt35")), aiTests.toString());
+            assertEquals(1, builder.getAiLatencyStatistics().getHedgedRequests());
+            assertEquals(1, builder.getAiLatencyStatistics().getHedgeWins());
+        }
+    }
+
+    // ===== HELPERS =====
+
+    private static TestBuilder newBuilder(MockOpenAiServer server, TestBuilder.AiEnsembleMode mode) {
+        return new TestBuilder.Builder()
+                .withConfiguration(TestBuilder.TestBuilderConfiguration.builder()
+                        .withStrategy(TestBuilder.TestGenerationStrategy.BASIC)
+                        .withAiProviders(TestBuilder.AiProvider.OPENAI_GPT4, TestBuilder.AiProvider.OPENAI_GPT3_5)
+                        .withAiEnsembleMode(mode)
+                        .withAiStreaming(true)
+                        .withAiEndpoint(server.getBaseUrl(), "test-key")
+                        .withAiCacheDirectory(null)
+                        .build())
+                .build();
+    }
+
+    /**
+     * One test naming the model, followed by {@code padding} characters of prose that keep the
+     * stream open.
+     */
+    private static Function<String, String> reply(String model, int padding) {
+        return prompt -> "```java\n" +
+                "given()\n" +
+                ".when()\n" +
+                "    .get(\"/" + model + "\")\n" +
+                ".then()\n" +
+                "    .statusCode(lessThan(500)); // answered by " + model + "\n" +
+                "```\n" +
+                " ".repeat(padding);
+    }
+
+    private static List<String> aiTestCode(List<GeneratedTestCase> testCases) {
+        List<String> code = new ArrayList<>();
+        for (GeneratedTestCase testCase : testCases) {
+            if (testCase.getTags().contains("ai-generated")) {
+                code.add(testCase.getTestCode());
+            }
+        }
+        return code;
+    }
+
+    private static List<EndpointInfo> endpoints(int count) {
+        List<EndpointInfo> endpoints = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            endpoints.add(endpoint(i));
+        }
+        return endpoints;
+    }
+
+    /**
+     * A batch export endpoint, which the endpoint analysis sends to the AI.
+     */
+    private static EndpointInfo endpoint(int index) {
+        return EndpointInfo.builder()
+                .withMethod("POST")
+                .withPath("/api/v1/accounts/" + index + "/statements/batch/export")
+                .withOperationId("exportStatements" + index)
+                .withSummary("Exports the statements of account " + index)
+                .withParameter(ParameterInfo.builder().withName("Idempotency-Key").withIn("header")
+                        .withType("string").withRequired(true).build())
+                .withSecurity("bearer")
+                .build();
+    }
+}
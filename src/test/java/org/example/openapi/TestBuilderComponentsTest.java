@@ -0,0 +1,53 @@
+package org.example.openapi;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Generation through the component generator registry, which FUNCTIONAL test types enable.
+ */
+class TestBuilderComponentsTest {
+
+    @Test
+    void basicBuilderGeneratesComponentTestsWithoutAi() {
+        TestBuilder builder = TestBuilder.createBasic();
+        List<EndpointInfo> endpoints = List.of(
+                post("/orders", "createOrder"),
+                post("/customers", "createCustomer"),
+                post("/payments", "createPayment"));
+
+        ComprehensiveTestSuite suite = builder.generateComprehensiveTests(endpoints);
+
+        assertFalse(suite.getTestCases().isEmpty(), "component generators should contribute test cases");
+        // The generators that apply to every endpoint ran once per endpoint and contributed
+        Map<String, TestGeneratorRegistry.GeneratorMetrics> metrics = builder.getGeneratorRegistry().getMetrics();
+        for (String generator : List.of("complexity", "endpoint-scenarios")) {
+            assertEquals(endpoints.size(), metrics.get(generator).getRuns(), generator);
+            assertEquals(0, metrics.get(generator).getFailures(), generator);
+        }
+        assertTrue(metrics.values().stream().mapToLong(TestGeneratorRegistry.GeneratorMetrics::getKept).sum() > 0);
+
+        // Component cases carry no estimate; they add nothing instead of failing the plan
+        assertTrue(suite.getTestCases().stream().anyMatch(testCase -> testCase.getEstimatedDuration() == null));
+        long estimatedSeconds = suite.getTestCases().stream()
+                .filter(testCase -> testCase.getEstimatedDuration() != null)
+                .mapToLong(testCase -> testCase.getEstimatedDuration().getSeconds())
+                .sum();
+        // With no estimate at all the plan falls back to its 10-minute default
+        Duration expected = estimatedSeconds > 0 ? Duration.ofSeconds(estimatedSeconds) : Duration.ofMinutes(10);
+        assertEquals(expected, suite.getExecutionPlan().getEstimatedDuration());
+    }
+
+    private static EndpointInfo post(String path, String operationId) {
+        return EndpointInfo.builder()
+                .withMethod("POST")
+                .withPath(path)
+                .withOperationId(operationId)
+                .build();
+    }
+}
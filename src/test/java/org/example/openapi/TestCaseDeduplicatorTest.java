@@ -0,0 +1,149 @@
+package org.example.openapi;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestCaseDeduplicatorTest {
+
+    private static final EndpointInfo USERS = endpoint("/api/users");
+    private static final EndpointInfo ORDERS = endpoint("/api/orders");
+
+    private final TestCaseDeduplicator deduplicator = new TestCaseDeduplicator();
+
+    // ===== NEAR-DUPLICATES =====
+
+    @Test
+    void trivialDifferencesAreDuplicates() {
+        GeneratedTestCase original = testCase("TC-1", USERS, 2, 1, "Send GET request", 200);
+        // Other step numbering, letter case and whitespace
+        GeneratedTestCase copy = GeneratedTestCase.builder()
+                .withTestId("TC-2")
+                .withEndpoint(USERS)
+                .withPriority(2)
+                .withTestSteps(List.of(
+                        new TestStep("setup", "PREPARE  request data", 5),
+                        new TestStep("execute", "send get   request", 6),
+                        new TestStep("verify", "Verify response", 7)))
+                .withAssertions(List.of(new TestAssertion("status_code", "status code matches",
+                        "response.statusCode  equals 200")))
+                .build();
+
+        assertEquals(List.of(original), deduplicator.deduplicate(List.of(original, copy)));
+    }
+
+    @Test
+    void differentValuesAreDifferentTests() {
+        GeneratedTestCase ok = testCase("TC-1", USERS, 2, 1, "Send GET request", 200);
+        GeneratedTestCase notFound = testCase("TC-2", USERS, 2, 1, "Send GET request", 404);
+
+        assertEquals(List.of(ok, notFound), deduplicator.deduplicate(List.of(ok, notFound)));
+    }
+
+    @Test
+    void casesOfDifferentEndpointsAreNeverMerged() {
+        GeneratedTestCase users = testCase("TC-1", USERS, 2, 1, "Send GET request", 200);
+        GeneratedTestCase orders = testCase("TC-2", ORDERS, 2, 1, "Send GET request", 200);
+
+        assertEquals(List.of(users, orders), deduplicator.deduplicate(List.of(users, orders)));
+    }
+
+    @Test
+    void casesWithTooLittleContentAreKept() {
+        GeneratedTestCase first = GeneratedTestCase.builder().withTestId("TC-1").withEndpoint(USERS)
+                .withTestSteps(List.of(new TestStep("EXECUTE", "Send request", 1))).build();
+        GeneratedTestCase second = GeneratedTestCase.builder().withTestId("TC-2").withEndpoint(USERS)
+                .withTestSteps(List.of(new TestStep("EXECUTE", "Send request", 1))).build();
+
+        assertEquals(2, deduplicator.deduplicate(List.of(first, second)).size());
+    }
+
+    // ===== REPRESENTATIVE =====
+
+    @Test
+    void clusterKeepsTheHighestPriorityCase() {
+        GeneratedTestCase minor = testCase("TC-1", USERS, 5, 1, "Send GET request", 200);
+        GeneratedTestCase important = testCase("TC-2", USERS, 1, 1, "Send GET request", 200);
+        GeneratedTestCase middle = testCase("TC-3", USERS, 3, 1, "Send GET request", 200);
+
+        assertEquals(List.of(important), deduplicator.deduplicate(List.of(minor, important, middle)));
+    }
+
+    @Test
+    void equalPriorityKeepsTheMoreComplexCase() {
+        GeneratedTestCase simple = testCase("TC-1", USERS, 2, 1, "Send GET request", 200);
+        GeneratedTestCase complex = testCase("TC-2", USERS, 2, 4, "Send GET request", 200);
+
+        assertEquals(List.of(complex), deduplicator.deduplicate(List.of(simple, complex)));
+    }
+
+    @Test
+    void customPreferenceChoosesTheRepresentative() {
+        GeneratedTestCase first = testCase("TC-1", USERS, 1, 1, "Send GET request", 200);
+        GeneratedTestCase second = testCase("TC-2", USERS, 5, 1, "Send GET request", 200);
+
+        assertEquals(List.of(second), deduplicator.deduplicate(List.of(first, second),
+                Comparator.comparing(GeneratedTestCase::getTestId).reversed()));
+    }
+
+    @Test
+    void keptCasesStayInTheirOriginalOrder() {
+        List<GeneratedTestCase> testCases = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            testCases.add(testCase("TC-" + i, USERS, 5 - i, 1, "Send request " + i, 200 + i));
+        }
+
+        assertEquals(testCases, deduplicator.deduplicate(testCases));
+    }
+
+    // ===== SCALE =====
+
+    @Test
+    void everyCopyIsFoundAmongManyDistinctCases() {
+        int distinct = 300;
+        List<GeneratedTestCase> testCases = new ArrayList<>();
+        for (int copy = 0; copy < 3; copy++) {
+            for (int i = 0; i < distinct; i++) {
+                String action = copy == 0 ? "Send request " + i : "  SEND request " + i;
+                testCases.add(testCase("TC-" + i + "-" + copy, USERS, 1 + copy, 1, action, 200 + i));
+            }
+        }
+
+        List<GeneratedTestCase> kept = deduplicator.deduplicate(testCases);
+
+        assertEquals(distinct, kept.size());
+        assertTrue(kept.stream().allMatch(testCase -> testCase.getTestId().endsWith("-0")));
+    }
+
+    @Test
+    void thresholdMustBeAFraction() {
+        assertThrows(IllegalArgumentException.class, () -> new TestCaseDeduplicator(0.0));
+        assertThrows(IllegalArgumentException.class, () -> new TestCaseDeduplicator(1.5));
+    }
+
+    // ===== HELPERS =====
+
+    private static EndpointInfo endpoint(String path) {
+        return EndpointInfo.builder().withMethod("GET").withPath(path).withOperationId("get" + path).build();
+    }
+
+    private static GeneratedTestCase testCase(String id, EndpointInfo endpoint, int priority, int complexity,
+                                              String action, int status) {
+        return GeneratedTestCase.builder()
+                .withTestId(id)
+                .withEndpoint(endpoint)
+                .withPriority(priority)
+                .withComplexity(complexity)
+                .withTestSteps(List.of(
+                        new TestStep("SETUP", "Prepare request data", 1),
+                        new TestStep("EXECUTE", action, 2),
+                        new TestStep("VERIFY", "Verify response", 3)))
+                .withAssertions(List.of(new TestAssertion("STATUS_CODE", "Status code matches",
+                        "response.statusCode equals " + status)))
+                .build();
+    }
+}
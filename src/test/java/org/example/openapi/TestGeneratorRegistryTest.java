@@ -0,0 +1,250 @@
+package org.example.openapi;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestGeneratorRegistryTest {
+
+    private static final EndpointInfo ENDPOINT = EndpointInfo.builder()
+            .withMethod("GET").withPath("/api/users").withOperationId("getUsers").build();
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(3);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // ===== MERGE =====
+
+    @Test
+    void mergeKeepsTheMoreComplexCaseThenTheEarlierGenerator() {
+        TestGeneratorRegistry registry = new TestGeneratorRegistry(executor, 10)
+                .register(generator("first", testCase("a", 1, 1), testCase("b", 1, 2)))
+                .register(generator("second", testCase("a", 1, 3), testCase("b", 1, 2)));
+
+        TestGeneratorRegistry.GenerationResult result = registry.generate(ENDPOINT);
+
+        assertEquals(List.of("a", "b"), sortedIds(result.getTestCases()));
+        GeneratedTestCase a = find(result.getTestCases(), "a");
+        assertEquals(3, a.getComplexity());
+        assertEquals("second", a.getTestName());
+        assertEquals("first", find(result.getTestCases(), "b").getTestName());
+        for (TestGeneratorRegistry.GeneratorRunStats stats : result.getGeneratorStats()) {
+            assertEquals(2, stats.getProduced(), stats.getGeneratorName());
+            assertEquals(1, stats.getKept(), stats.getGeneratorName());
+        }
+    }
+
+    @Test
+    void resultDoesNotDependOnCompletionOrder() {
+        for (int attempt = 0; attempt < 20; attempt++) {
+            TestGeneratorRegistry registry = new TestGeneratorRegistry(executor, 10)
+                    .register(generator("first", testCase("a", 1, 2)))
+                    .register(slow(generator("second", testCase("a", 1, 2)), attempt % 2 == 0 ? 0 : 5))
+                    .register(generator("third", testCase("a", 1, 2)));
+
+            assertEquals("first", registry.generate(ENDPOINT).getTestCases().get(0).getTestName());
+        }
+    }
+
+    @Test
+    void keepsTheHighestPriorityCasesUpToTheLimit() {
+        TestGeneratorRegistry registry = new TestGeneratorRegistry(executor, 2)
+                .register(generator("cases", testCase("low", 5, 1), testCase("top", 1, 1), testCase("mid", 3, 1)));
+
+        assertEquals(List.of("mid", "top"), sortedIds(registry.generate(ENDPOINT).getTestCases()));
+    }
+
+    // ===== FAILURES AND APPLICABILITY =====
+
+    @Test
+    void failedGeneratorStillContributesWhatItEmitted() {
+        TestGeneratorRegistry registry = new TestGeneratorRegistry(executor, 10)
+                .register(new TestCaseGenerator() {
+                    @Override
+                    public String getName() { return "failing"; }
+
+                    @Override
+                    public void generate(EndpointInfo endpoint, Consumer<GeneratedTestCase> sink) {
+                        sink.accept(testCase("a", 1, 1));
+                        throw new IllegalStateException("generator bug");
+                    }
+                });
+
+        TestGeneratorRegistry.GenerationResult result = registry.generate(ENDPOINT);
+
+        assertEquals(List.of("a"), sortedIds(result.getTestCases()));
+        assertTrue(result.getGeneratorStats().get(0).isFailed());
+        assertEquals(1, registry.getMetrics().get("failing").getFailures());
+    }
+
+    @Test
+    void inapplicableGeneratorsAreNeitherRunNorCounted() {
+        TestGeneratorRegistry registry = new TestGeneratorRegistry(executor, 10)
+                .register(generator("applies", testCase("a", 1, 1)))
+                .register(new TestCaseGenerator() {
+                    @Override
+                    public String getName() { return "skipped"; }
+
+                    @Override
+                    public boolean isApplicable(EndpointInfo endpoint) { return false; }
+
+                    @Override
+                    public void generate(EndpointInfo endpoint, Consumer<GeneratedTestCase> sink) {
+                        fail("an inapplicable generator should not run");
+                    }
+                })
+                .register(new TestCaseGenerator() {
+                    @Override
+                    public String getName() { return "broken-check"; }
+
+                    @Override
+                    public boolean isApplicable(EndpointInfo endpoint) { throw new IllegalStateException("bug"); }
+
+                    @Override
+                    public void generate(EndpointInfo endpoint, Consumer<GeneratedTestCase> sink) {
+                        fail("a generator whose check failed should not run");
+                    }
+                });
+
+        TestGeneratorRegistry.GenerationResult result = registry.generate(ENDPOINT);
+
+        assertEquals(1, result.getGeneratorStats().size());
+        assertEquals(0, registry.getMetrics().get("skipped").getRuns());
+        assertEquals(0, registry.getMetrics().get("broken-check").getRuns());
+    }
+
+    // ===== REGISTRATION =====
+
+    @Test
+    void duplicateNamesAreRejected() {
+        TestGeneratorRegistry registry = new TestGeneratorRegistry(executor, 10)
+                .register(generator("cases", testCase("a", 1, 1)));
+
+        assertThrows(IllegalArgumentException.class, () -> registry.register(generator("cases")));
+    }
+
+    @Test
+    void unregisterRemovesTheGeneratorAndItsMetrics() {
+        TestGeneratorRegistry registry = new TestGeneratorRegistry(executor, 10)
+                .register(generator("kept", testCase("a", 1, 1)))
+                .register(generator("removed", testCase("b", 1, 1)));
+        registry.generate(ENDPOINT);
+
+        assertTrue(registry.unregister("removed"));
+        assertFalse(registry.unregister("removed"));
+
+        assertEquals(List.of("kept"), registry.getGenerators().stream()
+                .map(TestCaseGenerator::getName).collect(Collectors.toList()));
+        assertEquals(List.of("kept"), List.copyOf(registry.getMetrics().keySet()));
+        assertFalse(registry.formatMetricsReport().contains("removed"));
+
+        // Registered again, it starts from scratch
+        registry.register(generator("removed", testCase("b", 1, 1)));
+        assertEquals(0, registry.getMetrics().get("removed").getRuns());
+    }
+
+    // ===== METRICS =====
+
+    @Test
+    void metricsAccumulateAcrossEndpoints() {
+        TestGeneratorRegistry registry = new TestGeneratorRegistry(executor, 10)
+                .register(generator("cases", testCase("a", 1, 1), testCase("b", 1, 1)));
+
+        registry.generate(ENDPOINT);
+        registry.generate(ENDPOINT);
+
+        TestGeneratorRegistry.GeneratorMetrics metrics = registry.getMetrics().get("cases");
+        assertEquals(2, metrics.getRuns());
+        assertEquals(4, metrics.getProduced());
+        assertEquals(4, metrics.getKept());
+        assertEquals(1.0, metrics.getYield());
+    }
+
+    @Test
+    void reportListsTheCostliestGeneratorPerKeptTestFirst() {
+        TestGeneratorRegistry registry = new TestGeneratorRegistry(executor, 10)
+                .register(generator("useful", testCase("a", 1, 5)))
+                // Only loses the merge, so it takes time and contributes nothing
+                .register(slow(generator("wasted", testCase("a", 1, 1)), 5));
+        registry.generate(ENDPOINT);
+
+        String[] lines = registry.formatMetricsReport().split("\n");
+
+        assertEquals("Generator metrics (time per kept test, descending):", lines[0]);
+        assertEquals(3, lines.length);
+        assertTrue(lines[1].trim().startsWith("wasted"), lines[1]);
+        assertTrue(lines[1].contains("produced=1 kept=0 yield=0%"), lines[1]);
+        assertTrue(lines[1].contains("ms/kept=Infinity"), lines[1]);
+        assertTrue(lines[2].trim().startsWith("useful"), lines[2]);
+        assertTrue(lines[2].contains("produced=1 kept=1 yield=100%"), lines[2]);
+    }
+
+    // ===== HELPERS =====
+
+    /**
+     * Emits the given cases, each renamed after the generator so the producer of a kept case is visible.
+     */
+    private static TestCaseGenerator generator(String name, GeneratedTestCase... testCases) {
+        return new TestCaseGenerator() {
+            @Override
+            public String getName() { return name; }
+
+            @Override
+            public void generate(EndpointInfo endpoint, Consumer<GeneratedTestCase> sink) {
+                for (GeneratedTestCase testCase : testCases) {
+                    sink.accept(GeneratedTestCase.builder()
+                            .withTestId(testCase.getTestId())
+                            .withTestName(name)
+                            .withEndpoint(endpoint)
+                            .withPriority(testCase.getPriority())
+                            .withComplexity(testCase.getComplexity())
+                            .withTestSteps(testCase.getTestSteps())
+                            .build());
+                }
+            }
+        };
+    }
+
+    private static TestCaseGenerator slow(TestCaseGenerator generator, long delayMillis) {
+        return new TestCaseGenerator() {
+            @Override
+            public String getName() { return generator.getName(); }
+
+            @Override
+            public void generate(EndpointInfo endpoint, Consumer<GeneratedTestCase> sink) throws Exception {
+                Thread.sleep(delayMillis);
+                generator.generate(endpoint, sink);
+            }
+        };
+    }
+
+    private static GeneratedTestCase testCase(String id, int priority, int complexity) {
+        // Steps unique per id, so distinct ids are never near-duplicates
+        return GeneratedTestCase.builder()
+                .withTestId(id)
+                .withPriority(priority)
+                .withComplexity(complexity)
+                .withTestSteps(List.of(
+                        new TestStep("EXECUTE", "Send request " + id, 1),
+                        new TestStep("VERIFY", "Verify response " + id, 2)))
+                .build();
+    }
+
+    private static GeneratedTestCase find(List<GeneratedTestCase> testCases, String id) {
+        return testCases.stream().filter(testCase -> id.equals(testCase.getTestId())).findFirst().orElseThrow();
+    }
+
+    private static List<String> sortedIds(List<GeneratedTestCase> testCases) {
+        return testCases.stream().map(GeneratedTestCase::getTestId).sorted().collect(Collectors.toList());
+    }
+}
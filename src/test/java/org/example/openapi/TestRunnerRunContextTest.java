@@ -0,0 +1,39 @@
+package org.example.openapi;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs in progress at the same time each keep their own context, and stopping the runner stops
+ * all of them.
+ */
+class TestRunnerRunContextTest {
+
+    @Test
+    void shutdownCancelsEveryRunInProgress() {
+        TestRunner runner = TestRunner.createBasic();
+        CancellationContext first = runner.openRunContext(CancellationContext.background(), "first");
+        CancellationContext second = runner.openRunContext(CancellationContext.background(), "second");
+
+        runner.forceShutdown();
+
+        assertTrue(first.isCancelled(), "the earlier run should not be overwritten by the later one");
+        assertTrue(second.isCancelled());
+        runner.closeRunContext(first);
+        runner.closeRunContext(second);
+    }
+
+    @Test
+    void finishedRunLeavesTheOthersCancellable() {
+        TestRunner runner = TestRunner.createBasic();
+        CancellationContext running = runner.openRunContext(CancellationContext.background(), "running");
+        CancellationContext finished = runner.openRunContext(CancellationContext.background(), "finished");
+        runner.closeRunContext(finished);
+
+        runner.forceShutdown();
+
+        assertTrue(running.isCancelled());
+        runner.closeRunContext(running);
+    }
+}
@@ -0,0 +1,247 @@
+package org.example.openapi;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestSuiteBinaryCodecTest {
+
+    private static final Instant GENERATED_AT = Instant.parse("2025-01-17T10:15:30.123456789Z");
+
+    @TempDir
+    Path directory;
+
+    // ===== ROUND TRIP =====
+
+    @Test
+    void roundTripKeepsEveryField() throws Exception {
+        EndpointInfo endpoint = endpoint();
+        GeneratedTestCase original = testCase("TC-1", endpoint, Map.of("filter", Map.of("b", 2, "a", List.of(1L, 2.5))));
+        original.setExecutionStatus("PASSED");
+        original.setExecutionDuration(Duration.ofMillis(42));
+        original.addMetadata("retries", 2);
+        original.addMetadata("flaky", false);
+        Path file = directory.resolve("suite.oats");
+
+        TestSuiteBinaryCodec.write(suite(List.of(original)), file);
+        ComprehensiveTestSuite read = TestSuiteBinaryCodec.read(file);
+
+        assertEquals("suite-1", read.getSuiteId());
+        assertEquals("exec-1", read.getExecutionId());
+        assertEquals(GENERATED_AT, read.getGenerationTimestamp());
+        assertEquals(1, read.getTestCases().size());
+        GeneratedTestCase copy = read.getTestCases().get(0);
+        assertEquals(original.getTestId(), copy.getTestId());
+        assertEquals(original.getTestName(), copy.getTestName());
+        assertEquals(original.getScenario(), copy.getScenario());
+        assertEquals(original.getStrategyType(), copy.getStrategyType());
+        assertEquals(original.getPriority(), copy.getPriority());
+        assertEquals(original.getComplexity(), copy.getComplexity());
+        assertEquals(original.getEstimatedDuration(), copy.getEstimatedDuration());
+        assertEquals(original.getTags(), copy.getTags());
+        assertEquals(original.getTestCode(), copy.getTestCode());
+        assertEquals("PASSED", copy.getExecutionStatus());
+        assertEquals(Duration.ofMillis(42), copy.getExecutionDuration());
+        assertEquals(2, copy.getMetadata().get("retries"));
+        assertEquals(false, copy.getMetadata().get("flaky"));
+        assertEquals(3, copy.getTestSteps().size());
+        assertEquals("EXECUTE", copy.getTestSteps().get(1).getAction());
+        assertEquals("response.statusCode equals 200", copy.getAssertions().get(0).getCondition());
+
+        // Values keep their type, nested ones included
+        assertEquals(7, copy.getTestData().getData("id"));
+        assertEquals("x".repeat(TestSuiteBinaryCodec.MAX_INTERNED_LENGTH + 1), copy.getTestData().getData("note"));
+        assertEquals(Map.of("a", List.of(1L, 2.5), "b", 2), copy.getTestData().getData("filter"));
+
+        EndpointInfo readEndpoint = copy.getEndpoint();
+        assertEquals("POST", readEndpoint.getMethod());
+        assertEquals("/api/orders/{id}", readEndpoint.getPath());
+        assertEquals(List.of("bearer"), readEndpoint.getSecuritySchemes());
+        assertEquals(EndpointInfo.BusinessCriticality.HIGH, readEndpoint.getBusinessCriticality());
+        assertEquals("id", readEndpoint.getParameters().get(0).getName());
+        assertEquals("path", readEndpoint.getParameters().get(0).getIn());
+    }
+
+    @Test
+    void testCasesOfOneEndpointShareIt() throws Exception {
+        EndpointInfo endpoint = endpoint();
+        Path file = directory.resolve("suite.oats");
+        TestSuiteBinaryCodec.write(suite(List.of(testCase("TC-1", endpoint, Map.of()),
+                testCase("TC-2", endpoint, Map.of()))), file);
+
+        List<GeneratedTestCase> read = TestSuiteBinaryCodec.read(file).getTestCases();
+
+        assertEquals(List.of("TC-1", "TC-2"), List.of(read.get(0).getTestId(), read.get(1).getTestId()));
+        assertSame(read.get(0).getEndpoint(), read.get(1).getEndpoint());
+    }
+
+    @Test
+    void readerStreamsInBatches() throws Exception {
+        EndpointInfo endpoint = endpoint();
+        List<GeneratedTestCase> testCases = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            testCases.add(testCase("TC-" + i, endpoint, Map.of()));
+        }
+        Path file = directory.resolve("suite.oats");
+        TestSuiteBinaryCodec.write(suite(testCases), file);
+
+        try (TestSuiteBinaryCodec.SuiteReader reader = TestSuiteBinaryCodec.openReader(file)) {
+            assertEquals("suite-1", reader.getHeader().getSuiteId());
+            assertEquals(2, reader.nextBatch(2).size());
+            assertEquals(3, reader.nextBatch(10).size());
+            assertTrue(reader.nextBatch(10).isEmpty());
+            assertEquals(5, reader.getReadCount());
+        }
+    }
+
+    // ===== DETERMINISM =====
+
+    @Test
+    void equalSuitesEncodeToEqualBytes() throws Exception {
+        Map<String, Object> forward = new LinkedHashMap<>();
+        forward.put("a", 1);
+        forward.put("b", Map.of("x", 1, "y", 2, "z", 3));
+        Map<String, Object> nestedBackward = new LinkedHashMap<>();
+        nestedBackward.put("z", 3);
+        nestedBackward.put("y", 2);
+        nestedBackward.put("x", 1);
+        Map<String, Object> backward = new LinkedHashMap<>();
+        backward.put("b", nestedBackward);
+        backward.put("a", 1);
+
+        Path first = directory.resolve("first.oats");
+        Path second = directory.resolve("second.oats");
+        TestSuiteBinaryCodec.write(suite(List.of(testCase("TC-1", endpoint(), forward))), first);
+        TestSuiteBinaryCodec.write(suite(List.of(testCase("TC-1", endpoint(), backward))), second);
+
+        assertArrayEquals(Files.readAllBytes(first), Files.readAllBytes(second));
+    }
+
+    // ===== DAMAGED FILES =====
+
+    @Test
+    void truncatedFileIsReported() throws Exception {
+        Path file = directory.resolve("suite.oats");
+        TestSuiteBinaryCodec.write(suite(List.of(testCase("TC-1", endpoint(), Map.of()),
+                testCase("TC-2", endpoint(), Map.of()))), file);
+        byte[] bytes = Files.readAllBytes(file);
+        Path truncated = Files.write(directory.resolve("truncated.oats"), Arrays.copyOf(bytes, bytes.length - 3));
+
+        IOException error = assertThrows(IOException.class, () -> TestSuiteBinaryCodec.read(truncated));
+        assertInstanceOf(EOFException.class, error);
+        assertTrue(error.getMessage().contains("truncated"), error.getMessage());
+    }
+
+    @Test
+    void unfinishedWriterIsReportedAsTruncated() throws Exception {
+        Path file = directory.resolve("suite.oats");
+        TestSuiteBinaryCodec.SuiteWriter writer = TestSuiteBinaryCodec.openWriter(file, header());
+        writer.write(testCase("TC-1", endpoint(), Map.of()));
+        writer.flush();
+
+        try (TestSuiteBinaryCodec.SuiteReader reader = TestSuiteBinaryCodec.openReader(file)) {
+            assertEquals("TC-1", reader.next().getTestId());
+            UncheckedIOException error = assertThrows(UncheckedIOException.class, reader::hasNext);
+            assertTrue(error.getCause().getMessage().contains("after 1 test cases"), error.getCause().getMessage());
+        } finally {
+            writer.close();
+        }
+    }
+
+    @Test
+    void garbledLengthIsRejectedBeforeAllocating() throws Exception {
+        Path file = directory.resolve("suite.oats");
+        TestSuiteBinaryCodec.write(suite(List.of(testCase("TC-1", endpoint(), Map.of()))), file);
+        byte[] bytes = Files.readAllBytes(file);
+        // Header: magic, version, then the suite id as a new string entry with its length
+        int lengthOffset = 4 + 1 + 1;
+        assertEquals("suite-1".length(), bytes[lengthOffset]);
+        byte[] garbled = new byte[bytes.length + 4];
+        System.arraycopy(bytes, 0, garbled, 0, lengthOffset);
+        // A length of 2^31 - 1 as a varint
+        byte[] hugeLength = {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07};
+        System.arraycopy(hugeLength, 0, garbled, lengthOffset, hugeLength.length);
+        System.arraycopy(bytes, lengthOffset + 1, garbled, lengthOffset + hugeLength.length,
+                bytes.length - lengthOffset - 1);
+        Path corrupt = Files.write(directory.resolve("corrupt.oats"), garbled);
+
+        IOException error = assertThrows(IOException.class, () -> TestSuiteBinaryCodec.openReader(corrupt));
+        assertTrue(error.getMessage().contains("exceeds"), error.getMessage());
+    }
+
+    @Test
+    void otherFilesAreRejected() throws Exception {
+        Path file = Files.writeString(directory.resolve("suite.json"), "{\"testCases\": []}");
+
+        IOException error = assertThrows(IOException.class, () -> TestSuiteBinaryCodec.openReader(file));
+        assertEquals("Not a test suite file", error.getMessage());
+    }
+
+    // ===== HELPERS =====
+
+    private static TestSuiteBinaryCodec.SuiteHeader header() {
+        return new TestSuiteBinaryCodec.SuiteHeader("suite-1", "orders", "exec-1", GENERATED_AT);
+    }
+
+    private static ComprehensiveTestSuite suite(List<GeneratedTestCase> testCases) {
+        TestSuiteBinaryCodec.SuiteHeader header = header();
+        return ComprehensiveTestSuite.builder()
+                .withSuiteId(header.getSuiteId())
+                .withDescription(header.getDescription())
+                .withExecutionId(header.getExecutionId())
+                .withGenerationTimestamp(header.getGeneratedAt())
+                .withTestCases(testCases)
+                .build();
+    }
+
+    private static EndpointInfo endpoint() {
+        return EndpointInfo.builder()
+                .withMethod("POST")
+                .withPath("/api/orders/{id}")
+                .withOperationId("updateOrder")
+                .withSummary("Updates an order")
+                .withTag("orders")
+                .withSecurity("bearer")
+                .withBusinessCriticality(EndpointInfo.BusinessCriticality.HIGH)
+                .withParameter(ParameterInfo.builder().withName("id").withIn("path").withType("integer")
+                        .withRequired(true).build())
+                .build();
+    }
+
+    private static GeneratedTestCase testCase(String id, EndpointInfo endpoint, Map<String, Object> extraData) {
+        TestDataSet testData = new TestDataSet();
+        testData.addParameterValue("id", 7);
+        testData.addParameterValue("note", "x".repeat(TestSuiteBinaryCodec.MAX_INTERNED_LENGTH + 1));
+        extraData.forEach(testData::addParameterValue);
+        return GeneratedTestCase.builder()
+                .withTestId(id)
+                .withTestName("update order " + id)
+                .withDescription("Updates an order")
+                .withScenario(TestGenerationScenario.HAPPY_PATH)
+                .withStrategyType(StrategyType.FUNCTIONAL_BASIC)
+                .withEndpoint(endpoint)
+                .withTestSteps(List.of(
+                        new TestStep("SETUP", "Prepare request data", 1),
+                        new TestStep("EXECUTE", "Send POST request", 2),
+                        new TestStep("VERIFY", "Verify response", 3)))
+                .withTestData(testData)
+                .withAssertions(List.of(new TestAssertion("STATUS_CODE", "Status code matches",
+                        "response.statusCode equals 200")))
+                .withPriority(2)
+                .withComplexity(3)
+                .withEstimatedDuration(Duration.ofMillis(150))
+                .withTags(Set.of("generated", "happy_path"))
+                .withTestCode("given().when().post(\"/api/orders/7\").then().statusCode(200);")
+                .build();
+    }
+}
@@ -0,0 +1,53 @@
+package org.example.openapi;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenEstimatorTest {
+
+    @Test
+    void emptyTextCostsNothing() {
+        assertEquals(0, TokenEstimator.estimate(null));
+        assertEquals(0, TokenEstimator.estimate(""));
+    }
+
+    @Test
+    void wordCostsATokenPerFourLetters() {
+        assertEquals(1, TokenEstimator.estimate("test"));
+        assertEquals(2, TokenEstimator.estimate("tests"));
+        assertEquals(5, TokenEstimator.estimate("internationalization"));
+    }
+
+    @Test
+    void numberCostsATokenPerThreeDigits() {
+        assertEquals(1, TokenEstimator.estimate("404"));
+        assertEquals(2, TokenEstimator.estimate("2025"));
+    }
+
+    @Test
+    void eachSymbolCostsAToken() {
+        assertEquals(5, TokenEstimator.estimate("a.b()"));
+        assertEquals(3, TokenEstimator.estimate("{}\""));
+    }
+
+    @Test
+    void singleSpaceIsFoldedIntoTheNextWord() {
+        assertEquals(3, TokenEstimator.estimate("get the user"));
+        // Runs of spaces and other whitespace cost a token of their own
+        assertEquals(3, TokenEstimator.estimate("get  user"));
+        assertEquals(3, TokenEstimator.estimate("get\nuser"));
+        assertEquals(3, TokenEstimator.estimate("get\tuser"));
+    }
+
+    @Test
+    void codeIsEstimatedPieceByPiece() {
+        // "given" and "users" take two tokens each, the twelve other pieces one
+        assertEquals(16, TokenEstimator.estimate("given().get(\"/users/42\");"));
+    }
+
+    @Test
+    void lettersOfEveryScriptCountAsWords() {
+        assertEquals(2, TokenEstimator.estimate("çalışma"));
+    }
+}
@@ -0,0 +1,157 @@
+package org.example.openapi;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TopKSelectorTest {
+
+    private static final int ROUNDS = 500;
+    // Priority order: lower ranks first
+    private static final Comparator<Item> BY_RANK = Comparator.comparingInt(item -> item.rank);
+
+    // ===== AGAINST A FULL SORT =====
+
+    @Test
+    void selectsWhatAStableSortThenLimitSelects() {
+        Random random = new Random(20250101L);
+        for (int round = 0; round < ROUNDS; round++) {
+            List<Item> items = randomItems(random);
+            int limit = random.nextInt(items.size() + 3);
+
+            TopKSelector<Item> selector = new TopKSelector<>(limit, BY_RANK);
+            items.forEach(selector::offer);
+
+            List<Item> sorted = sortThenLimit(items, limit, BY_RANK);
+            String message = "round " + round + ", limit " + limit + ", items " + items;
+            assertEquals(sorted, selector.toSortedList(), message);
+            assertEquals(inOfferOrder(sorted), selector.toList(), message);
+            assertEquals(items.size() > limit, selector.isTruncated(), message);
+            assertEquals(items.size() > limit ? sorted : items, selector.getSelected(), message);
+            assertEquals(items.size(), selector.getOfferedCount(), message);
+        }
+    }
+
+    @Test
+    void selectsByScoreWhatAStableSortByDescendingScoreSelects() {
+        Random random = new Random(20250102L);
+        Comparator<Item> byScore = Comparator.comparingDouble((Item item) -> item.rank).reversed();
+        for (int round = 0; round < ROUNDS; round++) {
+            List<Item> items = randomItems(random);
+            int limit = random.nextInt(items.size() + 3);
+
+            TopKSelector<Item> selector = TopKSelector.byScore(limit, item -> item.rank);
+            items.forEach(selector::offer);
+
+            assertEquals(sortThenLimit(items, limit, byScore), selector.toSortedList(),
+                    "round " + round + ", limit " + limit + ", items " + items);
+        }
+    }
+
+    @Test
+    void canAcceptPredictsWhetherTheOfferIsRetained() {
+        Random random = new Random(20250103L);
+        for (int round = 0; round < ROUNDS; round++) {
+            List<Item> items = randomItems(random);
+            int limit = random.nextInt(items.size() + 3);
+            TopKSelector<Item> selector = new TopKSelector<>(limit, BY_RANK);
+
+            for (Item item : items) {
+                boolean predicted = selector.canAccept(item);
+                assertEquals(predicted, selector.offer(item), "round " + round + ", limit " + limit + ", item " + item);
+            }
+        }
+    }
+
+    @Test
+    void skippingWhatCannotBeAcceptedSelectsTheSame() {
+        Random random = new Random(20250104L);
+        for (int round = 0; round < ROUNDS; round++) {
+            List<Item> items = randomItems(random);
+            int limit = random.nextInt(items.size() + 3);
+            TopKSelector<Item> offered = new TopKSelector<>(limit, BY_RANK);
+            TopKSelector<Item> skipping = new TopKSelector<>(limit, BY_RANK);
+
+            for (Item item : items) {
+                offered.offer(item);
+                if (skipping.canAccept(item)) {
+                    skipping.offer(item);
+                } else {
+                    skipping.recordSkipped();
+                }
+            }
+
+            String message = "round " + round + ", limit " + limit + ", items " + items;
+            assertEquals(offered.getSelected(), skipping.getSelected(), message);
+            assertEquals(offered.isTruncated(), skipping.isTruncated(), message);
+        }
+    }
+
+    // ===== EDGES =====
+
+    @Test
+    void zeroLimitRetainsNothing() {
+        TopKSelector<Item> selector = new TopKSelector<>(0, BY_RANK);
+
+        assertFalse(selector.offer(new Item(0, 1)));
+        assertFalse(selector.canAccept(new Item(1, 0)));
+        assertTrue(selector.getSelected().isEmpty());
+        assertTrue(selector.isTruncated());
+        assertNull(selector.peekWorst());
+    }
+
+    @Test
+    void negativeLimitIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new TopKSelector<>(-1, BY_RANK));
+    }
+
+    // ===== HELPERS =====
+
+    /**
+     * Up to 40 items with ranks from a small range, so that many of them tie.
+     */
+    private static List<Item> randomItems(Random random) {
+        int count = random.nextInt(41);
+        int ranks = 1 + random.nextInt(10);
+        List<Item> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(new Item(i, random.nextInt(ranks)));
+        }
+        return items;
+    }
+
+    private static List<Item> sortThenLimit(List<Item> items, int limit, Comparator<Item> order) {
+        // List.sort is stable
+        List<Item> sorted = new ArrayList<>(items);
+        sorted.sort(order);
+        return new ArrayList<>(sorted.subList(0, Math.min(limit, sorted.size())));
+    }
+
+    private static List<Item> inOfferOrder(List<Item> items) {
+        return items.stream().sorted(Comparator.comparingInt(item -> item.id)).collect(Collectors.toList());
+    }
+
+    /**
+     * A candidate told apart from its ties by the order it was created in.
+     */
+    private static final class Item {
+        private final int id;
+        private final int rank;
+
+        Item(int id, int rank) {
+            this.id = id;
+            this.rank = rank;
+        }
+
+        @Override
+        public String toString() {
+            return id + ":" + rank;
+        }
+    }
+}